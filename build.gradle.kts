@@ -195,6 +195,9 @@ tasks {
         // never in the developer's real home directory.
         val isolatedHome = layout.buildDirectory.dir("test-home")
         systemProperty("user.home", isolatedHome.get().asFile.absolutePath)
+        // The shared diagram cache is written by every documentation/PDF/Word export test; keep it
+        // in its own directory under build/ that is wiped with the test home.
+        systemProperty("fxt.diagramCache.dir", isolatedHome.get().dir("diagram-cache").asFile.absolutePath)
         // No network access from schema parsing in tests: the namespace-URL import
         // fallback (XsdNodeFactory) would otherwise try to download schemas for every
         // unresolvable http-namespace import (e.g. xmldsig in FundsXML fixtures).
@@ -515,10 +518,12 @@ fun createZipTask(jpackageTaskName: String, platform: String, arch: String): Str
         return zipTaskName
     }
     
+    val startupArchiveTaskName = createStartupArchiveTask(jpackageTaskName, platform, arch)
+
     tasks.register<Zip>(zipTaskName) {
         group = "distribution"
         description = "Create ZIP archive for $platform-$arch app-image"
-        dependsOn(jpackageTaskName)
+        dependsOn(jpackageTaskName, startupArchiveTaskName)
 
         val sourceDir = "build/dist/$platform-$arch-app-image"
         val zipFileName = "FreeXmlToolkit-$platform-$arch-app-image-${project.version}.zip"
@@ -554,6 +559,216 @@ fun createZipTask(jpackageTaskName: String, platform: String, arch: String): Str
     return zipTaskName
 }
 
+// ----------------------------------------------------------------------
+// Startup archive (AOT cache) for the app-image
+// ----------------------------------------------------------------------
+// A training launch of the packaged app-image opens sample XML/XSD/XSLT files, lets
+// the background warm-up validate and transform, and exits. The JVM records the
+// classes it loaded, and a second launch turns the recording into an AOT cache
+// (JEP 483) that is shipped in the app directory and enabled in the launcher's .cfg.
+// Later launches map the cache instead of loading, parsing and verifying the
+// Saxon/Xerces/POI/FOP/Batik/JavaFX/RichTextFX classes again.
+//
+// Both steps run through the native launcher, so the cache matches the bundled
+// runtime, class path and JVM options exactly (the jlink runtime has no bin/java).
+// The training launch needs a display (use xvfb-run on headless Linux); if it fails,
+// the app-image ships without a cache. Disable with -PstartupArchive=false and
+// compare cold start with and without the cache on the host platform with e.g.:
+//   ./gradlew createLinuxAppImageX64StartupArchive benchmarkColdStart [-PcoldStartRuns=5]
+// (the ZIP task deletes the app-image directory, so benchmark before zipping)
+val startupArchiveEnabled = (findProperty("startupArchive") as String?)?.toBoolean() ?: true
+val startupArchiveName = "FreeXmlToolkit.aot"
+val startupTrainingFiles = listOf(
+    "release/examples/xml/FundsXML4_Equity_Fund.xml",
+    "release/examples/xsd/purchageOrder.xsd",
+    "release/examples/xslt/Basic_Checks.xslt"
+)
+
+// Locates the launcher configuration inside an app-image directory
+fun findLauncherConfig(appImageDir: File): File? =
+    appImageDir.walkTopDown().firstOrNull { it.isFile && it.name == "FreeXmlToolkit.cfg" }
+
+// Returns the native launcher that reads the given .cfg file
+fun launcherFor(config: File, platform: String): File = when (platform) {
+    "windows" -> File(config.parentFile.parentFile, "FreeXmlToolkit.exe")       // <root>/app/FreeXmlToolkit.cfg
+    "macos" -> File(config.parentFile.parentFile, "MacOS/FreeXmlToolkit")       // Contents/app/FreeXmlToolkit.cfg
+    else -> File(config.parentFile.parentFile.parentFile, "bin/FreeXmlToolkit")  // <root>/lib/app/FreeXmlToolkit.cfg
+}
+
+// Adds java-options entries to the [JavaOptions] section of a launcher .cfg
+fun withJavaOptions(configText: String, options: List<String>): String {
+    val eol = if (configText.contains("\r\n")) "\r\n" else "\n"
+    val lines = configText.split(eol).toMutableList()
+    var section = lines.indexOfFirst { it.trim() == "[JavaOptions]" }
+    if (section < 0) {
+        lines.addAll(listOf("", "[JavaOptions]"))
+        section = lines.size - 1
+    }
+    lines.addAll(section + 1, options.map { "java-options=$it" })
+    return lines.joinToString(eol)
+}
+
+// Runs the app-image launcher once with extra JVM options (injected into its .cfg for
+// the duration of the run). Returns the exit code, or null if the run timed out.
+fun runAppImage(config: File, platform: String, options: List<String>, args: List<String>,
+                logFile: File, timeoutSeconds: Long): Int? {
+    val original = config.readText()
+    config.writeText(withJavaOptions(original, options))
+    try {
+        logFile.parentFile.mkdirs()
+        val process = ProcessBuilder(listOf(launcherFor(config, platform).absolutePath) + args)
+            .redirectErrorStream(true)
+            .redirectOutput(logFile)
+            .start()
+        if (!process.waitFor(timeoutSeconds, java.util.concurrent.TimeUnit.SECONDS)) {
+            process.descendants().forEach { it.destroyForcibly() }
+            process.destroyForcibly()
+            return null
+        }
+        return process.exitValue()
+    } finally {
+        config.writeText(original)
+    }
+}
+
+// Helper function to create the training/AOT cache task for an app-image
+fun createStartupArchiveTask(appImageTaskName: String, platform: String, arch: String): String {
+    val taskName = "${appImageTaskName}StartupArchive"
+    tasks.register(taskName) {
+        group = "distribution"
+        description = "Create the startup AOT cache for the $platform-$arch app-image with a training launch"
+        dependsOn(appImageTaskName)
+        onlyIf("startupArchive is enabled") { startupArchiveEnabled }
+
+        doLast {
+            val appImageDir = file("build/dist/$platform-$arch-app-image")
+            val config = findLauncherConfig(appImageDir)
+                ?: throw GradleException("Launcher configuration not found under $appImageDir")
+            if (platform == "linux" && System.getenv("DISPLAY") == null && System.getenv("WAYLAND_DISPLAY") == null) {
+                println("⚠️ No display available, skipping the startup archive (run the build with xvfb-run to create it)")
+                return@doLast
+            }
+
+            val workDir = project.layout.buildDirectory.dir("startup-archive/$platform-$arch").get().asFile
+            delete(workDir)
+            workDir.mkdirs()
+            val home = File(workDir, "home").absolutePath  // keeps the build user's settings untouched
+            val recording = File(workDir, "FreeXmlToolkit.aotconf")
+            val archive = File(config.parentFile, startupArchiveName)
+            delete(archive)
+
+            // The cache is only used if the class path jars are unchanged. The ZIP stores
+            // modification times with two-second precision, so round them up front.
+            appImageDir.walkTopDown().filter { it.isFile }.forEach {
+                it.setLastModified(it.lastModified() / 2000 * 2000)
+            }
+
+            val trainingFiles = startupTrainingFiles.map { file(it) }.filter { it.exists() }.map { it.absolutePath }
+            println("🏋️ Training launch with ${trainingFiles.joinToString { File(it).name }}")
+            val recordExit = runAppImage(config, platform,
+                listOf("-XX:AOTMode=record", "-XX:AOTConfiguration=${recording.absolutePath}",
+                    "-Dfxt.startup.training=true", "-Duser.home=$home"),
+                trainingFiles, File(workDir, "training.log"), 300)
+            val createExit = if (recordExit == 0 && recording.exists()) {
+                runAppImage(config, platform,
+                    listOf("-XX:AOTMode=create", "-XX:AOTConfiguration=${recording.absolutePath}",
+                        "-XX:AOTCache=${archive.absolutePath}", "-Duser.home=$home"),
+                    emptyList(), File(workDir, "create.log"), 300)
+            } else {
+                null
+            }
+            if (createExit != 0 || !archive.exists()) {
+                delete(archive)
+                println("⚠️ Startup archive not created (training exit code $recordExit, create exit code $createExit)")
+                println("   Shipping the app-image without it; see the logs in ${workDir.absolutePath}")
+                return@doLast
+            }
+
+            config.writeText(withJavaOptions(config.readText(), listOf("-XX:AOTCache=${'$'}APPDIR/$startupArchiveName")))
+            archive.setLastModified(System.currentTimeMillis() / 2000 * 2000)
+            println("✅ Startup archive created: ${archive.absolutePath} (${archive.length() / (1024 * 1024)} MB)")
+
+            // Adding files to the bundle invalidates the ad-hoc signature jpackage applied
+            if (platform == "macos") {
+                val appBundle = config.parentFile.parentFile.parentFile
+                ProcessBuilder("codesign", "--force", "--deep", "--sign", "-", appBundle.absolutePath)
+                    .inheritIO().start().waitFor()
+            }
+        }
+    }
+    return taskName
+}
+
+// Measures cold start of the host app-image with and without its startup archive.
+// Each launch exits after the first rendered frame; the first launch of each series is
+// discarded so both series run with a warm OS file cache.
+tasks.register("benchmarkColdStart") {
+    group = "verification"
+    description = "Compare cold start of the host app-image with and without the startup AOT cache"
+    mustRunAfter(tasks.matching { it.name.endsWith("StartupArchive") })
+
+    doLast {
+        val os = when {
+            System.getProperty("os.name").lowercase().contains("windows") -> "windows"
+            System.getProperty("os.name").lowercase().contains("mac") -> "macos"
+            else -> "linux"
+        }
+        val arch = when {
+            System.getProperty("os.arch").contains("aarch64") || System.getProperty("os.arch").contains("arm") -> "arm64"
+            else -> "x64"
+        }
+        val appImageDir = file("build/dist/$os-$arch-app-image")
+        val config = findLauncherConfig(appImageDir)
+            ?: throw GradleException("No app-image found under $appImageDir; run the app-image StartupArchive task first")
+        val archive = File(config.parentFile, startupArchiveName)
+        if (!archive.exists()) {
+            throw GradleException("No startup archive in the app-image: ${archive.absolutePath}")
+        }
+
+        val runs = (findProperty("coldStartRuns") as String?)?.toInt() ?: 5
+        val workDir = project.layout.buildDirectory.dir("startup-archive/benchmark").get().asFile
+        delete(workDir)
+        val options = listOf("-Dfxt.startup.exitAfterFirstFrame=true", "-Duser.home=${File(workDir, "home").absolutePath}")
+        val firstFramePattern = Regex("fxt\\.startup\\.firstFrameMillis=(\\d+)")
+
+        fun median(values: List<Long>): Long = values.sorted().let { if (it.isEmpty()) -1 else it[it.size / 2] }
+
+        // Returns the median time to first frame and the median process run time
+        fun measure(label: String): Pair<Long, Long> {
+            val firstFrame = mutableListOf<Long>()
+            val total = mutableListOf<Long>()
+            for (run in 0..runs) {
+                val log = File(workDir, "$label-$run.log")
+                val start = System.nanoTime()
+                val exit = runAppImage(config, os, options, emptyList(), log, 120)
+                val elapsed = (System.nanoTime() - start) / 1_000_000
+                if (exit != 0) {
+                    throw GradleException("Benchmark launch failed (exit code $exit), see $log")
+                }
+                if (run > 0) {
+                    total.add(elapsed)
+                    firstFramePattern.find(log.readText())?.let { firstFrame.add(it.groupValues[1].toLong()) }
+                }
+            }
+            return median(firstFrame) to median(total)
+        }
+
+        val withArchive = measure("with-archive")
+        val disabled = File(archive.parentFile, "$startupArchiveName.disabled")
+        val withoutArchive = try {
+            archive.renameTo(disabled)
+            measure("without-archive")
+        } finally {
+            disabled.renameTo(archive)
+        }
+
+        println("Cold start of $os-$arch app-image, median of $runs launches:")
+        println(String.format("  %-24s %12s %12s", "", "first frame", "process"))
+        println(String.format("  %-24s %9d ms %9d ms", "with startup archive", withArchive.first, withArchive.second))
+        println(String.format("  %-24s %9d ms %9d ms", "without startup archive", withoutArchive.first, withoutArchive.second))
+    }
+}
+
 // Helper function to create platform-specific jpackage tasks
 fun createJPackageTask(taskName: String, platform: String, arch: String, packageType: String) {
     val currentOs = when {
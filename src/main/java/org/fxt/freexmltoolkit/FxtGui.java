@@ -24,7 +24,6 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Objects;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import javafx.animation.FadeTransition;
@@ -44,6 +43,8 @@ import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.core.LoggerContext;
 import org.fxt.freexmltoolkit.app.SplashScreen;
 import org.fxt.freexmltoolkit.app.SplashScreen.LoadingStep;
+import org.fxt.freexmltoolkit.app.StartupTrace;
+import org.fxt.freexmltoolkit.app.StartupWarmup;
 import org.fxt.freexmltoolkit.di.ServiceRegistry;
 import org.fxt.freexmltoolkit.service.PropertiesService;
 import org.fxt.freexmltoolkit.service.PropertiesServiceImpl;
@@ -86,25 +87,22 @@ public class FxtGui extends Application {
     }
 
     private static final Logger logger = LogManager.getLogger(FxtGui.class);
+    /** Startup measurements read by the benchmarkColdStart build task; enabled at INFO in log4j2.xml. */
+    private static final Logger startupLogger = LogManager.getLogger("fxt.startup");
 
     static {
         configureLogging();
     }
 
-    private static final java.util.concurrent.atomic.AtomicInteger threadCounter = new java.util.concurrent.atomic.AtomicInteger(1);
-
     /**
      * Global executor service for background tasks.
+     * <p>
+     * Backed by the shared I/O pool of {@link ThreadPoolManager} (virtual threads);
+     * at most one task per CPU core runs at the same time, as with the fixed pool
+     * this used to be.
      */
-    public static final ExecutorService executorService = Executors.newFixedThreadPool(
-            Runtime.getRuntime().availableProcessors(),
-            runnable -> {
-                Thread t = new Thread(runnable);
-                t.setDaemon(true);
-                t.setName("FxtGui-Worker-" + threadCounter.getAndIncrement());
-                return t;
-            }
-    );
+    public static final ExecutorService executorService = ThreadPoolManager.getInstance().newExecutor(
+            "FxtGui-Worker", ThreadPoolManager.TaskCategory.IO, Runtime.getRuntime().availableProcessors());
 
     static final String APP_ICON_PATH = "img/logo.png";
 
@@ -139,25 +137,33 @@ public class FxtGui extends Application {
         // Enable NTLM proxy authentication and install SOCKS→HTTP proxy conversion
         // IMPORTANT: This MUST be called BEFORE ServiceRegistry.initialize() because
         // lazy service creation via ServiceRegistry.get() could trigger HTTP requests
-        logger.info("Enabling NTLM proxy authentication...");
-        SystemProxyDetector.enableNtlmAuthentication();
-        
-        // Detect and set global proxy properties for WebEngine compatibility
-        SystemProxyDetector.detectSystemProxy().ifPresent(config -> {
-            SystemProxyDetector.configureProxyForWebEngine(config.host(), config.port());
-        });
-        
-        logger.info("NTLM proxy authentication enabled");
+        try (StartupTrace.Phase ignored = StartupTrace.begin("init: proxy setup")) {
+            logger.info("Enabling NTLM proxy authentication...");
+            SystemProxyDetector.enableNtlmAuthentication();
+
+            // Detect and set global proxy properties for WebEngine compatibility
+            SystemProxyDetector.detectSystemProxy().ifPresent(config -> {
+                SystemProxyDetector.configureProxyForWebEngine(config.host(), config.port());
+            });
+
+            logger.info("NTLM proxy authentication enabled");
+        }
 
+        // Only registers factories; services are created on first use
         logger.info("Initializing service registry...");
-        ServiceRegistry.initialize();
+        try (StartupTrace.Phase ignored = StartupTrace.begin("init: service registry")) {
+            ServiceRegistry.initialize();
+        }
         logger.info("Service registry initialization complete");
 
         // Register custom XSD type icons
         logger.info("Registering XSD type icons...");
-        org.fxt.freexmltoolkit.controls.v2.view.XsdTypeIconPaths.registerAll();
+        try (StartupTrace.Phase ignored = StartupTrace.begin("init: XSD type icons")) {
+            org.fxt.freexmltoolkit.controls.v2.view.XsdTypeIconPaths.registerAll();
+        }
 
         registerOpenFileHandler();
+        StartupTrace.mark("init done");
     }
 
     /**
@@ -242,9 +248,13 @@ public class FxtGui extends Application {
     @Override
     public void start(Stage primaryStage) {
         startWatch.start();
+        StartupTrace.mark("start");
 
         SplashScreen splash = new SplashScreen();
-        splash.show();
+        StartupTrace.trace("start: splash screen", () -> {
+            splash.show();
+            return null;
+        });
         splash.updateProgress(LoadingStep.INITIALIZING);
 
         loadFontsAsync();
@@ -256,20 +266,29 @@ public class FxtGui extends Application {
                 splash.updateProgress(LoadingStep.LOADING_UI);
 
                 FXMLLoader loader = new FXMLLoader(getClass().getResource("/pages/tab_unified_shell.fxml"));
-                Parent root = loader.load();
+                Parent root;
+                try (StartupTrace.Phase ignored = StartupTrace.begin("start: load main FXML")) {
+                    root = loader.load();
+                }
                 org.fxt.freexmltoolkit.controller.UnifiedShellController shellController =
                         loader.getController();
 
                 splash.updateProgress(LoadingStep.CONFIGURING);
 
-                var scene = new Scene(root, 1024, 768);
-
-                org.fxt.freexmltoolkit.controls.shell.ThemeManager.apply(scene,
-                        org.fxt.freexmltoolkit.controls.shell.ThemeManager.currentIsDark());
+                var scene = StartupTrace.trace("start: scene and theme", () -> {
+                    var mainScene = new Scene(root, 1024, 768);
+                    org.fxt.freexmltoolkit.controls.shell.ThemeManager.apply(mainScene,
+                            org.fxt.freexmltoolkit.controls.shell.ThemeManager.currentIsDark());
+                    return mainScene;
+                });
 
-                setupTaskbarIcons(primaryStage);
+                try (StartupTrace.Phase ignored = StartupTrace.begin("start: taskbar icons")) {
+                    setupTaskbarIcons(primaryStage);
+                }
 
-                CSSFX.start();
+                try (StartupTrace.Phase ignored = StartupTrace.begin("start: CSSFX")) {
+                    CSSFX.start();
+                }
 
                 primaryStage.setScene(scene);
                 primaryStage.setMaximized(true);
@@ -277,7 +296,10 @@ public class FxtGui extends Application {
 
                 // Show main window fully transparent, then fade in after splash dismissal
                 primaryStage.setOpacity(0);
-                primaryStage.show();
+                try (StartupTrace.Phase ignored = StartupTrace.begin("start: show main window")) {
+                    primaryStage.show();
+                }
+                markFirstFrame(scene);
 
                 splash.updateProgress(LoadingStep.READY);
 
@@ -295,6 +317,10 @@ public class FxtGui extends Application {
                     // arrive as plain program args) into the editor.
                     StartupFileOpener.setConsumer(shellController.getShellView()::openFile);
                     StartupFileOpener.enqueueRawArgs(getParameters().getRaw());
+
+                    // Window is visible: initialise the rest in the background
+                    StartupTrace.mark("main window visible");
+                    StartupWarmup.start();
                 }));
                 readyPause.play();
 
@@ -304,6 +330,7 @@ public class FxtGui extends Application {
             } catch (IOException e) {
                 logger.error("Failed to load main UI", e);
                 splash.dismiss(null);
+                StartupTrace.stop();
             }
         });
     }
@@ -331,18 +358,47 @@ public class FxtGui extends Application {
         }
     }
 
+    /**
+     * Records the first rendered frame of the main window as a startup milestone.
+     *
+     * <p>With {@code -Dfxt.startup.exitAfterFirstFrame=true} the time to the first
+     * frame is logged to the console and the application exits; the build's
+     * {@code benchmarkColdStart} task uses this to measure cold start.</p>
+     *
+     * @param scene the main scene
+     */
+    private void markFirstFrame(Scene scene) {
+        boolean exitAfterFirstFrame = Boolean.getBoolean("fxt.startup.exitAfterFirstFrame");
+        if (!StartupTrace.isActive() && !exitAfterFirstFrame) {
+            return;
+        }
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            StartupTrace.mark("first frame");
+            StartupTrace.logMilestone("first frame");
+            if (exitAfterFirstFrame) {
+                startupLogger.info("fxt.startup.firstFrameMillis={}", StartupTrace.milestoneMillis("first frame"));
+                Platform.runLater(Platform::exit);
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
     /**
      * Starts the usage tracking session asynchronously.
      */
     private void startUsageTracking() {
-        try {
-            UsageTrackingService trackingService = ServiceRegistry.get(UsageTrackingService.class);
-            if (trackingService != null) {
-                trackingService.startSession();
+        executorService.submit(() -> {
+            try (StartupTrace.Phase ignored = StartupTrace.begin("usage tracking session")) {
+                UsageTrackingService trackingService = ServiceRegistry.get(UsageTrackingService.class);
+                if (trackingService != null) {
+                    trackingService.startSession();
+                }
+            } catch (Exception e) {
+                logger.debug("Usage tracking not available: {}", e.getMessage());
             }
-        } catch (Exception e) {
-            logger.debug("Usage tracking not available: {}", e.getMessage());
-        }
+        });
     }
 
     /**
@@ -464,6 +520,20 @@ public class FxtGui extends Application {
         logger.debug("Duration: {}", currentDuration);
         logger.debug("Duration overall: {}", newSeconds);
 
+        // Stop watching the workspace; its catalogue is written with the other state files below
+        try {
+            org.fxt.freexmltoolkit.service.WorkspaceIndex.closeAll();
+        } catch (Throwable t) {
+            logger.warn("Error closing the workspace index: {}", t.getMessage());
+        }
+
+        // Write all pending settings and state files before the JVM goes down
+        try {
+            org.fxt.freexmltoolkit.service.WriteBehindStore.getInstance().shutdown();
+        } catch (Throwable t) {
+            logger.warn("Error flushing pending settings: {}", t.getMessage());
+        }
+
         // Force exit to ensure JVM terminates even if non-daemon threads remain
         // (e.g., from JavaFX WebView/WebKit or other third-party libraries)
         logger.info("Forcing JVM exit after successful cleanup");
@@ -504,8 +574,12 @@ public class FxtGui extends Application {
      * @param args command line arguments
      */
     public static void main(String[] args) {
+        StartupTrace.mark("main");
+
         // Enable hardware acceleration for JavaFX rendering
-        configureHardwareAcceleration();
+        try (StartupTrace.Phase ignored = StartupTrace.begin("main: rendering pipeline")) {
+            configureHardwareAcceleration();
+        }
 
         launch(args);
     }
@@ -0,0 +1,224 @@
+package org.fxt.freexmltoolkit.app;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.service.WriteBehindStore;
+
+/**
+ * Records how long the phases of application startup take.
+ *
+ * <p>Startup code wraps its steps in {@link #begin(String)} (or
+ * {@link #trace(String, Supplier)}) and marks milestones with {@link #mark(String)};
+ * {@link org.fxt.freexmltoolkit.di.ServiceRegistry} traces every service factory it
+ * runs. Times are measured from JVM start. {@link #writeReport()} writes the
+ * phases, sorted by start time, to {@code ~/.freeXmlToolkit/startup-trace.txt} and
+ * logs the time to the first frame.</p>
+ *
+ * <p>Recording stops with {@link #stop()}, after the background warm-up, so the
+ * tracer costs nothing once the application is running. Tracing can be disabled
+ * with {@code -Dfxt.startup.trace=false}.</p>
+ */
+public final class StartupTrace {
+
+    private static final Logger logger = LogManager.getLogger(StartupTrace.class);
+
+    private static final String REPORT_FILE = "startup-trace.txt";
+
+    /** Wall-clock time and monotonic time captured together when tracing started. */
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final Instant ORIGIN_INSTANT = Instant.now();
+
+    private static final List<Entry> entries = new ArrayList<>();
+    private static volatile boolean active = !"false".equalsIgnoreCase(System.getProperty("fxt.startup.trace"));
+
+    /**
+     * One traced phase. Milestones have a duration of zero.
+     *
+     * @param name        the phase name
+     * @param thread      the thread that ran the phase
+     * @param startNanos  start, relative to the start of tracing
+     * @param durationNanos how long the phase took
+     * @param milestone   true for {@link #mark(String)} entries
+     */
+    public record Entry(String name, String thread, long startNanos, long durationNanos, boolean milestone) {
+    }
+
+    /**
+     * An open phase; closing it records the entry.
+     */
+    public interface Phase extends AutoCloseable {
+
+        /** Phase returned while tracing is inactive. */
+        Phase NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    private StartupTrace() {
+    }
+
+    /**
+     * Checks whether phases are currently recorded.
+     *
+     * @return true during startup
+     */
+    public static boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Opens a phase. Use with try-with-resources.
+     *
+     * @param name the phase name
+     * @return the phase to close when the step is done
+     */
+    public static Phase begin(String name) {
+        if (!active) {
+            return Phase.NONE;
+        }
+        long start = System.nanoTime();
+        String thread = Thread.currentThread().getName();
+        return () -> record(new Entry(name, thread, start - ORIGIN_NANOS, System.nanoTime() - start, false));
+    }
+
+    /**
+     * Runs a step as a phase.
+     *
+     * @param name the phase name
+     * @param step the step
+     * @param <T>  the result type
+     * @return the result of the step
+     */
+    public static <T> T trace(String name, Supplier<T> step) {
+        try (Phase ignored = begin(name)) {
+            return step.get();
+        }
+    }
+
+    /**
+     * Records a milestone.
+     *
+     * @param name the milestone name
+     */
+    public static void mark(String name) {
+        if (active) {
+            record(new Entry(name, Thread.currentThread().getName(), System.nanoTime() - ORIGIN_NANOS, 0, true));
+        }
+    }
+
+    /**
+     * Returns the entries recorded so far, sorted by start time.
+     *
+     * @return a snapshot of the entries
+     */
+    public static List<Entry> entries() {
+        synchronized (entries) {
+            List<Entry> copy = new ArrayList<>(entries);
+            copy.sort(Comparator.comparingLong(Entry::startNanos));
+            return copy;
+        }
+    }
+
+    /**
+     * Stops recording. Entries recorded so far are kept for the report.
+     */
+    public static void stop() {
+        active = false;
+    }
+
+    /**
+     * Formats the recorded phases. Offsets are relative to JVM start when the
+     * process start time is known, otherwise to the start of tracing.
+     *
+     * @return the report text
+     */
+    public static String report() {
+        long originOffset = jvmStartOffsetNanos();
+        StringBuilder report = new StringBuilder();
+        report.append("FreeXMLToolkit startup trace, ").append(ORIGIN_INSTANT).append('\n');
+        report.append(originOffset > 0 ? "Offsets from JVM start" : "Offsets from first traced class")
+                .append(", durations in ms\n\n");
+        report.append(String.format(Locale.ROOT, "%10s %10s  %-28s %s%n", "start", "duration", "thread", "phase"));
+        for (Entry entry : entries()) {
+            report.append(String.format(Locale.ROOT, "%10.1f %10s  %-28s %s%n",
+                    (originOffset + entry.startNanos()) / 1_000_000.0,
+                    entry.milestone() ? "-" : String.format(Locale.ROOT, "%.1f", entry.durationNanos() / 1_000_000.0),
+                    entry.thread(), entry.name()));
+        }
+        return report.toString();
+    }
+
+    /**
+     * Writes the report to the user's configuration directory (in the background)
+     * and logs it at debug level.
+     */
+    public static void writeReport() {
+        String report = report();
+        Path file = Path.of(System.getProperty("user.home"), ".freeXmlToolkit", REPORT_FILE);
+        WriteBehindStore.getInstance().schedule(file, report);
+        logger.debug("Startup trace:\n{}", report);
+    }
+
+    /**
+     * Logs the time from JVM start to a milestone.
+     *
+     * @param milestone the milestone name passed to {@link #mark(String)}
+     */
+    public static void logMilestone(String milestone) {
+        long millis = milestoneMillis(milestone);
+        if (millis >= 0) {
+            logger.info("Startup: '{}' after {} ms", milestone, millis);
+        }
+    }
+
+    /**
+     * Returns the time from JVM start (or from the start of tracing, if the process
+     * start time is unknown) to a milestone.
+     *
+     * @param milestone the milestone name passed to {@link #mark(String)}
+     * @return the offset in milliseconds, or -1 if the milestone was not recorded
+     */
+    public static long milestoneMillis(String milestone) {
+        long originOffset = jvmStartOffsetNanos();
+        for (Entry entry : entries()) {
+            if (entry.milestone() && entry.name().equals(milestone)) {
+                return (originOffset + entry.startNanos()) / 1_000_000;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Clears the recorded entries and restarts recording. Test-only.
+     */
+    static void resetForTests() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        active = true;
+    }
+
+    private static void record(Entry entry) {
+        synchronized (entries) {
+            entries.add(entry);
+        }
+    }
+
+    private static long jvmStartOffsetNanos() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> Duration.between(start, ORIGIN_INSTANT).toNanos())
+                .filter(offset -> offset >= 0)
+                .orElse(0L);
+    }
+}
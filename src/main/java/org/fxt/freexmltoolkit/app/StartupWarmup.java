@@ -0,0 +1,160 @@
+package org.fxt.freexmltoolkit.app;
+
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+
+import javafx.application.Platform;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.shared.XmlSyntaxHighlighter;
+import org.fxt.freexmltoolkit.di.ServiceRegistry;
+import org.fxt.freexmltoolkit.service.PropertiesService;
+import org.fxt.freexmltoolkit.service.XPathExecutionEngine;
+import org.fxt.freexmltoolkit.service.XmlService;
+import org.fxt.freexmltoolkit.service.XsltTransformationEngine;
+
+/**
+ * Background warm-up run once the main window is visible.
+ *
+ * <p>Initialises what the first window does not need but the first user action
+ * will: the XML service, the Saxon processors behind
+ * XSLT/XQuery and XPath, the JAXP/Xerces schema validator, and the XML syntax
+ * highlighter, which is run a few times so the JIT compiles it before the first
+ * large document is opened. Each step is traced by {@link StartupTrace} and runs
+ * on a single low-priority daemon thread; failures are logged and skipped.</p>
+ *
+ * <p>The warm-up can be disabled with {@code -Dfxt.startup.warmup=false}.</p>
+ *
+ * <p>With {@code -Dfxt.startup.training=true} the application exits a few seconds
+ * after the warm-up. The build uses this for the training launch that records the
+ * class-data-sharing archive shipped with the packaged application; the files to
+ * open during training are passed as program arguments.</p>
+ */
+public final class StartupWarmup {
+
+    private static final Logger logger = LogManager.getLogger(StartupWarmup.class);
+
+    private static final String SAMPLE_XML = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <!-- warm-up sample -->
+            <orders xmlns:x="urn:example">
+              <order id="1" x:state="open"><item qty="2">Apples</item><note><![CDATA[a < b]]></note></order>
+            </orders>
+            """;
+
+    private static final String SAMPLE_XSD = """
+            <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema">
+              <xs:element name="orders">
+                <xs:complexType>
+                  <xs:sequence>
+                    <xs:any processContents="lax" minOccurs="0" maxOccurs="unbounded"/>
+                  </xs:sequence>
+                  <xs:anyAttribute processContents="lax"/>
+                </xs:complexType>
+              </xs:element>
+            </xs:schema>
+            """;
+
+    private static final String SAMPLE_XSLT = """
+            <xsl:stylesheet version="3.0" xmlns:xsl="http://www.w3.org/1999/XSL/Transform">
+              <xsl:template match="/"><count><xsl:value-of select="count(//item)"/></count></xsl:template>
+            </xsl:stylesheet>
+            """;
+
+    private static final int HIGHLIGHTER_ROUNDS = 30;
+
+    /** Time the training launch leaves the files opened from the command line to load. */
+    private static final long TRAINING_SETTLE_SECONDS = 5;
+
+    private StartupWarmup() {
+    }
+
+    /**
+     * Starts the warm-up on a background thread. When it finishes, tracing is
+     * stopped and the startup report is written.
+     */
+    public static void start() {
+        if (!isTraining() && "false".equalsIgnoreCase(System.getProperty("fxt.startup.warmup"))) {
+            finishTrace();
+            return;
+        }
+        Thread thread = new Thread(StartupWarmup::run, "Startup-Warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    private static void run() {
+        try (StartupTrace.Phase ignored = StartupTrace.begin("warm-up")) {
+            step("warm-up: properties and XML service", () -> {
+                ServiceRegistry.get(PropertiesService.class);
+                return ServiceRegistry.get(XmlService.class);
+            });
+            step("warm-up: Saxon XSLT", () ->
+                    XsltTransformationEngine.getInstance().quickTransform(SAMPLE_XML.strip(), SAMPLE_XSLT));
+            step("warm-up: Saxon XPath", XPathExecutionEngine::getInstance);
+            step("warm-up: schema validation", () -> {
+                try {
+                    SchemaFactory factory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+                    factory.newSchema(new StreamSource(new StringReader(SAMPLE_XSD)))
+                            .newValidator()
+                            .validate(new StreamSource(new StringReader(SAMPLE_XML.strip())));
+                    return null;
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            step("warm-up: XML highlighter", () -> {
+                String text = SAMPLE_XML.repeat(40);
+                for (int i = 0; i < HIGHLIGHTER_ROUNDS; i++) {
+                    XmlSyntaxHighlighter.computeHighlighting(text);
+                }
+                return null;
+            });
+        } finally {
+            finishTrace();
+        }
+        if (isTraining()) {
+            exitAfterTraining();
+        }
+    }
+
+    /**
+     * Checks whether this is the build's training launch.
+     *
+     * @return true if {@code -Dfxt.startup.training=true} is set
+     */
+    public static boolean isTraining() {
+        return Boolean.getBoolean("fxt.startup.training");
+    }
+
+    private static void exitAfterTraining() {
+        try {
+            TimeUnit.SECONDS.sleep(TRAINING_SETTLE_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        logger.info("Training launch finished, exiting");
+        Platform.runLater(Platform::exit);
+    }
+
+    private static void step(String name, Supplier<?> step) {
+        try {
+            StartupTrace.trace(name, step);
+        } catch (Throwable t) {
+            logger.debug("Startup {} failed: {}", name, t.toString());
+        }
+    }
+
+    private static void finishTrace() {
+        StartupTrace.mark("warm-up finished");
+        StartupTrace.stop();
+        StartupTrace.writeReport();
+    }
+}
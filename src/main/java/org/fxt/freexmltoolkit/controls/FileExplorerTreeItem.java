@@ -42,6 +42,7 @@ import org.apache.logging.log4j.Logger;
  *   <li>Caching of subdirectory counts</li>
  *   <li>Refresh and force refresh capabilities</li>
  *   <li>Expand-and-find functionality for path navigation</li>
+ *   <li>Pluggable {@link DirectoryLister}, e.g. to list folders from a workspace index</li>
  * </ul>
  *
  * <p>Directories are always shown before files, and both are sorted
@@ -61,6 +62,42 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
     private long subdirectoryCount = -1;
 
     private final List<String> allowedExtensions;
+    private final DirectoryLister lister;
+
+    /**
+     * Supplies directory listings. The default reads the file system; a lister
+     * backed by an index answers without touching the disk.
+     */
+    public interface DirectoryLister {
+
+        /** Reads listings straight from the file system. */
+        DirectoryLister FILE_SYSTEM = new DirectoryLister() {
+            @Override
+            public List<Path> list(Path dir) throws IOException {
+                try (var stream = Files.list(dir)) {
+                    return stream.toList();
+                }
+            }
+
+            @Override
+            public boolean isDirectory(Path path) {
+                return Files.isDirectory(path);
+            }
+        };
+
+        /**
+         * @param dir a directory
+         * @return the files and directories directly in {@code dir}
+         * @throws IOException if the directory cannot be read
+         */
+        List<Path> list(Path dir) throws IOException;
+
+        /**
+         * @param path a file or directory
+         * @return whether {@code path} is a directory
+         */
+        boolean isDirectory(Path path);
+    }
 
     /**
      * Creates a new FileExplorerTreeItem with the specified path.
@@ -80,8 +117,27 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
      *                          or null/empty to allow all files
      */
     public FileExplorerTreeItem(Path value, List<String> allowedExtensions) {
+        this(value, allowedExtensions, DirectoryLister.FILE_SYSTEM);
+    }
+
+    /**
+     * Creates a new FileExplorerTreeItem that reads directory listings through {@code lister}.
+     *
+     * @param value             the file system path represented by this tree item
+     * @param allowedExtensions list of allowed file extensions, or null/empty to allow all files
+     * @param lister            source of directory listings, passed on to the child items
+     */
+    public FileExplorerTreeItem(Path value, List<String> allowedExtensions, DirectoryLister lister) {
         super(value);
         this.allowedExtensions = allowedExtensions;
+        this.lister = lister;
+    }
+
+    /**
+     * @return whether this item is a directory, as reported by its {@link DirectoryLister}
+     */
+    public boolean isDirectory() {
+        return getValue() != null && lister.isDirectory(getValue());
     }
 
     /**
@@ -103,7 +159,7 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
         }
 
         // 3. If it's a directory, we need to expand it and search its children.
-        if (Files.isDirectory(getValue())) {
+        if (isDirectory()) {
             // Ensure children are loaded for the lazy-loading mechanism by calling getChildren().
             getChildren();
 
@@ -133,10 +189,10 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
     public long getSubdirectoryCount() {
         if (this.subdirectoryCount == -1) { // Calculate only on first access
             Path path = getValue();
-            if (Files.isDirectory(path)) {
-                try (var stream = Files.list(path)) {
-                    // Count only the stream entries that are directories.
-                    this.subdirectoryCount = stream.filter(Files::isDirectory).count();
+            if (lister.isDirectory(path)) {
+                try {
+                    // Count only the entries that are directories.
+                    this.subdirectoryCount = lister.list(path).stream().filter(lister::isDirectory).count();
                 } catch (IOException e) {
                     logger.info("Could not count subdirectories in: {}", path, e);
                     this.subdirectoryCount = 0; // On error, report zero subdirectories.
@@ -155,7 +211,7 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
      */
     public void refresh() {
         Path path = getValue();
-        if (path == null || !Files.isDirectory(path)) {
+        if (path == null || !lister.isDirectory(path)) {
             return;
         }
 
@@ -198,7 +254,7 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
      */
     public void forceRefresh() {
         Path path = getValue();
-        if (path == null || !Files.isDirectory(path)) {
+        if (path == null || !lister.isDirectory(path)) {
             return;
         }
 
@@ -212,7 +268,7 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
 
         // Recursively force refresh all children
         for (TreeItem<Path> child : super.getChildren()) {
-            if (child instanceof FileExplorerTreeItem fileExplorerChild && Files.isDirectory(child.getValue())) {
+            if (child instanceof FileExplorerTreeItem fileExplorerChild && fileExplorerChild.isDirectory()) {
                 fileExplorerChild.forceRefresh();
             }
         }
@@ -233,14 +289,14 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
             isFirstTimeLeaf = false;
             Path path = getValue();
 
-            if (Files.isRegularFile(path)) {
+            if (!lister.isDirectory(path)) {
                 isLeaf = true;
-            } else if (Files.isDirectory(path)) {
+            } else {
                 // A directory is a "leaf" if it contains NO children that would be displayed.
                 // A child is displayed if it is a directory OR a file matching the filter.
-                try (var stream = Files.list(path)) {
-                    isLeaf = stream.noneMatch(p -> {
-                        if (Files.isDirectory(p)) {
+                try {
+                    isLeaf = lister.list(path).stream().noneMatch(p -> {
+                        if (lister.isDirectory(p)) {
                             return true; // Has a subdirectory, so it is not a leaf.
                         }
                         // It is a file, so check it against the filter.
@@ -254,9 +310,6 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
                     logger.info("Could not check directory content for: {}", path, e);
                     isLeaf = true; // Treat as a leaf on error.
                 }
-            } else {
-                // Should not happen, but a safe default.
-                isLeaf = true;
             }
         }
         return isLeaf;
@@ -264,37 +317,35 @@ public class FileExplorerTreeItem extends TreeItem<Path> {
 
     private ObservableList<TreeItem<Path>> buildChildren(TreeItem<Path> treeItem) {
         Path path = treeItem.getValue();
-        if (path != null && Files.isDirectory(path)) {
+        if (path != null && lister.isDirectory(path)) {
             try {
                 var children = javafx.collections.FXCollections.<TreeItem<Path>>observableArrayList();
-                try (var stream = Files.list(path)) {
-                    stream
-                            // Filter the stream before processing the entries.
-                            .filter(p -> {
-                                // Directories are always displayed.
-                                if (Files.isDirectory(p)) {
-                                    return true;
-                                }
-                                // If no filter is set, all files are displayed.
-                                if (allowedExtensions == null || allowedExtensions.isEmpty()) {
-                                    return true;
-                                }
-                                // Otherwise check whether the file extension is in the list of allowed extensions.
-                                String extension = FilenameUtils.getExtension(p.getFileName().toString()).toLowerCase();
-                                return allowedExtensions.contains(extension);
-                            })
-                            .sorted((p1, p2) -> {
-                                if (Files.isDirectory(p1) && !Files.isDirectory(p2)) {
-                                    return -1;
-                                }
-                                if (!Files.isDirectory(p1) && Files.isDirectory(p2)) {
-                                    return 1;
-                                }
-                                return p1.getFileName().toString().compareToIgnoreCase(p2.getFileName().toString());
-                            })
-                            // Pass the filter list on to the child items.
-                            .forEach(p -> children.add(new FileExplorerTreeItem(p, this.allowedExtensions)));
-                }
+                lister.list(path).stream()
+                        // Filter the stream before processing the entries.
+                        .filter(p -> {
+                            // Directories are always displayed.
+                            if (lister.isDirectory(p)) {
+                                return true;
+                            }
+                            // If no filter is set, all files are displayed.
+                            if (allowedExtensions == null || allowedExtensions.isEmpty()) {
+                                return true;
+                            }
+                            // Otherwise check whether the file extension is in the list of allowed extensions.
+                            String extension = FilenameUtils.getExtension(p.getFileName().toString()).toLowerCase();
+                            return allowedExtensions.contains(extension);
+                        })
+                        .sorted((p1, p2) -> {
+                            if (lister.isDirectory(p1) && !lister.isDirectory(p2)) {
+                                return -1;
+                            }
+                            if (!lister.isDirectory(p1) && lister.isDirectory(p2)) {
+                                return 1;
+                            }
+                            return p1.getFileName().toString().compareToIgnoreCase(p2.getFileName().toString());
+                        })
+                        // Pass the filter list on to the child items.
+                        .forEach(p -> children.add(new FileExplorerTreeItem(p, this.allowedExtensions, this.lister)));
                 return children;
             } catch (IOException e) {
                 logger.error(e.getMessage(), e);
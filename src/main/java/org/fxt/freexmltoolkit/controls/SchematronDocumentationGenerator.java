@@ -7,7 +7,6 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -33,6 +32,7 @@ import javafx.stage.FileChooser;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
@@ -72,12 +72,8 @@ public class SchematronDocumentationGenerator extends VBox {
      * for generating comprehensive documentation from Schematron schemas.
      */
     public SchematronDocumentationGenerator() {
-        this.executor = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r);
-            t.setDaemon(true);
-            t.setName("SchematronDocGen-Worker");
-            return t;
-        });
+        this.executor = ThreadPoolManager.getInstance().newSerialExecutor(
+                "SchematronDocGen-Worker", ThreadPoolManager.TaskCategory.CPU);
 
         this.setSpacing(10);
         this.setPadding(new Insets(10));
@@ -39,6 +39,7 @@ import org.fxt.freexmltoolkit.controls.theme.DesignTokens;
 import org.fxt.freexmltoolkit.controls.theme.SemanticStyle;
 import org.fxt.freexmltoolkit.service.SchematronService;
 import org.fxt.freexmltoolkit.service.SchematronServiceImpl;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 
 /**
  * Comprehensive testing framework for Schematron rules against XML files.
@@ -464,7 +465,7 @@ public class SchematronTester extends VBox {
         detailsTextArea.clear();
 
         // Run tests in background thread to avoid UI blocking
-        Thread testThread = new Thread(() -> {
+        ThreadPoolManager.getInstance().executeIO("schematron-test-run", () -> {
             try {
                 runTestsInBackground();
             } catch (Exception e) {
@@ -483,10 +484,8 @@ public class SchematronTester extends VBox {
                     progressBar.setVisible(false);
                 });
             }
+            return null;
         });
-
-        testThread.setDaemon(true);
-        testThread.start();
     }
 
     /**
@@ -20,6 +20,7 @@ package org.fxt.freexmltoolkit.controls.dialogs;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 
 import javafx.application.Platform;
@@ -49,6 +50,7 @@ import org.fxt.freexmltoolkit.service.AutoUpdateService;
 import org.fxt.freexmltoolkit.service.AutoUpdateService.UpdateProgress;
 import org.fxt.freexmltoolkit.service.AutoUpdateService.UpdateResult;
 import org.fxt.freexmltoolkit.service.AutoUpdateService.UpdateStage;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 
 /**
  * Dialog that shows progress during update download and installation.
@@ -329,20 +331,14 @@ public class UpdateProgressDialog extends Dialog<UpdateResult> {
         });
 
         // Auto-close after 3 seconds
-        new Thread(() -> {
-            try {
-                Thread.sleep(3000);
+        ThreadPoolManager.getInstance().schedule("update-dialog-auto-close", () ->
                 Platform.runLater(() -> {
                     if (isShowing()) {
                         setResult(result);
                         close();
                         Platform.exit();
                     }
-                });
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-            }
-        }).start();
+                }), 3, TimeUnit.SECONDS);
     }
 
     /**
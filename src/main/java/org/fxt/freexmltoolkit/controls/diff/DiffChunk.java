@@ -1,6 +1,7 @@
 package org.fxt.freexmltoolkit.controls.diff;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * One run of contiguous lines representing a piece of the diff result.
@@ -15,6 +16,9 @@ import java.util.List;
  * (index {@code i} = left line {@code leftStart+i} vs right line
  * {@code rightStart+i}); when the two sides differ in line count the extra
  * lines have no entry. The list is {@code null} for non-CHANGE chunks.
+ * Word patches may be supplied lazily; they are then computed on the first
+ * call to {@link #getWordPatches()} so that large diffs only pay for the
+ * chunks that are actually rendered.
  */
 public final class DiffChunk {
 
@@ -25,7 +29,8 @@ public final class DiffChunk {
     private final int leftEnd;
     private final int rightStart;
     private final int rightEnd;
-    private final List<LineWordDiff> wordPatches;
+    private Supplier<List<LineWordDiff>> wordPatchSupplier;
+    private volatile List<LineWordDiff> wordPatches;
 
     public DiffChunk(Type type,
                      int leftStart, int leftEnd,
@@ -39,6 +44,18 @@ public final class DiffChunk {
         this.wordPatches = wordPatches;
     }
 
+    /**
+     * Creates a chunk whose word patches are computed on first access.
+     */
+    public static DiffChunk withLazyWordPatches(Type type,
+                                                int leftStart, int leftEnd,
+                                                int rightStart, int rightEnd,
+                                                Supplier<List<LineWordDiff>> wordPatchSupplier) {
+        DiffChunk chunk = new DiffChunk(type, leftStart, leftEnd, rightStart, rightEnd, null);
+        chunk.wordPatchSupplier = wordPatchSupplier;
+        return chunk;
+    }
+
     public Type getType() { return type; }
     public int getLeftStart() { return leftStart; }
     public int getLeftEnd() { return leftEnd; }
@@ -46,7 +63,23 @@ public final class DiffChunk {
     public int getRightEnd() { return rightEnd; }
     public int getLeftLength() { return leftEnd - leftStart; }
     public int getRightLength() { return rightEnd - rightStart; }
-    public List<LineWordDiff> getWordPatches() { return wordPatches; }
+
+    public List<LineWordDiff> getWordPatches() {
+        List<LineWordDiff> patches = wordPatches;
+        if (patches != null) return patches;
+        synchronized (this) {
+            if (wordPatches == null && wordPatchSupplier != null) {
+                wordPatches = wordPatchSupplier.get();
+                wordPatchSupplier = null;
+            }
+            return wordPatches;
+        }
+    }
+
+    /** Whether {@link #getWordPatches()} can answer without computing anything. */
+    public synchronized boolean hasResolvedWordPatches() {
+        return wordPatchSupplier == null;
+    }
 
     public boolean isEqual() { return type == Type.EQUAL; }
 
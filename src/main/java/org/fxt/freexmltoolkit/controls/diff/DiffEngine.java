@@ -1,28 +1,60 @@
 package org.fxt.freexmltoolkit.controls.diff;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 
 import com.github.difflib.DiffUtils;
 import com.github.difflib.patch.AbstractDelta;
-import com.github.difflib.patch.DeltaType;
 import com.github.difflib.patch.Patch;
 
 /**
  * Pure-Java diff engine used by the side-by-side compare view.
  *
- * <p>Wraps {@code java-diff-utils} to compute a line-level diff between two
- * strings. The result is an ordered list of {@link DiffChunk} that covers the
- * entire input on both sides (i.e. EQUAL chunks are included between non-equal
- * regions). For CHANGE chunks an additional word-level diff is computed
- * line-by-line so the highlighter can emphasize the actual modified words.
+ * <p>Computes a line-level diff between two strings. The result is an ordered
+ * list of {@link DiffChunk} that covers the entire input on both sides (i.e.
+ * EQUAL chunks are included between non-equal regions). For CHANGE chunks an
+ * additional word-level diff is computed line-by-line so the highlighter can
+ * emphasize the actual modified words; it is computed lazily on the first
+ * {@link DiffChunk#getWordPatches()} call.
+ *
+ * <p>Lines are interned to int ids once, the common prefix and suffix are
+ * trimmed and the remainder is diffed with a histogram diff (recursively
+ * anchoring on the rarest common lines, as popularized by git). Regions without
+ * a usable anchor fall back to a bounded Myers diff over the ids. This keeps
+ * multi-megabyte inputs with few changes close to linear time.
  *
  * <p>This class has no JavaFX dependencies and is fully unit-testable.
  */
 public final class DiffEngine {
 
+    /** Lines occurring more often than this in a region are never used as anchors. */
+    private static final int MAX_CHAIN_LENGTH = 64;
+
+    /** Edit distance above which the Myers fallback gives up and reports a replaced block. */
+    private static final int MAX_MYERS_EDITS = 1024;
+
+    /**
+     * Cancellation and progress callbacks for {@link #compute(String, String, Monitor)}.
+     * Both methods are called from the computing thread.
+     */
+    public interface Monitor {
+
+        Monitor NONE = new Monitor() { };
+
+        /** Polled regularly; returning true aborts the computation with a {@link CancellationException}. */
+        default boolean isCancelled() {
+            return false;
+        }
+
+        /** Reports the completed fraction in {@code [0, 1]}, in steps of roughly one percent. */
+        default void progress(double fraction) {
+        }
+    }
+
     private DiffEngine() {
         // utility
     }
@@ -33,79 +65,308 @@ public final class DiffEngine {
      * empty trailing lines so that line indices map back to the source faithfully.
      */
     public static List<DiffChunk> compute(String left, String right) {
-        List<String> leftLines = splitLines(left);
-        List<String> rightLines = splitLines(right);
+        return compute(left, right, Monitor.NONE);
+    }
+
+    /**
+     * Same as {@link #compute(String, String)} but reports progress to and
+     * honors cancellation requests of {@code monitor}.
+     *
+     * @throws CancellationException if the monitor requested cancellation
+     */
+    public static List<DiffChunk> compute(String left, String right, Monitor monitor) {
+        String[] leftLines = splitLines(left);
+        String[] rightLines = splitLines(right);
+
+        int[] leftIds = new int[leftLines.length];
+        int[] rightIds = new int[rightLines.length];
+        int distinct = intern(leftLines, rightLines, leftIds, rightIds);
+
+        int[] matches = new int[leftLines.length];
+        Arrays.fill(matches, -1);
+
+        int leftEnd = leftIds.length;
+        int rightEnd = rightIds.length;
+        int prefix = 0;
+        while (prefix < leftEnd && prefix < rightEnd && leftIds[prefix] == rightIds[prefix]) {
+            matches[prefix] = prefix;
+            prefix++;
+        }
+        while (leftEnd > prefix && rightEnd > prefix && leftIds[leftEnd - 1] == rightIds[rightEnd - 1]) {
+            leftEnd--;
+            rightEnd--;
+            matches[leftEnd] = rightEnd;
+        }
 
-        Patch<String> patch = DiffUtils.diff(leftLines, rightLines);
-        List<AbstractDelta<String>> deltas = patch.getDeltas();
+        new HistogramDiff(leftIds, rightIds, distinct, matches, monitor)
+                .run(prefix, leftEnd, prefix, rightEnd);
+        monitor.progress(1.0);
+        return buildChunks(leftLines, rightLines, matches);
+    }
+
+    /**
+     * Maps equal lines of both sides to the same small int id.
+     *
+     * @return the number of distinct lines
+     */
+    private static int intern(String[] leftLines, String[] rightLines, int[] leftIds, int[] rightIds) {
+        HashMap<String, Integer> ids = new HashMap<>(Math.max(16, (leftLines.length + rightLines.length) * 2));
+        for (int i = 0; i < leftLines.length; i++) {
+            leftIds[i] = ids.computeIfAbsent(leftLines[i], k -> ids.size());
+        }
+        for (int i = 0; i < rightLines.length; i++) {
+            rightIds[i] = ids.computeIfAbsent(rightLines[i], k -> ids.size());
+        }
+        return ids.size();
+    }
 
+    /**
+     * Turns the monotonic left-to-right line matching into contiguous chunks.
+     */
+    private static List<DiffChunk> buildChunks(String[] leftLines, String[] rightLines, int[] matches) {
         List<DiffChunk> result = new ArrayList<>();
-        int leftCursor = 0;
-        int rightCursor = 0;
-
-        for (AbstractDelta<String> delta : deltas) {
-            int leftPos = delta.getSource().getPosition();
-            int rightPos = delta.getTarget().getPosition();
-
-            if (leftPos > leftCursor || rightPos > rightCursor) {
-                int equalLen = Math.min(leftPos - leftCursor, rightPos - rightCursor);
-                if (equalLen > 0) {
-                    result.add(new DiffChunk(DiffChunk.Type.EQUAL,
-                            leftCursor, leftCursor + equalLen,
-                            rightCursor, rightCursor + equalLen,
-                            null));
-                    leftCursor += equalLen;
-                    rightCursor += equalLen;
+        int leftCount = leftLines.length;
+        int rightCount = rightLines.length;
+        int i = 0;
+        int j = 0;
+        while (i < leftCount || j < rightCount) {
+            if (i < leftCount && matches[i] == j) {
+                int leftStart = i;
+                int rightStart = j;
+                while (i < leftCount && matches[i] == j) {
+                    i++;
+                    j++;
                 }
+                result.add(new DiffChunk(DiffChunk.Type.EQUAL, leftStart, i, rightStart, j, null));
+                continue;
+            }
+            int leftStart = i;
+            while (i < leftCount && matches[i] < 0) {
+                i++;
+            }
+            int rightStart = j;
+            j = i < leftCount ? matches[i] : rightCount;
+
+            if (i == leftStart) {
+                result.add(new DiffChunk(DiffChunk.Type.INSERT, leftStart, i, rightStart, j, null));
+            } else if (j == rightStart) {
+                result.add(new DiffChunk(DiffChunk.Type.DELETE, leftStart, i, rightStart, j, null));
+            } else {
+                List<String> removed = Arrays.asList(leftLines).subList(leftStart, i);
+                List<String> added = Arrays.asList(rightLines).subList(rightStart, j);
+                result.add(DiffChunk.withLazyWordPatches(DiffChunk.Type.CHANGE, leftStart, i, rightStart, j,
+                        () -> computeWordPatches(removed, added)));
+            }
+        }
+        return result;
+    }
+
+    private static String[] splitLines(String text) {
+        if (text == null || text.isEmpty()) {
+            return new String[] {""};
+        }
+        return text.split("\n", -1);
+    }
+
+    /**
+     * Histogram diff over interned line ids. Fills {@code matches[leftIndex] = rightIndex}
+     * for every line it pairs up; pairs are strictly increasing on both sides.
+     */
+    private static final class HistogramDiff {
+        private final int[] a;
+        private final int[] b;
+        private final int[] matches;
+        private final Monitor monitor;
+
+        // Occurrence chains of the left region currently being searched for an anchor
+        private final int[] head;
+        private final int[] count;
+        private final int[] next;
+
+        private long resolved;
+        private long total;
+        private int lastPercent;
+
+        HistogramDiff(int[] a, int[] b, int distinct, int[] matches, Monitor monitor) {
+            this.a = a;
+            this.b = b;
+            this.matches = matches;
+            this.monitor = monitor;
+            this.head = new int[distinct];
+            this.count = new int[distinct];
+            this.next = new int[a.length];
+            Arrays.fill(head, -1);
+        }
+
+        void run(int leftStart, int leftEnd, int rightStart, int rightEnd) {
+            total = (long) (leftEnd - leftStart) + (rightEnd - rightStart);
+            ArrayDeque<int[]> regions = new ArrayDeque<>();
+            regions.push(new int[] {leftStart, leftEnd, rightStart, rightEnd});
+            while (!regions.isEmpty()) {
+                checkCancelled();
+                int[] region = regions.pop();
+                diffRegion(region[0], region[1], region[2], region[3], regions);
             }
+        }
 
-            int leftLen = delta.getSource().size();
-            int rightLen = delta.getTarget().size();
-            DiffChunk.Type type = mapDeltaType(delta.getType());
+        private void diffRegion(int as, int ae, int bs, int be, ArrayDeque<int[]> regions) {
+            while (as < ae && bs < be && a[as] == b[bs]) {
+                matches[as++] = bs++;
+                resolved += 2;
+            }
+            while (as < ae && bs < be && a[ae - 1] == b[be - 1]) {
+                matches[--ae] = --be;
+                resolved += 2;
+            }
+            if (as == ae || bs == be) {
+                advance((ae - as) + (be - bs));
+                return;
+            }
+
+            for (int i = ae - 1; i >= as; i--) {
+                int id = a[i];
+                next[i] = head[id];
+                head[id] = i;
+                count[id]++;
+            }
 
-            List<DiffChunk.LineWordDiff> wordPatches = null;
-            if (type == DiffChunk.Type.CHANGE) {
-                wordPatches = computeWordPatches(
-                        delta.getSource().getLines(),
-                        delta.getTarget().getLines());
+            int bestCount = MAX_CHAIN_LENGTH + 1;
+            int bestLength = 0;
+            int bestA = -1;
+            int bestB = -1;
+            boolean anyCommon = false;
+            int j = bs;
+            while (j < be) {
+                int nextJ = j + 1;
+                int id = b[j];
+                int occurrences = count[id];
+                anyCommon |= occurrences > 0;
+                if (occurrences > 0 && occurrences <= MAX_CHAIN_LENGTH && occurrences <= bestCount) {
+                    for (int i = head[id]; i >= 0; i = next[i]) {
+                        int runA = i;
+                        int runB = j;
+                        int runCount = occurrences;
+                        while (runA > as && runB > bs && a[runA - 1] == b[runB - 1]) {
+                            runA--;
+                            runB--;
+                            runCount = Math.min(runCount, count[a[runA]]);
+                        }
+                        int endA = i + 1;
+                        int endB = j + 1;
+                        while (endA < ae && endB < be && a[endA] == b[endB]) {
+                            runCount = Math.min(runCount, count[a[endA]]);
+                            endA++;
+                            endB++;
+                        }
+                        int length = endA - runA;
+                        if (runCount < bestCount || (runCount == bestCount && length > bestLength)) {
+                            bestCount = runCount;
+                            bestLength = length;
+                            bestA = runA;
+                            bestB = runB;
+                        }
+                        nextJ = Math.max(nextJ, endB);
+                    }
+                }
+                j = nextJ;
             }
 
-            result.add(new DiffChunk(type,
-                    leftCursor, leftCursor + leftLen,
-                    rightCursor, rightCursor + rightLen,
-                    wordPatches));
+            for (int i = as; i < ae; i++) {
+                head[a[i]] = -1;
+                count[a[i]] = 0;
+            }
 
-            leftCursor += leftLen;
-            rightCursor += rightLen;
+            if (!anyCommon) {
+                advance((ae - as) + (be - bs));
+                return;
+            }
+            // Without a unique common line an anchor is a guess; small regions get an exact diff instead
+            boolean small = (ae - as) + (be - bs) <= 2 * MAX_MYERS_EDITS;
+            if ((bestLength == 0 || (bestCount > 1 && small)) && myers(as, ae, bs, be)) {
+                return;
+            }
+            if (bestLength == 0) {
+                advance((ae - as) + (be - bs));
+                return;
+            }
+            for (int k = 0; k < bestLength; k++) {
+                matches[bestA + k] = bestB + k;
+            }
+            advance(2L * bestLength);
+            // Pushed in reverse so the earlier region is diffed first
+            regions.push(new int[] {bestA + bestLength, ae, bestB + bestLength, be});
+            regions.push(new int[] {as, bestA, bs, bestB});
         }
 
-        int trailingLeft = leftLines.size() - leftCursor;
-        int trailingRight = rightLines.size() - rightCursor;
-        int trailingEqual = Math.min(trailingLeft, trailingRight);
-        if (trailingEqual > 0) {
-            result.add(new DiffChunk(DiffChunk.Type.EQUAL,
-                    leftCursor, leftCursor + trailingEqual,
-                    rightCursor, rightCursor + trailingEqual,
-                    null));
+        /**
+         * Classic Myers diff for regions without a unique common line.
+         *
+         * @return false, leaving the region untouched, if it needs more than {@link #MAX_MYERS_EDITS} edits
+         */
+        private boolean myers(int as, int ae, int bs, int be) {
+            int n = ae - as;
+            int m = be - bs;
+            int max = Math.min(n + m, MAX_MYERS_EDITS);
+            int offset = max + 1;
+            int[] v = new int[2 * max + 3];
+            List<int[]> trace = new ArrayList<>();
+            for (int d = 0; d <= max; d++) {
+                checkCancelled();
+                trace.add(v.clone());
+                for (int k = -d; k <= d; k += 2) {
+                    int x = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1]))
+                            ? v[offset + k + 1]
+                            : v[offset + k - 1] + 1;
+                    int y = x - k;
+                    while (x < n && y < m && a[as + x] == b[bs + y]) {
+                        x++;
+                        y++;
+                    }
+                    v[offset + k] = x;
+                    if (x >= n && y >= m) {
+                        backtrack(trace, offset, as, bs, n, m);
+                        advance((long) n + m);
+                        return true;
+                    }
+                }
+            }
+            return false;
         }
 
-        return result;
-    }
+        private void backtrack(List<int[]> trace, int offset, int as, int bs, int x, int y) {
+            for (int d = trace.size() - 1; d >= 0; d--) {
+                int[] v = trace.get(d);
+                int k = x - y;
+                int prevK = (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) ? k + 1 : k - 1;
+                int prevX = d == 0 ? 0 : v[offset + prevK];
+                int prevY = d == 0 ? 0 : prevX - prevK;
+                while (x > prevX && y > prevY) {
+                    x--;
+                    y--;
+                    matches[as + x] = bs + y;
+                }
+                x = prevX;
+                y = prevY;
+            }
+        }
 
-    private static DiffChunk.Type mapDeltaType(DeltaType deltaType) {
-        return switch (deltaType) {
-            case INSERT -> DiffChunk.Type.INSERT;
-            case DELETE -> DiffChunk.Type.DELETE;
-            case CHANGE -> DiffChunk.Type.CHANGE;
-            case EQUAL -> DiffChunk.Type.EQUAL;
-        };
-    }
+        private void advance(long lines) {
+            resolved += lines;
+            if (total == 0) {
+                return;
+            }
+            int percent = (int) Math.min(100, resolved * 100 / total);
+            if (percent > lastPercent) {
+                lastPercent = percent;
+                monitor.progress(percent / 100.0);
+            }
+        }
 
-    private static List<String> splitLines(String text) {
-        if (text == null || text.isEmpty()) {
-            return Collections.singletonList("");
+        private void checkCancelled() {
+            if (monitor.isCancelled()) {
+                throw new CancellationException("Diff computation cancelled");
+            }
         }
-        return Arrays.asList(text.split("\n", -1));
     }
 
     private static List<DiffChunk.LineWordDiff> computeWordPatches(List<String> leftLines, List<String> rightLines) {
@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.function.Predicate;
 
 import org.fxmisc.richtext.model.StyleSpans;
 import org.fxmisc.richtext.model.StyleSpansBuilder;
@@ -19,6 +20,11 @@ import org.fxt.freexmltoolkit.controls.shared.XmlSyntaxHighlighter;
  * {@link DiffView}; both compose the result with
  * {@link XmlSyntaxHighlighter#computeHighlighting(String)} so syntax colors
  * remain visible underneath the diff backgrounds.
+ *
+ * <p>For large documents the word emphasis can be restricted to some chunks
+ * (typically the visible ones) and added later, line range by line range, with
+ * {@link #overlayWordHighlighting(StyleSpans, String, DiffChunk, Side, int)}, so
+ * that word-level patches are only computed for what the user actually looks at.
  */
 public final class DiffHighlighter {
 
@@ -38,11 +44,86 @@ public final class DiffHighlighter {
      * Builds a syntax + diff overlay for one side of the comparison.
      */
     public static StyleSpans<Collection<String>> computeHighlighting(String text, List<DiffChunk> chunks, Side side) {
+        return computeHighlighting(text, chunks, side, c -> true);
+    }
+
+    /**
+     * Builds a syntax + diff overlay for one side of the comparison, emphasizing
+     * changed words only in the CHANGE chunks accepted by {@code withWords}.
+     */
+    public static StyleSpans<Collection<String>> computeHighlighting(String text, List<DiffChunk> chunks, Side side,
+                                                                     Predicate<DiffChunk> withWords) {
         StyleSpans<Collection<String>> syntax = XmlSyntaxHighlighter.computeHighlighting(text);
-        StyleSpans<Collection<String>> diff = computeDiffOverlay(text, chunks, side);
+        StyleSpans<Collection<String>> diff = computeDiffOverlay(text, chunks, side, withWords);
         return syntax.overlay(diff, DiffHighlighter::merge);
     }
 
+    /**
+     * Adds the word emphasis of one CHANGE chunk to spans that were built
+     * without it.
+     *
+     * @param existing  the current spans of the chunk's lines on {@code side}
+     * @param chunkText the text of those lines
+     */
+    public static StyleSpans<Collection<String>> overlayWordHighlighting(StyleSpans<Collection<String>> existing,
+                                                                         String chunkText,
+                                                                         DiffChunk chunk,
+                                                                         Side side) {
+        return overlayWordHighlighting(existing, chunkText, chunk, side, 0);
+    }
+
+    /**
+     * Adds the word emphasis of some lines of one CHANGE chunk to spans that
+     * were built without it.
+     *
+     * @param existing  the current spans of those lines on {@code side}
+     * @param linesText the text of those lines
+     * @param firstLine index of the first of those lines within the chunk
+     */
+    public static StyleSpans<Collection<String>> overlayWordHighlighting(StyleSpans<Collection<String>> existing,
+                                                                         String linesText,
+                                                                         DiffChunk chunk,
+                                                                         Side side,
+                                                                         int firstLine) {
+        if (chunk.getType() != DiffChunk.Type.CHANGE || linesText.isEmpty()) {
+            return existing;
+        }
+        List<DiffChunk.LineWordDiff> wordPatches = chunk.getWordPatches();
+        if (wordPatches == null) {
+            return existing;
+        }
+        int[] lineOffsets = computeLineOffsets(linesText);
+        int textLen = linesText.length();
+        Collection<String> wordClasses = List.of(CLASS_MODIFIED,
+                side == Side.LEFT ? CLASS_WORD_REMOVED : CLASS_WORD_ADDED);
+        DiffChunk.LineWordDiff.SegmentKind interestingKind =
+                side == Side.LEFT ? DiffChunk.LineWordDiff.SegmentKind.REMOVED
+                                  : DiffChunk.LineWordDiff.SegmentKind.ADDED;
+
+        StyleSpansBuilder<Collection<String>> b = new StyleSpansBuilder<>();
+        int cursor = 0;
+        for (int rel = 0; firstLine + rel < wordPatches.size() && rel < lineOffsets.length - 1; rel++) {
+            int lineStart = lineOffsets[rel];
+            int lineEnd = lineOffsets[rel + 1];
+            DiffChunk.LineWordDiff wp = wordPatches.get(firstLine + rel);
+            for (DiffChunk.LineWordDiff.Segment seg : side == Side.LEFT ? wp.getLeftSegments() : wp.getRightSegments()) {
+                if (seg.getKind() != interestingKind) continue;
+                int segStart = Math.max(cursor, lineStart + seg.getStartCol());
+                int segEnd = Math.min(lineEnd, lineStart + seg.getEndCol());
+                if (segEnd <= segStart) continue;
+                if (segStart > cursor) {
+                    b.add(Collections.emptyList(), segStart - cursor);
+                }
+                b.add(wordClasses, segEnd - segStart);
+                cursor = segEnd;
+            }
+        }
+        if (cursor < textLen) {
+            b.add(Collections.emptyList(), textLen - cursor);
+        }
+        return existing.overlay(b.create(), DiffHighlighter::merge);
+    }
+
     private static Collection<String> merge(Collection<String> a, Collection<String> b) {
         if (b.isEmpty()) return a;
         if (a.isEmpty()) return b;
@@ -51,7 +132,8 @@ public final class DiffHighlighter {
         return out;
     }
 
-    private static StyleSpans<Collection<String>> computeDiffOverlay(String text, List<DiffChunk> chunks, Side side) {
+    private static StyleSpans<Collection<String>> computeDiffOverlay(String text, List<DiffChunk> chunks, Side side,
+                                                                     Predicate<DiffChunk> withWords) {
         int[] lineOffsets = computeLineOffsets(text);
         int totalLines = lineOffsets.length - 1;
         int textLen = text.length();
@@ -75,7 +157,7 @@ public final class DiffHighlighter {
             }
 
             String lineClass = lineClassFor(c.getType(), side);
-            if (c.getType() == DiffChunk.Type.CHANGE) {
+            if (c.getType() == DiffChunk.Type.CHANGE && withWords.test(c)) {
                 cursor = applyChangeChunk(b, cursor, c, side, lineOffsets, chunkEndChar, lineClass);
             } else {
                 b.add(Collections.singleton(lineClass), chunkEndChar - cursor);
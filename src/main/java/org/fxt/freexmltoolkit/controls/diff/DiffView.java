@@ -5,10 +5,17 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
@@ -19,9 +26,13 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.Separator;
 import javafx.scene.control.SplitPane;
 import javafx.scene.control.Tab;
+import javafx.scene.control.TextField;
 import javafx.scene.control.ToolBar;
 import javafx.scene.control.Tooltip;
 import javafx.scene.layout.BorderPane;
@@ -32,6 +43,7 @@ import javafx.util.Duration;
 
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.StyleSpans;
 import org.fxt.freexmltoolkit.controls.icons.IconifyIcon;
 import org.fxt.freexmltoolkit.controls.theme.DesignTokens;
 
@@ -42,10 +54,28 @@ import org.fxt.freexmltoolkit.controls.theme.DesignTokens;
  * 300 ms after the last keystroke. Per-chunk arrows live in the gutter
  * between the panes, and the toolbar exposes navigation and bulk-apply
  * actions plus per-side save buttons.
+ *
+ * <p>Large inputs are diffed and highlighted on a worker thread with a
+ * progress bar in the toolbar; a newer recompute cancels the running one.
+ * Their intra-line word emphasis is only computed for the lines scrolled
+ * into view.
+ *
+ * <p>"XML Structure" additionally runs {@link XmlStructuralDiff} in the
+ * background and lists the structural differences below the panes; selecting
+ * one positions both panes on it.
  */
 public final class DiffView extends Tab {
 
     private static final Duration DEBOUNCE = Duration.millis(300);
+    private static final Duration SCROLL_DEBOUNCE = Duration.millis(100);
+
+    /** Combined text length from which the diff runs in the background. */
+    private static final int ASYNC_DIFF_THRESHOLD = 1_000_000;
+    /** Combined text length from which word emphasis is limited to the visible chunks. */
+    private static final int LAZY_WORDS_THRESHOLD = 200_000;
+    /** Lines assumed visible while the areas are not laid out yet. */
+    private static final int FALLBACK_VISIBLE_LINES = 200;
+    private static final String STRUCTURE_KEYS_PROPERTY = "diff.structure.keyPaths";
 
     private final CodeArea leftArea = new CodeArea();
     private final CodeArea rightArea = new CodeArea();
@@ -63,6 +93,19 @@ public final class DiffView extends Tab {
     private int currentChunkIndex = -1;
 
     private final AtomicLong recomputeGeneration = new AtomicLong(0);
+    private final AtomicLong structureGeneration = new AtomicLong(0);
+    private final ProgressBar diffProgress = new ProgressBar(0);
+    private final Set<DiffChunk> wordHighlightedChunks = Collections.newSetFromMap(new IdentityHashMap<>());
+    /** Lines of each pane whose word emphasis was added after the diff was applied. */
+    private final BitSet leftWordLines = new BitSet();
+    private final BitSet rightWordLines = new BitSet();
+    private final PauseTransition scrollDebounce = new PauseTransition(SCROLL_DEBOUNCE);
+    private boolean chunksMatchText = false;
+    private final BorderPane root = new BorderPane();
+    private final ListView<XmlStructuralDiff.Entry> structureList = new ListView<>();
+    private final Label structureSummary = new Label();
+    private final TextField structureKeys = new TextField();
+    private final VBox structurePane = buildStructurePane();
     private final PauseTransition leftDebounce = new PauseTransition(DEBOUNCE);
     private final PauseTransition rightDebounce = new PauseTransition(DEBOUNCE);
     private boolean suppressDebounce = false;
@@ -107,7 +150,6 @@ public final class DiffView extends Tab {
     }
 
     private BorderPane buildLayout() {
-        BorderPane root = new BorderPane();
         root.setTop(buildToolbar());
         root.setCenter(buildCenter());
         root.getStyleClass().add("diff-view");
@@ -136,6 +178,18 @@ public final class DiffView extends Tab {
         Button recompute = makeButton("Re-compute", "bi-arrow-clockwise", DesignTokens.ColorToken.NEUTRAL, "Recompute diff now");
         recompute.setOnAction(e -> recomputeNow());
 
+        Button structure = makeButton("XML Structure", "bi-diagram-3", DesignTokens.ColorToken.NEUTRAL,
+                "List structural XML differences, ignoring formatting and attribute order");
+        structure.setOnAction(e -> computeStructuralDiff());
+
+        structureKeys.setPromptText("Keys: @id, ISIN");
+        structureKeys.setPrefColumnCount(14);
+        structureKeys.setText(loadKeyPaths());
+        structureKeys.setTooltip(new Tooltip("Identity keys that match repeated elements, separated by commas.\n"
+                + "\"@id\" or \"ISIN\" apply to every element, \"position/@id\" only to <position>.\n"
+                + "Press Enter to compare the structure again."));
+        structureKeys.setOnAction(e -> computeStructuralDiff());
+
         Button close = makeButton("Close", "bi-x-circle", DesignTokens.ColorToken.DANGER, "Close diff tab");
         close.setOnAction(e -> requestClose());
 
@@ -146,10 +200,13 @@ public final class DiffView extends Tab {
                 new Separator(),
                 allLeft, allRight,
                 new Separator(),
-                recompute,
+                recompute, structure, structureKeys,
                 new Separator(),
-                close
+                close,
+                diffProgress
         );
+        diffProgress.setPrefWidth(140);
+        diffProgress.setVisible(false);
         tb.getStyleClass().add("xsd-toolbar");
         return tb;
     }
@@ -232,35 +289,273 @@ public final class DiffView extends Tab {
         rightDebounce.setOnFinished(e -> recomputeNow());
 
         leftArea.textProperty().addListener((obs, o, n) -> {
+            chunksMatchText = false;
             if (suppressDebounce) return;
             setDirty(0, true);
             leftDebounce.playFromStart();
         });
         rightArea.textProperty().addListener((obs, o, n) -> {
+            chunksMatchText = false;
             if (suppressDebounce) return;
             setDirty(1, true);
             rightDebounce.playFromStart();
         });
+
+        scrollDebounce.setOnFinished(e -> highlightVisibleWords());
+        leftArea.estimatedScrollYProperty().addListener((obs, o, n) -> scrollDebounce.playFromStart());
+        rightArea.estimatedScrollYProperty().addListener((obs, o, n) -> scrollDebounce.playFromStart());
     }
 
     /**
-     * Recompute the diff synchronously and apply highlights & gutter arrows.
-     * For 5k+ line files this still completes in well under a second; we keep
-     * a generation counter so a possibly-stale callback would no-op.
+     * Recompute the diff and apply highlights & gutter arrows. Small inputs
+     * are diffed synchronously; large ones on a worker thread. A generation
+     * counter cancels a running computation once a newer one starts, and
+     * stale results are dropped.
      */
     public void recomputeNow() {
         long gen = recomputeGeneration.incrementAndGet();
         String left = leftArea.getText();
         String right = rightArea.getText();
-        List<DiffChunk> result = DiffEngine.compute(left, right);
-        if (gen != recomputeGeneration.get()) return;
+        int[] leftVisible = visibleLines(leftArea);
+        int[] rightVisible = visibleLines(rightArea);
+        if ((long) left.length() + right.length() < ASYNC_DIFF_THRESHOLD) {
+            diffProgress.setVisible(false);
+            List<DiffChunk> result = DiffEngine.compute(left, right);
+            applyDiff(result, highlight(left, right, result, leftVisible, rightVisible));
+            return;
+        }
+
+        diffProgress.setProgress(0);
+        diffProgress.setVisible(true);
+        DiffEngine.Monitor monitor = new DiffEngine.Monitor() {
+            @Override
+            public boolean isCancelled() {
+                return gen != recomputeGeneration.get();
+            }
+
+            @Override
+            public void progress(double fraction) {
+                Platform.runLater(() -> {
+                    if (gen == recomputeGeneration.get()) diffProgress.setProgress(fraction);
+                });
+            }
+        };
+        org.fxt.freexmltoolkit.FxtGui.executorService.submit(() -> {
+            try {
+                List<DiffChunk> result = DiffEngine.compute(left, right, monitor);
+                if (monitor.isCancelled()) return;
+                Highlight highlight = highlight(left, right, result, leftVisible, rightVisible);
+                Platform.runLater(() -> {
+                    if (gen != recomputeGeneration.get()) return;
+                    diffProgress.setVisible(false);
+                    // edited meanwhile: the spans no longer fit, the pending recompute replaces them
+                    if (!left.equals(leftArea.getText()) || !right.equals(rightArea.getText())) return;
+                    applyDiff(result, highlight);
+                });
+            } catch (CancellationException ex) {
+                // superseded by a newer recompute or the tab was closed
+            }
+        });
+    }
+
+    /** Style spans of both panes and the CHANGE chunks whose word emphasis they include. */
+    private record Highlight(StyleSpans<Collection<String>> left, StyleSpans<Collection<String>> right,
+                             Set<DiffChunk> wordChunks) {
+    }
+
+    /**
+     * Builds the syntax + diff spans of both panes; runs on the worker thread for
+     * large inputs. Word emphasis covers every chunk of small inputs, and only
+     * the chunks in the given visible line ranges of large ones.
+     */
+    private static Highlight highlight(String left, String right, List<DiffChunk> chunks,
+                                       int[] leftVisible, int[] rightVisible) {
+        boolean allWords = (long) left.length() + right.length() < LAZY_WORDS_THRESHOLD;
+        Set<DiffChunk> wordChunks = Collections.newSetFromMap(new IdentityHashMap<>());
+        Predicate<DiffChunk> withWords = c -> {
+            boolean words = allWords || isVisible(c, leftVisible, rightVisible);
+            if (words) wordChunks.add(c);
+            return words;
+        };
+        return new Highlight(
+                DiffHighlighter.computeHighlighting(left, chunks, DiffHighlighter.Side.LEFT, withWords),
+                DiffHighlighter.computeHighlighting(right, chunks, DiffHighlighter.Side.RIGHT, withWords),
+                wordChunks);
+    }
+
+    private void applyDiff(List<DiffChunk> result, Highlight highlight) {
         this.chunks = result;
-        leftArea.setStyleSpans(0, DiffHighlighter.computeHighlighting(left, chunks, DiffHighlighter.Side.LEFT));
-        rightArea.setStyleSpans(0, DiffHighlighter.computeHighlighting(right, chunks, DiffHighlighter.Side.RIGHT));
+        this.chunksMatchText = true;
+        wordHighlightedChunks.clear();
+        wordHighlightedChunks.addAll(highlight.wordChunks());
+        leftWordLines.clear();
+        rightWordLines.clear();
+        leftArea.setStyleSpans(0, highlight.left());
+        rightArea.setStyleSpans(0, highlight.right());
         gutter.setChunks(chunks);
         if (currentChunkIndex >= chunks.size()) currentChunkIndex = -1;
     }
 
+    /**
+     * Adds the word emphasis of the CHANGE chunk lines that were scrolled into
+     * view since the diff was applied. Skipped while edits are pending, because
+     * the chunk line numbers no longer match the text.
+     */
+    private void highlightVisibleWords() {
+        if (!chunksMatchText) return;
+        int[] leftVisible = visibleLines(leftArea);
+        int[] rightVisible = visibleLines(rightArea);
+        for (DiffChunk c : chunks) {
+            if (c.getType() != DiffChunk.Type.CHANGE || wordHighlightedChunks.contains(c)) continue;
+            if (!isVisible(c, leftVisible, rightVisible)) continue;
+            boolean leftDone = overlayWords(leftArea, leftWordLines, c, c.getLeftStart(), c.getLeftEnd(),
+                    leftVisible, DiffHighlighter.Side.LEFT);
+            boolean rightDone = overlayWords(rightArea, rightWordLines, c, c.getRightStart(), c.getRightEnd(),
+                    rightVisible, DiffHighlighter.Side.RIGHT);
+            if (leftDone && rightDone) wordHighlightedChunks.add(c);
+        }
+    }
+
+    /**
+     * Adds the word emphasis of the visible lines of a chunk on one side that do
+     * not have it yet.
+     *
+     * @param done lines of {@code area} that already have their word emphasis
+     * @return whether all lines of the chunk on this side have it now
+     */
+    private static boolean overlayWords(CodeArea area, BitSet done, DiffChunk c, int startLine, int endLine,
+                                        int[] visible, DiffHighlighter.Side side) {
+        int paragraphs = area.getParagraphs().size();
+        int last = Math.min(endLine, paragraphs);
+        int from = Math.max(startLine, visible[0]);
+        int to = Math.min(last, visible[1] + 1);
+        for (int line = done.nextClearBit(from); line < to; line = done.nextClearBit(line)) {
+            int next = done.nextSetBit(line);
+            int runEnd = next < 0 ? to : Math.min(to, next);
+            int start = area.getAbsolutePosition(line, 0);
+            int end = runEnd < paragraphs ? area.getAbsolutePosition(runEnd, 0) : area.getLength();
+            if (end > start) {
+                area.setStyleSpans(start, DiffHighlighter.overlayWordHighlighting(
+                        area.getStyleSpans(start, end), area.getText(start, end), c, side, line - startLine));
+            }
+            done.set(line, runEnd);
+            line = runEnd;
+        }
+        return startLine >= last || done.nextClearBit(startLine) >= last;
+    }
+
+    private static boolean isVisible(DiffChunk c, int[] leftVisible, int[] rightVisible) {
+        return (c.getLeftStart() <= leftVisible[1] && c.getLeftEnd() > leftVisible[0])
+                || (c.getRightStart() <= rightVisible[1] && c.getRightEnd() > rightVisible[0]);
+    }
+
+    /** Returns the first and last visible paragraph of {@code area}, both inclusive. */
+    private static int[] visibleLines(CodeArea area) {
+        try {
+            return new int[] {area.firstVisibleParToAllParIndex(), area.lastVisibleParToAllParIndex()};
+        } catch (RuntimeException e) {
+            // Not laid out yet (e.g. the tab is being created); assume the top of the document is shown
+            return new int[] {0, FALLBACK_VISIBLE_LINES};
+        }
+    }
+
+    private VBox buildStructurePane() {
+        structureList.setCellFactory(list -> new ListCell<>() {
+            @Override
+            protected void updateItem(XmlStructuralDiff.Entry entry, boolean empty) {
+                super.updateItem(entry, empty);
+                setText(empty || entry == null ? null : entry.getDescription());
+            }
+        });
+        structureList.getSelectionModel().selectedItemProperty().addListener((obs, o, entry) -> {
+            if (entry != null) {
+                moveCaretToLine(leftArea, entry.leftLine());
+                moveCaretToLine(rightArea, entry.rightLine());
+            }
+        });
+        structureList.setPrefHeight(180);
+
+        Button hide = new Button("Hide");
+        hide.setOnAction(e -> {
+            structureGeneration.incrementAndGet();
+            root.setBottom(null);
+        });
+        HBox header = new HBox(8, structureSummary, hide);
+        header.setAlignment(Pos.CENTER_LEFT);
+        header.setPadding(new Insets(4, 8, 4, 8));
+        HBox.setHgrow(structureSummary, Priority.ALWAYS);
+        structureSummary.setMaxWidth(Double.MAX_VALUE);
+        header.getStyleClass().add("diff-pane-header-bar");
+        return new VBox(header, structureList);
+    }
+
+    /**
+     * Compare both sides structurally on a worker thread and show the edit
+     * script below the panes. Malformed XML is reported in the summary line.
+     */
+    private void computeStructuralDiff() {
+        long gen = structureGeneration.incrementAndGet();
+        String left = leftArea.getText();
+        String right = rightArea.getText();
+        String[] keyPaths = parseKeyPaths(structureKeys.getText());
+        saveKeyPaths(String.join(", ", keyPaths));
+        XmlStructuralDiff.Options options = XmlStructuralDiff.Options.defaults().withKeyPaths(keyPaths);
+        structureSummary.setText("Comparing XML structure…");
+        structureList.getItems().clear();
+        root.setBottom(structurePane);
+
+        org.fxt.freexmltoolkit.FxtGui.executorService.submit(() -> {
+            String summary;
+            List<XmlStructuralDiff.Entry> entries = List.of();
+            try {
+                XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left, right, options);
+                entries = result.entries();
+                summary = result.isIdentical()
+                        ? "XML structure is identical"
+                        : entries.size() + (result.truncated() ? "+" : "") + " structural difference(s)";
+            } catch (Exception ex) {
+                summary = "Structural comparison failed: " + ex.getMessage();
+            }
+            String text = summary;
+            List<XmlStructuralDiff.Entry> items = entries;
+            Platform.runLater(() -> {
+                if (gen != structureGeneration.get()) return;
+                structureSummary.setText(text);
+                structureList.getItems().setAll(items);
+            });
+        });
+    }
+
+    /** Splits the key path field on commas and whitespace, dropping empty entries. */
+    static String[] parseKeyPaths(String text) {
+        if (text == null || text.isBlank()) return new String[0];
+        return java.util.Arrays.stream(text.trim().split("[,\\s]+"))
+                .filter(path -> !path.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    /** @return the key paths of the last structural comparison, or empty when none were saved. */
+    private static String loadKeyPaths() {
+        try {
+            String value = org.fxt.freexmltoolkit.di.ServiceRegistry
+                    .get(org.fxt.freexmltoolkit.service.PropertiesService.class).get(STRUCTURE_KEYS_PROPERTY);
+            return value == null ? "" : value;
+        } catch (Throwable t) {
+            return ""; // properties service unavailable (e.g. tests)
+        }
+    }
+
+    /** Remembers the key paths for the next diff tab; silently ignores an unavailable service. */
+    private static void saveKeyPaths(String value) {
+        try {
+            org.fxt.freexmltoolkit.di.ServiceRegistry
+                    .get(org.fxt.freexmltoolkit.service.PropertiesService.class)
+                    .set(STRUCTURE_KEYS_PROPERTY, value);
+        } catch (Throwable ignored) {
+            // properties service unavailable — nothing to persist
+        }
+    }
+
     private void applyChunk(DiffChunk chunk, DiffGutter.Direction direction) {
         applyChunkAt(chunks.indexOf(chunk), direction);
     }
@@ -390,6 +685,7 @@ public final class DiffView extends Tab {
 
     private void handleClosed(Event ev) {
         recomputeGeneration.incrementAndGet();
+        structureGeneration.incrementAndGet();
     }
 
     private static String readFileSafely(File f) {
@@ -0,0 +1,577 @@
+package org.fxt.freexmltoolkit.controls.diff;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.fxt.freexmltoolkit.util.SecureXmlFactory;
+
+/**
+ * XML-aware diff used by the compare view next to the line-based {@link DiffEngine}.
+ *
+ * <p>Both documents are streamed once with StAX into a compact summary: per element only its
+ * name, start line, optional key and three 64-bit hashes (attributes, own text, whole subtree)
+ * are kept, so memory grows with the number of elements, not with the size of the text.
+ * Subtree hashes are computed bottom-up while streaming; the comparison then walks both trees
+ * top-down and skips every subtree whose hash matches, which makes unchanged regions cost
+ * nothing beyond the single parse.
+ *
+ * <p>Children are aligned in linear time: keyed elements (see {@link Options#keyPaths()}) by
+ * name and key, the remaining ones first by identical subtree hash and then by name in
+ * document order. Formatting, attribute order, namespace prefixes, comments and processing
+ * instructions do not produce differences; neither does a different order of matched
+ * siblings. The result is an edit script of {@link Entry entries} in document order.
+ *
+ * <p>This class has no JavaFX dependencies and is fully unit-testable.
+ */
+public final class XmlStructuralDiff {
+
+    /** Kind of a structural difference. */
+    public enum Kind { INSERTED, DELETED, ATTRIBUTES_CHANGED, TEXT_CHANGED }
+
+    /**
+     * One structural difference.
+     *
+     * <p>Lines are zero-based like those of {@link DiffChunk}. For an inserted element the left
+     * line is that of the matched parent (and vice versa for a deleted one), so that both panes
+     * can be positioned on the change. A line is {@code -1} only if the roots differ.
+     *
+     * @param kind      what changed
+     * @param path      XPath-like location, keyed steps use the key (e.g. {@code position[@id='7']})
+     * @param leftLine  line of the element in the left document
+     * @param rightLine line of the element in the right document
+     */
+    public record Entry(Kind kind, String path, int leftLine, int rightLine) {
+
+        /** Short description for lists, e.g. {@code "TEXT_CHANGED /a/b[1] (L 3 / R 4)"}. */
+        public String getDescription() {
+            return kind + " " + path + " (L " + (leftLine + 1) + " / R " + (rightLine + 1) + ")";
+        }
+    }
+
+    /**
+     * Result of a structural comparison.
+     *
+     * @param entries       the differences in document order
+     * @param truncated     whether the comparison stopped at {@link Options#maxEntries()}
+     * @param leftElements  number of elements in the left document
+     * @param rightElements number of elements in the right document
+     */
+    public record Result(List<Entry> entries, boolean truncated, int leftElements, int rightElements) {
+
+        public boolean isIdentical() {
+            return entries.isEmpty();
+        }
+    }
+
+    /**
+     * Comparison options.
+     *
+     * <p>Key paths identify repeating elements independently of their position. A key path is
+     * either an attribute ({@code @id}) or the text of a direct child element ({@code ISIN}),
+     * optionally restricted to one element name ({@code position/@id}, {@code position/ISIN}).
+     * The first key path that yields a value for an element is its key; attribute keys take
+     * precedence over child keys.
+     *
+     * @param keyPaths         key paths for repeating elements
+     * @param ignoreWhitespace whether whitespace is trimmed and collapsed before text is compared
+     * @param maxEntries       maximum number of entries; the comparison stops once it is reached
+     */
+    public record Options(List<String> keyPaths, boolean ignoreWhitespace, int maxEntries) {
+
+        public static final int DEFAULT_MAX_ENTRIES = 10_000;
+
+        public Options {
+            keyPaths = List.copyOf(keyPaths);
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("maxEntries must be positive");
+            }
+        }
+
+        /** No keys, whitespace-insensitive, at most {@value #DEFAULT_MAX_ENTRIES} entries. */
+        public static Options defaults() {
+            return new Options(List.of(), true, DEFAULT_MAX_ENTRIES);
+        }
+
+        public Options withKeyPaths(String... paths) {
+            return new Options(Arrays.asList(paths), ignoreWhitespace, maxEntries);
+        }
+
+        public Options withMaxEntries(int max) {
+            return new Options(keyPaths, ignoreWhitespace, max);
+        }
+    }
+
+    private static final int MAX_KEY_LENGTH = 256;
+
+    private XmlStructuralDiff() {
+        // utility
+    }
+
+    /** Compare two in-memory documents. */
+    public static Result compare(String left, String right, Options options) throws XMLStreamException {
+        return compare(new StringReader(left), new StringReader(right), options);
+    }
+
+    /**
+     * Compare two files, streaming them from disk. The bytes are handed to StAX so each file is
+     * decoded by its byte order mark or XML declaration rather than an assumed charset.
+     */
+    public static Result compare(Path left, Path right, Options options) throws IOException, XMLStreamException {
+        XMLInputFactory factory = SecureXmlFactory.createSecureXMLInputFactory();
+        try (InputStream l = new BufferedInputStream(Files.newInputStream(left));
+             InputStream r = new BufferedInputStream(Files.newInputStream(right))) {
+            return compare(factory.createXMLStreamReader(l), factory.createXMLStreamReader(r), options);
+        }
+    }
+
+    /** Compare two documents read from the given readers (not closed). */
+    public static Result compare(Reader left, Reader right, Options options) throws XMLStreamException {
+        XMLInputFactory factory = SecureXmlFactory.createSecureXMLInputFactory();
+        return compare(factory.createXMLStreamReader(left), factory.createXMLStreamReader(right), options);
+    }
+
+    private static Result compare(XMLStreamReader left, XMLStreamReader right, Options options)
+            throws XMLStreamException {
+        Objects.requireNonNull(options, "options");
+        KeyRules keys = KeyRules.parse(options.keyPaths());
+        Names names = new Names();
+        Summary l = summarize(left, names, keys, options.ignoreWhitespace());
+        Summary r = summarize(right, names, keys, options.ignoreWhitespace());
+        return new Matcher(l, r, names, options.maxEntries()).run();
+    }
+
+    // ------------------------------------------------------------------
+    // Streaming summary
+    // ------------------------------------------------------------------
+
+    /** Element names shared by both documents, so name ids can be compared directly. */
+    private static final class Names {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> localNames = new ArrayList<>();
+
+        int id(String namespace, String localName) {
+            String qualified = namespace == null || namespace.isEmpty() ? localName : "{" + namespace + "}" + localName;
+            return ids.computeIfAbsent(qualified, k -> {
+                localNames.add(localName);
+                return localNames.size() - 1;
+            });
+        }
+
+        String localName(int id) {
+            return localNames.get(id);
+        }
+    }
+
+    private record KeyRule(boolean attribute, String name) {
+    }
+
+    /** Parsed key paths, indexed by element name ({@code "*"} for any element). */
+    private static final class KeyRules {
+        private final Map<String, List<KeyRule>> byElement = new HashMap<>();
+        private final Set<String> childKeyNames = new HashSet<>();
+
+        static KeyRules parse(List<String> keyPaths) {
+            KeyRules rules = new KeyRules();
+            for (String raw : keyPaths) {
+                String path = raw.trim();
+                if (path.isEmpty()) {
+                    continue;
+                }
+                int slash = path.lastIndexOf('/');
+                String element = slash >= 0 ? path.substring(0, slash) : "*";
+                String step = slash >= 0 ? path.substring(slash + 1) : path;
+                boolean attribute = step.startsWith("@");
+                KeyRule rule = new KeyRule(attribute, attribute ? step.substring(1) : step);
+                rules.byElement.computeIfAbsent(element, k -> new ArrayList<>()).add(rule);
+                if (!attribute) {
+                    rules.childKeyNames.add(rule.name());
+                }
+            }
+            return rules;
+        }
+
+        List<KeyRule> rulesFor(String localName) {
+            List<KeyRule> specific = byElement.get(localName);
+            List<KeyRule> any = byElement.get("*");
+            if (specific == null) {
+                return any != null ? any : List.of();
+            }
+            if (any == null) {
+                return specific;
+            }
+            List<KeyRule> combined = new ArrayList<>(specific);
+            combined.addAll(any);
+            return combined;
+        }
+
+        boolean isEmpty() {
+            return byElement.isEmpty();
+        }
+    }
+
+    /**
+     * Columnar per-element data in document (pre-)order. The children of element {@code i}
+     * start at {@code i + 1}; the next sibling of a child {@code c} is {@code end[c]}.
+     */
+    private static final class Summary {
+        int size;
+        int[] name = new int[1024];
+        int[] end = new int[1024];
+        int[] startLine = new int[1024];
+        long[] hash = new long[1024];
+        long[] attrHash = new long[1024];
+        long[] textHash = new long[1024];
+        /** Key predicates of keyed elements, e.g. {@code @id='7'}; null for unkeyed ones. */
+        String[] key = new String[1024];
+
+        int add(int nameId, int line, long attributes) {
+            if (size == name.length) {
+                int capacity = size + (size >> 1);
+                name = Arrays.copyOf(name, capacity);
+                end = Arrays.copyOf(end, capacity);
+                startLine = Arrays.copyOf(startLine, capacity);
+                hash = Arrays.copyOf(hash, capacity);
+                attrHash = Arrays.copyOf(attrHash, capacity);
+                textHash = Arrays.copyOf(textHash, capacity);
+                key = Arrays.copyOf(key, capacity);
+            }
+            name[size] = nameId;
+            startLine[size] = line;
+            attrHash[size] = attributes;
+            return size++;
+        }
+    }
+
+    /** State of an open element while streaming. */
+    private static final class Frame {
+        final int index;
+        final int nameId;
+        final List<KeyRule> rules;
+        final TextHash text;
+        final StringBuilder capture;
+        long children = 0x9E3779B97F4A7C15L;
+        String key;
+
+        Frame(int index, int nameId, List<KeyRule> rules, boolean normalize, boolean capture) {
+            this.index = index;
+            this.nameId = nameId;
+            this.rules = rules;
+            this.text = new TextHash(normalize);
+            this.capture = capture ? new StringBuilder() : null;
+        }
+    }
+
+    private static Summary summarize(XMLStreamReader reader, Names names, KeyRules keys, boolean ignoreWhitespace)
+            throws XMLStreamException {
+        Summary summary = new Summary();
+        Deque<Frame> stack = new ArrayDeque<>();
+        try {
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT -> {
+                        String localName = reader.getLocalName();
+                        int nameId = names.id(reader.getNamespaceURI(), localName);
+                        long attributes = 0;
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            String ns = reader.getAttributeNamespace(i);
+                            String attrName = (ns == null || ns.isEmpty() ? "" : "{" + ns + "}") + reader.getAttributeLocalName(i);
+                            // Summed so that attribute order does not matter
+                            attributes += mix(mix(attrName.hashCode()) ^ stringHash(reader.getAttributeValue(i)));
+                        }
+                        int index = summary.add(nameId, reader.getLocation().getLineNumber() - 1, attributes);
+                        List<KeyRule> rules = keys.isEmpty() ? List.of() : keys.rulesFor(localName);
+                        Frame frame = new Frame(index, nameId, rules, ignoreWhitespace,
+                                keys.childKeyNames.contains(localName) && !stack.isEmpty()
+                                        && !stack.peek().rules.isEmpty());
+                        // Child keys are only known once that child has been read
+                        for (KeyRule rule : rules) {
+                            String value = rule.attribute() ? reader.getAttributeValue(null, rule.name()) : null;
+                            if (value != null) {
+                                frame.key = "@" + rule.name() + "='" + value + "'";
+                                break;
+                            }
+                        }
+                        stack.push(frame);
+                    }
+                    case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                        Frame frame = stack.peek();
+                        if (frame != null) {
+                            frame.text.feed(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                            if (frame.capture != null && frame.capture.length() < MAX_KEY_LENGTH) {
+                                frame.capture.append(reader.getTextCharacters(), reader.getTextStart(),
+                                        Math.min(reader.getTextLength(), MAX_KEY_LENGTH - frame.capture.length()));
+                            }
+                        }
+                    }
+                    case XMLStreamConstants.ENTITY_REFERENCE -> {
+                        Frame frame = stack.peek();
+                        if (frame != null) {
+                            String ref = "&" + reader.getLocalName() + ";";
+                            frame.text.feed(ref.toCharArray(), 0, ref.length());
+                        }
+                    }
+                    case XMLStreamConstants.END_ELEMENT -> {
+                        Frame frame = stack.pop();
+                        int i = frame.index;
+                        summary.end[i] = summary.size;
+                        summary.textHash[i] = frame.text.value();
+                        summary.hash[i] = mix(mix(mix(mix(frame.nameId) ^ summary.attrHash[i]) ^ summary.textHash[i])
+                                ^ frame.children);
+                        summary.key[i] = frame.key;
+                        Frame parent = stack.peek();
+                        if (parent != null) {
+                            parent.children = mix(parent.children + summary.hash[i]);
+                            if (parent.key == null && frame.capture != null) {
+                                String localName = names.localName(frame.nameId);
+                                for (KeyRule rule : parent.rules) {
+                                    if (!rule.attribute() && rule.name().equals(localName)) {
+                                        parent.key = localName + "='" + frame.capture.toString().trim() + "'";
+                                        break;
+                                    }
+                                }
+                            }
+                        }
+                    }
+                    default -> {
+                        // comments, processing instructions and the prolog are not compared
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return summary;
+    }
+
+    /** Incremental FNV-1a hash of text, optionally trimming and collapsing whitespace. */
+    private static final class TextHash {
+        private final boolean normalize;
+        private long hash = 0xcbf29ce484222325L;
+        private boolean any;
+        private boolean pendingSpace;
+
+        TextHash(boolean normalize) {
+            this.normalize = normalize;
+        }
+
+        void feed(char[] chars, int start, int length) {
+            for (int i = start; i < start + length; i++) {
+                char c = chars[i];
+                if (normalize && Character.isWhitespace(c)) {
+                    pendingSpace = any;
+                    continue;
+                }
+                if (pendingSpace) {
+                    step(' ');
+                    pendingSpace = false;
+                }
+                step(c);
+                any = true;
+            }
+        }
+
+        private void step(char c) {
+            hash = (hash ^ c) * 0x100000001b3L;
+        }
+
+        long value() {
+            return any ? hash : 0;
+        }
+    }
+
+    private static long stringHash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // ------------------------------------------------------------------
+    // Top-down matching
+    // ------------------------------------------------------------------
+
+    private static final class Matcher {
+        private final Summary left;
+        private final Summary right;
+        private final Names names;
+        private final int maxEntries;
+        private final List<Entry> entries = new ArrayList<>();
+        private boolean truncated;
+
+        /** Pending work; an element index of -1 marks the side on which the element is missing. */
+        private record Task(int left, int right, String path, int anchorLine) {
+        }
+
+        Matcher(Summary left, Summary right, Names names, int maxEntries) {
+            this.left = left;
+            this.right = right;
+            this.names = names;
+            this.maxEntries = maxEntries;
+        }
+
+        Result run() {
+            if (left.size > 0 && right.size > 0 && left.name[0] == right.name[0]) {
+                walk(new Task(0, 0, "/" + names.localName(left.name[0]), -1));
+            } else {
+                if (left.size > 0) {
+                    add(Kind.DELETED, "/" + names.localName(left.name[0]), left.startLine[0], -1);
+                }
+                if (right.size > 0) {
+                    add(Kind.INSERTED, "/" + names.localName(right.name[0]), -1, right.startLine[0]);
+                }
+            }
+            return new Result(List.copyOf(entries), truncated, left.size, right.size);
+        }
+
+        private void walk(Task root) {
+            Deque<Task> stack = new ArrayDeque<>();
+            stack.push(root);
+            while (!stack.isEmpty() && !truncated) {
+                Task task = stack.pop();
+                if (task.left() < 0) {
+                    add(Kind.INSERTED, task.path(), task.anchorLine(), right.startLine[task.right()]);
+                } else if (task.right() < 0) {
+                    add(Kind.DELETED, task.path(), left.startLine[task.left()], task.anchorLine());
+                } else {
+                    compare(task.left(), task.right(), task.path(), stack);
+                }
+            }
+        }
+
+        private void compare(int l, int r, String path, Deque<Task> stack) {
+            if (left.hash[l] == right.hash[r]) {
+                return;
+            }
+            if (left.attrHash[l] != right.attrHash[r]) {
+                add(Kind.ATTRIBUTES_CHANGED, path, left.startLine[l], right.startLine[r]);
+            }
+            if (left.textHash[l] != right.textHash[r]) {
+                add(Kind.TEXT_CHANGED, path, left.startLine[l], right.startLine[r]);
+            }
+
+            int[] leftChildren = children(left, l);
+            int[] rightChildren = children(right, r);
+            int[] partner = new int[leftChildren.length];
+            Arrays.fill(partner, -1);
+            boolean[] rightMatched = new boolean[rightChildren.length];
+
+            // 1. keyed children by name and key, 2. identical subtrees, 3. remaining ones by name in order
+            Map<String, ArrayDeque<Integer>> byKey = new HashMap<>();
+            Map<Long, ArrayDeque<Integer>> byHash = new HashMap<>();
+            for (int j = 0; j < rightChildren.length; j++) {
+                String key = right.key[rightChildren[j]];
+                if (key != null) {
+                    byKey.computeIfAbsent(right.name[rightChildren[j]] + "|" + key, k -> new ArrayDeque<>()).add(j);
+                } else {
+                    byHash.computeIfAbsent(right.hash[rightChildren[j]], k -> new ArrayDeque<>()).add(j);
+                }
+            }
+            for (int i = 0; i < leftChildren.length; i++) {
+                String key = left.key[leftChildren[i]];
+                ArrayDeque<Integer> candidates = key != null
+                        ? byKey.get(left.name[leftChildren[i]] + "|" + key)
+                        : byHash.get(left.hash[leftChildren[i]]);
+                Integer j = candidates != null ? candidates.poll() : null;
+                if (j != null) {
+                    partner[i] = j;
+                    rightMatched[j] = true;
+                }
+            }
+            Map<Integer, ArrayDeque<Integer>> byName = new HashMap<>();
+            for (int j = 0; j < rightChildren.length; j++) {
+                if (!rightMatched[j] && right.key[rightChildren[j]] == null) {
+                    byName.computeIfAbsent(right.name[rightChildren[j]], k -> new ArrayDeque<>()).add(j);
+                }
+            }
+            for (int i = 0; i < leftChildren.length; i++) {
+                if (partner[i] < 0 && left.key[leftChildren[i]] == null) {
+                    ArrayDeque<Integer> candidates = byName.get(left.name[leftChildren[i]]);
+                    Integer j = candidates != null ? candidates.poll() : null;
+                    if (j != null) {
+                        partner[i] = j;
+                        rightMatched[j] = true;
+                    }
+                }
+            }
+
+            // Push in reverse so that left children are processed in order, then insertions
+            List<Task> tasks = new ArrayList<>();
+            Map<Integer, Integer> occurrences = new HashMap<>();
+            for (int i = 0; i < leftChildren.length; i++) {
+                int child = leftChildren[i];
+                String step = step(left, child, occurrences);
+                if (partner[i] < 0) {
+                    tasks.add(new Task(child, -1, path + "/" + step, right.startLine[r]));
+                } else if (left.hash[child] != right.hash[rightChildren[partner[i]]]) {
+                    tasks.add(new Task(child, rightChildren[partner[i]], path + "/" + step, -1));
+                }
+            }
+            occurrences.clear();
+            for (int j = 0; j < rightChildren.length; j++) {
+                String step = step(right, rightChildren[j], occurrences);
+                if (!rightMatched[j]) {
+                    tasks.add(new Task(-1, rightChildren[j], path + "/" + step, left.startLine[l]));
+                }
+            }
+            for (int t = tasks.size() - 1; t >= 0; t--) {
+                stack.push(tasks.get(t));
+            }
+        }
+
+        private String step(Summary summary, int element, Map<Integer, Integer> occurrences) {
+            int nameId = summary.name[element];
+            int position = occurrences.merge(nameId, 1, Integer::sum);
+            String key = summary.key[element];
+            return names.localName(nameId) + "[" + (key != null ? key : position) + "]";
+        }
+
+        private static int[] children(Summary summary, int element) {
+            int count = 0;
+            for (int c = element + 1; c < summary.end[element]; c = summary.end[c]) {
+                count++;
+            }
+            int[] result = new int[count];
+            int i = 0;
+            for (int c = element + 1; c < summary.end[element]; c = summary.end[c]) {
+                result[i++] = c;
+            }
+            return result;
+        }
+
+        private void add(Kind kind, String path, int leftLine, int rightLine) {
+            if (entries.size() >= maxEntries) {
+                truncated = true;
+                return;
+            }
+            entries.add(new Entry(kind, path, leftLine, rightLine));
+        }
+    }
+}
@@ -37,9 +37,10 @@ public abstract class JsonNode {
     protected final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
 
     /**
-     * Unique identifier for this node, generated as a UUID string.
+     * Unique identifier for this node, generated as a UUID string on first access.
+     * Parsed documents create many nodes whose identifier is never asked for.
      */
-    private final String id = UUID.randomUUID().toString();
+    private String id;
 
     /**
      * The parent node of this node in the JSON tree hierarchy.
@@ -65,8 +66,8 @@ public abstract class JsonNode {
     }
 
     // Position in the source text (for navigation)
-    private int startPosition = -1;
-    private int endPosition = -1;
+    private long startPosition = -1;
+    private long endPosition = -1;
 
     /**
      * Gets the unique identifier for this node.
@@ -75,6 +76,9 @@ public abstract class JsonNode {
      * @return the unique identifier string for this node
      */
     public String getId() {
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+        }
         return id;
     }
 
@@ -136,7 +140,7 @@ public abstract class JsonNode {
      *
      * @return the start position as a character offset, or -1 if not set
      */
-    public int getStartPosition() {
+    public long getStartPosition() {
         return startPosition;
     }
 
@@ -145,7 +149,7 @@ public abstract class JsonNode {
      *
      * @param startPosition the start position as a character offset
      */
-    public void setStartPosition(int startPosition) {
+    public void setStartPosition(long startPosition) {
         this.startPosition = startPosition;
     }
 
@@ -155,7 +159,7 @@ public abstract class JsonNode {
      *
      * @return the end position as a character offset, or -1 if not set
      */
-    public int getEndPosition() {
+    public long getEndPosition() {
         return endPosition;
     }
 
@@ -164,7 +168,7 @@ public abstract class JsonNode {
      *
      * @param endPosition the end position as a character offset
      */
-    public void setEndPosition(int endPosition) {
+    public void setEndPosition(long endPosition) {
         this.endPosition = endPosition;
     }
 
@@ -193,6 +197,19 @@ public abstract class JsonNode {
         }
     }
 
+    /**
+     * Appends a child while a parser builds the tree. Unlike {@link #addChild(JsonNode)}
+     * no events are fired, since nobody can listen to a tree under construction.
+     *
+     * @param child the child node to append
+     * @param key   the property key of the child, or null for array elements
+     */
+    void appendParsedChild(JsonNode child, String key) {
+        child.key = key;
+        child.parent = this;
+        children.add(child);
+    }
+
     /**
      * Adds a child node at a specific index in this node's children list.
      * The child's parent will be set to this node automatically.
@@ -416,7 +433,7 @@ public abstract class JsonNode {
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{" +
-                "id='" + id + '\'' +
+                "id='" + getId() + '\'' +
                 ", key='" + key + '\'' +
                 ", type=" + getNodeType() +
                 ", children=" + children.size() +
@@ -20,26 +20,39 @@ package org.fxt.freexmltoolkit.controls.jsoneditor.model;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.fxt.freexmltoolkit.controls.shared.JsonSyntaxHighlighter;
 
 import com.google.gson.JsonElement;
-import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
 
 /**
  * Factory for creating JsonNode trees from JSON text or Gson JsonElement.
+ * Text and files are read with {@link JsonStreamingReader}.
  * This class provides static methods and should not be instantiated.
  */
 public class JsonNodeFactory {
 
     private static final Logger logger = LogManager.getLogger(JsonNodeFactory.class);
 
+    /**
+     * Threshold value that disables lazy arrays.
+     */
+    public static final int NO_LAZY_ARRAYS = -1;
+
+    /**
+     * Element count above which arrays read from files are loaded on demand.
+     */
+    public static final int DEFAULT_LAZY_ARRAY_THRESHOLD = 10_000;
+
     /**
      * Private constructor to prevent instantiation of this utility class.
      */
@@ -48,41 +61,38 @@ public class JsonNodeFactory {
     }
 
     /**
-     * Parses a JSON string into a JsonDocument.
+     * Parses a JSON, JSONC or JSON5 string into a JsonDocument.
+     * The text is read in a single pass without an intermediate tree; every node
+     * carries its start and end offset in the text.
      *
      * @param jsonText the JSON text to parse
      * @return the parsed JsonDocument
      * @throws JsonSyntaxException if the JSON is invalid
      */
     public static JsonDocument parse(String jsonText) throws JsonSyntaxException {
+        return parse(jsonText, NO_LAZY_ARRAYS);
+    }
+
+    /**
+     * Parses a JSON, JSONC or JSON5 string into a JsonDocument, building arrays
+     * with more than {@code lazyArrayThreshold} elements as {@link LazyJsonArray}.
+     *
+     * @param jsonText           the JSON text to parse
+     * @param lazyArrayThreshold element count above which arrays are loaded on demand
+     * @return the parsed JsonDocument
+     * @throws JsonSyntaxException if the JSON is invalid
+     */
+    public static JsonDocument parse(String jsonText, int lazyArrayThreshold) throws JsonSyntaxException {
         if (jsonText == null || jsonText.isBlank()) {
             return new JsonDocument();
         }
-
-        // Detect format and strip comments if needed
-        String format = JsonSyntaxHighlighter.detectFormat(jsonText);
-        String cleanedText = jsonText;
-
-        if ("jsonc".equals(format) || "json5".equals(format)) {
-            cleanedText = JsonSyntaxHighlighter.stripComments(jsonText);
-            // For JSON5, also handle trailing commas
-            if ("json5".equals(format)) {
-                cleanedText = cleanedText.replaceAll(",\\s*([}\\]])", "$1");
-            }
-        }
-
-        JsonElement gsonElement = JsonParser.parseString(cleanedText);
-        JsonNode rootNode = fromGsonElement(gsonElement);
-
-        JsonDocument doc = new JsonDocument(rootNode);
-        doc.setFormat(format);
-
-        logger.debug("Parsed JSON document with format: {}", format);
-        return doc;
+        return readDocument(JsonStreamingReader.of(jsonText), lazyArrayThreshold);
     }
 
     /**
      * Parses a JSON file into a JsonDocument.
+     * The file is streamed; arrays with more than {@value #DEFAULT_LAZY_ARRAY_THRESHOLD}
+     * elements are loaded on demand, see {@link #parse(Path, int)}.
      *
      * @param file the file to parse
      * @return the parsed JsonDocument
@@ -90,12 +100,198 @@ public class JsonNodeFactory {
      * @throws JsonSyntaxException if the JSON is invalid
      */
     public static JsonDocument parse(File file) throws IOException, JsonSyntaxException {
-        String content = Files.readString(file.toPath(), StandardCharsets.UTF_8);
-        JsonDocument doc = parse(content);
+        JsonDocument doc = parse(file.toPath(), DEFAULT_LAZY_ARRAY_THRESHOLD);
         doc.setSourceFile(file);
         return doc;
     }
 
+    /**
+     * Streams a UTF-8 encoded JSON, JSONC or JSON5 file into a JsonDocument.
+     * Arrays with more than {@code lazyArrayThreshold} elements keep only their
+     * first elements in memory and read the others from the file when accessed,
+     * so even arrays larger than the heap can be opened.
+     *
+     * @param file               the file to parse
+     * @param lazyArrayThreshold element count above which arrays are loaded on demand
+     * @return the parsed JsonDocument
+     * @throws IOException if reading fails
+     * @throws JsonSyntaxException if the JSON is invalid
+     */
+    public static JsonDocument parse(Path file, int lazyArrayThreshold) throws IOException, JsonSyntaxException {
+        try (JsonStreamingReader reader = JsonStreamingReader.open(file)) {
+            return readDocument(reader, lazyArrayThreshold);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static JsonDocument readDocument(JsonStreamingReader reader, int lazyArrayThreshold) {
+        JsonNode rootNode = readValue(reader, lazyArrayThreshold);
+        if (rootNode != null && reader.next() != JsonStreamingReader.Token.END_DOCUMENT) {
+            throw new JsonSyntaxException("Unexpected content after the end of the document");
+        }
+
+        JsonDocument doc = rootNode != null ? new JsonDocument(rootNode) : new JsonDocument();
+        doc.setFormat(reader.getFormat());
+
+        logger.debug("Parsed JSON document with format: {}", doc.getFormat());
+        return doc;
+    }
+
+    /**
+     * Reads the next complete value from a reader. Containers are built
+     * iteratively, so deeply nested input cannot overflow the stack.
+     *
+     * @param reader             the reader, positioned before a value
+     * @param lazyArrayThreshold element count above which arrays are loaded on demand
+     * @return the value, or null if the reader is at the end of the document
+     */
+    static JsonNode readValue(JsonStreamingReader reader, int lazyArrayThreshold) {
+        int lazyPages = lazyArrayThreshold == NO_LAZY_ARRAYS
+                ? Integer.MAX_VALUE
+                : Math.max(1, (lazyArrayThreshold + LazyJsonArray.PAGE_SIZE - 1) / LazyJsonArray.PAGE_SIZE);
+        ArrayDeque<Container> open = new ArrayDeque<>();
+        String key = null;
+
+        while (true) {
+            JsonStreamingReader.Token token = reader.next();
+            Container parent = open.peek();
+            if (parent != null && parent.elements != null && isValueStart(token)) {
+                if (parent.recordElement(reader, lazyPages)) {
+                    // Beyond the in-memory pages: only remember where the element starts
+                    if (token == JsonStreamingReader.Token.BEGIN_OBJECT || token == JsonStreamingReader.Token.BEGIN_ARRAY) {
+                        reader.skipContainer();
+                    }
+                    continue;
+                }
+            }
+
+            JsonNode completed;
+            switch (token) {
+                case NAME -> {
+                    key = reader.getStringValue();
+                    continue;
+                }
+                case BEGIN_OBJECT, BEGIN_ARRAY -> {
+                    Container container = new Container(key,
+                            token == JsonStreamingReader.Token.BEGIN_OBJECT ? new JsonObject() : null, reader);
+                    open.push(container);
+                    key = null;
+                    continue;
+                }
+                case END_OBJECT, END_ARRAY -> {
+                    if (open.isEmpty()) {
+                        throw new JsonSyntaxException("Unexpected end of array at offset " + reader.getTokenStart());
+                    }
+                    Container container = open.pop();
+                    completed = container.finish(reader, lazyArrayThreshold);
+                    key = container.key;
+                }
+                case STRING -> completed = new JsonPrimitive(reader.getStringValue());
+                case NUMBER -> completed = new JsonPrimitive(reader.getNumberValue());
+                case BOOLEAN -> completed = new JsonPrimitive(reader.getBooleanValue());
+                case NULL -> completed = JsonPrimitive.nullValue();
+                case END_DOCUMENT -> {
+                    return null;
+                }
+                default -> throw new JsonSyntaxException("Unexpected token " + token);
+            }
+            if (completed.getStartPosition() < 0) {
+                completed.setStartPosition(reader.getTokenStart());
+            }
+            completed.setEndPosition(reader.getTokenEnd());
+
+            Container target = open.peek();
+            if (target == null) {
+                return completed;
+            }
+            target.add(completed, key);
+            key = null;
+        }
+    }
+
+    private static boolean isValueStart(JsonStreamingReader.Token token) {
+        return switch (token) {
+            case BEGIN_OBJECT, BEGIN_ARRAY, STRING, NUMBER, BOOLEAN, NULL -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * An object or array being read. Array elements are collected in a list and
+     * the array node is only created when it is complete, because a large array
+     * turns into a {@link LazyJsonArray}.
+     */
+    private static final class Container {
+        final String key;
+        final JsonObject object;
+        final List<JsonNode> elements;
+        final long startPosition;
+
+        int count;
+        long[] pageSourceOffsets;
+        long[] pageCharOffsets;
+        int pages;
+
+        Container(String key, JsonObject object, JsonStreamingReader reader) {
+            this.key = key;
+            this.object = object;
+            this.elements = object == null ? new ArrayList<>() : null;
+            this.startPosition = reader.getTokenStart();
+        }
+
+        /**
+         * Counts an array element that was just started and remembers where its page begins.
+         *
+         * @return true if the element lies beyond the pages kept in memory
+         */
+        boolean recordElement(JsonStreamingReader reader, int lazyPages) {
+            int index = count++;
+            if (lazyPages == Integer.MAX_VALUE) {
+                return false;
+            }
+            if (index % LazyJsonArray.PAGE_SIZE == 0) {
+                if (pageSourceOffsets == null) {
+                    pageSourceOffsets = new long[8];
+                    pageCharOffsets = new long[8];
+                } else if (pages == pageSourceOffsets.length) {
+                    pageSourceOffsets = Arrays.copyOf(pageSourceOffsets, pages * 2);
+                    pageCharOffsets = Arrays.copyOf(pageCharOffsets, pages * 2);
+                }
+                pageSourceOffsets[pages] = reader.getTokenSourceOffset();
+                pageCharOffsets[pages] = reader.getTokenStart();
+                pages++;
+            }
+            return index >= lazyPages * LazyJsonArray.PAGE_SIZE;
+        }
+
+        void add(JsonNode value, String childKey) {
+            if (object != null) {
+                object.appendParsedChild(value, childKey);
+            } else {
+                elements.add(value);
+            }
+        }
+
+        JsonNode finish(JsonStreamingReader reader, int lazyArrayThreshold) {
+            JsonNode node;
+            if (object != null) {
+                node = object;
+            } else if (count > elements.size()) {
+                node = new LazyJsonArray(reader.getOrigin(), Arrays.copyOf(pageSourceOffsets, pages),
+                        Arrays.copyOf(pageCharOffsets, pages), count, elements, lazyArrayThreshold);
+            } else {
+                JsonArray array = new JsonArray();
+                for (JsonNode element : elements) {
+                    array.appendParsedChild(element, null);
+                }
+                node = array;
+            }
+            node.setStartPosition(startPosition);
+            return node;
+        }
+    }
+
     /**
      * Converts a Gson JsonElement to our JsonNode model.
      *
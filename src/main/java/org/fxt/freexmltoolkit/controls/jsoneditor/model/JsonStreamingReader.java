@@ -0,0 +1,822 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2024.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.controls.jsoneditor.model;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+
+import com.google.gson.JsonSyntaxException;
+
+/**
+ * Single-pass pull reader for JSON, JSONC and JSON5 text.
+ *
+ * <p>The reader accepts the JSON5 superset directly: comments, trailing commas,
+ * unquoted and single-quoted keys, single-quoted strings, hexadecimal numbers,
+ * {@code Infinity}/{@code NaN}, leading or trailing decimal points and line
+ * continuations. Nothing is rewritten up front; which of these features were
+ * seen is available through {@link #getFormat()} once the document is read.</p>
+ *
+ * <p>Every token reports its character offsets in the source text
+ * ({@link #getTokenStart()}, {@link #getTokenEnd()}). Files are decoded as
+ * UTF-8 while reading, and {@link #getTokenSourceOffset()} additionally
+ * reports the byte offset of a token, so that a later reader can resume
+ * directly at an array element (see {@link LazyJsonArray}).</p>
+ *
+ * <p>Syntax errors are reported as {@link JsonSyntaxException} with line,
+ * column and offset; I/O errors while reading a file as
+ * {@link UncheckedIOException}.</p>
+ */
+public final class JsonStreamingReader implements Closeable {
+
+    /**
+     * Tokens returned by {@link #next()}.
+     */
+    public enum Token {
+        BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+    }
+
+    private static final int EOF = -1;
+
+    private static final byte OBJECT = 0;
+    private static final byte ARRAY = 1;
+
+    private static final byte EXPECT_NAME = 0;
+    private static final byte EXPECT_VALUE = 1;
+    private static final byte AFTER_VALUE = 2;
+
+    private final Input input;
+    private final Object origin;
+
+    private byte[] contexts = new byte[32];
+    private byte[] states = new byte[32];
+    private int depth;
+    private boolean rootStarted;
+
+    private final StringBuilder buffer = new StringBuilder();
+    private boolean skipping;
+
+    private long tokenStart;
+    private long tokenEnd;
+    private long tokenSourceOffset;
+    private String stringValue;
+    private String numberText;
+    private Number numberValue;
+    private boolean booleanValue;
+
+    private long line = 1;
+    private long lineStart;
+
+    private boolean comments;
+    private boolean json5;
+
+    private JsonStreamingReader(Input input, Object origin) {
+        this.input = input;
+        this.origin = origin;
+    }
+
+    /**
+     * Creates a reader over in-memory text.
+     *
+     * @param text the JSON, JSONC or JSON5 text
+     * @return a new reader
+     */
+    public static JsonStreamingReader of(CharSequence text) {
+        return new JsonStreamingReader(new TextInput(text, 0), text);
+    }
+
+    /**
+     * Opens a reader over a UTF-8 encoded file. The file is read incrementally;
+     * close the reader when done.
+     *
+     * @param file the file to read
+     * @return a new reader
+     * @throws IOException if the file cannot be opened
+     */
+    public static JsonStreamingReader open(Path file) throws IOException {
+        FileSource source = FileSource.of(file);
+        return new JsonStreamingReader(new Utf8Input(Channels.newInputStream(FileChannel.open(file, StandardOpenOption.READ)), 0), source);
+    }
+
+    /**
+     * A file together with its size and modification time when a reader was opened on it. The
+     * offsets a reader reports are only valid for exactly that content, so a reader resuming at an
+     * array element refuses to read a file that has changed since.
+     *
+     * @param file         the file
+     * @param size         the file size in bytes
+     * @param lastModified the modification time
+     */
+    record FileSource(Path file, long size, FileTime lastModified) {
+
+        static FileSource of(Path file) throws IOException {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return new FileSource(file, attributes.size(), attributes.lastModifiedTime());
+        }
+
+        /**
+         * @throws IOException if the file cannot be read or differs from the recorded state
+         */
+        void checkUnchanged() throws IOException {
+            FileSource current = of(file);
+            if (current.size() != size || !current.lastModified().equals(lastModified)) {
+                throw new IOException("File was modified after it was opened: " + file);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return file.toString();
+        }
+    }
+
+    /**
+     * Opens a reader positioned at an array element that an earlier reader
+     * reported through {@link #getTokenSourceOffset()} and {@link #getTokenStart()}.
+     * The reader treats the input as the inside of an array: it returns the
+     * elements one after the other and {@link Token#END_ARRAY} at the closing bracket.
+     *
+     * @throws IOException if the file cannot be opened or has changed since the earlier reader opened it
+     */
+    static JsonStreamingReader openArrayElements(Object origin, long sourceOffset, long charOffset) throws IOException {
+        JsonStreamingReader reader;
+        if (origin instanceof CharSequence text) {
+            reader = new JsonStreamingReader(new TextInput(text, (int) sourceOffset), origin);
+        } else if (origin instanceof FileSource source) {
+            source.checkUnchanged();
+            FileChannel channel = FileChannel.open(source.file(), StandardOpenOption.READ);
+            channel.position(sourceOffset);
+            reader = new JsonStreamingReader(new Utf8Input(Channels.newInputStream(channel), sourceOffset), origin);
+        } else {
+            throw new IllegalArgumentException("Unsupported JSON source: " + origin);
+        }
+        reader.input.charPos = charOffset;
+        reader.lineStart = charOffset;
+        reader.rootStarted = true;
+        reader.push(ARRAY, EXPECT_VALUE);
+        return reader;
+    }
+
+    /**
+     * The text or {@link FileSource} this reader reads from.
+     */
+    Object getOrigin() {
+        return origin;
+    }
+
+    /**
+     * Advances to the next token. An input that contains nothing but whitespace
+     * and comments yields {@link Token#END_DOCUMENT} right away.
+     *
+     * @return the next token
+     * @throws JsonSyntaxException if the input is malformed
+     */
+    public Token next() {
+        skipInsignificant();
+        if (depth == 0) {
+            if (rootStarted || input.peek() == EOF) {
+                if (input.peek() != EOF) {
+                    throw syntaxError("Unexpected content after the end of the document");
+                }
+                markToken();
+                tokenEnd = tokenStart;
+                return Token.END_DOCUMENT;
+            }
+            rootStarted = true;
+            return readValue();
+        }
+
+        int top = depth - 1;
+        if (states[top] == AFTER_VALUE) {
+            int c = input.peek();
+            if (c == ',') {
+                read();
+                skipInsignificant();
+                if (input.peek() == closer(top)) {
+                    json5 = true;
+                    return closeContainer();
+                }
+                states[top] = contexts[top] == OBJECT ? EXPECT_NAME : EXPECT_VALUE;
+            } else if (c == closer(top)) {
+                return closeContainer();
+            } else {
+                throw syntaxError(contexts[top] == OBJECT ? "Expected ',' or '}'" : "Expected ',' or ']'");
+            }
+        }
+
+        if (states[top] == EXPECT_NAME) {
+            if (input.peek() == '}') {
+                return closeContainer();
+            }
+            readName();
+            states[top] = EXPECT_VALUE;
+            return Token.NAME;
+        }
+
+        if (contexts[top] == ARRAY && input.peek() == ']') {
+            return closeContainer();
+        }
+        states[top] = AFTER_VALUE;
+        return readValue();
+    }
+
+    /**
+     * Skips the rest of the object or array whose begin token was just returned,
+     * without building any strings or numbers. The structure is still checked.
+     */
+    public void skipContainer() {
+        int target = depth - 1;
+        skipping = true;
+        try {
+            while (depth > target) {
+                next();
+            }
+        } finally {
+            skipping = false;
+        }
+    }
+
+    /** Returns the property name of a {@link Token#NAME} or the value of a {@link Token#STRING}. */
+    public String getStringValue() {
+        return stringValue;
+    }
+
+    /** Returns the value of a {@link Token#NUMBER}: an Integer, Long, BigDecimal or Double. */
+    public Number getNumberValue() {
+        return numberValue;
+    }
+
+    /** Returns the source text of a {@link Token#NUMBER}. */
+    public String getNumberText() {
+        return numberText;
+    }
+
+    /** Returns the value of a {@link Token#BOOLEAN}. */
+    public boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    /** Character offset at which the current token starts. */
+    public long getTokenStart() {
+        return tokenStart;
+    }
+
+    /** Character offset just after the current token. */
+    public long getTokenEnd() {
+        return tokenEnd;
+    }
+
+    /** Offset of the current token in the underlying source: bytes for files, characters for text. */
+    public long getTokenSourceOffset() {
+        return tokenSourceOffset;
+    }
+
+    /** Nesting depth after the current token; 0 outside the root value. */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the format implied by the syntax read so far: {@code "json5"} if
+     * any JSON5-only syntax was seen, {@code "jsonc"} if comments were seen,
+     * {@code "json"} otherwise.
+     */
+    public String getFormat() {
+        if (json5) {
+            return "json5";
+        }
+        return comments ? "jsonc" : "json";
+    }
+
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+
+    // ==================== Structure ====================
+
+    private int closer(int index) {
+        return contexts[index] == OBJECT ? '}' : ']';
+    }
+
+    private void push(byte context, byte state) {
+        if (depth == contexts.length) {
+            contexts = Arrays.copyOf(contexts, depth * 2);
+            states = Arrays.copyOf(states, depth * 2);
+        }
+        contexts[depth] = context;
+        states[depth] = state;
+        depth++;
+    }
+
+    private Token closeContainer() {
+        markToken();
+        int c = read();
+        depth--;
+        tokenEnd = input.charPos;
+        return c == '}' ? Token.END_OBJECT : Token.END_ARRAY;
+    }
+
+    private void markToken() {
+        tokenStart = input.charPos;
+        tokenSourceOffset = input.sourceOffset();
+    }
+
+    private Token readValue() {
+        markToken();
+        int c = input.peek();
+        Token token;
+        switch (c) {
+            case '{' -> {
+                read();
+                push(OBJECT, EXPECT_NAME);
+                token = Token.BEGIN_OBJECT;
+            }
+            case '[' -> {
+                read();
+                push(ARRAY, EXPECT_VALUE);
+                token = Token.BEGIN_ARRAY;
+            }
+            case '"', '\'' -> {
+                stringValue = readString();
+                token = Token.STRING;
+            }
+            case 't' -> {
+                expectLiteral("true");
+                booleanValue = true;
+                token = Token.BOOLEAN;
+            }
+            case 'f' -> {
+                expectLiteral("false");
+                booleanValue = false;
+                token = Token.BOOLEAN;
+            }
+            case 'n' -> {
+                expectLiteral("null");
+                token = Token.NULL;
+            }
+            case EOF -> throw syntaxError("Unexpected end of input");
+            default -> {
+                if (isNumberStart(c)) {
+                    readNumber();
+                    token = Token.NUMBER;
+                } else {
+                    throw syntaxError("Unexpected character '" + (char) c + "'");
+                }
+            }
+        }
+        tokenEnd = input.charPos;
+        return token;
+    }
+
+    private void readName() {
+        markToken();
+        int c = input.peek();
+        if (c == '"' || c == '\'') {
+            stringValue = readString();
+        } else if (c != EOF && (Character.isJavaIdentifierStart(c))) {
+            json5 = true;
+            buffer.setLength(0);
+            while (input.peek() != EOF && Character.isJavaIdentifierPart(input.peek())) {
+                buffer.append((char) read());
+            }
+            stringValue = buffer.toString();
+        } else {
+            throw syntaxError("Expected a property name");
+        }
+        tokenEnd = input.charPos;
+        skipInsignificant();
+        if (input.peek() != ':') {
+            throw syntaxError("Expected ':' after property name");
+        }
+        read();
+    }
+
+    private void expectLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            if (read() != literal.charAt(i)) {
+                throw syntaxError("Expected '" + literal + "'");
+            }
+        }
+        int c = input.peek();
+        if (c != EOF && Character.isLetterOrDigit(c)) {
+            throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    // ==================== Scalars ====================
+
+    private String readString() {
+        int quote = read();
+        if (quote == '\'') {
+            json5 = true;
+        }
+        buffer.setLength(0);
+        while (true) {
+            int c = read();
+            if (c == quote) {
+                break;
+            }
+            switch (c) {
+                case EOF, '\n', '\r' -> throw syntaxError("Unterminated string");
+                case '\\' -> readEscape();
+                default -> {
+                    if (!skipping) {
+                        buffer.append((char) c);
+                    }
+                }
+            }
+        }
+        return skipping ? null : buffer.toString();
+    }
+
+    private void readEscape() {
+        int e = read();
+        char value;
+        switch (e) {
+            case '"', '\\', '/' -> value = (char) e;
+            case 'b' -> value = '\b';
+            case 'f' -> value = '\f';
+            case 'n' -> value = '\n';
+            case 'r' -> value = '\r';
+            case 't' -> value = '\t';
+            case 'u' -> value = (char) readHex(4);
+            case EOF -> throw syntaxError("Unterminated string");
+            default -> {
+                json5 = true;
+                switch (e) {
+                    case 'v' -> value = '\u000B';
+                    case '0' -> value = '\0';
+                    case 'x' -> value = (char) readHex(2);
+                    case '\r' -> {
+                        if (input.peek() == '\n') {
+                            read();
+                        }
+                        return;
+                    }
+                    case '\n', '\u2028', '\u2029' -> {
+                        return;
+                    }
+                    default -> value = (char) e;
+                }
+            }
+        }
+        if (!skipping) {
+            buffer.append(value);
+        }
+    }
+
+    private int readHex(int digits) {
+        int value = 0;
+        for (int i = 0; i < digits; i++) {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw syntaxError("Invalid escape sequence");
+            }
+            value = value * 16 + digit;
+        }
+        return value;
+    }
+
+    private static boolean isNumberStart(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'I' || c == 'N';
+    }
+
+    private static boolean isNumberPart(int c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')
+                || c == '.' || c == '+' || c == '-';
+    }
+
+    private void readNumber() {
+        buffer.setLength(0);
+        while (isNumberPart(input.peek())) {
+            buffer.append((char) read());
+        }
+        String text = buffer.toString();
+        numberText = text;
+        if (skipping) {
+            return;
+        }
+
+        boolean negative = text.startsWith("-");
+        String body = text;
+        if (negative || text.startsWith("+")) {
+            json5 |= !negative;
+            body = text.substring(1);
+        }
+        try {
+            if (body.equals("Infinity") || body.equals("NaN")) {
+                json5 = true;
+                double value = body.equals("NaN") ? Double.NaN : Double.POSITIVE_INFINITY;
+                numberValue = negative ? -value : value;
+            } else if (body.startsWith("0x") || body.startsWith("0X")) {
+                json5 = true;
+                BigInteger value = new BigInteger(body.substring(2), 16);
+                numberValue = integral(new BigDecimal(negative ? value.negate() : value));
+            } else if (isDecimal(body)) {
+                if (body.startsWith(".") || body.endsWith(".")) {
+                    json5 = true;
+                }
+                if (body.indexOf('.') < 0 && body.indexOf('e') < 0 && body.indexOf('E') < 0) {
+                    numberValue = body.length() <= 18
+                            ? narrow(Long.parseLong(body) * (negative ? -1 : 1))
+                            : integral(new BigDecimal(negative ? "-" + body : body));
+                } else {
+                    double value = Double.parseDouble(body);
+                    numberValue = negative ? -value : value;
+                }
+            } else {
+                throw new NumberFormatException(text);
+            }
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw syntaxError("Invalid number '" + text + "'");
+        }
+    }
+
+    private static boolean isDecimal(String body) {
+        if (body.isEmpty() || body.equals(".")) {
+            return false;
+        }
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            boolean valid = (c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E'
+                    || ((c == '+' || c == '-') && i > 0 && (body.charAt(i - 1) == 'e' || body.charAt(i - 1) == 'E'));
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Number integral(BigDecimal value) {
+        try {
+            return narrow(value.longValueExact());
+        } catch (ArithmeticException e) {
+            return value;
+        }
+    }
+
+    private static Number narrow(long value) {
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        }
+        return value;
+    }
+
+    // ==================== Whitespace and comments ====================
+
+    private void skipInsignificant() {
+        while (true) {
+            int c = input.peek();
+            if (c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                read();
+            } else if (c == '/') {
+                read();
+                int n = read();
+                if (n == '/') {
+                    comments = true;
+                    while (input.peek() != EOF && input.peek() != '\n') {
+                        read();
+                    }
+                } else if (n == '*') {
+                    comments = true;
+                    skipBlockComment();
+                } else {
+                    throw syntaxError("Unexpected character '/'");
+                }
+            } else if (c > ' ' && (c == '\uFEFF' || Character.isSpaceChar(c) || c == '\u000B' || c == '\f')) {
+                read();
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void skipBlockComment() {
+        int previous = 0;
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                throw syntaxError("Unterminated comment");
+            }
+            if (previous == '*' && c == '/') {
+                return;
+            }
+            previous = c;
+        }
+    }
+
+    private int read() {
+        int c = input.read();
+        if (c == '\n') {
+            line++;
+            lineStart = input.charPos;
+        }
+        return c;
+    }
+
+    private JsonSyntaxException syntaxError(String message) {
+        long column = input.charPos - lineStart + 1;
+        return new JsonSyntaxException(message + " at line " + line + " column " + column
+                + " (offset " + input.charPos + ")");
+    }
+
+    // ==================== Inputs ====================
+
+    /**
+     * Character source with one character of lookahead.
+     */
+    private abstract static class Input implements Closeable {
+        /** Character offset of the next character returned by {@link #read()}. */
+        long charPos;
+
+        abstract int peek();
+
+        abstract int read();
+
+        /** Source offset of the next character returned by {@link #read()}. */
+        abstract long sourceOffset();
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    private static final class TextInput extends Input {
+        private final CharSequence text;
+        private final int length;
+        private int pos;
+
+        TextInput(CharSequence text, int start) {
+            this.text = text;
+            this.length = text.length();
+            this.pos = start;
+        }
+
+        @Override
+        int peek() {
+            return pos < length ? text.charAt(pos) : EOF;
+        }
+
+        @Override
+        int read() {
+            if (pos >= length) {
+                return EOF;
+            }
+            charPos++;
+            return text.charAt(pos++);
+        }
+
+        @Override
+        long sourceOffset() {
+            return pos;
+        }
+    }
+
+    /**
+     * Decodes UTF-8 on the fly so that byte offsets stay known for every character.
+     * Malformed sequences decode to U+FFFD.
+     */
+    private static final class Utf8Input extends Input {
+        private static final int NONE = -2;
+
+        private final InputStream in;
+        private final byte[] buf = new byte[1 << 16];
+        private int bufLength;
+        private int bufPos;
+        private long bytePos;
+
+        private int peeked = NONE;
+        private long peekedOffset;
+        private int pendingLowSurrogate = -1;
+
+        Utf8Input(InputStream in, long startOffset) {
+            this.in = in;
+            this.bytePos = startOffset;
+        }
+
+        @Override
+        int peek() {
+            if (peeked == NONE) {
+                peekedOffset = bytePos;
+                peeked = decode();
+            }
+            return peeked;
+        }
+
+        @Override
+        int read() {
+            int c = peek();
+            peeked = NONE;
+            if (c != EOF) {
+                charPos++;
+            }
+            return c;
+        }
+
+        @Override
+        long sourceOffset() {
+            return peeked == NONE ? bytePos : peekedOffset;
+        }
+
+        private int decode() {
+            if (pendingLowSurrogate >= 0) {
+                int low = pendingLowSurrogate;
+                pendingLowSurrogate = -1;
+                return low;
+            }
+            int b = nextByte();
+            if (b < 0x80) {
+                return b;
+            }
+            int extra;
+            int codePoint;
+            if ((b & 0xE0) == 0xC0) {
+                extra = 1;
+                codePoint = b & 0x1F;
+            } else if ((b & 0xF0) == 0xE0) {
+                extra = 2;
+                codePoint = b & 0x0F;
+            } else if ((b & 0xF8) == 0xF0) {
+                extra = 3;
+                codePoint = b & 0x07;
+            } else {
+                return '\uFFFD';
+            }
+            for (int i = 0; i < extra; i++) {
+                int next = peekByte();
+                if (next < 0 || (next & 0xC0) != 0x80) {
+                    return '\uFFFD';
+                }
+                nextByte();
+                codePoint = (codePoint << 6) | (next & 0x3F);
+            }
+            if (codePoint >= 0x10000) {
+                pendingLowSurrogate = Character.lowSurrogate(codePoint);
+                return Character.highSurrogate(codePoint);
+            }
+            return codePoint;
+        }
+
+        private int peekByte() {
+            if (bufPos == bufLength && !fill()) {
+                return -1;
+            }
+            return buf[bufPos] & 0xFF;
+        }
+
+        private int nextByte() {
+            if (bufPos == bufLength && !fill()) {
+                return EOF;
+            }
+            bytePos++;
+            return buf[bufPos++] & 0xFF;
+        }
+
+        private boolean fill() {
+            try {
+                int n = in.read(buf, 0, buf.length);
+                if (n <= 0) {
+                    return false;
+                }
+                bufLength = n;
+                bufPos = 0;
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2024.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.controls.jsoneditor.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.AbstractList;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A JSON array whose elements are read from the source on demand.
+ *
+ * <p>{@link JsonNodeFactory} creates this array for very large arrays: the
+ * first elements are built while parsing, the rest is only scanned and the
+ * source offset of every {@value #PAGE_SIZE}th element is remembered. Reading
+ * an element loads its whole page from the source. Pages stay loaded, so node
+ * identity is stable once an element has been handed out.</p>
+ *
+ * <p>Any modification first loads all remaining pages, after which the array
+ * behaves like a plain {@link JsonArray}. The source must not change while
+ * pages are still unloaded: the size and modification time of a file are
+ * recorded when it is opened, and loading a page from a file that has changed
+ * since fails with an {@link UncheckedIOException} instead of reading
+ * elements from wrong offsets.</p>
+ */
+public class LazyJsonArray extends JsonArray {
+
+    private static final Logger logger = LogManager.getLogger(LazyJsonArray.class);
+
+    /**
+     * Number of elements loaded together.
+     */
+    public static final int PAGE_SIZE = 1000;
+
+    private final Object origin;
+    private final long[] pageSourceOffsets;
+    private final long[] pageCharOffsets;
+    private final int lazyArrayThreshold;
+    private final int size;
+
+    private JsonNode[][] pages;
+
+    /**
+     * Creates a lazy array.
+     *
+     * @param origin             the text or file the array was read from
+     * @param pageSourceOffsets  source offset of the first element of each page
+     * @param pageCharOffsets    character offset of the first element of each page
+     * @param size               the number of elements
+     * @param loaded             the elements already built, a whole number of pages
+     * @param lazyArrayThreshold threshold used for arrays nested in loaded elements
+     */
+    LazyJsonArray(Object origin, long[] pageSourceOffsets, long[] pageCharOffsets, int size,
+                  List<JsonNode> loaded, int lazyArrayThreshold) {
+        this.origin = origin;
+        this.pageSourceOffsets = pageSourceOffsets;
+        this.pageCharOffsets = pageCharOffsets;
+        this.size = size;
+        this.lazyArrayThreshold = lazyArrayThreshold;
+        this.pages = new JsonNode[pageSourceOffsets.length][];
+        for (int page = 0; page * PAGE_SIZE < loaded.size(); page++) {
+            int from = page * PAGE_SIZE;
+            int to = Math.min(loaded.size(), from + PAGE_SIZE);
+            JsonNode[] nodes = loaded.subList(from, to).toArray(new JsonNode[0]);
+            for (JsonNode node : nodes) {
+                node.setParent(this);
+            }
+            pages[page] = nodes;
+        }
+    }
+
+    /**
+     * Checks whether all elements have been loaded.
+     *
+     * @return true once every page is loaded and the array behaves like a plain array
+     */
+    public synchronized boolean isFullyLoaded() {
+        return pages == null;
+    }
+
+    /**
+     * Checks whether the element at an index is already loaded.
+     *
+     * @param index the element index
+     * @return true if reading the element does not touch the source
+     */
+    public synchronized boolean isLoaded(int index) {
+        return pages == null || (index >= 0 && index < size && pages[index / PAGE_SIZE] != null);
+    }
+
+    @Override
+    public synchronized int getChildCount() {
+        return pages == null ? super.getChildCount() : size;
+    }
+
+    @Override
+    public boolean hasChildren() {
+        return getChildCount() > 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return getChildCount() == 0;
+    }
+
+    @Override
+    public synchronized JsonNode getChild(int index) {
+        if (pages == null) {
+            return super.getChild(index);
+        }
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        return page(index / PAGE_SIZE)[index % PAGE_SIZE];
+    }
+
+    @Override
+    public synchronized List<JsonNode> getChildren() {
+        if (pages == null) {
+            return super.getChildren();
+        }
+        return new AbstractList<>() {
+            @Override
+            public JsonNode get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException(index);
+                }
+                return getChild(index);
+            }
+
+            @Override
+            public int size() {
+                return getChildCount();
+            }
+        };
+    }
+
+    @Override
+    public synchronized int indexOf(JsonNode child) {
+        if (pages == null) {
+            return super.indexOf(child);
+        }
+        if (child == null || child.getParent() != this) {
+            return -1;
+        }
+        for (int page = 0; page < pages.length; page++) {
+            JsonNode[] nodes = pages[page];
+            if (nodes == null) {
+                continue;
+            }
+            for (int i = 0; i < nodes.length; i++) {
+                if (nodes[i] == child) {
+                    return page * PAGE_SIZE + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public void addChild(JsonNode child) {
+        loadAll();
+        super.addChild(child);
+    }
+
+    @Override
+    public void addChild(int index, JsonNode child) {
+        loadAll();
+        super.addChild(index, child);
+    }
+
+    @Override
+    public boolean removeChild(JsonNode child) {
+        loadAll();
+        return super.removeChild(child);
+    }
+
+    @Override
+    public JsonNode removeChild(int index) {
+        loadAll();
+        return super.removeChild(index);
+    }
+
+    @Override
+    public void set(int index, JsonNode value) {
+        loadAll();
+        super.set(index, value);
+    }
+
+    @Override
+    public JsonNode deepCopy() {
+        loadAll();
+        return super.deepCopy();
+    }
+
+    @Override
+    public String serialize(int indent, int currentIndent) {
+        loadAll();
+        return super.serialize(indent, currentIndent);
+    }
+
+    /**
+     * Loads every remaining page. Afterwards the array is a plain {@link JsonArray}.
+     */
+    public synchronized void loadAll() {
+        if (pages == null) {
+            return;
+        }
+        logger.debug("Loading all {} elements of a lazy array", size);
+        for (int page = 0; page < pages.length; page++) {
+            for (JsonNode node : page(page)) {
+                children.add(node);
+            }
+        }
+        pages = null;
+    }
+
+    private JsonNode[] page(int page) {
+        JsonNode[] nodes = pages[page];
+        if (nodes == null) {
+            nodes = readPage(page);
+            pages[page] = nodes;
+        }
+        return nodes;
+    }
+
+    private JsonNode[] readPage(int page) {
+        int count = Math.min(PAGE_SIZE, size - page * PAGE_SIZE);
+        JsonNode[] nodes = new JsonNode[count];
+        try (JsonStreamingReader reader = JsonStreamingReader.openArrayElements(
+                origin, pageSourceOffsets[page], pageCharOffsets[page])) {
+            for (int i = 0; i < count; i++) {
+                JsonNode node = JsonNodeFactory.readValue(reader, lazyArrayThreshold);
+                node.setParent(this);
+                nodes[i] = node;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read array elements from "
+                    + (origin instanceof JsonStreamingReader.FileSource ? origin : "text"), e);
+        }
+        return nodes;
+    }
+}
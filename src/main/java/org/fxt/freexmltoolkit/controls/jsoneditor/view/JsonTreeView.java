@@ -23,6 +23,8 @@ import java.beans.PropertyChangeListener;
 import java.util.HashMap;
 import java.util.Map;
 
+import javafx.collections.ObservableList;
+
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
@@ -46,16 +48,25 @@ import org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonArray;
 import org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonDocument;
 import org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonNode;
 import org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonObject;
+import org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonNodeType;
 import org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonPrimitive;
+import org.fxt.freexmltoolkit.controls.jsoneditor.model.LazyJsonArray;
 
 /**
  * A TreeView-based component for displaying and navigating JSON documents.
  * Provides a hierarchical view of the JSON structure.
+ *
+ * <p>Arrays with more than {@value #RANGE_SIZE} elements are shown as ranges
+ * of {@value #RANGE_SIZE} elements whose tree items are only created when the
+ * range is expanded, so that arrays loaded on demand ({@link LazyJsonArray})
+ * are only read as far as the user looks at them.</p>
  */
 public class JsonTreeView extends VBox implements PropertyChangeListener {
 
     private static final Logger logger = LogManager.getLogger(JsonTreeView.class);
 
+    private static final int RANGE_SIZE = LazyJsonArray.PAGE_SIZE;
+
     private final TreeView<JsonNode> treeView;
     private final TextField searchField;
     private final Label statusLabel;
@@ -99,7 +110,8 @@ public class JsonTreeView extends VBox implements PropertyChangeListener {
         // Selection listener
         treeView.getSelectionModel().selectedItemProperty().addListener((obs, oldItem, newItem) -> {
             if (newItem != null && onSelectionChanged != null) {
-                onSelectionChanged.accept(newItem.getValue());
+                JsonNode selected = newItem.getValue();
+                onSelectionChanged.accept(selected instanceof ArrayRange range ? range.array : selected);
             }
         });
 
@@ -176,6 +188,15 @@ public class JsonTreeView extends VBox implements PropertyChangeListener {
         TreeItem<JsonNode> item = new TreeItem<>(node);
         nodeIdToTreeItem.put(node.getId(), item);
 
+        // Large arrays are split into ranges that create their items on first expansion
+        if (node instanceof JsonArray array && array.size() > RANGE_SIZE) {
+            int size = array.size();
+            for (int from = 0; from < size; from += RANGE_SIZE) {
+                item.getChildren().add(new RangeItem(array, from, Math.min(size, from + RANGE_SIZE)));
+            }
+            return item;
+        }
+
         // Add children
         for (JsonNode child : node.getChildren()) {
             item.getChildren().add(createTreeItem(child));
@@ -194,6 +215,10 @@ public class JsonTreeView extends VBox implements PropertyChangeListener {
      * Counts total nodes in a subtree.
      */
     private int countNodes(JsonNode node) {
+        if (node instanceof LazyJsonArray lazy && !lazy.isFullyLoaded()) {
+            // Do not read the array just to count; its elements count as single nodes
+            return 1 + lazy.size();
+        }
         int count = 1;
         for (JsonNode child : node.getChildren()) {
             count += countNodes(child);
@@ -231,11 +256,15 @@ public class JsonTreeView extends VBox implements PropertyChangeListener {
 
     /**
      * Finds a node matching the query.
+     * Ranges of arrays loaded on demand are only searched once they were expanded.
      */
     private TreeItem<JsonNode> findNode(TreeItem<JsonNode> item, String query) {
         if (item == null) {
             return null;
         }
+        if (item instanceof RangeItem range && !range.isPopulated() && range.array instanceof LazyJsonArray) {
+            return null;
+        }
 
         JsonNode node = item.getValue();
         if (node != null) {
@@ -273,7 +302,7 @@ public class JsonTreeView extends VBox implements PropertyChangeListener {
             return;
         }
 
-        TreeItem<JsonNode> item = nodeIdToTreeItem.get(node.getId());
+        TreeItem<JsonNode> item = findTreeItem(node);
         if (item != null) {
             // Expand parents
             TreeItem<JsonNode> parent = item.getParent();
@@ -287,6 +316,28 @@ public class JsonTreeView extends VBox implements PropertyChangeListener {
         }
     }
 
+    /**
+     * Returns the tree item of a node, populating the array range containing it if needed.
+     */
+    private TreeItem<JsonNode> findTreeItem(JsonNode node) {
+        TreeItem<JsonNode> item = nodeIdToTreeItem.get(node.getId());
+        if (item != null || !(node.getParent() instanceof JsonArray array)) {
+            return item;
+        }
+        TreeItem<JsonNode> arrayItem = findTreeItem(array);
+        if (arrayItem == null) {
+            return null;
+        }
+        int index = array.indexOf(node);
+        for (TreeItem<JsonNode> child : arrayItem.getChildren()) {
+            if (child instanceof RangeItem range && index >= range.from && index < range.to) {
+                range.getChildren();
+                return nodeIdToTreeItem.get(node.getId());
+            }
+        }
+        return null;
+    }
+
     /**
      * Gets the currently selected node in the tree view.
      *
@@ -350,6 +401,90 @@ public class JsonTreeView extends VBox implements PropertyChangeListener {
         Platform.runLater(this::rebuildTree);
     }
 
+    // ==================== Array Ranges ====================
+
+    /**
+     * Placeholder value for a range of array elements.
+     */
+    private static final class ArrayRange extends JsonNode {
+        private final JsonArray array;
+        private final int from;
+        private final int to;
+
+        ArrayRange(JsonArray array, int from, int to) {
+            this.array = array;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public JsonNodeType getNodeType() {
+            return JsonNodeType.ARRAY;
+        }
+
+        @Override
+        public JsonNode deepCopy() {
+            return new ArrayRange(array, from, to);
+        }
+
+        @Override
+        public String serialize(int indent, int currentIndent) {
+            return "";
+        }
+
+        @Override
+        public String getDisplayLabel() {
+            return "[" + from + " … " + (to - 1) + "]";
+        }
+
+        @Override
+        public String getValueAsString() {
+            return (to - from) + " items";
+        }
+
+        @Override
+        public String getPath() {
+            return array.getPath() + "[" + from + ":" + to + "]";
+        }
+    }
+
+    /**
+     * Tree item for a range of array elements; creates the element items on first access.
+     */
+    private final class RangeItem extends TreeItem<JsonNode> {
+        private final JsonArray array;
+        private final int from;
+        private final int to;
+        private boolean populated;
+
+        RangeItem(JsonArray array, int from, int to) {
+            super(new ArrayRange(array, from, to));
+            this.array = array;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean isPopulated() {
+            return populated;
+        }
+
+        @Override
+        public boolean isLeaf() {
+            return false;
+        }
+
+        @Override
+        public ObservableList<TreeItem<JsonNode>> getChildren() {
+            if (!populated) {
+                populated = true;
+                for (int i = from; i < to; i++) {
+                    super.getChildren().add(createTreeItem(array.get(i)));
+                }
+            }
+            return super.getChildren();
+        }
+    }
+
     // ==================== Tree Cell ====================
 
     /**
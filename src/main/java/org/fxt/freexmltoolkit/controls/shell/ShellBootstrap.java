@@ -1,7 +1,5 @@
 package org.fxt.freexmltoolkit.controls.shell;
 
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import javafx.application.Platform;
@@ -10,7 +8,9 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.fxt.freexmltoolkit.controls.shell.editor.AboutDialog;
 import org.fxt.freexmltoolkit.di.ServiceRegistry;
+import org.fxt.freexmltoolkit.service.ManagedExecutor;
 import org.fxt.freexmltoolkit.service.PropertiesService;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 import org.fxt.freexmltoolkit.service.UpdateCheckService;
 
 /**
@@ -23,11 +23,8 @@ public final class ShellBootstrap {
     private static final Logger logger = LogManager.getLogger(ShellBootstrap.class);
     private static final ShellBootstrap INSTANCE = new ShellBootstrap();
 
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1, r -> {
-        Thread t = new Thread(r, "ShellBootstrap-Scheduler");
-        t.setDaemon(true);
-        return t;
-    });
+    private final ManagedExecutor scheduler = ThreadPoolManager.getInstance()
+            .newSerialExecutor("ShellBootstrap-Scheduler", ThreadPoolManager.TaskCategory.IO);
     private volatile boolean scheduled;
 
     private ShellBootstrap() {
@@ -75,7 +72,7 @@ public final class ShellBootstrap {
     /**
      * Startup sync for the FundsXML extension: downloads missing content, installs
      * updates in the background, or just re-registers cached content — all silently
-     * (log + toast, never a dialog). Runs on the daemon scheduler thread, where the
+     * (log + toast, never a dialog). Runs on a virtual I/O thread, where the
      * blocking GitHub call inside {@code determineAction()} is acceptable.
      */
     private void fundsXmlStartupSync() {
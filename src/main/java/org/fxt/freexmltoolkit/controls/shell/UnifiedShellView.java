@@ -1368,6 +1368,11 @@ public class UnifiedShellView extends BorderPane {
             if (editorHost.getActiveDocument().isEmpty()) {
                 return;
             }
+            if (editorHost.isActiveLargeFile()) {
+                org.fxt.freexmltoolkit.util.DialogHelper.showWarning("Convert to spreadsheet", null,
+                        org.fxt.freexmltoolkit.controls.shell.editor.EditorHost.LARGE_FILE_UNSUPPORTED);
+                return;
+            }
             String xml = editorHost.getActiveText().orElse("");
             javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
             chooser.setTitle("Save spreadsheet");
@@ -1507,15 +1512,23 @@ public class UnifiedShellView extends BorderPane {
      * clickable to bind an XSD). The labels themselves live in {@code shell.fxml}.
      */
     private void wireStatusBar() {
-        statusMemory.setTooltip(new javafx.scene.control.Tooltip("JVM heap (used / max) — click to run GC"));
+        javafx.scene.control.Tooltip memoryTooltip = new javafx.scene.control.Tooltip();
+        statusMemory.setTooltip(memoryTooltip);
+        Runnable refreshMemory = () -> {
+            var history = org.fxt.freexmltoolkit.controls.v2.editor.core.AbstractCommandManager.totalFootprint();
+            statusMemory.setText(memoryText(history.bytes()));
+            memoryTooltip.setText("JVM heap (used / max) — click to run GC\nUndo history: "
+                    + history.commands() + " step(s), ~"
+                    + org.fxt.freexmltoolkit.util.FormattingUtils.formatFileSize(history.bytes()));
+        };
         statusMemory.setOnMouseClicked(e -> {
             System.gc();
-            statusMemory.setText(memoryText());
+            refreshMemory.run();
         });
-        statusMemory.setText(memoryText());
+        refreshMemory.run();
         javafx.animation.Timeline memoryTimer = new javafx.animation.Timeline(
                 new javafx.animation.KeyFrame(javafx.util.Duration.seconds(2),
-                        e -> statusMemory.setText(memoryText())));
+                        e -> refreshMemory.run()));
         memoryTimer.setCycleCount(javafx.animation.Animation.INDEFINITE);
         memoryTimer.play();
 
@@ -1687,6 +1700,17 @@ public class UnifiedShellView extends BorderPane {
         return usedMb + " / " + maxMb + " MB";
     }
 
+    /**
+     * @param undoHistoryBytes the estimated bytes held by all undo histories
+     * @return {@link #memoryText()}, followed by the undo history once it reaches a megabyte
+     */
+    static String memoryText(long undoHistoryBytes) {
+        String heap = memoryText();
+        return undoHistoryBytes >= 1024 * 1024
+                ? heap + " · undo " + org.fxt.freexmltoolkit.util.FormattingUtils.formatFileSize(undoHistoryBytes)
+                : heap;
+    }
+
     /** @return the shell's activity selection model (for future host wiring). */
     public ActivitySelectionModel getSelectionModel() {
         return selectionModel;
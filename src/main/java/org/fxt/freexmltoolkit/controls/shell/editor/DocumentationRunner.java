@@ -5,6 +5,7 @@ import java.io.File;
 import org.fxt.freexmltoolkit.domain.PdfDocumentationConfig;
 import org.fxt.freexmltoolkit.domain.WordDocumentationConfig;
 import org.fxt.freexmltoolkit.domain.XsdDocumentationData;
+import org.fxt.freexmltoolkit.service.XsdDocumentationManifest;
 import org.fxt.freexmltoolkit.service.XsdDocumentationPdfService;
 import org.fxt.freexmltoolkit.service.XsdDocumentationService;
 import org.fxt.freexmltoolkit.service.XsdDocumentationWordService;
@@ -24,8 +25,24 @@ public final class DocumentationRunner {
     private DocumentationRunner() {
     }
 
-    /** Generates an HTML documentation site into {@code outputDir}. @return {@code "OK: <index.html>"} or error. */
+    /**
+     * Generates an HTML documentation site into {@code outputDir}, incrementally if the directory
+     * holds the manifest of a previous incremental run.
+     *
+     * @return {@code "OK: <index.html>"} or error
+     */
     public static String exportHtml(File xsd, File outputDir) {
+        return exportHtml(xsd, outputDir, XsdDocumentationManifest.exists(outputDir.toPath()));
+    }
+
+    /**
+     * Generates an HTML documentation site into {@code outputDir}. With {@code incremental} only pages
+     * whose inputs changed since the previous run in the same directory are re-rendered, and the
+     * build manifest ({@code doc-manifest.json}, including a timing summary) is written next to them.
+     *
+     * @return {@code "OK: <index.html>"} or error
+     */
+    public static String exportHtml(File xsd, File outputDir, boolean incremental) {
         if (!xsd.isFile()) {
             return "ERROR: file not found: " + xsd;
         }
@@ -35,6 +52,7 @@ public final class DocumentationRunner {
             }
             XsdDocumentationService service = new XsdDocumentationService();
             service.setXsdFilePath(xsd.getAbsolutePath());
+            service.setIncrementalBuild(incremental);
             service.generateXsdDocumentation(outputDir); // parses + writes the site
             return "OK: " + new File(outputDir, "index.html").getAbsolutePath();
         } catch (Exception e) {
@@ -598,7 +598,11 @@ public class DocumentationView extends BorderPane {
                 wordService.setImageService(imageService);
                 wordService.generateWordDocumentation(options.output(), service.xsdDocumentationData);
             }
-            default -> service.generateXsdDocumentation(options.output());
+            default -> {
+                // Regenerating into the same folder only re-renders pages whose inputs changed.
+                service.setIncrementalBuild(true);
+                service.generateXsdDocumentation(options.output());
+            }
         }
     }
 
@@ -86,6 +86,10 @@ public final class EditorActions {
         if (editorHost.getActiveDocument().isEmpty()) {
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            editorHost.openToolTab("Validation", "bi-check2-circle", messageRegion(EditorHost.LARGE_FILE_UNSUPPORTED));
+            return;
+        }
         String content = editorHost.getActiveText().orElse("");
         if (content.isBlank()) {
             editorHost.setValidationStatus(EditorHost.ValidationState.NOT_VALIDATED, 0, "Not validated");
@@ -145,6 +149,10 @@ public final class EditorActions {
         if (editorHost.getActiveDocument().isEmpty()) {
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            editorHost.openToolTab("Transform", "bi-arrow-left-right", messageRegion(EditorHost.LARGE_FILE_UNSUPPORTED));
+            return;
+        }
         FileChooser chooser = new FileChooser();
         chooser.setTitle("Transform with XSLT…");
         chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("XSLT", "*.xsl", "*.xslt"));
@@ -193,6 +201,10 @@ public final class EditorActions {
             return;
         }
         TransformOutputPanel out = editorHost.transformOutputPanel();
+        if (editorHost.isActiveLargeFile()) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String query = editorHost.getActiveText().orElse("");
         if (query.isBlank()) {
             out.showError("The query is empty.");
@@ -200,6 +212,10 @@ public final class EditorActions {
         }
         var doc = editorHost.getActiveDocument().orElseThrow();
         var resolved = editorHost.resolveQueryTarget(doc);
+        if (resolved.isEmpty() && editorHost.isQueryTargetLargeFile(doc)) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         if (resolved.isEmpty()) {
             out.showError("Open an XML document first, or pick one via the Target dropdown — "
                     + "by default the query runs against the most recently active XML document.");
@@ -227,9 +243,12 @@ public final class EditorActions {
                 return;
             }
             if (xquery) {
-                String result = TransformRunner.runXQuery(xml, query, Map.of(),
+                // The table reads its first page only; a tabular result takes its text from that
+                // page, and only other results are serialized in full.
+                XQueryTableRunner.XQueryTable table = XQueryTableRunner.open(xml, query, Map.of(),
                         XsltTransformationEngine.OutputFormat.XML);
-                XQueryTableRunner.XQueryTable table = XQueryTableRunner.run(xml, query);
+                String result = table.isTabular() ? table.text()
+                        : TransformRunner.runXQuery(xml, query, Map.of(), XsltTransformationEngine.OutputFormat.XML);
                 boolean ok = !result.startsWith("ERROR");
                 long elapsedMs = probe.finish(xml.length(), ok ? result.length() : -1, ok,
                         org.fxt.freexmltoolkit.service.ExecutionStats.firstLine(result));
@@ -268,6 +287,10 @@ public final class EditorActions {
             return;
         }
         TransformOutputPanel out = editorHost.transformOutputPanel();
+        if (editorHost.isActiveLargeFile()) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String xslt = editorHost.getActiveText().orElse("");
         if (xslt.isBlank()) {
             out.showError("The stylesheet is empty.");
@@ -275,6 +298,10 @@ public final class EditorActions {
         }
         var doc = editorHost.getActiveDocument().orElseThrow();
         var resolved = editorHost.resolveQueryTarget(doc);
+        if (resolved.isEmpty() && editorHost.isQueryTargetLargeFile(doc)) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         if (resolved.isEmpty()) {
             out.showError("Open an XML document first, or pick one via the Target dropdown — "
                     + "by default the transform runs against the most recently active XML document.");
@@ -331,6 +358,10 @@ public final class EditorActions {
             return;
         }
         TransformOutputPanel out = editorHost.transformOutputPanel();
+        if (editorHost.isActiveLargeFile()) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String pipeline = editorHost.getActiveText().orElse("");
         if (pipeline.isBlank()) {
             out.showError("The pipeline is empty.");
@@ -338,6 +369,10 @@ public final class EditorActions {
         }
         var doc = editorHost.getActiveDocument().orElseThrow();
         var resolved = editorHost.resolveQueryTarget(doc);
+        if (resolved.isEmpty() && editorHost.isQueryTargetLargeFile(doc)) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         File pipelineFile = doc.getPath() != null ? doc.getPath().toFile() : null;
         out.showPending(resolved.map(t -> "Running pipeline against " + t.displayName() + "…")
                 .orElse("Running pipeline…"));
@@ -32,6 +32,10 @@ import org.fxt.freexmltoolkit.service.DragDropService;
  */
 public class EditorHost extends BorderPane {
 
+    /** Shown by actions that need the whole document when the active tab is a large file. */
+    public static final String LARGE_FILE_UNSUPPORTED = "Not available for large files: only a window of "
+            + "the file is loaded. Use the batch validation/transformation on the file instead.";
+
     private final TabPane tabPane = new TabPane();
     /** Tab pane plus an overlaid view-mode switch pinned to the top-right of the tab header. */
     private final javafx.scene.layout.StackPane tabArea = new javafx.scene.layout.StackPane();
@@ -190,22 +194,46 @@ public class EditorHost extends BorderPane {
         return tab instanceof EditorTab et ? Optional.of(et.document) : Optional.empty();
     }
 
-    /** @return the text of the active editor, or empty if no tab is open. */
+    /**
+     * @return the text of the active editor, or empty if no tab is open or the tab is a
+     *         large file (its view holds only a window; see {@link #isActiveLargeFile()})
+     */
     public Optional<String> getActiveText() {
         Tab tab = tabPane.getSelectionModel().getSelectedItem();
-        return tab instanceof EditorTab et ? Optional.of(et.view.getText()) : Optional.empty();
+        return tab instanceof EditorTab et && !et.isLargeFile() ? Optional.of(et.view.getText()) : Optional.empty();
     }
 
-    /** @return the text of the given (possibly non-active) open document, or empty if closed. */
+    /**
+     * @return the text of the given (possibly non-active) open document, or empty if closed
+     *         or opened as a large file
+     */
     public Optional<String> getDocumentText(OpenDocument document) {
         for (Tab tab : tabPane.getTabs()) {
             if (tab instanceof EditorTab editorTab && editorTab.document == document) {
-                return Optional.of(editorTab.view.getText());
+                return editorTab.isLargeFile() ? Optional.empty() : Optional.of(editorTab.view.getText());
             }
         }
         return Optional.empty();
     }
 
+    /**
+     * @return {@code true} if the active tab is a large file shown through a window; actions
+     *         that need the whole document refuse to run on it with {@link #LARGE_FILE_UNSUPPORTED}
+     */
+    public boolean isActiveLargeFile() {
+        return tabPane.getSelectionModel().getSelectedItem() instanceof EditorTab et && et.isLargeFile();
+    }
+
+    /** @return {@code true} if {@code document} is open as a large file */
+    public boolean isLargeFile(OpenDocument document) {
+        for (Tab tab : tabPane.getTabs()) {
+            if (tab instanceof EditorTab editorTab && editorTab.document == document) {
+                return editorTab.isLargeFile();
+            }
+        }
+        return false;
+    }
+
     /** Whether the type is an XML-family instance/schema a query can sensibly run against. */
     private static boolean isXmlFamily(EditorFileType type) {
         return switch (type) {
@@ -231,18 +259,20 @@ public class EditorHost extends BorderPane {
      * Automatic target resolution: when the active document is itself XML-family (an XSLT
      * or XProc tab), the previously active document is the natural target.
      *
+     * Large files are skipped: only a window of their text is in memory.
+     *
      * @param except a document to skip (usually the query document itself), or {@code null}
      */
     private Optional<OpenDocument> mostRecentXmlFamilyDocument(OpenDocument except) {
         xmlFamilyMru.removeIf(tab -> !tabPane.getTabs().contains(tab));
         for (EditorTab tab : xmlFamilyMru) {
-            if (tab.document != except) {
+            if (tab.document != except && !tab.isLargeFile()) {
                 return Optional.of(tab.document);
             }
         }
         for (Tab tab : tabPane.getTabs()) {
             if (tab instanceof EditorTab et && isXmlFamily(et.document.getFileType())
-                    && et.document != except) {
+                    && et.document != except && !et.isLargeFile()) {
                 return Optional.of(et.document);
             }
         }
@@ -251,7 +281,7 @@ public class EditorHost extends BorderPane {
 
     /** @return the open XML-family documents (valid query/transform targets), in tab order. */
     public java.util.List<OpenDocument> getOpenXmlFamilyDocuments() {
-        return openDocuments.stream().filter(d -> isXmlFamily(d.getFileType())).toList();
+        return openDocuments.stream().filter(d -> isXmlFamily(d.getFileType()) && !isLargeFile(d)).toList();
     }
 
     /** @return the explicit run target of {@code queryDoc}, or {@link QueryTarget#AUTOMATIC}. */
@@ -296,6 +326,9 @@ public class EditorHost extends BorderPane {
             return Optional.of(new ResolvedQueryTarget(fs.file().getName(), null, fs.file()));
         }
         if (target instanceof QueryTarget.OpenDoc od) {
+            if (isLargeFile(od.document())) {
+                return Optional.empty(); // still open, but not queryable as a whole
+            }
             Optional<String> text = getDocumentText(od.document());
             if (text.isPresent()) {
                 return Optional.of(new ResolvedQueryTarget(od.document().getDisplayName(), text.get(), null));
@@ -308,6 +341,14 @@ public class EditorHost extends BorderPane {
                 .map(text -> new ResolvedQueryTarget(doc.getDisplayName(), text, null)));
     }
 
+    /**
+     * @return {@code true} if the explicit run target of {@code queryDoc} is an open document
+     *         that is shown as a large file — {@link #resolveQueryTarget} then resolves nothing
+     */
+    public boolean isQueryTargetLargeFile(OpenDocument queryDoc) {
+        return getQueryTarget(queryDoc) instanceof QueryTarget.OpenDoc od && isLargeFile(od.document());
+    }
+
     /**
      * Registers the handler that runs the active XPath/XQuery/XSLT document (the shell
      * wires this to the toolbar's Run Query / Run Transform actions); fired by the
@@ -467,7 +508,8 @@ public class EditorHost extends BorderPane {
     public Optional<String> getOpenDocumentText(java.nio.file.Path path) {
         for (Tab tab : tabPane.getTabs()) {
             if (tab instanceof EditorTab et && path.equals(et.document.getPath())) {
-                return Optional.of(et.view.getText());
+                // a large-file view holds only a window of the text; callers read the file instead
+                return et.isLargeFile() ? Optional.empty() : Optional.of(et.view.getText());
             }
         }
         return Optional.empty();
@@ -1044,7 +1086,7 @@ public class EditorHost extends BorderPane {
      * @return the created diff tab, or {@code null} if no document is active
      */
     public org.fxt.freexmltoolkit.controls.diff.DiffView openDiffWithFile(File rightFile) {
-        if (!(tabPane.getSelectionModel().getSelectedItem() instanceof EditorTab left)) {
+        if (!(tabPane.getSelectionModel().getSelectedItem() instanceof EditorTab left) || left.isLargeFile()) {
             return null;
         }
         String leftName = left.document.getDisplayName();
@@ -1069,7 +1111,8 @@ public class EditorHost extends BorderPane {
     }
 
     /**
-     * Opens an in-app preview of {@code pdf} as a new tab (lazy page rendering).
+     * Opens an in-app preview of {@code pdf} as a new tab (lazy page rendering); the
+     * document stays loaded until the tab is closed.
      *
      * @return the preview control, or {@code null} if the PDF cannot be read
      */
@@ -1078,6 +1121,7 @@ public class EditorHost extends BorderPane {
             PdfPreview preview = new PdfPreview(pdf);
             Tab tab = new Tab(pdf.getName(), preview);
             tab.setGraphic(new IconifyIcon("bi-file-earmark-pdf"));
+            tab.setOnClosed(e -> preview.dispose());
             tabPane.getTabs().add(tab);
             tabPane.getSelectionModel().select(tab);
             return preview;
@@ -1457,12 +1501,10 @@ public class EditorHost extends BorderPane {
     /** Saves the active document to {@code target} (Save As). */
     public boolean saveActiveAs(Path target) {
         Tab tab = tabPane.getSelectionModel().getSelectedItem();
-        if (tab instanceof EditorTab et && write(et, target)) {
+        return tab instanceof EditorTab et && write(et, target, () -> {
             et.document.setPath(target);
             et.refreshIcon();
-            return true;
-        }
-        return false;
+        });
     }
 
     /** Saves all titled, dirty documents. @return the number of files written. */
@@ -1925,7 +1967,7 @@ public class EditorHost extends BorderPane {
     /** Pretty-prints the active document (XML or JSON). @return {@code true} if reformatted. */
     public boolean formatActive() {
         Tab tab = tabPane.getSelectionModel().getSelectedItem();
-        if (!(tab instanceof EditorTab et)) {
+        if (!(tab instanceof EditorTab et) || et.isLargeFile()) {
             return false;
         }
         try {
@@ -1947,7 +1989,7 @@ public class EditorHost extends BorderPane {
     /** Minifies the active document (XML: drop inter-tag whitespace; JSON: compact). @return success */
     public boolean minifyActive() {
         Tab tab = tabPane.getSelectionModel().getSelectedItem();
-        if (!(tab instanceof EditorTab et)) {
+        if (!(tab instanceof EditorTab et) || et.isLargeFile()) {
             return false;
         }
         try {
@@ -2053,6 +2095,10 @@ public class EditorHost extends BorderPane {
     public void goToLine(int line) {
         setActiveViewMode(ViewMode.TEXT);
         withActive(et -> {
+            if (et.view instanceof LargeFileEditorView large) {
+                large.goToLine(line); // a line of the whole file, not of the window
+                return;
+            }
             var codeArea = et.view.getCodeArea();
             int paragraphs = codeArea.getParagraphs().size();
             int paragraph = Math.max(0, Math.min(line - 1, Math.max(0, paragraphs - 1)));
@@ -2084,6 +2130,13 @@ public class EditorHost extends BorderPane {
         String text = getActiveText().orElse(null);
         boolean loaded = doc.isPresent() && path.equals(doc.get().getPath())
                 && text != null && !text.isEmpty();
+        if (doc.isPresent() && path.equals(doc.get().getPath()) && isActiveLargeFile()) {
+            // offsets are relative to the whole file, the view holds a window: go by line
+            if (fallbackLine > 0) {
+                goToLine(fallbackLine);
+            }
+            return;
+        }
         if (loaded) {
             setActiveViewMode(ViewMode.TEXT);
             boolean valid = start >= 0 && end >= start && end <= text.length()
@@ -2300,6 +2353,9 @@ public class EditorHost extends BorderPane {
         });
         openDocuments.add(tab.document);
         tab.setOnClosed(e -> {
+            if (tab.view instanceof LargeFileEditorView large) {
+                large.dispose();
+            }
             openDocuments.remove(tab.document);
             queryTargets.remove(tab.document);
             queryTargets.values().removeIf(t ->
@@ -2312,7 +2368,8 @@ public class EditorHost extends BorderPane {
                 // In the Text view, map the caret line to a model node so the inspector can show +
                 // edit that node's properties (debounced). XSD resolves an XsdNode, other XML-family
                 // files an XmlNode; JSON has no model-node caret mapping.
-                if (tab.viewMode == ViewMode.TEXT && tab.document.getFileType() != EditorFileType.JSON) {
+                if (tab.viewMode == ViewMode.TEXT && tab.document.getFileType() != EditorFileType.JSON
+                        && !tab.isLargeFile()) {
                     tab.xmlCaretDebounce.playFromStart();
                 }
             }
@@ -2332,6 +2389,10 @@ public class EditorHost extends BorderPane {
     }
 
     private void loadAsync(EditorTab tab, Path path) {
+        if (tab.view instanceof LargeFileEditorView large) {
+            loadLargeFileAsync(tab, large, path);
+            return;
+        }
         tab.beginLoading();
         tab.schemaBindingGen.incrementAndGet(); // supersede queued schema reconciles
         if (tab.view.supportsSchema()) {
@@ -2384,6 +2445,32 @@ public class EditorHost extends BorderPane {
         });
     }
 
+    /**
+     * Maps a file for the large-file view. Only the mapping happens here; the view
+     * builds its line index in the background. Schema detection is skipped: it would
+     * parse the whole file.
+     */
+    private void loadLargeFileAsync(EditorTab tab, LargeFileEditorView view, Path path) {
+        tab.beginLoading();
+        org.fxt.freexmltoolkit.FxtGui.executorService.submit(() -> {
+            try {
+                org.fxt.freexmltoolkit.controls.shell.editor.largefile.LargeDocument document =
+                        org.fxt.freexmltoolkit.controls.shell.editor.largefile.LargeDocument.open(path);
+                Platform.runLater(() -> {
+                    view.setDocument(document);
+                    tab.endLoading();
+                    tab.document.setDirty(false);
+                    tab.attachDirtyTracking();
+                });
+            } catch (IOException e) {
+                Platform.runLater(() -> {
+                    view.setText("Could not read " + path + ": " + e.getMessage());
+                    tab.endLoading();
+                });
+            }
+        });
+    }
+
     /**
      * Re-runs the schema auto-detection ({@code xsi:schemaLocation} /
      * {@code xsi:noNamespaceSchemaLocation}, local and remote) for the active document
@@ -2600,7 +2687,7 @@ public class EditorHost extends BorderPane {
             // validation-time reconcile can short-circuit unchanged documents.
             tab.lastDetectedSchemaLocation = declared.orElse(null);
             if (declared.isEmpty()) {
-                return SchemaDetection.NOT_FOUND; // the document references no schema
+                return detectSchemaByNamespace(tab, content); // the document references no schema
             }
             // A reference exists — from here on, every failure is an ERROR (the user
             // expects IntelliSense but won't get it), not a silent "No XSD".
@@ -2618,6 +2705,25 @@ public class EditorHost extends BorderPane {
         }
     }
 
+    /**
+     * Fallback for documents without a schema reference: binds the XSD of the open
+     * workspace whose {@code targetNamespace} is the root element's namespace, when
+     * exactly one schema in the {@link org.fxt.freexmltoolkit.service.WorkspaceIndex}
+     * declares it. The binding counts as AUTO, so a reference added later wins.
+     */
+    private SchemaDetection detectSchemaByNamespace(EditorTab tab, String content) {
+        String namespace = org.fxt.freexmltoolkit.service.WorkspaceIndex.sniffRoot(content)
+                .map(org.fxt.freexmltoolkit.service.WorkspaceIndex.RootInfo::namespace)
+                .orElse(null);
+        File xsd = org.fxt.freexmltoolkit.service.WorkspaceIndex.findSchemaForNamespace(namespace)
+                .map(Path::toFile)
+                .orElse(null);
+        if (xsd == null || !xsd.exists() || !tab.view.loadSchema(xsd)) {
+            return SchemaDetection.NOT_FOUND;
+        }
+        return new SchemaDetection(xsd, SchemaStatus.READY);
+    }
+
     /**
      * JSON counterpart of the XSD detection: binds the JSON Schema a top-level
      * {@code "$schema"} member declares — local (relative to the document's directory)
@@ -2838,9 +2944,34 @@ public class EditorHost extends BorderPane {
     }
 
     private boolean write(EditorTab tab, Path target) {
+        return write(tab, target, () -> { });
+    }
+
+    /**
+     * Writes a tab to {@code target} and runs {@code onSaved} on the FX thread once the
+     * file is written. Large files are streamed on their view's I/O executor, so for them
+     * {@code true} only means the save started; a failure is reported in a dialog.
+     */
+    private boolean write(EditorTab tab, Path target, Runnable onSaved) {
+        if (tab.view instanceof LargeFileEditorView large) {
+            large.saveAsync(target).whenComplete((ignored, e) -> {
+                if (e == null) {
+                    tab.document.setDirty(false);
+                    onSaved.run();
+                    return;
+                }
+                org.apache.logging.log4j.LogManager.getLogger(EditorHost.class)
+                        .warn("Could not save '{}': {}", target, e.getMessage());
+                org.fxt.freexmltoolkit.util.DialogHelper.showActionError("Save",
+                        "Could not save \"" + target.getFileName() + "\".",
+                        org.fxt.freexmltoolkit.util.DialogHelper.Remedies.FILE_UNWRITABLE, e);
+            });
+            return true;
+        }
         try {
             Files.writeString(target, tab.view.getText(), StandardCharsets.UTF_8);
             tab.document.setDirty(false);
+            onSaved.run();
             return true;
         } catch (IOException e) {
             return false;
@@ -2901,6 +3032,12 @@ public class EditorHost extends BorderPane {
         if (choice.isEmpty() || choice.get() == cancel) {
             closeEvent.consume();
         } else if (choice.get() == save) {
+            if (tab.view instanceof LargeFileEditorView && !tab.document.isUntitled()) {
+                // saved in the background; the tab closes once the file is written
+                closeEvent.consume();
+                write(tab, tab.document.getPath(), () -> closeTab(tab));
+                return;
+            }
             boolean ok = tab.document.isUntitled() ? saveTabAs(tab) : write(tab, tab.document.getPath());
             if (!ok) {
                 closeEvent.consume();
@@ -2909,20 +3046,28 @@ public class EditorHost extends BorderPane {
         // 'Don't Save' falls through and the tab closes.
     }
 
+    /** Closes a tab as its close button would, running its {@code onClosed} cleanup. */
+    private void closeTab(EditorTab tab) {
+        if (tabPane.getTabs().remove(tab)) {
+            javafx.event.Event.fireEvent(tab, new javafx.event.Event(Tab.CLOSED_EVENT));
+        }
+    }
+
     private boolean saveTabAs(EditorTab tab) {
         javafx.stage.FileChooser chooser = new javafx.stage.FileChooser();
         chooser.setTitle("Save As");
         File file = org.fxt.freexmltoolkit.util.FileChooserHelper.showSaveDialog(chooser, getScene() != null ? getScene().getWindow() : null);
-        if (file != null && write(tab, file.toPath())) {
+        return file != null && write(tab, file.toPath(), () -> {
             tab.document.setPath(file.toPath());
             tab.refreshIcon();
-            return true;
-        }
-        return false;
+        });
     }
 
     /** A tab bound to one {@link OpenDocument}, its editor view, and Text/Tree/Graphic modes. */
     private static final class EditorTab extends Tab {
+        /** Saved JSON files at least this large are streamed into the Tree view from disk. */
+        private static final long JSON_TREE_STREAM_BYTES = 4L * 1024 * 1024;
+
         private final OpenDocument document;
         private final EditorView view;
         private final Runnable selectionCallback;
@@ -2947,10 +3092,16 @@ public class EditorHost extends BorderPane {
         private XsdNode currentSelection;
         private org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlNode currentXmlSelection;
         private org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonNode currentJsonSelection;
+        /** Increments per JSON tree render; a background parse of a superseded render is dropped. */
+        private long jsonTreeRequest;
+        /** A background JSON tree parse is running and showing the loading overlay. */
+        private boolean jsonTreeStreaming;
         private ViewMode viewMode = ViewMode.TEXT;
         private boolean dirtyTrackingAttached;
         /** Editor text the current {@link #editorContext} was parsed from (P2: avoid needless re-parse). */
         private String lastParsedText;
+        /** Model→text serializer of the current schema; re-serializes only the subtrees changed since the last round-trip. */
+        private org.fxt.freexmltoolkit.controls.v2.editor.serialization.IncrementalXsdSerializer modelSerializer;
         /** Shared XML-instance model+command context across Text/Tree/Grid (mirrors {@link #editorContext}). */
         private org.fxt.freexmltoolkit.controls.v2.xmleditor.editor.XmlEditorContext xmlEditorContext;
         /** Editor text {@link #xmlEditorContext} was parsed from (avoid needless re-parse; detect external edits). */
@@ -3013,7 +3164,7 @@ public class EditorHost extends BorderPane {
             this.clipboard = clipboard;
             this.openTypeEditorCallback = openTypeEditorCallback;
             this.goToDefinitionCallback = goToDefinitionCallback;
-            this.view = EditorViews.create(document.getFileType());
+            this.view = EditorViews.create(document);
             contentStack.getChildren().add(view.getNode());
             // Overlay sits ABOVE contentStack (not inside it) so showOnly() — which toggles
             // visibility of every contentStack child — never touches the spinner.
@@ -3036,9 +3187,14 @@ public class EditorHost extends BorderPane {
             refreshIcon();
         }
 
+        /** Memory-mapped document shown through a sliding window ({@link LargeFileEditorView}). */
+        boolean isLargeFile() {
+            return view instanceof LargeFileEditorView;
+        }
+
         /** XSD-backed structured views (Tree/Graphic with the V2 model + commands). */
         boolean supportsStructuredViews() {
-            return document.getFileType() == EditorFileType.XSD;
+            return document.getFileType() == EditorFileType.XSD && !isLargeFile();
         }
 
         /**
@@ -3047,6 +3203,12 @@ public class EditorHost extends BorderPane {
          * XSD diagram for schemas and the instance grid for XML-family instances.
          */
         boolean supportsView(ViewMode mode) {
+            if (isLargeFile()) {
+                // the structured views need the whole document in memory; only the JSON
+                // tree can stream a saved file, loading large arrays on demand
+                return mode == ViewMode.TEXT || (mode == ViewMode.TREE
+                        && document.getFileType() == EditorFileType.JSON && !document.isDirty());
+            }
             return switch (mode) {
                 case TEXT -> true;
                 case PREVIEW -> document.getFileType() == EditorFileType.HTML;
@@ -3863,21 +4025,27 @@ public class EditorHost extends BorderPane {
                 return;
             }
             roundTripDebounce.stop(); // we are doing the work now; cancel any pending run
-            var serializer = new org.fxt.freexmltoolkit.controls.v2.editor.serialization.XsdSerializer();
-            // Keep the xs:include/xs:import directives but never write back the inlined external
-            // content, so editing the main schema does not flatten its includes.
-            serializer.setExcludeIncludedNodes(true);
-            String xml = serializer.serialize(editorContext.getSchema());
+            var schema = editorContext.getSchema();
+            if (modelSerializer == null || modelSerializer.getSchema() != schema) {
+                if (modelSerializer != null) {
+                    modelSerializer.dispose();
+                }
+                // Keep the xs:include/xs:import directives but never write back the inlined external
+                // content, so editing the main schema does not flatten its includes.
+                modelSerializer = new org.fxt.freexmltoolkit.controls.v2.editor.serialization
+                        .IncrementalXsdSerializer(schema, true);
+            }
             String current = view.getText();
-            // Thin diff layer (P6): rewrite only the region that actually changed, instead of
-            // replacing the whole document — preserves the editor caret/scroll and avoids
-            // re-styling untouched text.
-            int[] region = TextDiff.minimalReplaceRegion(current, xml);
-            if (region[0] == region[1] && region[0] == region[2]) {
+            // Only the subtrees changed since the last round-trip are serialized again, and the
+            // serializer reports the changed region directly (no diff over the whole text).
+            // Thin diff layer (P6): rewrite only that region, instead of replacing the whole
+            // document — preserves the editor caret/scroll and avoids re-styling untouched text.
+            var edit = modelSerializer.serialize(current).mergedEdit();
+            if (edit == null) {
                 lastParsedText = current; // already in sync; nothing to write
                 return;
             }
-            view.replaceTextRegion(region[0], region[1], xml.substring(region[0], region[2]));
+            view.replaceTextRegion(edit.start(), edit.end(), edit.replacement());
             // The text now mirrors the model, so it must not look like an external edit (P2).
             lastParsedText = view.getText();
             document.setDirty(true);
@@ -4168,17 +4336,67 @@ public class EditorHost extends BorderPane {
             }
         }
 
-        /** Parses the current JSON text into the tree; an invalid document shows an empty tree. */
+        /**
+         * Parses the current JSON text into the tree; an invalid document shows an empty tree.
+         * A saved file of at least {@link #JSON_TREE_STREAM_BYTES} (or a large-file tab) is
+         * streamed from disk on a background thread instead, with arrays above
+         * {@link org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonNodeFactory#DEFAULT_LAZY_ARRAY_THRESHOLD}
+         * elements loaded on demand.
+         */
         private void renderJsonTree() {
+            long request = ++jsonTreeRequest;
+            Path path = streamableJsonFile();
+            if (path == null) {
+                if (jsonTreeStreaming) {
+                    jsonTreeStreaming = false;
+                    endLoading();
+                }
+                try {
+                    jsonTreeView.setDocument(
+                            org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonNodeFactory.parse(view.getText()));
+                } catch (Exception e) {
+                    // Invalid JSON while typing is expected; show an empty tree but leave a
+                    // trace so a genuine parser problem is not silently swallowed.
+                    org.apache.logging.log4j.LogManager.getLogger(EditorHost.class)
+                            .debug("JSON tree view: could not parse current text, showing empty tree", e);
+                    jsonTreeView.setDocument(new org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonDocument());
+                }
+                return;
+            }
+            jsonTreeView.setDocument(new org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonDocument());
+            jsonTreeStreaming = true;
+            beginLoading();
+            org.fxt.freexmltoolkit.FxtGui.executorService.submit(() -> {
+                org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonDocument parsed;
+                try {
+                    parsed = org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonNodeFactory.parse(path,
+                            org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonNodeFactory.DEFAULT_LAZY_ARRAY_THRESHOLD);
+                } catch (Exception e) {
+                    org.apache.logging.log4j.LogManager.getLogger(EditorHost.class)
+                            .debug("JSON tree view: could not parse {}, showing empty tree", path, e);
+                    parsed = new org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonDocument();
+                }
+                org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonDocument result = parsed;
+                Platform.runLater(() -> {
+                    if (request == jsonTreeRequest) {
+                        jsonTreeView.setDocument(result);
+                        jsonTreeStreaming = false;
+                        endLoading();
+                    }
+                });
+            });
+        }
+
+        /** The saved file to stream into the JSON tree, or {@code null} to parse the editor text. */
+        private Path streamableJsonFile() {
+            Path path = document.getPath();
+            if (path == null || document.isDirty()) {
+                return null;
+            }
             try {
-                jsonTreeView.setDocument(
-                        org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonNodeFactory.parse(view.getText()));
-            } catch (Exception e) {
-                // Invalid JSON while typing is expected; show an empty tree but leave a
-                // trace so a genuine parser problem is not silently swallowed.
-                org.apache.logging.log4j.LogManager.getLogger(EditorHost.class)
-                        .debug("JSON tree view: could not parse current text, showing empty tree", e);
-                jsonTreeView.setDocument(new org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonDocument());
+                return isLargeFile() || Files.size(path) >= JSON_TREE_STREAM_BYTES ? path : null;
+            } catch (IOException e) {
+                return null;
             }
         }
 
@@ -4222,6 +4440,11 @@ public class EditorHost extends BorderPane {
                 return;
             }
             dirtyTrackingAttached = true;
+            if (view instanceof LargeFileEditorView large) {
+                // window changes while scrolling replace the code-area text without editing the document
+                large.modifiedProperty().addListener((obs, oldV, newV) -> document.setDirty(newV));
+                return;
+            }
             view.getCodeArea().textProperty().addListener((obs, oldV, newV) -> document.setDirty(true));
         }
 
@@ -21,4 +21,15 @@ final class EditorViews {
             default -> new XmlEditorView();
         };
     }
+
+    /**
+     * @return the {@link LargeFileEditorView} for files at or above the large-file
+     *         threshold, otherwise the editor for the document's file type
+     */
+    static EditorView create(OpenDocument document) {
+        if (!document.isUntitled() && LargeFileEditorView.isLargeFile(document.getPath())) {
+            return new LargeFileEditorView(document.getFileType());
+        }
+        return create(document.getFileType());
+    }
 }
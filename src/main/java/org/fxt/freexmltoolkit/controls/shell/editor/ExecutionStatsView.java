@@ -20,15 +20,21 @@ package org.fxt.freexmltoolkit.controls.shell.editor;
 
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
 
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
+import javafx.scene.control.Spinner;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.Tooltip;
@@ -37,28 +43,45 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.stage.FileChooser;
+import javafx.util.Duration;
 
 import org.fxt.freexmltoolkit.controls.icons.IconifyIcon;
 import org.fxt.freexmltoolkit.controls.shell.editor.debug.DebugTableColumns;
+import org.fxt.freexmltoolkit.controls.v2.editor.core.AbstractCommandManager;
 import org.fxt.freexmltoolkit.service.ExecutionStats;
 import org.fxt.freexmltoolkit.service.ExecutionStatsService;
+import org.fxt.freexmltoolkit.service.LatencyHistogram;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 import org.fxt.freexmltoolkit.util.FormattingUtils;
 
 /**
  * Developer tool tab: history of recorded technical operations (XSLT, XQuery, XPath,
  * validation, XProc, FOP) with their resource consumption, a per-run detail report,
  * and CSV/JSON export for offline analysis (e.g. sizing server/cloud offloading).
+ * Below the history, per-operation percentiles aggregated over all runs since the last
+ * clear, and the shared {@link ThreadPoolManager} pools per task category:
+ * submitted/running/failed tasks and queue-wait and run-time percentiles, and the estimated
+ * memory held by the open editors' undo histories. "Record JFR"
+ * writes a Flight Recorder file of the next N seconds for attaching to bug reports.
  *
  * <p>Lives as a singleton tool tab (see {@code EditorHost.openExecutionStats()}); rows
- * arrive live via an {@link ExecutionStatsService} listener. Call {@link #dispose()}
- * when the tab closes.</p>
+ * arrive live via an {@link ExecutionStatsService} listener, the percentile and pool
+ * tables are refreshed every two seconds. Call {@link #dispose()} when the tab closes.</p>
  */
 public class ExecutionStatsView extends VBox {
 
     private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss");
+    private static final Duration POOL_REFRESH_INTERVAL = Duration.seconds(2);
 
     private final TableView<ExecutionStats> table = new TableView<>();
     private final TextArea detail = new TextArea();
+    private final TableView<ExecutionStatsService.OperationSummary> summaryTable = new TableView<>();
+    private final TableView<ThreadPoolManager.CategoryStats> poolTable = new TableView<>();
+    private final Timeline poolRefresh = new Timeline(new KeyFrame(POOL_REFRESH_INTERVAL, e -> refreshPools()));
+    private final Spinner<Integer> recordSeconds = new Spinner<>(5, 600, 30, 5);
+    private final Button recordJfr;
+    private final Label recordStatus = new Label();
+    private final Label undoHistory = new Label();
     private final Consumer<ExecutionStats> listener =
             stats -> Platform.runLater(() -> table.getItems().add(0, stats));
 
@@ -79,6 +102,15 @@ public class ExecutionStatsView extends VBox {
         HBox header = new HBox(8, title, spacer, exportCsv, exportJson, clear);
         header.setAlignment(Pos.CENTER_LEFT);
 
+        recordJfr = toolButton("Record JFR", "bi-record-circle",
+                "Record a Java Flight Recorder file (GC, allocation, CPU and every operation) "
+                        + "for the given number of seconds", this::recordFlightRecording);
+        recordSeconds.setEditable(true);
+        recordSeconds.setPrefWidth(80);
+        recordStatus.getStyleClass().add("fxt-placeholder-text");
+        HBox recordRow = new HBox(8, recordJfr, recordSeconds, new Label("seconds"), recordStatus);
+        recordRow.setAlignment(Pos.CENTER_LEFT);
+
         Label hint = new Label("Resource usage per operation. Memory deltas are approximate "
                 + "in a shared JVM — use these numbers to compare runs, not as absolute costs.");
         hint.setWrapText(true);
@@ -115,23 +147,107 @@ public class ExecutionStatsView extends VBox {
         detail.getStyleClass().add("fxt-query-results");
         detail.setPromptText("Select a run to see its detail report.");
 
-        getChildren().addAll(header, hint, table, detail);
+        Label summaryTitle = new Label("PERCENTILES PER OPERATION");
+        summaryTitle.getStyleClass().add("fxt-side-panel-title");
+        summaryTable.setId("execution-stats-summary-table");
+        summaryTable.getColumns().add(DebugTableColumns.col("Operation", o -> o.type().name(), 90));
+        summaryTable.getColumns().add(DebugTableColumns.col("Runs", o -> String.valueOf(o.latency().count()), 60));
+        summaryTable.getColumns().add(DebugTableColumns.col("p50",
+                o -> formatMicros(o.latency(), LatencyHistogram.Snapshot::p50Micros), 80));
+        summaryTable.getColumns().add(DebugTableColumns.col("p90",
+                o -> formatMicros(o.latency(), LatencyHistogram.Snapshot::p90Micros), 80));
+        summaryTable.getColumns().add(DebugTableColumns.col("p99",
+                o -> formatMicros(o.latency(), LatencyHistogram.Snapshot::p99Micros), 80));
+        summaryTable.getColumns().add(DebugTableColumns.col("Max",
+                o -> formatMicros(o.latency(), LatencyHistogram.Snapshot::maxMicros), 80));
+        summaryTable.getColumns().add(DebugTableColumns.col("Throughput p50",
+                o -> o.throughput().count() > 0 ? o.throughput().p50Micros() + " KB/s" : "-", 100));
+        summaryTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        summaryTable.setPlaceholder(new Label("No successful runs yet."));
+        summaryTable.setPrefHeight(150);
+        summaryTable.setMinHeight(100);
+
+        Label poolsTitle = new Label("THREAD POOLS");
+        poolsTitle.getStyleClass().add("fxt-side-panel-title");
+        poolTable.setId("thread-pool-stats-table");
+        poolTable.getColumns().add(DebugTableColumns.col("Category",
+                c -> c.category().getDisplayName(), 90));
+        poolTable.getColumns().add(DebugTableColumns.col("Submitted", c -> String.valueOf(c.submitted()), 80));
+        poolTable.getColumns().add(DebugTableColumns.col("Running", c -> String.valueOf(c.running()), 70));
+        poolTable.getColumns().add(DebugTableColumns.col("Failed", c -> String.valueOf(c.failed()), 60));
+        poolTable.getColumns().add(DebugTableColumns.col("Wait p50",
+                c -> formatMicros(c.queueWait(), LatencyHistogram.Snapshot::p50Micros), 80));
+        poolTable.getColumns().add(DebugTableColumns.col("Wait p99",
+                c -> formatMicros(c.queueWait(), LatencyHistogram.Snapshot::p99Micros), 80));
+        poolTable.getColumns().add(DebugTableColumns.col("Run p50",
+                c -> formatMicros(c.runTime(), LatencyHistogram.Snapshot::p50Micros), 80));
+        poolTable.getColumns().add(DebugTableColumns.col("Run p99",
+                c -> formatMicros(c.runTime(), LatencyHistogram.Snapshot::p99Micros), 80));
+        poolTable.getColumns().add(DebugTableColumns.col("Run max",
+                c -> formatMicros(c.runTime(), LatencyHistogram.Snapshot::maxMicros), 80));
+        poolTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        poolTable.setPrefHeight(170);
+        poolTable.setMinHeight(120);
+
+        Label undoTitle = new Label("UNDO HISTORY");
+        undoTitle.getStyleClass().add("fxt-side-panel-title");
+        undoHistory.setId("undo-history-footprint");
+
+        getChildren().addAll(header, hint, recordRow, table, detail, summaryTitle, summaryTable,
+                poolsTitle, poolTable, undoTitle, undoHistory);
 
         table.getItems().setAll(ExecutionStatsService.getInstance().snapshot());
         ExecutionStatsService.getInstance().addListener(listener);
+        refreshPools();
+        poolRefresh.setCycleCount(Animation.INDEFINITE);
+        poolRefresh.play();
     }
 
-    /** Unregisters the live-update listener; call when the hosting tab closes. */
+    /** Unregisters the live-update listener and stops the pool refresh; call when the hosting tab closes. */
     public void dispose() {
         ExecutionStatsService.getInstance().removeListener(listener);
+        poolRefresh.stop();
+    }
+
+    private void refreshPools() {
+        summaryTable.getItems().setAll(ExecutionStatsService.getInstance().summaries());
+        poolTable.getItems().setAll(ThreadPoolManager.getInstance().getStats().categories().values());
+        undoHistory.setText(undoHistoryText(AbstractCommandManager.totalFootprint()));
+    }
+
+    /** @return one line describing the estimated memory held by all open editors' undo histories */
+    static String undoHistoryText(AbstractCommandManager.HistoryFootprint footprint) {
+        return footprint.commands() + " step(s) in " + footprint.managers() + " editor(s), ~"
+                + FormattingUtils.formatFileSize(footprint.bytes()) + " retained";
     }
 
     private void clear() {
         ExecutionStatsService.getInstance().clear();
         table.getItems().clear();
+        summaryTable.getItems().clear();
         detail.clear();
     }
 
+    private void recordFlightRecording() {
+        int seconds = recordSeconds.getValue();
+        Path target = ExecutionStatsService.defaultRecordingPath();
+        recordJfr.setDisable(true);
+        recordStatus.setText("Recording for " + seconds + " s…");
+        ExecutionStatsService.getInstance()
+                .recordFlightRecording(java.time.Duration.ofSeconds(seconds), target)
+                .whenComplete((path, error) -> Platform.runLater(() -> {
+                    recordJfr.setDisable(false);
+                    if (error == null) {
+                        recordStatus.setText("Written to " + path);
+                    } else {
+                        recordStatus.setText("Recording failed");
+                        org.fxt.freexmltoolkit.util.DialogHelper.showActionError("Flight recording failed",
+                                "The flight recording could not be written to " + target + ".",
+                                org.fxt.freexmltoolkit.util.DialogHelper.Remedies.FILE_UNWRITABLE, error);
+                    }
+                }));
+    }
+
     private void export(String format) {
         List<ExecutionStats> stats = List.copyOf(table.getItems());
         if (stats.isEmpty()) {
@@ -188,6 +304,16 @@ public class ExecutionStatsView extends VBox {
         return sb.toString();
     }
 
+    /** Formats a histogram value: microseconds below one millisecond, otherwise like the durations above. */
+    static String formatMicros(LatencyHistogram.Snapshot snapshot,
+            ToLongFunction<LatencyHistogram.Snapshot> value) {
+        if (snapshot.count() == 0) {
+            return "-";
+        }
+        long micros = value.applyAsLong(snapshot);
+        return micros < 1000 ? micros + " µs" : ExecutionStats.formatMillis(micros / 1000);
+    }
+
     private static String formatSignedBytes(long bytes) {
         if (bytes < 0) {
             return "-" + FormattingUtils.formatFileSize(-bytes);
@@ -211,6 +337,14 @@ public class ExecutionStatsView extends VBox {
         return table.getItems().size();
     }
 
+    public int getSummaryRowCount() {
+        return summaryTable.getItems().size();
+    }
+
+    public int getPoolRowCount() {
+        return poolTable.getItems().size();
+    }
+
     public String getDetailText() {
         return detail.getText();
     }
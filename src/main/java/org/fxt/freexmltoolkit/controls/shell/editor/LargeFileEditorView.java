@@ -0,0 +1,823 @@
+package org.fxt.freexmltoolkit.controls.shell.editor;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.PauseTransition;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.ReadOnlyBooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
+import javafx.util.Duration;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxmisc.flowless.VirtualizedScrollPane;
+import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.StyleSpans;
+import org.fxt.freexmltoolkit.controls.shared.JsonSyntaxHighlighter;
+import org.fxt.freexmltoolkit.controls.shared.XmlSyntaxHighlighter;
+import org.fxt.freexmltoolkit.controls.shell.editor.largefile.LargeDocument;
+import org.fxt.freexmltoolkit.service.ManagedExecutor;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager.TaskCategory;
+
+/**
+ * {@link EditorView} for files too large to load into a {@link CodeArea}.
+ *
+ * <p>The file is memory-mapped as a {@link LargeDocument}; the code area only holds
+ * a window of about {@value #WINDOW_BYTES} bytes around the current position and
+ * slides when the user scrolls near its edges. The scroll bar on the right spans the
+ * whole file. Edits in the window are written back to the document's piece table
+ * when the window moves or the file is saved; only the changed span is re-encoded,
+ * so untouched text keeps its bytes and line terminators. A window that does not
+ * decode cleanly in the document's charset, and documents in charsets that cannot
+ * be edited byte-wise, are shown read-only. Syntax highlighting covers the window;
+ * search, go-to-line and XPath location stream through the whole document on a
+ * background thread; saving streams the piece table to disk on the same thread while
+ * the view is read-only.</p>
+ *
+ * <p>{@link #getText()} returns the window only, so the host keeps whole-document
+ * features (structured views, formatting, diff) away from this view. Undo covers
+ * the edits made since the window was last moved.</p>
+ */
+final class LargeFileEditorView implements EditorView {
+
+    private static final Logger logger = LogManager.getLogger(LargeFileEditorView.class);
+
+    /** System property overriding {@link #DEFAULT_THRESHOLD_MB}. */
+    static final String THRESHOLD_PROPERTY = "fxt.editor.largeFileThresholdMb";
+    /** Files at least this large open in this view. */
+    static final long DEFAULT_THRESHOLD_MB = 64;
+
+    static final int WINDOW_BYTES = 512 * 1024;
+    /** How far window edges look for a line break before cutting a long line. */
+    private static final int MAX_LINE_SCAN = 16 * 1024;
+    /** The window slides when fewer paragraphs than this are left above or below the viewport. */
+    private static final int EDGE_PARAGRAPHS = 30;
+    /** ... and fewer bytes than this, so windows of very long lines do not slide again right away. */
+    private static final int EDGE_BYTES = WINDOW_BYTES / 8;
+
+    private final CodeArea codeArea = new CodeArea();
+    private final ScrollBar fileScrollBar = new ScrollBar();
+    private final Label statusLabel = new Label();
+    private final TextField goToLineField = new TextField();
+    private final TextField findField = new TextField();
+    private final CheckBox matchCaseBox = new CheckBox("Match case");
+    private final TextField xpathField = new TextField();
+    private final BorderPane root = new BorderPane();
+    private final Function<String, StyleSpans<Collection<String>>> highlighter;
+
+    private final ManagedExecutor executor =
+            ThreadPoolManager.getInstance().newExecutor("LargeFile-Editor", TaskCategory.IO, 2);
+    /** Increments per search / XPath request; results of superseded requests are dropped. */
+    private final AtomicLong requestGeneration = new AtomicLong();
+    private final BooleanProperty modified = new SimpleBooleanProperty(false);
+    private final PauseTransition highlightDebounce = new PauseTransition(Duration.millis(250));
+    private final PauseTransition scrollBarDebounce = new PauseTransition(Duration.millis(120));
+    private final Timeline indexProgress = new Timeline(new KeyFrame(Duration.millis(500), e -> onIndexProgress()));
+
+    private LargeDocument document;
+    private long windowStart;
+    private long windowEnd;
+    /** Window text as loaded or last written back, with its original line terminators. */
+    private String windowRaw = "";
+    /** {@link #windowRaw} with every line terminator as a line feed, as the code area shows it. */
+    private String windowText = "";
+    /** Indexes in {@link #windowText} of the line feeds that stand for a CR LF pair, ascending. */
+    private int[] crlfBreaks = new int[0];
+    /** The code area differs from {@link #windowText}. */
+    private boolean windowEdited;
+    /** The window did not decode cleanly, so it must not be written back. */
+    private boolean windowReadOnly;
+    /** Zero-based line of {@link #windowStart}; -1 until the index reaches it. */
+    private long firstLine = -1;
+    /** Line count as of the last window change; -1 while the index is incomplete. */
+    private long lineCount = -1;
+    private boolean updatingWindow;
+    private boolean slidePending;
+    /** Save in progress; the document is detached from the view until it completes. */
+    private CompletableFuture<Void> pendingSave;
+    private boolean disposed;
+
+    LargeFileEditorView(EditorFileType type) {
+        highlighter = switch (type) {
+            case JSON -> JsonSyntaxHighlighter::computeHighlighting;
+            case OTHER, XQUERY, XPATH -> null;
+            default -> XmlSyntaxHighlighter::computeHighlighting;
+        };
+        var css = getClass().getResource(type == EditorFileType.JSON
+                ? "/css/json-editor.css" : "/scss/xml-highlighting.css");
+        if (css != null) {
+            codeArea.getStylesheets().add(css.toExternalForm());
+        }
+        codeArea.setStyle("-fx-font-family: 'JetBrains Mono', 'Consolas', 'Monaco', monospace;");
+        codeArea.setParagraphGraphicFactory(lineNumbers());
+        codeArea.textProperty().addListener((obs, oldText, newText) -> {
+            if (!updatingWindow) {
+                windowEdited = true;
+                modified.set(true);
+                highlightDebounce.playFromStart();
+            }
+        });
+        codeArea.estimatedScrollYProperty().addListener((obs, oldY, newY) -> maybeSlideWindow());
+        codeArea.caretPositionProperty().addListener((obs, oldPos, newPos) -> updateStatus());
+        highlightDebounce.setOnFinished(e -> highlightWindow());
+
+        fileScrollBar.setOrientation(Orientation.VERTICAL);
+        fileScrollBar.valueProperty().addListener((obs, oldV, newV) -> {
+            if (!updatingWindow) {
+                scrollBarDebounce.playFromStart();
+            }
+        });
+        scrollBarDebounce.setOnFinished(e -> {
+            long position = (long) fileScrollBar.getValue();
+            showWindow(position, position);
+        });
+        indexProgress.setCycleCount(Timeline.INDEFINITE);
+
+        goToLineField.setPromptText("Go to line");
+        goToLineField.setPrefColumnCount(8);
+        goToLineField.setOnAction(e -> goToLine(goToLineField.getText()));
+        findField.setPromptText("Find in file");
+        findField.setPrefColumnCount(18);
+        findField.setOnAction(e -> findNext(findField.getText()));
+        xpathField.setPromptText("XPath, e.g. /root/item[3]");
+        xpathField.setPrefColumnCount(20);
+        xpathField.setOnAction(e -> locateXPath(xpathField.getText()));
+        Region spacer = new Region();
+        HBox.setHgrow(spacer, Priority.ALWAYS);
+        HBox toolbar = new HBox(8, new Label("Large file"), goToLineField, findField, matchCaseBox, xpathField,
+                spacer, statusLabel);
+        toolbar.setAlignment(Pos.CENTER_LEFT);
+        toolbar.setPadding(new Insets(4, 8, 4, 8));
+        toolbar.getStyleClass().add("large-file-toolbar");
+
+        root.setTop(toolbar);
+        root.setCenter(new VirtualizedScrollPane<>(codeArea));
+        root.setRight(fileScrollBar);
+        codeArea.setEditable(false);
+        updateStatus();
+    }
+
+    /**
+     * Checks whether a file should open in this view.
+     *
+     * @param path the file
+     * @return {@code true} if the file is at least as large as the configured threshold
+     */
+    static boolean isLargeFile(Path path) {
+        try {
+            return Files.isRegularFile(path) && Files.size(path) >= thresholdBytes();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    static long thresholdBytes() {
+        return Math.max(1, Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD_MB)) * 1024 * 1024;
+    }
+
+    /**
+     * Shows a mapped document, replacing (and closing) the current one, and starts
+     * building its line index in the background. Must be called on the FX thread.
+     *
+     * @param newDocument the document
+     */
+    void setDocument(LargeDocument newDocument) {
+        setDocument(newDocument, 0);
+    }
+
+    private void setDocument(LargeDocument newDocument, long position) {
+        closeDocument();
+        document = newDocument;
+        windowEdited = false;
+        modified.set(newDocument.isModified());
+        fileScrollBar.setMin(0);
+        fileScrollBar.setMax(Math.max(1, newDocument.length()));
+        executor.execute(newDocument::buildIndex);
+        indexProgress.play();
+        showWindow(position, position);
+    }
+
+    /** @return the document shown, or {@code null} before {@link #setDocument}. */
+    LargeDocument getDocument() {
+        return document;
+    }
+
+    /** @return {@code true} when the document differs from the file on disk. */
+    ReadOnlyBooleanProperty modifiedProperty() {
+        return modified;
+    }
+
+    /**
+     * Writes the document to a file on the I/O executor, streaming it through the
+     * piece table, and continues with the saved file mapped. Only the window commit
+     * runs on the caller's thread; the document is detached and the view read-only
+     * until the save completes. Must be called on the FX thread.
+     *
+     * @param target the file to write
+     * @return completes on the FX thread once the saved file (or, if it could not
+     *         replace the source, the reopened source) is shown; completes
+     *         exceptionally if writing fails
+     */
+    CompletableFuture<Void> saveAsync(Path target) {
+        if (pendingSave != null) {
+            return CompletableFuture.failedFuture(new IOException("A save of this file is still running"));
+        }
+        if (document == null) {
+            return CompletableFuture.failedFuture(new IOException("No document to save"));
+        }
+        if (!commitWindow()) {
+            return CompletableFuture.failedFuture(new IOException(
+                    "The edits have characters " + document.getCharset().name() + " cannot encode"));
+        }
+        long anchor = caretOffset();
+        LargeDocument saving = document;
+        document = null; // window, search and navigation stay off the file while it is written
+        requestGeneration.incrementAndGet();
+        scrollBarDebounce.stop();
+        codeArea.setEditable(false);
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        pendingSave = done;
+        updateStatus();
+        executor.execute(() -> {
+            LargeDocument result;
+            Throwable failure = null;
+            try {
+                result = saving.saveTo(target);
+            } catch (LargeDocument.SaveFailedException e) {
+                result = e.getReopened(); // the source was closed by saveTo
+                failure = e;
+            } catch (Throwable e) {
+                result = saving; // saveTo leaves the source open when writing fails
+                failure = e;
+            }
+            LargeDocument shown = result;
+            Throwable error = failure;
+            Platform.runLater(() -> finishSave(saving, shown, anchor, error, done));
+        });
+        return done;
+    }
+
+    private void finishSave(LargeDocument saving, LargeDocument result, long anchor, Throwable failure,
+                            CompletableFuture<Void> done) {
+        pendingSave = null;
+        if (disposed) {
+            document = result;
+            closeDocument();
+            executor.shutdownNow();
+        } else if (result == saving) {
+            document = saving;
+            updateEditable();
+            updateStatus();
+        } else {
+            setDocument(result, anchor);
+        }
+        if (failure != null) {
+            done.completeExceptionally(failure);
+        } else {
+            done.complete(null);
+        }
+    }
+
+    /** Stops background work and unmaps the file (after a running save completes). */
+    void dispose() {
+        disposed = true;
+        indexProgress.stop();
+        highlightDebounce.stop();
+        scrollBarDebounce.stop();
+        if (pendingSave == null) {
+            executor.shutdownNow(); // a running save finishes first and closes the file itself
+        }
+        closeDocument();
+    }
+
+    // ----- EditorView -------------------------------------------------------
+
+    @Override
+    public Region getNode() {
+        return root;
+    }
+
+    /**
+     * Replaces the whole document (or, before a document is shown, the placeholder
+     * text such as a load error).
+     */
+    @Override
+    public void setText(String text) {
+        if (pendingSave != null) {
+            logger.debug("Ignoring a text replacement while the large file is being saved");
+            return;
+        }
+        if (document == null) {
+            updatingWindow = true;
+            try {
+                codeArea.replaceText(text);
+            } finally {
+                updatingWindow = false;
+            }
+            return;
+        }
+        if (!document.isEditable()) {
+            logger.debug("Ignoring a text replacement of a read-only {} document", document.getCharset());
+            return;
+        }
+        try {
+            document.replace(0, document.length(), text);
+        } catch (CharacterCodingException e) {
+            logger.warn("Text cannot be encoded as {}; document left unchanged", document.getCharset());
+            return;
+        }
+        modified.set(true);
+        windowEdited = false; // the old window is gone with the old text
+        windowStart = windowEnd = 0;
+        showWindow(0, 0);
+    }
+
+    /** @return the text of the window shown, not of the whole document. */
+    @Override
+    public String getText() {
+        return codeArea.getText();
+    }
+
+    @Override
+    public CodeArea getCodeArea() {
+        return codeArea;
+    }
+
+    // ----- window -----------------------------------------------------------
+
+    /**
+     * Loads the window containing {@code offset} and scrolls the line holding
+     * {@code anchor} to the top of the viewport.
+     */
+    private void showWindow(long offset, long anchor) {
+        if (document == null) {
+            return;
+        }
+        if (!commitWindow()) {
+            return;
+        }
+        long length = document.length();
+        long target = Math.clamp(offset, 0, length);
+        long start = document.alignToLineStart(Math.max(0, target - WINDOW_BYTES / 4), MAX_LINE_SCAN);
+        long end = document.alignToLineEnd(Math.min(length, start + WINDOW_BYTES), MAX_LINE_SCAN);
+        if (end < target) {
+            end = document.alignToLineEnd(target, MAX_LINE_SCAN);
+        }
+        String raw;
+        boolean malformed = false;
+        try {
+            raw = document.decode(start, end);
+        } catch (CharacterCodingException e) {
+            raw = document.text(start, end); // shown with replacement characters, never written back
+            malformed = true;
+        }
+        updatingWindow = true;
+        try {
+            windowStart = start;
+            windowEnd = end;
+            setWindowRaw(raw);
+            windowEdited = false;
+            windowReadOnly = malformed;
+            codeArea.replaceText(windowText);
+            codeArea.getUndoManager().forgetHistory();
+            firstLine = document.lineOf(start);
+            lineCount = document.getLineCount();
+            codeArea.setParagraphGraphicFactory(lineNumbers());
+            fileScrollBar.setVisibleAmount(Math.max(1, end - start));
+            fileScrollBar.setValue(start);
+            int anchorChar = charOffset(Math.clamp(anchor, start, end));
+            codeArea.moveTo(anchorChar);
+            codeArea.showParagraphAtTop(codeArea.getCurrentParagraph());
+        } finally {
+            updatingWindow = false;
+        }
+        updateEditable();
+        highlightWindow();
+        updateStatus();
+    }
+
+    /** Sets the window text as decoded; the code area shows every line terminator as a line feed. */
+    private void setWindowRaw(String raw) {
+        StringBuilder text = new StringBuilder(raw.length());
+        int[] breaks = new int[16];
+        int count = 0;
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\r') {
+                text.append(c);
+                continue;
+            }
+            if (i + 1 < raw.length() && raw.charAt(i + 1) == '\n') {
+                if (count == breaks.length) {
+                    breaks = Arrays.copyOf(breaks, count * 2);
+                }
+                breaks[count++] = text.length();
+                i++;
+            }
+            text.append('\n');
+        }
+        windowRaw = raw;
+        windowText = text.toString();
+        crlfBreaks = Arrays.copyOf(breaks, count);
+    }
+
+    /**
+     * Writes the user's edits in the window back into the document. Only the span
+     * between the unchanged head and tail is re-encoded; new line breaks in it take
+     * the terminator of the line they are typed on.
+     *
+     * @return {@code false} if the edit cannot be encoded in the document's charset;
+     *         the window then stays in place so nothing is lost
+     */
+    private boolean commitWindow() {
+        if (document == null || !windowEdited) {
+            return true;
+        }
+        String current = codeArea.getText();
+        int max = Math.min(current.length(), windowText.length());
+        int head = 0;
+        while (head < max && current.charAt(head) == windowText.charAt(head)) {
+            head++;
+        }
+        if (head > 0 && Character.isHighSurrogate(windowText.charAt(head - 1))) {
+            head--;
+        }
+        int tail = 0;
+        while (tail < max - head
+                && current.charAt(current.length() - 1 - tail) == windowText.charAt(windowText.length() - 1 - tail)) {
+            tail++;
+        }
+        if (tail > 0 && Character.isLowSurrogate(windowText.charAt(windowText.length() - tail))) {
+            tail--;
+        }
+        int rawFrom = rawIndex(head);
+        int rawTo = rawIndex(windowText.length() - tail);
+        String inserted = current.substring(head, current.length() - tail).replace("\n", lineTerminatorAt(rawTo));
+        long from = windowStart + document.encodedLength(windowRaw, rawFrom);
+        long to = windowStart + document.encodedLength(windowRaw, rawTo);
+        int written;
+        try {
+            written = document.replace(from, to, inserted);
+        } catch (CharacterCodingException e) {
+            statusLabel.setText("The edit has characters " + document.getCharset().name() + " cannot encode");
+            return false;
+        }
+        windowEnd += written - (to - from);
+        setWindowRaw(windowRaw.substring(0, rawFrom) + inserted + windowRaw.substring(rawTo));
+        windowEdited = false;
+        fileScrollBar.setMax(Math.max(1, document.length()));
+        return true;
+    }
+
+    /** Index in {@link #windowRaw} of a character index in {@link #windowText}. */
+    private int rawIndex(int charIndex) {
+        int found = Arrays.binarySearch(crlfBreaks, charIndex);
+        return charIndex + (found >= 0 ? found : -found - 1);
+    }
+
+    /** The terminator of the line holding a {@link #windowRaw} index, else of the line before; LF if none. */
+    private String lineTerminatorAt(int rawIndex) {
+        for (int i = rawIndex; i < windowRaw.length(); i++) {
+            char c = windowRaw.charAt(i);
+            if (c == '\n') {
+                return "\n";
+            }
+            if (c == '\r') {
+                return i + 1 < windowRaw.length() && windowRaw.charAt(i + 1) == '\n' ? "\r\n" : "\r";
+            }
+        }
+        for (int i = rawIndex - 1; i >= 0; i--) {
+            char c = windowRaw.charAt(i);
+            if (c == '\n') {
+                return i > 0 && windowRaw.charAt(i - 1) == '\r' ? "\r\n" : "\n";
+            }
+            if (c == '\r') {
+                return "\r";
+            }
+        }
+        return "\n";
+    }
+
+    /** Document offset of a character index in the written-back window. */
+    private long documentOffset(int charIndex) {
+        return windowStart + document.encodedLength(windowRaw, rawIndex(Math.min(charIndex, windowText.length())));
+    }
+
+    private void updateEditable() {
+        codeArea.setEditable(document != null && pendingSave == null && document.isEditable() && !windowReadOnly);
+    }
+
+    /** Slides the window once the viewport gets near one of its edges. */
+    private void maybeSlideWindow() {
+        if (document == null || updatingWindow || slidePending || !commitWindow()) {
+            return;
+        }
+        int paragraphs = codeArea.getParagraphs().size();
+        int firstVisible;
+        int lastVisible;
+        try {
+            firstVisible = codeArea.firstVisibleParToAllParIndex();
+            lastVisible = codeArea.lastVisibleParToAllParIndex();
+        } catch (IllegalStateException | IndexOutOfBoundsException e) {
+            return; // not laid out yet
+        }
+        boolean nearTop = windowStart > 0 && firstVisible < EDGE_PARAGRAPHS
+                && paragraphOffset(firstVisible) - windowStart < EDGE_BYTES;
+        boolean nearBottom = windowEnd < document.length() && lastVisible >= paragraphs - EDGE_PARAGRAPHS
+                && windowEnd - paragraphOffset(Math.min(lastVisible + 1, paragraphs - 1)) < EDGE_BYTES;
+        if (!nearTop && !nearBottom) {
+            return;
+        }
+        slidePending = true;
+        // not while the code area is in the middle of a layout pass
+        Platform.runLater(() -> {
+            slidePending = false;
+            if (document == null) {
+                return;
+            }
+            long anchor = paragraphOffset(firstVisible);
+            showWindow(nearTop ? anchor - WINDOW_BYTES / 4 : paragraphOffset(lastVisible), anchor);
+        });
+    }
+
+    /** Moves the caret to a document offset, loading its window if needed, and selects {@code length} chars. */
+    private void revealOffset(long offset, int length) {
+        if (!commitWindow()) {
+            return;
+        }
+        if (offset < windowStart || offset >= windowEnd || offset + length > windowEnd) {
+            showWindow(offset, offset);
+        }
+        int start = charOffset(offset);
+        codeArea.selectRange(start, Math.min(codeArea.getLength(), start + length));
+        codeArea.requestFollowCaret();
+        codeArea.requestFocus();
+        updateStatus();
+    }
+
+    /** Character offset in the code area of a document offset inside the window. */
+    private int charOffset(long offset) {
+        String prefix = document.text(windowStart, Math.clamp(offset, windowStart, windowEnd));
+        return prefix.replace("\r\n", "\n").length();
+    }
+
+    /** Document offset of the start of a paragraph of the written-back window. */
+    private long paragraphOffset(int paragraph) {
+        return documentOffset(codeArea.getAbsolutePosition(paragraph, 0));
+    }
+
+    private long caretOffset() {
+        if (document == null) {
+            return 0;
+        }
+        return documentOffset(codeArea.getCaretPosition());
+    }
+
+    // ----- navigation -------------------------------------------------------
+
+    private void goToLine(String input) {
+        if (document == null) {
+            return;
+        }
+        long line;
+        try {
+            line = Long.parseLong(input.strip().replace(",", "").replace(".", ""));
+        } catch (NumberFormatException e) {
+            statusLabel.setText("Not a line number: " + input);
+            return;
+        }
+        goToLine(line);
+    }
+
+    /**
+     * Shows the window holding a 1-based line of the whole document, or reports in the
+     * status bar that the line does not exist or is not indexed yet.
+     *
+     * @param line the 1-based line number
+     */
+    void goToLine(long line) {
+        if (document == null) {
+            return;
+        }
+        if (!commitWindow()) {
+            return;
+        }
+        long offset = document.lineStart(Math.max(0, line - 1));
+        if (offset < 0) {
+            statusLabel.setText(document.getLineIndex().isComplete()
+                    ? "No line " + line
+                    : String.format(Locale.ROOT, "Line %,d is not indexed yet (%.0f%%)", line,
+                    document.getLineIndex().getProgress() * 100));
+            return;
+        }
+        showWindow(offset, offset);
+        codeArea.requestFocus();
+    }
+
+    private void findNext(String needle) {
+        if (document == null || needle == null || needle.isEmpty()) {
+            return;
+        }
+        if (!commitWindow()) {
+            return;
+        }
+        long from = caretOffset() + (codeArea.getSelectedText().isEmpty() ? 0 : 1);
+        boolean matchCase = matchCaseBox.isSelected();
+        LargeDocument snapshot = document.snapshot();
+        long generation = requestGeneration.incrementAndGet();
+        statusLabel.setText("Searching…");
+        executor.execute(() -> {
+            long hit;
+            try {
+                hit = snapshot.find(needle, from, matchCase);
+                if (hit < 0 && from > 0) {
+                    hit = snapshot.find(needle, 0, matchCase); // wrap around
+                }
+            } catch (IllegalStateException e) {
+                return; // document closed meanwhile
+            }
+            long result = hit;
+            Platform.runLater(() -> {
+                if (generation != requestGeneration.get() || document == null) {
+                    return;
+                }
+                if (result < 0) {
+                    statusLabel.setText("Not found: " + needle);
+                } else {
+                    revealOffset(result, needle.replace("\r\n", "\n").length());
+                }
+            });
+        });
+    }
+
+    private void locateXPath(String xpath) {
+        if (document == null || xpath == null || xpath.isBlank()) {
+            return;
+        }
+        if (!commitWindow()) {
+            return;
+        }
+        LargeDocument snapshot = document.snapshot();
+        long generation = requestGeneration.incrementAndGet();
+        statusLabel.setText("Locating " + xpath.strip() + "…");
+        executor.execute(() -> {
+            String message = null;
+            long hit = -1;
+            try {
+                hit = snapshot.locate(xpath);
+                if (hit < 0) {
+                    message = "No element matches " + xpath.strip();
+                }
+            } catch (IllegalArgumentException e) {
+                message = e.getMessage();
+            } catch (XMLStreamException e) {
+                message = "Not well-formed before a match: " + e.getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IllegalStateException e) {
+                return; // document closed meanwhile
+            }
+            long result = hit;
+            String error = message;
+            Platform.runLater(() -> {
+                if (generation != requestGeneration.get() || document == null) {
+                    return;
+                }
+                if (error != null) {
+                    statusLabel.setText(error);
+                } else {
+                    revealOffset(result, 1);
+                }
+            });
+        });
+    }
+
+    // ----- rendering --------------------------------------------------------
+
+    private void highlightWindow() {
+        if (highlighter == null) {
+            return;
+        }
+        String text = codeArea.getText();
+        ThreadPoolManager.getInstance()
+                .executeHighlighting("large-file-highlight", () -> highlighter.apply(text))
+                .thenAccept(spans -> Platform.runLater(() -> {
+                    if (text.equals(codeArea.getText())) {
+                        codeArea.setStyleSpans(0, spans);
+                    }
+                }))
+                .exceptionally(e -> {
+                    logger.debug("Highlighting the large-file window failed: {}", e.toString());
+                    return null;
+                });
+    }
+
+    private IntFunction<Node> lineNumbers() {
+        long first = firstLine;
+        return paragraph -> {
+            Label number = new Label(first >= 0 ? String.format(Locale.ROOT, "%6d", first + paragraph + 1) : "");
+            number.setStyle("-fx-font-family: monospace; -fx-text-fill: gray;");
+            HBox box = new HBox(number);
+            box.getStyleClass().add("lineno");
+            box.setPadding(new Insets(0, 6, 0, 4));
+            return box;
+        };
+    }
+
+    private void onIndexProgress() {
+        if (document == null) {
+            indexProgress.stop();
+            return;
+        }
+        if (firstLine < 0) {
+            firstLine = document.lineOf(windowStart);
+            if (firstLine >= 0) {
+                codeArea.setParagraphGraphicFactory(lineNumbers());
+            }
+        }
+        if (document.getLineIndex().isComplete()) {
+            lineCount = document.getLineCount();
+            indexProgress.stop();
+        }
+        updateStatus();
+    }
+
+    private void updateStatus() {
+        if (document == null) {
+            statusLabel.setText(pendingSave != null ? "Saving…" : "");
+            return;
+        }
+        StringBuilder status = new StringBuilder(formatSize(document.length()));
+        if (lineCount >= 0) {
+            status.append(String.format(Locale.ROOT, " · %,d lines", lineCount));
+        } else {
+            status.append(String.format(Locale.ROOT, " · indexing %.0f%%",
+                    document.getLineIndex().getProgress() * 100));
+        }
+        if (firstLine >= 0) {
+            status.append(String.format(Locale.ROOT, " · Ln %,d", firstLine + codeArea.getCurrentParagraph() + 1));
+        }
+        if (!StandardCharsets.UTF_8.equals(document.getCharset())) {
+            status.append(" · ").append(document.getCharset().name());
+        }
+        if (!document.isEditable()) {
+            status.append(" · read-only");
+        } else if (windowReadOnly) {
+            status.append(" · read-only here: not valid ").append(document.getCharset().name());
+        }
+        statusLabel.setText(status.toString());
+    }
+
+    static String formatSize(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        if (bytes < 1024L * 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f MB", bytes / (1024.0 * 1024));
+        }
+        return String.format(Locale.ROOT, "%.2f GB", bytes / (1024.0 * 1024 * 1024));
+    }
+
+    private void closeDocument() {
+        if (document == null) {
+            return;
+        }
+        requestGeneration.incrementAndGet();
+        try {
+            document.close();
+        } catch (IOException e) {
+            logger.warn("Could not close {}: {}", document.getPath(), e.getMessage());
+        }
+        document = null;
+    }
+}
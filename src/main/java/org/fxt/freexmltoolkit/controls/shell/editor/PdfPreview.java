@@ -1,41 +1,65 @@
 package org.fxt.freexmltoolkit.controls.shell.editor;
 
+import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 import javafx.application.Platform;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.SimpleDoubleProperty;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.ScrollPane;
+import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 
-import org.fxt.freexmltoolkit.FxtGui;
 import org.fxt.freexmltoolkit.controls.icons.IconifyIcon;
 
 /**
  * In-app PDF preview: renders one page at a time (via {@link PdfPreviewRenderer})
- * with prev/next navigation. Pages are rasterised on demand off the UI thread,
- * so large documents stay responsive and memory-light.
+ * with prev/next navigation and zoom. Pages are rasterised on demand off the UI
+ * thread, so large documents stay responsive and memory-light.
+ *
+ * <p>The document stays loaded while the preview is open; rendered pages are
+ * cached and the neighbours of the shown page are prefetched, so flipping
+ * through a long document shows cached pages at once. A page not yet rendered
+ * at the current zoom first appears from any cached rendering (or a quick
+ * low-resolution one), then sharpens when the full resolution is ready. Call
+ * {@link #dispose()} when the hosting tab closes.</p>
  */
 public class PdfPreview extends BorderPane {
 
+    /** Resolution at zoom 100% (page fitted to the width). */
     private static final float DPI = 120f;
+    /** Resolution of the quick first pass shown while the full one renders. */
+    private static final float PREVIEW_DPI = 48f;
+    private static final float MAX_DPI = 300f;
+    private static final double MIN_ZOOM = 0.5;
+    private static final double MAX_ZOOM = 4.0;
+    private static final double ZOOM_STEP = 1.25;
 
-    private final File pdf;
+    private final PdfPreviewRenderer renderer;
     private final int pageCount;
     private int pageIndex;
+    private final DoubleProperty zoom = new SimpleDoubleProperty(1.0);
     private final ImageView imageView = new ImageView();
     private final Label pageLabel = new Label();
+    private final Label zoomLabel = new Label("100%");
     private final Button prev;
     private final Button next;
+    /** Renders requested for the page on screen; cancelled when it changes. */
+    private CompletableFuture<BufferedImage> pendingFull;
+    private CompletableFuture<BufferedImage> pendingPreview;
+    private int displayGeneration;
 
     public PdfPreview(File pdf) throws IOException {
-        this.pdf = pdf;
-        this.pageCount = PdfPreviewRenderer.pageCount(pdf);
+        this.renderer = PdfPreviewRenderer.open(pdf);
+        this.pageCount = renderer.getPageCount();
         getStyleClass().add("fxt-pdf-preview");
 
         imageView.setPreserveRatio(true);
@@ -43,12 +67,16 @@ public class PdfPreview extends BorderPane {
         ScrollPane scroll = new ScrollPane(imageView);
         scroll.setFitToWidth(true);
         scroll.setPannable(true);
-        imageView.fitWidthProperty().bind(scroll.widthProperty().subtract(24));
+        imageView.fitWidthProperty().bind(scroll.widthProperty().subtract(24).multiply(zoom));
 
         prev = navButton("bi-chevron-left", "Previous page", () -> showPage(pageIndex - 1));
         next = navButton("bi-chevron-right", "Next page", () -> showPage(pageIndex + 1));
+        Button zoomOut = navButton("bi-zoom-out", "Zoom out", () -> setZoom(zoom.get() / ZOOM_STEP));
+        Button zoomIn = navButton("bi-zoom-in", "Zoom in", () -> setZoom(zoom.get() * ZOOM_STEP));
+        Button fit = navButton("bi-aspect-ratio", "Fit to width", () -> setZoom(1.0));
         pageLabel.getStyleClass().add("fxt-toolbar-status");
-        HBox toolbar = new HBox(8, prev, pageLabel, next);
+        zoomLabel.getStyleClass().add("fxt-toolbar-status");
+        HBox toolbar = new HBox(8, prev, pageLabel, next, zoomOut, zoomLabel, zoomIn, fit);
         toolbar.setAlignment(Pos.CENTER_LEFT);
         toolbar.getStyleClass().add("fxt-editor-toolbar");
 
@@ -67,6 +95,29 @@ public class PdfPreview extends BorderPane {
         return pageIndex;
     }
 
+    /** @return the zoom factor; 1.0 fits the page to the width. */
+    public double getZoom() {
+        return zoom.get();
+    }
+
+    /** Sets the zoom factor (clamped to 50%–400%) and re-renders the page at the matching resolution. */
+    public void setZoom(double factor) {
+        double clamped = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, factor));
+        if (clamped == zoom.get()) {
+            return;
+        }
+        zoom.set(clamped);
+        zoomLabel.setText(Math.round(clamped * 100) + "%");
+        display(pageIndex);
+    }
+
+    /** Closes the document and drops cached pages; call when the hosting tab closes. */
+    public void dispose() {
+        displayGeneration++;
+        cancelPending();
+        renderer.close();
+    }
+
     private void showPage(int index) {
         if (index < 0 || index >= pageCount) {
             return;
@@ -75,14 +126,84 @@ public class PdfPreview extends BorderPane {
         pageLabel.setText("Page " + (index + 1) + " / " + pageCount);
         prev.setDisable(index == 0);
         next.setDisable(index == pageCount - 1);
-        FxtGui.executorService.submit(() -> {
-            try {
-                var fx = SwingFXUtils.toFXImage(PdfPreviewRenderer.renderPage(pdf, index, DPI), null);
-                Platform.runLater(() -> imageView.setImage(fx));
-            } catch (Exception e) {
-                Platform.runLater(() -> pageLabel.setText("Error rendering page: " + e.getMessage()));
-            }
-        });
+        display(index);
+    }
+
+    /** Shows the page at the current zoom: from the cache, else progressively. */
+    private void display(int index) {
+        float dpi = targetDpi();
+        cancelPending();
+        int generation = ++displayGeneration;
+        BufferedImage exact = renderer.cached(index, dpi);
+        if (exact != null) {
+            imageView.setImage(SwingFXUtils.toFXImage(exact, null));
+            prefetchNeighbours(index, dpi);
+            return;
+        }
+        // Queued first, so the quick pass below (also queued at the front) runs before it.
+        CompletableFuture<BufferedImage> full = renderer.render(index, dpi);
+        pendingFull = full;
+        full.thenApply(image -> SwingFXUtils.toFXImage(image, null)).whenComplete((fx, error) ->
+                Platform.runLater(() -> {
+                    if (generation != displayGeneration) {
+                        return;
+                    }
+                    if (error != null) {
+                        if (!full.isCancelled()) {
+                            pageLabel.setText("Error rendering page: " + rootMessage(error));
+                        }
+                        return;
+                    }
+                    imageView.setImage(fx);
+                    prefetchNeighbours(index, dpi);
+                }));
+        BufferedImage interim = renderer.bestCached(index);
+        if (interim != null) {
+            imageView.setImage(SwingFXUtils.toFXImage(interim, null));
+        } else if (dpi > PREVIEW_DPI) {
+            pendingPreview = renderer.render(index, PREVIEW_DPI);
+            pendingPreview.thenApply(image -> SwingFXUtils.toFXImage(image, null)).thenAccept(fx ->
+                    Platform.runLater(() -> {
+                        if (generation == displayGeneration && !full.isDone()) {
+                            imageView.setImage(fx);
+                        }
+                    }));
+        }
+    }
+
+    private void prefetchNeighbours(int index, float dpi) {
+        for (int distance = 1; distance <= PdfPreviewRenderer.PREFETCH_RADIUS; distance++) {
+            renderer.prefetch(index + distance, dpi);
+            renderer.prefetch(index - distance, dpi);
+        }
+    }
+
+    private void cancelPending() {
+        if (pendingFull != null) {
+            pendingFull.cancel(false);
+            pendingFull = null;
+        }
+        if (pendingPreview != null) {
+            pendingPreview.cancel(false);
+            pendingPreview = null;
+        }
+    }
+
+    private float targetDpi() {
+        return (float) Math.min(MAX_DPI, DPI * zoom.get());
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable cause = error;
+        while (cause.getCause() != null && cause != cause.getCause()) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    /** @return the image currently shown (for tests/observers). */
+    Image getShownImage() {
+        return imageView.getImage();
     }
 
     private Button navButton(String icon, String tooltip, Runnable action) {
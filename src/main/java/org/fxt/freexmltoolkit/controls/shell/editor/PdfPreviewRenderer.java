@@ -3,19 +3,269 @@ package org.fxt.freexmltoolkit.controls.shell.editor;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.apache.pdfbox.Loader;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.PDFRenderer;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 
 /**
  * UI-free PDF rasterisation for the in-app preview, reusing PDFBox. Pages are
  * rendered <em>on demand</em> (one at a time) rather than all up front, so a
  * large document does not blow up memory the way the legacy viewer did.
+ *
+ * <p>An instance from {@link #open(File)} keeps the document loaded for the
+ * lifetime of one preview, renders on a background executor and keeps a
+ * bounded LRU cache of rendered pages keyed by page and DPI. PDFBox documents
+ * are not thread-safe, so the pages of one document render one after the
+ * other; visible pages jump the queue ahead of {@link #prefetch prefetched}
+ * neighbours, and prefetches the reader has scrolled away from are dropped.
+ * The static {@link #pageCount(File)} and {@link #renderPage} remain for
+ * one-off use.</p>
  */
-public final class PdfPreviewRenderer {
+public final class PdfPreviewRenderer implements AutoCloseable {
 
-    private PdfPreviewRenderer() {
+    private static final Logger logger = LogManager.getLogger(PdfPreviewRenderer.class);
+
+    /** Default budget of the rendered-page cache, in bytes of pixel data. */
+    static final long DEFAULT_CACHE_BYTES = 96L * 1024 * 1024;
+
+    /** Prefetched pages further than this from the last requested page are skipped. */
+    static final int PREFETCH_RADIUS = 2;
+
+    private record Key(int page, float dpi) {
+    }
+
+    /** A queued render; {@code prefetch} jobs are skipped once they are out of range. */
+    private static final class Job {
+        final Key key;
+        final CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        boolean prefetch;
+
+        Job(Key key, boolean prefetch) {
+            this.key = key;
+            this.prefetch = prefetch;
+        }
+    }
+
+    private final PDDocument document;
+    private final PDFRenderer renderer;
+    private final int pageCount;
+    private final long cacheBudget;
+    private final ExecutorService executor;
+    private final LinkedHashMap<Key, BufferedImage> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<Key, Job> jobs = new HashMap<>();
+    private final ArrayDeque<Job> pending = new ArrayDeque<>();
+    private long cachedBytes;
+    private int focusPage;
+    private boolean closed;
+
+    private PdfPreviewRenderer(PDDocument document, long cacheBudget, String name) {
+        this.document = document;
+        this.renderer = new PDFRenderer(document);
+        this.pageCount = document.getNumberOfPages();
+        this.cacheBudget = cacheBudget;
+        this.executor = ThreadPoolManager.getInstance().newSerialExecutor(
+                "PdfPreview-" + name, ThreadPoolManager.TaskCategory.CPU);
+    }
+
+    /**
+     * Loads {@code pdf} for previewing; {@link #close()} it when the preview goes away.
+     *
+     * @throws IOException if the PDF cannot be read
+     */
+    public static PdfPreviewRenderer open(File pdf) throws IOException {
+        return open(pdf, DEFAULT_CACHE_BYTES);
+    }
+
+    static PdfPreviewRenderer open(File pdf, long cacheBudget) throws IOException {
+        return new PdfPreviewRenderer(Loader.loadPDF(pdf), cacheBudget, pdf.getName());
+    }
+
+    /** @return the number of pages in the document. */
+    public int getPageCount() {
+        return pageCount;
+    }
+
+    /**
+     * Returns a rendered page from the cache.
+     *
+     * @return the page rendered at exactly {@code dpi}, or {@code null} if not cached
+     */
+    public synchronized BufferedImage cached(int pageIndex, float dpi) {
+        return cache.get(new Key(pageIndex, dpi));
+    }
+
+    /**
+     * Returns the highest-resolution cached rendering of a page at any DPI — a
+     * stand-in to scale up while the requested resolution is rendered.
+     *
+     * @return the image, or {@code null} if no rendering of the page is cached
+     */
+    public synchronized BufferedImage bestCached(int pageIndex) {
+        BufferedImage best = null;
+        for (Map.Entry<Key, BufferedImage> entry : cache.entrySet()) {
+            if (entry.getKey().page() == pageIndex
+                    && (best == null || entry.getValue().getWidth() > best.getWidth())) {
+                best = entry.getValue();
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Renders a page for display, ahead of all queued work. The page becomes the
+     * focus for {@link #prefetch}. Cancelling the returned future drops the render
+     * if it has not started.
+     *
+     * @param pageIndex zero-based page index
+     * @return completes with the page, exceptionally with an {@link IndexOutOfBoundsException}
+     *         for an out-of-range page or the rendering error
+     */
+    public CompletableFuture<BufferedImage> render(int pageIndex, float dpi) {
+        return request(pageIndex, dpi, false);
+    }
+
+    /**
+     * Queues a page behind the displayed ones so it is cached before it is shown.
+     * Skipped once the focus has moved more than {@link #PREFETCH_RADIUS} pages
+     * away; no-op for out-of-range pages and pages already cached or queued.
+     */
+    public void prefetch(int pageIndex, float dpi) {
+        if (pageIndex >= 0 && pageIndex < pageCount) {
+            request(pageIndex, dpi, true);
+        }
+    }
+
+    private CompletableFuture<BufferedImage> request(int pageIndex, float dpi, boolean prefetch) {
+        if (pageIndex < 0 || pageIndex >= pageCount) {
+            return CompletableFuture.failedFuture(new IndexOutOfBoundsException(
+                    "page " + pageIndex + " out of range (0.." + (pageCount - 1) + ")"));
+        }
+        Key key = new Key(pageIndex, dpi);
+        synchronized (this) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("preview closed"));
+            }
+            if (!prefetch) {
+                focusPage = pageIndex;
+            }
+            BufferedImage image = cache.get(key);
+            if (image != null) {
+                return CompletableFuture.completedFuture(image);
+            }
+            Job job = jobs.get(key);
+            if (job != null && !job.future.isCancelled()) {
+                if (!prefetch && job.prefetch && pending.remove(job)) {
+                    job.prefetch = false;
+                    pending.addFirst(job);
+                }
+                return job.future;
+            }
+            job = new Job(key, prefetch);
+            jobs.put(key, job);
+            if (prefetch) {
+                pending.addLast(job);
+            } else {
+                pending.addFirst(job);
+            }
+            executor.execute(this::runNext);
+            return job.future;
+        }
+    }
+
+    /** Runs the job at the head of the queue; one call is submitted per queued job. */
+    private void runNext() {
+        Job job;
+        synchronized (this) {
+            job = pending.pollFirst();
+            if (job == null) {
+                return;
+            }
+            if (job.future.isCancelled()
+                    || (job.prefetch && Math.abs(job.key.page() - focusPage) > PREFETCH_RADIUS)) {
+                jobs.remove(job.key, job);
+                job.future.cancel(false);
+                return;
+            }
+        }
+        try {
+            BufferedImage image = renderer.renderImageWithDPI(job.key.page(), job.key.dpi());
+            synchronized (this) {
+                jobs.remove(job.key, job);
+                put(job.key, image);
+            }
+            job.future.complete(image);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                jobs.remove(job.key, job);
+            }
+            logger.debug("Rendering page {} at {} dpi failed: {}", job.key.page(), job.key.dpi(), e.getMessage());
+            job.future.completeExceptionally(e);
+        }
+    }
+
+    private void put(Key key, BufferedImage image) {
+        cachedBytes += bytes(image);
+        BufferedImage replaced = cache.put(key, image);
+        if (replaced != null) {
+            cachedBytes -= bytes(replaced);
+        }
+        Iterator<Map.Entry<Key, BufferedImage>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > cacheBudget && eldest.hasNext()) {
+            Map.Entry<Key, BufferedImage> entry = eldest.next();
+            if (entry.getKey().equals(key)) {
+                continue; // never evict the page just rendered
+            }
+            cachedBytes -= bytes(entry.getValue());
+            eldest.remove();
+        }
+    }
+
+    private static long bytes(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    /** @return the number of cached page renderings (for tests). */
+    synchronized int cachedCount() {
+        return cache.size();
+    }
+
+    /**
+     * Drops queued renders and the cache and closes the document once a render
+     * in progress has finished.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            pending.forEach(job -> job.future.cancel(false));
+            pending.clear();
+            jobs.clear();
+            cache.clear();
+            cachedBytes = 0;
+        }
+        // the executor is serial: this runs after the render in progress, if any
+        executor.execute(() -> {
+            try {
+                document.close();
+            } catch (IOException e) {
+                logger.debug("Closing the previewed PDF failed: {}", e.getMessage());
+            }
+        });
+        executor.shutdown();
     }
 
     /** @return the number of pages in {@code pdf}. */
@@ -26,7 +276,8 @@ public final class PdfPreviewRenderer {
     }
 
     /**
-     * Renders a single page to an image at the given DPI.
+     * Renders a single page to an image at the given DPI, loading the document
+     * just for this page. Previews use an {@link #open(File) open} renderer instead.
      *
      * @param pageIndex zero-based page index
      * @return the rendered page
@@ -310,6 +310,10 @@ public class QueryConsole extends Region {
             setResultsText("No document open.");
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            setResultsText(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String content = editorHost.getActiveText().orElse("");
         String path = xpathField.getText();
         if (path == null || path.isBlank()) {
@@ -347,6 +351,10 @@ public class QueryConsole extends Region {
             setResultsText("No document open.");
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            setResultsText(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String xquery = xqueryArea.getText();
         if (xquery == null || xquery.isBlank()) {
             return;
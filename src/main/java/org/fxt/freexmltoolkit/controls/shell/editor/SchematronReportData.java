@@ -1,8 +1,13 @@
 package org.fxt.freexmltoolkit.controls.shell.editor;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
+import org.apache.logging.log4j.LogManager;
+
 /**
  * Everything the detailed Schematron report needs from one validation run:
  * the validated document's display name, the rules file, the findings (with
@@ -11,10 +16,39 @@ import java.util.List;
  * @param documentName   display name of the validated document, or {@code null}
  * @param schematronFile the Schematron rules file that was applied
  * @param problems       the Schematron findings of the run (possibly empty = all rules passed)
- * @param svrl           the raw SVRL XML, or {@code null} when unavailable
+ * @param svrl           the raw SVRL XML, or {@code null} when unavailable or in {@code svrlFile}
+ * @param svrlFile       temporary file holding an SVRL report too large to keep in memory, or {@code null}
+ * @param totalFindings  the number of findings of the run, including those beyond the kept ones
  */
 public record SchematronReportData(String documentName, File schematronFile,
-                                   List<ValidationProblem> problems, String svrl) {
+                                   List<ValidationProblem> problems, String svrl,
+                                   Path svrlFile, int totalFindings) {
+
+    public SchematronReportData(String documentName, File schematronFile,
+                                List<ValidationProblem> problems, String svrl) {
+        this(documentName, schematronFile, problems, svrl, null, problems.size());
+    }
+
+    /**
+     * Deletes {@link #svrlFile()}, if any. The owner calls this once the report is
+     * superseded and no longer shown; its SVRL cannot be saved afterwards.
+     */
+    public void deleteSvrlFile() {
+        if (svrlFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(svrlFile);
+        } catch (IOException e) {
+            LogManager.getLogger(SchematronReportData.class)
+                    .warn("Could not delete temporary SVRL file {}: {}", svrlFile, e.getMessage());
+        }
+    }
+
+    /** @return the number of findings that were counted but not kept */
+    public int omittedFindings() {
+        return Math.max(0, totalFindings - problems.size());
+    }
 
     /** @return the number of error-severity findings. */
     public long errorCount() {
@@ -53,8 +53,8 @@ public class SchematronReportView extends VBox {
         Button saveHtml = button("Save Report (HTML)", "bi-filetype-html",
                 () -> save("html", "HTML", SchematronReportHtml.build(data)));
         Button saveSvrl = button("Save SVRL (XML)", "bi-filetype-xml",
-                () -> save("xml", "SVRL XML", data.svrl()));
-        saveSvrl.setDisable(data.svrl() == null || data.svrl().isBlank());
+                () -> saveSvrl(data));
+        saveSvrl.setDisable((data.svrl() == null || data.svrl().isBlank()) && data.svrlFile() == null);
         status.getStyleClass().add("fxt-placeholder-text");
         HBox toolbar = new HBox(8, saveHtml, saveSvrl, status);
         toolbar.setSpacing(8);
@@ -81,19 +81,31 @@ public class SchematronReportView extends VBox {
         getChildren().addAll(title, meta, toolbar, table);
     }
 
+    /** Saves the SVRL, copying it from its temporary file when it was too large to keep in memory. */
+    private void saveSvrl(SchematronReportData data) {
+        if (data.svrl() != null || data.svrlFile() == null) {
+            save("xml", "SVRL XML", data.svrl());
+            return;
+        }
+        File file = chooseTarget("xml", "SVRL XML");
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.copy(data.svrlFile(), file.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+            status.setText("Saved " + file.getName());
+        } catch (Exception ex) {
+            status.setText("Save failed: " + ex.getMessage());
+        }
+    }
+
     /** Prompts for a target file and writes {@code content} to it. */
     private void save(String extension, String filterName, String content) {
         if (content == null) {
             status.setText("Nothing to save.");
             return;
         }
-        FileChooser chooser = new FileChooser();
-        chooser.setTitle("Save Schematron report as " + filterName);
-        chooser.setInitialFileName("schematron-report." + extension);
-        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
-                filterName + " File (*." + extension + ")", "*." + extension));
-        File file = org.fxt.freexmltoolkit.util.FileChooserHelper.showSaveDialog(
-                chooser, getScene() != null ? getScene().getWindow() : null);
+        File file = chooseTarget(extension, filterName);
         if (file == null) {
             return;
         }
@@ -105,6 +117,16 @@ public class SchematronReportView extends VBox {
         }
     }
 
+    private File chooseTarget(String extension, String filterName) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Save Schematron report as " + filterName);
+        chooser.setInitialFileName("schematron-report." + extension);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                filterName + " File (*." + extension + ")", "*." + extension));
+        return org.fxt.freexmltoolkit.util.FileChooserHelper.showSaveDialog(
+                chooser, getScene() != null ? getScene().getWindow() : null);
+    }
+
     private Button button(String text, String icon, Runnable action) {
         IconifyIcon graphic = new IconifyIcon(icon);
         graphic.setIconSize(16);
@@ -170,8 +192,11 @@ public class SchematronReportView extends VBox {
         }
         long errors = data.errorCount();
         long warnings = data.warningCount();
-        return errors + " error" + (errors == 1 ? "" : "s")
+        String summary = errors + " error" + (errors == 1 ? "" : "s")
                 + " · " + warnings + " warning" + (warnings == 1 ? "" : "s");
+        return data.omittedFindings() > 0
+                ? summary + " · " + data.omittedFindings() + " more not shown"
+                : summary;
     }
 
     private static String nullSafe(String s) {
@@ -30,6 +30,7 @@ import org.fxt.freexmltoolkit.service.FileAssociationService;
 import org.fxt.freexmltoolkit.service.PropertiesService;
 import org.fxt.freexmltoolkit.service.TemplateFileService;
 import org.fxt.freexmltoolkit.service.TemplateRepository;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 import org.fxt.freexmltoolkit.service.UsageTrackingServiceImpl;
 
 /**
@@ -566,16 +567,15 @@ public class SettingsPanel extends VBox {
         renderingActiveStatus.setText("Active pipeline: " + (active != null ? active : "unknown"));
         renderingGpuStatus.setText("Detected GPU: …");
 
-        Thread t = new Thread(() -> {
+        ThreadPoolManager.getInstance().executeIO("rendering-gpu-detect", () -> {
             java.util.List<String> gpus =
                     org.fxt.freexmltoolkit.util.RenderingPipelineDetector.detectAdapterNames();
             String text = gpus.isEmpty()
                     ? "Detected GPU: unknown"
                     : "Detected GPU: " + String.join(", ", gpus);
             javafx.application.Platform.runLater(() -> renderingGpuStatus.setText(text));
-        }, "rendering-gpu-detect");
-        t.setDaemon(true);
-        t.start();
+            return null;
+        });
     }
 
     /** Persists all settings. */
@@ -5,11 +5,13 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.List;
 
+import javafx.application.Platform;
 import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.geometry.Pos;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
 import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableRow;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.ToggleButton;
@@ -25,6 +27,7 @@ import javafx.stage.FileChooser;
 import org.fxmisc.flowless.VirtualizedScrollPane;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.LineNumberFactory;
+import org.fxt.freexmltoolkit.FxtGui;
 import org.fxt.freexmltoolkit.controls.icons.IconifyIcon;
 import org.fxt.freexmltoolkit.controls.shared.CodeAreaFontZoom;
 import org.fxt.freexmltoolkit.controls.shared.JsonSyntaxHighlighter;
@@ -40,6 +43,9 @@ import org.fxt.freexmltoolkit.service.XsltTransformationEngine.OutputFormat;
  * switched by a Preview/Text/Table segmented toggle. The Text view is a read-only
  * {@link CodeArea} like the main text editor: line numbers, XML/JSON syntax
  * highlighting matching the result format, and Ctrl+wheel / Ctrl+0 font zoom.
+ * The Table view is filled page by page from the lazily evaluated
+ * {@link XQueryTableRunner.XQueryTable} as rows near its end are shown, and can
+ * export the complete result to CSV or Excel in the background.
  * <p>
  * The panel is long-lived and owned by the {@link EditorHost}, so results survive
  * switching activities. It hides itself via the ✕ button and re-appears on the next run.
@@ -67,6 +73,14 @@ public class TransformOutputPanel extends VBox {
     private OutputFormat lastResultFormat = OutputFormat.XML;
     /** The (re-used) editor tab holding the latest opened result, if still open. */
     private OpenDocument resultDocument;
+    /** The XQuery table shown in the Table view, or {@code null}. */
+    private XQueryTableRunner.XQueryTable currentTable;
+    /** {@code true} while a page of {@link #currentTable} is read in the background. */
+    private boolean fetchingRows;
+    private final Button exportTableAction;
+
+    /** Rows from the end of the loaded rows at which the next page is requested. */
+    private static final int FETCH_AHEAD_ROWS = 100;
 
     /** Results above this size are shown without highlighting to keep the FX thread responsive. */
     private static final int HIGHLIGHT_LIMIT_CHARS = 512 * 1024;
@@ -113,11 +127,14 @@ public class TransformOutputPanel extends VBox {
                 "Open in browser", this::openInBrowser);
         Button saveAction = flatAction("transform-output-save", "bi-download",
                 "Save result…", this::saveResult);
+        exportTableAction = flatAction("transform-output-export-table", "bi-file-earmark-spreadsheet",
+                "Export the full table as CSV or Excel…", this::exportTable);
+        setToggleAvailable(exportTableAction, false);
         Button closeAction = flatAction("transform-output-close", "bi-x",
                 "Hide output panel", this::hide);
 
         HBox header = new HBox(10, title, badge, statusIcon, statusLabel, spacer,
-                viewSeg, editorAction, browserAction, saveAction, closeAction);
+                viewSeg, editorAction, browserAction, saveAction, exportTableAction, closeAction);
         header.getStyleClass().add("fxt-output-header");
         header.setAlignment(Pos.CENTER_LEFT);
 
@@ -128,6 +145,17 @@ public class TransformOutputPanel extends VBox {
         output.setParagraphGraphicFactory(LineNumberFactory.get(output));
         CodeAreaFontZoom.install(output);
         resultTable.setPlaceholder(new Label("Run an XQuery returning a sequence to see a table."));
+        // Rows are only laid out while visible, so a row cell showing an index near the
+        // end of the loaded rows is the signal to read the next page of the result.
+        resultTable.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= tv.getItems().size() - FETCH_AHEAD_ROWS) {
+                    fetchMoreRows();
+                }
+            }
+        });
         previewHolder.setVisible(false);
         previewHolder.setManaged(false);
         StackPane content = new StackPane(outputScroll, resultTable, previewHolder);
@@ -191,6 +219,7 @@ public class TransformOutputPanel extends VBox {
         badge.setVisible(false);
         setToggleAvailable(previewToggle, false);
         setToggleAvailable(tableToggle, false);
+        setToggleAvailable(exportTableAction, false);
         textToggle.setSelected(true);
         updateContentView();
         // Last on purpose: observers (tests) wait on the output text, so every other
@@ -201,6 +230,9 @@ public class TransformOutputPanel extends VBox {
     private void showRun(String verb, String text, OutputFormat format, long elapsedMs,
                          XQueryTableRunner.XQueryTable table) {
         if (text != null && text.startsWith("ERROR")) {
+            if (table != null) {
+                table.close();
+            }
             showFailure(text);
             return;
         }
@@ -226,6 +258,7 @@ public class TransformOutputPanel extends VBox {
         }
         boolean tabular = table != null && !table.isError() && !table.isEmpty();
         setToggleAvailable(tableToggle, tabular);
+        setToggleAvailable(exportTableAction, tabular);
         // Auto-select the best view: rendered preview for HTML, the table for a
         // tabular XQuery sequence, plain text otherwise.
         (html ? previewToggle : tabular ? tableToggle : textToggle).setSelected(true);
@@ -399,27 +432,106 @@ public class TransformOutputPanel extends VBox {
         htmlPreviewUpdater.accept(html);
     }
 
-    /** Rebuilds the result table from a tabular XQuery result (columns + string rows). */
+    /**
+     * Rebuilds the result table from a tabular XQuery result (columns + the rows read so far);
+     * further pages follow as the user scrolls. Releases the previously shown result.
+     */
     private void populateResultTable(XQueryTableRunner.XQueryTable table) {
+        if (currentTable != null && currentTable != table) {
+            currentTable.close();
+        }
+        currentTable = table;
+        fetchingRows = false;
         resultTable.getColumns().clear();
         resultTable.getItems().clear();
         if (table == null || table.isError()) {
+            currentTable = null;
             return;
         }
-        List<String> columns = table.columns();
-        for (int i = 0; i < columns.size(); i++) {
+        addNewColumns(table.columns());
+        resultTable.getItems().setAll(table.rows());
+    }
+
+    /** Adds the columns discovered since the table was last extended. */
+    private void addNewColumns(List<String> columns) {
+        for (int i = resultTable.getColumns().size(); i < columns.size(); i++) {
             final int index = i;
             TableColumn<List<String>, String> column = new TableColumn<>(columns.get(i));
             column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(
                     index < cell.getValue().size() ? cell.getValue().get(index) : ""));
             resultTable.getColumns().add(column);
         }
-        resultTable.getItems().setAll(table.rows());
     }
 
-    private void setToggleAvailable(ToggleButton toggle, boolean available) {
-        toggle.setVisible(available);
-        toggle.setManaged(available);
+    /** Reads the next page of the shown XQuery result in the background and appends it. */
+    private void fetchMoreRows() {
+        XQueryTableRunner.XQueryTable table = currentTable;
+        if (table == null || fetchingRows || table.isExhausted()) {
+            return;
+        }
+        fetchingRows = true;
+        FxtGui.executorService.submit(() -> {
+            List<List<String>> page = table.fetchMore(XQueryTableRunner.PAGE_SIZE);
+            List<String> columns = table.columns();
+            String failure = table.failure();
+            Platform.runLater(() -> {
+                if (table != currentTable) {
+                    return;
+                }
+                fetchingRows = false;
+                addNewColumns(columns);
+                resultTable.getItems().addAll(page);
+                if (failure != null) {
+                    statusLabel.setText("XQuery · stopped after " + resultTable.getItems().size()
+                            + " rows: " + failure);
+                }
+            });
+        });
+    }
+
+    /** Exports the complete XQuery result (not only the loaded rows) to a CSV or Excel file. */
+    public void exportTable() {
+        XQueryTableRunner.XQueryTable table = currentTable;
+        if (table == null) {
+            return;
+        }
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export XQuery Table");
+        chooser.setInitialFileName("xquery-result.csv");
+        FileChooser.ExtensionFilter csv = new FileChooser.ExtensionFilter("CSV", "*.csv");
+        FileChooser.ExtensionFilter xlsx = new FileChooser.ExtensionFilter("Excel Workbook", "*.xlsx");
+        chooser.getExtensionFilters().addAll(csv, xlsx);
+        File file = org.fxt.freexmltoolkit.util.FileChooserHelper.showSaveDialog(chooser, getScene() != null ? getScene().getWindow() : null);
+        if (file == null) {
+            return;
+        }
+        boolean excel = file.getName().toLowerCase(java.util.Locale.ROOT).endsWith(".xlsx")
+                || (chooser.getSelectedExtensionFilter() == xlsx && !file.getName().contains("."));
+        File target = excel && !file.getName().toLowerCase(java.util.Locale.ROOT).endsWith(".xlsx")
+                ? new File(file.getParentFile(), file.getName() + ".xlsx") : file;
+        String previousStatus = statusLabel.getText();
+        statusLabel.setText("Exporting table…");
+        FxtGui.executorService.submit(() -> {
+            try {
+                long rows = excel
+                        ? XQueryTableExporter.exportXlsx(table, target.toPath())
+                        : XQueryTableExporter.exportCsv(table, target.toPath());
+                Platform.runLater(() -> statusLabel.setText(previousStatus + " · exported " + rows
+                        + " rows to " + target.getName()));
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    statusLabel.setText(previousStatus);
+                    org.fxt.freexmltoolkit.util.DialogHelper.showActionError("Export failed",
+                            "The table could not be written to " + target.getName() + ".",
+                            org.fxt.freexmltoolkit.util.DialogHelper.Remedies.EXPORT, e);
+                });
+            }
+        });
+    }
+
+    private void setToggleAvailable(javafx.scene.Node control, boolean available) {
+        control.setVisible(available);
+        control.setManaged(available);
     }
 
     // ----- visibility ---------------------------------------------------------
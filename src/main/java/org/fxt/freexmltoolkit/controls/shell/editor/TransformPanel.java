@@ -364,6 +364,10 @@ public class TransformPanel extends VBox {
             out.showError("No document open.");
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String xquery = xqueryArea.getText();
         if (xquery == null || xquery.isBlank()) {
             return;
@@ -376,8 +380,11 @@ public class TransformPanel extends VBox {
         FxtGui.executorService.submit(() -> {
             var probe = org.fxt.freexmltoolkit.service.ExecutionStatsService.getInstance()
                     .begin(org.fxt.freexmltoolkit.service.ExecutionStats.OperationType.XQUERY, "XQuery editor");
-            String result = TransformRunner.runXQuery(xml, xquery, params, format);
-            XQueryTableRunner.XQueryTable table = XQueryTableRunner.run(xml, xquery);
+            // Table first: a tabular result shows the text of its first page instead of
+            // serializing the whole sequence; other results take the full string path.
+            XQueryTableRunner.XQueryTable table = XQueryTableRunner.open(xml, xquery, params, format);
+            String result = table.isTabular() ? table.text()
+                    : TransformRunner.runXQuery(xml, xquery, params, format);
             boolean ok = !result.startsWith("ERROR");
             long elapsedMs = probe.finish(xml.length(), ok ? result.length() : -1, ok,
                     org.fxt.freexmltoolkit.service.ExecutionStats.firstLine(result));
@@ -472,6 +479,10 @@ public class TransformPanel extends VBox {
             out.showError("No document open.");
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String xml = editorHost.getActiveText().orElse("");
         OutputFormat format;
         try {
@@ -854,6 +865,10 @@ public class TransformPanel extends VBox {
                 out.showError("No document open.");
                 return;
             }
+            if (editorHost.isLargeFile(active)) {
+                out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+                return;
+            }
             if (active == out.getResultDocument()) {
                 // Re-run from the result tab: transform the original source again.
                 java.util.Optional<String> sourceText = sourceDocument != null
@@ -964,6 +979,10 @@ public class TransformPanel extends VBox {
             out.showError("No document open.");
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            out.showError(EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String content = editorHost.getActiveText().orElse("");
         String path = xpathField.getText();
         if (path == null || path.isBlank()) {
@@ -221,9 +221,14 @@ public class TypeLibraryPanel extends VBox {
         if (typeName == null || typeName.isBlank() || editorHost.getActiveDocument().isEmpty()) {
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            alert(javafx.scene.control.Alert.AlertType.WARNING, "Find Usages", EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
+        OpenDocument document = editorHost.getActiveDocument().get();
         String xsd = editorHost.getActiveText().orElse("");
         org.fxt.freexmltoolkit.FxtGui.executorService.submit(() -> {
-            java.util.List<String> usages = TypeUsageRunner.findUsages(xsd, typeName);
+            java.util.List<String> usages = TypeUsageRunner.findUsages(document, xsd, typeName);
             StringBuilder report = new StringBuilder("Usages of type '").append(typeName).append("'\n");
             report.append("=".repeat(report.length() - 1)).append('\n');
             if (usages.isEmpty()) {
@@ -435,6 +440,10 @@ public class TypeLibraryPanel extends VBox {
         if (editorHost.getActiveDocument().isEmpty()) {
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            alert(javafx.scene.control.Alert.AlertType.WARNING, "Schema Tool", EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String content = editorHost.getActiveText().orElse("");
         org.fxt.freexmltoolkit.FxtGui.executorService.submit(() -> {
             String result = action.apply(content);
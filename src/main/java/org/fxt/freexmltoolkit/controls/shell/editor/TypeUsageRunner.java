@@ -1,6 +1,9 @@
 package org.fxt.freexmltoolkit.controls.shell.editor;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.fxt.freexmltoolkit.controls.v2.editor.usage.TypeUsageFinder;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdNode;
@@ -10,17 +13,36 @@ import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
 /**
  * UI-free "find type usages" for the shell, reusing {@link TypeUsageFinder}.
  * Parses the XSD text into the model and returns human-readable usage locations.
+ * The parsed model is kept per open document (weakly, so it is released with the document),
+ * and repeated lookups in an unchanged document reuse its schema and type reference index.
  */
 public final class TypeUsageRunner {
 
+    /** The parsed model of a document's text. Must not reference the document itself. */
+    private record ParsedSchema(String xsdText, XsdSchema schema) {
+    }
+
+    private static final Map<Object, ParsedSchema> PARSED = Collections.synchronizedMap(new WeakHashMap<>());
+
     private TypeUsageRunner() {
     }
 
     /** @return usage descriptions ("Node 'x' (kind) — path") for {@code typeName}, or empty. */
     public static List<String> findUsages(String xsdText, String typeName) {
+        return findUsages(null, xsdText, typeName);
+    }
+
+    /**
+     * Like {@link #findUsages(String, String)}, reusing the model parsed for {@code document} while
+     * its text is unchanged. The cache entry is dropped once the document is no longer referenced.
+     *
+     * @param document the open document the text belongs to, or {@code null} to parse without caching
+     * @return usage descriptions ("Node 'x' (kind) — path") for {@code typeName}, or empty
+     */
+    public static List<String> findUsages(Object document, String xsdText, String typeName) {
         try {
-            XsdNode root = new XsdNodeFactory().fromString(xsdText);
-            if (!(root instanceof XsdSchema schema)) {
+            XsdSchema schema = parse(document, xsdText);
+            if (schema == null) {
                 return List.of();
             }
             return new TypeUsageFinder(schema).findUsages(typeName).stream()
@@ -30,4 +52,26 @@ public final class TypeUsageRunner {
             return List.of();
         }
     }
+
+    private static XsdSchema parse(Object document, String xsdText) throws Exception {
+        ParsedSchema parsed = document != null ? PARSED.get(document) : null;
+        if (parsed != null && parsed.xsdText().equals(xsdText)) {
+            return parsed.schema();
+        }
+        XsdNode root = new XsdNodeFactory().fromString(xsdText);
+        if (!(root instanceof XsdSchema schema)) {
+            return null;
+        }
+        if (document != null) {
+            PARSED.put(document, new ParsedSchema(xsdText, schema));
+        }
+        return schema;
+    }
+
+    /** @return the number of documents with a cached model (for tests). */
+    static int cachedDocumentCount() {
+        synchronized (PARSED) {
+            return PARSED.size();
+        }
+    }
 }
@@ -3,6 +3,9 @@ package org.fxt.freexmltoolkit.controls.shell.editor;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
@@ -21,6 +24,7 @@ import javafx.scene.control.Menu;
 import javafx.scene.control.MenuButton;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.SeparatorMenuItem;
+import javafx.scene.control.Tab;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToggleGroup;
 import javafx.scene.layout.HBox;
@@ -50,6 +54,8 @@ public class ValidationPanel extends VBox {
     private final EditorHost editorHost;
     private final ObservableList<ValidationProblem> problems = FXCollections.observableArrayList();
     private final ListView<ValidationProblem> problemsList = new ListView<>(problems);
+    /** Bumped per run and whenever the list is replaced, so a superseded run cannot overwrite it. */
+    private final AtomicLong validationGeneration = new AtomicLong();
     private final ObservableList<ValidationRunner.FileValidationResult> batchResults =
             FXCollections.observableArrayList();
     private final ListView<ValidationRunner.FileValidationResult> batchList = new ListView<>(batchResults);
@@ -69,6 +75,8 @@ public class ValidationPanel extends VBox {
     private final Button exportProblems = new Button();
     private final Button schematronReportButton = new Button();
     private SchematronReportData lastSchematronReport;
+    /** Reports shown in an open report tab; their SVRL files outlive a newer run. */
+    private final List<SchematronReportData> shownReports = new ArrayList<>();
     private final ContextMenu batchSourceMenu = new ContextMenu();
     private final PauseTransition debounce = new PauseTransition(Duration.millis(600));
     private String lastBatchReport;
@@ -342,6 +350,10 @@ public class ValidationPanel extends VBox {
     }
 
     private void validateFundsXml() {
+        if (editorHost.isActiveLargeFile()) {
+            PanelStatus.precondition(status, EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String xml = editorHost.getActiveText().orElse(null);
         PanelStatus.info(status, "Validating against FundsXML…");
         FxtGui.executorService.submit(() -> {
@@ -360,8 +372,21 @@ public class ValidationPanel extends VBox {
                     "No Schematron report yet — bind a Schematron and validate first");
             return;
         }
-        editorHost.openToolTab("Schematron Report", "bi-journal-check",
-                new SchematronReportView(lastSchematronReport, editorHost));
+        SchematronReportData report = lastSchematronReport;
+        shownReports.add(report);
+        Tab tab = editorHost.openToolTab("Schematron Report", "bi-journal-check",
+                new SchematronReportView(report, editorHost));
+        tab.setOnClosed(e -> {
+            shownReports.remove(report);
+            releaseReport(report);
+        });
+    }
+
+    /** Deletes the spilled SVRL of a report that is neither the latest nor shown in a tab. */
+    private void releaseReport(SchematronReportData report) {
+        if (report != null && report != lastSchematronReport && !shownReports.contains(report)) {
+            report.deleteSvrlFile();
+        }
     }
 
     /** Opens the Schematron rule-template library as a tool tab; inserts into the active editor. */
@@ -392,6 +417,10 @@ public class ValidationPanel extends VBox {
      * categorised issues (XML-syntax / structural / XPath / semantic / best-practice) in a tool tab.
      */
     public void openSchematronCheck() {
+        if (editorHost.isActiveLargeFile()) {
+            PanelStatus.precondition(status, EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String text = editorHost.getActiveText().orElse("");
         org.fxt.freexmltoolkit.FxtGui.executorService.submit(() -> {
             var issues = SchematronCheckRunner.check(text);
@@ -461,6 +490,12 @@ public class ValidationPanel extends VBox {
             editorHost.setValidationStatus(EditorHost.ValidationState.NOT_VALIDATED, 0, "Not validated");
             return;
         }
+        if (editorHost.isActiveLargeFile()) {
+            PanelStatus.precondition(status, EditorHost.LARGE_FILE_UNSUPPORTED);
+            setProblems(List.of());
+            editorHost.setValidationStatus(EditorHost.ValidationState.NOT_VALIDATED, 0, "Not validated");
+            return;
+        }
         String content = editorHost.getActiveText().orElse("");
         if (content.isBlank()) {
             // Nothing to validate (e.g. a document still loading) — avoid parsing empty text.
@@ -478,6 +513,8 @@ public class ValidationPanel extends VBox {
         String documentName = editorHost.getActiveDocument()
                 .map(OpenDocument::getDisplayName).orElse(null);
         PanelStatus.info(status, "Validating…");
+        long generation = validationGeneration.incrementAndGet();
+        StreamedProblems streamed = new StreamedProblems(generation);
         FxtGui.executorService.submit(() -> {
             var probe = org.fxt.freexmltoolkit.service.ExecutionStatsService.getInstance().begin(
                     org.fxt.freexmltoolkit.service.ExecutionStats.OperationType.VALIDATION,
@@ -486,16 +523,23 @@ public class ValidationPanel extends VBox {
             ValidationRunner.RunResult runResult = json
                     ? new ValidationRunner.RunResult(
                             ValidationRunner.validateJson(content, schema), null)
-                    : ValidationRunner.runWithReport(content, schema, schematron, documentName);
+                    : ValidationRunner.runWithReport(content, schema, schematron, documentName, streamed::add);
             List<ValidationProblem> result = runResult.problems();
             probe.phase("XSD", runResult.xsdMillis());
             probe.phase("Schematron", runResult.schematronMillis());
+            probe.phase("Parallel saving", runResult.parallelSavingMillis());
             long elapsedMs = probe.finish(content.length(), -1, result.isEmpty(),
                     result.isEmpty() ? "" : result.get(0).message());
             boolean showStats = org.fxt.freexmltoolkit.service.ExecutionStatsService.getInstance().isEnabled();
             Platform.runLater(() -> {
+                if (generation != validationGeneration.get()) {
+                    releaseReport(runResult.schematronReport());
+                    return;
+                }
                 setProblems(result);
+                SchematronReportData previous = lastSchematronReport;
                 lastSchematronReport = runResult.schematronReport();
+                releaseReport(previous);
                 schematronReportButton.setDisable(lastSchematronReport == null);
                 boolean hasSchema = json ? schema != null : (schema != null || schematron != null);
                 String summary = (result.isEmpty()
@@ -514,6 +558,53 @@ public class ValidationPanel extends VBox {
         });
     }
 
+    /**
+     * Forwards Schematron findings of one run to the problems list while the run is
+     * still going. Findings are queued on the validating thread and appended in batches,
+     * with at most one pending FX-thread flush; the run's final result replaces them.
+     */
+    private final class StreamedProblems {
+        private final long generation;
+        private final ConcurrentLinkedQueue<ValidationProblem> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean flushScheduled = new AtomicBoolean();
+        private boolean started;
+
+        StreamedProblems(long generation) {
+            this.generation = generation;
+        }
+
+        void add(ValidationProblem problem) {
+            queue.add(problem);
+            if (flushScheduled.compareAndSet(false, true)) {
+                Platform.runLater(this::flush);
+            }
+        }
+
+        private void flush() {
+            flushScheduled.set(false);
+            if (generation != validationGeneration.get()) {
+                queue.clear();
+                return;
+            }
+            List<ValidationProblem> batch = new ArrayList<>();
+            for (ValidationProblem problem; (problem = queue.poll()) != null; ) {
+                batch.add(problem);
+            }
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (started) {
+                problems.addAll(batch);
+            } else {
+                // the first findings replace the previous run's problems
+                started = true;
+                problemsList.getSelectionModel().clearSelection();
+                problems.setAll(batch);
+            }
+            PanelStatus.info(status, "Validating… " + problems.size() + " problem(s) so far");
+        }
+    }
+
     /**
      * Replaces the problems list, clearing the ListView selection first. This
      * avoids a JavaFX {@code ListViewBehavior} {@code IndexOutOfBoundsException}
@@ -522,6 +613,7 @@ public class ValidationPanel extends VBox {
      * problems to the host so the PROBLEMS panel below the editor mirrors them.
      */
     private void setProblems(List<ValidationProblem> result) {
+        validationGeneration.incrementAndGet();
         problemsList.getSelectionModel().clearSelection();
         problems.setAll(result);
         editorHost.setActiveProblems(result);
@@ -664,8 +756,9 @@ public class ValidationPanel extends VBox {
     }
 
     /**
-     * Recursively collects every {@code *.xml} file under {@code dir} (async) and
-     * validates the result like {@link #runBatch(java.util.List)}.
+     * Recursively collects every {@code *.xml} file under {@code dir} (async, from the
+     * workspace index when {@code dir} lies in the open workspace) and validates the
+     * result like {@link #runBatch(java.util.List)}.
      */
     public void runBatchForDirectory(File dir) {
         if (dir == null || !dir.isDirectory()) {
@@ -674,16 +767,26 @@ public class ValidationPanel extends VBox {
         PanelStatus.info(status, "Scanning " + dir.getName() + "…");
         FxtGui.executorService.submit(() -> {
             List<File> files;
-            try (var paths = java.nio.file.Files.walk(dir.toPath())) {
-                files = paths.filter(java.nio.file.Files::isRegularFile)
+            var index = org.fxt.freexmltoolkit.service.WorkspaceIndex.covering(dir.toPath());
+            if (index.isPresent()) {
+                files = index.get().entriesUnder(dir.toPath()).stream()
+                        .map(org.fxt.freexmltoolkit.service.WorkspaceIndex.Entry::path)
                         .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".xml"))
                         .map(java.nio.file.Path::toFile)
                         .sorted()
                         .toList();
-            } catch (java.io.IOException ex) {
-                Platform.runLater(() -> PanelStatus.failure(status, "Validation failed",
-                        "Could not scan " + dir.getName() + ": " + ex.getMessage()));
-                return;
+            } else {
+                try (var paths = java.nio.file.Files.walk(dir.toPath())) {
+                    files = paths.filter(java.nio.file.Files::isRegularFile)
+                            .filter(p -> p.getFileName().toString().toLowerCase().endsWith(".xml"))
+                            .map(java.nio.file.Path::toFile)
+                            .sorted()
+                            .toList();
+                } catch (java.io.IOException ex) {
+                    Platform.runLater(() -> PanelStatus.failure(status, "Validation failed",
+                            "Could not scan " + dir.getName() + ": " + ex.getMessage()));
+                    return;
+                }
             }
             Platform.runLater(() -> {
                 if (files.isEmpty()) {
@@ -5,15 +5,22 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
 import org.apache.logging.log4j.LogManager;
 import org.fxt.freexmltoolkit.di.ServiceRegistry;
 import org.fxt.freexmltoolkit.service.SchematronService;
 import org.fxt.freexmltoolkit.service.SchematronServiceImpl;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 import org.fxt.freexmltoolkit.service.XmlService;
 import org.fxt.freexmltoolkit.service.sqf.SqfCatalogCache;
 import org.fxt.freexmltoolkit.service.sqf.SqfCorrelator;
@@ -86,36 +93,100 @@ public final class ValidationRunner {
     }
 
     public static List<ValidationProblem> run(String xml, File xsd, File schematron) {
-        return runWithReport(xml, xsd, schematron, null).problems();
+        return problemsOnly(runWithReport(xml, xsd, schematron, null));
+    }
+
+    /** @return the problems of {@code result}, deleting the spilled SVRL of its unused report */
+    private static List<ValidationProblem> problemsOnly(RunResult result) {
+        if (result.schematronReport() != null) {
+            result.schematronReport().deleteSvrlFile();
+        }
+        return result.problems();
     }
 
     /**
      * The outcome of one validation run: the merged problems plus (when a Schematron
      * was involved) the data needed for the detailed Schematron report.
      *
-     * @param problems         merged XSD + Schematron problems
+     * @param problems         merged XSD + Schematron problems, in document order
      * @param schematronReport detailed Schematron run data, or {@code null} when no
      *                         Schematron was bound or its stage failed to run
      * @param xsdMillis        duration of the XSD/well-formedness stage (0 if it didn't run)
      * @param schematronMillis duration of the Schematron stage (0 if it didn't run)
+     * @param wallMillis       wall-clock duration of the whole run; below the sum of the
+     *                         stages when they overlapped
      */
     public record RunResult(List<ValidationProblem> problems, SchematronReportData schematronReport,
-                            long xsdMillis, long schematronMillis) {
+                            long xsdMillis, long schematronMillis, long wallMillis) {
 
         public RunResult(List<ValidationProblem> problems, SchematronReportData schematronReport) {
-            this(problems, schematronReport, 0, 0);
+            this(problems, schematronReport, 0, 0, 0);
+        }
+
+        public RunResult(List<ValidationProblem> problems, SchematronReportData schematronReport,
+                         long xsdMillis, long schematronMillis) {
+            this(problems, schematronReport, xsdMillis, schematronMillis, xsdMillis + schematronMillis);
+        }
+
+        /** @return the wall time saved by running the stages concurrently (0 when they did not overlap) */
+        public long parallelSavingMillis() {
+            return Math.max(0, xsdMillis + schematronMillis - wallMillis);
         }
     }
 
+    /** Problems, report data and duration of the Schematron stage. */
+    private record SchematronStage(List<ValidationProblem> problems, SchematronReportData reportData, long millis) {
+    }
+
     /**
      * Validates like {@link #run(String, File, File)} but also captures the detailed
      * Schematron report data (findings incl. rule/XPath, raw SVRL) for the report view.
      *
+     * <p>When a Schematron is bound, its stage runs on the CPU pool while the XSD stage
+     * runs on the calling thread; both read the same in-memory text. If the pool has not
+     * picked the Schematron stage up by the time the XSD stage is done, the calling thread
+     * runs it itself rather than waiting in the queue. The problems of both stages are
+     * merged by line, findings without a line last.</p>
+     *
      * @param documentName display name of the validated document (for the report header)
      */
     public static RunResult runWithReport(String xml, File xsd, File schematron, String documentName) {
+        return runWithReport(xml, xsd, schematron, documentName, null);
+    }
+
+    /**
+     * Validates like {@link #runWithReport(String, File, File, String)} and hands each
+     * Schematron finding to {@code onSchematronProblem} as soon as the SVRL reports it,
+     * so a panel can list findings while a large document is still being checked. The
+     * streamed problems carry no quick fixes yet; the returned result is authoritative.
+     *
+     * @param onSchematronProblem receives provisional Schematron problems on the validating
+     *                            thread, or {@code null} to only collect the final result
+     */
+    public static RunResult runWithReport(String xml, File xsd, File schematron, String documentName,
+                                          Consumer<ValidationProblem> onSchematronProblem) {
+        long runStart = System.nanoTime();
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture<SchematronStage> concurrent = new CompletableFuture<>();
+        if (schematron != null) {
+            try {
+                ThreadPoolManager.getInstance().executeCPUIntensive("validation-schematron", () -> {
+                    if (claimed.compareAndSet(false, true)) {
+                        try {
+                            concurrent.complete(schematronStage(xml, schematron, documentName,
+                                    onSchematronProblem));
+                        } catch (Throwable t) {
+                            concurrent.completeExceptionally(t); // never leave the join below waiting
+                        }
+                    }
+                    return null;
+                });
+            } catch (RejectedExecutionException e) {
+                // pool shutting down — the stage then runs on this thread below
+            }
+        }
+
         List<ValidationProblem> problems = new ArrayList<>();
-        SchematronReportData reportData = null;
         // Without an XSD this is a well-formedness (structural) check; with one it also
         // validates against the schema. Label problems by their actual source.
         String source = xsd != null ? "XSD" : "Well-formed";
@@ -128,44 +199,100 @@ public final class ValidationRunner {
             // validation unavailable (e.g. no service registry) — skip
         }
         long xsdMillis = (System.nanoTime() - xsdStart) / 1_000_000;
+
+        SchematronReportData reportData = null;
         long schematronMillis = 0;
         if (schematron != null) {
-            long schematronStart = System.nanoTime();
-            try {
-                SchematronService service = new SchematronServiceImpl();
-                SchematronService.SchematronReport report = service.validateXmlWithSvrl(xml, schematron);
-                List<SchematronService.SchematronValidationError> errors = report.errors();
-                // SVRL carries the failing node's XPath (context) but no line number;
-                // resolve it against the document so problems navigate to their line.
-                SvrlNodeLocator resolver = errors.stream().anyMatch(e -> e.lineNumber() <= 0)
-                        ? new SvrlNodeLocator(xml) : null;
-                Map<String, Deque<List<SqfFixSuggestion>>> fixesByFinding =
-                        correlateFixes(report.svrl(), schematron);
-                List<ValidationProblem> schematronProblems = new ArrayList<>();
-                for (SchematronService.SchematronValidationError e : errors) {
-                    int line = e.lineNumber() > 0 ? e.lineNumber()
-                            : (resolver != null ? resolver.lineOf(e.context()) : 0);
-                    List<SqfFixSuggestion> fixes = List.of();
-                    Deque<List<SqfFixSuggestion>> queue =
-                            fixesByFinding.get(findingKey(e.ruleId(), e.context()));
-                    if (queue != null && !queue.isEmpty()) {
-                        fixes = queue.poll();
-                    }
-                    schematronProblems.add(new ValidationProblem("Schematron",
-                            e.severity() != null ? e.severity() : "error", line, e.message(),
-                            e.ruleId(), e.context(), fixes));
+            // not started yet (busy or shut-down pool): run it here instead of waiting
+            SchematronStage stage = claimed.compareAndSet(false, true)
+                    ? schematronStage(xml, schematron, documentName, onSchematronProblem)
+                    : joinStage(concurrent);
+            problems.addAll(stage.problems());
+            reportData = stage.reportData();
+            schematronMillis = stage.millis();
+            // List.sort is stable: same-line problems keep XSD-before-Schematron order
+            problems.sort(Comparator.comparingInt(p -> p.line() > 0 ? p.line() : Integer.MAX_VALUE));
+        }
+        long wallMillis = (System.nanoTime() - runStart) / 1_000_000;
+        return new RunResult(problems, reportData, xsdMillis, schematronMillis, wallMillis);
+    }
+
+    /** Waits for the pooled Schematron stage, rethrowing what it threw as if it had run here. */
+    private static SchematronStage joinStage(CompletableFuture<SchematronStage> stage) {
+        try {
+            return stage.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private static SchematronStage schematronStage(String xml, File schematron, String documentName,
+                                                   Consumer<ValidationProblem> onProblem) {
+        long schematronStart = System.nanoTime();
+        List<ValidationProblem> problems = new ArrayList<>();
+        SchematronReportData reportData = null;
+        SchematronService.SchematronReport report = null;
+        // SVRL carries the failing node's XPath (context) but no line number;
+        // resolve it against the document so problems navigate to their line.
+        // Built on first need and shared by the streamed and the final problems.
+        SvrlNodeLocator[] locator = new SvrlNodeLocator[1];
+        java.util.function.Function<SchematronService.SchematronValidationError, Integer> lineOf = e -> {
+            if (e.lineNumber() > 0) {
+                return e.lineNumber();
+            }
+            if (locator[0] == null) {
+                locator[0] = new SvrlNodeLocator(xml);
+            }
+            return locator[0].lineOf(e.context());
+        };
+        try {
+            SchematronService service = new SchematronServiceImpl();
+            report = onProblem == null
+                    ? service.validateXmlWithSvrl(xml, schematron)
+                    : service.validateXmlWithSvrl(xml, schematron, e -> onProblem.accept(new ValidationProblem(
+                            "Schematron", e.severity() != null ? e.severity() : "error", lineOf.apply(e),
+                            e.message(), e.ruleId(), e.context(), List.of())));
+            List<SchematronService.SchematronValidationError> errors = report.errors();
+            // an SVRL spilled to disk is too large to correlate in memory
+            Map<String, Deque<List<SqfFixSuggestion>>> fixesByFinding = report.svrl() != null
+                    ? correlateFixes(report.svrl(), schematron) : Map.of();
+            List<ValidationProblem> schematronProblems = new ArrayList<>();
+            for (SchematronService.SchematronValidationError e : errors) {
+                int line = lineOf.apply(e);
+                List<SqfFixSuggestion> fixes = List.of();
+                Deque<List<SqfFixSuggestion>> queue =
+                        fixesByFinding.get(findingKey(e.ruleId(), e.context()));
+                if (queue != null && !queue.isEmpty()) {
+                    fixes = queue.poll();
                 }
-                problems.addAll(schematronProblems);
-                reportData = new SchematronReportData(documentName, schematron,
-                        List.copyOf(schematronProblems), report.svrl());
-            } catch (Exception e) {
-                // invalid/unloadable schematron — skip its stage, never hide the XSD stage
-                LogManager.getLogger(ValidationRunner.class)
-                        .debug("Schematron stage skipped: {}", e.getMessage());
+                schematronProblems.add(new ValidationProblem("Schematron",
+                        e.severity() != null ? e.severity() : "error", line, e.message(),
+                        e.ruleId(), e.context(), fixes));
+            }
+            problems.addAll(schematronProblems);
+            if (report.truncated()) {
+                problems.add(new ValidationProblem("Schematron", "warning", 0,
+                        (report.totalFindings() - errors.size())
+                                + " further Schematron findings not shown (see the Schematron report)"));
             }
-            schematronMillis = (System.nanoTime() - schematronStart) / 1_000_000;
+            reportData = new SchematronReportData(documentName, schematron,
+                    List.copyOf(schematronProblems), report.svrl(), report.svrlFile(),
+                    report.totalFindings());
+        } catch (Exception e) {
+            if (report != null && reportData == null) {
+                report.deleteSvrlFile();
+            }
+            // invalid/unloadable schematron — skip its stage, never hide the XSD stage
+            LogManager.getLogger(ValidationRunner.class)
+                    .debug("Schematron stage skipped: {}", e.getMessage());
         }
-        return new RunResult(problems, reportData, xsdMillis, schematronMillis);
+        return new SchematronStage(problems, reportData, (System.nanoTime() - schematronStart) / 1_000_000);
     }
 
     /**
@@ -269,9 +396,10 @@ public final class ValidationRunner {
                 RunResult runResult = runWithReport(content, xsd, schematron, file.getName());
                 probe.phase("XSD", runResult.xsdMillis());
                 probe.phase("Schematron", runResult.schematronMillis());
+                probe.phase("Parallel saving", runResult.parallelSavingMillis());
                 probe.finish(content.length(), -1, runResult.problems().isEmpty(),
                         runResult.problems().isEmpty() ? "" : runResult.problems().get(0).message());
-                results.add(new FileValidationResult(file, runResult.problems(), null));
+                results.add(new FileValidationResult(file, problemsOnly(runResult), null));
             } catch (Exception e) {
                 results.add(new FileValidationResult(file, List.of(), String.valueOf(e.getMessage())));
             }
@@ -1,10 +1,13 @@
 package org.fxt.freexmltoolkit.controls.shell.editor;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 
+import javafx.application.Platform;
 import javafx.scene.control.TreeCell;
 import javafx.scene.control.TreeItem;
 import javafx.scene.control.TreeView;
@@ -13,12 +16,17 @@ import javafx.scene.layout.VBox;
 
 import org.fxt.freexmltoolkit.controls.FileExplorerTreeItem;
 import org.fxt.freexmltoolkit.controls.icons.IconifyIcon;
+import org.fxt.freexmltoolkit.service.WorkspaceIndex;
 
 /**
  * Slim workspace file tree for the Explorer activity.
  * Reuses the existing lazy-loading {@link FileExplorerTreeItem}
  * (with extension filtering) and opens a file via the supplied consumer on
  * double-click / Enter.
+ *
+ * <p>The root folder is catalogued by a {@link WorkspaceIndex}: once it is
+ * ready, folders are listed from memory and the expanded parts of the tree
+ * follow changes on disk without a manual refresh.</p>
  */
 public class WorkspaceTree extends VBox {
 
@@ -28,6 +36,8 @@ public class WorkspaceTree extends VBox {
 
     private final TreeView<Path> tree = new TreeView<>();
     private final Consumer<Path> fileOpener;
+    private WorkspaceIndex index;
+    private final Consumer<Set<Path>> indexListener = changed -> Platform.runLater(this::refreshFromIndex);
 
     public WorkspaceTree(Consumer<Path> fileOpener) {
         this.fileOpener = fileOpener;
@@ -60,7 +70,18 @@ public class WorkspaceTree extends VBox {
         if (folder == null || !Files.isDirectory(folder)) {
             return;
         }
-        FileExplorerTreeItem root = new FileExplorerTreeItem(folder, ALLOWED);
+        WorkspaceIndex next = WorkspaceIndex.open(folder);
+        if (next != index) {
+            if (index != null) {
+                index.removeListener(indexListener);
+                index.close();
+            }
+            index = next;
+            index.addListener(indexListener);
+            // the first listing came from disk; switch the expanded folders over once the index is ready
+            index.whenReady().thenRun(() -> Platform.runLater(this::refreshFromIndex));
+        }
+        FileExplorerTreeItem root = new FileExplorerTreeItem(folder, ALLOWED, new IndexLister(index));
         root.setExpanded(true);
         tree.setRoot(root);
     }
@@ -68,11 +89,23 @@ public class WorkspaceTree extends VBox {
     /** Re-reads the current root folder from disk (no-op without a root). */
     public void refresh() {
         TreeItem<Path> root = tree.getRoot();
-        if (root != null) {
+        if (root == null) {
+            return;
+        }
+        if (index != null && index.isReady()) {
+            index.rescan().thenRun(() -> Platform.runLater(this::refreshFromIndex));
+        } else {
             setRootFolder(root.getValue());
         }
     }
 
+    /** Re-lists the expanded folders after the index reported changes. */
+    private void refreshFromIndex() {
+        if (tree.getRoot() instanceof FileExplorerTreeItem root) {
+            root.refresh();
+        }
+    }
+
     /** @return the current workspace root, or {@code null}. */
     public Path getRootFolder() {
         TreeItem<Path> root = tree.getRoot();
@@ -121,6 +154,23 @@ public class WorkspaceTree extends VBox {
         }
     }
 
+    /**
+     * Lists folders from the workspace index once it is ready, and from disk
+     * before that or for anything the index does not know.
+     */
+    private record IndexLister(WorkspaceIndex index) implements FileExplorerTreeItem.DirectoryLister {
+        @Override
+        public List<Path> list(Path dir) throws IOException {
+            List<Path> children = index.listChildren(dir);
+            return children != null ? children : FILE_SYSTEM.list(dir);
+        }
+
+        @Override
+        public boolean isDirectory(Path path) {
+            return index.isReady() ? index.isDirectory(path) : FILE_SYSTEM.isDirectory(path);
+        }
+    }
+
     /**
      * Renders a path: folders show just their name next to the disclosure chevron
      * (no folder icon, per the mockup), files show their file-type icon.
@@ -141,7 +191,9 @@ public class WorkspaceTree extends VBox {
             }
             Path name = item.getFileName();
             setText(name != null ? name.toString() : item.toString());
-            if (Files.isDirectory(item)) {
+            boolean directory = getTreeItem() instanceof FileExplorerTreeItem treeItem
+                    ? treeItem.isDirectory() : Files.isDirectory(item);
+            if (directory) {
                 setGraphic(null);
                 if (!getStyleClass().contains("fxt-tree-folder")) {
                     getStyleClass().add("fxt-tree-folder");
@@ -0,0 +1,184 @@
+package org.fxt.freexmltoolkit.controls.shell.editor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.fxt.freexmltoolkit.controls.shell.editor.XQueryTableRunner.XQueryTable;
+
+import net.sf.saxon.s9api.SaxonApiException;
+
+/**
+ * Exports the complete result of an {@link XQueryTable} — not just the rows read for display — to
+ * CSV or an Excel (.xlsx) workbook. The query is evaluated again and rows are written as they are
+ * produced, so memory stays constant however long the result is; XLSX output uses the streaming
+ * SXSSF workbook and continues on a new sheet when a sheet is full.
+ */
+public final class XQueryTableExporter {
+
+    private static final Logger logger = LogManager.getLogger(XQueryTableExporter.class);
+    private static final int SXSSF_ROW_WINDOW = 200;
+    private static final int MAX_SHEET_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    private XQueryTableExporter() {
+    }
+
+    /**
+     * Writes the full result as CSV (RFC-4180-style quoting, header row included).
+     *
+     * @return the number of data rows written
+     * @throws IOException if writing or evaluating the query fails
+     */
+    public static long exportCsv(XQueryTable table, Path outputPath) throws IOException {
+        logger.info("Exporting XQuery result to CSV: {}", outputPath);
+        long[] count = {0};
+        try (Writer writer = Files.newBufferedWriter(outputPath, StandardCharsets.UTF_8)) {
+            table.forEachRow(
+                    header -> writeCsvLine(writer, header),
+                    row -> {
+                        writeCsvLine(writer, row);
+                        count[0]++;
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (SaxonApiException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        logger.info("CSV export completed: {} rows", count[0]);
+        return count[0];
+    }
+
+    /**
+     * Writes the full result to an .xlsx workbook with a bold, frozen header row per sheet.
+     *
+     * @return the number of data rows written
+     * @throws IOException if writing or evaluating the query fails
+     */
+    public static long exportXlsx(XQueryTable table, Path outputPath) throws IOException {
+        logger.info("Exporting XQuery result to Excel: {}", outputPath);
+        long count;
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(SXSSF_ROW_WINDOW)) {
+            workbook.setCompressTempFiles(true);
+            CellStyle headerStyle = headerStyle(workbook);
+            SheetWriter writer = new SheetWriter(workbook, headerStyle);
+            table.forEachRow(writer::start, writer::append);
+            try (OutputStream out = Files.newOutputStream(outputPath)) {
+                workbook.write(out);
+            }
+            count = writer.count;
+        } catch (SaxonApiException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        logger.info("Excel export completed: {} rows", count);
+        return count;
+    }
+
+    /** Appends rows to the current sheet, starting a new one (with the header repeated) when it is full. */
+    private static final class SheetWriter {
+
+        private final SXSSFWorkbook workbook;
+        private final CellStyle headerStyle;
+        private List<String> header = List.of();
+        private Sheet sheet;
+        private int rowIndex;
+        private long count;
+
+        SheetWriter(SXSSFWorkbook workbook, CellStyle headerStyle) {
+            this.workbook = workbook;
+            this.headerStyle = headerStyle;
+        }
+
+        void start(List<String> columns) {
+            header = List.copyOf(columns);
+            newSheet();
+        }
+
+        void append(List<String> values) {
+            if (rowIndex == MAX_SHEET_ROWS) {
+                newSheet();
+            }
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < values.size(); i++) {
+                row.createCell(i).setCellValue(safe(values.get(i)));
+            }
+            count++;
+        }
+
+        private void newSheet() {
+            int number = workbook.getNumberOfSheets() + 1;
+            sheet = workbook.createSheet(number == 1 ? "Result" : "Result " + number);
+            Row row = sheet.createRow(0);
+            for (int i = 0; i < header.size(); i++) {
+                Cell cell = row.createCell(i);
+                cell.setCellValue(header.get(i));
+                cell.setCellStyle(headerStyle);
+            }
+            sheet.createFreezePane(0, 1);
+            rowIndex = 1;
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> values) {
+        try {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csvField(values.get(i)));
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static String csvField(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    /**
+     * Guards against spreadsheet formula injection (CWE-1236), as in {@link ValidationExcelExporter}:
+     * values starting with a formula trigger are prefixed with an apostrophe.
+     */
+    private static String safe(String value) {
+        if (value == null || value.isEmpty()) {
+            return value == null ? "" : value;
+        }
+        char first = value.charAt(0);
+        return (first == '=' || first == '+' || first == '-' || first == '@'
+                || first == '\t' || first == '\r') ? "'" + value : value;
+    }
+
+    private static CellStyle headerStyle(SXSSFWorkbook workbook) {
+        CellStyle style = workbook.createCellStyle();
+        Font font = workbook.createFont();
+        font.setBold(true);
+        font.setColor(IndexedColors.WHITE.getIndex());
+        style.setFont(font);
+        style.setFillForegroundColor(IndexedColors.DARK_BLUE.getIndex());
+        style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+        return style;
+    }
+}
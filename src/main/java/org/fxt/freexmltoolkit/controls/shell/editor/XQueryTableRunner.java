@@ -1,18 +1,26 @@
 package org.fxt.freexmltoolkit.controls.shell.editor;
 
 import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import javax.xml.transform.stream.StreamSource;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.fxt.freexmltoolkit.service.XsltTransformationEngine;
 
 import net.sf.saxon.s9api.Axis;
 import net.sf.saxon.s9api.Processor;
+import net.sf.saxon.s9api.SaxonApiException;
 import net.sf.saxon.s9api.XQueryEvaluator;
+import net.sf.saxon.s9api.XQueryExecutable;
 import net.sf.saxon.s9api.XdmItem;
 import net.sf.saxon.s9api.XdmNode;
 import net.sf.saxon.s9api.XdmNodeKind;
@@ -22,39 +30,230 @@ import net.sf.saxon.s9api.XdmValue;
 /**
  * UI-free execution of an XQuery into a tabular model for the shell's XQuery console. A sequence of
  * element items becomes rows with columns taken from their child elements (or, if there are none,
- * their attributes); a sequence of atomic values becomes a single {@code "value"} column. The column
- * shape is decided from the first item. Reuses the shared Saxon {@link Processor}.
+ * their attributes); a sequence of atomic values becomes a single {@code "value"} column. The shape
+ * (child elements, attributes or values) is decided from the first item; further columns are
+ * discovered as later items are read.
+ *
+ * <p>The query comes from the engine's compiled-query cache and is evaluated lazily: {@link #open}
+ * reads only the first page of the result sequence, and {@link XQueryTable#fetchMore} pulls further
+ * pages as the table scrolls, so a query returning millions of items shows its first rows at once and
+ * holds only the rows actually looked at. Reuses the shared Saxon {@link Processor}.</p>
+ *
+ * <p>The text view of a tabular result is serialized from the items of that first page only
+ * ({@link XQueryTable#text()}), so showing a huge result never serializes it as a whole and the
+ * query is evaluated once for display.</p>
  */
 public final class XQueryTableRunner {
 
+    private static final Logger logger = LogManager.getLogger(XQueryTableRunner.class);
+
+    /** Rows read by {@link #open} and by each {@link XQueryTable#fetchMore} of the output panel. */
+    public static final int PAGE_SIZE = 1000;
+
+    /** Upper bound of {@link XQueryTable#text()}; longer first pages are cut. */
+    static final int TEXT_LIMIT_CHARS = 2_000_000;
+
     private XQueryTableRunner() {
     }
 
-    /** A tabular XQuery result: column headers + string rows, or an {@code error}. */
-    public record XQueryTable(List<String> columns, List<List<String>> rows, String error) {
+    private enum Mode {
+        CHILD, ATTR, VALUE
+    }
+
+    /**
+     * A tabular XQuery result: column headers and string rows read so far from the lazily evaluated
+     * result sequence, or an {@code error}. Thread-safe; pages are meant to be fetched off the FX
+     * thread. {@link #close()} releases the result iterator once the table is no longer shown.
+     */
+    public static final class XQueryTable implements AutoCloseable {
+
+        private final XQueryExecutable executable;
+        private final XdmNode context;
+        private final Map<String, Object> variables;
+        private final String error;
+        private final List<String> columns = new ArrayList<>();
+        private final List<List<String>> rows = new ArrayList<>();
+        private Iterator<XdmItem> iterator;
+        private Mode mode;
+        private String failure;
+        private List<XdmItem> firstPage;
+        private String text = "";
+
+        private XQueryTable(XQueryExecutable executable, XdmNode context, Map<String, Object> variables,
+                            String error) {
+            this.executable = executable;
+            this.context = context;
+            this.variables = variables;
+            this.error = error;
+        }
+
+        static XQueryTable error(String message) {
+            return new XQueryTable(null, null, null, message == null ? "error" : message);
+        }
+
         public boolean isError() {
             return error != null;
         }
 
-        public boolean isEmpty() {
-            return rows == null || rows.isEmpty();
+        /** @return {@code true} if the result can be shown as a table: no error and at least one row. */
+        public boolean isTabular() {
+            return !isError() && !isEmpty();
         }
 
-        static XQueryTable error(String message) {
-            return new XQueryTable(List.of(), List.of(), message == null ? "error" : message);
+        /**
+         * @return the serialized items of the first page; when more items follow (or the page was cut
+         *         at {@link #TEXT_LIMIT_CHARS}) a closing comment says so
+         */
+        public synchronized String text() {
+            return text;
+        }
+
+        public String error() {
+            return error;
+        }
+
+        /** @return {@code true} if the result sequence is empty (or the query failed). */
+        public synchronized boolean isEmpty() {
+            return rows.isEmpty() && isExhausted();
+        }
+
+        /** @return {@code true} once every item of the result sequence has been read. */
+        public synchronized boolean isExhausted() {
+            return iterator == null;
+        }
+
+        /** @return the columns discovered so far; grows while further pages are fetched. */
+        public synchronized List<String> columns() {
+            return List.copyOf(columns);
+        }
+
+        /**
+         * @return the rows read so far. A row may be shorter than {@link #columns()} when its
+         *         columns were only discovered after it had been read; the missing cells are empty.
+         */
+        public synchronized List<List<String>> rows() {
+            return List.copyOf(rows);
+        }
+
+        /** @return the dynamic error that ended reading the sequence early, or {@code null}. */
+        public synchronized String failure() {
+            return failure;
+        }
+
+        /**
+         * Reads up to {@code max} further items of the result sequence and projects them into rows.
+         *
+         * @param max the maximum number of rows to read
+         * @return the newly read rows, empty once the sequence is exhausted
+         */
+        public synchronized List<List<String>> fetchMore(int max) {
+            if (iterator == null) {
+                return List.of();
+            }
+            List<List<String>> page = new ArrayList<>(Math.min(max, PAGE_SIZE));
+            try {
+                while (page.size() < max && iterator.hasNext()) {
+                    XdmItem item = iterator.next();
+                    if (mode == null) {
+                        mode = modeOf(item);
+                        if (mode == Mode.VALUE) {
+                            columns.add("value");
+                        }
+                    }
+                    discoverColumns(item, mode, columns);
+                    page.add(rowFor(item, mode, columns));
+                    if (firstPage != null) {
+                        firstPage.add(item);
+                    }
+                }
+                if (!iterator.hasNext()) {
+                    close();
+                }
+            } catch (RuntimeException e) {
+                // a dynamic error part-way through the sequence: keep the rows read so far
+                failure = e.getMessage() == null ? e.toString() : e.getMessage();
+                logger.debug("XQuery result ended with an error after {} rows: {}", rows.size() + page.size(), failure);
+                close();
+            }
+            rows.addAll(page);
+            return page;
+        }
+
+        /**
+         * Evaluates the query again and hands every item, projected onto the complete column list, to
+         * {@code sink} — for exporting the full result without holding it in memory. Makes two passes
+         * over a fresh evaluation: the first discovers all columns, the second projects the rows.
+         * Independent of the rows read for display.
+         *
+         * @param header receives the complete column list before the first row
+         * @param sink   receives each row
+         * @throws SaxonApiException if the query fails
+         */
+        public void forEachRow(Consumer<List<String>> header, Consumer<List<String>> sink) throws SaxonApiException {
+            if (isError()) {
+                throw new IllegalStateException(error);
+            }
+            List<String> allColumns = new ArrayList<>();
+            Mode exportMode = null;
+            Iterator<XdmItem> pass = evaluate(executable, context, variables);
+            try {
+                while (pass.hasNext()) {
+                    XdmItem item = pass.next();
+                    if (exportMode == null) {
+                        exportMode = modeOf(item);
+                        if (exportMode == Mode.VALUE) {
+                            allColumns.add("value");
+                        }
+                    }
+                    discoverColumns(item, exportMode, allColumns);
+                }
+            } finally {
+                closeIterator(pass);
+            }
+            header.accept(Collections.unmodifiableList(allColumns));
+            if (exportMode == null) {
+                return;
+            }
+            pass = evaluate(executable, context, variables);
+            try {
+                while (pass.hasNext()) {
+                    sink.accept(rowFor(pass.next(), exportMode, allColumns));
+                }
+            } finally {
+                closeIterator(pass);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (iterator != null) {
+                closeIterator(iterator);
+                iterator = null;
+            }
         }
     }
 
-    private enum Mode {
-        CHILD, ATTR, VALUE
+    /**
+     * Executes {@code xquery} against {@code xml} and reads the first {@link #PAGE_SIZE} rows of the
+     * result; further rows are read with {@link XQueryTable#fetchMore}.
+     *
+     * @return the tabular result, or a table carrying an {@code error}
+     */
+    public static XQueryTable open(String xml, String xquery) {
+        return open(xml, xquery, Map.of(), XsltTransformationEngine.OutputFormat.XML);
     }
 
     /**
-     * Executes {@code xquery} against {@code xml} and projects the result sequence into a table.
+     * Executes {@code xquery} against {@code xml} with external variables, reads the first
+     * {@link #PAGE_SIZE} rows and serializes those items as the table's {@link XQueryTable#text()}
+     * in {@code format} (or the script's own output declaration).
      *
+     * @param variables external variables, may be empty
+     * @param format    the requested output format of the text view
      * @return the tabular result, or a table carrying an {@code error}
      */
-    public static XQueryTable run(String xml, String xquery) {
+    public static XQueryTable open(String xml, String xquery, Map<String, Object> variables,
+                                   XsltTransformationEngine.OutputFormat format) {
         if (xml == null || xml.isBlank()) {
             return XQueryTable.error("No XML to query.");
         }
@@ -62,72 +261,104 @@ public final class XQueryTableRunner {
             return XQueryTable.error("No XQuery expression.");
         }
         try {
-            Processor processor = XsltTransformationEngine.getInstance().getSaxonProcessor();
-            XdmNode context = processor.newDocumentBuilder().build(new StreamSource(new StringReader(xml)));
-            XQueryEvaluator evaluator = processor.newXQueryCompiler().compile(xquery).load();
-            evaluator.setContextItem(context);
-            XdmValue result = evaluator.evaluate();
-            return toTable(result);
+            XsltTransformationEngine engine = XsltTransformationEngine.getInstance();
+            XQueryExecutable executable = engine.compileXQuery(xquery);
+            XdmNode context = engine.getSaxonProcessor().newDocumentBuilder()
+                    .build(new StreamSource(new StringReader(xml)));
+            Map<String, Object> bound = variables == null ? Map.of()
+                    : Collections.unmodifiableMap(new LinkedHashMap<>(variables));
+            XQueryTable table = new XQueryTable(executable, context, bound, null);
+            table.iterator = evaluate(executable, context, bound);
+            synchronized (table) {
+                table.firstPage = new ArrayList<>();
+                table.fetchMore(PAGE_SIZE);
+                if (table.failure != null && table.rows.isEmpty()) {
+                    return XQueryTable.error(table.failure);
+                }
+                table.text = serialize(table.firstPage, xquery, format, !table.isExhausted());
+                table.firstPage = null;
+            }
+            return table;
         } catch (Exception e) {
             return XQueryTable.error(e.getMessage() == null ? e.toString() : e.getMessage());
         }
     }
 
-    private static XQueryTable toTable(XdmValue result) {
-        List<XdmItem> items = new ArrayList<>();
-        for (XdmItem item : result) {
-            items.add(item);
-        }
+    private static Iterator<XdmItem> evaluate(XQueryExecutable executable, XdmNode context,
+                                              Map<String, Object> variables) throws SaxonApiException {
+        XQueryEvaluator evaluator = executable.load();
+        XsltTransformationEngine.getInstance().bindXQueryVariables(evaluator, variables);
+        evaluator.setContextItem(context);
+        return evaluator.iterator();
+    }
+
+    private static String serialize(List<XdmItem> items, String xquery, XsltTransformationEngine.OutputFormat format,
+                                    boolean more) throws SaxonApiException {
         if (items.isEmpty()) {
-            return new XQueryTable(List.of("value"), List.of(), null);
-        }
-
-        Mode mode;
-        List<String> columns;
-        if (items.get(0) instanceof XdmNode node && node.getNodeKind() == XdmNodeKind.ELEMENT) {
-            List<String> childCols = childElementNames(node);
-            if (!childCols.isEmpty()) {
-                mode = Mode.CHILD;
-                columns = childCols;
-            } else {
-                List<String> attrCols = attributeNames(node);
-                if (!attrCols.isEmpty()) {
-                    mode = Mode.ATTR;
-                    columns = attrCols;
-                } else {
-                    mode = Mode.VALUE;
-                    columns = List.of("value");
-                }
-            }
-        } else {
-            mode = Mode.VALUE;
-            columns = List.of("value");
+            return "";
         }
+        StringWriter out = new StringWriter();
+        XsltTransformationEngine.getInstance().newXQuerySerializer(out, xquery, format)
+                .serializeXdmValue(new XdmValue(items));
+        String text = out.toString();
+        boolean cut = text.length() > TEXT_LIMIT_CHARS;
+        if (cut) {
+            text = text.substring(0, TEXT_LIMIT_CHARS);
+        }
+        if (cut || more) {
+            text += "\n<!-- first " + items.size() + " items" + (cut ? ", cut at " + TEXT_LIMIT_CHARS + " characters" : "")
+                    + "; the table reads further rows and Export writes the full result -->\n";
+        }
+        return text;
+    }
+
+    private static void closeIterator(Iterator<XdmItem> iterator) {
+        if (iterator instanceof XdmSequenceIterator<?> sequence) {
+            sequence.close();
+        }
+    }
 
-        List<List<String>> rows = new ArrayList<>();
-        for (XdmItem item : items) {
-            rows.add(rowFor(item, mode, columns));
+    private static Mode modeOf(XdmItem first) {
+        if (first instanceof XdmNode node && node.getNodeKind() == XdmNodeKind.ELEMENT) {
+            if (hasChildElement(node)) {
+                return Mode.CHILD;
+            }
+            if (node.axisIterator(Axis.ATTRIBUTE).hasNext()) {
+                return Mode.ATTR;
+            }
         }
-        return new XQueryTable(columns, rows, null);
+        return Mode.VALUE;
     }
 
-    private static List<String> childElementNames(XdmNode element) {
-        List<String> names = new ArrayList<>();
+    private static boolean hasChildElement(XdmNode element) {
         for (XdmNode child : element.children()) {
-            if (child.getNodeKind() == XdmNodeKind.ELEMENT && !names.contains(child.getNodeName().getLocalName())) {
-                names.add(child.getNodeName().getLocalName());
+            if (child.getNodeKind() == XdmNodeKind.ELEMENT) {
+                return true;
             }
         }
-        return names;
+        return false;
     }
 
-    private static List<String> attributeNames(XdmNode element) {
-        List<String> names = new ArrayList<>();
-        XdmSequenceIterator<XdmNode> attrs = element.axisIterator(Axis.ATTRIBUTE);
-        while (attrs.hasNext()) {
-            names.add(attrs.next().getNodeName().getLocalName());
+    /** Appends the child-element or attribute names of {@code item} that {@code columns} does not contain yet. */
+    private static void discoverColumns(XdmItem item, Mode mode, List<String> columns) {
+        if (mode == Mode.VALUE || !(item instanceof XdmNode node) || node.getNodeKind() != XdmNodeKind.ELEMENT) {
+            return;
+        }
+        if (mode == Mode.CHILD) {
+            for (XdmNode child : node.children()) {
+                if (child.getNodeKind() == XdmNodeKind.ELEMENT && !columns.contains(child.getNodeName().getLocalName())) {
+                    columns.add(child.getNodeName().getLocalName());
+                }
+            }
+        } else {
+            XdmSequenceIterator<XdmNode> attrs = node.axisIterator(Axis.ATTRIBUTE);
+            while (attrs.hasNext()) {
+                String name = attrs.next().getNodeName().getLocalName();
+                if (!columns.contains(name)) {
+                    columns.add(name);
+                }
+            }
         }
-        return names;
     }
 
     private static List<String> rowFor(XdmItem item, Mode mode, List<String> columns) {
@@ -148,7 +379,7 @@ public final class XQueryTableRunner {
                 values.put(attr.getNodeName().getLocalName(), attr.getStringValue());
             }
         }
-        List<String> row = new ArrayList<>();
+        List<String> row = new ArrayList<>(columns.size());
         for (String column : columns) {
             row.add(values.getOrDefault(column, ""));
         }
@@ -0,0 +1,689 @@
+package org.fxt.freexmltoolkit.controls.shell.editor.largefile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.shell.editor.largefile.PieceTable.Piece;
+import org.fxt.freexmltoolkit.controls.shell.editor.search.EncodingSniffer;
+import org.fxt.freexmltoolkit.controls.v2.common.utilities.AtomicFileWriter;
+import org.fxt.freexmltoolkit.util.SecureXmlFactory;
+
+/**
+ * A multi-gigabyte text document: a {@link MappedFile}, its {@link LineIndex} and a
+ * {@link PieceTable} of the edits made so far.
+ *
+ * <p>Nothing here reads the whole document into memory. Line lookups combine the
+ * index of the original file with a scan of the inserted pieces; search, XPath
+ * location and saving stream through the piece table. Offsets are byte offsets.</p>
+ *
+ * <p>The charset is sniffed from a BOM or the XML declaration when the file is
+ * mapped. Line lookups scan for line-feed bytes, so only UTF-8 and single-byte
+ * ASCII-compatible charsets can be edited ({@link #isEditable()}); other files are
+ * shown read-only.</p>
+ *
+ * <p>A document is edited on one thread. Long-running reads should go through a
+ * {@link #snapshot()}, which can be used from any thread while editing goes on.</p>
+ */
+public final class LargeDocument implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(LargeDocument.class);
+
+    private static final int SEARCH_CHUNK = 1 << 20;
+    private static final int SCAN_CHUNK = 64 * 1024;
+    private static final int SNIFF_BYTES = 1024;
+
+    private final MappedFile file;
+    private final LineIndex index;
+    private final PieceTable table;
+    private final Charset charset;
+    private final boolean utf8;
+    private final boolean editable;
+
+    private LargeDocument(MappedFile file, LineIndex index, PieceTable table, Charset charset) {
+        this.file = file;
+        this.index = index;
+        this.table = table;
+        this.charset = charset;
+        this.utf8 = StandardCharsets.UTF_8.equals(charset);
+        this.editable = utf8 || asciiCompatibleSingleByte(charset);
+    }
+
+    /**
+     * Maps a file. The line index is empty until {@link #buildIndex()} has run.
+     *
+     * @param path the file
+     * @return the document
+     * @throws IOException if the file cannot be mapped
+     */
+    public static LargeDocument open(Path path) throws IOException {
+        MappedFile file = MappedFile.open(path);
+        PieceTable table = new PieceTable(file);
+        byte[] head = new byte[(int) Math.min(SNIFF_BYTES, table.length())];
+        table.read(0, head, 0, head.length);
+        return new LargeDocument(file, new LineIndex(file), table, EncodingSniffer.sniff(head).charset());
+    }
+
+    /**
+     * Returns a read-only copy of the current state for use on another thread.
+     * It shares the mapping and the index with this document.
+     *
+     * @return the snapshot
+     */
+    public LargeDocument snapshot() {
+        return new LargeDocument(file, index, table.snapshot(), charset);
+    }
+
+    /** @return the charset the file was sniffed as. */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /**
+     * Checks whether edits can be written back: the byte-level line and character
+     * scans hold for UTF-8 and for single-byte charsets that encode ASCII as itself.
+     *
+     * @return {@code true} if the document may be edited
+     */
+    public boolean isEditable() {
+        return editable;
+    }
+
+    /** @return the file the document was mapped from. */
+    public Path getPath() {
+        return file.getPath();
+    }
+
+    /** @return the line index of the original file. */
+    public LineIndex getLineIndex() {
+        return index;
+    }
+
+    /** Builds the line index; runs until the whole file is indexed or the document is closed. */
+    public void buildIndex() {
+        long start = System.nanoTime();
+        index.build();
+        if (index.isComplete()) {
+            logger.debug("Indexed {} lines of {} in {} ms", index.getLineCount(), file.getPath(),
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    /** @return the document length in bytes. */
+    public long length() {
+        return table.length();
+    }
+
+    /** @return {@code true} once the document has been edited. */
+    public boolean isModified() {
+        return table.isModified();
+    }
+
+    /**
+     * Decodes a range of the document, replacing malformed bytes.
+     *
+     * @param start first byte
+     * @param end   end of the range (exclusive); at most 2 GB after {@code start}
+     * @return the text
+     */
+    public String text(long start, long end) {
+        byte[] bytes = new byte[Math.toIntExact(end - start)];
+        int n = table.read(start, bytes, 0, bytes.length);
+        return new String(bytes, 0, n, charset);
+    }
+
+    /**
+     * Decodes a range of the document, failing on bytes that are not valid in the
+     * document's charset, so the text encodes back to exactly the same bytes.
+     *
+     * @param start first byte
+     * @param end   end of the range (exclusive); at most 2 GB after {@code start}
+     * @return the text
+     * @throws CharacterCodingException if the range does not decode cleanly
+     */
+    public String decode(long start, long end) throws CharacterCodingException {
+        byte[] bytes = new byte[Math.toIntExact(end - start)];
+        int n = table.read(start, bytes, 0, bytes.length);
+        return charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(bytes, 0, n))
+                .toString();
+    }
+
+    /**
+     * Returns the number of bytes the first {@code end} characters of a text take
+     * in the document's charset.
+     *
+     * @param text the text, which must be encodable ({@link #decode} output is)
+     * @param end  number of characters to measure
+     * @return the encoded length
+     */
+    public long encodedLength(String text, int end) {
+        if (!utf8) {
+            return editable ? end : text.substring(0, end).getBytes(charset).length;
+        }
+        long bytes = 0;
+        for (int i = 0; i < end; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes++;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Replaces a byte range with text.
+     *
+     * @param start first byte of the range
+     * @param end   end of the range (exclusive)
+     * @param text  the replacement
+     * @return the number of bytes inserted
+     * @throws CharacterCodingException if the text cannot be encoded in the document's charset;
+     *                                  the document is left unchanged
+     * @throws IllegalStateException    if the document is not {@linkplain #isEditable() editable}
+     */
+    public int replace(long start, long end, String text) throws CharacterCodingException {
+        if (!editable) {
+            throw new IllegalStateException("Documents encoded as " + charset.name() + " cannot be edited");
+        }
+        ByteBuffer encoded = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .encode(CharBuffer.wrap(text));
+        byte[] bytes = new byte[encoded.remaining()];
+        encoded.get(bytes);
+        table.replace(start, end - start, bytes);
+        return bytes.length;
+    }
+
+    /**
+     * Moves an offset back to the start of its line, looking back at most
+     * {@code maxScan} bytes; when the line starts further back, moves it back to a
+     * character boundary instead.
+     *
+     * @param offset  a document offset
+     * @param maxScan how far to look back
+     * @return the aligned offset
+     */
+    public long alignToLineStart(long offset, int maxScan) {
+        if (offset <= 0) {
+            return 0;
+        }
+        long from = Math.max(0, offset - maxScan);
+        byte[] bytes = new byte[(int) (offset - from)];
+        table.read(from, bytes, 0, bytes.length);
+        for (int i = bytes.length - 1; i >= 0; i--) {
+            if (bytes[i] == '\n') {
+                return from + i + 1;
+            }
+        }
+        return from == 0 ? 0 : charBoundary(offset);
+    }
+
+    /**
+     * Moves an offset forward past the end of its line, looking ahead at most
+     * {@code maxScan} bytes; when the line ends further on, moves it back to a
+     * character boundary instead.
+     *
+     * @param offset  a document offset
+     * @param maxScan how far to look ahead
+     * @return the aligned offset
+     */
+    public long alignToLineEnd(long offset, int maxScan) {
+        long length = table.length();
+        if (offset >= length) {
+            return length;
+        }
+        long to = Math.min(length, offset + maxScan);
+        byte[] bytes = new byte[(int) (to - offset)];
+        table.read(offset, bytes, 0, bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                return offset + i + 1;
+            }
+        }
+        return to == length ? length : charBoundary(to);
+    }
+
+    /**
+     * Returns the zero-based line an offset is on.
+     *
+     * @param offset a document offset
+     * @return the line, or -1 if the index does not reach that far yet
+     */
+    public long lineOf(long offset) {
+        long lines = 0;
+        long pieceStart = 0;
+        for (Piece piece : table.pieces()) {
+            if (offset <= pieceStart) {
+                break;
+            }
+            long upTo = Math.min(offset - pieceStart, piece.length());
+            long count = lineFeeds(piece, pieceStart, upTo);
+            if (count < 0) {
+                return -1;
+            }
+            lines += count;
+            pieceStart += piece.length();
+        }
+        return lines;
+    }
+
+    /**
+     * Returns the offset at which a zero-based line starts.
+     *
+     * @param line the line
+     * @return the offset, or -1 if there is no such line or the index does not reach it yet
+     */
+    public long lineStart(long line) {
+        if (line <= 0) {
+            return line == 0 ? 0 : -1;
+        }
+        long remaining = line;
+        long pieceStart = 0;
+        for (Piece piece : table.pieces()) {
+            if (piece.original()) {
+                // ask the index directly: works before the index has reached the end of the piece
+                long before = index.lineOf(piece.start());
+                long target = before < 0 ? -1 : index.lineStart(before + remaining);
+                if (target >= 0 && target <= piece.start() + piece.length()) {
+                    return pieceStart + target - piece.start();
+                }
+            }
+            long count = lineFeeds(piece, pieceStart, piece.length());
+            if (count < 0) {
+                return -1;
+            }
+            if (count >= remaining) {
+                return pieceStart + nthLineFeedEnd(pieceStart, piece.length(), remaining);
+            }
+            remaining -= count;
+            pieceStart += piece.length();
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of lines.
+     *
+     * @return the line count, or -1 while the index is incomplete
+     */
+    public long getLineCount() {
+        if (!index.isComplete()) {
+            return -1;
+        }
+        long lines = lineOf(table.length());
+        return lines < 0 ? -1 : lines + 1;
+    }
+
+    /**
+     * Finds the next occurrence of a string, streaming through the document in
+     * chunks. Case folding, if requested, covers ASCII letters only. Returns early
+     * with -1 when the calling thread is interrupted.
+     *
+     * @param needle    the text to find
+     * @param from      first offset to look at
+     * @param matchCase {@code false} to ignore the case of ASCII letters
+     * @return the offset of the match, or -1
+     */
+    public long find(String needle, long from, boolean matchCase) {
+        byte[] pattern = needle.getBytes(charset);
+        if (pattern.length == 0) {
+            return -1;
+        }
+        if (!matchCase) {
+            toLowerAscii(pattern, pattern.length);
+        }
+        long length = table.length();
+        byte[] chunk = new byte[Math.max(SEARCH_CHUNK, pattern.length * 2)];
+        long position = Math.max(0, from);
+        while (position + pattern.length <= length) {
+            if (Thread.currentThread().isInterrupted()) {
+                return -1;
+            }
+            int n = table.read(position, chunk, 0, chunk.length);
+            if (!matchCase) {
+                toLowerAscii(chunk, n);
+            }
+            int hit = indexOf(chunk, n, pattern);
+            if (hit >= 0) {
+                return position + hit;
+            }
+            if (position + n >= length) {
+                break;
+            }
+            // overlap so matches across chunk boundaries are found
+            position += n - pattern.length + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * Finds the start tag of the element an XPath location path selects, streaming
+     * the document through a StAX parser.
+     *
+     * <p>Supported are absolute paths of child steps with optional positional
+     * predicates, such as {@code /orders/order[3]/item}; prefixes are ignored and
+     * names are matched by local name, {@code *} matches any element, and a trailing
+     * attribute or {@code text()} step selects its parent element. The first matching
+     * element in document order is returned. Waits for the line index, which the
+     * parser positions are resolved against.</p>
+     *
+     * @param xpath the location path
+     * @return the offset of the {@code <} of the start tag, or -1 if nothing matches
+     * @throws IllegalArgumentException if the path is not a supported location path
+     * @throws XMLStreamException       if the document is not well-formed up to the match
+     * @throws InterruptedException     if interrupted while waiting for the index
+     */
+    public long locate(String xpath) throws XMLStreamException, InterruptedException {
+        List<Step> steps = parsePath(xpath);
+        int[] counters = new int[steps.size()];
+        int depth = 0;
+        int matched = 0;
+        XMLStreamReader reader = SecureXmlFactory.createSecureXMLInputFactory()
+                .createXMLStreamReader(table.newInputStream(0), charset.name());
+        try {
+            while (reader.hasNext()) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    if (depth == matched + 1 && steps.get(matched).matches(reader.getLocalName())) {
+                        counters[matched]++;
+                        Step step = steps.get(matched);
+                        if (step.position() == 0 || counters[matched] == step.position()) {
+                            matched++;
+                            if (matched == steps.size()) {
+                                return startTagBefore(offsetOf(reader.getLocation().getLineNumber(),
+                                        reader.getLocation().getColumnNumber()));
+                            }
+                            counters[matched] = 0;
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == matched) {
+                        matched--;
+                    }
+                    depth--;
+                }
+            }
+            return -1;
+        } finally {
+            reader.close();
+        }
+    }
+
+    /**
+     * Writes the document to {@code target} through a temporary file in the same
+     * directory, then closes this document and maps the saved file. Unchanged ranges
+     * are copied by the operating system; nothing is buffered on the heap but the
+     * inserted text. The replaced file keeps its permissions and links
+     * (see {@link AtomicFileWriter}).
+     *
+     * @param target the file to write
+     * @return a new document over the saved file; this document is closed
+     * @throws IOException if writing fails, in which case this document stays open
+     */
+    public LargeDocument saveTo(Path target) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        AtomicFileWriter.Staged staged = AtomicFileWriter.stage(absolute, table::writeTo);
+        boolean keepTemp = false;
+        try {
+            boolean overwritesSource = Files.exists(absolute) && Files.isSameFile(absolute, file.getPath());
+            if (!overwritesSource) {
+                staged.commit(null);
+                close();
+                return open(absolute);
+            }
+            // the source must be unmapped before it can be replaced (Windows refuses otherwise)
+            close();
+            Path temp = staged.temporaryFile();
+            try {
+                staged.keepTemporaryFileOnFailure().commit(null);
+            } catch (IOException e) {
+                keepTemp = true;
+                throw new SaveFailedException("Could not replace " + absolute + "; the edited document was saved as "
+                        + temp, e, open(file.getPath()));
+            }
+            return open(absolute);
+        } finally {
+            if (!keepTemp) {
+                staged.discard();
+            }
+        }
+    }
+
+    /**
+     * Thrown by {@link #saveTo(Path)} when the saved file could not replace the
+     * source after the source was unmapped. The edited document is left in a
+     * temporary file named in the message; the source is unchanged and mapped again.
+     */
+    public static final class SaveFailedException extends IOException {
+
+        private final transient LargeDocument reopened;
+
+        SaveFailedException(String message, IOException cause, LargeDocument reopened) {
+            super(message, cause);
+            this.reopened = reopened;
+        }
+
+        /** @return the unchanged source, mapped again. */
+        public LargeDocument getReopened() {
+            return reopened;
+        }
+    }
+
+    /** Stops index building and unmaps the file. */
+    @Override
+    public void close() throws IOException {
+        index.cancel();
+        file.close();
+    }
+
+    // ----- helpers ----------------------------------------------------------
+
+    /** Line feeds in the first {@code count} bytes of a piece, -1 if not indexed yet. */
+    private long lineFeeds(Piece piece, long pieceStart, long count) {
+        if (piece.original()) {
+            return index.countLineFeeds(piece.start(), piece.start() + count);
+        }
+        long lines = 0;
+        byte[] chunk = new byte[(int) Math.min(SCAN_CHUNK, Math.max(1, count))];
+        for (long done = 0; done < count; ) {
+            int n = table.read(pieceStart + done, chunk, 0, (int) Math.min(chunk.length, count - done));
+            for (int i = 0; i < n; i++) {
+                if (chunk[i] == '\n') {
+                    lines++;
+                }
+            }
+            done += n;
+        }
+        return lines;
+    }
+
+    /** Offset, relative to {@code start}, just after the {@code nth} line feed of a range. */
+    private long nthLineFeedEnd(long start, long count, long nth) {
+        long remaining = nth;
+        byte[] chunk = new byte[(int) Math.min(SCAN_CHUNK, Math.max(1, count))];
+        for (long done = 0; done < count; ) {
+            int n = table.read(start + done, chunk, 0, (int) Math.min(chunk.length, count - done));
+            for (int i = 0; i < n; i++) {
+                if (chunk[i] == '\n' && --remaining == 0) {
+                    return done + i + 1;
+                }
+            }
+            done += n;
+        }
+        return count;
+    }
+
+    /** Moves an offset back to the first byte of a UTF-8 sequence (if UTF-8), never between CR and LF. */
+    private long charBoundary(long offset) {
+        long position = offset;
+        while (utf8 && position > 0 && position < table.length() && (table.byteAt(position) & 0xC0) == 0x80) {
+            position--;
+        }
+        if (position > 0 && position < table.length()
+                && table.byteAt(position) == '\n' && table.byteAt(position - 1) == '\r') {
+            position--;
+        }
+        return position;
+    }
+
+    /** Converts a 1-based parser line/column (column counted in UTF-16 chars) to an offset. */
+    private long offsetOf(int line, int column) throws InterruptedException {
+        long lineStart = lineStart(line - 1L);
+        while (lineStart < 0 && !index.isComplete()) {
+            Thread.sleep(20);
+            lineStart = lineStart(line - 1L);
+        }
+        if (lineStart < 0) {
+            return -1;
+        }
+        long position = lineStart;
+        long chars = Math.max(0, column - 1L);
+        byte[] chunk = new byte[SCAN_CHUNK];
+        while (chars > 0 && position < table.length()) {
+            int n = table.read(position, chunk, 0, chunk.length);
+            int i = 0;
+            while (i < n && chars > 0) {
+                int b = chunk[i] & 0xFF;
+                int sequence = !utf8 || b < 0x80 ? 1 : b >= 0xF0 ? 4 : b >= 0xE0 ? 3 : b >= 0xC0 ? 2 : 1;
+                chars -= sequence == 4 ? 2 : 1; // supplementary characters are two UTF-16 chars
+                i += sequence;
+            }
+            position += i;
+        }
+        return Math.min(position, table.length());
+    }
+
+    /** The {@code <} of the tag that ends just before {@code offset}. */
+    private long startTagBefore(long offset) {
+        if (offset < 0) {
+            return -1;
+        }
+        long position = Math.min(offset, table.length()) - 1;
+        byte[] chunk = new byte[SCAN_CHUNK];
+        while (position >= 0) {
+            long from = Math.max(0, position - chunk.length + 1);
+            int n = table.read(from, chunk, 0, (int) (position - from + 1));
+            for (int i = n - 1; i >= 0; i--) {
+                if (chunk[i] == '<') {
+                    return from + i;
+                }
+            }
+            position = from - 1;
+        }
+        return 0;
+    }
+
+    private static boolean asciiCompatibleSingleByte(Charset charset) {
+        if (!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1) {
+            return false;
+        }
+        String ascii = "\n\r\t <?xml/>=\"'&;azAZ09";
+        return new String(ascii.getBytes(charset), StandardCharsets.ISO_8859_1).equals(ascii);
+    }
+
+    private static void toLowerAscii(byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[i];
+            if (b >= 'A' && b <= 'Z') {
+                bytes[i] = (byte) (b + ('a' - 'A'));
+            }
+        }
+    }
+
+    private static int indexOf(byte[] haystack, int length, byte[] needle) {
+        byte first = needle[0];
+        int last = length - needle.length;
+        outer:
+        for (int i = 0; i <= last; i++) {
+            if (haystack[i] != first) {
+                continue;
+            }
+            for (int j = 1; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    /** One child step of a location path; position 0 means "any". */
+    private record Step(String localName, int position) {
+
+        boolean matches(String name) {
+            return "*".equals(localName) || localName.equals(name);
+        }
+    }
+
+    private static List<Step> parsePath(String xpath) {
+        String path = xpath == null ? "" : xpath.strip();
+        if (!path.startsWith("/") || path.startsWith("//")) {
+            throw new IllegalArgumentException("Only absolute location paths are supported: " + xpath);
+        }
+        List<Step> steps = new ArrayList<>();
+        for (String part : path.substring(1).split("/")) {
+            if (part.startsWith("@") || part.equals("text()") || part.equals("node()")) {
+                break; // attribute / text steps select their parent element
+            }
+            String name = part;
+            int position = 0;
+            int bracket = part.indexOf('[');
+            if (bracket >= 0) {
+                if (!part.endsWith("]")) {
+                    throw new IllegalArgumentException("Unsupported step: " + part);
+                }
+                try {
+                    position = Integer.parseInt(part.substring(bracket + 1, part.length() - 1).strip());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Only positional predicates are supported: " + part);
+                }
+                if (position < 1) {
+                    throw new IllegalArgumentException("Positions start at 1: " + part);
+                }
+                name = part.substring(0, bracket);
+            }
+            int colon = name.indexOf(':');
+            if (colon >= 0) {
+                name = name.substring(colon + 1);
+            }
+            if (name.isEmpty()) {
+                throw new IllegalArgumentException("Unsupported step: '" + part + "'");
+            }
+            steps.add(new Step(name, position));
+        }
+        if (steps.isEmpty()) {
+            throw new IllegalArgumentException("The path selects no element: " + xpath);
+        }
+        return steps;
+    }
+}
@@ -0,0 +1,236 @@
+package org.fxt.freexmltoolkit.controls.shell.editor.largefile;
+
+import java.util.Arrays;
+
+/**
+ * Sparse line/offset index of a {@link MappedFile}, built in the background.
+ *
+ * <p>Instead of one entry per line the index keeps a checkpoint every
+ * {@value #LINES_PER_CHECKPOINT} lines and at least every
+ * {@value #BYTES_PER_CHECKPOINT} bytes. A checkpoint records a byte offset and the
+ * number of line feeds before it; a lookup finds the nearest checkpoint and scans
+ * at most a few hundred kilobytes from there. A 5 GB file with 100 million lines
+ * needs about 12 MB of index, and single-line (minified) files stay cheap because
+ * of the byte checkpoints.</p>
+ *
+ * <p>{@link #build()} runs on one background thread; the query methods may be
+ * called from any thread at any time and answer for the part indexed so far.</p>
+ */
+public final class LineIndex {
+
+    static final int LINES_PER_CHECKPOINT = 128;
+    static final int BYTES_PER_CHECKPOINT = 64 * 1024;
+    private static final int SCAN_CHUNK = 64 * 1024;
+
+    private final MappedFile file;
+
+    // Written by the builder only; published through the volatile count.
+    private long[] checkpointOffsets = new long[1024];
+    private long[] checkpointLines = new long[1024];
+    private volatile int checkpointCount;
+    private volatile long indexedBytes;
+    private volatile long totalLines = -1;
+    private volatile boolean cancelled;
+
+    /**
+     * Creates an empty index; call {@link #build()} to fill it.
+     *
+     * @param file the indexed file
+     */
+    public LineIndex(MappedFile file) {
+        this.file = file;
+        checkpointOffsets[0] = 0;
+        checkpointLines[0] = 0;
+        checkpointCount = 1;
+    }
+
+    /**
+     * Scans the whole file. Returns early, leaving the index incomplete, when
+     * {@link #cancel()} is called or the file is closed.
+     */
+    public void build() {
+        byte[] chunk = new byte[SCAN_CHUNK];
+        long size = file.size();
+        long lines = 0;
+        long lastOffset = 0;
+        long lastLines = 0;
+        long position = 0;
+        try {
+            while (position < size) {
+                if (cancelled) {
+                    return;
+                }
+                int length = (int) Math.min(SCAN_CHUNK, size - position);
+                file.copy(position, chunk, 0, length);
+                for (int i = 0; i < length; i++) {
+                    if (chunk[i] == '\n') {
+                        lines++;
+                        if (lines - lastLines >= LINES_PER_CHECKPOINT) {
+                            lastOffset = position + i + 1;
+                            lastLines = lines;
+                            addCheckpoint(lastOffset, lastLines);
+                        }
+                    }
+                }
+                position += length;
+                if (position - lastOffset >= BYTES_PER_CHECKPOINT && position < size) {
+                    lastOffset = position;
+                    lastLines = lines;
+                    addCheckpoint(lastOffset, lastLines);
+                }
+                indexedBytes = position;
+            }
+            totalLines = lines + 1;
+        } catch (IllegalStateException e) {
+            // the mapping was closed while indexing — the document is gone
+        }
+    }
+
+    /** Stops a running {@link #build()}. */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** @return {@code true} once the whole file has been scanned. */
+    public boolean isComplete() {
+        return totalLines >= 0;
+    }
+
+    /** @return number of bytes scanned so far. */
+    public long getIndexedBytes() {
+        return indexedBytes;
+    }
+
+    /** @return the fraction of the file indexed so far, between 0 and 1. */
+    public double getProgress() {
+        long size = file.size();
+        return size == 0 || isComplete() ? 1.0 : (double) indexedBytes / size;
+    }
+
+    /**
+     * Returns the number of lines (line feeds plus one).
+     *
+     * @return the line count, or -1 while the index is incomplete
+     */
+    public long getLineCount() {
+        return totalLines;
+    }
+
+    /**
+     * Counts the line feeds before an offset, i.e. the zero-based line the offset is on.
+     *
+     * @param offset a byte offset between 0 and the file size
+     * @return the line, or -1 if the offset has not been indexed yet
+     */
+    public long lineOf(long offset) {
+        if (offset > indexedBytes && !isComplete()) {
+            return -1;
+        }
+        int count = checkpointCount;
+        long[] offsets = checkpointOffsets;
+        long[] lines = checkpointLines;
+        int cp = floor(offsets, count, offset);
+        return lines[cp] + scanLineFeeds(offsets[cp], offset);
+    }
+
+    /**
+     * Returns the byte offset at which a zero-based line starts.
+     *
+     * @param line the line
+     * @return the offset, or -1 if the line does not exist or has not been indexed yet
+     */
+    public long lineStart(long line) {
+        if (line <= 0) {
+            return line == 0 ? 0 : -1;
+        }
+        int count = checkpointCount;
+        long[] offsets = checkpointOffsets;
+        long[] lines = checkpointLines;
+        // last checkpoint with fewer line feeds before it than wanted: the wanted one is after it
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (lines[mid] < line) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        long limit = isComplete() ? file.size() : indexedBytes;
+        long remaining = line - lines[low];
+        byte[] chunk = new byte[SCAN_CHUNK];
+        for (long position = offsets[low]; position < limit; ) {
+            int length = (int) Math.min(SCAN_CHUNK, limit - position);
+            file.copy(position, chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] == '\n' && --remaining == 0) {
+                    return position + i + 1;
+                }
+            }
+            position += length;
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the line feeds in a range of the file.
+     *
+     * @param start first offset (inclusive)
+     * @param end   last offset (exclusive)
+     * @return the count, or -1 if the range has not been indexed yet
+     */
+    public long countLineFeeds(long start, long end) {
+        long before = lineOf(start);
+        long after = lineOf(end);
+        return before < 0 || after < 0 ? -1 : after - before;
+    }
+
+    private long scanLineFeeds(long start, long end) {
+        long count = 0;
+        byte[] chunk = new byte[(int) Math.min(SCAN_CHUNK, Math.max(0, end - start))];
+        for (long position = start; position < end; ) {
+            int length = (int) Math.min(chunk.length, end - position);
+            file.copy(position, chunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                if (chunk[i] == '\n') {
+                    count++;
+                }
+            }
+            position += length;
+        }
+        return count;
+    }
+
+    private void addCheckpoint(long offset, long lines) {
+        int count = checkpointCount;
+        if (count == checkpointOffsets.length) {
+            // readers holding the old arrays still see valid entries below their count
+            long[] offsets = Arrays.copyOf(checkpointOffsets, count * 2);
+            long[] lineCounts = Arrays.copyOf(checkpointLines, count * 2);
+            offsets[count] = offset;
+            lineCounts[count] = lines;
+            checkpointOffsets = offsets;
+            checkpointLines = lineCounts;
+        } else {
+            checkpointOffsets[count] = offset;
+            checkpointLines[count] = lines;
+        }
+        checkpointCount = count + 1;
+    }
+
+    /** @return the index of the last checkpoint whose offset is at most {@code offset}. */
+    private static int floor(long[] offsets, int count, long offset) {
+        int low = 0;
+        int high = count - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= offset) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,129 @@
+package org.fxt.freexmltoolkit.controls.shell.editor.largefile;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only memory mapping of a whole file.
+ *
+ * <p>The file is mapped as one {@link MemorySegment}, so there is no 2 GB limit
+ * and no bytes are copied onto the heap until they are read. The mapping lives in a
+ * shared {@link Arena}: {@link #close()} unmaps it at once (required on Windows
+ * before the file can be replaced), after which any read fails with
+ * {@link IllegalStateException}.</p>
+ */
+public final class MappedFile implements AutoCloseable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Arena arena;
+    private final MemorySegment segment;
+
+    private MappedFile(Path path, FileChannel channel, Arena arena, MemorySegment segment) {
+        this.path = path;
+        this.channel = channel;
+        this.arena = arena;
+        this.segment = segment;
+    }
+
+    /**
+     * Maps a file.
+     *
+     * @param path the file
+     * @return the mapping
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public static MappedFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        Arena arena = Arena.ofShared();
+        try {
+            long size = channel.size();
+            MemorySegment segment = size == 0
+                    ? arena.allocate(0)
+                    : channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            return new MappedFile(path, channel, arena, segment);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** @return the mapped file. */
+    public Path getPath() {
+        return path;
+    }
+
+    /** @return the file size in bytes, as it was when mapped. */
+    public long size() {
+        return segment.byteSize();
+    }
+
+    /**
+     * Reads one byte.
+     *
+     * @param offset the byte offset
+     * @return the byte
+     */
+    public byte get(long offset) {
+        return segment.get(ValueLayout.JAVA_BYTE, offset);
+    }
+
+    /**
+     * Copies bytes onto the heap.
+     *
+     * @param offset    the file offset
+     * @param dst       the target array
+     * @param dstOffset the first index written in {@code dst}
+     * @param length    number of bytes to copy
+     */
+    public void copy(long offset, byte[] dst, int dstOffset, int length) {
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset, dst, dstOffset, length);
+    }
+
+    /**
+     * Writes a range of the file to a channel. The bytes are handed to the
+     * operating system directly, without passing through the heap.
+     *
+     * @param offset the file offset
+     * @param length number of bytes
+     * @param target the channel
+     * @throws IOException if writing fails
+     */
+    public void transferTo(long offset, long length, WritableByteChannel target) throws IOException {
+        long done = 0;
+        while (done < length) {
+            long n = channel.transferTo(offset + done, length - done, target);
+            if (n <= 0) {
+                break;
+            }
+            done += n;
+        }
+        // transferTo may stop early (e.g. on some non-file channels); copy the rest from the mapping
+        while (done < length) {
+            int chunk = (int) Math.min(length - done, 1 << 20);
+            ByteBuffer buffer = segment.asSlice(offset + done, chunk).asByteBuffer();
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            done += chunk;
+        }
+    }
+
+    /** Unmaps the file and closes it. */
+    @Override
+    public void close() throws IOException {
+        try {
+            arena.close();
+        } finally {
+            channel.close();
+        }
+    }
+}
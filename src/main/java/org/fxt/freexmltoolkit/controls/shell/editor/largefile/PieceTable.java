@@ -0,0 +1,267 @@
+package org.fxt.freexmltoolkit.controls.shell.editor.largefile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Byte-level piece table over a {@link MappedFile}.
+ *
+ * <p>The document is a list of pieces, each a range of either the unmodified
+ * original file or an append-only buffer holding all inserted bytes. An edit
+ * splits at most one piece and adds at most one, so edits cost nothing in the
+ * size of the file; the original file is never copied. Offsets are byte offsets
+ * into the UTF-8 document.</p>
+ *
+ * <p>Instances are confined to one thread (the FX thread). Background work
+ * (search, save, XPath lookup) uses a {@link #snapshot()}: the add buffer is only
+ * ever appended to, so a snapshot shares it and stays valid while editing goes on.</p>
+ */
+public final class PieceTable {
+
+    /**
+     * One range of the document.
+     *
+     * @param original {@code true} for a range of the original file, {@code false} for the add buffer
+     * @param start    offset in the original file or the add buffer
+     * @param length   number of bytes
+     */
+    record Piece(boolean original, long start, long length) {
+    }
+
+    private final MappedFile file;
+    private final boolean readOnly;
+    private final List<Piece> pieces;
+    private byte[] added;
+    private int addedLength;
+    private long length;
+    private boolean modified;
+
+    /**
+     * Creates a table holding the whole file.
+     *
+     * @param file the original file
+     */
+    public PieceTable(MappedFile file) {
+        this.file = Objects.requireNonNull(file, "file");
+        this.readOnly = false;
+        this.pieces = new ArrayList<>();
+        this.added = new byte[4096];
+        this.length = file.size();
+        if (length > 0) {
+            pieces.add(new Piece(true, 0, length));
+        }
+    }
+
+    private PieceTable(PieceTable source) {
+        this.file = source.file;
+        this.readOnly = true;
+        this.pieces = List.copyOf(source.pieces);
+        this.added = source.added;
+        this.addedLength = source.addedLength;
+        this.length = source.length;
+        this.modified = source.modified;
+    }
+
+    /**
+     * Returns an immutable copy of the current state that may be read from any thread.
+     *
+     * @return the snapshot
+     */
+    public PieceTable snapshot() {
+        return readOnly ? this : new PieceTable(this);
+    }
+
+    /** @return the original file. */
+    public MappedFile getFile() {
+        return file;
+    }
+
+    /** @return the document length in bytes. */
+    public long length() {
+        return length;
+    }
+
+    /** @return {@code true} once any edit has been made. */
+    public boolean isModified() {
+        return modified;
+    }
+
+    /** @return the number of pieces; 1 for an unedited, non-empty file. */
+    public int pieceCount() {
+        return pieces.size();
+    }
+
+    List<Piece> pieces() {
+        return pieces;
+    }
+
+    /**
+     * Replaces a range of the document.
+     *
+     * @param offset      start of the range
+     * @param removeCount number of bytes to remove
+     * @param insert      bytes to insert in their place
+     */
+    public void replace(long offset, long removeCount, byte[] insert) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("snapshot is read-only");
+        }
+        if (offset < 0 || removeCount < 0 || offset + removeCount > length) {
+            throw new IndexOutOfBoundsException("range " + offset + "+" + removeCount + " outside 0.." + length);
+        }
+        if (removeCount == 0 && insert.length == 0) {
+            return;
+        }
+        int first = splitAt(offset);
+        int last = splitAt(offset + removeCount);
+        pieces.subList(first, last).clear();
+        if (insert.length > 0) {
+            Piece before = first > 0 ? pieces.get(first - 1) : null;
+            if (before != null && !before.original() && before.start() + before.length() == addedLength) {
+                // typing continues the previous insertion: extend its piece
+                pieces.set(first - 1, new Piece(false, before.start(), before.length() + insert.length));
+            } else {
+                pieces.add(first, new Piece(false, addedLength, insert.length));
+            }
+            append(insert);
+        }
+        length += insert.length - removeCount;
+        modified = true;
+    }
+
+    /**
+     * Copies a range of the document onto the heap.
+     *
+     * @param offset    document offset
+     * @param dst       target array
+     * @param dstOffset first index written
+     * @param count     maximum number of bytes
+     * @return number of bytes copied, less than {@code count} only at the end of the document
+     */
+    public int read(long offset, byte[] dst, int dstOffset, int count) {
+        int copied = 0;
+        long pieceStart = 0;
+        for (Piece piece : pieces) {
+            if (copied == count) {
+                break;
+            }
+            long pieceEnd = pieceStart + piece.length();
+            long from = offset + copied;
+            if (from < pieceEnd) {
+                long within = from - pieceStart;
+                int n = (int) Math.min(count - copied, piece.length() - within);
+                if (piece.original()) {
+                    file.copy(piece.start() + within, dst, dstOffset + copied, n);
+                } else {
+                    System.arraycopy(added, (int) (piece.start() + within), dst, dstOffset + copied, n);
+                }
+                copied += n;
+            }
+            pieceStart = pieceEnd;
+        }
+        return copied;
+    }
+
+    /**
+     * Returns one byte of the document.
+     *
+     * @param offset document offset
+     * @return the byte
+     */
+    public byte byteAt(long offset) {
+        long pieceStart = 0;
+        for (Piece piece : pieces) {
+            if (offset < pieceStart + piece.length()) {
+                long within = offset - pieceStart;
+                return piece.original() ? file.get(piece.start() + within) : added[(int) (piece.start() + within)];
+            }
+            pieceStart += piece.length();
+        }
+        throw new IndexOutOfBoundsException("offset " + offset + " outside 0.." + length);
+    }
+
+    /**
+     * Writes the document to a channel. Unchanged ranges go from the mapped file
+     * straight to the channel; only inserted bytes pass through the heap.
+     *
+     * @param target the channel
+     * @throws IOException if writing fails
+     */
+    public void writeTo(WritableByteChannel target) throws IOException {
+        for (Piece piece : pieces) {
+            if (piece.original()) {
+                file.transferTo(piece.start(), piece.length(), target);
+            } else {
+                ByteBuffer buffer = ByteBuffer.wrap(added, (int) piece.start(), (int) piece.length());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a stream over the document, starting at an offset.
+     *
+     * @param offset the first byte returned
+     * @return the stream
+     */
+    public InputStream newInputStream(long offset) {
+        return new InputStream() {
+            private long position = offset;
+
+            @Override
+            public int read() {
+                return position < length ? byteAt(position++) & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0) {
+                    return 0;
+                }
+                if (position >= length) {
+                    return -1;
+                }
+                int n = PieceTable.this.read(position, b, off, len);
+                position += n;
+                return n;
+            }
+        };
+    }
+
+    /** @return the index of the piece starting at {@code offset}, splitting a piece if needed. */
+    private int splitAt(long offset) {
+        long pieceStart = 0;
+        for (int i = 0; i < pieces.size(); i++) {
+            Piece piece = pieces.get(i);
+            if (offset == pieceStart) {
+                return i;
+            }
+            long pieceEnd = pieceStart + piece.length();
+            if (offset < pieceEnd) {
+                long head = offset - pieceStart;
+                pieces.set(i, new Piece(piece.original(), piece.start(), head));
+                pieces.add(i + 1, new Piece(piece.original(), piece.start() + head, piece.length() - head));
+                return i + 1;
+            }
+            pieceStart = pieceEnd;
+        }
+        return pieces.size();
+    }
+
+    private void append(byte[] bytes) {
+        if (addedLength + bytes.length > added.length) {
+            // a new array, not a grown one in place: snapshots keep reading the old array
+            added = Arrays.copyOf(added, Math.max(added.length * 2, addedLength + bytes.length));
+        }
+        System.arraycopy(bytes, 0, added, addedLength, bytes.length);
+        addedLength += bytes.length;
+    }
+}
@@ -66,6 +66,11 @@ public final class QuickFixController {
      * @param fix     the chosen fix
      */
     public void applyFix(ValidationProblem problem, SqfFixSuggestion fix) {
+        if (editorHost.isActiveLargeFile()) {
+            DialogHelper.showActionError("Quick Fix", "Quick fixes need the whole document.",
+                    EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String text = editorHost.getActiveText().orElse(null);
         if (text == null) {
             DialogHelper.showActionError("Quick Fix", "No editable document is active.",
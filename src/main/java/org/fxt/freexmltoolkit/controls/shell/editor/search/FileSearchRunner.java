@@ -19,6 +19,8 @@ import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
+import org.fxt.freexmltoolkit.service.WorkspaceIndex;
+
 /**
  * UI-free engine for "Find in Files": walks a folder, filters by glob, and
  * matches a plain-text / whole-word / regex query per file. Follows the
@@ -83,7 +85,8 @@ public final class FileSearchRunner {
     /**
      * Recursively collects the regular files under {@code root} whose file name
      * matches any of {@code globs}, sorted by path. Oversized files are excluded
-     * here; binary detection happens at read time.
+     * here; binary detection happens at read time. Inside an open workspace the
+     * files come from its {@link WorkspaceIndex} instead of a walk of the folder.
      */
     public static List<Path> collectFiles(Path root, List<String> globs, BooleanSupplier cancelled) {
         List<PathMatcher> matchers = globs.stream()
@@ -91,6 +94,14 @@ public final class FileSearchRunner {
                 .filter(g -> !g.isEmpty())
                 .map(g -> FileSystems.getDefault().getPathMatcher("glob:" + g))
                 .toList();
+        var index = WorkspaceIndex.covering(root);
+        if (index.isPresent()) {
+            return index.get().entriesUnder(root).stream()
+                    .filter(e -> e.size() <= MAX_FILE_SIZE)
+                    .map(WorkspaceIndex.Entry::path)
+                    .filter(p -> matchers.stream().anyMatch(m -> m.matches(p.getFileName())))
+                    .toList();
+        }
         List<Path> files = new ArrayList<>();
         try (Stream<Path> walk = Files.walk(root)) {
             var it = walk.iterator();
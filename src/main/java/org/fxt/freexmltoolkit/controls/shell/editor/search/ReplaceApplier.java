@@ -3,10 +3,7 @@ package org.fxt.freexmltoolkit.controls.shell.editor.search;
 import java.io.IOException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.AtomicMoveNotSupportedException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -17,6 +14,7 @@ import java.util.regex.Pattern;
 
 import org.fxt.freexmltoolkit.controls.shell.editor.search.FileSearchRunner.FileSearchResult;
 import org.fxt.freexmltoolkit.controls.shell.editor.search.FileSearchRunner.TextSearchQuery;
+import org.fxt.freexmltoolkit.controls.v2.common.utilities.AtomicFileWriter;
 import org.fxt.freexmltoolkit.service.xmledit.EditPlan;
 import org.fxt.freexmltoolkit.service.xmledit.TextEdit;
 
@@ -154,19 +152,7 @@ public final class ReplaceApplier {
             out = body;
         }
         try {
-            Path tmp = Files.createTempFile(plan.file().getParent(),
-                    plan.file().getFileName().toString(), ".tmp");
-            try {
-                Files.write(tmp, out);
-                try {
-                    Files.move(tmp, plan.file(), StandardCopyOption.ATOMIC_MOVE,
-                            StandardCopyOption.REPLACE_EXISTING);
-                } catch (AtomicMoveNotSupportedException e) {
-                    Files.move(tmp, plan.file(), StandardCopyOption.REPLACE_EXISTING);
-                }
-            } finally {
-                Files.deleteIfExists(tmp);
-            }
+            AtomicFileWriter.write(plan.file(), out);
         } catch (IOException e) {
             return new ReplaceOutcome(plan.file(), 0, false, "Write failed: " + e.getMessage());
         }
@@ -225,6 +225,10 @@ public class XPathSearchPane extends VBox {
     }
 
     private void detectNamespaces() {
+        if (editorHost.isActiveLargeFile()) {
+            PanelStatus.precondition(status, EditorHost.LARGE_FILE_UNSUPPORTED);
+            return;
+        }
         String text = editorHost.getActiveText().orElse(null);
         if (text == null || text.isBlank()) {
             PanelStatus.precondition(status, "Open an XML document to detect its namespaces");
@@ -295,6 +299,10 @@ public class XPathSearchPane extends VBox {
         lastQuery = query;
 
         if (currentDocToggle.isSelected()) {
+            if (editorHost.isActiveLargeFile()) {
+                PanelStatus.precondition(status, EditorHost.LARGE_FILE_UNSUPPORTED);
+                return;
+            }
             var doc = editorHost.getActiveDocument().orElse(null);
             String text = editorHost.getActiveText().orElse(null);
             if (text == null || text.isBlank()) {
@@ -0,0 +1,394 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.controls.v2.common.utilities;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Streams serializer output straight into a file without building it as one string.
+ *
+ * <p>The content is written through a buffered writer into a temporary file next to
+ * the target, hashing the bytes on the way. If the target already holds exactly those
+ * bytes the temporary file is dropped and nothing on disk changes (no backup either);
+ * otherwise the backup callback runs and the temporary file atomically replaces the
+ * target, so readers never see a half-written file. {@link #stage} and
+ * {@link Staged#commit} split this in two for saves that span several files.</p>
+ *
+ * <p>This is the one place that writes files through a temporary file and an atomic
+ * move; {@link #write(Path, byte[])} and {@link #stage(Path, ChannelWriter)} serve
+ * callers that already have bytes or write to a channel. A symbolic link is resolved
+ * first, so the file it points to is replaced and the link stays. A file with more than
+ * one hard link is overwritten in place instead of being replaced, which keeps the links
+ * but gives up atomicity.</p>
+ *
+ * @since 2.0
+ */
+public final class AtomicFileWriter {
+
+    private static final Logger logger = LogManager.getLogger(AtomicFileWriter.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private AtomicFileWriter() {
+        // Utility class - no instantiation
+    }
+
+    /**
+     * Writes the content of a file to a character stream.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        /**
+         * @param out the buffered writer for the file; must not be closed by the callee
+         * @throws IOException if writing fails
+         */
+        void writeTo(Writer out) throws IOException;
+    }
+
+    /**
+     * Writes the content of a file to a channel, e.g. with {@link FileChannel#transferFrom}.
+     */
+    @FunctionalInterface
+    public interface ChannelWriter {
+        /**
+         * @param channel the channel of the temporary file; must not be closed by the callee
+         * @throws IOException if writing fails
+         */
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    /**
+     * Backs up the current target before it is replaced.
+     */
+    @FunctionalInterface
+    public interface BackupStrategy {
+        /**
+         * @param existing the file about to be replaced
+         * @return the backup path, or {@code null} if none was made
+         * @throws IOException if the backup fails (the target is then left untouched)
+         */
+        Path backup(Path existing) throws IOException;
+    }
+
+    /**
+     * Outcome of a write.
+     *
+     * @param path       the target file
+     * @param written    {@code false} when the target already had identical content
+     * @param backupPath the backup made before replacing the target, or {@code null}
+     * @param bytes      the size of the content in bytes
+     */
+    public record Result(Path path, boolean written, Path backupPath, long bytes) {
+    }
+
+    /**
+     * Streams content into {@code target}, skipping the write if the bytes are unchanged.
+     *
+     * @param target  the file to write
+     * @param charset the encoding of the content
+     * @param content writes the content
+     * @param backup  backs up an existing target before it is replaced, or {@code null}
+     * @return what happened
+     * @throws IOException if writing, backing up or replacing fails; the target is then unchanged
+     */
+    public static Result write(Path target, Charset charset, ContentWriter content, BackupStrategy backup)
+            throws IOException {
+        return stage(target, charset, content).commit(backup);
+    }
+
+    /**
+     * First half of {@link #write}: streams the content into a temporary file next to the
+     * target and compares it with the target, without touching the target. Lets callers
+     * prepare several files and only replace them once all of them serialized.
+     *
+     * @param target  the file to write
+     * @param charset the encoding of the content
+     * @param content writes the content
+     * @return the staged content; {@link Staged#commit commit} or {@link Staged#discard discard} it
+     * @throws IOException if the content cannot be written
+     */
+    public static Staged stage(Path target, Charset charset, ContentWriter content) throws IOException {
+        Path absolute = resolveTarget(target);
+        Path temp = createTemp(absolute);
+        try {
+            MessageDigest digest = newDigest();
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                Writer out = new BufferedWriter(new OutputStreamWriter(
+                        new DigestOutputStream(Channels.newOutputStream(channel), digest), charset), BUFFER_SIZE);
+                content.writeTo(out);
+                out.flush();
+                channel.force(false);
+            }
+            byte[] hash = digest.digest();
+            long size = Files.size(temp);
+
+            if (Files.isRegularFile(absolute) && Files.size(absolute) == size
+                    && Arrays.equals(hash, hashOf(absolute))) {
+                logger.debug("Content of {} unchanged, not rewritten", absolute.getFileName());
+                Files.deleteIfExists(temp);
+                return new Staged(target, absolute, null, size);
+            }
+            return new Staged(target, absolute, temp, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * Writes {@code content} to {@code target} through a temporary file and an atomic move.
+     * Unlike {@link #write(Path, Charset, ContentWriter, BackupStrategy)} it always replaces
+     * the target, without comparing the content first.
+     *
+     * @param target  the file to write
+     * @param content the complete file content
+     * @throws IOException if writing or replacing fails; the target is then unchanged
+     */
+    public static void write(Path target, byte[] content) throws IOException {
+        stage(target, channel -> {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }).commit(null);
+    }
+
+    /**
+     * Writes content into a temporary file next to the target through its channel, without
+     * touching the target and without comparing the content with it.
+     *
+     * @param target  the file to write
+     * @param content writes the content
+     * @return the staged content; {@link Staged#commit commit} or {@link Staged#discard discard} it
+     * @throws IOException if the content cannot be written
+     */
+    public static Staged stage(Path target, ChannelWriter content) throws IOException {
+        Path absolute = resolveTarget(target);
+        Path temp = createTemp(absolute);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                content.writeTo(channel);
+                channel.force(false);
+            }
+            return new Staged(target, absolute, temp, Files.size(temp));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * @return the absolute target; the file a symbolic link points to if the target exists
+     */
+    private static Path resolveTarget(Path target) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        return Files.exists(absolute) ? absolute.toRealPath() : absolute;
+    }
+
+    private static Path createTemp(Path absolute) throws IOException {
+        Path directory = absolute.getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        return Files.createTempFile(directory, absolute.getFileName().toString() + "_", ".tmp");
+    }
+
+    /**
+     * Content streamed to a temporary file, waiting to replace its target.
+     */
+    public static final class Staged {
+        private final Path target;
+        private final Path absolute;
+        private final boolean unchanged;
+        private final long bytes;
+        private Path temp;
+        private boolean keepOnFailure;
+
+        private Staged(Path target, Path absolute, Path temp, long bytes) {
+            this.target = target;
+            this.absolute = absolute;
+            this.temp = temp;
+            this.unchanged = temp == null;
+            this.bytes = bytes;
+        }
+
+        /** @return {@code true} if the target already holds exactly this content */
+        public boolean unchanged() {
+            return unchanged;
+        }
+
+        /**
+         * @return the temporary file holding the content, or {@code null} once committed,
+         *         discarded or if the content is unchanged
+         */
+        public Path temporaryFile() {
+            return temp;
+        }
+
+        /**
+         * Keeps the temporary file if {@link #commit} fails to replace the target, so the
+         * caller can point the user to it instead of losing the content.
+         *
+         * @return this
+         */
+        public Staged keepTemporaryFileOnFailure() {
+            this.keepOnFailure = true;
+            return this;
+        }
+
+        /**
+         * Replaces the target with the staged content (a no-op for unchanged content).
+         *
+         * @param backup backs up an existing target first, or {@code null}
+         * @return what happened
+         * @throws IOException if backing up or replacing fails; the target is then unchanged
+         */
+        public Result commit(BackupStrategy backup) throws IOException {
+            if (unchanged) {
+                return new Result(target, false, null, bytes);
+            }
+            if (temp == null) {
+                throw new IllegalStateException("Already committed or discarded: " + target);
+            }
+            boolean committed = false;
+            try {
+                Path backupPath = null;
+                if (backup != null && Files.exists(absolute)) {
+                    backupPath = backup.backup(absolute);
+                }
+                if (linkCount(absolute) > 1) {
+                    overwriteInPlace(temp, absolute);
+                } else {
+                    copyPermissions(absolute, temp);
+                    try {
+                        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    } catch (AtomicMoveNotSupportedException e) {
+                        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+                    }
+                }
+                committed = true;
+                return new Result(target, true, backupPath, bytes);
+            } finally {
+                if (committed || !keepOnFailure) {
+                    discard();
+                }
+            }
+        }
+
+        /** Drops the temporary file without touching the target. */
+        public void discard() {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    logger.warn("Failed to delete temp file {}: {}", temp, e.getMessage());
+                }
+                temp = null;
+            }
+        }
+    }
+
+    /**
+     * @return the SHA-256 hash of a file's bytes, read in chunks
+     */
+    static byte[] hashOf(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) > 0) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * @return the number of hard links to a regular file, or 1 if unknown or not a regular file
+     */
+    private static int linkCount(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return 1;
+        }
+        try {
+            return Files.getAttribute(file, "unix:nlink") instanceof Integer count ? count : 1;
+        } catch (UnsupportedOperationException | IllegalArgumentException | IOException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * Copies the staged content into the existing file, keeping its inode and therefore
+     * all of its hard links and its permissions.
+     */
+    private static void overwriteInPlace(Path temp, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(temp, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += out.transferFrom(in, position, size - position);
+            }
+            out.force(false);
+        }
+    }
+
+    /**
+     * Temporary files are created owner-only; keep the permissions the replaced file had.
+     */
+    private static void copyPermissions(Path from, Path to) {
+        if (!Files.exists(from)) {
+            return;
+        }
+        try {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        } catch (UnsupportedOperationException | IOException e) {
+            // not a POSIX file system
+        }
+    }
+}
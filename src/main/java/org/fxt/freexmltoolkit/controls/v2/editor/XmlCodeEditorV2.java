@@ -292,11 +292,17 @@ public class XmlCodeEditorV2 extends VBox implements org.fxt.freexmltoolkit.cont
      * Sets up text change listeners.
      */
     private void setupTextChangeListeners() {
+        // Text and caret events are coalesced by the bus: a burst of keystrokes is
+        // highlighted once per frame, with the latest text
+        eventBus.subscribe(org.fxt.freexmltoolkit.controls.v2.editor.core.EditorEvent.Type.TEXT_CHANGED,
+                event -> syntaxManager.applySyntaxHighlighting(
+                        ((org.fxt.freexmltoolkit.controls.v2.editor.core.EditorEvent.TextChangedEvent) event)
+                                .getNewText()));
+        eventBus.subscribe(org.fxt.freexmltoolkit.controls.v2.editor.core.EditorEvent.Type.CARET_MOVED,
+                event -> statusLineManager.refreshCursorPosition());
+
         codeArea.textProperty().addListener((obs, oldText, newText) -> {
             if (newText != null && !newText.equals(oldText)) {
-                // Apply syntax highlighting
-                Platform.runLater(() -> syntaxManager.applySyntaxHighlighting(newText));
-
                 // Mark as dirty
                 editorContext.setDirty(true);
 
@@ -308,9 +314,7 @@ public class XmlCodeEditorV2 extends VBox implements org.fxt.freexmltoolkit.cont
 
         // Caret position listener for status line
         codeArea.caretPositionProperty().addListener((obs, oldPos, newPos) -> {
-            statusLineManager.refreshCursorPosition();
-
-            // Publish caret moved event
+            // Publish caret moved event (also refreshes the status line)
             eventBus.publish(new org.fxt.freexmltoolkit.controls.v2.editor.core.EditorEvent.CaretMovedEvent(
                     oldPos.intValue(), newPos.intValue()));
         });
@@ -14,6 +14,7 @@ import org.apache.logging.log4j.Logger;
 import org.fxt.freexmltoolkit.controls.v2.editor.clipboard.XsdClipboard;
 import org.fxt.freexmltoolkit.controls.v2.editor.commands.CommandManager;
 import org.fxt.freexmltoolkit.controls.v2.editor.selection.SelectionModel;
+import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdSchemaChangeTracker;
 import org.fxt.freexmltoolkit.controls.v2.model.IncludeSourceInfo;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdNode;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
@@ -71,6 +72,9 @@ public class XsdEditorContext {
                 setDirty(true);
             }
         });
+        // Command boundaries let incremental schema analyses detect silent model changes
+        commandManager.addPropertyChangeListener("commandApplied",
+                evt -> XsdSchemaChangeTracker.commandApplied(schema));
 
         logger.info("XSD Editor Context initialized");
     }
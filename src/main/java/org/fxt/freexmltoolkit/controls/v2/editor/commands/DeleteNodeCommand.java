@@ -84,6 +84,11 @@ public class DeleteNodeCommand implements XsdCommand {
         return parentNode != null;
     }
 
+    @Override
+    public long estimatedRetainedBytes() {
+        return XsdCommand.retainedBytes(nodeToDelete);
+    }
+
     @Override
     public boolean canMergeWith(XsdCommand other) {
         // Delete commands should not be merged
@@ -95,6 +95,11 @@ public class DuplicateNodeCommand implements XsdCommand {
         return duplicatedNode != null && parentNode != null;
     }
 
+    @Override
+    public long estimatedRetainedBytes() {
+        return XsdCommand.retainedBytes(duplicatedNode);
+    }
+
     @Override
     public boolean canMergeWith(XsdCommand other) {
         // Duplicate commands should not be merged
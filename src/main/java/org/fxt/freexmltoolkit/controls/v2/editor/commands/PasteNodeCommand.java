@@ -200,6 +200,12 @@ public class PasteNodeCommand implements XsdCommand {
         return pastedNode != null;
     }
 
+    @Override
+    public long estimatedRetainedBytes() {
+        // the pasted copy while undone, the cut original while pasted
+        return XsdCommand.retainedBytes(pastedNode) + XsdCommand.retainedBytes(cutOriginalNode);
+    }
+
     @Override
     public boolean canMergeWith(XsdCommand other) {
         return false;
@@ -1,6 +1,16 @@
 package org.fxt.freexmltoolkit.controls.v2.editor.commands;
 
+import java.util.List;
+
 import org.fxt.freexmltoolkit.controls.v2.editor.core.Command;
+import org.fxt.freexmltoolkit.controls.v2.editor.core.RetainedSize;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdAppInfo;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdAttribute;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdDocumentation;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdElement;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdFacet;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdNode;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdRestriction;
 
 /**
  * Command interface for XSD editor operations.
@@ -13,4 +23,62 @@ public interface XsdCommand extends Command<XsdCommand> {
     // All methods are inherited from Command<XsdCommand>
     // Implementations should implement execute(), undo(), getDescription()
     // Optionally override canUndo(), canMergeWith(), mergeWith()
+
+    /**
+     * Estimates what a command retains through a node it holds: the whole subtree while the
+     * node is detached from the schema (deleted, or an undone paste/duplicate), nothing beyond
+     * the command itself while the node is part of the live model.
+     *
+     * @param node the node the command holds, may be {@code null}
+     * @return the approximate retained bytes
+     */
+    static long retainedBytes(XsdNode node) {
+        if (node == null || node.getParent() != null) {
+            return RetainedSize.COMMAND_OVERHEAD;
+        }
+        return RetainedSize.COMMAND_OVERHEAD + RetainedSize.ofTree(node, XsdNode::getChildren,
+                XsdCommand::ownBytes);
+    }
+
+    private static long ownBytes(XsdNode node) {
+        long bytes = RetainedSize.NODE_OVERHEAD + RetainedSize.ofString(node.getName())
+                + RetainedSize.ofString(node.getDocumentation());
+        for (XsdDocumentation documentation : node.getDocumentations()) {
+            bytes += 32 + RetainedSize.ofString(documentation.getText())
+                    + RetainedSize.ofString(documentation.getLang()) + RetainedSize.ofString(documentation.getSource());
+        }
+        XsdAppInfo appinfo = node.getAppinfo();
+        if (appinfo != null) {
+            for (XsdAppInfo.AppInfoEntry entry : appinfo.getEntries()) {
+                bytes += 32 + RetainedSize.ofString(entry.getSource()) + RetainedSize.ofString(entry.getTag())
+                        + RetainedSize.ofString(entry.getContent()) + RetainedSize.ofString(entry.getRawXml());
+            }
+        }
+        if (node instanceof XsdElement element) {
+            bytes += RetainedSize.ofString(element.getType()) + RetainedSize.ofString(element.getRef())
+                    + RetainedSize.ofString(element.getFixed()) + RetainedSize.ofString(element.getDefaultValue())
+                    + RetainedSize.ofString(element.getSubstitutionGroup())
+                    + RetainedSize.ofString(element.getForm()) + RetainedSize.ofString(element.getBlock())
+                    + ofStrings(element.getPatterns()) + ofStrings(element.getEnumerations())
+                    + ofStrings(element.getAssertions());
+        } else if (node instanceof XsdAttribute attribute) {
+            bytes += RetainedSize.ofString(attribute.getType()) + RetainedSize.ofString(attribute.getUse())
+                    + RetainedSize.ofString(attribute.getFixed()) + RetainedSize.ofString(attribute.getDefaultValue())
+                    + RetainedSize.ofString(attribute.getForm()) + RetainedSize.ofString(attribute.getRef());
+        } else if (node instanceof XsdRestriction restriction) {
+            // the facets are children as well and counted when the walk reaches them
+            bytes += RetainedSize.ofString(restriction.getBase()) + 8L * restriction.getFacets().size();
+        } else if (node instanceof XsdFacet facet) {
+            bytes += RetainedSize.ofString(facet.getValue());
+        }
+        return bytes;
+    }
+
+    private static long ofStrings(List<String> values) {
+        long bytes = 0;
+        for (String value : values) {
+            bytes += 8 + RetainedSize.ofString(value);
+        }
+        return bytes;
+    }
 }
@@ -50,6 +50,11 @@ public final class XsdMergedCommand implements XsdCommand {
         return first.canUndo() && second.canUndo();
     }
 
+    @Override
+    public long estimatedRetainedBytes() {
+        return first.estimatedRetainedBytes() + second.estimatedRetainedBytes();
+    }
+
     @Override
     public boolean canMergeWith(XsdCommand other) {
         return second.canMergeWith(other);
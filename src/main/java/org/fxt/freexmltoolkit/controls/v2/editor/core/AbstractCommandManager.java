@@ -3,7 +3,11 @@ package org.fxt.freexmltoolkit.controls.v2.editor.core;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayDeque;
+import java.util.Collections;
 import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -24,8 +28,17 @@ import org.apache.logging.log4j.Logger;
  *   <li>dirty - boolean, fires when document is modified</li>
  *   <li>undoDescription - String, description of next undo command</li>
  *   <li>redoDescription - String, description of next redo command</li>
+ *   <li>commandApplied - T, fires after a command was executed, undone or redone</li>
+ *   <li>historyBytes - Long, fires when the estimated memory held by the history changes</li>
  * </ul>
  *
+ * <p><strong>Memory budget:</strong> besides the command-count limit, the history is
+ * bounded by the bytes its commands retain ({@link Command#estimatedRetainedBytes()},
+ * re-estimated whenever a command changes stacks). When the total exceeds the budget the
+ * oldest undo steps are dropped first, then the furthest redo steps; the next undo and
+ * redo step are always kept. The default budget is 64 MB per manager and can be changed
+ * with {@code -Dfxt.undo.historyBudgetMb}.</p>
+ *
  * @param <T> the type of command this manager handles
  * @since 2.0
  */
@@ -38,21 +51,49 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
      */
     private static final int DEFAULT_HISTORY_LIMIT = 100;
 
+    /**
+     * Default memory budget of one history (64 MB unless overridden by system property).
+     */
+    private static final long DEFAULT_MEMORY_BUDGET = Long.getLong("fxt.undo.historyBudgetMb", 64) * 1024 * 1024;
+
+    /**
+     * All live managers, for the application-wide footprint; weak so closed editors drop out.
+     */
+    private static final Set<AbstractCommandManager<?>> LIVE_MANAGERS =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    /**
+     * A command in the history together with the bytes it was estimated to retain
+     * when it was pushed.
+     */
+    private record Entry<C>(C command, long bytes) {
+    }
+
     /**
      * Stack of commands that can be undone.
      */
-    private final Deque<T> undoStack = new ArrayDeque<>();
+    private final Deque<Entry<T>> undoStack = new ArrayDeque<>();
 
     /**
      * Stack of commands that can be redone.
      */
-    private final Deque<T> redoStack = new ArrayDeque<>();
+    private final Deque<Entry<T>> redoStack = new ArrayDeque<>();
 
     /**
      * Maximum number of commands to keep in history.
      */
     private int historyLimit;
 
+    /**
+     * Maximum estimated bytes the undo and redo stacks may retain together.
+     */
+    private long memoryBudget = DEFAULT_MEMORY_BUDGET;
+
+    /**
+     * Sum of the entry estimates on both stacks.
+     */
+    private volatile long historyBytes;
+
     /**
      * Dirty flag - true if document has unsaved changes.
      */
@@ -80,6 +121,7 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
             throw new IllegalArgumentException("History limit must be at least 1");
         }
         this.historyLimit = historyLimit;
+        LIVE_MANAGERS.add(this);
     }
 
     // ==================== Command Execution ====================
@@ -118,15 +160,17 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
 
         // Try to merge with previous command (AFTER execution)
         if (!undoStack.isEmpty()) {
-            T lastCommand = undoStack.peek();
+            T lastCommand = undoStack.peek().command();
             if (lastCommand.canMergeWith(command)) {
                 T merged = lastCommand.mergeWith(command);
-                undoStack.pop();
-                undoStack.push(merged);
+                pop(undoStack);
                 // Clear redo stack on new command
-                redoStack.clear();
+                clearStack(redoStack);
+                push(undoStack, merged);
+                trimHistory();
                 setDirty(true);
                 firePropertyChanges();
+                fireCommandApplied(command);
                 logger.debug("Merged command with previous: {}", merged.getDescription());
                 return true;
             }
@@ -135,23 +179,21 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
         // Not mergeable, add as new command
         // (command was already executed above)
 
-        // Add to undo stack
-        undoStack.push(command);
+        // Clear redo stack
+        clearStack(redoStack);
 
-        // Enforce history limit
-        if (undoStack.size() > historyLimit) {
-            undoStack.removeLast();
-            logger.debug("History limit reached, removed oldest command");
-        }
+        // Add to undo stack
+        push(undoStack, command);
 
-        // Clear redo stack
-        redoStack.clear();
+        // Enforce history limit and memory budget
+        trimHistory();
 
         // Set dirty flag
         setDirty(true);
 
         // Fire property changes
         firePropertyChanges();
+        fireCommandApplied(command);
 
         logger.debug("Command executed successfully: {}", command.getDescription());
 
@@ -169,19 +211,21 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
             return false;
         }
 
-        T command = undoStack.pop();
+        T command = pop(undoStack);
         logger.debug("Undoing command: {}", command.getDescription());
 
         boolean success = command.undo();
 
         if (success) {
-            redoStack.push(command);
+            push(redoStack, command);
+            trimHistory();
             setDirty(true);
             firePropertyChanges();
+            fireCommandApplied(command);
             logger.debug("Command undone successfully: {}", command.getDescription());
         } else {
             // Restore command to undo stack if undo failed
-            undoStack.push(command);
+            push(undoStack, command);
             logger.error("Undo failed: {}", command.getDescription());
         }
 
@@ -199,19 +243,21 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
             return false;
         }
 
-        T command = redoStack.pop();
+        T command = pop(redoStack);
         logger.debug("Redoing command: {}", command.getDescription());
 
         boolean success = command.execute();
 
         if (success) {
-            undoStack.push(command);
+            push(undoStack, command);
+            trimHistory();
             setDirty(true);
             firePropertyChanges();
+            fireCommandApplied(command);
             logger.debug("Command redone successfully: {}", command.getDescription());
         } else {
             // Restore command to redo stack if execute failed
-            redoStack.push(command);
+            push(redoStack, command);
             logger.error("Redo failed: {}", command.getDescription());
         }
 
@@ -226,7 +272,7 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
      * @return true if there are commands to undo
      */
     public boolean canUndo() {
-        return !undoStack.isEmpty() && undoStack.peek().canUndo();
+        return !undoStack.isEmpty() && undoStack.peek().command().canUndo();
     }
 
     /**
@@ -247,7 +293,7 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
         if (!canUndo()) {
             return null;
         }
-        return undoStack.peek().getDescription();
+        return undoStack.peek().command().getDescription();
     }
 
     /**
@@ -259,7 +305,7 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
         if (!canRedo()) {
             return null;
         }
-        return redoStack.peek().getDescription();
+        return redoStack.peek().command().getDescription();
     }
 
     /**
@@ -280,6 +326,15 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
         return redoStack.size();
     }
 
+    /**
+     * Returns the estimated bytes retained by the undo and redo history together.
+     *
+     * @return the history's approximate memory footprint
+     */
+    public long getHistoryBytes() {
+        return historyBytes;
+    }
+
     // ==================== History Management ====================
 
     /**
@@ -289,8 +344,8 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
         boolean hadUndo = canUndo();
         boolean hadRedo = canRedo();
 
-        undoStack.clear();
-        redoStack.clear();
+        clearStack(undoStack);
+        clearStack(redoStack);
 
         if (hadUndo || hadRedo) {
             firePropertyChanges();
@@ -328,11 +383,118 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
         this.historyLimit = historyLimit;
 
         // Trim undo stack if needed
+        trimHistory();
+    }
+
+    /**
+     * Returns the memory budget of the history.
+     *
+     * @return the maximum estimated bytes the undo and redo stacks may retain
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Sets the memory budget of the history and trims it if needed.
+     *
+     * @param memoryBudget the new budget in bytes (must be > 0)
+     */
+    public void setMemoryBudget(long memoryBudget) {
+        if (memoryBudget <= 0) {
+            throw new IllegalArgumentException("Memory budget must be > 0");
+        }
+        this.memoryBudget = memoryBudget;
+        trimHistory();
+    }
+
+    /**
+     * Pushes a command onto a stack, estimating what it retains in its current state.
+     */
+    private void push(Deque<Entry<T>> stack, T command) {
+        long bytes = Math.max(0, command.estimatedRetainedBytes());
+        stack.push(new Entry<>(command, bytes));
+        addHistoryBytes(bytes);
+    }
+
+    private T pop(Deque<Entry<T>> stack) {
+        Entry<T> entry = stack.pop();
+        addHistoryBytes(-entry.bytes());
+        return entry.command();
+    }
+
+    private void clearStack(Deque<Entry<T>> stack) {
+        long bytes = 0;
+        for (Entry<T> entry : stack) {
+            bytes += entry.bytes();
+        }
+        stack.clear();
+        addHistoryBytes(-bytes);
+    }
+
+    /**
+     * Enforces the command-count limit on the undo stack, then the memory budget:
+     * oldest undo steps first, then the redo steps furthest from the current state.
+     */
+    private void trimHistory() {
         while (undoStack.size() > historyLimit) {
-            undoStack.removeLast();
+            addHistoryBytes(-undoStack.removeLast().bytes());
+            logger.debug("History limit reached, removed oldest command");
+        }
+        while (historyBytes > memoryBudget) {
+            Entry<T> evicted;
+            if (undoStack.size() > 1) {
+                evicted = undoStack.removeLast();
+            } else if (redoStack.size() > 1) {
+                evicted = redoStack.removeLast();
+            } else {
+                break;
+            }
+            addHistoryBytes(-evicted.bytes());
+            logger.debug("History memory budget reached, removed '{}' ({} bytes)",
+                    evicted.command().getDescription(), evicted.bytes());
+        }
+    }
+
+    private void addHistoryBytes(long delta) {
+        if (delta != 0) {
+            long old = historyBytes;
+            historyBytes = old + delta;
+            pcs.firePropertyChange("historyBytes", old, historyBytes);
         }
     }
 
+    // ==================== Application-wide Footprint ====================
+
+    /**
+     * Memory held by the undo histories of all open editors.
+     *
+     * @param managers the number of live command managers
+     * @param commands the number of commands on their undo and redo stacks
+     * @param bytes    the estimated bytes those commands retain
+     */
+    public record HistoryFootprint(int managers, int commands, long bytes) {
+    }
+
+    /**
+     * Sums the history footprint of every live command manager (XSD and XML editors).
+     *
+     * @return the application-wide undo history footprint
+     */
+    public static HistoryFootprint totalFootprint() {
+        List<AbstractCommandManager<?>> managers;
+        synchronized (LIVE_MANAGERS) {
+            managers = List.copyOf(LIVE_MANAGERS);
+        }
+        int commands = 0;
+        long bytes = 0;
+        for (AbstractCommandManager<?> manager : managers) {
+            commands += manager.undoStack.size() + manager.redoStack.size();
+            bytes += manager.historyBytes;
+        }
+        return new HistoryFootprint(managers.size(), commands, bytes);
+    }
+
     // ==================== Dirty Flag ====================
 
     /**
@@ -406,10 +568,20 @@ public abstract class AbstractCommandManager<T extends Command<T>> {
         pcs.firePropertyChange("redoDescription", null, getRedoDescription());
     }
 
+    /**
+     * Fires the "commandApplied" event for a command that changed the model.
+     *
+     * @param command the executed, undone or redone command
+     */
+    protected void fireCommandApplied(T command) {
+        pcs.firePropertyChange("commandApplied", null, command);
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "[undoStack=" + undoStack.size() +
                 ", redoStack=" + redoStack.size() +
+                ", historyBytes=" + historyBytes +
                 ", dirty=" + dirty + "]";
     }
 }
@@ -42,6 +42,20 @@ public interface Command<T extends Command<T>> {
         return true;
     }
 
+    /**
+     * Estimates the bytes this command keeps reachable on its own while it sits in the
+     * undo or redo history. Commands that hold a detached subtree (a deleted node, an
+     * undone paste) should report that subtree; state shared with the live model does not
+     * count. The command manager calls this whenever the command moves between stacks,
+     * so the answer may depend on whether the command is currently executed or undone.
+     *
+     * @return the approximate retained bytes
+     * @see RetainedSize
+     */
+    default long estimatedRetainedBytes() {
+        return RetainedSize.COMMAND_OVERHEAD;
+    }
+
     /**
      * Checks if this command can be merged with another command.
      * Merging is used to combine similar consecutive operations
@@ -71,6 +71,29 @@ public abstract class EditorEvent {
         return timestamp;
     }
 
+    /**
+     * Returns the key under which pending events of a coalescing type are merged by the
+     * {@link EditorEventBus}. Two pending events with equal keys are delivered as one.
+     * The default key is the event type, i.e. the latest event of a type wins.
+     *
+     * @return the coalescing key, never {@code null}
+     */
+    public Object getCoalescingKey() {
+        return type;
+    }
+
+    /**
+     * Merges this (newer) event with an older pending event of the same coalescing key.
+     * The default keeps the newer event; subclasses override this when the older event
+     * carries state that must survive, such as the text before a burst of changes.
+     *
+     * @param older the pending event published before this one
+     * @return the event to deliver in place of both
+     */
+    public EditorEvent coalesceWith(EditorEvent older) {
+        return this;
+    }
+
     @Override
     public String toString() {
         return getClass().getSimpleName() + "{type=" + type + ", timestamp=" + timestamp + "}";
@@ -114,6 +137,17 @@ public abstract class EditorEvent {
         public String getNewText() {
             return newText;
         }
+
+        /**
+         * Keeps the text before the first change of a coalesced burst.
+         */
+        @Override
+        public EditorEvent coalesceWith(EditorEvent older) {
+            if (older instanceof TextChangedEvent olderChange) {
+                return new TextChangedEvent(olderChange.oldText, newText);
+            }
+            return this;
+        }
     }
 
     /**
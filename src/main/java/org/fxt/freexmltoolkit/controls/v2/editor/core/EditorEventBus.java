@@ -1,10 +1,16 @@
 package org.fxt.freexmltoolkit.controls.v2.editor.core;
 
+import java.time.Duration;
+import java.util.Collections;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import javafx.application.Platform;
 
@@ -15,13 +21,33 @@ import org.apache.logging.log4j.Logger;
  * Event bus for editor events.
  * Provides publish-subscribe mechanism for loose coupling between editor components.
  *
- * <p>Thread-safe implementation using CopyOnWriteArrayList for listeners.
- * Events can be published from any thread and will be delivered on JavaFX Application Thread.</p>
+ * <p>Published events are not handed to the FX queue one by one. They wait in a pending queue
+ * that is drained by a single scheduled task, so a burst of events costs one
+ * {@code Platform.runLater} per frame instead of one per event. How pending events of a type are
+ * treated is controlled by its {@link DeliveryPolicy}: {@code ORDERED} events are all delivered in
+ * publish order, {@code COALESCE} events with the same {@link EditorEvent#getCoalescingKey() key}
+ * are merged while they wait.</p>
+ *
+ * <p>The queue is bounded, and no event is ever dropped. When it is full, the UI thread delivers
+ * the pending events inline; other threads wait up to {@link #BACK_PRESSURE_TIMEOUT} for the next
+ * delivery pass and, if the UI thread is still busy then, queue the event beyond the bound until
+ * the backlog has been delivered. {@code COALESCE} events that merge into a pending entry need no
+ * room; the merged entry moves behind the events published before it.</p>
  */
 public class EditorEventBus {
 
     private static final Logger logger = LogManager.getLogger(EditorEventBus.class);
 
+    /**
+     * Default maximum number of pending events.
+     */
+    static final int DEFAULT_MAX_PENDING = 10_000;
+
+    /**
+     * How long a publisher off the UI thread waits for room in a full queue.
+     */
+    static final Duration BACK_PRESSURE_TIMEOUT = Duration.ofMillis(50);
+
     /**
      * Listener interface for editor events.
      */
@@ -35,24 +61,86 @@ public class EditorEventBus {
         void onEvent(EditorEvent event);
     }
 
+    /**
+     * How pending events of a type are queued until delivery.
+     */
+    public enum DeliveryPolicy {
+        /** Every event is delivered, in publish order. */
+        ORDERED,
+
+        /** Pending events with the same coalescing key are merged into one. */
+        COALESCE
+    }
+
+    /**
+     * Delivery statistics, for tests and diagnostics.
+     *
+     * @param published            events accepted for delivery
+     * @param coalesced            events merged into an already pending event
+     * @param overflowed           events queued beyond the bound because the UI thread did not
+     *                             catch up within the back-pressure timeout
+     * @param delivered            events handed to listeners
+     * @param batches              delivery passes
+     * @param queueDepth           events currently pending
+     * @param maxQueueDepth        highest number of pending events seen
+     * @param averageLatencyMillis mean time from publishing to delivery
+     * @param maxLatencyMillis     longest time from publishing to delivery
+     */
+    public record Metrics(long published, long coalesced, long overflowed, long delivered, long batches,
+                   int queueDepth, int maxQueueDepth,
+                   double averageLatencyMillis, double maxLatencyMillis) {
+    }
+
+    private record CoalescingKey(EditorEvent.Type type, Object key) {
+    }
+
     // Map of event type to listeners
     private final Map<EditorEvent.Type, List<EventListener>> listeners = new EnumMap<>(EditorEvent.Type.class);
 
+    private final Map<EditorEvent.Type, DeliveryPolicy> policies =
+            Collections.synchronizedMap(new EnumMap<>(EditorEvent.Type.class));
+
+    private final DeliveryQueue queue;
+    private final BooleanSupplier uiThreadCheck;
+    private final int maxPending;
+
     // Flag to enable/disable event logging
-    private boolean loggingEnabled = false;
+    private volatile boolean loggingEnabled = false;
 
     /**
      * Creates a new event bus.
      */
     public EditorEventBus() {
+        this(Platform::runLater, Platform::isFxApplicationThread, DEFAULT_MAX_PENDING);
+    }
+
+    /**
+     * Creates an event bus with an explicit executor, used by tests.
+     *
+     * @param uiExecutor    runs delivery passes
+     * @param uiThreadCheck tells whether the current thread is the UI thread
+     * @param maxPending    maximum number of pending events
+     */
+    EditorEventBus(Executor uiExecutor, BooleanSupplier uiThreadCheck, int maxPending) {
+        this.uiThreadCheck = uiThreadCheck;
+        this.maxPending = maxPending;
+        this.queue = new DeliveryQueue(uiExecutor);
+
         // Initialize listener lists for all event types
         for (EditorEvent.Type type : EditorEvent.Type.values()) {
             listeners.put(type, new CopyOnWriteArrayList<>());
+            policies.put(type, DeliveryPolicy.ORDERED);
         }
+        // High-frequency state events: only the latest state matters to listeners
+        policies.put(EditorEvent.Type.TEXT_CHANGED, DeliveryPolicy.COALESCE);
+        policies.put(EditorEvent.Type.CARET_MOVED, DeliveryPolicy.COALESCE);
+        policies.put(EditorEvent.Type.VALIDATION_COMPLETED, DeliveryPolicy.COALESCE);
+        policies.put(EditorEvent.Type.INTELLISENSE_STATE_CHANGED, DeliveryPolicy.COALESCE);
+        policies.put(EditorEvent.Type.FOLDING_UPDATED, DeliveryPolicy.COALESCE);
     }
 
     /**
-     * Subscribes a listener for a specific event type.
+     * Subscribes a listener for a specific event type, delivered on the UI thread.
      *
      * @param type     the event type to listen for
      * @param listener the listener to register
@@ -79,9 +167,32 @@ public class EditorEventBus {
         logger.debug("Unsubscribed listener from event type: {}", type);
     }
 
+    /**
+     * Sets how pending events of a type are queued.
+     *
+     * @param type   the event type
+     * @param policy the delivery policy
+     */
+    public void setDeliveryPolicy(EditorEvent.Type type, DeliveryPolicy policy) {
+        Objects.requireNonNull(type, "Event type cannot be null");
+        Objects.requireNonNull(policy, "Delivery policy cannot be null");
+        policies.put(type, policy);
+    }
+
+    /**
+     * Returns the delivery policy of an event type.
+     *
+     * @param type the event type
+     * @return the delivery policy
+     */
+    public DeliveryPolicy getDeliveryPolicy(EditorEvent.Type type) {
+        Objects.requireNonNull(type, "Event type cannot be null");
+        return policies.get(type);
+    }
+
     /**
      * Publishes an event to all registered listeners.
-     * Events are delivered on the JavaFX Application Thread.
+     * The event is queued and delivered with the next delivery pass.
      *
      * @param event the event to publish
      */
@@ -92,21 +203,9 @@ public class EditorEventBus {
             logger.debug("Publishing event: {}", event);
         }
 
-        List<EventListener> eventListeners = listeners.get(event.getType());
-        if (eventListeners.isEmpty()) {
-            return;
+        if (!listeners.get(event.getType()).isEmpty()) {
+            queue.enqueue(event);
         }
-
-        // Deliver on JavaFX thread
-        Platform.runLater(() -> {
-            for (EventListener listener : eventListeners) {
-                try {
-                    listener.onEvent(event);
-                } catch (Exception e) {
-                    logger.error("Error delivering event {} to listener: {}", event, e.getMessage(), e);
-                }
-            }
-        });
     }
 
     /**
@@ -122,16 +221,20 @@ public class EditorEventBus {
             logger.debug("Publishing event (sync): {}", event);
         }
 
-        List<EventListener> eventListeners = listeners.get(event.getType());
-        for (EventListener listener : eventListeners) {
-            try {
-                listener.onEvent(event);
-            } catch (Exception e) {
-                logger.error("Error delivering event {} to listener: {}", event, e.getMessage(), e);
-            }
+        for (EventListener listener : listeners.get(event.getType())) {
+            deliver(listener, event);
         }
     }
 
+    /**
+     * Returns the delivery statistics.
+     *
+     * @return a snapshot of the metrics
+     */
+    public Metrics getMetrics() {
+        return queue.snapshot();
+    }
+
     /**
      * Clears all listeners for a specific event type.
      *
@@ -171,4 +274,200 @@ public class EditorEventBus {
         this.loggingEnabled = enabled;
         logger.debug("Event logging {}", enabled ? "enabled" : "disabled");
     }
+
+    private void deliver(EventListener listener, EditorEvent event) {
+        try {
+            listener.onEvent(event);
+        } catch (Exception e) {
+            logger.error("Error delivering event {} to listener: {}", event, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * An event waiting for delivery. The event is replaced when a newer one is coalesced into it;
+     * the enqueue time of the first event is kept so latency covers the whole wait.
+     */
+    private static final class Pending {
+        private EditorEvent event;
+        private final long enqueuedNanos;
+
+        private Pending(EditorEvent event, long enqueuedNanos) {
+            this.event = event;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    /**
+     * Pending events. At most one delivery pass is scheduled or running at a time; events
+     * published meanwhile are picked up by the following pass.
+     */
+    private final class DeliveryQueue {
+        private final Executor executor;
+        private final Object lock = new Object();
+
+        // Guarded by lock
+        private Map<Object, Pending> pending = new LinkedHashMap<>();
+        private boolean drainScheduled;
+        private long sequence;
+        private long published;
+        private long coalesced;
+        private long overflowed;
+        private long delivered;
+        private long batches;
+        private int maxQueueDepth;
+        private long totalLatencyNanos;
+        private long maxLatencyNanos;
+        // Set while the queue is beyond its bound, so publishers wait and log only once per backlog
+        private boolean overflowing;
+
+        // Thread currently running a delivery pass, used to detect re-entrant publishing
+        private volatile Thread drainingThread;
+
+        private DeliveryQueue(Executor executor) {
+            this.executor = executor;
+        }
+
+        void enqueue(EditorEvent event) {
+            boolean coalesce = policies.get(event.getType()) == DeliveryPolicy.COALESCE;
+            if (!coalesce) {
+                awaitRoom();
+            }
+            boolean schedule;
+            synchronized (lock) {
+                published++;
+                if (coalesce) {
+                    CoalescingKey key = new CoalescingKey(event.getType(), event.getCoalescingKey());
+                    // Re-inserted so the merged event keeps its place after earlier ORDERED events
+                    Pending existing = pending.remove(key);
+                    if (existing != null) {
+                        existing.event = event.coalesceWith(existing.event);
+                        pending.put(key, existing);
+                        coalesced++;
+                    } else {
+                        pending.put(key, new Pending(event, System.nanoTime()));
+                    }
+                } else {
+                    pending.put(sequence++, new Pending(event, System.nanoTime()));
+                }
+                maxQueueDepth = Math.max(maxQueueDepth, pending.size());
+                schedule = !drainScheduled;
+                drainScheduled = true;
+            }
+            if (schedule) {
+                executor.execute(this::drain);
+            }
+        }
+
+        /**
+         * Keeps the queue bounded without losing events. The UI thread delivers the backlog
+         * inline; a listener publishing from within a pass simply enqueues; any other publisher
+         * waits briefly for the next pass and then queues beyond the bound, which is counted in
+         * the metrics. Until that backlog is delivered, further publishers do not wait again.
+         */
+        private void awaitRoom() {
+            if (drainingThread == Thread.currentThread()) {
+                return;
+            }
+            synchronized (lock) {
+                if (pending.size() < maxPending) {
+                    return;
+                }
+            }
+            if (uiThreadCheck.getAsBoolean()) {
+                logger.debug("Editor event queue full ({} events), delivering inline", maxPending);
+                deliverPending();
+                return;
+            }
+            long deadline = System.nanoTime() + BACK_PRESSURE_TIMEOUT.toNanos();
+            synchronized (lock) {
+                while (pending.size() >= maxPending && !overflowing) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        overflowing = true;
+                        logger.warn("Editor event queue is full ({} events) and the UI thread is busy, "
+                                + "queueing beyond the limit", maxPending);
+                        break;
+                    }
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                }
+                if (pending.size() >= maxPending) {
+                    overflowed++;
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                deliverPending();
+            } finally {
+                boolean reschedule;
+                synchronized (lock) {
+                    reschedule = !pending.isEmpty();
+                    drainScheduled = reschedule;
+                }
+                if (reschedule) {
+                    executor.execute(this::drain);
+                }
+            }
+        }
+
+        private void deliverPending() {
+            Map<Object, Pending> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+                overflowing = false;
+                lock.notifyAll();
+            }
+
+            long start = System.nanoTime();
+            long batchLatencyNanos = 0;
+            long batchMaxLatencyNanos = 0;
+            for (Pending entry : batch.values()) {
+                long latency = start - entry.enqueuedNanos;
+                batchLatencyNanos += latency;
+                batchMaxLatencyNanos = Math.max(batchMaxLatencyNanos, latency);
+            }
+
+            Thread previous = drainingThread;
+            drainingThread = Thread.currentThread();
+            try {
+                // Listeners see the events in publish order across types
+                for (Pending entry : batch.values()) {
+                    for (EventListener listener : listeners.get(entry.event.getType())) {
+                        deliver(listener, entry.event);
+                    }
+                }
+            } finally {
+                drainingThread = previous;
+            }
+
+            if (loggingEnabled) {
+                logger.debug("Delivered {} editor events in {} ms", batch.size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+            synchronized (lock) {
+                delivered += batch.size();
+                batches++;
+                totalLatencyNanos += batchLatencyNanos;
+                maxLatencyNanos = Math.max(maxLatencyNanos, batchMaxLatencyNanos);
+            }
+        }
+
+        Metrics snapshot() {
+            synchronized (lock) {
+                double average = delivered == 0 ? 0 : totalLatencyNanos / (double) delivered / 1_000_000.0;
+                return new Metrics(published, coalesced, overflowed, delivered, batches, pending.size(), maxQueueDepth,
+                        average, maxLatencyNanos / 1_000_000.0);
+            }
+        }
+    }
 }
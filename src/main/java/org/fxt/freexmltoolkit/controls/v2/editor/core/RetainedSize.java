@@ -0,0 +1,70 @@
+package org.fxt.freexmltoolkit.controls.v2.editor.core;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rough retained-size arithmetic for undo history entries.
+ *
+ * <p>The numbers are estimates of what a command keeps reachable on its own (object
+ * headers, fields, collections and string payloads), good enough to budget the history
+ * by bytes; they are not a substitute for a heap dump.</p>
+ *
+ * @since 2.0
+ */
+public final class RetainedSize {
+
+    /** Fixed cost of a command object with a handful of fields. */
+    public static final long COMMAND_OVERHEAD = 64;
+
+    /**
+     * Cost of one model node excluding its strings: the node object, its child list,
+     * its PropertyChangeSupport and listener registrations.
+     */
+    public static final long NODE_OVERHEAD = 256;
+
+    private RetainedSize() {
+    }
+
+    /**
+     * @param value a string, may be {@code null}
+     * @return the approximate bytes of the string object and its (UTF-16 worst case) payload
+     */
+    public static long ofString(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+
+    /**
+     * Sums the bytes of a node tree, walking it iteratively so deep trees cannot overflow
+     * the stack.
+     *
+     * @param root     the subtree root, may be {@code null}
+     * @param children the children of a node
+     * @param ownBytes the bytes of a single node without its children
+     * @param <N>      the node type
+     * @return the approximate bytes retained by the subtree
+     */
+    public static <N> long ofTree(N root, Function<? super N, ? extends Collection<? extends N>> children,
+                                  ToLongFunction<? super N> ownBytes) {
+        if (root == null) {
+            return 0;
+        }
+        long total = 0;
+        Deque<N> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            N node = pending.pop();
+            total += ownBytes.applyAsLong(node);
+            Collection<? extends N> nested = children.apply(node);
+            if (nested != null) {
+                for (N child : nested) {
+                    pending.push(child);
+                }
+            }
+        }
+        return total;
+    }
+}
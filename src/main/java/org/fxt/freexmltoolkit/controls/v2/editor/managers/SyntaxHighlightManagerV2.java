@@ -1,9 +1,7 @@
 package org.fxt.freexmltoolkit.controls.v2.editor.managers;
 
 import java.util.Collection;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import javafx.application.Platform;
@@ -13,6 +11,8 @@ import org.apache.logging.log4j.Logger;
 import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.model.StyleSpans;
 import org.fxt.freexmltoolkit.controls.shared.XmlSyntaxHighlighter;
+import org.fxt.freexmltoolkit.service.ManagedExecutor;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 
 /**
  * Syntax highlighting manager for XmlCodeEditorV2.
@@ -21,7 +21,7 @@ import org.fxt.freexmltoolkit.controls.shared.XmlSyntaxHighlighter;
  * <p>Features:</p>
  * <ul>
  *   <li>XML syntax highlighting (tags, attributes, values, comments, CDATA)</li>
- *   <li>Proper debouncing via ScheduledExecutorService (cancels pending tasks)</li>
+ *   <li>Proper debouncing via a delayed task on the shared CPU pool (cancels pending tasks)</li>
  *   <li>Large file mode: longer debounce for files &gt; 500KB</li>
  *   <li>Very large file guard: disables highlighting for files &gt; 2MB</li>
  *   <li>CSS-based styling for flexibility</li>
@@ -39,7 +39,7 @@ public class SyntaxHighlightManagerV2 {
     private static final int VIEWPORT_BUFFER_PARAGRAPHS = 80;
 
     private final CodeArea codeArea;
-    private final ScheduledExecutorService scheduler;
+    private final ManagedExecutor scheduler;
     private final long debounceMillis;
 
     // Optional: CombinedStyleManager for proper syntax+error highlighting
@@ -77,11 +77,8 @@ public class SyntaxHighlightManagerV2 {
     public SyntaxHighlightManagerV2(CodeArea codeArea, long debounceMillis) {
         this.codeArea = codeArea;
         this.debounceMillis = debounceMillis;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "SyntaxHighlightV2");
-            t.setDaemon(true);
-            return t;
-        });
+        this.scheduler = ThreadPoolManager.getInstance().newSerialExecutor(
+                "SyntaxHighlightV2", ThreadPoolManager.TaskCategory.HIGHLIGHT);
 
         // In viewport mode, re-highlight the newly visible region when the user scrolls.
         codeArea.estimatedScrollYProperty().addListener((obs, oldV, newV) -> {
@@ -11,7 +11,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
@@ -28,6 +27,7 @@ import org.fxmisc.richtext.CodeArea;
 import org.fxmisc.richtext.model.StyleSpans;
 import org.fxmisc.richtext.model.StyleSpansBuilder;
 import org.fxt.freexmltoolkit.controls.v2.editor.core.EditorContext;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 import org.fxt.freexmltoolkit.util.SecureXmlFactory;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.SAXException;
@@ -77,11 +77,8 @@ public class ValidationManagerV2 {
     public ValidationManagerV2(EditorContext editorContext) {
         this.editorContext = editorContext;
         this.codeArea = editorContext.getCodeArea();
-        this.executor = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "ValidationV2");
-            t.setDaemon(true);
-            return t;
-        });
+        this.executor = ThreadPoolManager.getInstance().newSerialExecutor(
+                "ValidationV2", ThreadPoolManager.TaskCategory.CPU);
 
         // Pre-create and configure SAXParserFactory (thread-safe after configuration)
         this.cachedSaxParserFactory = org.fxt.freexmltoolkit.util.SecureXmlFactory.createSecureSAXParserFactory();
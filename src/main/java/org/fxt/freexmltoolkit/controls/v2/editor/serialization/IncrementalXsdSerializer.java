@@ -0,0 +1,362 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2026.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.controls.v2.editor.serialization;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdNode;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
+
+/**
+ * Serializes one {@link XsdSchema} repeatedly, re-serializing only what changed.
+ * <p>
+ * After each run the serializer remembers where the text of every node subtree
+ * starts (relative to its parent) and how long it is. It listens to the property
+ * events of every serialized node; an event marks the node and all its ancestors
+ * dirty. The next run re-serializes the dirty nodes and copies the text of every
+ * clean subtree from the previous output, so the formatting work is proportional
+ * to the edited part of the model. The copied spans also give the changed regions
+ * directly: {@link Result#edits()} lists them without diffing the two texts.
+ * <p>
+ * The cache is only used when the text passed to {@link #serialize(String)} is the
+ * text this serializer produced last; otherwise (first run, text edited by the
+ * user) the whole schema is serialized and the edit is found by comparing common
+ * prefix and suffix. The output is always identical to
+ * {@link XsdSerializer#serialize(XsdSchema)}.
+ * <p>
+ * Not thread-safe: model changes and serialization must happen on the same thread
+ * (the FX thread in the editor).
+ *
+ * @since 2.0
+ */
+public final class IncrementalXsdSerializer {
+
+    private static final Logger logger = LogManager.getLogger(IncrementalXsdSerializer.class);
+
+    /**
+     * A replacement of {@code [start, end)} in the previous text.
+     *
+     * @param start       start offset in the previous text
+     * @param end         end offset (exclusive) in the previous text
+     * @param replacement the new text for the region
+     */
+    public record TextEdit(int start, int end, String replacement) {
+    }
+
+    /**
+     * The result of a serialization run.
+     *
+     * @param text  the serialized schema
+     * @param edits the non-overlapping regions of the previous text that changed, in
+     *              ascending order; apply them from last to first. Empty if nothing changed.
+     */
+    public record Result(String text, List<TextEdit> edits) {
+
+        /**
+         * Returns one edit that covers all {@link #edits()}, for callers that want a
+         * single replacement (one undo step). Text between the edits is unchanged and
+         * becomes part of the replacement.
+         *
+         * @return the merged edit, or {@code null} if nothing changed
+         */
+        public TextEdit mergedEdit() {
+            if (edits.isEmpty()) {
+                return null;
+            }
+            TextEdit first = edits.getFirst();
+            TextEdit last = edits.getLast();
+            int delta = 0;
+            for (TextEdit edit : edits) {
+                delta += edit.replacement().length() - (edit.end() - edit.start());
+            }
+            return new TextEdit(first.start(), last.end(), text.substring(first.start(), last.end() + delta));
+        }
+    }
+
+    /** Where the text of a subtree was written in the last output. */
+    private static final class Fragment {
+        XsdNode parent;  // the node it was serialized under, null at schema level
+        int indent;
+        int offset;      // relative to the start of the parent's text
+        int length;
+    }
+
+    /** A node being serialized; {@code oldStart} is -1 if it has no usable span in the last output. */
+    private record Frame(XsdNode node, int indent, int newStart, int oldStart) {
+    }
+
+    private final XsdSchema schema;
+    private final XsdSerializer serializer = new XsdSerializer();
+    private final PropertyChangeListener listener = this::onPropertyChange;
+
+    private final Map<XsdNode, Fragment> fragments = new IdentityHashMap<>();
+    private final Set<XsdNode> observed = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<XsdNode> dirty = Collections.newSetFromMap(new IdentityHashMap<>());
+    private String lastText;
+
+    // State of the current run
+    private final Deque<Frame> stack = new ArrayDeque<>();
+    private final List<int[]> copies = new ArrayList<>(); // {oldStart, oldEnd, newStart}
+    private final Set<XsdNode> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<XsdNode> duplicates = Collections.newSetFromMap(new IdentityHashMap<>());
+    private String runOldText;
+    private int reserialized;
+
+    /**
+     * Creates a serializer for a schema.
+     *
+     * @param schema               the schema model
+     * @param excludeIncludedNodes whether content inlined from xs:include/xs:import is
+     *                             left out (see {@link XsdSerializer#setExcludeIncludedNodes(boolean)})
+     */
+    public IncrementalXsdSerializer(XsdSchema schema, boolean excludeIncludedNodes) {
+        this.schema = schema;
+        serializer.setExcludeIncludedNodes(excludeIncludedNodes);
+        schema.addPropertyChangeListener(listener);
+    }
+
+    /**
+     * Returns the schema this serializer works on.
+     *
+     * @return the schema
+     */
+    public XsdSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * Serializes the schema.
+     *
+     * @param currentText the text the edits will be applied to (usually the editor content)
+     * @return the new text and the edits that turn {@code currentText} into it
+     */
+    public Result serialize(String currentText) {
+        String oldText = currentText != null ? currentText : "";
+        boolean incremental = lastText != null && oldText.equals(lastText);
+        if (!incremental) {
+            clearCache();
+        }
+
+        stack.push(new Frame(null, 0, 0, incremental ? 0 : -1));
+        runOldText = oldText;
+        reserialized = 0;
+        String text;
+        serializer.setSubtreeCache(new Cache());
+        try {
+            text = serializer.serialize(schema);
+        } catch (RuntimeException | Error e) {
+            clearCache();
+            throw e;
+        } finally {
+            serializer.setSubtreeCache(null);
+            stack.clear();
+            visited.clear();
+            duplicates.clear();
+            runOldText = null;
+        }
+
+        List<TextEdit> edits = incremental ? editsFromCopies(oldText, text) : null;
+        if (edits == null) {
+            edits = new ArrayList<>(1);
+            addEdit(edits, oldText, 0, oldText.length(), text, 0, text.length());
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("{} serialization: {} node(s) serialized, {} subtree(s) reused, {} edit(s)",
+                    incremental ? "Incremental" : "Full", reserialized, copies.size(), edits.size());
+        }
+        copies.clear();
+        lastText = text;
+        return new Result(text, List.copyOf(edits));
+    }
+
+    /**
+     * Discards the cached spans; the next run serializes the whole schema.
+     */
+    public void invalidateAll() {
+        clearCache();
+    }
+
+    /**
+     * Stops listening to the model and discards the cache.
+     */
+    public void dispose() {
+        clearCache();
+        schema.removePropertyChangeListener(listener);
+    }
+
+    private void clearCache() {
+        for (XsdNode node : observed) {
+            node.removePropertyChangeListener(listener);
+        }
+        observed.clear();
+        fragments.clear();
+        dirty.clear();
+        lastText = null;
+    }
+
+    private void onPropertyChange(PropertyChangeEvent evt) {
+        if (!(evt.getSource() instanceof XsdNode source)) {
+            return;
+        }
+        if ("children".equals(evt.getPropertyName()) && evt.getOldValue() instanceof List<?> oldChildren) {
+            List<?> newChildren = evt.getNewValue() instanceof List<?> list ? list : List.of();
+            for (Object child : oldChildren) {
+                if (child instanceof XsdNode removed && removed.getParent() == null
+                        && !containsSame(newChildren, removed)) {
+                    forget(removed);
+                }
+            }
+        }
+        // Ancestors embed the text of their descendants, so they change too.
+        for (XsdNode node = source; node != null; node = node.getParent()) {
+            dirty.add(node);
+        }
+    }
+
+    private static boolean containsSame(List<?> list, Object element) {
+        for (Object candidate : list) {
+            if (candidate == element) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Drops a removed subtree from the cache and stops listening to it. */
+    private void forget(XsdNode node) {
+        fragments.remove(node);
+        dirty.remove(node);
+        if (observed.remove(node)) {
+            node.removePropertyChangeListener(listener);
+        }
+        for (XsdNode child : node.getChildren()) {
+            forget(child);
+        }
+    }
+
+    /**
+     * Turns the copied spans into edits: everything between two copies was serialized
+     * again and is compared with the old text it replaces. Returns {@code null} if the
+     * copies are not in their old order (schema children re-sorted), in which case the
+     * caller compares the whole texts.
+     */
+    private List<TextEdit> editsFromCopies(String oldText, String newText) {
+        List<TextEdit> edits = new ArrayList<>();
+        int oldCursor = 0;
+        int newCursor = 0;
+        for (int[] copy : copies) {
+            if (copy[0] < oldCursor) {
+                return null;
+            }
+            addEdit(edits, oldText, oldCursor, copy[0], newText, newCursor, copy[2]);
+            oldCursor = copy[1];
+            newCursor = copy[2] + (copy[1] - copy[0]);
+        }
+        addEdit(edits, oldText, oldCursor, oldText.length(), newText, newCursor, newText.length());
+        return edits;
+    }
+
+    /** Adds the edit replacing {@code old[oldStart, oldEnd)} by {@code new[newStart, newEnd)}, without the unchanged ends. */
+    private static void addEdit(List<TextEdit> edits, String oldText, int oldStart, int oldEnd,
+                                String newText, int newStart, int newEnd) {
+        while (oldStart < oldEnd && newStart < newEnd && oldText.charAt(oldStart) == newText.charAt(newStart)) {
+            oldStart++;
+            newStart++;
+        }
+        while (oldEnd > oldStart && newEnd > newStart && oldText.charAt(oldEnd - 1) == newText.charAt(newEnd - 1)) {
+            oldEnd--;
+            newEnd--;
+        }
+        if (oldStart < oldEnd || newStart < newEnd) {
+            edits.add(new TextEdit(oldStart, oldEnd, newText.substring(newStart, newEnd)));
+        }
+    }
+
+    /** Records spans while {@link XsdSerializer} runs and copies clean subtrees from the last output. */
+    private final class Cache implements XsdSerializer.SubtreeCache {
+
+        @Override
+        public boolean appendCached(XsdNode node, int indent, StringBuilder sb) {
+            if (!visited.add(node)) {
+                duplicates.add(node); // the same node object occurs twice: never cache it
+                return false;
+            }
+            Frame parent = stack.peek();
+            Fragment fragment = fragments.get(node);
+            if (fragment == null || dirty.contains(node) || parent.oldStart() < 0
+                    || fragment.parent != parent.node() || fragment.indent != indent) {
+                return false;
+            }
+            int oldStart = parent.oldStart() + fragment.offset;
+            int newStart = sb.length();
+            // substring + append are two bulk copies; append(CharSequence, int, int) copies char by char
+            sb.append(runOldText.substring(oldStart, oldStart + fragment.length));
+            copies.add(new int[]{oldStart, oldStart + fragment.length, newStart});
+            fragment.offset = newStart - parent.newStart();
+            return true;
+        }
+
+        @Override
+        public void enter(XsdNode node, int indent, int start) {
+            Frame parent = stack.peek();
+            Fragment fragment = fragments.get(node);
+            int oldStart = fragment != null && parent.oldStart() >= 0 && fragment.parent == parent.node()
+                    ? parent.oldStart() + fragment.offset
+                    : -1;
+            stack.push(new Frame(node, indent, start, oldStart));
+            if (observed.add(node)) {
+                node.addPropertyChangeListener(listener);
+            }
+            reserialized++;
+        }
+
+        @Override
+        public void exit(XsdNode node, int end) {
+            Frame frame = stack.pop();
+            if (duplicates.contains(node)) {
+                fragments.remove(node);
+                return;
+            }
+            Frame parent = stack.peek();
+            Fragment fragment = fragments.computeIfAbsent(node, n -> new Fragment());
+            fragment.parent = parent.node();
+            fragment.indent = frame.indent();
+            fragment.offset = frame.newStart() - parent.newStart();
+            fragment.length = end - frame.newStart();
+            dirty.remove(node);
+        }
+
+        @Override
+        public int expectedLength() {
+            // Most runs change little; leave room for growth so a typical edit needs no resize.
+            return runOldText.length() + 4096;
+        }
+    }
+}
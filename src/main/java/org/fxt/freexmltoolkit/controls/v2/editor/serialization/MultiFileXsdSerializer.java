@@ -1,18 +1,24 @@
 package org.fxt.freexmltoolkit.controls.v2.editor.serialization;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.common.utilities.AtomicFileWriter;
 import org.fxt.freexmltoolkit.controls.v2.common.utilities.BackupUtility;
 import org.fxt.freexmltoolkit.controls.v2.editor.XsdEditorContext;
 import org.fxt.freexmltoolkit.controls.v2.model.IncludeSourceInfo;
@@ -52,6 +58,7 @@ import org.fxt.freexmltoolkit.controls.v2.model.XsdUnion;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdUnique;
 import org.fxt.freexmltoolkit.service.PropertiesService;
 import org.fxt.freexmltoolkit.service.PropertiesServiceImpl;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 
 /**
  * Multi-file XSD serializer that preserves the original file structure
@@ -67,6 +74,10 @@ import org.fxt.freexmltoolkit.service.PropertiesServiceImpl;
  *   <li>Writes only nodes that belong to each include file</li>
  *   <li>Creates timestamped backups before overwriting</li>
  *   <li>Supports dirty file tracking for incremental saves</li>
+ *   <li>Streams each file into a temporary file that atomically replaces the target,
+ *       one top-level component at a time instead of building the file as a string</li>
+ *   <li>Writes the files of a save in parallel and leaves files with unchanged
+ *       content (same SHA-256) untouched, without a backup</li>
  * </ul>
  *
  * @since 2.0
@@ -104,14 +115,29 @@ public class MultiFileXsdSerializer {
      * @param errorMessage The error message (if any)
      * @param backupPath The path to the backup file (if created)
      * @param nodeCount The number of nodes saved
+     * @param unchanged Whether the file already had this content and was left untouched
      */
     public record SaveResult(
             Path filePath,
             boolean success,
             String errorMessage,
             Path backupPath,
-            int nodeCount
+            int nodeCount,
+            boolean unchanged
     ) {
+        /**
+         * Creates a save result for a file that was written (or failed to be).
+         *
+         * @param filePath     the path to the file
+         * @param success      whether the save was successful
+         * @param errorMessage the error message (if any)
+         * @param backupPath   the path to the backup file (if created)
+         * @param nodeCount    the number of nodes saved
+         */
+        public SaveResult(Path filePath, boolean success, String errorMessage, Path backupPath, int nodeCount) {
+            this(filePath, success, errorMessage, backupPath, nodeCount, false);
+        }
+
         /**
          * Creates a successful save result.
          * <p>
@@ -141,6 +167,18 @@ public class MultiFileXsdSerializer {
         public static SaveResult failure(Path filePath, String errorMessage) {
             return new SaveResult(filePath, false, errorMessage, null, 0);
         }
+
+        /**
+         * Creates a successful result for a file whose content did not change and
+         * therefore was neither rewritten nor backed up.
+         *
+         * @param filePath  the path to the file
+         * @param nodeCount the number of XSD nodes the file holds
+         * @return a new SaveResult marked as unchanged
+         */
+        public static SaveResult skipped(Path filePath, int nodeCount) {
+            return new SaveResult(filePath, true, null, null, nodeCount, true);
+        }
     }
 
     /**
@@ -166,37 +204,37 @@ public class MultiFileXsdSerializer {
             return Collections.emptyMap();
         }
 
-        Map<Path, SaveResult> results = new LinkedHashMap<>();
-
         // Group nodes by source file
         Map<Path, List<XsdNode>> nodesByFile = groupNodesBySourceFile(schema, effectiveMainPath);
 
         logger.info("Multi-file save: {} files to process", nodesByFile.size());
 
-        // Save the main schema file
-        try {
-            SaveResult mainResult = saveMainSchema(schema, effectiveMainPath, nodesByFile.get(effectiveMainPath));
-            results.put(effectiveMainPath, mainResult);
-        } catch (Exception e) {
-            logger.error("Failed to save main schema: {}", e.getMessage(), e);
-            results.put(effectiveMainPath, SaveResult.failure(effectiveMainPath, e.getMessage()));
-        }
-
-        // Save each included schema file
+        // The main schema and each included schema file are independent: write them in parallel
+        Map<Path, Callable<SaveResult>> jobs = new LinkedHashMap<>();
+        jobs.put(effectiveMainPath, () -> {
+            try {
+                return saveMainSchema(schema, effectiveMainPath, nodesByFile.get(effectiveMainPath));
+            } catch (Exception e) {
+                logger.error("Failed to save main schema: {}", e.getMessage(), e);
+                return SaveResult.failure(effectiveMainPath, e.getMessage());
+            }
+        });
         for (Map.Entry<Path, List<XsdNode>> entry : nodesByFile.entrySet()) {
             Path filePath = entry.getKey();
             if (filePath.equals(effectiveMainPath)) {
-                continue; // Already saved main schema
+                continue; // Main schema is saved above
             }
 
-            try {
-                SaveResult result = saveIncludedSchema(schema, filePath, entry.getValue());
-                results.put(filePath, result);
-            } catch (Exception e) {
-                logger.error("Failed to save included schema {}: {}", filePath, e.getMessage(), e);
-                results.put(filePath, SaveResult.failure(filePath, e.getMessage()));
-            }
+            jobs.put(filePath, () -> {
+                try {
+                    return saveIncludedSchema(schema, filePath, entry.getValue());
+                } catch (Exception e) {
+                    logger.error("Failed to save included schema {}: {}", filePath, e.getMessage(), e);
+                    return SaveResult.failure(filePath, e.getMessage());
+                }
+            });
         }
+        Map<Path, SaveResult> results = runInParallel(jobs);
 
         // Log summary
         long successCount = results.values().stream().filter(SaveResult::success).count();
@@ -223,31 +261,30 @@ public class MultiFileXsdSerializer {
 
         Path mainPath = schema.getMainSchemaPath();
         Map<Path, List<XsdNode>> nodesByFile = groupNodesBySourceFile(schema, mainPath);
-        Map<Path, SaveResult> results = new LinkedHashMap<>();
+        Map<Path, Callable<SaveResult>> jobs = new LinkedHashMap<>();
 
         for (Path filePath : filesToSave) {
             List<XsdNode> nodes = nodesByFile.get(filePath);
             if (nodes == null) {
                 logger.warn("No nodes found for file: {}", filePath);
-                results.put(filePath, SaveResult.failure(filePath, "No nodes found for this file"));
+                jobs.put(filePath, () -> SaveResult.failure(filePath, "No nodes found for this file"));
                 continue;
             }
 
-            try {
-                SaveResult result;
-                if (filePath.equals(mainPath)) {
-                    result = saveMainSchema(schema, mainPath, nodes);
-                } else {
-                    result = saveIncludedSchema(schema, filePath, nodes);
+            jobs.put(filePath, () -> {
+                try {
+                    if (filePath.equals(mainPath)) {
+                        return saveMainSchema(schema, mainPath, nodes);
+                    }
+                    return saveIncludedSchema(schema, filePath, nodes);
+                } catch (Exception e) {
+                    logger.error("Failed to save file {}: {}", filePath, e.getMessage(), e);
+                    return SaveResult.failure(filePath, e.getMessage());
                 }
-                results.put(filePath, result);
-            } catch (Exception e) {
-                logger.error("Failed to save file {}: {}", filePath, e.getMessage(), e);
-                results.put(filePath, SaveResult.failure(filePath, e.getMessage()));
-            }
+            });
         }
 
-        return results;
+        return runInParallel(jobs);
     }
 
     /**
@@ -313,18 +350,17 @@ public class MultiFileXsdSerializer {
      */
     private SaveResult saveMainSchema(XsdSchema schema, Path mainPath, List<XsdNode> mainNodes)
             throws IOException {
-        Path backupPath = null;
-        if (createBackups && Files.exists(mainPath)) {
-            backupPath = createBackup(mainPath);
+        int nodeCount = mainNodes != null ? mainNodes.size() : 0;
+        AtomicFileWriter.Result written = AtomicFileWriter.write(mainPath, StandardCharsets.UTF_8,
+                out -> writeMainSchema(schema, mainNodes, out), createBackups ? this::createBackup : null);
+        if (!written.written()) {
+            logger.info("Main schema {} unchanged, not rewritten", mainPath);
+            return SaveResult.skipped(mainPath, nodeCount);
         }
 
-        String content = serializeMainSchema(schema, mainNodes);
-        Files.writeString(mainPath, content);
+        logger.info("Saved main schema to {} ({} nodes)", mainPath, nodeCount);
 
-        logger.info("Saved main schema to {} ({} nodes)", mainPath,
-                mainNodes != null ? mainNodes.size() : 0);
-
-        return SaveResult.success(mainPath, backupPath, mainNodes != null ? mainNodes.size() : 0);
+        return SaveResult.success(mainPath, written.backupPath(), nodeCount);
     }
 
     /**
@@ -332,23 +368,74 @@ public class MultiFileXsdSerializer {
      */
     private SaveResult saveIncludedSchema(XsdSchema schema, Path filePath, List<XsdNode> nodes)
             throws IOException {
-        Path backupPath = null;
-        if (createBackups && Files.exists(filePath)) {
-            backupPath = createBackup(filePath);
+        AtomicFileWriter.Result written = AtomicFileWriter.write(filePath, StandardCharsets.UTF_8,
+                out -> writeIncludedSchema(schema, nodes, out), createBackups ? this::createBackup : null);
+        if (!written.written()) {
+            logger.info("Included schema {} unchanged, not rewritten", filePath);
+            return SaveResult.skipped(filePath, nodes.size());
         }
 
-        String content = serializeIncludedSchema(schema, nodes);
-        Files.writeString(filePath, content);
-
         logger.info("Saved included schema to {} ({} nodes)", filePath, nodes.size());
 
-        return SaveResult.success(filePath, backupPath, nodes.size());
+        return SaveResult.success(filePath, written.backupPath(), nodes.size());
+    }
+
+    /**
+     * Runs independent per-file save jobs on the I/O pool and collects their results in
+     * the order of {@code jobs}. The calling thread also runs every job the pool has not
+     * started yet, so a busy (or shut down) pool never stalls the save.
+     */
+    private Map<Path, SaveResult> runInParallel(Map<Path, Callable<SaveResult>> jobs) {
+        Map<Path, FutureTask<SaveResult>> tasks = runAll(jobs);
+
+        Map<Path, SaveResult> results = new LinkedHashMap<>();
+        for (Map.Entry<Path, FutureTask<SaveResult>> entry : tasks.entrySet()) {
+            Path filePath = entry.getKey();
+            try {
+                results.put(filePath, entry.getValue().get());
+            } catch (ExecutionException e) {
+                logger.error("Failed to save file {}: {}", filePath, e.getCause().getMessage(), e.getCause());
+                results.put(filePath, SaveResult.failure(filePath, e.getCause().getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.put(filePath, SaveResult.failure(filePath, "Interrupted"));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Hands each job to the I/O pool, then runs every job the pool has not picked up yet
+     * on the calling thread. A running {@link FutureTask} is never run twice, so each job
+     * runs exactly once; when this returns, all of them are being or have been run.
+     */
+    private static <T> Map<Path, FutureTask<T>> runAll(Map<Path, Callable<T>> jobs) {
+        Map<Path, FutureTask<T>> tasks = new LinkedHashMap<>();
+        jobs.forEach((path, job) -> tasks.put(path, new FutureTask<>(job)));
+        if (tasks.size() > 1) {
+            for (FutureTask<T> task : tasks.values()) {
+                try {
+                    ThreadPoolManager.getInstance().executeIO("xsd-multi-file-save", () -> {
+                        task.run();
+                        return null;
+                    });
+                } catch (RejectedExecutionException e) {
+                    break; // pool shutting down: the loop below runs the rest
+                }
+            }
+        }
+        for (FutureTask<T> task : tasks.values()) {
+            task.run(); // no-op for tasks the pool already started
+        }
+        return tasks;
     }
 
     /**
-     * Serializes the main schema with xs:include statements and only main-file nodes.
+     * Writes the main schema with xs:include statements and only main-file nodes.
+     * Each top-level component is built and flushed on its own, so the file never
+     * exists as one string.
      */
-    private String serializeMainSchema(XsdSchema schema, List<XsdNode> mainNodes) {
+    private void writeMainSchema(XsdSchema schema, List<XsdNode> mainNodes, Writer out) throws IOException {
         StringBuilder sb = new StringBuilder();
 
         // XML declaration
@@ -380,6 +467,7 @@ public class MultiFileXsdSerializer {
         // Serialize imports/includes first
         for (XsdNode node : sortedImportIncludes) {
             serializeXsdNode(node, sb, 1);
+            flush(sb, out);
         }
 
         // Then serialize sorted main-file nodes (excluding imports/includes)
@@ -388,20 +476,20 @@ public class MultiFileXsdSerializer {
                 continue;
             }
             serializeXsdNode(node, sb, 1);
+            flush(sb, out);
         }
 
         sb.append("</xs:schema>\n");
-
-        return sb.toString();
+        flush(sb, out);
     }
 
     /**
-     * Serializes an included schema file with only its own nodes.
+     * Writes an included schema file with only its own nodes, one top-level component at a time.
      * <p>
      * Note: xs:include/xs:import nodes that belong to this file (based on their source info)
      * will be serialized. This supports nested includes where file B includes file C.
      */
-    private String serializeIncludedSchema(XsdSchema mainSchema, List<XsdNode> nodes) {
+    private void writeIncludedSchema(XsdSchema mainSchema, List<XsdNode> nodes, Writer out) throws IOException {
         StringBuilder sb = new StringBuilder();
 
         // XML declaration
@@ -418,11 +506,19 @@ public class MultiFileXsdSerializer {
         // which means they belong to this file based on source info tracking
         for (XsdNode node : sortedNodes) {
             serializeXsdNode(node, sb, 1);
+            flush(sb, out);
         }
 
         sb.append("</xs:schema>\n");
+        flush(sb, out);
+    }
 
-        return sb.toString();
+    /**
+     * Moves what has been built so far to the file and empties the builder.
+     */
+    private static void flush(StringBuilder sb, Writer out) throws IOException {
+        out.append(sb);
+        sb.setLength(0);
     }
 
     /**
@@ -1278,8 +1374,9 @@ public class MultiFileXsdSerializer {
      * <p>
      * This method implements a two-phase commit approach:
      * <ol>
-     *   <li>Phase 1: Write all content to temporary files</li>
-     *   <li>Phase 2: If all writes succeed, atomically move temp files to targets</li>
+     *   <li>Phase 1: Stream all content to temporary files (in parallel)</li>
+     *   <li>Phase 2: If all writes succeed, atomically move temp files to targets; files
+     *       whose content did not change are left untouched and not backed up</li>
      *   <li>If any operation fails, all temp files are cleaned up and no changes are made</li>
      * </ol>
      * <p>
@@ -1321,15 +1418,13 @@ public class MultiFileXsdSerializer {
             logger.info("  Dirty file: {}", path);
         }
 
-        // Phase 1: Write to temporary files
-        Map<Path, Path> tempFiles = new LinkedHashMap<>();
-        Map<Path, String> contentByFile = new LinkedHashMap<>();
+        // Phase 1: Stream every file into a temporary file next to its target
+        Map<Path, AtomicFileWriter.Staged> staged = new LinkedHashMap<>();
 
         try {
-            // Map dirty files to their actual paths in nodesByFile (to handle path format differences)
-            Map<Path, Path> dirtyToActualPath = new LinkedHashMap<>();
+            Map<Path, Callable<AtomicFileWriter.Staged>> stageJobs = new LinkedHashMap<>();
 
-            // Generate content for each dirty file first (to detect errors before writing)
+            // Resolve the nodes of each dirty file first (to detect errors before writing)
             for (Path filePath : dirtyFiles) {
                 // Try to find matching path with normalization
                 List<XsdNode> nodes = nodesByFile.get(filePath);
@@ -1361,41 +1456,40 @@ public class MultiFileXsdSerializer {
                     throw new IOException("No nodes found for dirty file: " + filePath);
                 }
 
-                dirtyToActualPath.put(filePath, actualFilePath);
-
-                String content;
-                if (actualFilePath.equals(mainPath) || actualFilePath.normalize().equals(mainPath.normalize())) {
-                    content = serializeMainSchema(schema, nodes);
+                List<XsdNode> fileNodes = nodes;
+                Path targetPath = actualFilePath;
+                if (targetPath.equals(mainPath) || targetPath.normalize().equals(mainPath.normalize())) {
+                    stageJobs.put(targetPath, () -> AtomicFileWriter.stage(targetPath, StandardCharsets.UTF_8,
+                            out -> writeMainSchema(schema, fileNodes, out)));
                 } else {
-                    content = serializeIncludedSchema(schema, nodes);
+                    stageJobs.put(targetPath, () -> AtomicFileWriter.stage(targetPath, StandardCharsets.UTF_8,
+                            out -> writeIncludedSchema(schema, fileNodes, out)));
                 }
-                contentByFile.put(actualFilePath, content);
             }
 
-            // Write each file to a temporary location
-            for (Map.Entry<Path, String> entry : contentByFile.entrySet()) {
-                Path filePath = entry.getKey();
-                String content = entry.getValue();
-
-                // Create temp file in the same directory as target (for atomic move)
-                Path tempFile = Files.createTempFile(
-                        filePath.getParent(),
-                        filePath.getFileName().toString() + "_",
-                        ".tmp"
-                );
-                Files.writeString(tempFile, content);
-                tempFiles.put(filePath, tempFile);
-
-                logger.debug("Wrote temp file for {}: {}", filePath.getFileName(), tempFile.getFileName());
+            // Serialize the files in parallel; collect every outcome so nothing leaks on failure
+            Exception stageFailure = null;
+            for (Map.Entry<Path, FutureTask<AtomicFileWriter.Staged>> entry : runAll(stageJobs).entrySet()) {
+                try {
+                    staged.put(entry.getKey(), entry.getValue().get());
+                    logger.debug("Staged {}", entry.getKey().getFileName());
+                } catch (ExecutionException e) {
+                    if (stageFailure == null) {
+                        stageFailure = e.getCause() instanceof Exception cause ? cause : e;
+                    }
+                }
+            }
+            if (stageFailure != null) {
+                throw stageFailure;
             }
 
-            // Phase 2: All writes succeeded - create backups and move atomically
+            // Phase 2: All writes succeeded - back up the files that change, then move atomically
             Map<Path, Path> backupPaths = new LinkedHashMap<>();
 
             if (createBackups) {
-                // Use the actual file paths from contentByFile (not dirtyFiles which may have different format)
-                for (Path filePath : contentByFile.keySet()) {
-                    if (Files.exists(filePath)) {
+                for (Map.Entry<Path, AtomicFileWriter.Staged> entry : staged.entrySet()) {
+                    Path filePath = entry.getKey();
+                    if (!entry.getValue().unchanged() && Files.exists(filePath)) {
                         Path backupPath = createBackup(filePath);
                         backupPaths.put(filePath, backupPath);
                         logger.debug("Created backup for {}: {}", filePath.getFileName(), backupPath.getFileName());
@@ -1403,19 +1497,16 @@ public class MultiFileXsdSerializer {
                 }
             }
 
-            // Move temp files to target locations atomically
-            for (Map.Entry<Path, Path> entry : tempFiles.entrySet()) {
+            for (Map.Entry<Path, AtomicFileWriter.Staged> entry : staged.entrySet()) {
                 Path targetPath = entry.getKey();
-                Path tempPath = entry.getValue();
-
-                // Atomic move (replace existing)
-                Files.move(tempPath, targetPath,
-                        StandardCopyOption.REPLACE_EXISTING,
-                        StandardCopyOption.ATOMIC_MOVE);
-
                 int nodeCount = nodesByFile.get(targetPath) != null ? nodesByFile.get(targetPath).size() : 0;
-                Path backupPath = backupPaths.get(targetPath);
-                results.put(targetPath, SaveResult.success(targetPath, backupPath, nodeCount));
+
+                if (!entry.getValue().commit(null).written()) {
+                    results.put(targetPath, SaveResult.skipped(targetPath, nodeCount));
+                    logger.info("{} unchanged, not rewritten", targetPath.getFileName());
+                    continue;
+                }
+                results.put(targetPath, SaveResult.success(targetPath, backupPaths.get(targetPath), nodeCount));
 
                 logger.info("Atomically saved {}", targetPath.getFileName());
             }
@@ -1427,13 +1518,11 @@ public class MultiFileXsdSerializer {
             // Cleanup: Delete all temp files that were created
             logger.error("Atomic save failed, rolling back: {}", e.getMessage(), e);
 
-            for (Path tempFile : tempFiles.values()) {
-                try {
-                    Files.deleteIfExists(tempFile);
-                    logger.debug("Cleaned up temp file: {}", tempFile.getFileName());
-                } catch (IOException cleanupError) {
-                    logger.warn("Failed to cleanup temp file {}: {}", tempFile, cleanupError.getMessage());
-                }
+            for (AtomicFileWriter.Staged file : staged.values()) {
+                file.discard();
+            }
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
             }
 
             // Return failure result for the main schema path
@@ -72,6 +72,31 @@ public class XsdSerializer {
     private String indentString = DEFAULT_INDENT;
     private XsdSortOrder sortOrder = null; // null means use default from settings
     private boolean excludeIncludedNodes = false;
+    private SubtreeCache subtreeCache = null; // set by IncrementalXsdSerializer
+
+    /**
+     * Hook for {@link IncrementalXsdSerializer}: every node serialized through
+     * {@link #serializeXsdNode(XsdNode, StringBuilder, int)} is offered to the cache first,
+     * and the span of every node serialized from scratch is reported back.
+     */
+    interface SubtreeCache {
+
+        /**
+         * Appends the text of a subtree that has not changed since the last run.
+         *
+         * @return true if the text was appended, false if the node must be serialized
+         */
+        boolean appendCached(XsdNode node, int indent, StringBuilder sb);
+
+        /** Called before a node is serialized; {@code start} is its offset in the output. */
+        void enter(XsdNode node, int indent, int start);
+
+        /** Called after a node is serialized; {@code end} is the offset after its text. */
+        void exit(XsdNode node, int end);
+
+        /** Expected length of the output, used to size the buffer. */
+        int expectedLength();
+    }
 
     /**
      * Creates a backup of the specified file using BackupUtility.
@@ -126,7 +151,7 @@ public class XsdSerializer {
 
         logger.info("Serializing XsdSchema with {} children", schema.getChildren().size());
 
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = subtreeCache != null ? new StringBuilder(subtreeCache.expectedLength()) : new StringBuilder();
 
         // XML declaration
         sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
@@ -256,6 +281,22 @@ public class XsdSerializer {
             return;
         }
 
+        if (subtreeCache != null) {
+            if (subtreeCache.appendCached(node, indent, sb)) {
+                return;
+            }
+            subtreeCache.enter(node, indent, sb.length());
+            try {
+                dispatchXsdNode(node, sb, indent);
+            } finally {
+                subtreeCache.exit(node, sb.length());
+            }
+            return;
+        }
+        dispatchXsdNode(node, sb, indent);
+    }
+
+    private void dispatchXsdNode(XsdNode node, StringBuilder sb, int indent) {
         String indentation = indentString.repeat(indent);
 
         if (node instanceof XsdElement element) {
@@ -1408,6 +1449,13 @@ public class XsdSerializer {
                 .replace("'", "&apos;");
     }
 
+    /**
+     * Installs the subtree cache used for incremental serialization ({@code null} to remove it).
+     */
+    void setSubtreeCache(SubtreeCache subtreeCache) {
+        this.subtreeCache = subtreeCache;
+    }
+
     /**
      * Sets the indentation string (default is 4 spaces).
      */
@@ -3,9 +3,12 @@ package org.fxt.freexmltoolkit.controls.v2.editor.statistics;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -15,6 +18,7 @@ import java.util.regex.Pattern;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.editor.usage.TypeReferenceIndex;
 import org.fxt.freexmltoolkit.controls.v2.model.IncludeSourceInfo;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdAll;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdAny;
@@ -39,13 +43,71 @@ import org.fxt.freexmltoolkit.controls.v2.model.XsdSimpleType;
  * Checks XSD schema quality including naming conventions, best practices,
  * and deprecated element detection.
  *
+ * <p>The per-node checks are evaluated per top-level component and cached together with the
+ * component's named definitions and their content signatures. Definitions are indexed in buckets
+ * by name (inconsistent definitions) and by signature (duplicate definitions). When created with
+ * an {@link XsdSchemaChangeTracker}, {@link #check()} re-analyses only changed components and
+ * re-evaluates only the buckets their definitions were or are in.</p>
+ *
  * @since 2.0
  */
 public class XsdQualityChecker {
 
     private static final Logger logger = LogManager.getLogger(XsdQualityChecker.class);
 
+    // Signatures up to this length describe trivial definitions and are not reported as duplicates
+    private static final int MIN_DUPLICATE_SIGNATURE_LENGTH = 30;
+
     private final XsdSchema schema;
+    private final XsdSchemaChangeTracker tracker;
+    private final XsdSchemaChangeTracker.ChangeSet changeSet;
+
+    // Cached analysis per top-level component, in document order
+    private Map<XsdNode, ComponentQuality> components = new LinkedHashMap<>();
+
+    // Definition buckets and the issues derived from them
+    private final Map<String, List<Definition>> definitionsByName = new HashMap<>();
+    private final Map<String, List<Definition>> definitionsBySignature = new HashMap<>();
+    private final Map<String, QualityIssue> inconsistentIssues = new HashMap<>();
+    private final Map<String, DuplicateGroup> duplicateGroups = new HashMap<>();
+
+    /**
+     * Quality information of one top-level component.
+     */
+    private static final class ComponentQuality {
+        final boolean mainSchema;
+        final Map<NamingConvention, List<String>> namingByConvention = new EnumMap<>(NamingConvention.class);
+        final List<QualityIssue> issues = new ArrayList<>();
+        final List<QualityIssue> deprecatedIssues = new ArrayList<>();
+        final List<QualityIssue> containerIssues = new ArrayList<>();
+        final List<Definition> definitions = new ArrayList<>();
+        int order;
+
+        ComponentQuality(boolean mainSchema) {
+            this.mainSchema = mainSchema;
+            for (NamingConvention conv : NamingConvention.values()) {
+                namingByConvention.put(conv, new ArrayList<>());
+            }
+        }
+    }
+
+    /**
+     * A named definition with its content signature.
+     *
+     * @param nameKey   "nodeType:name"
+     * @param signature the content signature, see {@link #computeContentSignature(XsdNode)}
+     * @param node      the defining node
+     * @param owner     the component containing the node
+     * @param ordinal   position of the node within its component, in traversal order
+     */
+    private record Definition(String nameKey, String signature, XsdNode node, ComponentQuality owner, int ordinal) {
+    }
+
+    /**
+     * A duplicate definition issue together with the set of names it reports.
+     */
+    private record DuplicateGroup(String groupKey, QualityIssue issue) {
+    }
 
     // Naming patterns
     private static final Pattern CAMEL_CASE = Pattern.compile("^[A-Z][a-zA-Z0-9]*$");
@@ -63,7 +125,8 @@ public class XsdQualityChecker {
         CONSTRAINT_CONFLICT,
         INCONSISTENT_DEFINITION,
         DUPLICATE_DEFINITION,
-        DUPLICATE_ELEMENT_IN_CONTAINER
+        DUPLICATE_ELEMENT_IN_CONTAINER,
+        UNUSED_TYPE
     }
 
     /**
@@ -199,6 +262,18 @@ public class XsdQualityChecker {
             return new QualityIssue(IssueCategory.DUPLICATE_ELEMENT_IN_CONTAINER, IssueSeverity.ERROR, message, suggestion, affected, containerNode, xpath, sourceFile);
         }
 
+        /**
+         * Creates an unused type issue (a global type no element, attribute or type refers to).
+         */
+        public static QualityIssue unusedTypeIssue(String typeName, XsdNode node) {
+            String xpath = node != null ? node.getXPath() : null;
+            Path sourceFile = getSourceFileFromNode(node);
+            return new QualityIssue(IssueCategory.UNUSED_TYPE, IssueSeverity.INFO,
+                    "Type '" + typeName + "' is not used",
+                    "Remove the type or reference it from an element, attribute or derived type",
+                    List.of(typeName), node, xpath, sourceFile);
+        }
+
         /**
          * Gets the source file name for display (without full path).
          */
@@ -280,8 +355,20 @@ public class XsdQualityChecker {
      * @param schema the XSD schema to check
      */
     public XsdQualityChecker(XsdSchema schema) {
+        this(schema, null);
+    }
+
+    /**
+     * Creates a quality checker that updates its result incrementally.
+     *
+     * @param schema  the XSD schema to check
+     * @param tracker the change tracker of the schema, or {@code null} to analyse everything on each call
+     */
+    public XsdQualityChecker(XsdSchema schema, XsdSchemaChangeTracker tracker) {
         Objects.requireNonNull(schema, "Schema cannot be null");
         this.schema = schema;
+        this.tracker = tracker;
+        this.changeSet = tracker != null ? tracker.newChangeSet() : null;
     }
 
     /**
@@ -289,10 +376,21 @@ public class XsdQualityChecker {
      *
      * @return the quality check result
      */
-    public QualityResult check() {
+    public synchronized QualityResult check() {
         logger.info("Starting quality checks for schema");
         long startTime = System.currentTimeMillis();
 
+        // Re-analyse new and changed components, then the buckets they touched
+        Set<String> affectedNames = new HashSet<>();
+        Set<String> affectedSignatures = new HashSet<>();
+        int analyzed = updateComponents(affectedNames, affectedSignatures);
+        for (String nameKey : affectedNames) {
+            updateInconsistentDefinition(nameKey);
+        }
+        for (String signature : affectedSignatures) {
+            updateDuplicateDefinition(signature);
+        }
+
         List<QualityIssue> issues = new ArrayList<>();
 
         // Collect naming statistics
@@ -304,24 +402,34 @@ public class XsdQualityChecker {
         // Track deprecated elements
         List<QualityIssue> deprecatedIssues = new ArrayList<>();
 
-        // Traverse main schema (includes are already inlined as children)
-        Set<String> visitedIds = new HashSet<>();
-        traverseAndCheck(schema, namingByConvention, issues, deprecatedIssues, visitedIds, 0);
-
-        // Also traverse imported schemas (they are NOT children of main schema)
-        for (Map.Entry<String, XsdSchema> entry : schema.getImportedSchemas().entrySet()) {
-            logger.debug("Checking quality for imported schema: {}", entry.getKey());
-            traverseAndCheck(entry.getValue(), namingByConvention, issues, deprecatedIssues, visitedIds, 0);
+        // The schema nodes themselves (main schema and imported schemas), then all components
+        checkNode(schema, namingByConvention, issues, deprecatedIssues, 0);
+        for (XsdSchema imported : schema.getImportedSchemas().values()) {
+            checkNode(imported, namingByConvention, issues, deprecatedIssues, 0);
+        }
+        for (ComponentQuality component : components.values()) {
+            component.namingByConvention.forEach((conv, names) -> namingByConvention.get(conv).addAll(names));
+            issues.addAll(component.issues);
+            deprecatedIssues.addAll(component.deprecatedIssues);
         }
 
-        // Check for inconsistent definitions (same name, different content)
-        checkInconsistentDefinitions(issues);
+        // Inconsistent definitions (same name, different content)
+        issues.addAll(inconsistentIssues.values());
 
-        // Check for duplicate definitions (different name, same content)
-        checkDuplicateDefinitions(issues);
+        // Duplicate definitions (different name, same content); each set of names is reported once
+        Set<String> reportedGroups = new HashSet<>();
+        for (DuplicateGroup group : duplicateGroups.values()) {
+            if (reportedGroups.add(group.groupKey())) {
+                issues.add(group.issue());
+            }
+        }
+
+        // Duplicate elements within containers (sequence/choice/all) - schema error
+        for (ComponentQuality component : components.values()) {
+            issues.addAll(component.containerIssues);
+        }
 
-        // Check for duplicate elements within containers (sequence/choice/all) - schema error
-        checkDuplicateElementsInContainers(issues);
+        checkUnusedTypes(issues);
 
         // Calculate naming distribution
         Map<NamingConvention, Integer> namingDistribution = new EnumMap<>(NamingConvention.class);
@@ -347,7 +455,8 @@ public class XsdQualityChecker {
         int score = totalChecks > 0 ? Math.max(0, Math.min(100, (passedChecks * 100) / totalChecks)) : 100;
 
         long duration = System.currentTimeMillis() - startTime;
-        logger.info("Quality check completed in {}ms: score={}, {} issues", duration, score, issues.size());
+        logger.info("Quality check completed in {}ms: score={}, {} issues ({} of {} components analyzed)",
+                duration, score, issues.size(), analyzed, components.size());
 
         return new QualityResult(
                 score,
@@ -359,6 +468,134 @@ public class XsdQualityChecker {
         );
     }
 
+    /**
+     * Reports global types of the main schema (with includes) that nothing references. The usage
+     * counts come from the schema's shared {@link TypeReferenceIndex}, so no tree walk is needed;
+     * references from imported schemas count as usages.
+     */
+    private void checkUnusedTypes(List<QualityIssue> issues) {
+        TypeReferenceIndex referenceIndex = TypeReferenceIndex.forSchema(schema);
+        for (Map.Entry<XsdNode, ComponentQuality> entry : components.entrySet()) {
+            XsdNode component = entry.getKey();
+            String name = component.getName();
+            if (entry.getValue().mainSchema
+                    && (component instanceof XsdComplexType || component instanceof XsdSimpleType)
+                    && name != null && !name.isBlank()
+                    && referenceIndex.countTypeUsages(name, true) == 0) {
+                issues.add(QualityIssue.unusedTypeIssue(name, component));
+            }
+        }
+    }
+
+    /**
+     * Re-analyses new and changed components, drops removed ones and keeps the definition
+     * buckets in sync.
+     *
+     * @param affectedNames      receives the name buckets that changed
+     * @param affectedSignatures receives the signature buckets that changed
+     * @return the number of analysed components
+     */
+    private int updateComponents(Set<String> affectedNames, Set<String> affectedSignatures) {
+        XsdSchemaChangeTracker.Changes changes = changeSet != null
+                ? changeSet.poll()
+                : XsdSchemaChangeTracker.Changes.ALL;
+
+        Map<XsdNode, ComponentQuality> updated = new LinkedHashMap<>();
+        int analyzed = 0;
+        for (XsdNode component : XsdSchemaChangeTracker.componentsOf(schema)) {
+            if (updated.containsKey(component)) {
+                continue;
+            }
+            boolean mainSchema = component.getParent() == schema;
+            ComponentQuality cached = components.remove(component);
+            if (cached == null || cached.mainSchema != mainSchema || changes.isDirty(component)) {
+                if (cached != null) {
+                    unindexDefinitions(cached, affectedNames, affectedSignatures);
+                } else if (tracker != null) {
+                    tracker.observe(component);
+                }
+                cached = analyzeComponent(component, mainSchema);
+                indexDefinitions(cached, affectedNames, affectedSignatures);
+                analyzed++;
+            }
+            cached.order = updated.size();
+            updated.put(component, cached);
+        }
+        // Whatever is left was removed from the schema
+        for (ComponentQuality removed : components.values()) {
+            unindexDefinitions(removed, affectedNames, affectedSignatures);
+        }
+        components = updated;
+        return analyzed;
+    }
+
+    /**
+     * Runs the per-node checks on one component and collects its named definitions.
+     */
+    private ComponentQuality analyzeComponent(XsdNode component, boolean mainSchema) {
+        ComponentQuality result = new ComponentQuality(mainSchema);
+        traverseAndCheck(component, result.namingByConvention, result.issues, result.deprecatedIssues,
+                new HashSet<>(), 1);
+        checkDuplicateElementsInContainersRecursive(component, result.containerIssues, new HashSet<>());
+
+        // Definition checks cover the main schema (with includes) only
+        if (mainSchema) {
+            List<XsdNode> namedNodes = new ArrayList<>();
+            collectAllComparableNodes(component, namedNodes, new HashSet<>());
+            for (XsdNode node : namedNodes) {
+                result.definitions.add(new Definition(node.getNodeType() + ":" + node.getName(),
+                        computeContentSignature(node), node, result, result.definitions.size()));
+            }
+        }
+        return result;
+    }
+
+    private void indexDefinitions(ComponentQuality component, Set<String> affectedNames,
+                                  Set<String> affectedSignatures) {
+        for (Definition definition : component.definitions) {
+            definitionsByName.computeIfAbsent(definition.nameKey(), k -> new ArrayList<>()).add(definition);
+            affectedNames.add(definition.nameKey());
+            if (definition.signature().length() > MIN_DUPLICATE_SIGNATURE_LENGTH) {
+                definitionsBySignature.computeIfAbsent(definition.signature(), k -> new ArrayList<>()).add(definition);
+                affectedSignatures.add(definition.signature());
+            }
+        }
+    }
+
+    private void unindexDefinitions(ComponentQuality component, Set<String> affectedNames,
+                                    Set<String> affectedSignatures) {
+        for (Definition definition : component.definitions) {
+            removeFromBucket(definitionsByName, definition.nameKey(), definition);
+            affectedNames.add(definition.nameKey());
+            if (definition.signature().length() > MIN_DUPLICATE_SIGNATURE_LENGTH) {
+                removeFromBucket(definitionsBySignature, definition.signature(), definition);
+                affectedSignatures.add(definition.signature());
+            }
+        }
+    }
+
+    private static void removeFromBucket(Map<String, List<Definition>> buckets, String key, Definition definition) {
+        List<Definition> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(definition);
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Returns the nodes of a bucket in document order, independent of the order in which
+     * components were (re-)indexed.
+     */
+    private static List<XsdNode> nodesInDocumentOrder(List<Definition> bucket) {
+        return bucket.stream()
+                .sorted(Comparator.comparingInt((Definition d) -> d.owner().order)
+                        .thenComparingInt(Definition::ordinal))
+                .map(Definition::node)
+                .toList();
+    }
+
     /**
      * Traverses the schema and collects quality information.
      */
@@ -377,6 +614,19 @@ public class XsdQualityChecker {
             visitedIds.add(nodeId);
         }
 
+        checkNode(node, namingByConvention, issues, deprecatedIssues, depth);
+
+        // Recurse to children
+        for (XsdNode child : node.getChildren()) {
+            traverseAndCheck(child, namingByConvention, issues, deprecatedIssues, visitedIds, depth + 1);
+        }
+    }
+
+    /**
+     * Runs the per-node checks on a single node, without its children.
+     */
+    private void checkNode(XsdNode node, Map<NamingConvention, List<String>> namingByConvention,
+                           List<QualityIssue> issues, List<QualityIssue> deprecatedIssues, int depth) {
         String name = node.getName();
 
         // Check naming convention for named elements
@@ -393,11 +643,6 @@ public class XsdQualityChecker {
 
         // Check for length/enumeration conflicts
         checkLengthEnumerationConflict(node, issues);
-
-        // Recurse to children
-        for (XsdNode child : node.getChildren()) {
-            traverseAndCheck(child, namingByConvention, issues, deprecatedIssues, visitedIds, depth + 1);
-        }
     }
 
     /**
@@ -733,109 +978,74 @@ public class XsdQualityChecker {
     // ========== Inconsistent Definition Check ==========
 
     /**
-     * Checks for nodes with the same name but different content/structure.
+     * Re-evaluates one name bucket: nodes with the same name but different content/structure.
      * This indicates potential inconsistencies in the schema design.
+     *
+     * @param nameKey the bucket key, "nodeType:name" (e.g., "ELEMENT:PersonName")
      */
-    private void checkInconsistentDefinitions(List<QualityIssue> issues) {
-        // Group nodes by name and type
-        Map<String, List<XsdNode>> nodesByNameAndType = new HashMap<>();
-
-        collectNamedNodes(schema, nodesByNameAndType, new HashSet<>());
+    private void updateInconsistentDefinition(String nameKey) {
+        inconsistentIssues.remove(nameKey);
+        List<Definition> bucket = definitionsByName.get(nameKey);
+        if (bucket == null || bucket.size() < 2) {
+            return;
+        }
 
-        // Check for same name but different content
-        for (Map.Entry<String, List<XsdNode>> entry : nodesByNameAndType.entrySet()) {
-            List<XsdNode> nodes = entry.getValue();
-            if (nodes.size() < 2) {
-                continue;
-            }
+        // Compare content signatures of nodes with same name
+        Map<String, List<XsdNode>> bySignature = new LinkedHashMap<>();
+        Map<XsdNode, String> signatures = new IdentityHashMap<>();
+        for (Definition definition : bucket) {
+            signatures.put(definition.node(), definition.signature());
+        }
+        for (XsdNode node : nodesInDocumentOrder(bucket)) {
+            bySignature.computeIfAbsent(signatures.get(node), k -> new ArrayList<>()).add(node);
+        }
 
-            // Compare content signatures of nodes with same name
-            Map<String, List<XsdNode>> bySignature = new HashMap<>();
-            for (XsdNode node : nodes) {
-                String signature = computeContentSignature(node);
-                bySignature.computeIfAbsent(signature, k -> new ArrayList<>()).add(node);
-            }
+        // If there are multiple different signatures, we have inconsistent definitions
+        if (bySignature.size() > 1) {
+            List<String> affected = new ArrayList<>();
+            XsdNode firstNode = null;
+            int variantNum = 1;
 
-            // If there are multiple different signatures, we have inconsistent definitions
-            if (bySignature.size() > 1) {
-                String name = entry.getKey();
-                List<String> affected = new ArrayList<>();
-                XsdNode firstNode = null;
-                int variantNum = 1;
-
-                // Build detailed variant descriptions
-                for (Map.Entry<String, List<XsdNode>> variantEntry : bySignature.entrySet()) {
-                    List<XsdNode> variantNodes = variantEntry.getValue();
-                    if (!variantNodes.isEmpty()) {
-                        XsdNode representativeNode = variantNodes.get(0);
-                        if (firstNode == null) {
-                            firstNode = representativeNode;
-                        }
-
-                        // Add variant header with structure description
-                        affected.add("=== Variant " + variantNum + " (" + variantNodes.size() + " occurrence" + (variantNodes.size() > 1 ? "s" : "") + ") ===");
-
-                        // Generate and add readable structure for this variant
-                        String structure = generateReadableStructure(representativeNode);
-                        affected.add(structure);
-
-                        // Add locations for this variant
-                        affected.add("--- Locations ---");
-                        for (XsdNode node : variantNodes) {
-                            String xpath = node.getXPath();
-                            affected.add("  " + (xpath != null ? xpath : node.getName()));
-                        }
-                        affected.add(""); // Empty line between variants
-                        variantNum++;
+            // Build detailed variant descriptions
+            for (Map.Entry<String, List<XsdNode>> variantEntry : bySignature.entrySet()) {
+                List<XsdNode> variantNodes = variantEntry.getValue();
+                if (!variantNodes.isEmpty()) {
+                    XsdNode representativeNode = variantNodes.get(0);
+                    if (firstNode == null) {
+                        firstNode = representativeNode;
                     }
-                }
 
-                // Generate difference summary
-                String diffSummary = generateVariantDifferenceSummary(bySignature);
-                if (!diffSummary.isEmpty()) {
-                    affected.add("=== Key Differences ===");
-                    affected.add(diffSummary);
-                }
+                    // Add variant header with structure description
+                    affected.add("=== Variant " + variantNum + " (" + variantNodes.size() + " occurrence" + (variantNodes.size() > 1 ? "s" : "") + ") ===");
 
-                issues.add(QualityIssue.inconsistentDefinitionIssue(
-                        "Multiple definitions of '" + name + "' with different content (" + bySignature.size() + " variants)",
-                        "Consider unifying the definitions or using different names to clarify intent",
-                        affected,
-                        firstNode
-                ));
-            }
-        }
-    }
-
-    /**
-     * Collects all named nodes grouped by their name and node type.
-     * Key format: "nodeType:name" (e.g., "ELEMENT:PersonName" or "COMPLEX_TYPE:AddressType")
-     */
-    private void collectNamedNodes(XsdNode node, Map<String, List<XsdNode>> nodesByNameAndType, Set<String> visitedIds) {
-        if (node == null) {
-            return;
-        }
+                    // Generate and add readable structure for this variant
+                    String structure = generateReadableStructure(representativeNode);
+                    affected.add(structure);
 
-        String nodeId = node.getId();
-        if (nodeId != null && visitedIds.contains(nodeId)) {
-            return;
-        }
-        if (nodeId != null) {
-            visitedIds.add(nodeId);
-        }
+                    // Add locations for this variant
+                    affected.add("--- Locations ---");
+                    for (XsdNode node : variantNodes) {
+                        String xpath = node.getXPath();
+                        affected.add("  " + (xpath != null ? xpath : node.getName()));
+                    }
+                    affected.add(""); // Empty line between variants
+                    variantNum++;
+                }
+            }
 
-        // Only collect named nodes that are relevant for comparison
-        if (isComparableNamedNode(node)) {
-            String name = node.getName();
-            if (name != null && !name.isBlank()) {
-                String key = node.getNodeType() + ":" + name;
-                nodesByNameAndType.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+            // Generate difference summary
+            String diffSummary = generateVariantDifferenceSummary(bySignature);
+            if (!diffSummary.isEmpty()) {
+                affected.add("=== Key Differences ===");
+                affected.add(diffSummary);
             }
-        }
 
-        // Recurse to children
-        for (XsdNode child : node.getChildren()) {
-            collectNamedNodes(child, nodesByNameAndType, visitedIds);
+            inconsistentIssues.put(nameKey, QualityIssue.inconsistentDefinitionIssue(
+                    "Multiple definitions of '" + nameKey + "' with different content (" + bySignature.size() + " variants)",
+                    "Consider unifying the definitions or using different names to clarify intent",
+                    affected,
+                    firstNode
+            ));
         }
     }
 
@@ -952,81 +1162,58 @@ public class XsdQualityChecker {
     // ========== Duplicate Definition Check ==========
 
     /**
-     * Checks for nodes with different names but identical content/structure.
+     * Re-evaluates one signature bucket: nodes with different names but identical content/structure.
      * This indicates potential code duplication that could be refactored.
+     *
+     * @param signature the content signature shared by the bucket's definitions
      */
-    private void checkDuplicateDefinitions(List<QualityIssue> issues) {
-        // Collect all comparable nodes
-        List<XsdNode> comparableNodes = new ArrayList<>();
-        collectAllComparableNodes(schema, comparableNodes, new HashSet<>());
-
-        // Group by content signature
-        Map<String, List<XsdNode>> bySignature = new HashMap<>();
-        for (XsdNode node : comparableNodes) {
-            String name = node.getName();
-            if (name == null || name.isBlank()) {
-                continue;
-            }
+    private void updateDuplicateDefinition(String signature) {
+        duplicateGroups.remove(signature);
+        List<Definition> bucket = definitionsBySignature.get(signature);
+        if (bucket == null || bucket.size() < 2) {
+            return;
+        }
+        List<XsdNode> nodes = nodesInDocumentOrder(bucket);
 
-            String signature = computeContentSignature(node);
-            // Only consider non-trivial signatures (exclude simple/empty definitions)
-            if (signature.length() > 30) { // Arbitrary threshold to filter out trivial matches
-                bySignature.computeIfAbsent(signature, k -> new ArrayList<>()).add(node);
-            }
+        // Check if they have different names
+        Set<String> names = new HashSet<>();
+        for (XsdNode node : nodes) {
+            names.add(node.getNodeType() + ":" + node.getName());
         }
 
-        // Find groups with same signature but different names
-        Set<String> reportedGroups = new HashSet<>();
-        for (Map.Entry<String, List<XsdNode>> entry : bySignature.entrySet()) {
-            List<XsdNode> nodes = entry.getValue();
-            if (nodes.size() < 2) {
-                continue;
-            }
+        if (names.size() > 1) {
+            // Multiple different names with same content - potential duplicates
+            String groupKey = String.join(",", names.stream().sorted().toList());
+
+            List<String> affected = new ArrayList<>();
+            XsdNode firstNode = null;
+            Set<String> uniqueNames = new LinkedHashSet<>();
 
-            // Check if they have different names
-            Set<String> names = new HashSet<>();
             for (XsdNode node : nodes) {
-                names.add(node.getNodeType() + ":" + node.getName());
+                uniqueNames.add(node.getName());
+                String xpath = node.getXPath();
+                affected.add(xpath != null ? xpath : node.getName());
+                if (firstNode == null) {
+                    firstNode = node;
+                }
             }
 
-            if (names.size() > 1) {
-                // Multiple different names with same content - potential duplicates
-                String groupKey = String.join(",", names.stream().sorted().toList());
-                if (reportedGroups.contains(groupKey)) {
-                    continue;
-                }
-                reportedGroups.add(groupKey);
+            // Generate human-readable structure description
+            String structureDescription = generateReadableStructure(firstNode);
 
-                List<String> affected = new ArrayList<>();
-                XsdNode firstNode = null;
-                Set<String> uniqueNames = new LinkedHashSet<>();
+            // Add structure description as first item in affected list
+            List<String> affectedWithStructure = new ArrayList<>();
+            affectedWithStructure.add("=== Identical Structure ===");
+            affectedWithStructure.add(structureDescription);
+            affectedWithStructure.add("=== Found in Definitions ===");
+            affectedWithStructure.addAll(affected);
 
-                for (XsdNode node : nodes) {
-                    uniqueNames.add(node.getName());
-                    String xpath = node.getXPath();
-                    affected.add(xpath != null ? xpath : node.getName());
-                    if (firstNode == null) {
-                        firstNode = node;
-                    }
-                }
-
-                // Generate human-readable structure description
-                String structureDescription = generateReadableStructure(firstNode);
-
-                // Add structure description as first item in affected list
-                List<String> affectedWithStructure = new ArrayList<>();
-                affectedWithStructure.add("=== Identical Structure ===");
-                affectedWithStructure.add(structureDescription);
-                affectedWithStructure.add("=== Found in Definitions ===");
-                affectedWithStructure.addAll(affected);
-
-                issues.add(QualityIssue.duplicateDefinitionIssue(
-                        "Identical structure found in " + uniqueNames.size() + " different definitions: " + String.join(", ", uniqueNames),
-                        "Consider consolidating into a single reusable type to reduce redundancy",
-                        affectedWithStructure,
-                        firstNode
-                ));
-            }
+            duplicateGroups.put(signature, new DuplicateGroup(groupKey, QualityIssue.duplicateDefinitionIssue(
+                    "Identical structure found in " + uniqueNames.size() + " different definitions: " + String.join(", ", uniqueNames),
+                    "Consider consolidating into a single reusable type to reduce redundancy",
+                    affectedWithStructure,
+                    firstNode
+            )));
         }
     }
 
@@ -1057,21 +1244,6 @@ public class XsdQualityChecker {
 
     // ========== Duplicate Elements in Container Check ==========
 
-    /**
-     * Checks for duplicate element definitions within the same container (sequence, choice, all).
-     * Having the same element name appear multiple times within a single container is a schema error
-     * that causes validation ambiguity (e.g., UCITSExistingPerformanceFees appearing twice in a sequence).
-     */
-    private void checkDuplicateElementsInContainers(List<QualityIssue> issues) {
-        Set<String> visitedIds = new HashSet<>();
-        checkDuplicateElementsInContainersRecursive(schema, issues, visitedIds);
-
-        // Also check imported schemas
-        for (Map.Entry<String, XsdSchema> entry : schema.getImportedSchemas().entrySet()) {
-            checkDuplicateElementsInContainersRecursive(entry.getValue(), issues, visitedIds);
-        }
-    }
-
     /**
      * Recursively traverses the schema looking for containers with duplicate element names.
      */
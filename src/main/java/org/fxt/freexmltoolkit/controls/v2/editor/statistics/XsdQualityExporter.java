@@ -471,6 +471,7 @@ public class XsdQualityExporter {
             case INCONSISTENT_DEFINITION -> "Inconsistent Definition";
             case DUPLICATE_DEFINITION -> "Duplicate Definition";
             case DUPLICATE_ELEMENT_IN_CONTAINER -> "Duplicate Element in Container";
+            case UNUSED_TYPE -> "Unused Type";
         };
     }
 
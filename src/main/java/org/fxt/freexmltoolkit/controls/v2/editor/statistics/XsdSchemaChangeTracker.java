@@ -0,0 +1,284 @@
+package org.fxt.freexmltoolkit.controls.v2.editor.statistics;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdNode;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
+
+/**
+ * Tracks which top-level components of a schema changed since an analysis last looked at them.
+ *
+ * <p>A component is a direct child of the main schema or of an imported schema (a global element,
+ * type, group, include, ...). The tracker listens to the property events of every node and maps
+ * each change to the component containing the node. Incremental analyses such as
+ * {@link XsdQualityChecker} and {@link XsdStatisticsCollector} obtain a {@link ChangeSet} and only
+ * re-analyse the components reported dirty; components that appear or disappear are detected by
+ * the analyses themselves when they enumerate the schema.</p>
+ *
+ * <p>Not every model setter fires a property event. Command boundaries therefore act as a safety
+ * net: when the editor's command manager applies a command without any node event being observed,
+ * all change sets are invalidated and the next analysis runs in full.</p>
+ *
+ * <p>One tracker exists per schema, see {@link #forSchema(XsdSchema)}.</p>
+ *
+ * @since 2.0
+ */
+public class XsdSchemaChangeTracker {
+
+    private static final Logger logger = LogManager.getLogger(XsdSchemaChangeTracker.class);
+
+    // The tracker must not reference the schema strongly, otherwise the weak key never clears
+    private static final Map<XsdSchema, XsdSchemaChangeTracker> trackers = new WeakHashMap<>();
+
+    private final PropertyChangeListener nodeListener = this::onNodeChanged;
+    private final Set<XsdNode> observedNodes = Collections.newSetFromMap(new WeakHashMap<>());
+    private final Set<ChangeSet> changeSets = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private volatile boolean changedSinceLastCommand;
+
+    /**
+     * Changes reported by a {@link ChangeSet}.
+     *
+     * @param all        whether every component must be treated as changed
+     * @param components the changed components; empty if {@code all} is set
+     */
+    public record Changes(boolean all, Set<XsdNode> components) {
+
+        /**
+         * Changes that mark every component as dirty.
+         */
+        public static final Changes ALL = new Changes(true, Set.of());
+
+        /**
+         * Checks whether a component has to be re-analysed.
+         *
+         * @param component the top-level component
+         * @return true if the component changed
+         */
+        public boolean isDirty(XsdNode component) {
+            return all || components.contains(component);
+        }
+    }
+
+    /**
+     * Dirty components collected for one analysis. The first poll always reports all components.
+     */
+    public static final class ChangeSet {
+        private final Set<XsdNode> dirty = Collections.newSetFromMap(new IdentityHashMap<>());
+        private boolean all = true;
+
+        private ChangeSet() {
+        }
+
+        private synchronized void markDirty(XsdNode component) {
+            if (!all) {
+                dirty.add(component);
+            }
+        }
+
+        private synchronized void invalidateAll() {
+            all = true;
+            dirty.clear();
+        }
+
+        /**
+         * Returns the changes since the previous poll and resets this change set.
+         *
+         * @return the collected changes
+         */
+        public synchronized Changes poll() {
+            Changes changes = all
+                    ? Changes.ALL
+                    : new Changes(false, Collections.unmodifiableSet(copyOf(dirty)));
+            all = false;
+            dirty.clear();
+            return changes;
+        }
+
+        private static Set<XsdNode> copyOf(Set<XsdNode> nodes) {
+            Set<XsdNode> copy = Collections.newSetFromMap(new IdentityHashMap<>());
+            copy.addAll(nodes);
+            return copy;
+        }
+    }
+
+    private XsdSchemaChangeTracker(XsdSchema schema) {
+        observe(schema);
+        for (XsdSchema imported : schema.getImportedSchemas().values()) {
+            observe(imported);
+        }
+    }
+
+    /**
+     * Returns the tracker of a schema, creating it on first use.
+     *
+     * @param schema the main schema
+     * @return the shared tracker
+     */
+    public static XsdSchemaChangeTracker forSchema(XsdSchema schema) {
+        Objects.requireNonNull(schema, "Schema cannot be null");
+        synchronized (trackers) {
+            return trackers.computeIfAbsent(schema, XsdSchemaChangeTracker::new);
+        }
+    }
+
+    /**
+     * Called when the editor's command manager executed, undid or redid a command on the schema.
+     * Does nothing if no analysis tracks the schema.
+     *
+     * @param schema the edited schema
+     */
+    public static void commandApplied(XsdSchema schema) {
+        XsdSchemaChangeTracker tracker;
+        synchronized (trackers) {
+            tracker = trackers.get(schema);
+        }
+        if (tracker != null) {
+            tracker.onCommandApplied();
+        }
+    }
+
+    /**
+     * Creates a change set for an incremental analysis.
+     *
+     * @return a new change set whose first poll reports all components
+     */
+    public ChangeSet newChangeSet() {
+        ChangeSet changeSet = new ChangeSet();
+        synchronized (changeSets) {
+            changeSets.add(changeSet);
+        }
+        return changeSet;
+    }
+
+    /**
+     * Starts observing a node and its descendants. Analyses call this for components they have
+     * not seen before, e.g. those of a newly imported schema. Already observed nodes are skipped.
+     *
+     * @param node the subtree root
+     */
+    public void observe(XsdNode node) {
+        if (node == null) {
+            return;
+        }
+        synchronized (observedNodes) {
+            if (!observedNodes.add(node)) {
+                return;
+            }
+        }
+        node.addPropertyChangeListener(nodeListener);
+        for (XsdNode child : node.getChildren()) {
+            observe(child);
+        }
+    }
+
+    private void unobserve(XsdNode node) {
+        synchronized (observedNodes) {
+            if (!observedNodes.remove(node)) {
+                return;
+            }
+        }
+        node.removePropertyChangeListener(nodeListener);
+        for (XsdNode child : node.getChildren()) {
+            unobserve(child);
+        }
+    }
+
+    private void onNodeChanged(PropertyChangeEvent evt) {
+        if (!(evt.getSource() instanceof XsdNode node)) {
+            return;
+        }
+        String property = evt.getPropertyName();
+        if ("descendantChanged".equals(property)) {
+            // The descendant's own event was observed as well
+            return;
+        }
+        if ("children".equals(property)) {
+            updateObservedChildren(node, evt.getOldValue());
+        }
+
+        changedSinceLastCommand = true;
+        XsdNode component = componentOf(node);
+        if (component == null) {
+            // Schema-level change: components are added or removed, which analyses detect themselves
+            return;
+        }
+        for (ChangeSet changeSet : changeSets()) {
+            changeSet.markDirty(component);
+        }
+    }
+
+    private void updateObservedChildren(XsdNode parent, Object oldValue) {
+        List<XsdNode> current = parent.getChildren();
+        for (XsdNode child : current) {
+            observe(child);
+        }
+        if (oldValue instanceof Collection<?> oldChildren) {
+            Set<XsdNode> remaining = Collections.newSetFromMap(new IdentityHashMap<>());
+            remaining.addAll(current);
+            for (Object old : oldChildren) {
+                if (old instanceof XsdNode oldChild && !remaining.contains(oldChild)) {
+                    unobserve(oldChild);
+                }
+            }
+        }
+    }
+
+    private void onCommandApplied() {
+        if (!changedSinceLastCommand) {
+            logger.debug("Command changed the schema without property events, invalidating analyses");
+            for (ChangeSet changeSet : changeSets()) {
+                changeSet.invalidateAll();
+            }
+        }
+        changedSinceLastCommand = false;
+    }
+
+    private List<ChangeSet> changeSets() {
+        synchronized (changeSets) {
+            return new ArrayList<>(changeSets);
+        }
+    }
+
+    /**
+     * Returns the top-level component containing a node.
+     *
+     * @param node any node of the schema
+     * @return the direct child of a schema containing the node, or {@code null} for schema nodes
+     * and detached nodes
+     */
+    static XsdNode componentOf(XsdNode node) {
+        XsdNode current = node;
+        while (current != null && current.getParent() != null && !(current.getParent() instanceof XsdSchema)) {
+            current = current.getParent();
+        }
+        return current != null && current.getParent() instanceof XsdSchema ? current : null;
+    }
+
+    /**
+     * Lists the components of a schema in document order: the children of the main schema
+     * followed by the children of each imported schema.
+     *
+     * @param schema the main schema
+     * @return the components
+     */
+    static List<XsdNode> componentsOf(XsdSchema schema) {
+        List<XsdNode> components = new ArrayList<>(schema.getChildren());
+        for (XsdSchema imported : schema.getImportedSchemas().values()) {
+            components.addAll(imported.getChildren());
+        }
+        return components;
+    }
+}
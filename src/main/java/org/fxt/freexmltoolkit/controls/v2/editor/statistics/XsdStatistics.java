@@ -328,6 +328,28 @@ public record XsdStatistics(
             return this;
         }
 
+        /**
+         * Adds the node, documentation and cardinality counts of another builder to this one.
+         * Used to combine statistics collected per schema component.
+         */
+        public Builder merge(Builder other) {
+            other.nodeCountsByType.forEach((type, count) -> nodeCountsByType.merge(type, count, Integer::sum));
+            totalNodeCount += other.totalNodeCount;
+            nodesWithDocumentation += other.nodesWithDocumentation;
+            nodesWithAppInfo += other.nodesWithAppInfo;
+            other.appInfoTagCounts.forEach((tag, count) -> appInfoTagCounts.merge(tag, count, Integer::sum));
+            documentationLanguages.addAll(other.documentationLanguages);
+            optionalElements += other.optionalElements;
+            requiredElements += other.requiredElements;
+            unboundedElements += other.unboundedElements;
+            other.nodeCountsByFile.forEach((file, counts) -> {
+                Map<XsdNodeType, Integer> target =
+                        nodeCountsByFile.computeIfAbsent(file, k -> new EnumMap<>(XsdNodeType.class));
+                counts.forEach((type, count) -> target.merge(type, count, Integer::sum));
+            });
+            return this;
+        }
+
         /**
          * Calculates the documentation coverage percentage based on current counts.
          */
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -12,7 +13,7 @@ import java.util.Set;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.fxt.freexmltoolkit.controls.v2.editor.usage.TypeUsageFinder;
+import org.fxt.freexmltoolkit.controls.v2.editor.usage.TypeReferenceIndex;
 import org.fxt.freexmltoolkit.controls.v2.model.IncludeSourceInfo;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdAppInfo;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdAttributeGroup;
@@ -32,6 +33,11 @@ import org.fxt.freexmltoolkit.controls.v2.model.XsdSimpleType;
  * Traverses the XsdNode tree and gathers information about all nodes,
  * documentation, type usage, and cardinality.
  *
+ * <p>Node counts, documentation, cardinality and type references are kept per top-level
+ * component. When created with an {@link XsdSchemaChangeTracker}, repeated calls to
+ * {@link #collect()} only re-traverse the components that changed since the previous call and
+ * combine the cached contributions of all others.</p>
+ *
  * @since 2.0
  */
 public class XsdStatisticsCollector {
@@ -39,6 +45,21 @@ public class XsdStatisticsCollector {
     private static final Logger logger = LogManager.getLogger(XsdStatisticsCollector.class);
 
     private final XsdSchema schema;
+    private final XsdSchemaChangeTracker tracker;
+    private final XsdSchemaChangeTracker.ChangeSet changeSet;
+
+    // Cached contributions per top-level component, in document order
+    private Map<XsdNode, ComponentStatistics> components = new LinkedHashMap<>();
+
+    /**
+     * Statistics contributed by one top-level component.
+     *
+     * @param counts         node, documentation and cardinality counts of the component subtree
+     * @param mainSchema     whether the component belongs to the main schema (not to an import)
+     * @param definedTypes   named complex and simple types defined in the component
+     */
+    private record ComponentStatistics(XsdStatistics.Builder counts, boolean mainSchema, Set<String> definedTypes) {
+    }
 
     /**
      * Creates a new statistics collector for the given schema.
@@ -47,8 +68,21 @@ public class XsdStatisticsCollector {
      * @throws NullPointerException if schema is null
      */
     public XsdStatisticsCollector(XsdSchema schema) {
+        this(schema, null);
+    }
+
+    /**
+     * Creates a statistics collector that updates its result incrementally.
+     *
+     * @param schema  the XSD schema to analyze (must not be null)
+     * @param tracker the change tracker of the schema, or {@code null} to traverse everything on each call
+     * @throws NullPointerException if schema is null
+     */
+    public XsdStatisticsCollector(XsdSchema schema, XsdSchemaChangeTracker tracker) {
         Objects.requireNonNull(schema, "Schema cannot be null");
         this.schema = schema;
+        this.tracker = tracker;
+        this.changeSet = tracker != null ? tracker.newChangeSet() : null;
     }
 
     /**
@@ -56,7 +90,7 @@ public class XsdStatisticsCollector {
      *
      * @return the collected statistics
      */
-    public XsdStatistics collect() {
+    public synchronized XsdStatistics collect() {
         logger.info("Collecting statistics for schema: {}", schema.getMainSchemaPath());
         long startTime = System.currentTimeMillis();
 
@@ -68,14 +102,15 @@ public class XsdStatisticsCollector {
         // Collect schema references (includes/imports) information
         collectSchemaReferences(builder);
 
-        // Traverse tree and collect node statistics (main schema and includes)
-        Set<String> visitedIds = new HashSet<>();
-        traverseAndCollect(schema, builder, visitedIds);
-
-        // Also traverse imported schemas (they are NOT children of main schema)
-        for (Map.Entry<String, XsdSchema> entry : schema.getImportedSchemas().entrySet()) {
-            logger.debug("Collecting statistics from imported schema: {}", entry.getKey());
-            traverseAndCollect(entry.getValue(), builder, visitedIds);
+        // The schema nodes themselves, then the contributions of all components
+        // (main schema and includes, followed by imported schemas)
+        collectNodeStatistics(schema, builder);
+        for (XsdSchema imported : schema.getImportedSchemas().values()) {
+            collectNodeStatistics(imported, builder);
+        }
+        int traversed = updateComponents();
+        for (ComponentStatistics component : components.values()) {
+            builder.merge(component.counts());
         }
 
         // Calculate documentation coverage
@@ -87,11 +122,58 @@ public class XsdStatisticsCollector {
         XsdStatistics stats = builder.build();
 
         long duration = System.currentTimeMillis() - startTime;
-        logger.info("Statistics collected in {}ms: {} total nodes", duration, stats.totalNodeCount());
+        logger.info("Statistics collected in {}ms: {} total nodes ({} of {} components traversed)",
+                duration, stats.totalNodeCount(), traversed, components.size());
 
         return stats;
     }
 
+    /**
+     * Re-traverses new and changed components and drops the ones that no longer exist.
+     *
+     * @return the number of traversed components
+     */
+    private int updateComponents() {
+        XsdSchemaChangeTracker.Changes changes = changeSet != null
+                ? changeSet.poll()
+                : XsdSchemaChangeTracker.Changes.ALL;
+
+        Map<XsdNode, ComponentStatistics> updated = new LinkedHashMap<>();
+        int traversed = 0;
+        for (XsdNode component : XsdSchemaChangeTracker.componentsOf(schema)) {
+            if (updated.containsKey(component)) {
+                continue;
+            }
+            boolean mainSchema = component.getParent() == schema;
+            ComponentStatistics cached = components.get(component);
+            if (cached == null || cached.mainSchema() != mainSchema || changes.isDirty(component)) {
+                if (cached == null && tracker != null) {
+                    tracker.observe(component);
+                }
+                cached = collectComponent(component, mainSchema);
+                traversed++;
+            }
+            updated.put(component, cached);
+        }
+        components = updated;
+        return traversed;
+    }
+
+    /**
+     * Traverses one top-level component.
+     */
+    private ComponentStatistics collectComponent(XsdNode component, boolean mainSchema) {
+        XsdStatistics.Builder counts = XsdStatistics.builder();
+        traverseAndCollect(component, counts, new HashSet<>());
+
+        Set<String> definedTypes = new HashSet<>();
+        if (mainSchema) {
+            // Type usage is analyzed for the main schema (with includes) only
+            collectTypeNamesRecursive(component, definedTypes, new HashSet<>());
+        }
+        return new ComponentStatistics(counts, mainSchema, definedTypes);
+    }
+
     /**
      * Collects schema-level information.
      */
@@ -344,6 +426,21 @@ public class XsdStatisticsCollector {
             visitedIds.add(nodeId);
         }
 
+        collectNodeStatistics(node, builder);
+
+        // Recurse to children
+        List<XsdNode> children = node.getChildren();
+        if (children != null) {
+            for (XsdNode child : children) {
+                traverseAndCollect(child, builder, visitedIds);
+            }
+        }
+    }
+
+    /**
+     * Collects the statistics of a single node, without its children.
+     */
+    private void collectNodeStatistics(XsdNode node, XsdStatistics.Builder builder) {
         // Count this node by type
         XsdNodeType nodeType = node.getNodeType();
         if (nodeType != null) {
@@ -363,14 +460,6 @@ public class XsdStatisticsCollector {
         if (node instanceof XsdElement element) {
             collectCardinalityStats(element, builder);
         }
-
-        // Recurse to children
-        List<XsdNode> children = node.getChildren();
-        if (children != null) {
-            for (XsdNode child : children) {
-                traverseAndCollect(child, builder, visitedIds);
-            }
-        }
     }
 
     /**
@@ -457,11 +546,16 @@ public class XsdStatisticsCollector {
     }
 
     /**
-     * Collects type usage statistics using TypeUsageFinder.
+     * Collects type usage statistics for the types defined in the main schema.
+     * A type is used once per main-schema node referencing it, as looked up in the schema's
+     * {@link TypeReferenceIndex}.
      */
     private void collectTypeUsageStatistics(XsdStatistics.Builder builder) {
         // Collect all defined type names
-        Set<String> definedTypes = collectDefinedTypeNames();
+        Set<String> definedTypes = new HashSet<>();
+        for (ComponentStatistics component : components.values()) {
+            definedTypes.addAll(component.definedTypes());
+        }
 
         if (definedTypes.isEmpty()) {
             logger.debug("No user-defined types found in schema");
@@ -470,13 +564,13 @@ public class XsdStatisticsCollector {
 
         logger.debug("Found {} defined types, analyzing usage...", definedTypes.size());
 
-        TypeUsageFinder usageFinder = new TypeUsageFinder(schema);
         Map<String, Integer> usageCounts = new HashMap<>();
         Set<String> unusedTypes = new HashSet<>();
         List<XsdStatistics.TypeUsageEntry> topUsedTypes = new ArrayList<>();
 
+        TypeReferenceIndex referenceIndex = TypeReferenceIndex.forSchema(schema);
         for (String typeName : definedTypes) {
-            int count = usageFinder.countUsages(typeName);
+            int count = referenceIndex.countTypeUsages(typeName, false);
             usageCounts.put(typeName, count);
 
             if (count == 0) {
@@ -499,15 +593,6 @@ public class XsdStatisticsCollector {
         logger.debug("Type usage analysis complete: {} unused types", unusedTypes.size());
     }
 
-    /**
-     * Collects all defined type names (ComplexTypes and SimpleTypes).
-     */
-    private Set<String> collectDefinedTypeNames() {
-        Set<String> typeNames = new HashSet<>();
-        collectTypeNamesRecursive(schema, typeNames, new HashSet<>());
-        return typeNames;
-    }
-
     /**
      * Recursively collects type names from the node tree.
      */
@@ -0,0 +1,416 @@
+package org.fxt.freexmltoolkit.controls.v2.editor.usage;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Predicate;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.model.IncludeSourceInfo;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdAlternative;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdAttribute;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdAttributeGroup;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdElement;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdExtension;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdGroup;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdList;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdNode;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdRestriction;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdUnion;
+
+/**
+ * Reverse index from referenced names to the nodes referencing them, covering a schema and its
+ * imported schemas.
+ * <p>
+ * The index records type references (element and attribute types, restriction and extension
+ * bases, list item types, union member types, alternative types) as well as {@code ref}
+ * references to global elements, attributes, groups and attribute groups. Names are stored
+ * without namespace prefix, see {@link TypeUsageFinder#normalizeTypeName(String)}.
+ * <p>
+ * The index is built once per schema, see {@link #forSchema(XsdSchema)}, and kept up to date
+ * from the property events of the model: added and removed subtrees are indexed and unindexed,
+ * and a node whose reference attribute changes is re-indexed on its own. Imported schemas
+ * are registered without an event and are therefore re-synchronised on each query.
+ *
+ * @since 2.0
+ */
+public class TypeReferenceIndex {
+
+    private static final Logger logger = LogManager.getLogger(TypeReferenceIndex.class);
+
+    /**
+     * Properties of the model holding a reference to a named component.
+     */
+    private static final Set<String> REFERENCE_PROPERTIES = Set.of("type", "ref", "base", "itemType", "memberTypes");
+
+    // The index is kept alive by the listener registered on its schema, so the registry must
+    // reference it weakly; otherwise the schema (reachable from the index) would never be released
+    private static final Map<XsdSchema, WeakReference<TypeReferenceIndex>> indexes = new WeakHashMap<>();
+
+    private final XsdSchema schema;
+    private final PropertyChangeListener nodeListener = this::onNodeChanged;
+
+    /** Indexed nodes and the schema (main or imported) they belong to. */
+    private final Map<XsdNode, XsdSchema> owners = new IdentityHashMap<>();
+    private final Map<XsdNode, List<Reference>> referencesByNode = new IdentityHashMap<>();
+    private final Map<String, Set<Reference>> referencesByName = new HashMap<>();
+    /** Names whose bucket received entries out of document order since it was last sorted. */
+    private final Set<String> unorderedNames = new HashSet<>();
+    private final List<XsdSchema> roots = new ArrayList<>();
+
+    /**
+     * A single reference from a node to a named component.
+     */
+    private record Reference(XsdNode node, UsageReferenceType referenceType, String name) {
+    }
+
+    private TypeReferenceIndex(XsdSchema schema) {
+        this.schema = schema;
+        long start = System.currentTimeMillis();
+        roots.add(schema);
+        index(schema, schema, true);
+        for (XsdSchema imported : schema.getImportedSchemas().values()) {
+            roots.add(imported);
+            index(imported, imported, true);
+        }
+        logger.debug("Built type reference index: {} nodes, {} names in {}ms",
+                owners.size(), referencesByName.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Returns the index of a schema, building it on first use.
+     *
+     * @param schema the main schema (must not be null)
+     * @return the shared index
+     * @throws NullPointerException if schema is null
+     */
+    public static TypeReferenceIndex forSchema(XsdSchema schema) {
+        Objects.requireNonNull(schema, "Schema cannot be null");
+        synchronized (indexes) {
+            WeakReference<TypeReferenceIndex> ref = indexes.get(schema);
+            TypeReferenceIndex index = ref != null ? ref.get() : null;
+            if (index == null) {
+                index = new TypeReferenceIndex(schema);
+                indexes.put(schema, new WeakReference<>(index));
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Finds all type references to a type, in the main schema and in imported schemas.
+     *
+     * @param typeName the type name, with or without namespace prefix
+     * @return the usage locations in document order (never null, may be empty)
+     */
+    public List<TypeUsageLocation> findTypeUsages(String typeName) {
+        return findTypeUsages(typeName, true);
+    }
+
+    /**
+     * Finds the type references to a type.
+     *
+     * @param typeName       the type name, with or without namespace prefix
+     * @param includeImports whether references from imported schemas are reported
+     * @return the usage locations in document order (never null, may be empty)
+     */
+    public List<TypeUsageLocation> findTypeUsages(String typeName, boolean includeImports) {
+        return findReferences(typeName, UsageReferenceType::isTypeReference, includeImports);
+    }
+
+    /**
+     * Finds all references of any kind to a name, e.g. to update them when a global component
+     * is renamed.
+     *
+     * @param name the referenced name, with or without namespace prefix
+     * @return the usage locations in document order (never null, may be empty)
+     */
+    public List<TypeUsageLocation> findReferences(String name) {
+        return findReferences(name, referenceType -> true);
+    }
+
+    /**
+     * Finds the references of the given kinds to a name.
+     *
+     * @param name   the referenced name, with or without namespace prefix
+     * @param filter selects the reference kinds to report
+     * @return the usage locations in document order (never null, may be empty)
+     */
+    public List<TypeUsageLocation> findReferences(String name, Predicate<UsageReferenceType> filter) {
+        return findReferences(name, filter, true);
+    }
+
+    private synchronized List<TypeUsageLocation> findReferences(String name, Predicate<UsageReferenceType> filter,
+                                                                boolean includeImports) {
+        if (name == null || name.isBlank()) {
+            return List.of();
+        }
+        syncImportedSchemas();
+        List<TypeUsageLocation> usages = new ArrayList<>();
+        for (Reference reference : bucket(TypeUsageFinder.normalizeTypeName(name))) {
+            if (filter.test(reference.referenceType())
+                    && (includeImports || owners.get(reference.node()) == schema)) {
+                usages.add(new TypeUsageLocation(reference.node(), reference.referenceType(),
+                        getSourceFile(reference.node())));
+            }
+        }
+        return usages;
+    }
+
+    /**
+     * Counts the nodes referencing a type.
+     *
+     * @param typeName       the type name, with or without namespace prefix
+     * @param includeImports whether references from imported schemas are counted
+     * @return the number of type references
+     */
+    public synchronized int countTypeUsages(String typeName, boolean includeImports) {
+        if (typeName == null || typeName.isBlank()) {
+            return 0;
+        }
+        syncImportedSchemas();
+        Set<Reference> references = referencesByName.get(TypeUsageFinder.normalizeTypeName(typeName));
+        if (references == null) {
+            return 0;
+        }
+        int count = 0;
+        for (Reference reference : references) {
+            if (reference.referenceType().isTypeReference()
+                    && (includeImports || owners.get(reference.node()) == schema)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // ========== Index maintenance ==========
+
+    /**
+     * Indexes a subtree.
+     *
+     * @param inDocumentOrder whether the subtree follows every indexed node in document order,
+     *                        so that its references can be appended to the buckets as they are
+     */
+    private void index(XsdNode node, XsdSchema owner, boolean inDocumentOrder) {
+        if (node == null || owners.containsKey(node)) {
+            return;
+        }
+        owners.put(node, owner);
+        node.addPropertyChangeListener(nodeListener);
+        addReferences(node, inDocumentOrder);
+        for (XsdNode child : node.getChildren()) {
+            index(child, owner, inDocumentOrder);
+        }
+    }
+
+    private void unindex(XsdNode node) {
+        if (owners.remove(node) == null) {
+            return;
+        }
+        node.removePropertyChangeListener(nodeListener);
+        removeReferences(node);
+        for (XsdNode child : node.getChildren()) {
+            unindex(child);
+        }
+    }
+
+    private void addReferences(XsdNode node, boolean inDocumentOrder) {
+        List<Reference> references = referencesOf(node);
+        if (references.isEmpty()) {
+            return;
+        }
+        referencesByNode.put(node, references);
+        for (Reference reference : references) {
+            Set<Reference> bucket = referencesByName.computeIfAbsent(reference.name(), k -> new LinkedHashSet<>());
+            if (!inDocumentOrder && !bucket.isEmpty()) {
+                unorderedNames.add(reference.name());
+            }
+            bucket.add(reference);
+        }
+    }
+
+    private void removeReferences(XsdNode node) {
+        List<Reference> references = referencesByNode.remove(node);
+        if (references == null) {
+            return;
+        }
+        for (Reference reference : references) {
+            Set<Reference> bucket = referencesByName.get(reference.name());
+            if (bucket != null) {
+                bucket.remove(reference);
+                if (bucket.isEmpty()) {
+                    referencesByName.remove(reference.name());
+                    unorderedNames.remove(reference.name());
+                }
+            }
+        }
+    }
+
+    private synchronized void onNodeChanged(PropertyChangeEvent evt) {
+        if (!(evt.getSource() instanceof XsdNode node) || !owners.containsKey(node)) {
+            return;
+        }
+        String property = evt.getPropertyName();
+        if ("children".equals(property)) {
+            updateChildren(node, evt.getOldValue());
+        } else if (REFERENCE_PROPERTIES.contains(property)) {
+            removeReferences(node);
+            addReferences(node, false);
+        }
+    }
+
+    private void updateChildren(XsdNode parent, Object oldValue) {
+        List<XsdNode> current = parent.getChildren();
+        if (oldValue instanceof Collection<?> oldChildren) {
+            Set<XsdNode> remaining = Collections.newSetFromMap(new IdentityHashMap<>());
+            remaining.addAll(current);
+            for (Object old : oldChildren) {
+                if (old instanceof XsdNode oldChild && !remaining.contains(oldChild)) {
+                    unindex(oldChild);
+                }
+            }
+        }
+        XsdSchema owner = owners.get(parent);
+        for (XsdNode child : current) {
+            index(child, owner, false);
+        }
+    }
+
+    /**
+     * Imported schemas are registered on the main schema without a property event, so the
+     * set of indexed roots is compared with the current imports before each query.
+     */
+    private void syncImportedSchemas() {
+        Collection<XsdSchema> imported = schema.getImportedSchemas().values();
+        if (roots.size() == imported.size() + 1 && roots.subList(1, roots.size()).containsAll(imported)) {
+            return;
+        }
+        Set<XsdSchema> current = Collections.newSetFromMap(new IdentityHashMap<>());
+        current.addAll(imported);
+        for (XsdSchema root : List.copyOf(roots.subList(1, roots.size()))) {
+            if (!current.contains(root)) {
+                roots.remove(root);
+                unindex(root);
+            }
+        }
+        for (XsdSchema root : imported) {
+            if (!owners.containsKey(root)) {
+                roots.add(root);
+                index(root, root, true);
+            }
+        }
+        logger.debug("Re-synchronised imported schemas of type reference index: {} imports", roots.size() - 1);
+    }
+
+    // ========== Queries ==========
+
+    private Set<Reference> bucket(String name) {
+        Set<Reference> bucket = referencesByName.get(name);
+        if (bucket == null) {
+            return Set.of();
+        }
+        if (unorderedNames.remove(name)) {
+            // Incremental additions were appended; restore document order once
+            List<Reference> sorted = new ArrayList<>(bucket);
+            Map<XsdNode, int[]> positions = new IdentityHashMap<>();
+            sorted.sort(Comparator.comparing(
+                    (Reference reference) -> positions.computeIfAbsent(reference.node(), this::documentPosition),
+                    TypeReferenceIndex::comparePositions));
+            bucket.clear();
+            bucket.addAll(sorted);
+        }
+        return bucket;
+    }
+
+    /**
+     * Computes the position of a node as the root index followed by the child index at each level.
+     */
+    private int[] documentPosition(XsdNode node) {
+        List<Integer> path = new ArrayList<>();
+        XsdNode current = node;
+        while (current.getParent() != null) {
+            path.add(current.getParent().getChildren().indexOf(current));
+            current = current.getParent();
+        }
+        int[] position = new int[path.size() + 1];
+        position[0] = roots.indexOf(current);
+        for (int i = 0; i < path.size(); i++) {
+            position[i + 1] = path.get(path.size() - 1 - i);
+        }
+        return position;
+    }
+
+    private static int comparePositions(int[] a, int[] b) {
+        int common = Math.min(a.length, b.length);
+        for (int i = 0; i < common; i++) {
+            if (a[i] != b[i]) {
+                return Integer.compare(a[i], b[i]);
+            }
+        }
+        return Integer.compare(a.length, b.length);
+    }
+
+    /**
+     * Extracts the references a single node makes.
+     * A union referencing the same type several times counts as one reference.
+     */
+    private static List<Reference> referencesOf(XsdNode node) {
+        List<Reference> references = new ArrayList<>(1);
+        if (node instanceof XsdElement element) {
+            addReference(references, node, UsageReferenceType.ELEMENT_TYPE, element.getType());
+            addReference(references, node, UsageReferenceType.ELEMENT_REF, element.getRef());
+        } else if (node instanceof XsdAttribute attribute) {
+            addReference(references, node, UsageReferenceType.ATTRIBUTE_TYPE, attribute.getType());
+            addReference(references, node, UsageReferenceType.ATTRIBUTE_REF, attribute.getRef());
+        } else if (node instanceof XsdRestriction restriction) {
+            addReference(references, node, UsageReferenceType.RESTRICTION_BASE, restriction.getBase());
+        } else if (node instanceof XsdExtension extension) {
+            addReference(references, node, UsageReferenceType.EXTENSION_BASE, extension.getBase());
+        } else if (node instanceof XsdList list) {
+            addReference(references, node, UsageReferenceType.LIST_ITEM_TYPE, list.getItemType());
+        } else if (node instanceof XsdUnion union && union.getMemberTypes() != null) {
+            for (String memberType : union.getMemberTypes()) {
+                addReference(references, node, UsageReferenceType.UNION_MEMBER_TYPE, memberType);
+            }
+        } else if (node instanceof XsdAlternative alternative) {
+            addReference(references, node, UsageReferenceType.ALTERNATIVE_TYPE, alternative.getType());
+        } else if (node instanceof XsdGroup group) {
+            addReference(references, node, UsageReferenceType.GROUP_REF, group.getRef());
+        } else if (node instanceof XsdAttributeGroup attributeGroup) {
+            addReference(references, node, UsageReferenceType.ATTRIBUTE_GROUP_REF, attributeGroup.getRef());
+        }
+        return references;
+    }
+
+    private static void addReference(List<Reference> references, XsdNode node, UsageReferenceType referenceType,
+                                     String name) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        Reference reference = new Reference(node, referenceType, TypeUsageFinder.normalizeTypeName(name));
+        if (!references.contains(reference)) {
+            references.add(reference);
+        }
+    }
+
+    private static Path getSourceFile(XsdNode node) {
+        IncludeSourceInfo sourceInfo = node.getSourceInfo();
+        return sourceInfo != null ? sourceInfo.getSourceFile() : null;
+    }
+}
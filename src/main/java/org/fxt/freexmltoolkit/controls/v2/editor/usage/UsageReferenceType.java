@@ -1,8 +1,8 @@
 package org.fxt.freexmltoolkit.controls.v2.editor.usage;
 
 /**
- * Enumeration of ways a type can be referenced in XSD.
- * Used by {@link TypeUsageFinder} to categorize usage locations.
+ * Enumeration of ways a type or another global component can be referenced in XSD.
+ * Used by {@link TypeUsageFinder} and {@link TypeReferenceIndex} to categorize usage locations.
  *
  * @since 2.0
  */
@@ -41,7 +41,40 @@ public enum UsageReferenceType {
     /**
      * Alternative type (XSD 1.1): {@code <xs:alternative type="MyType"/>}
      */
-    ALTERNATIVE_TYPE("Alternative type");
+    ALTERNATIVE_TYPE("Alternative type"),
+
+    /**
+     * Global element reference: {@code <xs:element ref="MyElement"/>}
+     */
+    ELEMENT_REF("Element reference"),
+
+    /**
+     * Global attribute reference: {@code <xs:attribute ref="myAttribute"/>}
+     */
+    ATTRIBUTE_REF("Attribute reference"),
+
+    /**
+     * Model group reference: {@code <xs:group ref="MyGroup"/>}
+     */
+    GROUP_REF("Group reference"),
+
+    /**
+     * Attribute group reference: {@code <xs:attributeGroup ref="MyAttributes"/>}
+     */
+    ATTRIBUTE_GROUP_REF("Attribute group reference");
+
+    /**
+     * Checks whether this is a reference to a simple or complex type, as opposed to a
+     * reference to a global element, attribute or group.
+     *
+     * @return true for type references
+     */
+    public boolean isTypeReference() {
+        return switch (this) {
+            case ELEMENT_REF, ATTRIBUTE_REF, GROUP_REF, ATTRIBUTE_GROUP_REF -> false;
+            default -> true;
+        };
+    }
 
     private final String displayName;
 
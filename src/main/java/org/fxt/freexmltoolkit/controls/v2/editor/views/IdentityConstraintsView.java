@@ -1,7 +1,6 @@
 package org.fxt.freexmltoolkit.controls.v2.editor.views;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
@@ -34,6 +33,7 @@ import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdIdentityConstrain
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdIdentityConstraintAnalyzer.IdentityConstraintInfo;
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdIdentityConstraintAnalyzer.ValidationStatus;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 
 /**
  * View displaying identity constraints (Key, KeyRef, Unique) and assertions.
@@ -45,11 +45,8 @@ public class IdentityConstraintsView extends BorderPane {
     private static final Logger logger = LogManager.getLogger(IdentityConstraintsView.class);
 
     private final XsdSchema schema;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "IdentityConstraintsView-Worker");
-        t.setDaemon(true);
-        return t;
-    });
+    private final ExecutorService executor = ThreadPoolManager.getInstance().newSerialExecutor(
+            "IdentityConstraintsView-Worker", ThreadPoolManager.TaskCategory.CPU);
 
     private AnalysisResult currentResult;
 
@@ -2,7 +2,6 @@ package org.fxt.freexmltoolkit.controls.v2.editor.views;
 
 import java.io.File;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleIntegerProperty;
@@ -55,7 +54,9 @@ import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdQualityChecker.Na
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdQualityChecker.QualityIssue;
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdQualityChecker.QualityResult;
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdQualityExporter;
+import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdSchemaChangeTracker;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 
 /**
  * View displaying XSD schema quality analysis results.
@@ -68,11 +69,10 @@ public class QualityChecksView extends BorderPane {
     private static final Logger logger = LogManager.getLogger(QualityChecksView.class);
 
     private final XsdSchema schema;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "QualityChecksView-Worker");
-        t.setDaemon(true);
-        return t;
-    });
+    // Kept across refreshes so only changed schema components are re-analyzed
+    private final XsdQualityChecker checker;
+    private final ExecutorService executor = ThreadPoolManager.getInstance().newSerialExecutor(
+            "QualityChecksView-Worker", ThreadPoolManager.TaskCategory.CPU);
 
     private QualityResult currentResult;
     private final XsdQualityExporter exporter = new XsdQualityExporter();
@@ -110,6 +110,7 @@ public class QualityChecksView extends BorderPane {
      */
     public QualityChecksView(XsdSchema schema) {
         this.schema = schema;
+        this.checker = new XsdQualityChecker(schema, XsdSchemaChangeTracker.forSchema(schema));
         initializeUI();
         refresh();
     }
@@ -213,7 +214,7 @@ public class QualityChecksView extends BorderPane {
         // Category filter
         categoryFilter = new ComboBox<>();
         categoryFilter.getItems().addAll("All Categories", "Naming Convention", "Best Practice", "Deprecated",
-                "Constraint Conflict", "Inconsistent Definition", "Duplicate Definition");
+                "Constraint Conflict", "Inconsistent Definition", "Duplicate Definition", "Unused Type");
         categoryFilter.setValue("All Categories");
         categoryFilter.setOnAction(e -> applyFilters());
 
@@ -595,6 +596,10 @@ public class QualityChecksView extends BorderPane {
                 icon.setIconLiteral("bi-exclamation-triangle-fill");
                 icon.setIconColor(Color.RED);
             }
+            case UNUSED_TYPE -> {
+                icon.setIconLiteral("bi-trash");
+                icon.setIconColor(Color.GRAY);
+            }
             default -> throw new IllegalStateException("Unexpected value: " + category);
         }
 
@@ -613,6 +618,7 @@ public class QualityChecksView extends BorderPane {
             case INCONSISTENT_DEFINITION -> "Inconsistent Definition";
             case DUPLICATE_DEFINITION -> "Duplicate Definition";
             case DUPLICATE_ELEMENT_IN_CONTAINER -> "Duplicate Element";
+            case UNUSED_TYPE -> "Unused Type";
         };
     }
 
@@ -691,7 +697,6 @@ public class QualityChecksView extends BorderPane {
 
         executor.submit(() -> {
             try {
-                XsdQualityChecker checker = new XsdQualityChecker(schema);
                 QualityResult result = checker.check();
 
                 Platform.runLater(() -> {
@@ -3,6 +3,7 @@ package org.fxt.freexmltoolkit.controls.v2.editor.views;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
+import javafx.application.Platform;
 import javafx.scene.control.Tab;
 import javafx.scene.control.TabPane;
 
@@ -84,6 +85,11 @@ public class SchemaAnalysisTabPane extends TabPane {
      */
     private final PropertyChangeListener schemaChangeListener = this::onSchemaChanged;
 
+    /**
+     * Whether a refresh is already scheduled; a burst of schema events triggers a single refresh.
+     */
+    private boolean refreshScheduled;
+
     /**
      * Creates a new schema analysis tab pane for the specified XSD schema.
      * <p>
@@ -171,8 +177,15 @@ public class SchemaAnalysisTabPane extends TabPane {
      * @param evt the property change event containing details about the schema modification
      */
     private void onSchemaChanged(PropertyChangeEvent _evt) {
-        logger.debug("Schema changed, refreshing analysis views");
-        refreshAll();
+        if (refreshScheduled) {
+            return;
+        }
+        refreshScheduled = true;
+        Platform.runLater(() -> {
+            refreshScheduled = false;
+            logger.debug("Schema changed, refreshing analysis views");
+            refreshAll();
+        });
     }
 
     /**
@@ -7,7 +7,6 @@ import java.io.IOException;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
@@ -42,12 +41,14 @@ import javafx.stage.Window;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.fxt.freexmltoolkit.controls.icons.IconifyIcon;
+import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdSchemaChangeTracker;
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdSchemaReferenceInfo;
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdStatistics;
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdStatisticsCollector;
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdStatisticsExporter;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdNodeType;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 
 /**
  * View displaying comprehensive statistics about an XSD schema.
@@ -61,11 +62,10 @@ public class SchemaStatisticsView extends BorderPane {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private final XsdSchema schema;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "SchemaStatisticsView-Worker");
-        t.setDaemon(true);
-        return t;
-    });
+    // Kept across refreshes so only changed schema components are re-traversed
+    private final XsdStatisticsCollector collector;
+    private final ExecutorService executor = ThreadPoolManager.getInstance().newSerialExecutor(
+            "SchemaStatisticsView-Worker", ThreadPoolManager.TaskCategory.CPU);
 
     private XsdStatistics currentStatistics;
     private final XsdStatisticsExporter exporter = new XsdStatisticsExporter();
@@ -124,6 +124,7 @@ public class SchemaStatisticsView extends BorderPane {
      */
     public SchemaStatisticsView(XsdSchema schema) {
         this.schema = schema;
+        this.collector = new XsdStatisticsCollector(schema, XsdSchemaChangeTracker.forSchema(schema));
         initializeUI();
         registerSchemaListener();
         refreshStatistics();
@@ -507,7 +508,6 @@ public class SchemaStatisticsView extends BorderPane {
 
         executor.submit(() -> {
             try {
-                XsdStatisticsCollector collector = new XsdStatisticsCollector(schema);
                 XsdStatistics stats = collector.collect();
 
                 Platform.runLater(() -> {
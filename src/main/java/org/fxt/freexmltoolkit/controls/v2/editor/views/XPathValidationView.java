@@ -1,7 +1,6 @@
 package org.fxt.freexmltoolkit.controls.v2.editor.views;
 
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
@@ -35,6 +34,7 @@ import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdXPathValidator.Se
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdXPathValidator.ValidationResult;
 import org.fxt.freexmltoolkit.controls.v2.editor.statistics.XsdXPathValidator.XPathValidationIssue;
 import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 import org.w3c.dom.Document;
 
 /**
@@ -48,11 +48,8 @@ public class XPathValidationView extends BorderPane {
     private static final Logger logger = LogManager.getLogger(XPathValidationView.class);
 
     private final XsdSchema schema;
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "XPathValidationView-Worker");
-        t.setDaemon(true);
-        return t;
-    });
+    private final ExecutorService executor = ThreadPoolManager.getInstance().newSerialExecutor(
+            "XPathValidationView-Worker", ThreadPoolManager.TaskCategory.CPU);
 
     private XsdXPathValidator validator;
     private ValidationResult currentResult;
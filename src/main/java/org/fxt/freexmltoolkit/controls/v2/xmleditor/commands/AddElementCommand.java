@@ -92,6 +92,11 @@ public class AddElementCommand implements XmlCommand {
         return false;
     }
 
+    @Override
+    public long estimatedRetainedBytes() {
+        return XmlCommand.retainedBytes(elementToAdd);
+    }
+
     @Override
     public String getDescription() {
         return "Add Element '" + elementToAdd.getName() + "'";
@@ -95,6 +95,11 @@ public class DeleteNodeCommand implements XmlCommand {
         return false;
     }
 
+    @Override
+    public long estimatedRetainedBytes() {
+        return XmlCommand.retainedBytes(nodeToDelete);
+    }
+
     @Override
     public String getDescription() {
         String nodeName = nodeToDelete.getClass().getSimpleName();
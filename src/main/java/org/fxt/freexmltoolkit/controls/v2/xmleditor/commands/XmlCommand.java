@@ -1,6 +1,17 @@
 package org.fxt.freexmltoolkit.controls.v2.xmleditor.commands;
 
+import java.util.List;
+import java.util.Map;
+
 import org.fxt.freexmltoolkit.controls.v2.editor.core.Command;
+import org.fxt.freexmltoolkit.controls.v2.editor.core.RetainedSize;
+import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlCData;
+import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlComment;
+import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlDocument;
+import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlElement;
+import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlNode;
+import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlProcessingInstruction;
+import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlText;
 
 /**
  * Interface for all XML editing commands.
@@ -25,4 +36,41 @@ public interface XmlCommand extends Command<XmlCommand> {
     // All methods are inherited from Command<XmlCommand>
     // Implementations should implement execute(), undo(), getDescription()
     // Optionally override canUndo(), canMergeWith(), mergeWith()
+
+    /**
+     * Estimates what a command retains through a node it holds: the whole subtree while the
+     * node is detached from the document (deleted, or an undone add/paste), nothing beyond
+     * the command itself while the node is part of the live model.
+     *
+     * @param node the node the command holds, may be {@code null}
+     * @return the approximate retained bytes
+     */
+    static long retainedBytes(XmlNode node) {
+        if (node == null || node.getParent() != null) {
+            return RetainedSize.COMMAND_OVERHEAD;
+        }
+        return RetainedSize.COMMAND_OVERHEAD + RetainedSize.ofTree(node,
+                n -> n instanceof XmlElement e ? e.getChildren()
+                        : n instanceof XmlDocument d ? d.getChildren() : List.<XmlNode>of(),
+                XmlCommand::ownBytes);
+    }
+
+    private static long ownBytes(XmlNode node) {
+        long bytes = RetainedSize.NODE_OVERHEAD;
+        if (node instanceof XmlElement element) {
+            bytes += RetainedSize.ofString(element.getName());
+            for (Map.Entry<String, String> attribute : element.getAttributes().entrySet()) {
+                bytes += 32 + RetainedSize.ofString(attribute.getKey()) + RetainedSize.ofString(attribute.getValue());
+            }
+        } else if (node instanceof XmlText text) {
+            bytes += RetainedSize.ofString(text.getText());
+        } else if (node instanceof XmlCData cdata) {
+            bytes += RetainedSize.ofString(cdata.getText());
+        } else if (node instanceof XmlComment comment) {
+            bytes += RetainedSize.ofString(comment.getText());
+        } else if (node instanceof XmlProcessingInstruction pi) {
+            bytes += RetainedSize.ofString(pi.getTarget()) + RetainedSize.ofString(pi.getData());
+        }
+        return bytes;
+    }
 }
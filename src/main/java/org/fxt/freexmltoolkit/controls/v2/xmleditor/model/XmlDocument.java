@@ -1,5 +1,6 @@
 package org.fxt.freexmltoolkit.controls.v2.xmleditor.model;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -309,27 +310,28 @@ public class XmlDocument extends XmlNode {
 
     @Override
     public String serialize(int indent, int indentSize) {
-        StringBuilder sb = new StringBuilder();
+        return serializeToString(indent, indentSize);
+    }
 
+    @Override
+    public void serializeTo(Appendable out, int indent, int indentSize) throws IOException {
         // XML declaration
-        sb.append("<?xml version=\"").append(version).append("\"");
+        out.append("<?xml version=\"").append(version).append("\"");
         if (encoding != null && !encoding.isEmpty()) {
-            sb.append(" encoding=\"").append(encoding).append("\"");
+            out.append(" encoding=\"").append(encoding).append("\"");
         }
         if (standalone != null) {
-            sb.append(" standalone=\"").append(standalone ? "yes" : "no").append("\"");
+            out.append(" standalone=\"").append(standalone ? "yes" : "no").append("\"");
         }
-        sb.append("?>\n");
+        out.append("?>\n");
 
         // Serialize all children
         for (XmlNode child : children) {
-            sb.append(child.serialize(0, indentSize));
+            child.serializeTo(out, 0, indentSize);
             if (child.getNodeType() != XmlNodeType.TEXT) {
-                sb.append("\n");
+                out.append("\n");
             }
         }
-
-        return sb.toString();
     }
 
     @Override
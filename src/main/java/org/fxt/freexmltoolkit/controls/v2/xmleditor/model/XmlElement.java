@@ -1,5 +1,6 @@
 package org.fxt.freexmltoolkit.controls.v2.xmleditor.model;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
@@ -556,47 +557,49 @@ public class XmlElement extends XmlNode {
 
     @Override
     public String serialize(int indent, int indentSize) {
-        StringBuilder sb = new StringBuilder();
+        return serializeToString(indent, indentSize);
+    }
+
+    @Override
+    public void serializeTo(Appendable out, int indent, int indentSize) throws IOException {
         String indentStr = " ".repeat(indent * indentSize);
 
         // Opening tag
-        sb.append(indentStr).append("<").append(getQualifiedName());
+        out.append(indentStr).append("<").append(getQualifiedName());
 
         // Attributes
         for (Map.Entry<String, String> attr : attributes.entrySet()) {
-            sb.append(" ").append(attr.getKey()).append("=\"");
-            sb.append(escapeXml(attr.getValue())).append("\"");
+            out.append(" ").append(attr.getKey()).append("=\"");
+            out.append(escapeXml(attr.getValue())).append("\"");
         }
 
         // Empty element or with children
         if (children.isEmpty()) {
-            sb.append("/>");
+            out.append("/>");
         } else {
-            sb.append(">");
+            out.append(">");
 
             // Children
             boolean hasElementChildren = children.stream().anyMatch(c -> c instanceof XmlElement);
             if (hasElementChildren) {
-                sb.append("\n");
+                out.append("\n");
             }
 
             for (XmlNode child : children) {
                 if (child instanceof XmlElement || child instanceof XmlComment || child instanceof XmlProcessingInstruction) {
-                    sb.append(child.serialize(indent + 1, indentSize));
-                    sb.append("\n");
+                    child.serializeTo(out, indent + 1, indentSize);
+                    out.append("\n");
                 } else {
-                    sb.append(child.serialize(0, indentSize));
+                    child.serializeTo(out, 0, indentSize);
                 }
             }
 
             // Closing tag
             if (hasElementChildren) {
-                sb.append(indentStr);
+                out.append(indentStr);
             }
-            sb.append("</").append(getQualifiedName()).append(">");
+            out.append("</").append(getQualifiedName()).append(">");
         }
-
-        return sb.toString();
     }
 
     @Override
@@ -2,6 +2,8 @@ package org.fxt.freexmltoolkit.controls.v2.xmleditor.model;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.UUID;
 
 /**
@@ -245,6 +247,36 @@ public abstract class XmlNode {
         return serialize(indent);
     }
 
+    /**
+     * Writes this node's XML text to {@code out}, producing exactly what
+     * {@link #serialize(int, int)} returns.
+     *
+     * <p>Container nodes override this to stream their children one by one, so a
+     * whole document can be written to a file without materialising it as a string.
+     * The default implementation appends {@link #serialize(int, int)}.</p>
+     *
+     * @param out        the destination
+     * @param indent     the current indentation level (0 = no indent)
+     * @param indentSize the number of spaces per indentation level
+     * @throws IOException if {@code out} fails
+     */
+    public void serializeTo(Appendable out, int indent, int indentSize) throws IOException {
+        out.append(serialize(indent, indentSize));
+    }
+
+    /**
+     * Runs {@link #serializeTo} into a string; a {@link StringBuilder} never throws.
+     */
+    protected final String serializeToString(int indent, int indentSize) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            serializeTo(sb, indent, indentSize);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
     /**
      * Accepts a visitor for tree traversal.
      * Implements the Visitor pattern for extensible operations.
@@ -1,9 +1,8 @@
 package org.fxt.freexmltoolkit.controls.v2.xmleditor.serialization;
 
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -13,6 +12,7 @@ import java.time.format.DateTimeFormatter;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.common.utilities.AtomicFileWriter;
 import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlDocument;
 import org.fxt.freexmltoolkit.controls.v2.xmleditor.model.XmlNode;
 import org.fxt.freexmltoolkit.di.ServiceRegistry;
@@ -25,6 +25,7 @@ import org.fxt.freexmltoolkit.service.PropertiesService;
  * <ul>
  *   <li>Pretty printing with configurable indentation</li>
  *   <li>Automatic timestamped backups</li>
+ *   <li>Streaming, atomic file saves that leave unchanged files untouched</li>
  *   <li>Character encoding support (default UTF-8)</li>
  *   <li>File and string output</li>
  * </ul>
@@ -102,6 +103,21 @@ public class XmlSerializer {
         return document.serialize(0, indentSize);
     }
 
+    /**
+     * Streams a document's XML text to a writer without building it as one string.
+     *
+     * @param document the document to serialize
+     * @param out      the destination; not closed
+     * @throws IOException if writing fails
+     */
+    public void serialize(XmlDocument document, Writer out) throws IOException {
+        if (document == null) {
+            throw new IllegalArgumentException("Document cannot be null");
+        }
+
+        document.serializeTo(out, 0, indentSize);
+    }
+
     /**
      * Serializes any XML node to string.
      *
@@ -159,29 +175,18 @@ public class XmlSerializer {
     /**
      * Saves a document to a file with optional backup.
      *
+     * <p>The document is streamed into a temporary file that then atomically replaces
+     * the target. If the file already has identical content it is left alone and no
+     * backup is made.</p>
+     *
      * @param document     the document to save
      * @param filePath     the file path
      * @param createBackup whether to create a timestamped backup
      * @throws IOException if an I/O error occurs
      */
     public void saveToFile(XmlDocument document, String filePath, boolean createBackup) throws IOException {
-        Path path = Paths.get(filePath);
-
-        // Create backup if requested and file exists
-        if (createBackup && Files.exists(path)) {
-            createBackup(path);
-        }
-
-        // Serialize to string
-        String xml = serialize(document);
-
-        // Write to file
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(
-                        new FileOutputStream(filePath),
-                        document.getEncoding() != null ? document.getEncoding() : "UTF-8"))) {
-            writer.write(xml);
-        }
+        String encoding = document.getEncoding() != null ? document.getEncoding() : "UTF-8";
+        write(document, Paths.get(filePath), encoding, createBackup);
     }
 
     /**
@@ -194,25 +199,23 @@ public class XmlSerializer {
      * @throws IOException if an I/O error occurs
      */
     public void saveToFile(XmlDocument document, String filePath, String encoding, boolean createBackup) throws IOException {
-        Path path = Paths.get(filePath);
-
-        // Create backup if requested and file exists
-        if (createBackup && Files.exists(path)) {
-            createBackup(path);
-        }
-
         // Update document encoding
         document.setEncoding(encoding);
 
-        // Serialize to string
-        String xml = serialize(document);
+        write(document, Paths.get(filePath), encoding, createBackup);
+    }
 
-        // Write to file
-        try (BufferedWriter writer = new BufferedWriter(
-                new OutputStreamWriter(
-                        new FileOutputStream(filePath),
-                        encoding))) {
-            writer.write(xml);
+    private void write(XmlDocument document, Path path, String encoding, boolean createBackup) throws IOException {
+        Charset charset;
+        try {
+            charset = Charset.forName(encoding);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unsupported encoding: " + encoding, e);
+        }
+        AtomicFileWriter.Result result = AtomicFileWriter.write(path, charset,
+                out -> serialize(document, out), createBackup ? this::createBackup : null);
+        if (!result.written()) {
+            logger.debug("{} unchanged, not rewritten", path);
         }
     }
 
@@ -242,9 +245,10 @@ public class XmlSerializer {
      * - Otherwise, backups are created in the same directory as the original file
      *
      * @param originalPath the original file path
+     * @return the backup file
      * @throws IOException if an I/O error occurs
      */
-    private void createBackup(Path originalPath) throws IOException {
+    private Path createBackup(Path originalPath) throws IOException {
         // Determine backup directory based on settings
         Path backupDir;
         PropertiesService propertiesService = ServiceRegistry.get(PropertiesService.class);
@@ -266,6 +270,7 @@ public class XmlSerializer {
 
         Files.copy(originalPath, backupPath);
         logger.info("Created backup: {}", backupPath);
+        return backupPath;
     }
 
     /**
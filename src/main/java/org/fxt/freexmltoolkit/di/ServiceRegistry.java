@@ -4,6 +4,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Supplier;
 
+import org.fxt.freexmltoolkit.app.StartupTrace;
 import org.fxt.freexmltoolkit.service.AutoUpdateService;
 import org.fxt.freexmltoolkit.service.AutoUpdateServiceImpl;
 import org.fxt.freexmltoolkit.service.ConnectionService;
@@ -168,7 +169,10 @@ public final class ServiceRegistry {
         // ("Recursive update"). Building outside the map and using putIfAbsent allows that
         // re-entrancy; under a rare creation race the duplicate is simply discarded.
         Supplier<?> factory = factories.get(type);
-        Object created = (factory != null) ? factory.get() : getLegacyInstance(type);
+        Object created;
+        try (StartupTrace.Phase ignored = StartupTrace.begin("service " + type.getSimpleName())) {
+            created = (factory != null) ? factory.get() : getLegacyInstance(type);
+        }
         Object previous = instances.putIfAbsent(type, created);
         return (T) (previous != null ? previous : created);
     }
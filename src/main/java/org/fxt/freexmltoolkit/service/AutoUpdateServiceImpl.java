@@ -34,7 +34,6 @@ import java.util.Set;
 import java.util.regex.Pattern;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
@@ -111,11 +110,8 @@ public class AutoUpdateServiceImpl implements AutoUpdateService {
      * Private constructor for singleton pattern.
      */
     private AutoUpdateServiceImpl() {
-        this.executorService = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "AutoUpdateService-Thread");
-            t.setDaemon(true);
-            return t;
-        });
+        this.executorService = ThreadPoolManager.getInstance().newSerialExecutor(
+                "AutoUpdateService-Thread", ThreadPoolManager.TaskCategory.IO);
     }
 
     @Override
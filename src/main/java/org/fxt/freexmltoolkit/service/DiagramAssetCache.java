@@ -0,0 +1,500 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.common.utilities.AtomicFileWriter;
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Content-addressed cache for rasterised documentation diagrams.
+ *
+ * <p>Diagrams are keyed by a hash of the <em>normalised</em> SVG that feeds the Batik transcoder:
+ * element-specific identifiers ({@code id} attributes and links to detail pages) are ignored, so
+ * structurally identical diagrams (e.g. elements sharing a complex type at the same depth) share a
+ * single PNG/JPG. The cache has two levels:</p>
+ * <ul>
+ *   <li>an in-memory LRU bounded by total bytes, shared by all export formats of the running
+ *       application (HTML, Word and PDF export reuse each other's images)</li>
+ *   <li>a disk cache under {@code ~/.freeXmlToolkit/cache/diagrams} (or the directory named by the
+ *       {@value #DIRECTORY_PROPERTY} system property), which survives restarts and CI runs. It is
+ *       bounded by total bytes with least-recently-used eviction (every hit refreshes the file's
+ *       modification time); entries unused for {@value #DISK_RETENTION_DAYS} days are pruned on
+ *       startup</li>
+ * </ul>
+ *
+ * <p>Concurrent requests for the same key are coalesced so every distinct shape is rendered once.</p>
+ */
+public class DiagramAssetCache {
+
+    private static final Logger logger = LogManager.getLogger(DiagramAssetCache.class);
+
+    /**
+     * Bumped whenever the diagram renderer or transcoder settings change the produced pixels.
+     */
+    private static final String RENDERER_VERSION = "1";
+    private static final long DEFAULT_MEMORY_BYTES = 64L * 1024 * 1024;
+    static final long DEFAULT_DISK_BYTES = 512L * 1024 * 1024;
+    static final int DISK_RETENTION_DAYS = 30;
+    /**
+     * System property overriding the disk cache directory of the application-wide cache.
+     */
+    static final String DIRECTORY_PROPERTY = "fxt.diagramCache.dir";
+    private static final HexFormat HEX = HexFormat.of();
+
+    private static volatile DiagramAssetCache instance;
+    private static final Object lock = new Object();
+
+    /**
+     * Raster formats produced by the diagram transcoders.
+     */
+    public enum Format {
+        PNG("png"), JPG("jpg");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+    }
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final AtomicLong diskBytes = new AtomicLong();
+    private final Object diskLock = new Object();
+    private final Map<String, byte[]> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+    private final Map<String, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong renders = new AtomicLong();
+
+    /**
+     * Returns the application-wide cache.
+     *
+     * @return the shared cache instance
+     */
+    public static DiagramAssetCache getInstance() {
+        if (instance == null) {
+            synchronized (lock) {
+                if (instance == null) {
+                    instance = new DiagramAssetCache(defaultDirectory(), DEFAULT_MEMORY_BYTES, DEFAULT_DISK_BYTES);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the disk cache directory of the application-wide cache: the value of
+     * {@value #DIRECTORY_PROPERTY} if set, otherwise {@code ~/.freeXmlToolkit/cache/diagrams}.
+     *
+     * @return the default disk cache directory
+     */
+    static Path defaultDirectory() {
+        String configured = System.getProperty(DIRECTORY_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return Path.of(System.getProperty("user.home"), ".freeXmlToolkit", "cache", "diagrams");
+    }
+
+    /**
+     * Creates a cache with the default disk budget.
+     *
+     * @param directory      the disk cache directory, or {@code null} for a memory-only cache
+     * @param maxMemoryBytes upper bound of the in-memory cache
+     */
+    DiagramAssetCache(Path directory, long maxMemoryBytes) {
+        this(directory, maxMemoryBytes, DEFAULT_DISK_BYTES);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param directory      the disk cache directory, or {@code null} for a memory-only cache
+     * @param maxMemoryBytes upper bound of the in-memory cache
+     * @param maxDiskBytes   upper bound of the disk cache
+     */
+    DiagramAssetCache(Path directory, long maxMemoryBytes, long maxDiskBytes) {
+        this.directory = prepareDirectory(directory);
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        if (this.directory != null) {
+            trimDisk();
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     *
+     * @param memoryHits  requests served from memory
+     * @param diskHits    requests served from the disk cache
+     * @param renders     diagrams that had to be rendered
+     * @param memoryBytes bytes currently held in memory
+     * @param diskBytes   bytes currently held in the disk cache (approximate between evictions)
+     */
+    public record Stats(long memoryHits, long diskHits, long renders, long memoryBytes, long diskBytes) {
+    }
+
+    /**
+     * Computes the cache key of a diagram from its SVG document. Identifiers and links to detail
+     * pages do not change the rendered pixels and are excluded; fragment links ({@code #icon})
+     * are kept.
+     *
+     * @param svgDocument the SVG document that will be transcoded
+     * @param format      the raster format
+     * @return a hex encoded SHA-256 key
+     */
+    public static String key(Document svgDocument, Format format) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        update(digest, RENDERER_VERSION);
+        update(digest, format.name());
+        addNode(digest, svgDocument.getDocumentElement());
+        return HEX.formatHex(digest.digest());
+    }
+
+    private static void addNode(MessageDigest digest, Node node) {
+        if (node == null) {
+            return;
+        }
+        if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+            update(digest, node.getNodeValue());
+            return;
+        }
+        update(digest, node.getNodeName());
+        NamedNodeMap attributes = node.getAttributes();
+        if (attributes != null) {
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Node attribute = attributes.item(i);
+                String name = attribute.getNodeName();
+                String value = attribute.getNodeValue();
+                if ("id".equals(name) || (name.endsWith("href") && !value.startsWith("#"))) {
+                    continue;
+                }
+                update(digest, name);
+                update(digest, value);
+            }
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            addNode(digest, child);
+        }
+        update(digest, "/");
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Returns the rendered diagram for the key, rendering it at most once across all threads.
+     *
+     * @param key      the cache key (see {@link #key(Document, Format)})
+     * @param format   the raster format
+     * @param renderer produces the image bytes on a cache miss
+     * @return the image bytes
+     * @throws Exception if rendering fails
+     */
+    public byte[] getOrRender(String key, Format format, Callable<byte[]> renderer) throws Exception {
+        byte[] cached = fromMemory(key);
+        if (cached != null) {
+            memoryHits.incrementAndGet();
+            return cached;
+        }
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            byte[] bytes = fromDisk(key, format);
+            if (bytes != null) {
+                diskHits.incrementAndGet();
+            } else {
+                bytes = renderer.call();
+                renders.incrementAndGet();
+                toDisk(key, format, bytes);
+            }
+            toMemory(key, bytes);
+            future.complete(bytes);
+            return bytes;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Returns the disk location of a diagram, rendering it on a miss. Exporters can reference this
+     * file instead of holding the bytes. Falls back to a temporary file when no disk cache is
+     * available.
+     *
+     * @param key      the cache key
+     * @param format   the raster format
+     * @param renderer produces the image bytes on a cache miss
+     * @return the path of the image file
+     * @throws Exception if rendering or writing fails
+     */
+    public Path getOrRenderFile(String key, Format format, Callable<byte[]> renderer) throws Exception {
+        if (directory != null) {
+            Path file = fileFor(key, format);
+            if (Files.isRegularFile(file)) {
+                diskHits.incrementAndGet();
+                touch(file);
+                return file;
+            }
+        }
+        byte[] bytes = getOrRender(key, format, renderer);
+        if (directory != null && Files.isRegularFile(fileFor(key, format))) {
+            return fileFor(key, format);
+        }
+        Path temp = Files.createTempFile("fxt-diagram-", "." + format.extension());
+        temp.toFile().deleteOnExit();
+        Files.write(temp, bytes);
+        return temp;
+    }
+
+    /**
+     * Returns the current counters.
+     *
+     * @return the statistics snapshot
+     */
+    public Stats getStats() {
+        synchronized (memory) {
+            return new Stats(memoryHits.get(), diskHits.get(), renders.get(), memoryBytes, diskBytes.get());
+        }
+    }
+
+    /**
+     * Drops all in-memory entries. The disk cache is kept.
+     */
+    public void clearMemory() {
+        synchronized (memory) {
+            memory.clear();
+            memoryBytes = 0;
+        }
+    }
+
+    private byte[] fromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    private void toMemory(String key, byte[] bytes) {
+        if (bytes.length > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            byte[] previous = memory.put(key, bytes);
+            memoryBytes += bytes.length - (previous == null ? 0 : previous.length);
+            Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private byte[] fromDisk(String key, Format format) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = fileFor(key, format);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            touch(file);
+            return bytes;
+        } catch (IOException e) {
+            logger.debug("Could not read cached diagram {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private void toDisk(String key, Format format, byte[] bytes) {
+        if (directory == null) {
+            return;
+        }
+        Path file = fileFor(key, format);
+        try {
+            AtomicFileWriter.write(file, bytes);
+        } catch (IOException e) {
+            logger.debug("Could not write cached diagram {}: {}", file, e.getMessage());
+            return;
+        }
+        if (diskBytes.addAndGet(bytes.length) > maxDiskBytes) {
+            trimDisk();
+        }
+    }
+
+    /**
+     * Recounts the disk cache and, if it exceeds its budget, deletes the least recently used images
+     * until it is back under 90% of the budget, so a full cache does not rescan the directory on
+     * every write.
+     */
+    private void trimDisk() {
+        synchronized (diskLock) {
+            record Entry(Path file, long size, long lastUsed) {
+            }
+            List<Entry> entries = new ArrayList<>();
+            long total = 0;
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file : (Iterable<Path>) files::iterator) {
+                    if (!isImage(file)) {
+                        continue;
+                    }
+                    try {
+                        Entry entry = new Entry(file, Files.size(file), Files.getLastModifiedTime(file).toMillis());
+                        entries.add(entry);
+                        total += entry.size();
+                    } catch (IOException ignored) {
+                        // Deleted concurrently.
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("Could not scan diagram cache {}: {}", directory, e.getMessage());
+                return;
+            }
+            if (total > maxDiskBytes) {
+                long target = maxDiskBytes / 10 * 9;
+                entries.sort(Comparator.comparingLong(Entry::lastUsed));
+                int evicted = 0;
+                for (Entry entry : entries) {
+                    if (total <= target) {
+                        break;
+                    }
+                    try {
+                        Files.deleteIfExists(entry.file());
+                        total -= entry.size();
+                        evicted++;
+                    } catch (IOException e) {
+                        logger.debug("Could not evict cached diagram {}: {}", entry.file(), e.getMessage());
+                    }
+                }
+                logger.debug("Evicted {} diagrams from the disk cache, {} bytes remain", evicted, total);
+            }
+            diskBytes.set(total);
+        }
+    }
+
+    private static boolean isImage(Path file) {
+        String name = file.getFileName().toString();
+        for (Format format : Format.values()) {
+            if (name.endsWith("." + format.extension())) {
+                return Files.isRegularFile(file);
+            }
+        }
+        return false;
+    }
+
+    private Path fileFor(String key, Format format) {
+        return directory.resolve(key + "." + format.extension());
+    }
+
+    private static void touch(Path file) {
+        try {
+            Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+        } catch (IOException ignored) {
+            // Only affects retention and eviction order of the entry.
+        }
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the disk cache directory and prunes stale entries. Returns {@code null} (memory-only
+     * cache) if the directory cannot be used.
+     */
+    private static Path prepareDirectory(Path directory) {
+        if (directory == null) {
+            return null;
+        }
+        try {
+            Files.createDirectories(directory);
+            Instant cutoff = Instant.now().minus(Duration.ofDays(DISK_RETENTION_DAYS));
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(Files::isRegularFile).forEach(file -> {
+                    try {
+                        if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                            Files.deleteIfExists(file);
+                        }
+                    } catch (IOException ignored) {
+                        // A file that cannot be pruned now is retried on the next start.
+                    }
+                });
+            }
+            return directory;
+        } catch (IOException e) {
+            logger.warn("Diagram disk cache unavailable at {}, using memory only: {}", directory, e.getMessage());
+            return null;
+        }
+    }
+}
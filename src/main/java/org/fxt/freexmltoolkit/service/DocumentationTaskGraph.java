@@ -0,0 +1,368 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A small task-graph scheduler for the documentation pipeline.
+ *
+ * <p>Each phase declares the resources it reads ({@code inputs}) and writes ({@code outputs}), for
+ * example {@code "index.html"} or {@code "details/"}. A phase runs after every earlier-declared
+ * phase it conflicts with: read-after-write, write-after-write and write-after-read on the same
+ * resource. Phases without conflicts run concurrently on one shared, bounded
+ * {@link ForkJoinPool}; fan-out inside a phase ({@link #forEachParallel}) uses the same pool, so
+ * the whole run never uses more threads than the pool's parallelism.</p>
+ *
+ * <p>Cancellation is cooperative: {@link #cancel()} (or interrupting the thread waiting in
+ * {@link #run}) sets the graph's cancellation token. Phases not yet started are skipped, and code
+ * running inside a phase observes the token through {@link #checkCancelled()}, which
+ * {@link #forEachParallel} also calls between items.</p>
+ *
+ * <p>After a run, {@link Result} reports the measured wall time per phase and the critical path,
+ * i.e. the dependency chain whose summed durations bound the total run time.</p>
+ */
+public class DocumentationTaskGraph {
+
+    private static final Logger logger = LogManager.getLogger(DocumentationTaskGraph.class);
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    // CPU time consumed by fan-out work of the phase running on the current thread; the phase
+    // thread's own CPU time is measured directly, see PhaseCpu.
+    private static final ThreadLocal<PhaseCpu> CURRENT_PHASE = new ThreadLocal<>();
+
+    // Cancellation token of the graph whose phase is running on the current thread.
+    private static final ThreadLocal<AtomicBoolean> CURRENT_TOKEN = new ThreadLocal<>();
+
+    private final List<Phase> phases = new ArrayList<>();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+
+    private record Phase(String name, Set<String> inputs, Set<String> outputs, Runnable action,
+                         List<Integer> dependencies) {
+    }
+
+    /**
+     * Measured timing of a single phase, relative to the start of the run.
+     *
+     * @param name        the phase name
+     * @param startMillis start offset in milliseconds
+     * @param endMillis   end offset in milliseconds
+     */
+    public record PhaseTiming(String name, long startMillis, long endMillis) {
+        public long durationMillis() {
+            return endMillis - startMillis;
+        }
+    }
+
+    /**
+     * Outcome of a graph run.
+     *
+     * @param timings            measured timings of all phases, in declaration order
+     * @param criticalPath       names of the phases on the critical path, in execution order
+     * @param criticalPathMillis summed duration of the critical path
+     * @param wallMillis         wall time of the whole run
+     */
+    public record Result(List<PhaseTiming> timings, List<String> criticalPath, long criticalPathMillis,
+                         long wallMillis) {
+    }
+
+    /**
+     * Declares a phase. Dependencies on previously declared phases are derived from the resources.
+     *
+     * @param name    the phase name, used for progress reporting
+     * @param inputs  resources the phase reads
+     * @param outputs resources the phase writes
+     * @param action  the work of the phase
+     * @return this graph
+     */
+    public DocumentationTaskGraph add(String name, Set<String> inputs, Set<String> outputs, Runnable action) {
+        List<Integer> dependencies = new ArrayList<>();
+        for (int i = 0; i < phases.size(); i++) {
+            Phase earlier = phases.get(i);
+            if (!Collections.disjoint(inputs, earlier.outputs())
+                    || !Collections.disjoint(outputs, earlier.outputs())
+                    || !Collections.disjoint(outputs, earlier.inputs())) {
+                dependencies.add(i);
+            }
+        }
+        phases.add(new Phase(name, Set.copyOf(inputs), Set.copyOf(outputs), action, List.copyOf(dependencies)));
+        return this;
+    }
+
+    /**
+     * Returns the number of declared phases.
+     *
+     * @return the phase count
+     */
+    public int size() {
+        return phases.size();
+    }
+
+    /**
+     * Requests cancellation. Pending phases are not started; running phases stop at their next
+     * {@link #checkCancelled()}. {@link #run} then throws a {@link CancellationException}.
+     */
+    public void cancel() {
+        cancelled.set(true);
+    }
+
+    /**
+     * Returns whether cancellation was requested.
+     *
+     * @return {@code true} after {@link #cancel()} or an interrupted {@link #run}
+     */
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+
+    /**
+     * Throws a {@link CancellationException} if the current thread is interrupted or runs a phase
+     * of a cancelled graph. Long-running phase code calls this between units of work.
+     */
+    public static void checkCancelled() {
+        AtomicBoolean token = CURRENT_TOKEN.get();
+        if (Thread.currentThread().isInterrupted() || (token != null && token.get())) {
+            throw new CancellationException("Documentation generation was cancelled");
+        }
+    }
+
+    /**
+     * Runs all phases on the given pool and waits for completion. The first failing phase aborts
+     * the run: phases depending on it are not started and its exception is rethrown. If the graph
+     * is cancelled or the calling thread is interrupted, pending phases are skipped, running phases
+     * see the cancellation token and a {@link CancellationException} is thrown.
+     *
+     * @param pool the shared pool for all phases and their fan-out work
+     * @return timings and critical path of the run
+     * @throws Exception the exception of the first failing phase
+     */
+    public Result run(ForkJoinPool pool) throws Exception {
+        long runStart = System.nanoTime();
+        long[] starts = new long[phases.size()];
+        long[] ends = new long[phases.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(phases.size());
+
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            int index = i;
+            CompletableFuture<?>[] dependencies = phase.dependencies().stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            futures.add(CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+                if (cancelled.get()) {
+                    throw new CancellationException("Documentation generation was cancelled");
+                }
+                starts[index] = System.nanoTime() - runStart;
+                // A pool thread waiting inside a phase may steal a phase of another run; restore
+                // the outer token afterwards.
+                AtomicBoolean outer = CURRENT_TOKEN.get();
+                CURRENT_TOKEN.set(cancelled);
+                try {
+                    phase.action().run();
+                } finally {
+                    CURRENT_TOKEN.set(outer);
+                    ends[index] = System.nanoTime() - runStart;
+                }
+            }, pool));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+        } catch (InterruptedException e) {
+            cancelled.set(true);
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Documentation generation was cancelled");
+        } catch (ExecutionException e) {
+            if (cancelled.get()) {
+                throw new CancellationException("Documentation generation was cancelled");
+            }
+            throw unwrap(e.getCause());
+        }
+        if (cancelled.get()) {
+            // Cancelled after the last phase already passed its final check.
+            throw new CancellationException("Documentation generation was cancelled");
+        }
+
+        List<PhaseTiming> timings = new ArrayList<>(phases.size());
+        for (int i = 0; i < phases.size(); i++) {
+            timings.add(new PhaseTiming(phases.get(i).name(), starts[i] / 1_000_000, ends[i] / 1_000_000));
+        }
+        Result result = criticalPath(timings, (System.nanoTime() - runStart) / 1_000_000);
+        logger.debug("Documentation task graph finished in {} ms, critical path {} ms: {}",
+                result.wallMillis(), result.criticalPathMillis(), result.criticalPath());
+        return result;
+    }
+
+    /**
+     * Computes the longest dependency chain by measured phase duration.
+     */
+    private Result criticalPath(List<PhaseTiming> timings, long wallMillis) {
+        int count = phases.size();
+        long[] finish = new long[count];
+        int[] predecessor = new int[count];
+        int last = -1;
+        for (int i = 0; i < count; i++) {
+            predecessor[i] = -1;
+            long earliest = 0;
+            for (int dependency : phases.get(i).dependencies()) {
+                if (finish[dependency] > earliest) {
+                    earliest = finish[dependency];
+                    predecessor[i] = dependency;
+                }
+            }
+            finish[i] = earliest + timings.get(i).durationMillis();
+            if (last < 0 || finish[i] > finish[last]) {
+                last = i;
+            }
+        }
+        LinkedList<String> path = new LinkedList<>();
+        for (int i = last; i >= 0; i = predecessor[i]) {
+            path.addFirst(phases.get(i).name());
+        }
+        return new Result(List.copyOf(timings), List.copyOf(path), last < 0 ? 0 : finish[last], wallMillis);
+    }
+
+    private static Exception unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof Exception exception) {
+            return exception;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    // =================================================================================
+    // Fan-out and CPU accounting
+    // =================================================================================
+
+    /**
+     * Runs {@code action} for every item in parallel. Inside a phase of a running graph this uses
+     * the graph's pool (work-stealing, so the waiting phase thread helps instead of blocking);
+     * outside of a graph it falls back to the common pool. CPU time spent on other threads is
+     * attributed to the calling phase, and the phase's cancellation token is checked before every
+     * item.
+     *
+     * @param items  the items to process
+     * @param action the per-item work
+     * @param <T>    the item type
+     */
+    public static <T> void forEachParallel(Collection<T> items, Consumer<? super T> action) {
+        PhaseCpu phaseCpu = CURRENT_PHASE.get();
+        AtomicBoolean token = CURRENT_TOKEN.get();
+        Consumer<? super T> cancellable = token == null ? action : item -> {
+            if (token.get()) {
+                throw new CancellationException("Documentation generation was cancelled");
+            }
+            action.accept(item);
+        };
+        Consumer<? super T> tracked = phaseCpu == null ? cancellable : item -> {
+            if (Thread.currentThread() == phaseCpu.phaseThread) {
+                cancellable.accept(item);
+                return;
+            }
+            long start = currentThreadCpuNanos();
+            try {
+                cancellable.accept(item);
+            } finally {
+                phaseCpu.fanOutNanos.add(currentThreadCpuNanos() - start);
+            }
+        };
+        if (ForkJoinTask.inForkJoinPool()) {
+            // Parallel streams started from a pool worker execute in that worker's pool.
+            items.parallelStream().forEach(tracked);
+        } else {
+            ForkJoinPool.commonPool().submit(() -> items.parallelStream().forEach(tracked)).join();
+        }
+    }
+
+    /**
+     * Starts CPU accounting for the phase running on the current thread.
+     *
+     * @return a handle that reports the phase's total CPU time
+     */
+    static PhaseCpu startPhaseCpu() {
+        PhaseCpu phaseCpu = new PhaseCpu(Thread.currentThread(), currentThreadCpuNanos(), CURRENT_PHASE.get());
+        CURRENT_PHASE.set(phaseCpu);
+        return phaseCpu;
+    }
+
+    private static long currentThreadCpuNanos() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0;
+    }
+
+    /**
+     * CPU accounting of one phase: the phase thread's own CPU time plus the CPU time of fan-out
+     * work executed by other pool threads. A pool thread waiting inside a phase may steal and run
+     * another phase; the accounting nests, and the stolen phase's CPU time is then also included in
+     * the outer phase, so the figures are an upper bound.
+     */
+    static final class PhaseCpu {
+        private final Thread phaseThread;
+        private final long startNanos;
+        private final PhaseCpu outer;
+        private final LongAdder fanOutNanos = new LongAdder();
+
+        private PhaseCpu(Thread phaseThread, long startNanos, PhaseCpu outer) {
+            this.phaseThread = phaseThread;
+            this.startNanos = startNanos;
+            this.outer = outer;
+        }
+
+        /**
+         * Stops accounting and returns the phase's CPU time.
+         *
+         * @return the CPU time in milliseconds, or {@code -1} if CPU time is not supported
+         */
+        long stop() {
+            if (outer != null) {
+                CURRENT_PHASE.set(outer);
+            } else {
+                CURRENT_PHASE.remove();
+            }
+            if (!THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported()) {
+                return -1;
+            }
+            return (currentThreadCpuNanos() - startNanos + fanOutNanos.sum()) / 1_000_000;
+        }
+    }
+}
@@ -0,0 +1,492 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLEventWriter;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.util.SecureXmlFactory;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Streams large sections into a Word document that was built with Apache POI.
+ *
+ * <p>POI keeps the whole document, including every embedded picture, in memory until it is
+ * written. For schemas with thousands of elements the data dictionary and the element diagrams
+ * dominate that footprint. Instead of building those sections with POI, the Word service inserts a
+ * placeholder paragraph per section ({@link #placeholder}) and writes a small skeleton document.
+ * {@link #write} then copies the skeleton into the target file and, while copying
+ * {@code word/document.xml} with StAX, replaces each placeholder with the output of its
+ * {@link SectionWriter}. Pictures are only referenced by file while the section is written
+ * ({@link Body#image}) and are copied into the archive afterwards, so neither the WordprocessingML
+ * nor the image bytes of a section are held in memory.</p>
+ */
+final class DocxSectionStreamer {
+
+    private static final Logger logger = LogManager.getLogger(DocxSectionStreamer.class);
+
+    static final String W_NS = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    static final String R_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String WP_NS = "http://schemas.openxmlformats.org/drawingml/2006/wordprocessingDrawing";
+    private static final String A_NS = "http://schemas.openxmlformats.org/drawingml/2006/main";
+    private static final String PIC_NS = "http://schemas.openxmlformats.org/drawingml/2006/picture";
+    private static final String PKG_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String CT_NS = "http://schemas.openxmlformats.org/package/2006/content-types";
+    private static final String IMAGE_REL_TYPE = "http://schemas.openxmlformats.org/officeDocument/2006/relationships/image";
+
+    private static final String DOCUMENT_PART = "word/document.xml";
+    private static final String DOCUMENT_RELS_PART = "word/_rels/document.xml.rels";
+    private static final String CONTENT_TYPES_PART = "[Content_Types].xml";
+    private static final String PLACEHOLDER_PREFIX = "fxt-streamed-section:";
+
+    /**
+     * Number of section elements written between two flushes of the output stream.
+     */
+    private static final int FLUSH_INTERVAL = 500;
+
+    /**
+     * Writes the content of one streamed section.
+     */
+    @FunctionalInterface
+    interface SectionWriter {
+        void write(Body body) throws XMLStreamException;
+    }
+
+    private record Section(String name, SectionWriter writer) {
+    }
+
+    private record Media(String relationshipId, String partName, Path source) {
+    }
+
+    private final List<Section> sections = new ArrayList<>();
+    private final Map<Path, Media> media = new LinkedHashMap<>();
+    private final Map<String, Long> sectionMillis = Collections.synchronizedMap(new LinkedHashMap<>());
+    private int drawingId = 100_000;
+
+    /**
+     * Registers a streamed section and returns the text of its placeholder paragraph.
+     *
+     * @param name   the section name, used for timing
+     * @param writer writes the section content
+     * @return the placeholder text to put into an otherwise empty body paragraph
+     */
+    String placeholder(String name, SectionWriter writer) {
+        sections.add(new Section(name, writer));
+        return PLACEHOLDER_PREFIX + (sections.size() - 1);
+    }
+
+    /**
+     * Returns whether sections have been registered.
+     *
+     * @return {@code true} if at least one placeholder was created
+     */
+    boolean hasSections() {
+        return !sections.isEmpty();
+    }
+
+    /**
+     * Returns the time spent writing each streamed section, in write order.
+     *
+     * @return section name to milliseconds
+     */
+    Map<String, Long> getSectionMillis() {
+        synchronized (sectionMillis) {
+            return new LinkedHashMap<>(sectionMillis);
+        }
+    }
+
+    /**
+     * Copies the skeleton document into the target file and streams all registered sections into
+     * the placeholders.
+     *
+     * @param skeleton the document written by POI
+     * @param target   the final document
+     * @throws IOException if reading or writing fails
+     */
+    void write(Path skeleton, Path target) throws IOException {
+        try (ZipFile zip = new ZipFile(skeleton.toFile());
+             ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(target), 65536))) {
+
+            // The main part is written first: pictures are only known once the sections ran.
+            out.putNextEntry(new ZipEntry(DOCUMENT_PART));
+            try (InputStream in = zip.getInputStream(zip.getEntry(DOCUMENT_PART))) {
+                spliceDocument(in, out);
+            } catch (XMLStreamException e) {
+                throw new IOException("Failed to stream Word document sections", e);
+            }
+            out.closeEntry();
+
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                String name = entry.getName();
+                if (DOCUMENT_PART.equals(name)) {
+                    continue;
+                }
+                out.putNextEntry(new ZipEntry(name));
+                try (InputStream in = zip.getInputStream(entry)) {
+                    if (!media.isEmpty() && DOCUMENT_RELS_PART.equals(name)) {
+                        addImageRelationships(in, out);
+                    } else if (!media.isEmpty() && CONTENT_TYPES_PART.equals(name)) {
+                        addPngContentType(in, out);
+                    } else {
+                        in.transferTo(out);
+                    }
+                }
+                out.closeEntry();
+            }
+
+            // Pictures are copied from the diagram assets; their bytes are never held in memory.
+            for (Media picture : media.values()) {
+                out.putNextEntry(new ZipEntry(picture.partName()));
+                Files.copy(picture.source(), out);
+                out.closeEntry();
+            }
+        }
+        logger.debug("Streamed {} Word sections with {} pictures: {}", sections.size(), media.size(), getSectionMillis());
+    }
+
+    private void spliceDocument(InputStream in, OutputStream out) throws XMLStreamException {
+        XMLEventReader reader = SecureXmlFactory.createSecureXMLInputFactory().createXMLEventReader(in);
+        XMLEventWriter writer = XMLOutputFactory.newInstance().createXMLEventWriter(out, "UTF-8");
+        Body body = new Body(writer, out);
+        int depth = 0;
+        try {
+            while (reader.hasNext()) {
+                XMLEvent event = reader.nextEvent();
+                if (event.isStartElement()) {
+                    depth++;
+                    // document > body > p
+                    if (depth == 3 && isParagraph(event.asStartElement())) {
+                        List<XMLEvent> paragraph = readParagraph(event, reader);
+                        depth--;
+                        Section section = sectionFor(paragraph);
+                        if (section != null) {
+                            long start = System.currentTimeMillis();
+                            section.writer().write(body);
+                            body.checkClosed(section.name());
+                            sectionMillis.put(section.name(), System.currentTimeMillis() - start);
+                        } else {
+                            for (XMLEvent paragraphEvent : paragraph) {
+                                writer.add(paragraphEvent);
+                            }
+                        }
+                        continue;
+                    }
+                } else if (event.isEndElement()) {
+                    depth--;
+                }
+                writer.add(event);
+            }
+            writer.flush();
+        } finally {
+            reader.close();
+            writer.close();
+        }
+    }
+
+    private static boolean isParagraph(StartElement element) {
+        return W_NS.equals(element.getName().getNamespaceURI()) && "p".equals(element.getName().getLocalPart());
+    }
+
+    private static List<XMLEvent> readParagraph(XMLEvent start, XMLEventReader reader) throws XMLStreamException {
+        List<XMLEvent> events = new ArrayList<>();
+        events.add(start);
+        int depth = 1;
+        while (depth > 0) {
+            XMLEvent event = reader.nextEvent();
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    private Section sectionFor(List<XMLEvent> paragraph) {
+        StringBuilder text = new StringBuilder();
+        for (XMLEvent event : paragraph) {
+            if (event.isCharacters()) {
+                text.append(event.asCharacters().getData());
+            }
+        }
+        String value = text.toString().trim();
+        if (!value.startsWith(PLACEHOLDER_PREFIX)) {
+            return null;
+        }
+        int index = Integer.parseInt(value.substring(PLACEHOLDER_PREFIX.length()));
+        return index < sections.size() ? sections.get(index) : null;
+    }
+
+    private void addImageRelationships(InputStream in, OutputStream out) throws IOException {
+        Document relationships = parse(in);
+        Element root = relationships.getDocumentElement();
+        for (Media picture : media.values()) {
+            Element relationship = relationships.createElementNS(PKG_REL_NS, "Relationship");
+            relationship.setAttribute("Id", picture.relationshipId());
+            relationship.setAttribute("Type", IMAGE_REL_TYPE);
+            relationship.setAttribute("Target", picture.partName().substring("word/".length()));
+            root.appendChild(relationship);
+        }
+        serialize(relationships, out);
+    }
+
+    private static void addPngContentType(InputStream in, OutputStream out) throws IOException {
+        Document contentTypes = parse(in);
+        Element root = contentTypes.getDocumentElement();
+        NodeList defaults = root.getElementsByTagNameNS(CT_NS, "Default");
+        for (int i = 0; i < defaults.getLength(); i++) {
+            if ("png".equalsIgnoreCase(((Element) defaults.item(i)).getAttribute("Extension"))) {
+                serialize(contentTypes, out);
+                return;
+            }
+        }
+        Element png = contentTypes.createElementNS(CT_NS, "Default");
+        png.setAttribute("Extension", "png");
+        png.setAttribute("ContentType", "image/png");
+        root.insertBefore(png, root.getFirstChild());
+        serialize(contentTypes, out);
+    }
+
+    private static Document parse(InputStream in) throws IOException {
+        try {
+            return SecureXmlFactory.createSecureDocumentBuilder(true).parse(in);
+        } catch (Exception e) {
+            throw new IOException("Failed to read package part", e);
+        }
+    }
+
+    private static void serialize(Document document, OutputStream out) throws IOException {
+        try {
+            document.setXmlStandalone(true);
+            Transformer transformer = SecureXmlFactory.createSecureTransformerFactory().newTransformer();
+            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+            transformer.setOutputProperty(OutputKeys.STANDALONE, "yes");
+            transformer.transform(new DOMSource(document), new StreamResult(out));
+        } catch (Exception e) {
+            throw new IOException("Failed to write package part", e);
+        }
+    }
+
+    /**
+     * Event-based writer for WordprocessingML body content. Element and attribute names passed
+     * without a prefix are in the {@code w:} namespace.
+     */
+    final class Body {
+
+        private final XMLEventWriter writer;
+        private final OutputStream out;
+        private final XMLEventFactory events = XMLEventFactory.newInstance();
+        private final Deque<QName> open = new ArrayDeque<>();
+        private int elementsSinceFlush;
+
+        private Body(XMLEventWriter writer, OutputStream out) {
+            this.writer = writer;
+            this.out = out;
+        }
+
+        /**
+         * Opens a {@code w:} element.
+         *
+         * @param localName  the element name
+         * @param attributes alternating {@code w:} attribute names and values
+         * @return this body
+         */
+        Body start(String localName, String... attributes) throws XMLStreamException {
+            return start(new QName(W_NS, localName, "w"), wordAttributes(attributes), List.of());
+        }
+
+        /**
+         * Writes an empty {@code w:} element.
+         *
+         * @param localName  the element name
+         * @param attributes alternating {@code w:} attribute names and values
+         * @return this body
+         */
+        Body empty(String localName, String... attributes) throws XMLStreamException {
+            return start(localName, attributes).end();
+        }
+
+        /**
+         * Writes a {@code w:t} element, preserving spaces.
+         *
+         * @param text the text
+         * @return this body
+         */
+        Body text(String text) throws XMLStreamException {
+            QName t = new QName(W_NS, "t", "w");
+            Attribute space = events.createAttribute("xml", "http://www.w3.org/XML/1998/namespace", "space", "preserve");
+            writer.add(events.createStartElement(t, List.of(space).iterator(), Collections.emptyIterator()));
+            writer.add(events.createCharacters(text != null ? text : ""));
+            writer.add(events.createEndElement(t, null));
+            return this;
+        }
+
+        /**
+         * Closes the innermost open element.
+         *
+         * @return this body
+         */
+        Body end() throws XMLStreamException {
+            QName name = open.pop();
+            writer.add(events.createEndElement(name, null));
+            return this;
+        }
+
+        /**
+         * Writes an inline picture run content ({@code w:drawing}). The picture is only referenced
+         * here and copied into the document when the archive is finished; the same file is
+         * embedded once no matter how often it is referenced.
+         *
+         * @param source    the image file (PNG)
+         * @param name      the picture name shown in Word
+         * @param widthEmu  display width in EMU
+         * @param heightEmu display height in EMU
+         * @return this body
+         */
+        Body image(Path source, String name, long widthEmu, long heightEmu) throws XMLStreamException {
+            Media picture = media.computeIfAbsent(source, path -> new Media(
+                    "rIdFxt" + (media.size() + 1), "word/media/fxt-image" + (media.size() + 1) + ".png", path));
+            int id = ++drawingId;
+            String cx = Long.toString(widthEmu);
+            String cy = Long.toString(heightEmu);
+
+            start(new QName(W_NS, "drawing", "w"), List.of(), List.of(
+                    events.createNamespace("wp", WP_NS),
+                    events.createNamespace("a", A_NS),
+                    events.createNamespace("pic", PIC_NS),
+                    events.createNamespace("r", R_NS)));
+            startDrawing(WP_NS, "wp", "inline", "distT", "0", "distB", "0", "distL", "0", "distR", "0");
+            startDrawing(WP_NS, "wp", "extent", "cx", cx, "cy", cy).end();
+            startDrawing(WP_NS, "wp", "docPr", "id", Integer.toString(id), "name", "Picture " + id, "descr", name).end();
+            startDrawing(A_NS, "a", "graphic");
+            startDrawing(A_NS, "a", "graphicData", "uri", PIC_NS);
+            startDrawing(PIC_NS, "pic", "pic");
+            startDrawing(PIC_NS, "pic", "nvPicPr");
+            startDrawing(PIC_NS, "pic", "cNvPr", "id", "0", "name", name).end();
+            startDrawing(PIC_NS, "pic", "cNvPicPr").end();
+            end(); // nvPicPr
+            startDrawing(PIC_NS, "pic", "blipFill");
+            start(new QName(A_NS, "blip", "a"),
+                    List.of(events.createAttribute("r", R_NS, "embed", picture.relationshipId())), List.of()).end();
+            startDrawing(A_NS, "a", "stretch");
+            startDrawing(A_NS, "a", "fillRect").end();
+            end(); // stretch
+            end(); // blipFill
+            startDrawing(PIC_NS, "pic", "spPr");
+            startDrawing(A_NS, "a", "xfrm");
+            startDrawing(A_NS, "a", "off", "x", "0", "y", "0").end();
+            startDrawing(A_NS, "a", "ext", "cx", cx, "cy", cy).end();
+            end(); // xfrm
+            startDrawing(A_NS, "a", "prstGeom", "prst", "rect");
+            startDrawing(A_NS, "a", "avLst").end();
+            end(); // prstGeom
+            end(); // spPr
+            end(); // pic
+            end(); // graphicData
+            end(); // graphic
+            end(); // inline
+            return end(); // drawing
+        }
+
+        /**
+         * Marks a unit of work (e.g. a table row) as complete and periodically flushes the
+         * compressed output, so buffered XML does not grow with the section size.
+         */
+        void unitWritten() throws XMLStreamException {
+            if (++elementsSinceFlush >= FLUSH_INTERVAL) {
+                elementsSinceFlush = 0;
+                writer.flush();
+                try {
+                    out.flush();
+                } catch (IOException e) {
+                    throw new XMLStreamException("Failed to flush Word document", e);
+                }
+            }
+        }
+
+        /**
+         * Opens a DrawingML element with unprefixed attributes.
+         */
+        private Body startDrawing(String namespace, String prefix, String localName, String... attributes)
+                throws XMLStreamException {
+            List<Attribute> attributeEvents = new ArrayList<>(attributes.length / 2);
+            for (int i = 0; i + 1 < attributes.length; i += 2) {
+                attributeEvents.add(events.createAttribute(attributes[i], attributes[i + 1]));
+            }
+            return start(new QName(namespace, localName, prefix), attributeEvents, List.of());
+        }
+
+        private Body start(QName name, List<Attribute> attributes, List<Namespace> namespaces) throws XMLStreamException {
+            writer.add(events.createStartElement(name, attributes.iterator(), namespaces.iterator()));
+            open.push(name);
+            return this;
+        }
+
+        private List<Attribute> wordAttributes(String... attributes) {
+            List<Attribute> attributeEvents = new ArrayList<>(attributes.length / 2);
+            for (int i = 0; i + 1 < attributes.length; i += 2) {
+                attributeEvents.add(events.createAttribute("w", W_NS, attributes[i], attributes[i + 1]));
+            }
+            return attributeEvents;
+        }
+
+        private void checkClosed(String section) {
+            if (!open.isEmpty()) {
+                throw new IllegalStateException("Section '" + section + "' left " + open.size() + " element(s) open");
+            }
+        }
+    }
+}
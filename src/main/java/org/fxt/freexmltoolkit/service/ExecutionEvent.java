@@ -0,0 +1,76 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2026.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JDK Flight Recorder event for one operation measured by an
+ * {@link ExecutionStatsService.StatsProbe}. The event duration is the probe's wall
+ * time, so a recording shows each transform, query or validation next to the GC,
+ * allocation and thread events of the same interval.
+ *
+ * <p>Committed whenever a recording has the event enabled, independent of the
+ * "execution statistics" developer flag — an {@code -XX:StartFlightRecording}
+ * launch captures operations too.</p>
+ */
+@Name(ExecutionEvent.NAME)
+@Label("Execution")
+@Category({"FreeXMLToolkit", "Execution"})
+@Description("A transform, query, validation or rendering run")
+@StackTrace(false)
+final class ExecutionEvent extends Event {
+
+    /** Event type name, e.g. for {@code jfr print --events}. */
+    static final String NAME = "org.fxt.freexmltoolkit.Execution";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Target")
+    String target;
+
+    @Label("Phases")
+    @Description("Sub-phase durations in milliseconds, e.g. \"Compile=12;Transform=40\"")
+    String phases;
+
+    @Label("Input Size")
+    @Description("Input size in characters, -1 when unknown")
+    long inputChars;
+
+    @Label("Output Size")
+    @Description("Output size in characters (bytes for binary output), -1 when unknown")
+    long outputChars;
+
+    @Label("CPU Time")
+    @Timespan(Timespan.MILLISECONDS)
+    long cpuMillis;
+
+    @Label("Success")
+    boolean success;
+
+    @Label("Error")
+    String error;
+}
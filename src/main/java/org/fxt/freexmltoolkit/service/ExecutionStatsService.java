@@ -18,20 +18,32 @@
 
 package org.fxt.freexmltoolkit.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.lang.management.GarbageCollectorMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -55,6 +67,13 @@ import com.google.gson.JsonObject;
  * overhead and callers can still use the returned wall-clock milliseconds for their
  * status lines.</p>
  *
+ * <p>Besides the bounded history, successful runs feed one {@link LatencyHistogram} pair per
+ * {@link ExecutionStats.OperationType} (wall time and input throughput), so percentiles
+ * cover every run since the last {@link #clear()}, not just the last {@value #MAX_ENTRIES}.
+ * Every probe also commits an {@link ExecutionEvent} to JDK Flight Recorder when a
+ * recording is running — see {@link #recordFlightRecording} — which puts operations next
+ * to GC and allocation events.</p>
+ *
  * <p>This class has no JavaFX dependencies. Listeners are notified on the thread that
  * calls {@code finish()} (usually a worker thread) — UI consumers must wrap their
  * handling in {@code Platform.runLater}.</p>
@@ -71,8 +90,32 @@ public final class ExecutionStatsService {
     private final ArrayDeque<ExecutionStats> history = new ArrayDeque<>();
     private final List<Consumer<ExecutionStats>> listeners = new CopyOnWriteArrayList<>();
     private final AtomicLong idCounter = new AtomicLong();
+    private final Map<ExecutionStats.OperationType, OperationHistograms> histograms =
+            new EnumMap<>(ExecutionStats.OperationType.class);
+    private final AtomicBoolean flightRecording = new AtomicBoolean();
+
+    /** Wall-time and throughput histograms of one operation type. */
+    private record OperationHistograms(LatencyHistogram latency, LatencyHistogram throughput) {
+    }
+
+    /**
+     * Aggregated percentiles of one operation type.
+     *
+     * @param type       the operation type
+     * @param latency    wall time of the successful runs, in microseconds
+     * @param throughput input throughput of the successful runs with a known input size,
+     *                   in KB per second (the snapshot's "micros" fields hold KB/s)
+     */
+    public record OperationSummary(ExecutionStats.OperationType type,
+                                   LatencyHistogram.Snapshot latency,
+                                   LatencyHistogram.Snapshot throughput) {
+    }
 
     private ExecutionStatsService() {
+        // filled once and never resized, so concurrent reads of the EnumMap are safe
+        for (ExecutionStats.OperationType type : ExecutionStats.OperationType.values()) {
+            histograms.put(type, new OperationHistograms(new LatencyHistogram(), new LatencyHistogram()));
+        }
     }
 
     public static ExecutionStatsService getInstance() {
@@ -104,9 +147,32 @@ public final class ExecutionStatsService {
         return result;
     }
 
-    /** Clears the recorded history. */
+    /**
+     * Returns the aggregated percentiles of every operation type with at least one
+     * successful run, in {@link ExecutionStats.OperationType} order.
+     */
+    public List<OperationSummary> summaries() {
+        List<OperationSummary> result = new ArrayList<>();
+        histograms.forEach((type, h) -> {
+            LatencyHistogram.Snapshot latency = h.latency().snapshot();
+            if (latency.count() > 0) {
+                result.add(new OperationSummary(type, latency, h.throughput().snapshot()));
+            }
+        });
+        return result;
+    }
+
+    /** Clears the recorded history and the aggregated histograms. */
     public synchronized void clear() {
         history.clear();
+        resetHistograms();
+    }
+
+    private void resetHistograms() {
+        histograms.values().forEach(h -> {
+            h.latency().reset();
+            h.throughput().reset();
+        });
     }
 
     public void addListener(Consumer<ExecutionStats> listener) {
@@ -122,9 +188,17 @@ public final class ExecutionStatsService {
         history.clear();
         listeners.clear();
         idCounter.set(0);
+        resetHistograms();
     }
 
-    private void record(ExecutionStats stats) {
+    private void record(ExecutionStats stats, long wallNanos) {
+        if (stats.success()) {
+            OperationHistograms h = histograms.get(stats.type());
+            h.latency().recordNanos(wallNanos);
+            if (stats.inputChars() > 0 && wallNanos > 0) {
+                h.throughput().recordMicros((long) (stats.inputChars() / 1024.0 / (wallNanos / 1e9)));
+            }
+        }
         synchronized (this) {
             if (history.size() >= MAX_ENTRIES) {
                 history.removeFirst();
@@ -140,13 +214,78 @@ public final class ExecutionStatsService {
         }
     }
 
+    // ------------------------------------------------------------------
+    // Flight recording
+    // ------------------------------------------------------------------
+
+    /** Whether a {@link #recordFlightRecording} call is currently running. */
+    public boolean isFlightRecording() {
+        return flightRecording.get();
+    }
+
+    /**
+     * Records a JDK Flight Recorder file for the given time: the JDK's {@code profile}
+     * settings (GC, allocation, CPU samples, thread and I/O events) plus an
+     * {@link ExecutionEvent} for every operation finished meanwhile. Works regardless
+     * of the developer flag. Only one recording runs at a time.
+     *
+     * @param duration how long to record
+     * @param target   the {@code .jfr} file to write; parent directories are created
+     * @return completes with {@code target} once the file is written, or exceptionally
+     *         when a recording is already running or the file could not be written
+     */
+    public CompletableFuture<Path> recordFlightRecording(Duration duration, Path target) {
+        if (!flightRecording.compareAndSet(false, true)) {
+            return CompletableFuture.failedFuture(new IllegalStateException("A flight recording is already running"));
+        }
+        Recording recording;
+        try {
+            recording = new Recording(Configuration.getConfiguration("profile"));
+            recording.setName("FreeXMLToolkit execution");
+            recording.enable(ExecutionEvent.class);
+            recording.start();
+        } catch (Exception | LinkageError e) {
+            flightRecording.set(false);
+            logger.warn("Could not start a flight recording: {}", e.getMessage());
+            return CompletableFuture.failedFuture(e);
+        }
+        logger.info("Flight recording started for {} s, writing to {}", duration.toSeconds(), target);
+        // No thread waits for the recording: the scheduler stops it, and only writing the
+        // file takes an I/O permit.
+        ThreadPoolManager pool = ThreadPoolManager.getInstance();
+        return pool.schedule("jfr-recording-stop", recording::stop, duration.toMillis(), TimeUnit.MILLISECONDS)
+                .thenCompose(stopped -> pool.executeIO("jfr-recording-dump", () -> {
+                    try {
+                        if (target.getParent() != null) {
+                            Files.createDirectories(target.getParent());
+                        }
+                        recording.dump(target);
+                        logger.info("Flight recording written to {}", target);
+                        return target;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }))
+                .whenComplete((written, error) -> {
+                    recording.close();
+                    flightRecording.set(false);
+                });
+    }
+
+    /** Default target of a flight recording: {@code ~/.freeXmlToolkit/recordings/execution-<timestamp>.jfr}. */
+    public static Path defaultRecordingPath() {
+        return Path.of(System.getProperty("user.home"), ".freeXmlToolkit", "recordings",
+                "execution-" + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now()) + ".jfr");
+    }
+
     // ------------------------------------------------------------------
     // Probe
     // ------------------------------------------------------------------
 
     /**
      * Measurement token for one operation. Created by {@link #begin}; when the feature is
-     * disabled it only tracks wall time and records nothing.
+     * disabled it only tracks wall time and records nothing, apart from the
+     * {@link ExecutionEvent} while a flight recording is running.
      */
     public final class StatsProbe {
 
@@ -159,6 +298,7 @@ public final class ExecutionStatsService {
         private final long heapBefore;
         private final long gcCountBefore;
         private final long gcTimeBefore;
+        private final ExecutionEvent event;
         private final Map<String, Long> phases = new LinkedHashMap<>();
         private boolean finished;
 
@@ -166,6 +306,13 @@ public final class ExecutionStatsService {
             this.type = type;
             this.target = target == null ? "" : target;
             this.enabled = enabled;
+            ExecutionEvent jfrEvent = new ExecutionEvent();
+            if (jfrEvent.isEnabled()) {
+                jfrEvent.begin();
+                this.event = jfrEvent;
+            } else {
+                this.event = null;
+            }
             this.startNanos = System.nanoTime();
             if (enabled) {
                 this.startedAt = LocalDateTime.now();
@@ -183,9 +330,9 @@ public final class ExecutionStatsService {
             }
         }
 
-        /** Records a named sub-phase duration; no-op when the feature is disabled. */
+        /** Records a named sub-phase duration; no-op when the feature is disabled and JFR is not recording. */
         public void phase(String name, long millis) {
-            if (enabled && millis > 0) {
+            if ((enabled || event != null) && millis > 0) {
                 phases.put(name, millis);
             }
         }
@@ -197,8 +344,9 @@ public final class ExecutionStatsService {
 
         /**
          * Finishes the measurement and returns the wall-clock milliseconds (always, even
-         * when the feature is disabled). When enabled, the run is added to the history and
-         * listeners are notified on the calling thread.
+         * when the feature is disabled). When enabled, the run is added to the history and the
+         * histograms and listeners are notified on the calling thread; the JFR event is
+         * committed either way.
          *
          * @param inputChars   input size in characters, or -1 when unknown
          * @param outputChars  output size in characters (bytes for binary output), or -1
@@ -206,13 +354,32 @@ public final class ExecutionStatsService {
          * @param errorSummary short error description, ignored on success
          */
         public long finish(long inputChars, long outputChars, boolean success, String errorSummary) {
-            long wallMillis = elapsedMillis();
-            if (!enabled || finished) {
+            long wallNanos = System.nanoTime() - startNanos;
+            long wallMillis = wallNanos / 1_000_000;
+            if (finished || (!enabled && event == null)) {
                 return wallMillis;
             }
             finished = true;
-            long cpuEnd = currentThreadCpuNanos();
+            long cpuEnd = enabled ? currentThreadCpuNanos() : -1;
             long cpuMillis = (cpuStartNanos >= 0 && cpuEnd >= 0) ? (cpuEnd - cpuStartNanos) / 1_000_000 : -1;
+            String error = success ? "" : (errorSummary == null ? "" : errorSummary);
+            if (event != null) {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.operation = type.name();
+                    event.target = target;
+                    event.phases = formatPhases(phases);
+                    event.inputChars = inputChars;
+                    event.outputChars = outputChars;
+                    event.cpuMillis = cpuMillis;
+                    event.success = success;
+                    event.error = error;
+                    event.commit();
+                }
+            }
+            if (!enabled) {
+                return wallMillis;
+            }
             long[] gc = gcTotals();
             ExecutionStats stats = new ExecutionStats(
                     idCounter.incrementAndGet(), type, target, startedAt,
@@ -221,8 +388,8 @@ public final class ExecutionStatsService {
                     gc[0] - gcCountBefore, gc[1] - gcTimeBefore,
                     inputChars, outputChars,
                     phases.isEmpty() ? Map.of() : new LinkedHashMap<>(phases),
-                    success, success ? "" : (errorSummary == null ? "" : errorSummary));
-            record(stats);
+                    success, error);
+            record(stats, wallNanos);
             return wallMillis;
         }
     }
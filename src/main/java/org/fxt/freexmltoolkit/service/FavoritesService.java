@@ -98,6 +98,7 @@ public class FavoritesService {
      * never call this.
      */
     public static synchronized void resetInstanceForTests() {
+        WriteBehindStore.getInstance().flush();
         instance = null;
     }
     
@@ -129,16 +130,12 @@ public class FavoritesService {
     }
     
     /**
-     * Save favorites to the JSON file
+     * Save favorites to the JSON file. The snapshot is taken now and written in the
+     * background by the {@link WriteBehindStore}.
      */
     private void saveFavorites() {
-        try {
-            String json = gson.toJson(favorites);
-            Files.writeString(favoritesFile, json);
-            logger.debug("Saved {} favorites", favorites.size());
-        } catch (IOException e) {
-            logger.error("Failed to save favorites", e);
-        }
+        WriteBehindStore.getInstance().schedule(favoritesFile, gson.toJson(favorites));
+        logger.debug("Scheduled saving {} favorites", favorites.size());
     }
     
     /**
@@ -24,11 +24,16 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import org.apache.commons.codec.digest.DigestUtils;
@@ -36,6 +41,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonStreamingReader;
 import org.fxt.freexmltoolkit.controls.shared.JsonSyntaxHighlighter;
 import org.fxt.freexmltoolkit.di.ServiceRegistry;
 
@@ -47,6 +53,7 @@ import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSyntaxException;
 import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.DocumentContext;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.PathNotFoundException;
@@ -66,6 +73,21 @@ public class JsonService {
 
     private static final Logger logger = LogManager.getLogger(JsonService.class);
 
+    private static final Configuration JSON_PATH_CONFIG = Configuration.builder()
+            .options(Option.ALWAYS_RETURN_LIST)
+            .build();
+
+    // Caches are shared because callers create short-lived service instances per operation
+    private static final int PARSED_DOCUMENT_CACHE_SIZE = 4;
+    private static final int COMPILED_PATH_CACHE_SIZE = 256;
+    private static final int COMPILED_SCHEMA_CACHE_SIZE = 16;
+
+    // Documents and schemas are keyed by a digest so the caches do not pin large texts
+    private static final Map<ContentKey, DocumentContext> parsedDocuments = lruCache(PARSED_DOCUMENT_CACHE_SIZE);
+    private static final Map<String, JsonPath> compiledPaths = lruCache(COMPILED_PATH_CACHE_SIZE);
+    private static final Map<ContentKey, Schema> compiledTextSchemas = lruCache(COMPILED_SCHEMA_CACHE_SIZE);
+    private static final Map<FileSchemaKey, Schema> compiledFileSchemas = lruCache(COMPILED_SCHEMA_CACHE_SIZE);
+
     private final Gson gson;
     private final Gson gsonPretty;
 
@@ -103,147 +125,92 @@ public class JsonService {
 
     /**
      * Parses a JSONC string (JSON with comments) into a JsonElement.
-     * Comments are stripped before parsing.
+     * Comments are skipped while reading.
      *
      * @param jsonc The JSONC string to parse
      * @return The parsed JsonElement
      * @throws JsonSyntaxException if the JSON is invalid
      */
     public JsonElement parseJsonc(String jsonc) throws JsonSyntaxException {
-        if (jsonc == null || jsonc.isBlank()) {
-            return JsonNull.INSTANCE;
-        }
-        String stripped = JsonSyntaxHighlighter.stripComments(jsonc);
-        return JsonParser.parseString(stripped);
+        return parseAuto(jsonc);
     }
 
     /**
      * Parses a JSON5 string into a JsonElement.
-     * Note: JSON5 features are converted to standard JSON before parsing.
+     * JSON5 syntax (comments, trailing commas, unquoted keys, single quotes, ...)
+     * is understood by the reader directly instead of rewriting the text first.
      *
      * @param json5Text The JSON5 string to parse
      * @return The parsed JsonElement
      * @throws JsonSyntaxException if the JSON5 is invalid
      */
     public JsonElement parseJson5(String json5Text) throws JsonSyntaxException {
-        if (json5Text == null || json5Text.isBlank()) {
-            return JsonNull.INSTANCE;
-        }
-        // Convert JSON5 to standard JSON
-        String standardJson = convertJson5ToJson(json5Text);
-        return JsonParser.parseString(standardJson);
+        return parseAuto(json5Text);
     }
 
     /**
-     * Converts JSON5 features to standard JSON.
-     * Handles: comments, trailing commas, unquoted keys, single quotes.
+     * Parses JSON, JSONC or JSON5 text in a single pass. The JSON5 reader accepts
+     * all three formats, so no format detection is needed up front.
      *
-     * @param json5 The JSON5 text
-     * @return Standard JSON text
+     * @param text The JSON/JSONC/JSON5 text to parse
+     * @return The parsed JsonElement
+     * @throws JsonSyntaxException if parsing fails
      */
-    private String convertJson5ToJson(String json5) {
-        // Step 1: Strip comments
-        String result = JsonSyntaxHighlighter.stripComments(json5);
-
-        // Step 2: Remove trailing commas before } or ]
-        result = result.replaceAll(",\\s*([}\\]])", "$1");
-
-        // Step 3: Convert single quotes to double quotes (simple approach)
-        // Note: This is a simplified conversion; complex cases may need more work
-        result = result.replace("'", "\"");
-
-        // Step 4: Quote unquoted keys
-        // Pattern: word characters followed by colon, not inside quotes
-        result = quoteUnquotedKeys(result);
-
-        return result;
+    public JsonElement parseAuto(String text) throws JsonSyntaxException {
+        if (text == null || text.isBlank()) {
+            return JsonNull.INSTANCE;
+        }
+        return readElement(JsonStreamingReader.of(text));
     }
 
     /**
-     * Quotes unquoted object keys in JSON5.
+     * Builds a Gson element from a streaming reader without recursion.
      */
-    private String quoteUnquotedKeys(String json) {
-        StringBuilder result = new StringBuilder();
-        boolean inString = false;
-        char stringChar = 0;
-        int i = 0;
-
-        while (i < json.length()) {
-            char c = json.charAt(i);
-
-            // Track string state
-            if (!inString && (c == '"' || c == '\'')) {
-                inString = true;
-                stringChar = c;
-                result.append(c);
-                i++;
-                continue;
-            }
-            if (inString && c == stringChar && (i == 0 || json.charAt(i - 1) != '\\')) {
-                inString = false;
-                result.append(c);
-                i++;
-                continue;
-            }
-
-            // Look for unquoted keys when not in string
-            if (!inString && Character.isLetter(c) || c == '_' || c == '$') {
-                // Collect the identifier
-                StringBuilder key = new StringBuilder();
-                while (i < json.length() && (Character.isLetterOrDigit(json.charAt(i)) ||
-                        json.charAt(i) == '_' || json.charAt(i) == '$')) {
-                    key.append(json.charAt(i));
-                    i++;
+    private JsonElement readElement(JsonStreamingReader reader) {
+        ArrayDeque<JsonElement> open = new ArrayDeque<>();
+        ArrayDeque<String> keys = new ArrayDeque<>();
+        String key = null;
+        while (true) {
+            JsonStreamingReader.Token token = reader.next();
+            JsonElement completed;
+            switch (token) {
+                case NAME -> {
+                    key = reader.getStringValue();
+                    continue;
                 }
-
-                // Skip whitespace
-                int afterKey = i;
-                while (afterKey < json.length() && Character.isWhitespace(json.charAt(afterKey))) {
-                    afterKey++;
+                case BEGIN_OBJECT, BEGIN_ARRAY -> {
+                    open.push(token == JsonStreamingReader.Token.BEGIN_OBJECT
+                            ? new com.google.gson.JsonObject() : new com.google.gson.JsonArray());
+                    keys.push(key == null ? "" : key);
+                    key = null;
+                    continue;
                 }
-
-                // Check if followed by colon (then it's a key)
-                if (afterKey < json.length() && json.charAt(afterKey) == ':') {
-                    String keyStr = key.toString();
-                    // Check if it's a keyword (true, false, null, Infinity, NaN)
-                    if (keyStr.equals("true") || keyStr.equals("false") || keyStr.equals("null") ||
-                            keyStr.equals("Infinity") || keyStr.equals("NaN")) {
-                        result.append(keyStr);
-                    } else {
-                        result.append('"').append(keyStr).append('"');
-                    }
-                } else {
-                    // It's a value, not a key
-                    result.append(key);
+                case END_OBJECT, END_ARRAY -> {
+                    completed = open.pop();
+                    key = keys.pop();
+                }
+                case STRING -> completed = new JsonPrimitive(reader.getStringValue());
+                case NUMBER -> completed = new JsonPrimitive(reader.getNumberValue());
+                case BOOLEAN -> completed = new JsonPrimitive(reader.getBooleanValue());
+                case NULL -> completed = JsonNull.INSTANCE;
+                default -> {
+                    return JsonNull.INSTANCE;
                 }
-                continue;
             }
-
-            result.append(c);
-            i++;
-        }
-
-        return result.toString();
-    }
-
-    /**
-     * Auto-detects the format and parses accordingly.
-     *
-     * @param text The JSON/JSONC/JSON5 text to parse
-     * @return The parsed JsonElement
-     * @throws JsonSyntaxException if parsing fails
-     */
-    public JsonElement parseAuto(String text) throws JsonSyntaxException {
-        if (text == null || text.isBlank()) {
-            return JsonNull.INSTANCE;
+            JsonElement parent = open.peek();
+            if (parent == null) {
+                if (reader.next() != JsonStreamingReader.Token.END_DOCUMENT) {
+                    throw new JsonSyntaxException("Unexpected content after the end of the document");
+                }
+                return completed;
+            }
+            if (parent instanceof com.google.gson.JsonObject object) {
+                object.add(key, completed);
+            } else {
+                parent.getAsJsonArray().add(completed);
+            }
+            key = null;
         }
-
-        String format = JsonSyntaxHighlighter.detectFormat(text);
-        return switch (format) {
-            case "json5" -> parseJson5(text);
-            case "jsonc" -> parseJsonc(text);
-            default -> parseJson(text);
-        };
     }
 
     /**
@@ -406,8 +373,12 @@ public class JsonService {
         }
 
         try {
-            SchemaRegistry registry = getSchemaRegistry();
-            Schema schema = registry.getSchema(schemaJson);
+            ContentKey key = ContentKey.of(schemaJson);
+            Schema schema = compiledTextSchemas.get(key);
+            if (schema == null) {
+                schema = getSchemaRegistry().getSchema(schemaJson);
+                compiledTextSchemas.put(key, schema);
+            }
 
             List<Error> validationErrors = schema.validate(json, InputFormat.JSON);
 
@@ -598,27 +569,92 @@ public class JsonService {
     /**
      * Structured variant of {@link #validateAgainstSchema(String, File)}: each violation
      * carries its instance location so callers can map it to a line in the source text.
+     * The compiled schema is reused while the schema file's content is unchanged.
      *
      * @param json       the JSON string to validate
      * @param schemaFile the JSON Schema file
      * @return list of violations, empty if valid
      */
     public List<SchemaError> validateAgainstSchemaDetailed(String json, File schemaFile) {
-        List<SchemaError> errors = new ArrayList<>();
         if (json == null || json.isBlank()) {
-            errors.add(new SchemaError("JSON content is empty", List.of(), "", null));
-            return errors;
+            return new ArrayList<>(List.of(new SchemaError("JSON content is empty", List.of(), "", null)));
         }
-        if (schemaFile == null || !schemaFile.exists()) {
-            errors.add(new SchemaError("JSON Schema file not found: " + schemaFile, List.of(), "", null));
-            return errors;
+        Schema schema;
+        try {
+            schema = compileSchema(schemaFile);
+        } catch (Exception e) {
+            logger.error("Schema validation failed", e);
+            return new ArrayList<>(List.of(schemaFailure(schemaFile, e)));
         }
+        return validate(json, schema);
+    }
+
+    /**
+     * Validates several JSON files in parallel against one JSON Schema, which is
+     * compiled only once.
+     *
+     * @param jsonFiles  the JSON files to validate
+     * @param schemaFile the JSON Schema file
+     * @return the violations per file, in the order of {@code jsonFiles}; empty lists for valid files
+     */
+    public Map<File, List<SchemaError>> validateFilesAgainstSchema(List<File> jsonFiles, File schemaFile) {
+        Map<File, List<SchemaError>> results = new LinkedHashMap<>();
+        Schema schema;
         try {
-            // Fresh registry per call: registries cache compiled schemas by location,
+            schema = compileSchema(schemaFile);
+        } catch (Exception e) {
+            logger.error("Schema validation failed", e);
+            SchemaError failure = schemaFailure(schemaFile, e);
+            for (File file : jsonFiles) {
+                results.put(file, List.of(failure));
+            }
+            return results;
+        }
+
+        List<List<SchemaError>> perFile = runInParallel(jsonFiles, file -> {
+            try {
+                return validate(Files.readString(file.toPath(), StandardCharsets.UTF_8), schema);
+            } catch (IOException e) {
+                return List.of(new SchemaError("Cannot read " + file + ": " + e.getMessage(), List.of(), "", null));
+            }
+        });
+        for (int i = 0; i < jsonFiles.size(); i++) {
+            results.put(jsonFiles.get(i), perFile.get(i));
+        }
+        return results;
+    }
+
+    /**
+     * Compiles a schema file, or returns the cached compilation if the file content is unchanged.
+     * Schemas referenced through {@code $ref} are not part of the key; editing only those
+     * takes effect once the main schema changes or drops out of the cache.
+     */
+    private Schema compileSchema(File schemaFile) throws IOException {
+        if (schemaFile == null || !schemaFile.exists()) {
+            throw new java.io.FileNotFoundException("JSON Schema file not found: " + schemaFile);
+        }
+        String location = schemaFile.toURI().toString();
+        FileSchemaKey key = new FileSchemaKey(location,
+                ContentKey.of(Files.readString(schemaFile.toPath(), StandardCharsets.UTF_8)));
+        Schema schema = compiledFileSchemas.get(key);
+        if (schema == null) {
+            // Fresh registry per compilation: registries cache compiled schemas by location,
             // so a shared one would keep serving stale results after schema edits.
             SchemaRegistry registry = newSchemaRegistry();
             // Loading via the file's URI keeps the base URI so relative $refs resolve.
-            Schema schema = registry.getSchema(SchemaLocation.of(schemaFile.toURI().toString()));
+            schema = registry.getSchema(SchemaLocation.of(location));
+            compiledFileSchemas.put(key, schema);
+        }
+        return schema;
+    }
+
+    private static List<SchemaError> validate(String json, Schema schema) {
+        List<SchemaError> errors = new ArrayList<>();
+        if (json == null || json.isBlank()) {
+            errors.add(new SchemaError("JSON content is empty", List.of(), "", null));
+            return errors;
+        }
+        try {
             for (Error error : schema.validate(json, InputFormat.JSON)) {
                 errors.add(toSchemaError(error));
             }
@@ -629,6 +665,29 @@ public class JsonService {
         return errors;
     }
 
+    private static SchemaError schemaFailure(File schemaFile, Exception e) {
+        if (e instanceof java.io.FileNotFoundException) {
+            return new SchemaError(e.getMessage(), List.of(), "", null);
+        }
+        return new SchemaError("Schema validation error: " + e.getMessage(), List.of(), "", null);
+    }
+
+    /**
+     * Cache key of a compiled schema file: its location plus the content it was compiled from.
+     */
+    private record FileSchemaKey(String location, ContentKey content) {
+    }
+
+    /**
+     * Cache key standing in for a document or schema text: its length and SHA-256 digest.
+     */
+    private record ContentKey(int length, String sha256) {
+
+        static ContentKey of(String text) {
+            return new ContentKey(text.length(), DigestUtils.sha256Hex(text));
+        }
+    }
+
     private static SchemaError toSchemaError(Error error) {
         List<Object> segments = new ArrayList<>();
         NodePath location = error.getInstanceLocation();
@@ -649,17 +708,102 @@ public class JsonService {
     /**
      * Executes a JSONPath query on a JSON string.
      *
+     * <p>The parsed document is cached, keyed by a digest of the text, so repeated queries
+     * against an unchanged document skip parsing. Compiled paths are cached as well.
+     * The result is a copy, so callers may modify it without affecting the cache.</p>
+     *
      * @param json     The JSON string to query
      * @param jsonPath The JSONPath expression
      * @return The query result
      * @throws PathNotFoundException if the path doesn't exist
      */
     public Object executeJsonPath(String json, String jsonPath) {
-        Configuration config = Configuration.builder()
-                .options(Option.ALWAYS_RETURN_LIST)
-                .build();
+        return detached(parsedDocument(json).read(compiledPath(jsonPath)));
+    }
 
-        return JsonPath.using(config).parse(json).read(jsonPath);
+    /**
+     * One result of {@link #executeJsonPaths(String, List)}.
+     *
+     * @param path  the JSONPath expression
+     * @param value the query result (a copy, see {@link #executeJsonPath(String, String)}),
+     *              null if the query failed
+     * @param error the error message if the query failed, null otherwise
+     */
+    public record JsonPathResult(String path, Object value, String error) {
+
+        /**
+         * @return true if the query succeeded
+         */
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    /**
+     * Executes several JSONPath queries against one JSON document. The document is
+     * parsed once and the queries run in parallel; a failing query does not affect
+     * the others.
+     *
+     * @param json      The JSON string to query
+     * @param jsonPaths The JSONPath expressions
+     * @return one result per expression, in the order of {@code jsonPaths}
+     * @throws JsonSyntaxException if the document cannot be parsed
+     */
+    public List<JsonPathResult> executeJsonPaths(String json, List<String> jsonPaths) {
+        DocumentContext document;
+        try {
+            document = parsedDocument(json);
+        } catch (Exception e) {
+            throw new JsonSyntaxException("Cannot parse JSON for JSONPath: " + e.getMessage(), e);
+        }
+        return runInParallel(jsonPaths, path -> {
+            try {
+                return new JsonPathResult(path, detached(document.read(compiledPath(path))), null);
+            } catch (PathNotFoundException e) {
+                return new JsonPathResult(path, null, "Path not found: " + path);
+            } catch (Exception e) {
+                return new JsonPathResult(path, null, "JSONPath error: " + e.getMessage());
+            }
+        });
+    }
+
+    private static DocumentContext parsedDocument(String json) {
+        ContentKey key = ContentKey.of(json);
+        DocumentContext document = parsedDocuments.get(key);
+        if (document == null) {
+            document = JsonPath.using(JSON_PATH_CONFIG).parse(json);
+            parsedDocuments.put(key, document);
+        }
+        return document;
+    }
+
+    /**
+     * Copies the maps and lists of a query result, which otherwise share structure with
+     * the cached document. Scalars are immutable and kept as they are.
+     */
+    private static Object detached(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>(Math.max(16, map.size() * 4 / 3 + 1));
+            map.forEach((k, v) -> copy.put(k, detached(v)));
+            return copy;
+        }
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object item : list) {
+                copy.add(detached(item));
+            }
+            return copy;
+        }
+        return value;
+    }
+
+    private static JsonPath compiledPath(String jsonPath) {
+        JsonPath compiled = compiledPaths.get(jsonPath);
+        if (compiled == null) {
+            compiled = JsonPath.compile(jsonPath);
+            compiledPaths.put(jsonPath, compiled);
+        }
+        return compiled;
     }
 
     /**
@@ -688,13 +832,58 @@ public class JsonService {
      */
     public boolean isValidJsonPath(String jsonPath) {
         try {
-            JsonPath.compile(jsonPath);
+            compiledPath(jsonPath);
             return true;
         } catch (Exception e) {
             return false;
         }
     }
 
+    // ==================== Caching and batching ====================
+
+    /**
+     * Creates a thread-safe map that evicts its least recently used entry beyond {@code maxSize}.
+     */
+    private static <K, V> Map<K, V> lruCache(int maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<K, V>(maxSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Applies a function to every item on the CPU pool and waits for all results.
+     */
+    private static <T, R> List<R> runInParallel(List<T> items, Function<T, R> function) {
+        if (items.size() <= 1) {
+            return items.stream().map(function).toList();
+        }
+        ThreadPoolManager pool = ThreadPoolManager.getInstance();
+        List<CompletableFuture<R>> futures = new ArrayList<>(items.size());
+        String batchId = "json-batch-" + System.identityHashCode(futures) + "-";
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            futures.add(pool.executeCPUIntensive(batchId + i, () -> function.apply(item)));
+        }
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    /**
+     * Clears the shared parsed-document, JSONPath and schema caches.
+     */
+    public static void clearCaches() {
+        parsedDocuments.clear();
+        compiledPaths.clear();
+        compiledTextSchemas.clear();
+        compiledFileSchemas.clear();
+    }
+
     // ==================== File Operations ====================
 
     /**
@@ -0,0 +1,214 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager.TaskCategory;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} view over one of the shared
+ * {@link ThreadPoolManager} pools.
+ *
+ * <p>Components that used to own a private executor get one of these from
+ * {@link ThreadPoolManager#newSerialExecutor(String, TaskCategory)} or
+ * {@link ThreadPoolManager#newExecutor(String, TaskCategory, int)}. At most
+ * {@code maxConcurrency} of its tasks run at the same time; further tasks wait in
+ * submission order, so a serial executor keeps the ordering guarantees of a
+ * single-thread executor without a dedicated thread. Tasks are recorded in the
+ * statistics of their {@link TaskCategory}.</p>
+ *
+ * <p>{@link #shutdown()} only affects this view: it rejects new tasks and lets
+ * queued ones finish. {@link #shutdownNow()} drops queued tasks and interrupts
+ * running ones.</p>
+ */
+public final class ManagedExecutor extends AbstractExecutorService {
+
+    private static final Logger logger = LogManager.getLogger(ManagedExecutor.class);
+
+    private final String name;
+    private final ThreadPoolManager manager;
+    private final TaskCategory category;
+    private final int maxConcurrency;
+
+    private final ArrayDeque<Runnable> queue = new ArrayDeque<>();
+    private final Set<Thread> runningThreads = ConcurrentHashMap.newKeySet();
+    private int active;
+    private boolean shutdown;
+
+    ManagedExecutor(String name, ThreadPoolManager manager, TaskCategory category, int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1: " + maxConcurrency);
+        }
+        this.name = name;
+        this.manager = manager;
+        this.category = category;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Returns the name used in log messages.
+     *
+     * @return the executor name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the pool the tasks run on.
+     *
+     * @return the task category
+     */
+    public TaskCategory getCategory() {
+        return category;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Objects.requireNonNull(command, "command");
+        Runnable task = manager.instrument(category, name, command);
+        synchronized (this) {
+            if (shutdown) {
+                throw new RejectedExecutionException(name + " has been shut down");
+            }
+            if (active >= maxConcurrency) {
+                queue.add(task);
+                return;
+            }
+            active++;
+        }
+        dispatch(task);
+    }
+
+    /**
+     * Runs a task on this executor after a delay. The delay is measured by the
+     * shared scheduler; cancelling the returned future before the task starts
+     * prevents it from running.
+     *
+     * @param task     the task
+     * @param delay    the delay
+     * @param timeUnit the unit of the delay
+     * @return a future that can be used to cancel the task
+     */
+    public Future<?> schedule(Runnable task, long delay, TimeUnit timeUnit) {
+        FutureTask<Void> future = new FutureTask<>(task, null);
+        manager.delay(() -> {
+            if (!future.isCancelled()) {
+                try {
+                    execute(future);
+                } catch (RejectedExecutionException e) {
+                    future.cancel(false);
+                }
+            }
+        }, delay, timeUnit);
+        return future;
+    }
+
+    @Override
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        List<Runnable> dropped;
+        synchronized (this) {
+            shutdown = true;
+            dropped = new ArrayList<>(queue);
+            queue.clear();
+            notifyAll();
+        }
+        runningThreads.forEach(Thread::interrupt);
+        return dropped;
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public synchronized boolean isTerminated() {
+        return shutdown && active == 0;
+    }
+
+    @Override
+    public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isTerminated()) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        return true;
+    }
+
+    private void dispatch(Runnable task) {
+        try {
+            manager.dispatch(category, () -> runAndContinue(task));
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                active--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private void runAndContinue(Runnable task) {
+        Runnable next = task;
+        while (next != null) {
+            Thread current = Thread.currentThread();
+            runningThreads.add(current);
+            try {
+                next.run();
+            } catch (RuntimeException | Error e) {
+                logger.error("Task in executor '{}' failed", name, e);
+            } finally {
+                runningThreads.remove(current);
+                Thread.interrupted(); // do not leak a shutdownNow() interrupt into the next task
+            }
+            synchronized (this) {
+                next = queue.poll();
+                if (next == null) {
+                    active--;
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -1,9 +1,10 @@
 package org.fxt.freexmltoolkit.service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Properties;
@@ -15,6 +16,10 @@ import org.fxt.freexmltoolkit.domain.XmlParserType;
 /**
  * Implementation of the PropertiesService interface.
  * This class handles loading, saving, and managing application properties.
+ *
+ * <p>The file is read once at startup; afterwards the in-memory properties are
+ * authoritative. Saving hands a snapshot to the {@link WriteBehindStore}, so
+ * setters never wait for the disk and a burst of changes is written once.</p>
  */
 public class PropertiesServiceImpl implements PropertiesService {
     private static final Logger logger = LogManager.getLogger(PropertiesServiceImpl.class);
@@ -53,19 +58,15 @@ public class PropertiesServiceImpl implements PropertiesService {
             createDefaultProperties();
         } else {
             logger.debug("Properties file already exists!");
-            properties = loadProperties();
+            readPropertiesFile();
             migratePasswordsIfNeeded();
         }
     }
 
     /**
-     * Loads properties from the properties file.
-     * Automatically decrypts all encrypted password properties.
-     *
-     * @return the loaded properties
+     * Reads the properties file into memory and decrypts all encrypted password properties.
      */
-    @Override
-    public Properties loadProperties() {
+    private void readPropertiesFile() {
         try (FileInputStream fis = new FileInputStream(propertiesFile)) {
             properties.load(fis);
             decryptPasswords();
@@ -73,14 +74,24 @@ public class PropertiesServiceImpl implements PropertiesService {
         } catch (IOException e) {
             logger.warn("No properties found!");
         }
+    }
+
+    /**
+     * Returns a copy of the current properties. The file is only read at startup,
+     * so this includes changes that are not written to disk yet.
+     *
+     * @return the current properties
+     */
+    @Override
+    public Properties loadProperties() {
         Properties copy = new Properties();
         copy.putAll(properties);
         return copy;
     }
 
     /**
-     * Saves the given properties to the properties file.
-     * Automatically encrypts all password properties before saving.
+     * Saves the given properties. The file is written in the background by the
+     * {@link WriteBehindStore}; password properties are encrypted in the written copy.
      *
      * @param save the properties to save
      */
@@ -94,11 +105,17 @@ public class PropertiesServiceImpl implements PropertiesService {
         saveProps.putAll(properties);
         encryptPasswords(saveProps);
 
-        try (FileOutputStream fos = new FileOutputStream(propertiesFile)) {
-            saveProps.store(fos, null);
+        WriteBehindStore.getInstance().schedule(propertiesFile.toPath(), () -> toBytes(saveProps));
+    }
+
+    private static byte[] toBytes(Properties props) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            props.store(out, null);
         } catch (IOException e) {
-            logger.error(e.getMessage());
+            throw new UncheckedIOException(e);
         }
+        return out.toByteArray();
     }
 
     /**
@@ -139,11 +156,12 @@ public class PropertiesServiceImpl implements PropertiesService {
         // Must write through propertiesFile (NOT the bare file name): the field honors
         // the fxt.properties.file override — a literal path here would write into the
         // working directory and bypass the test isolation.
-        try (FileOutputStream fos = new FileOutputStream(propertiesFile)) {
-            properties.store(fos, null);
-        } catch (IOException e) {
-            logger.error(e.getMessage());
-        }
+        // Flushed right away: this runs once, and the file should exist afterwards.
+        Properties defaults = new Properties();
+        defaults.putAll(properties);
+        WriteBehindStore store = WriteBehindStore.getInstance();
+        store.schedule(propertiesFile.toPath(), () -> toBytes(defaults));
+        store.flush();
     }
 
     /**
@@ -1,8 +1,12 @@
 package org.fxt.freexmltoolkit.service;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Service interface for Schematron validation operations.
@@ -143,11 +147,41 @@ public interface SchematronService {
      * The full outcome of one Schematron validation: the parsed findings plus the raw
      * SVRL report they were extracted from (useful for detailed reports/exports).
      *
-     * @param errors the parsed failed assertions / successful reports
-     * @param svrl   the raw SVRL XML produced by the validation, or {@code null} when
-     *               the validation could not produce one
+     * @param errors        the parsed failed assertions / successful reports, up to the
+     *                      implementation's cap
+     * @param svrl          the raw SVRL XML produced by the validation, or {@code null} when
+     *                      the validation could not produce one or it was written to {@code svrlFile}
+     * @param totalFindings the number of findings in the SVRL, including those beyond the cap
+     * @param svrlFile      a temporary file holding an SVRL report too large to keep in
+     *                      memory, or {@code null}
      */
-    record SchematronReport(List<SchematronValidationError> errors, String svrl) {
+    record SchematronReport(List<SchematronValidationError> errors, String svrl,
+                            int totalFindings, Path svrlFile) {
+
+        public SchematronReport(List<SchematronValidationError> errors, String svrl) {
+            this(errors, svrl, errors.size(), null);
+        }
+
+        /** @return whether findings beyond the cap were counted but not kept */
+        public boolean truncated() {
+            return totalFindings > errors.size();
+        }
+
+        /**
+         * Deletes {@link #svrlFile()}, if any. Call this once the report is no longer
+         * needed; the spilled SVRL is gone afterwards.
+         */
+        public void deleteSvrlFile() {
+            if (svrlFile == null) {
+                return;
+            }
+            try {
+                Files.deleteIfExists(svrlFile);
+            } catch (IOException e) {
+                org.apache.logging.log4j.LogManager.getLogger(SchematronService.class)
+                        .warn("Could not delete temporary SVRL file {}: {}", svrlFile, e.getMessage());
+            }
+        }
     }
 
     /**
@@ -162,4 +196,23 @@ public interface SchematronService {
             throws SchematronLoadException {
         return new SchematronReport(validateXml(xmlContent, schematronFile), null);
     }
+
+    /**
+     * Validates like {@link #validateXmlWithSvrl(String, File)} and hands every finding
+     * to {@code onFinding} as soon as it is known, so callers can show results while a
+     * large document is still being checked. The default implementation reports the
+     * findings after the run.
+     *
+     * @param xmlContent     the XML content to validate
+     * @param schematronFile the Schematron rules file
+     * @param onFinding      receives each finding kept in the report, on the validating thread
+     * @return the findings plus (when available) the raw SVRL report
+     */
+    default SchematronReport validateXmlWithSvrl(String xmlContent, File schematronFile,
+                                                 Consumer<SchematronValidationError> onFinding)
+            throws SchematronLoadException {
+        SchematronReport report = validateXmlWithSvrl(xmlContent, schematronFile);
+        report.errors().forEach(onFinding);
+        return report;
+    }
 }
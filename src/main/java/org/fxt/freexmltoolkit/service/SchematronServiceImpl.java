@@ -1,42 +1,88 @@
 package org.fxt.freexmltoolkit.service;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringReader;
-import java.util.ArrayList;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.function.Consumer;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.Source;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.util.SecureXmlFactory;
 
-import com.helger.schematron.ISchematronResource;
 import com.helger.schematron.schxslt.xslt2.SchematronResourceSchXslt_XSLT2;
-import com.helger.schematron.svrl.AbstractSVRLMessage;
-import com.helger.schematron.svrl.SVRLHelper;
-import com.helger.schematron.svrl.SVRLMarshaller;
-import com.helger.schematron.svrl.jaxb.SchematronOutputType;
+import com.helger.schematron.xslt.ISchematronXSLTBasedProvider;
 
 /**
  * Implementation of SchematronService backed by ph-schematron's SchXslt compiler
  * (XSLT 2.0 based, executed by Saxon). SchXslt resolves {@code sch:include},
  * {@code sch:extends} and abstract patterns itself and supports
  * {@code queryBinding="xslt2"/"xslt3"} rules.
+ *
+ * <p>The SVRL the compiled stylesheet writes is consumed as a SAX stream by
+ * {@link SvrlStreamCollector}: findings are collected while the transformation
+ * runs, at most {@value #DEFAULT_MAX_FINDINGS} of them are kept (override with
+ * {@code -Dfxt.schematron.maxFindings}), and an SVRL report larger than
+ * {@value #MAX_IN_MEMORY_SVRL_CHARS} characters goes to a temporary file
+ * instead of a String.</p>
  */
 public class SchematronServiceImpl implements SchematronService {
 
     private static final Logger logger = LogManager.getLogger(SchematronServiceImpl.class);
 
+    static final int DEFAULT_MAX_FINDINGS = 10_000;
+    static final long MAX_IN_MEMORY_SVRL_CHARS = 8L * 1024 * 1024;
+    private static final int MAX_FINDINGS = Integer.getInteger("fxt.schematron.maxFindings", DEFAULT_MAX_FINDINGS);
+    private static final int CACHE_SIZE = Integer.getInteger("fxt.schematron.cacheSize", 16);
+
+    private static final Set<String> SCHEMATRON_NS = Set.of(
+            "http://purl.oclc.org/dsdl/schematron", "http://www.ascc.net/xml/schematron");
+    private static final String XSLT_NS = "http://www.w3.org/1999/XSL/Transform";
+
+    /**
+     * Compiled Schematron stylesheets shared across all service instances, keyed by
+     * absolute path. The least recently used entry is dropped beyond
+     * {@code -Dfxt.schematron.cacheSize} (default 16) entries, and an entry is
+     * recompiled when the Schematron or any file it includes has changed.
+     */
+    private static final Map<String, CachedResource> COMPILED_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResource> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
     /**
-     * Compiled Schematron resources shared across all service instances, keyed by
-     * absolute path and invalidated when the file's last-modified timestamp changes.
+     * @param dependencies the Schematron and every file it includes, with their modification times
+     * @param provider     the compiled stylesheet, or {@code null} if compiling failed
      */
-    private static final Map<String, CachedResource> COMPILED_CACHE = new ConcurrentHashMap<>();
+    private record CachedResource(Map<Path, Long> dependencies, ISchematronXSLTBasedProvider provider) {
 
-    private record CachedResource(long lastModified, ISchematronResource resource) {
+        boolean isCurrent() {
+            for (Map.Entry<Path, Long> dependency : dependencies.entrySet()) {
+                if (dependency.getKey().toFile().lastModified() != dependency.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
     /**
@@ -47,28 +93,89 @@ public class SchematronServiceImpl implements SchematronService {
         // Constructor
     }
 
-    private static ISchematronResource resource(File schematronFile) {
+    /**
+     * Returns the compiled stylesheet of a Schematron from the cache, compiling it
+     * (outside the cache lock) when it is missing or out of date.
+     *
+     * @return the compiled stylesheet, or {@code null} if the Schematron does not compile
+     */
+    private static ISchematronXSLTBasedProvider compiled(File schematronFile) {
         String key = schematronFile.getAbsolutePath();
-        long lastModified = schematronFile.lastModified();
-        CachedResource cached = COMPILED_CACHE.compute(key, (k, old) -> {
-            if (old != null && old.lastModified() == lastModified) {
-                return old;
+        synchronized (COMPILED_CACHE) {
+            CachedResource cached = COMPILED_CACHE.get(key);
+            if (cached != null && cached.isCurrent()) {
+                return cached.provider();
             }
-            if (old != null) {
-                // ph-schematron's internal provider cache is keyed by path only and
-                // would keep serving the stale compiled XSLT for the changed file
-                com.helger.schematron.schxslt.xslt2.SchematronResourceSchXslt_XSLT2Cache.clearCache();
+        }
+        // Timestamps are taken before compiling, so a change during compilation
+        // makes the entry stale rather than hiding the change.
+        Map<Path, Long> dependencies = collectDependencies(schematronFile.toPath());
+        SchematronResourceSchXslt_XSLT2 r = SchematronResourceSchXslt_XSLT2.fromFile(schematronFile);
+        // This cache owns the compiled stylesheet; ph-schematron's own cache is unbounded
+        // and only knows the root file.
+        r.setUseCache(false);
+        // Schematrons without @queryBinding must compile like the previous
+        // Saxon/XSLT2 skeleton pipeline did, not fail with SchXslt's E0002.
+        r.parameters().put("schxslt.compile.default-query-binding", "xslt2");
+        ISchematronXSLTBasedProvider provider = r.getXSLTProvider();
+        synchronized (COMPILED_CACHE) {
+            COMPILED_CACHE.put(key, new CachedResource(dependencies, provider));
+        }
+        return provider;
+    }
+
+    /**
+     * Collects the Schematron and, transitively, the local files it pulls in through
+     * {@code sch:include}, {@code sch:extends}, {@code xsl:include} and {@code xsl:import},
+     * each with its current modification time. Unreadable or remote references are skipped.
+     */
+    static Map<Path, Long> collectDependencies(Path schematron) {
+        Map<Path, Long> dependencies = new LinkedHashMap<>();
+        Deque<Path> pending = new ArrayDeque<>();
+        pending.add(schematron.toAbsolutePath().normalize());
+        while (!pending.isEmpty()) {
+            Path file = pending.poll();
+            if (dependencies.containsKey(file)) {
+                continue;
+            }
+            dependencies.put(file, file.toFile().lastModified());
+            if (!Files.isRegularFile(file)) {
+                continue;
             }
-            SchematronResourceSchXslt_XSLT2 r = SchematronResourceSchXslt_XSLT2.fromFile(schematronFile);
-            r.setUseCache(true);
-            // Schematrons without @queryBinding must compile like the previous
-            // Saxon/XSLT2 skeleton pipeline did, not fail with SchXslt's E0002.
-            r.parameters().put("schxslt.compile.default-query-binding", "xslt2");
-            // Custom parameters would otherwise disable caching of the compiled XSLT
-            r.setForceCacheResult(true);
-            return new CachedResource(lastModified, r);
-        });
-        return cached.resource();
+            try (InputStream in = Files.newInputStream(file)) {
+                XMLStreamReader reader = SecureXmlFactory.createSecureXMLInputFactory().createXMLStreamReader(in);
+                try {
+                    while (reader.hasNext()) {
+                        if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                            continue;
+                        }
+                        String ns = reader.getNamespaceURI();
+                        String name = reader.getLocalName();
+                        boolean reference = SCHEMATRON_NS.contains(ns) && ("include".equals(name) || "extends".equals(name))
+                                || XSLT_NS.equals(ns) && ("include".equals(name) || "import".equals(name));
+                        String href = reference ? reader.getAttributeValue(null, "href") : null;
+                        Path target = href != null ? resolveLocal(file, href) : null;
+                        if (target != null) {
+                            pending.add(target);
+                        }
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (IOException | XMLStreamException | RuntimeException e) {
+                logger.debug("Could not scan {} for includes: {}", file, e.getMessage());
+            }
+        }
+        return dependencies;
+    }
+
+    private static Path resolveLocal(Path base, String href) {
+        try {
+            URI uri = base.toUri().resolve(href.trim());
+            return "file".equalsIgnoreCase(uri.getScheme()) ? Path.of(uri).normalize() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
 
     @Override
@@ -79,7 +186,7 @@ public class SchematronServiceImpl implements SchematronService {
         }
         requireExistingSchematron(schematronFile);
         try {
-            return performValidationWithSvrl(new StreamSource(new StringReader(xmlContent)), schematronFile).errors();
+            return performValidationWithSvrl(new StreamSource(new StringReader(xmlContent)), schematronFile, null).errors();
         } catch (SchematronLoadException e) {
             throw e;
         } catch (Exception e) {
@@ -97,7 +204,7 @@ public class SchematronServiceImpl implements SchematronService {
         }
         requireExistingSchematron(schematronFile);
         try {
-            return performValidationWithSvrl(new StreamSource(xmlFile), schematronFile).errors();
+            return performValidationWithSvrl(new StreamSource(xmlFile), schematronFile, null).errors();
         } catch (SchematronLoadException e) {
             throw e;
         } catch (Exception e) {
@@ -110,13 +217,20 @@ public class SchematronServiceImpl implements SchematronService {
     @Override
     public SchematronReport validateXmlWithSvrl(String xmlContent, File schematronFile)
             throws SchematronLoadException {
+        return validateXmlWithSvrl(xmlContent, schematronFile, null);
+    }
+
+    @Override
+    public SchematronReport validateXmlWithSvrl(String xmlContent, File schematronFile,
+                                                Consumer<SchematronValidationError> onFinding)
+            throws SchematronLoadException {
         if (xmlContent == null || xmlContent.trim().isEmpty()) {
             return new SchematronReport(List.of(new SchematronValidationError(
                     "XML content is null or empty", null, null, 0, 0, "error")), null);
         }
         requireExistingSchematron(schematronFile);
         try {
-            return performValidationWithSvrl(new StreamSource(new StringReader(xmlContent)), schematronFile);
+            return performValidationWithSvrl(new StreamSource(new StringReader(xmlContent)), schematronFile, onFinding);
         } catch (SchematronLoadException e) {
             throw e;
         } catch (Exception e) {
@@ -133,47 +247,39 @@ public class SchematronServiceImpl implements SchematronService {
         }
     }
 
-    private SchematronReport performValidationWithSvrl(Source xmlSource, File schematronFile) throws SchematronLoadException {
-        SchematronOutputType svrl;
+    private SchematronReport performValidationWithSvrl(Source xmlSource, File schematronFile,
+                                                      Consumer<SchematronValidationError> onFinding)
+            throws SchematronLoadException {
+        ISchematronXSLTBasedProvider provider;
         try {
-            svrl = resource(schematronFile).applySchematronValidationToSVRL(xmlSource);
+            provider = compiled(schematronFile);
         } catch (Exception e) {
             throw new SchematronLoadException("Failed to run Schematron validation with "
                     + schematronFile.getAbsolutePath() + ". Reason: " + e.getMessage(), e);
         }
-        if (svrl == null) {
-            // ph-schematron returns null when the Schematron itself could not be compiled
+        if (provider == null || !provider.isValidSchematron()) {
             throw new SchematronLoadException("Failed to compile Schematron file: "
                     + schematronFile.getAbsolutePath()
                     + ". The file may not be valid XML or contains invalid rules.");
         }
 
-        List<SchematronValidationError> validationEvents = new ArrayList<>();
-        for (AbstractSVRLMessage message : SVRLHelper.getAllFailedAssertions(svrl)) {
-            validationEvents.add(toError(message, "error"));
-        }
-        for (AbstractSVRLMessage message : SVRLHelper.getAllSuccessfulReports(svrl)) {
-            validationEvents.add(toError(message, "warning"));
-        }
-
-        String svrlString = null;
+        SvrlStreamCollector collector = null;
         try {
-            svrlString = new SVRLMarshaller().getAsString(svrl);
-        } catch (Exception e) {
-            logger.warn("Could not marshal SVRL report for {}: {}", schematronFile, e.getMessage());
+            collector = new SvrlStreamCollector(MAX_FINDINGS, MAX_IN_MEMORY_SVRL_CHARS, onFinding);
+            provider.getXSLTTransformer().transform(xmlSource, new SAXResult(collector));
+            SchematronReport report = collector.toReport();
+            if (report.truncated()) {
+                logger.info("Schematron {} reported {} findings; kept the first {}",
+                        schematronFile.getName(), report.totalFindings(), report.errors().size());
+            }
+            return report;
+        } catch (TransformerException | IOException | RuntimeException e) {
+            if (collector != null) {
+                collector.discard();
+            }
+            throw new SchematronLoadException("Failed to run Schematron validation with "
+                    + schematronFile.getAbsolutePath() + ". Reason: " + e.getMessage(), e);
         }
-        return new SchematronReport(validationEvents, svrlString);
-    }
-
-    private static SchematronValidationError toError(AbstractSVRLMessage message, String defaultSeverity) {
-        String text = message.getText();
-        String role = message.getRole();
-        return new SchematronValidationError(
-                text != null ? text.trim() : "",
-                message.getTest(),
-                message.getLocation(),
-                0, 0,
-                role != null && !role.isEmpty() ? role : defaultSeverity);
     }
 
     @Override
@@ -196,7 +302,8 @@ public class SchematronServiceImpl implements SchematronService {
             return false;
         }
         try {
-            return resource(file).isValidSchematron();
+            ISchematronXSLTBasedProvider provider = compiled(file);
+            return provider != null && provider.isValidSchematron();
         } catch (Exception e) {
             logger.warn("isValidSchematronFile check failed for {}", file.getAbsolutePath(), e);
             return false;
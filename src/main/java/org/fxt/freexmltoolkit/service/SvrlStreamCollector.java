@@ -0,0 +1,205 @@
+package org.fxt.freexmltoolkit.service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamResult;
+
+import org.fxt.freexmltoolkit.service.SchematronService.SchematronReport;
+import org.fxt.freexmltoolkit.service.SchematronService.SchematronValidationError;
+import org.fxt.freexmltoolkit.util.SecureXmlFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+/**
+ * SAX consumer for the SVRL a compiled Schematron writes, so findings are picked
+ * up while the transformation runs instead of from a materialised report.
+ *
+ * <p>Every {@code svrl:failed-assert} becomes an error and every
+ * {@code svrl:successful-report} a warning (unless it carries a {@code role}),
+ * handed to the listener as soon as its element closes. Only the first
+ * {@code maxFindings} are kept and passed on; the rest are counted. The SVRL
+ * itself is serialised on the fly: in memory up to {@code maxInMemoryChars},
+ * then into a temporary file that the report's owner deletes with
+ * {@link SchematronReport#deleteSvrlFile()}.</p>
+ */
+final class SvrlStreamCollector extends XMLFilterImpl {
+
+    static final String SVRL_NS = "http://purl.oclc.org/dsdl/svrl";
+
+    private final int maxFindings;
+    private final Consumer<SchematronValidationError> listener;
+    private final SpillingWriter svrl;
+    private final List<SchematronValidationError> failedAsserts = new ArrayList<>();
+    private final List<SchematronValidationError> successfulReports = new ArrayList<>();
+    private int total;
+
+    // the finding being read
+    private String defaultSeverity;
+    private String test;
+    private String location;
+    private String role;
+    private StringBuilder text;
+    private int textDepth;
+
+    SvrlStreamCollector(int maxFindings, long maxInMemoryChars, Consumer<SchematronValidationError> listener)
+            throws TransformerConfigurationException {
+        this.maxFindings = maxFindings;
+        this.listener = listener;
+        this.svrl = new SpillingWriter(maxInMemoryChars);
+        TransformerFactory factory = SecureXmlFactory.createSecureTransformerFactory();
+        if (!(factory instanceof SAXTransformerFactory saxFactory)) {
+            throw new TransformerConfigurationException("The XSLT processor cannot serialise SAX events");
+        }
+        TransformerHandler serializer = saxFactory.newTransformerHandler();
+        serializer.getTransformer().setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        serializer.setResult(new StreamResult(svrl));
+        setContentHandler(serializer);
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+        if (SVRL_NS.equals(uri) && defaultSeverity == null) {
+            if ("failed-assert".equals(localName) || "successful-report".equals(localName)) {
+                defaultSeverity = "failed-assert".equals(localName) ? "error" : "warning";
+                test = atts.getValue("test");
+                location = atts.getValue("location");
+                role = atts.getValue("role");
+                text = null;
+            }
+        } else if (defaultSeverity != null) {
+            if (text == null && SVRL_NS.equals(uri) && "text".equals(localName)) {
+                text = new StringBuilder();
+                textDepth = 1;
+            } else if (textDepth > 0) {
+                textDepth++;
+            }
+        }
+        super.startElement(uri, localName, qName, atts);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        if (textDepth > 0) {
+            text.append(ch, start, length);
+        }
+        super.characters(ch, start, length);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        if (textDepth > 0) {
+            textDepth--;
+        } else if (defaultSeverity != null && SVRL_NS.equals(uri)
+                && ("failed-assert".equals(localName) || "successful-report".equals(localName))) {
+            finding();
+        }
+        super.endElement(uri, localName, qName);
+    }
+
+    private void finding() {
+        boolean failedAssert = "error".equals(defaultSeverity);
+        SchematronValidationError error = new SchematronValidationError(
+                text != null ? text.toString().trim() : "",
+                test,
+                location,
+                0, 0,
+                role != null && !role.isEmpty() ? role : defaultSeverity);
+        defaultSeverity = null;
+        text = null;
+        if (total++ < maxFindings) {
+            (failedAssert ? failedAsserts : successfulReports).add(error);
+            if (listener != null) {
+                listener.accept(error);
+            }
+        }
+    }
+
+    /**
+     * Builds the report once the transformation has finished: failed assertions
+     * before successful reports, like the SVRL helper lists them.
+     */
+    SchematronReport toReport() throws IOException {
+        svrl.close();
+        List<SchematronValidationError> errors = new ArrayList<>(failedAsserts.size() + successfulReports.size());
+        errors.addAll(failedAsserts);
+        errors.addAll(successfulReports);
+        return new SchematronReport(errors, svrl.text(), total, svrl.file());
+    }
+
+    /** Drops a spill file of a run that failed. */
+    void discard() {
+        try {
+            svrl.close();
+            if (svrl.file() != null) {
+                Files.deleteIfExists(svrl.file());
+            }
+        } catch (IOException e) {
+            // best effort: the file stays in the temporary directory
+        }
+    }
+
+    /** Buffers in memory up to a limit, then moves everything to a temporary file. */
+    private static final class SpillingWriter extends Writer {
+        private final long limit;
+        private final StringBuilder buffer = new StringBuilder();
+        private Writer spill;
+        private Path file;
+        private boolean closed;
+
+        SpillingWriter(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            if (spill == null && buffer.length() + len > limit) {
+                file = Files.createTempFile("fxt-svrl-", ".xml");
+                spill = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+                spill.append(buffer);
+                buffer.setLength(0);
+            }
+            if (spill != null) {
+                spill.write(cbuf, off, len);
+            } else {
+                buffer.append(cbuf, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (spill != null) {
+                spill.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed && spill != null) {
+                spill.close();
+            }
+            closed = true;
+        }
+
+        /** @return the SVRL, or {@code null} if it was spilled to {@link #file()} */
+        String text() {
+            return spill == null ? buffer.toString() : null;
+        }
+
+        Path file() {
+            return file;
+        }
+    }
+}
@@ -33,8 +33,21 @@ public interface TaskProgressListener {
      * @param taskName       the name of the task
      * @param status         the current status (STARTED, RUNNING, FAILED, or FINISHED)
      * @param durationMillis the duration of the task in milliseconds (only relevant when status is FINISHED)
+     * @param cpuMillis      the CPU time consumed by the task in milliseconds, or {@code -1} if not measured
      */
-    record ProgressUpdate(String taskName, Status status, long durationMillis) {
+    record ProgressUpdate(String taskName, Status status, long durationMillis, long cpuMillis) {
+
+        /**
+         * Creates an update without CPU time information.
+         *
+         * @param taskName       the name of the task
+         * @param status         the current status
+         * @param durationMillis the duration of the task in milliseconds
+         */
+        public ProgressUpdate(String taskName, Status status, long durationMillis) {
+            this(taskName, status, durationMillis, -1);
+        }
+
         /**
          * The possible states of a task.
          */
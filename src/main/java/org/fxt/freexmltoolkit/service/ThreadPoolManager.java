@@ -1,7 +1,8 @@
 package org.fxt.freexmltoolkit.service;
 
-import java.time.Duration;
-import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
@@ -10,10 +11,11 @@ import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 import org.apache.logging.log4j.LogManager;
@@ -22,15 +24,23 @@ import org.apache.logging.log4j.Logger;
 /**
  * Centralized thread pool management for the FreeXmlToolkit application.
  * <p>
- * This singleton provides optimized thread pools for different types of operations:
- * - UI-bound operations (short-running, high priority)
- * - CPU-intensive operations (medium-running, parallel processing)
- * - I/O-bound operations (long-running, many concurrent tasks)
+ * This singleton provides the thread pools for the different {@link TaskCategory task categories}:
+ * - UI-bound operations (short-running, high priority, small platform-thread pool)
+ * - Syntax highlighting (own small platform-thread pool, so keystroke latency does not
+ *   queue behind validation, statistics or documentation work on the CPU pool)
+ * - CPU-intensive operations (work-stealing {@link ForkJoinPool}, parallelism capped by
+ *   {@code -Dfxt.threads.cpu.parallelism}, default: number of cores)
+ * - I/O-bound operations (one virtual thread per task; at most {@code -Dfxt.threads.io.concurrency}
+ *   run at the same time, the rest wait for a permit without holding a platform thread)
+ * - Scheduled operations (delayed tasks)
  * - Background operations (low priority, cleanup tasks)
  * <p>
+ * Components that need their own executor (e.g. a serial one per editor) get a
+ * {@link ManagedExecutor} view over these pools from {@link #newSerialExecutor(String, TaskCategory)}
+ * instead of creating threads.
+ * <p>
  * Features:
- * - Automatic pool sizing based on available CPU cores
- * - Performance monitoring and statistics
+ * - Per-category statistics: queue wait and run time histograms, failures ({@link #getStats()})
  * - Graceful shutdown handling
  * - Task cancellation support
  * - Memory-efficient with daemon threads
@@ -44,22 +54,56 @@ public class ThreadPoolManager {
     // Thread pool configurations
     private static final int CPU_CORES = Runtime.getRuntime().availableProcessors();
     private static final int UI_POOL_SIZE = Math.max(2, CPU_CORES / 2);
-    private static final int CPU_POOL_SIZE = CPU_CORES;
-    private static final int IO_POOL_SIZE = Math.max(4, CPU_CORES * 2);
+    private static final int CPU_POOL_SIZE = Math.clamp(
+            Integer.getInteger("fxt.threads.cpu.parallelism", CPU_CORES), 1, CPU_CORES);
+    private static final int IO_CONCURRENCY = Math.max(1,
+            Integer.getInteger("fxt.threads.io.concurrency", Math.max(16, CPU_CORES * 4)));
+    private static final int HIGHLIGHT_POOL_SIZE = Math.max(2, CPU_CORES / 4);
     private static final int BACKGROUND_POOL_SIZE = 2;
 
+    /** Extra FJP threads allowed while CPU workers are blocked in a managed block. */
+    private static final int CPU_POOL_SPARE_THREADS = 16;
+
+    /**
+     * The kinds of work the manager runs, each on its own pool and with its own statistics.
+     */
+    public enum TaskCategory {
+        UI("UI", 100),
+        HIGHLIGHT("Highlighting", 100),
+        CPU("CPU", 500),
+        IO("I/O", Long.MAX_VALUE),
+        SCHEDULED("Scheduled", Long.MAX_VALUE),
+        BACKGROUND("Background", Long.MAX_VALUE);
+
+        private final String displayName;
+        private final long slowThresholdMillis;
+
+        TaskCategory(String displayName, long slowThresholdMillis) {
+            this.displayName = displayName;
+            this.slowThresholdMillis = slowThresholdMillis;
+        }
+
+        /**
+         * Returns the name shown in logs and the statistics view.
+         *
+         * @return the display name
+         */
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
     // Thread pools for different operation types
     private final ExecutorService uiExecutor;           // Fast UI operations
-    private final ForkJoinPool cpuIntensiveExecutor;    // CPU-bound tasks like syntax highlighting
-    private final ExecutorService ioExecutor;          // I/O operations like file loading
+    private final ExecutorService highlightExecutor;    // Latency-sensitive syntax highlighting
+    private final ForkJoinPool cpuIntensiveExecutor;    // CPU-bound tasks like validation and parsing
+    private final ExecutorService ioExecutor;          // I/O operations like file loading (virtual threads)
+    private final Semaphore ioPermits = new Semaphore(IO_CONCURRENCY);
     private final ScheduledExecutorService scheduledExecutor;  // Scheduled/delayed tasks
     private final ExecutorService backgroundExecutor;   // Low-priority background tasks
 
     // Performance monitoring
-    private final AtomicLong totalTasksSubmitted = new AtomicLong(0);
-    private final AtomicLong totalTasksCompleted = new AtomicLong(0);
-    private final AtomicLong totalTasksFailed = new AtomicLong(0);
-    private final AtomicLong totalExecutionTime = new AtomicLong(0);
+    private final Map<TaskCategory, TaskMetrics> metrics = new EnumMap<>(TaskCategory.class);
 
     // Task tracking for cancellation
     private final ConcurrentHashMap<String, CompletableFuture<?>> runningTasks = new ConcurrentHashMap<>();
@@ -70,6 +114,9 @@ public class ThreadPoolManager {
      */
     private ThreadPoolManager() {
         logger.info("Initializing ThreadPoolManager with {} CPU cores", CPU_CORES);
+        for (TaskCategory category : TaskCategory.values()) {
+            metrics.put(category, new TaskMetrics());
+        }
 
         // UI Executor - High priority, fast completion
         this.uiExecutor = Executors.newFixedThreadPool(UI_POOL_SIZE, new ThreadFactory() {
@@ -84,7 +131,22 @@ public class ThreadPoolManager {
             }
         });
 
-        // CPU Intensive Executor - Work-stealing pool for parallel processing
+        // Highlight Executor - Kept apart from the CPU pool so highlighting never waits
+        // behind queued validation or statistics tasks
+        this.highlightExecutor = Executors.newFixedThreadPool(HIGHLIGHT_POOL_SIZE, new ThreadFactory() {
+            private final AtomicInteger counter = new AtomicInteger(1);
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "FXT-Highlight-" + counter.getAndIncrement());
+                t.setDaemon(true);
+                t.setPriority(Thread.NORM_PRIORITY + 1);
+                return t;
+            }
+        });
+
+        // CPU Intensive Executor - Work-stealing pool for parallel processing.
+        // asyncMode: submitted tasks are independent events, processed in FIFO order.
         this.cpuIntensiveExecutor = new ForkJoinPool(
                 CPU_POOL_SIZE,
                 pool -> {
@@ -94,21 +156,19 @@ public class ThreadPoolManager {
                     return worker;
                 },
                 null,
-                false
+                true,
+                0,
+                CPU_POOL_SIZE + CPU_POOL_SPARE_THREADS,
+                1,
+                null,
+                60,
+                TimeUnit.SECONDS
         );
 
-        // I/O Executor - Many threads for concurrent I/O operations
-        this.ioExecutor = Executors.newFixedThreadPool(IO_POOL_SIZE, new ThreadFactory() {
-            private final AtomicInteger counter = new AtomicInteger(1);
-
-            @Override
-            public Thread newThread(Runnable r) {
-                Thread t = new Thread(r, "FXT-IO-" + counter.getAndIncrement());
-                t.setDaemon(true);
-                t.setPriority(Thread.NORM_PRIORITY);
-                return t;
-            }
-        });
+        // I/O Executor - A virtual thread per task; blocking I/O does not hold a platform thread.
+        // Concurrency is limited by ioPermits in dispatch().
+        this.ioExecutor = Executors.newThreadPerTaskExecutor(
+                Thread.ofVirtual().name("FXT-IO-", 1).factory());
 
         // Scheduled Executor - For timed/delayed operations
         this.scheduledExecutor = Executors.newScheduledThreadPool(2, new ThreadFactory() {
@@ -139,8 +199,8 @@ public class ThreadPoolManager {
         // Start performance monitoring
         startPerformanceMonitoring();
 
-        logger.info("ThreadPoolManager initialized - UI: {}, CPU: {}, I/O: {}, Background: {}",
-                UI_POOL_SIZE, CPU_POOL_SIZE, IO_POOL_SIZE, BACKGROUND_POOL_SIZE);
+        logger.info("ThreadPoolManager initialized - UI: {}, Highlight: {}, CPU: {}, I/O: {} concurrent virtual threads, Background: {}",
+                UI_POOL_SIZE, HIGHLIGHT_POOL_SIZE, CPU_POOL_SIZE, IO_CONCURRENCY, BACKGROUND_POOL_SIZE);
     }
 
     /**
@@ -183,36 +243,41 @@ public class ThreadPoolManager {
         if (isShutdown) {
             return CompletableFuture.failedFuture(new IllegalStateException("ThreadPoolManager is shutdown"));
         }
+        return track(taskId, CompletableFuture.runAsync(instrument(TaskCategory.UI, taskId, task), uiExecutor));
+    }
 
-        totalTasksSubmitted.incrementAndGet();
-        Instant startTime = Instant.now();
-
-        CompletableFuture<Void> future = CompletableFuture
-                .runAsync(task, uiExecutor)
-                .whenComplete((result, throwable) -> {
-                    runningTasks.remove(taskId);
-                    totalTasksCompleted.incrementAndGet();
-
-                    if (throwable != null) {
-                        totalTasksFailed.incrementAndGet();
-                        logger.debug("UI task '{}' failed", taskId, throwable);
-                    } else {
-                        long executionTime = Duration.between(startTime, Instant.now()).toMillis();
-                        totalExecutionTime.addAndGet(executionTime);
-
-                        if (executionTime > 100) {
-                            logger.debug("UI task '{}' took {}ms (slow)", taskId, executionTime);
-                        }
-                    }
-                });
+    /**
+     * Executes a syntax highlighting task on the dedicated highlighting pool.
+     *
+     * @param <T> the type of the result produced by the task
+     * @param task the supplier task to execute
+     * @return a CompletableFuture representing the asynchronous task result
+     */
+    public <T> CompletableFuture<T> executeHighlighting(Supplier<T> task) {
+        return executeHighlighting("unnamed-highlight-task", task);
+    }
 
-        runningTasks.put(taskId, future);
-        return future;
+    /**
+     * Executes a syntax highlighting task on the dedicated highlighting pool with a specified
+     * task identifier. The pool is separate from the CPU pool, so a highlighting pass starts
+     * right away even while validation or statistics tasks keep every CPU worker busy.
+     *
+     * @param <T> the type of the result produced by the task
+     * @param taskId a unique identifier for this task
+     * @param task the supplier task to execute
+     * @return a CompletableFuture representing the asynchronous task result
+     */
+    public <T> CompletableFuture<T> executeHighlighting(String taskId, Supplier<T> task) {
+        if (isShutdown) {
+            return CompletableFuture.failedFuture(new IllegalStateException("ThreadPoolManager is shutdown"));
+        }
+        return track(taskId, CompletableFuture.supplyAsync(
+                instrument(TaskCategory.HIGHLIGHT, taskId, task), highlightExecutor));
     }
 
     /**
      * Executes a CPU-intensive task using the work-stealing pool.
-     * This method is intended for operations like syntax highlighting, parsing, and validation.
+     * This method is intended for operations like parsing and validation.
      *
      * @param <T> the type of the result produced by the task
      * @param task the supplier task to execute
@@ -224,7 +289,7 @@ public class ThreadPoolManager {
 
     /**
      * Executes a CPU-intensive task using the work-stealing pool with a specified task identifier.
-     * This method is intended for operations like syntax highlighting, parsing, and validation.
+     * This method is intended for operations like parsing and validation.
      * The task ID can be used for tracking and cancellation.
      *
      * @param <T> the type of the result produced by the task
@@ -236,31 +301,8 @@ public class ThreadPoolManager {
         if (isShutdown) {
             return CompletableFuture.failedFuture(new IllegalStateException("ThreadPoolManager is shutdown"));
         }
-
-        totalTasksSubmitted.incrementAndGet();
-        Instant startTime = Instant.now();
-
-        CompletableFuture<T> future = CompletableFuture
-                .supplyAsync(task, cpuIntensiveExecutor)
-                .whenComplete((result, throwable) -> {
-                    runningTasks.remove(taskId);
-                    totalTasksCompleted.incrementAndGet();
-
-                    if (throwable != null) {
-                        totalTasksFailed.incrementAndGet();
-                        logger.debug("CPU task '{}' failed", taskId, throwable);
-                    } else {
-                        long executionTime = Duration.between(startTime, Instant.now()).toMillis();
-                        totalExecutionTime.addAndGet(executionTime);
-
-                        if (executionTime > 500) {
-                            logger.debug("CPU task '{}' took {}ms (slow)", taskId, executionTime);
-                        }
-                    }
-                });
-
-        runningTasks.put(taskId, future);
-        return future;
+        return track(taskId, CompletableFuture.supplyAsync(
+                instrument(TaskCategory.CPU, taskId, task), cpuIntensiveExecutor));
     }
 
     /**
@@ -289,27 +331,8 @@ public class ThreadPoolManager {
         if (isShutdown) {
             return CompletableFuture.failedFuture(new IllegalStateException("ThreadPoolManager is shutdown"));
         }
-
-        totalTasksSubmitted.incrementAndGet();
-        Instant startTime = Instant.now();
-
-        CompletableFuture<T> future = CompletableFuture
-                .supplyAsync(task, ioExecutor)
-                .whenComplete((result, throwable) -> {
-                    runningTasks.remove(taskId);
-                    totalTasksCompleted.incrementAndGet();
-
-                    if (throwable != null) {
-                        totalTasksFailed.incrementAndGet();
-                        logger.debug("I/O task '{}' failed", taskId, throwable);
-                    } else {
-                        long executionTime = Duration.between(startTime, Instant.now()).toMillis();
-                        totalExecutionTime.addAndGet(executionTime);
-                    }
-                });
-
-        runningTasks.put(taskId, future);
-        return future;
+        return track(taskId, CompletableFuture.supplyAsync(
+                instrument(TaskCategory.IO, taskId, task), command -> dispatch(TaskCategory.IO, command)));
     }
 
     /**
@@ -340,10 +363,12 @@ public class ThreadPoolManager {
         }
 
         CompletableFuture<Void> future = new CompletableFuture<>();
+        Runnable instrumented = instrument(TaskCategory.SCHEDULED, taskId, task,
+                System.nanoTime() + timeUnit.toNanos(delay));
 
         scheduledExecutor.schedule(() -> {
             try {
-                task.run();
+                instrumented.run();
                 future.complete(null);
             } catch (Exception e) {
                 future.completeExceptionally(e);
@@ -380,18 +405,38 @@ public class ThreadPoolManager {
         if (isShutdown) {
             return CompletableFuture.failedFuture(new IllegalStateException("ThreadPoolManager is shutdown"));
         }
+        return track(taskId, CompletableFuture.runAsync(
+                instrument(TaskCategory.BACKGROUND, taskId, task), backgroundExecutor));
+    }
 
-        CompletableFuture<Void> future = CompletableFuture
-                .runAsync(task, backgroundExecutor)
-                .whenComplete((result, throwable) -> {
-                    runningTasks.remove(taskId);
-                    if (throwable != null) {
-                        logger.debug("Background task '{}' failed", taskId, throwable);
-                    }
-                });
+    /**
+     * Creates an executor that runs its tasks one at a time, in submission order, on
+     * the pool of the given category. Use it instead of
+     * {@code Executors.newSingleThreadExecutor()}.
+     *
+     * @param name     the name used in log messages
+     * @param category the pool to run on; not {@link TaskCategory#SCHEDULED}
+     * @return the new executor
+     */
+    public ManagedExecutor newSerialExecutor(String name, TaskCategory category) {
+        return newExecutor(name, category, 1);
+    }
 
-        runningTasks.put(taskId, future);
-        return future;
+    /**
+     * Creates an executor that runs at most {@code maxConcurrency} of its tasks at the
+     * same time on the pool of the given category. Use it instead of a private
+     * fixed-size pool.
+     *
+     * @param name           the name used in log messages
+     * @param category       the pool to run on; not {@link TaskCategory#SCHEDULED}
+     * @param maxConcurrency the maximum number of tasks running at the same time
+     * @return the new executor
+     */
+    public ManagedExecutor newExecutor(String name, TaskCategory category, int maxConcurrency) {
+        if (category == TaskCategory.SCHEDULED) {
+            throw new IllegalArgumentException("Use ManagedExecutor.schedule() for delayed tasks");
+        }
+        return new ManagedExecutor(name, this, category, maxConcurrency);
     }
 
     /**
@@ -426,23 +471,45 @@ public class ThreadPoolManager {
      * @return a ThreadPoolStats record containing statistics about task execution
      */
     public ThreadPoolStats getStats() {
+        Map<TaskCategory, CategoryStats> categories = new EnumMap<>(TaskCategory.class);
+        long submitted = 0;
+        long completed = 0;
+        long failed = 0;
+        long runMicros = 0;
+        for (TaskCategory category : TaskCategory.values()) {
+            CategoryStats stats = metrics.get(category).snapshot(category);
+            categories.put(category, stats);
+            submitted += stats.submitted();
+            completed += stats.completed();
+            failed += stats.failed();
+            runMicros += stats.runTime().totalMicros();
+        }
         return new ThreadPoolStats(
-                totalTasksSubmitted.get(),
-                totalTasksCompleted.get(),
-                totalTasksFailed.get(),
+                submitted,
+                completed,
+                failed,
                 runningTasks.size(),
-                totalTasksCompleted.get() > 0 ? totalExecutionTime.get() / totalTasksCompleted.get() : 0,
-                getPoolStats()
+                completed > 0 ? runMicros / completed / 1000 : 0,
+                getPoolStats(),
+                Collections.unmodifiableMap(categories)
         );
     }
 
+    /**
+     * Clears the per-category statistics, e.g. before measuring a specific workload.
+     */
+    public void resetStats() {
+        metrics.values().forEach(TaskMetrics::reset);
+    }
+
     private PoolStats getPoolStats() {
         return new PoolStats(
                 getActiveThreadCount(uiExecutor),
+                getActiveThreadCount(highlightExecutor),
                 cpuIntensiveExecutor.getActiveThreadCount(),
-                getActiveThreadCount(ioExecutor),
+                IO_CONCURRENCY - ioPermits.availablePermits(),
                 getActiveThreadCount(backgroundExecutor),
-                cpuIntensiveExecutor.getQueuedTaskCount()
+                cpuIntensiveExecutor.getQueuedTaskCount() + cpuIntensiveExecutor.getQueuedSubmissionCount()
         );
     }
 
@@ -453,6 +520,88 @@ public class ThreadPoolManager {
         return -1; // Unknown
     }
 
+    /**
+     * Runs a task on the pool of a category. I/O tasks first wait, on their virtual
+     * thread, for one of the {@code fxt.threads.io.concurrency} permits.
+     */
+    void dispatch(TaskCategory category, Runnable task) {
+        switch (category) {
+            case UI -> uiExecutor.execute(task);
+            case HIGHLIGHT -> highlightExecutor.execute(task);
+            case CPU -> cpuIntensiveExecutor.execute(task);
+            case IO -> ioExecutor.execute(() -> {
+                ioPermits.acquireUninterruptibly();
+                try {
+                    task.run();
+                } finally {
+                    ioPermits.release();
+                }
+            });
+            case BACKGROUND -> backgroundExecutor.execute(task);
+            case SCHEDULED -> scheduledExecutor.execute(task);
+        }
+    }
+
+    /**
+     * Runs a task on the scheduler thread after a delay. Used by
+     * {@link ManagedExecutor#schedule(Runnable, long, TimeUnit)} to hand the task over
+     * to its own pool, so the scheduler threads only measure time.
+     */
+    void delay(Runnable handOver, long delay, TimeUnit timeUnit) {
+        scheduledExecutor.schedule(handOver, delay, timeUnit);
+    }
+
+    /**
+     * Wraps a task so that its queue wait, run time and failure are recorded for its category.
+     */
+    Runnable instrument(TaskCategory category, String taskId, Runnable task) {
+        return instrument(category, taskId, task, System.nanoTime());
+    }
+
+    private Runnable instrument(TaskCategory category, String taskId, Runnable task, long readyNanos) {
+        TaskMetrics taskMetrics = metrics.get(category);
+        taskMetrics.submitted.increment();
+        return () -> {
+            long start = taskMetrics.started(readyNanos);
+            boolean success = false;
+            try {
+                task.run();
+                success = true;
+            } catch (RuntimeException | Error e) {
+                logger.debug("{} task '{}' failed", category.getDisplayName(), taskId, e);
+                throw e;
+            } finally {
+                taskMetrics.finished(category, taskId, start, success);
+            }
+        };
+    }
+
+    private <T> Supplier<T> instrument(TaskCategory category, String taskId, Supplier<T> task) {
+        TaskMetrics taskMetrics = metrics.get(category);
+        taskMetrics.submitted.increment();
+        long readyNanos = System.nanoTime();
+        return () -> {
+            long start = taskMetrics.started(readyNanos);
+            boolean success = false;
+            try {
+                T result = task.get();
+                success = true;
+                return result;
+            } catch (RuntimeException | Error e) {
+                logger.debug("{} task '{}' failed", category.getDisplayName(), taskId, e);
+                throw e;
+            } finally {
+                taskMetrics.finished(category, taskId, start, success);
+            }
+        };
+    }
+
+    private <T> CompletableFuture<T> track(String taskId, CompletableFuture<T> future) {
+        runningTasks.put(taskId, future);
+        future.whenComplete((result, throwable) -> runningTasks.remove(taskId, future));
+        return future;
+    }
+
     /**
      * Starts the performance monitoring task.
      * This task periodically logs statistics about thread pool usage.
@@ -464,6 +613,14 @@ public class ThreadPoolManager {
                 logger.debug("Thread pool stats: Submitted={}, Completed={}, Failed={}, Running={}, AvgTime={}ms",
                         stats.tasksSubmitted, stats.tasksCompleted, stats.tasksFailed,
                         stats.runningTasks, stats.averageExecutionTimeMs);
+                for (CategoryStats category : stats.categories().values()) {
+                    if (category.submitted() > 0) {
+                        logger.debug("  {}: completed={}, failed={}, running={}, wait p50/p99={}/{}us, run p50/p99={}/{}us",
+                                category.category().getDisplayName(), category.completed(), category.failed(),
+                                category.running(), category.queueWait().p50Micros(), category.queueWait().p99Micros(),
+                                category.runTime().p50Micros(), category.runTime().p99Micros());
+                    }
+                }
             }
         }, 30, 30, TimeUnit.SECONDS);
     }
@@ -486,6 +643,7 @@ public class ThreadPoolManager {
 
         // Shutdown pools
         shutdownExecutor("UI", uiExecutor, 1000);
+        shutdownExecutor("Highlight", highlightExecutor, 500);
         shutdownExecutor("CPU", cpuIntensiveExecutor, 2000);
         shutdownExecutor("I/O", ioExecutor, 1000);
         shutdownExecutor("Background", backgroundExecutor, 500);
@@ -528,6 +686,7 @@ public class ThreadPoolManager {
      * @param runningTasks Currently running tasks
      * @param averageExecutionTimeMs Average execution time in milliseconds
      * @param poolStats Statistics for individual pools
+     * @param categories Queue wait, run time and failures per task category
      */
     public record ThreadPoolStats(
             long tasksSubmitted,
@@ -535,20 +694,90 @@ public class ThreadPoolManager {
             long tasksFailed,
             int runningTasks,
             long averageExecutionTimeMs,
-            PoolStats poolStats
+            PoolStats poolStats,
+            Map<TaskCategory, CategoryStats> categories
     ) {
     }
 
+    /**
+     * Statistics for one task category.
+     * @param category The task category
+     * @param submitted Tasks submitted
+     * @param completed Tasks finished, successfully or not
+     * @param failed Tasks that threw an exception
+     * @param running Tasks currently running
+     * @param queueWait Time from submission (or the scheduled time) until the task started
+     * @param runTime Time the task ran
+     */
+    public record CategoryStats(
+            TaskCategory category,
+            long submitted,
+            long completed,
+            long failed,
+            int running,
+            LatencyHistogram.Snapshot queueWait,
+            LatencyHistogram.Snapshot runTime
+    ) {
+    }
+
+    /**
+     * Counters and histograms of one task category.
+     */
+    private static final class TaskMetrics {
+        private final LongAdder submitted = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final AtomicInteger running = new AtomicInteger();
+        private final LatencyHistogram queueWait = new LatencyHistogram();
+        private final LatencyHistogram runTime = new LatencyHistogram();
+
+        long started(long readyNanos) {
+            long now = System.nanoTime();
+            queueWait.recordNanos(now - readyNanos);
+            running.incrementAndGet();
+            return now;
+        }
+
+        void finished(TaskCategory category, String taskId, long startNanos, boolean success) {
+            long elapsed = System.nanoTime() - startNanos;
+            runTime.recordNanos(elapsed);
+            running.decrementAndGet();
+            completed.increment();
+            if (!success) {
+                failed.increment();
+            }
+            long elapsedMillis = elapsed / 1_000_000;
+            if (elapsedMillis > category.slowThresholdMillis && taskId != null) {
+                logger.debug("{} task '{}' took {}ms (slow)", category.getDisplayName(), taskId, elapsedMillis);
+            }
+        }
+
+        CategoryStats snapshot(TaskCategory category) {
+            return new CategoryStats(category, submitted.sum(), completed.sum(), failed.sum(), running.get(),
+                    queueWait.snapshot(), runTime.snapshot());
+        }
+
+        void reset() {
+            submitted.reset();
+            completed.reset();
+            failed.reset();
+            queueWait.reset();
+            runTime.reset();
+        }
+    }
+
     /**
      * Individual pool statistics.
      * @param uiActiveThreads Active threads in UI pool
+     * @param highlightActiveThreads Active threads in the highlighting pool
      * @param cpuActiveThreads Active threads in CPU pool
-     * @param ioActiveThreads Active threads in I/O pool
+     * @param ioActiveThreads I/O tasks currently holding a concurrency permit
      * @param backgroundActiveThreads Active threads in Background pool
-     * @param cpuQueuedTasks Tasks queued in CPU pool
+     * @param cpuQueuedTasks Tasks queued in CPU pool, including external submissions
      */
     public record PoolStats(
             int uiActiveThreads,
+            int highlightActiveThreads,
             int cpuActiveThreads,
             int ioActiveThreads,
             int backgroundActiveThreads,
@@ -22,7 +22,6 @@ import java.net.URI;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
@@ -159,11 +158,8 @@ public class UpdateCheckServiceImpl implements UpdateCheckService {
      */
     private ExecutorService getExecutorService() {
         if (executorService == null) {
-            executorService = Executors.newSingleThreadExecutor(r -> {
-                Thread t = new Thread(r, "UpdateCheckService-Thread");
-                t.setDaemon(true);
-                return t;
-            });
+            executorService = ThreadPoolManager.getInstance().newSerialExecutor(
+                    "UpdateCheckService-Thread", ThreadPoolManager.TaskCategory.IO);
         }
         return executorService;
     }
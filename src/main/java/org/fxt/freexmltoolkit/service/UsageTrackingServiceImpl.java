@@ -2,9 +2,11 @@ package org.fxt.freexmltoolkit.service;
 
 import java.io.IOException;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -12,10 +14,6 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import org.apache.logging.log4j.LogManager;
@@ -48,8 +46,6 @@ public class UsageTrackingServiceImpl implements UsageTrackingService {
     private final Gson gson;
     private UsageStatistics statistics;
     private LocalDateTime sessionStart;
-    private final AtomicBoolean dirty = new AtomicBoolean(false);
-    private final ScheduledExecutorService saveScheduler;
 
     private UsageTrackingServiceImpl() {
         // Initialize statistics file in user's home directory
@@ -73,17 +69,6 @@ public class UsageTrackingServiceImpl implements UsageTrackingService {
 
         this.statistics = new UsageStatistics();
 
-        // Initialize save scheduler for debounced saves
-        this.saveScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "UsageTracking-SaveScheduler");
-            t.setDaemon(true);
-            return t;
-        });
-
-        // Schedule periodic save check
-        saveScheduler.scheduleAtFixedRate(this::checkAndSave,
-            SAVE_DEBOUNCE_SECONDS, SAVE_DEBOUNCE_SECONDS, TimeUnit.SECONDS);
-
         loadStatistics();
         initializeFeatureDefinitions();
     }
@@ -602,41 +587,34 @@ public class UsageTrackingServiceImpl implements UsageTrackingService {
         }
     }
 
+    /**
+     * Hands the statistics to the {@link WriteBehindStore} for writing as soon as possible.
+     */
     private void saveStatisticsInternal() {
-        try {
-            String json = gson.toJson(statistics);
-            Files.writeString(statisticsFile, json);
-            dirty.set(false);
-            logger.debug("Saved usage statistics");
-        } catch (IOException e) {
-            logger.error("Failed to save usage statistics", e);
-        }
+        WriteBehindStore.getInstance().schedule(statisticsFile, this::serializeStatistics, Duration.ZERO);
     }
 
+    /**
+     * Lets the {@link WriteBehindStore} write the statistics within the debounce interval,
+     * together with whatever else is pending by then.
+     */
     private void markDirty() {
-        dirty.set(true);
+        WriteBehindStore.getInstance().schedule(statisticsFile, this::serializeStatistics,
+                Duration.ofSeconds(SAVE_DEBOUNCE_SECONDS));
     }
 
-    private void checkAndSave() {
-        if (dirty.compareAndSet(true, false)) {
-            saveStatisticsInternal();
-        }
+    private byte[] serializeStatistics() {
+        byte[] json = gson.toJson(statistics).getBytes(StandardCharsets.UTF_8);
+        logger.debug("Saved usage statistics");
+        return json;
     }
 
     /**
-     * Shutdown the save scheduler.
+     * Writes pending statistics to disk.
      * Should be called when the application exits.
      */
     public void shutdown() {
-        saveScheduler.shutdown();
-        try {
-            if (!saveScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                saveScheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            saveScheduler.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        WriteBehindStore.getInstance().flush();
     }
 
     // ================== Gson Adapters ==================
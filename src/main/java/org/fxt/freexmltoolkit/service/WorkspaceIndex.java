@@ -0,0 +1,920 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.util.SecureXmlFactory;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * In-memory catalogue of the files in a workspace folder, kept current by a
+ * {@link WatchService} so the Explorer tree, find-in-files, XPath batch search,
+ * batch validation and schema auto-detection do not re-walk the folder.
+ *
+ * <p>For every file the index records size, modification time and the detected
+ * {@link FileKind}; XML-family files also get their root element, its namespace,
+ * the {@code xsi:schemaLocation} / {@code xsi:noNamespaceSchemaLocation} they
+ * declare and (for schemas) the {@code targetNamespace}. Only the first start tag
+ * is read, and only for files whose size or modification time changed.</p>
+ *
+ * <p>{@link #open(Path)} loads the persisted catalogue of the folder (under
+ * {@code ~/.freeXmlToolkit/workspace-index}), reconciles it with one walk of the
+ * folder and then watches for changes. Folders on network file systems, folders
+ * the platform cannot watch (e.g. the inotify watch limit is reached) and runs
+ * with {@code -Dfxt.workspace.index.poll=true} fall back to re-walking every
+ * {@value #POLL_INTERVAL_SECONDS} seconds. All scanning runs on one serial I/O
+ * executor; queries are answered from memory and are safe from any thread.</p>
+ *
+ * <p>Until the first walk has finished {@link #isReady()} is {@code false}, and
+ * callers (e.g. {@link #covering(Path)}) fall back to reading the disk.</p>
+ */
+public final class WorkspaceIndex implements AutoCloseable {
+
+    private static final Logger logger = LogManager.getLogger(WorkspaceIndex.class);
+
+    /** Interval of the polling fallback. */
+    static final long POLL_INTERVAL_SECONDS = 30;
+
+    /** Watch events arriving within this window are applied as one batch. */
+    private static final long COALESCE_MILLIS = 200;
+
+    /** Delay before a changed catalogue is written to disk. */
+    private static final Duration PERSIST_DELAY = Duration.ofSeconds(10);
+
+    private static final int CATALOGUE_VERSION = 1;
+
+    /** File-store types that do not deliver change events reliably. */
+    private static final Set<String> NETWORK_FILE_STORES = Set.of(
+            "nfs", "nfs4", "cifs", "smbfs", "smb2", "smb", "afpfs", "webdav", "davfs", "fuse.sshfs", "9p");
+
+    private static final String XSD_NS = "http://www.w3.org/2001/XMLSchema";
+    private static final String XSI_NS = "http://www.w3.org/2001/XMLSchema-instance";
+    private static final String XSLT_NS = "http://www.w3.org/1999/XSL/Transform";
+    private static final Set<String> SCHEMATRON_NS = Set.of(
+            "http://purl.oclc.org/dsdl/schematron", "http://www.ascc.net/xml/schematron");
+    private static final Set<String> XPROC_NS = Set.of(
+            "http://www.w3.org/ns/xproc", "http://www.w3.org/ns/xproc/3.0");
+
+    private static final Map<Path, WorkspaceIndex> openIndexes = new ConcurrentHashMap<>();
+
+    /**
+     * What a file is, from its extension and — for XML-family files — its root element.
+     */
+    public enum FileKind {
+        XML, XSD, XSLT, SCHEMATRON, XPROC, JSON, XQUERY, OTHER;
+
+        /** @return the kind suggested by the file name alone */
+        static FileKind fromFileName(String name) {
+            int dot = name.lastIndexOf('.');
+            String ext = dot < 0 ? "" : name.substring(dot + 1).toLowerCase(Locale.ROOT);
+            return switch (ext) {
+                case "xml" -> XML;
+                case "xsd" -> XSD;
+                case "xsl", "xslt" -> XSLT;
+                case "sch", "schematron" -> SCHEMATRON;
+                case "xpl", "xproc" -> XPROC;
+                case "json" -> JSON;
+                case "xq", "xquery", "xqm", "xqy" -> XQUERY;
+                default -> OTHER;
+            };
+        }
+
+        /** @return whether files of this kind are XML and worth sniffing */
+        boolean isXml() {
+            return this == XML || this == XSD || this == XSLT || this == SCHEMATRON || this == XPROC;
+        }
+    }
+
+    /**
+     * One catalogued file. The XML fields are {@code null} for non-XML files, files
+     * that are not well-formed and root elements without the respective attribute.
+     *
+     * @param path            absolute path of the file
+     * @param size            size in bytes
+     * @param lastModified    modification time in epoch milliseconds
+     * @param kind            detected kind
+     * @param rootElement     local name of the root element
+     * @param namespace       namespace URI of the root element
+     * @param schemaLocation  the declared {@code xsi:schemaLocation} or {@code xsi:noNamespaceSchemaLocation}
+     * @param targetNamespace the {@code targetNamespace} of a schema
+     */
+    public record Entry(Path path, long size, long lastModified, FileKind kind, String rootElement,
+                        String namespace, String schemaLocation, String targetNamespace) {
+    }
+
+    /** Root element facts read from the first start tag of an XML document. */
+    public record RootInfo(String localName, String namespace, String schemaLocation, String targetNamespace) {
+    }
+
+    private final Path root;
+    private final Path catalogueFile;
+    private final ManagedExecutor executor;
+    private final boolean forcePolling;
+    private final long pollIntervalMillis;
+    private final List<Consumer<Set<Path>>> listeners = new CopyOnWriteArrayList<>();
+
+    // guarded by this
+    private final Map<Path, Entry> files = new HashMap<>();
+    private final Map<Path, Set<Path>> children = new HashMap<>();
+    private Map<Path, Entry> persisted = Map.of();
+
+    // touched by the serial executor only
+    private WatchService watcher;
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+    private boolean polling;
+
+    private volatile boolean ready;
+    private volatile boolean closed;
+    private volatile Future<?> pollTask;
+    private final CompletableFuture<Void> firstScan = new CompletableFuture<>();
+    private final CompletableFuture<Void> terminated = new CompletableFuture<>();
+
+    WorkspaceIndex(Path root, Path catalogueFile, boolean forcePolling, long pollIntervalMillis) {
+        this.root = root.toAbsolutePath().normalize();
+        this.catalogueFile = catalogueFile;
+        this.forcePolling = forcePolling;
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.executor = ThreadPoolManager.getInstance().newSerialExecutor(
+                "WorkspaceIndex-" + this.root.getFileName(), ThreadPoolManager.TaskCategory.IO);
+    }
+
+    /**
+     * Returns the index of {@code folder}, creating and starting it if none is open.
+     *
+     * @param folder the workspace folder
+     * @return the (possibly still scanning) index
+     */
+    public static WorkspaceIndex open(Path folder) {
+        Path normalized = folder.toAbsolutePath().normalize();
+        return openIndexes.computeIfAbsent(normalized, key -> {
+            WorkspaceIndex index = new WorkspaceIndex(key, defaultCatalogueFile(key),
+                    Boolean.getBoolean("fxt.workspace.index.poll"),
+                    TimeUnit.SECONDS.toMillis(POLL_INTERVAL_SECONDS));
+            index.start();
+            return index;
+        });
+    }
+
+    /**
+     * Returns a ready index whose root is {@code dir} or one of its ancestors, so its
+     * entries under {@code dir} describe the whole folder.
+     *
+     * @param dir the folder about to be walked
+     * @return the index, or empty if the caller has to read the disk
+     */
+    public static Optional<WorkspaceIndex> covering(Path dir) {
+        if (dir == null) {
+            return Optional.empty();
+        }
+        Path normalized = dir.toAbsolutePath().normalize();
+        return openIndexes.values().stream()
+                .filter(WorkspaceIndex::isReady)
+                .filter(index -> normalized.startsWith(index.root))
+                .findFirst();
+    }
+
+    /**
+     * Looks up the schema of a namespace among the XSDs of all open workspaces.
+     *
+     * @param targetNamespace the namespace of a document's root element
+     * @return the schema, or empty if no schema or more than one declares the namespace
+     */
+    public static Optional<Path> findSchemaForNamespace(String targetNamespace) {
+        if (targetNamespace == null || targetNamespace.isEmpty()) {
+            return Optional.empty();
+        }
+        List<Path> matches = openIndexes.values().stream()
+                .filter(WorkspaceIndex::isReady)
+                .flatMap(index -> index.schemasForNamespace(targetNamespace).stream())
+                .map(Entry::path)
+                .distinct()
+                .toList();
+        return matches.size() == 1 ? Optional.of(matches.getFirst()) : Optional.empty();
+    }
+
+    /** Closes every open index; called on application shutdown. */
+    public static void closeAll() {
+        List.copyOf(openIndexes.values()).forEach(WorkspaceIndex::close);
+    }
+
+    static Path defaultCatalogueFile(Path root) {
+        String name = root.getFileName() != null ? root.getFileName().toString() : "root";
+        String safe = name.replaceAll("[^A-Za-z0-9._-]", "_");
+        return Path.of(System.getProperty("user.home"), ".freeXmlToolkit", "workspace-index",
+                safe + "-" + Integer.toHexString(root.toString().hashCode()) + ".json");
+    }
+
+    /** @return the workspace folder */
+    public Path getRoot() {
+        return root;
+    }
+
+    /** @return whether the first walk has finished and queries reflect the disk */
+    public boolean isReady() {
+        return ready && !closed;
+    }
+
+    /** @return whether changes are picked up by re-walking instead of file-system events */
+    public boolean isPolling() {
+        return polling;
+    }
+
+    /** @return completes when the first walk has finished */
+    public CompletableFuture<Void> whenReady() {
+        return firstScan;
+    }
+
+    /**
+     * Registers a listener for changes. It receives the folders whose listing or
+     * files changed, on the index's background thread.
+     */
+    public void addListener(Consumer<Set<Path>> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<Set<Path>> listener) {
+        listeners.remove(listener);
+    }
+
+    /** @return the catalogued file, or empty if it is unknown or not a regular file */
+    public synchronized Optional<Entry> get(Path file) {
+        return Optional.ofNullable(files.get(file.toAbsolutePath().normalize()));
+    }
+
+    /** @return all files under {@code dir} (any depth), sorted by path */
+    public List<Entry> entriesUnder(Path dir) {
+        Path normalized = dir.toAbsolutePath().normalize();
+        List<Entry> result = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : files.values()) {
+                if (entry.path().startsWith(normalized)) {
+                    result.add(entry);
+                }
+            }
+        }
+        result.sort(Comparator.comparing(entry -> entry.path().toString()));
+        return result;
+    }
+
+    /** @return the schemas whose {@code targetNamespace} is {@code targetNamespace} */
+    public List<Entry> schemasForNamespace(String targetNamespace) {
+        List<Entry> result = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : files.values()) {
+                if (entry.kind() == FileKind.XSD && targetNamespace.equals(entry.targetNamespace())) {
+                    result.add(entry);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the files and folders directly in {@code dir}.
+     *
+     * @return the children, or {@code null} if the index does not know the folder
+     *         (not ready, outside the root or not a folder)
+     */
+    public synchronized List<Path> listChildren(Path dir) {
+        if (!isReady()) {
+            return null;
+        }
+        Set<Path> entries = children.get(dir.toAbsolutePath().normalize());
+        return entries != null ? List.copyOf(entries) : null;
+    }
+
+    /** @return whether the index knows {@code path} as a folder */
+    public synchronized boolean isDirectory(Path path) {
+        return children.containsKey(path.toAbsolutePath().normalize());
+    }
+
+    /** @return the number of catalogued files */
+    public synchronized int size() {
+        return files.size();
+    }
+
+    /**
+     * Re-walks the whole folder, e.g. on an explicit refresh; the walk only
+     * re-reads files whose size or modification time changed.
+     *
+     * @return completes when the walk has finished
+     */
+    public CompletableFuture<Void> rescan() {
+        return submit(() -> notifyListeners(scan(root)));
+    }
+
+    /** Stops watching and writes the catalogue; the index is no longer returned by {@link #covering}. */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        openIndexes.remove(root, this);
+        Future<?> poll = pollTask;
+        if (poll != null) {
+            poll.cancel(false);
+        }
+        try {
+            executor.execute(() -> {
+                closeWatcher();
+                persist(WriteBehindStore.DEFAULT_DELAY);
+                terminated.complete(null);
+            });
+        } catch (RejectedExecutionException e) {
+            terminated.complete(null);
+        }
+        executor.shutdown();
+        firstScan.cancel(false);
+    }
+
+    /** @return completes once a closed index has stopped watching and scheduled its last write */
+    CompletableFuture<Void> terminated() {
+        return terminated;
+    }
+
+    // --- scanning ----------------------------------------------------------
+
+    void start() {
+        submit(() -> {
+            loadCatalogue();
+            polling = forcePolling || isNetworkFileStore(root);
+            if (!polling) {
+                try {
+                    watcher = root.getFileSystem().newWatchService();
+                } catch (IOException | UnsupportedOperationException e) {
+                    logger.info("Cannot watch {}, polling instead: {}", root, e.getMessage());
+                    polling = true;
+                }
+            }
+            scan(root);
+            synchronized (this) {
+                persisted = Map.of(); // only needed to skip re-reading unchanged files once
+            }
+            ready = true;
+            firstScan.complete(null);
+            logger.debug("Indexed {} files under {} ({})", size(), root, polling ? "polling" : "watching");
+            persist(PERSIST_DELAY);
+            if (polling) {
+                schedulePoll();
+            } else {
+                scheduleWatchDrain();
+            }
+        }).exceptionally(error -> {
+            logger.warn("Indexing {} failed: {}", root, error.getMessage());
+            firstScan.completeExceptionally(error);
+            return null;
+        });
+    }
+
+    private CompletableFuture<Void> submit(Runnable task) {
+        try {
+            return CompletableFuture.runAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Walks {@code dir} and brings the catalogue below it up to date. Runs on the
+     * serial executor.
+     *
+     * @return the folders whose listing or files changed
+     */
+    private Set<Path> scan(Path dir) {
+        Map<Path, Entry> seenFiles = new HashMap<>();
+        Map<Path, Set<Path>> seenDirs = new HashMap<>();
+        try {
+            Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path d, BasicFileAttributes attrs) {
+                    if (closed) {
+                        return FileVisitResult.TERMINATE;
+                    }
+                    seenDirs.put(d, new HashSet<>());
+                    addToParent(seenDirs, d, dir);
+                    watch(d);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    BasicFileAttributes fileAttrs = regularFileAttributes(file, attrs);
+                    if (fileAttrs != null) {
+                        seenFiles.put(file, describe(file, fileAttrs));
+                        addToParent(seenDirs, file, dir);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE; // unreadable entry: leave it out
+                }
+            });
+        } catch (IOException e) {
+            logger.debug("Walking {} failed: {}", dir, e.getMessage());
+        }
+        if (closed) {
+            return Set.of(); // an aborted walk must not wipe the catalogue that is about to be saved
+        }
+        return apply(dir, seenFiles, seenDirs);
+    }
+
+    private static void addToParent(Map<Path, Set<Path>> dirs, Path path, Path scanRoot) {
+        if (!path.equals(scanRoot)) {
+            Set<Path> siblings = dirs.get(path.getParent());
+            if (siblings != null) {
+                siblings.add(path);
+            }
+        }
+    }
+
+    /** Replaces everything the index knows below {@code dir} with a fresh walk. */
+    private synchronized Set<Path> apply(Path dir, Map<Path, Entry> seenFiles, Map<Path, Set<Path>> seenDirs) {
+        Set<Path> changed = new HashSet<>();
+        files.entrySet().removeIf(e -> {
+            if (e.getKey().startsWith(dir) && !seenFiles.containsKey(e.getKey())) {
+                changed.add(e.getKey().getParent());
+                return true;
+            }
+            return false;
+        });
+        children.entrySet().removeIf(e -> {
+            if (e.getKey().startsWith(dir) && !seenDirs.containsKey(e.getKey())) {
+                changed.add(e.getKey().getParent());
+                return true;
+            }
+            return false;
+        });
+        seenFiles.forEach((path, entry) -> {
+            if (!entry.equals(files.put(path, entry))) {
+                changed.add(path.getParent());
+            }
+        });
+        seenDirs.forEach((path, listing) -> {
+            if (!listing.equals(children.put(path, listing))) {
+                changed.add(path);
+            }
+        });
+        Path parent = dir.getParent();
+        if (!dir.equals(root) && parent != null && children.containsKey(parent)) {
+            boolean exists = seenDirs.containsKey(dir) || seenFiles.containsKey(dir);
+            if (exists ? children.get(parent).add(dir) : children.get(parent).remove(dir)) {
+                changed.add(parent);
+            }
+        }
+        return changed;
+    }
+
+    /** Re-reads a single file after a watch event; returns the changed folders. */
+    private Set<Path> refreshFile(Path file) {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (IOException e) {
+            attrs = null;
+        }
+        if (attrs != null && attrs.isDirectory()) {
+            // a known folder reports its children's changes as events of their own
+            return isDirectory(file) ? Set.of() : scan(file);
+        }
+        BasicFileAttributes fileAttrs = attrs != null ? regularFileAttributes(file, attrs) : null;
+        Entry entry = fileAttrs != null ? describe(file, fileAttrs) : null;
+        Path parent = file.getParent();
+        synchronized (this) {
+            Set<Path> changed = new HashSet<>();
+            Set<Path> siblings = children.get(parent);
+            if (entry == null) {
+                boolean removedFile = files.remove(file) != null;
+                boolean removedChild = siblings != null && siblings.remove(file);
+                if (removedFile || removedChild) {
+                    changed.add(parent);
+                }
+                // a deleted folder: drop everything below it
+                if (children.remove(file) != null) {
+                    files.keySet().removeIf(p -> p.startsWith(file));
+                    children.keySet().removeIf(p -> p.startsWith(file));
+                    changed.add(parent);
+                }
+            } else {
+                if (!entry.equals(files.put(file, entry))) {
+                    changed.add(parent);
+                }
+                if (siblings != null && siblings.add(file)) {
+                    changed.add(parent);
+                }
+            }
+            return changed;
+        }
+    }
+
+    /**
+     * Returns the attributes of a regular file, following a symbolic link to one, or
+     * {@code null} for anything else. Linked folders are not followed, as with
+     * {@code Files.walk}, so a link cannot make the walk loop.
+     */
+    private static BasicFileAttributes regularFileAttributes(Path file, BasicFileAttributes attrs) {
+        if (attrs.isRegularFile()) {
+            return attrs;
+        }
+        if (!attrs.isSymbolicLink()) {
+            return null;
+        }
+        try {
+            BasicFileAttributes target = Files.readAttributes(file, BasicFileAttributes.class);
+            return target.isRegularFile() ? target : null;
+        } catch (IOException e) {
+            return null; // dangling link
+        }
+    }
+
+    /** Builds the entry of a file, reusing the known one when size and time are unchanged. */
+    private Entry describe(Path file, BasicFileAttributes attrs) {
+        long size = attrs.size();
+        long modified = attrs.lastModifiedTime().toMillis();
+        Entry known;
+        synchronized (this) {
+            known = files.get(file);
+            if (known == null) {
+                known = persisted.get(file);
+            }
+        }
+        if (known != null && known.size() == size && known.lastModified() == modified) {
+            return known;
+        }
+        FileKind kind = FileKind.fromFileName(file.getFileName().toString());
+        if (!kind.isXml()) {
+            return new Entry(file, size, modified, kind, null, null, null, null);
+        }
+        RootInfo info = null;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            info = readRoot(SecureXmlFactory.createSecureXMLInputFactory().createXMLStreamReader(in));
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            // not well-formed (or unreadable): catalogue it by name only
+        }
+        if (info == null) {
+            return new Entry(file, size, modified, kind, null, null, null, null);
+        }
+        return new Entry(file, size, modified, refine(kind, info), info.localName(), info.namespace(),
+                info.schemaLocation(), info.targetNamespace());
+    }
+
+    private static FileKind refine(FileKind byName, RootInfo info) {
+        String ns = info.namespace();
+        if (ns == null) {
+            return byName;
+        }
+        if (XSD_NS.equals(ns) && "schema".equals(info.localName())) {
+            return FileKind.XSD;
+        }
+        if (XSLT_NS.equals(ns)) {
+            return FileKind.XSLT;
+        }
+        if (SCHEMATRON_NS.contains(ns)) {
+            return FileKind.SCHEMATRON;
+        }
+        if (XPROC_NS.contains(ns)) {
+            return FileKind.XPROC;
+        }
+        return byName;
+    }
+
+    /**
+     * Reads the root element of an XML document held in memory, e.g. an editor buffer.
+     *
+     * @return the root element facts, or empty if the text is not well-formed up to the root tag
+     */
+    public static Optional<RootInfo> sniffRoot(String content) {
+        if (content == null || content.isBlank()) {
+            return Optional.empty();
+        }
+        try (Reader reader = new StringReader(content)) {
+            return Optional.ofNullable(readRoot(
+                    SecureXmlFactory.createSecureXMLInputFactory().createXMLStreamReader(reader)));
+        } catch (IOException | XMLStreamException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+
+    private static RootInfo readRoot(XMLStreamReader reader) throws XMLStreamException {
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    String ns = reader.getNamespaceURI();
+                    String location = reader.getAttributeValue(XSI_NS, "schemaLocation");
+                    if (location == null) {
+                        location = reader.getAttributeValue(XSI_NS, "noNamespaceSchemaLocation");
+                    }
+                    String targetNamespace = reader.getAttributeValue(null, "targetNamespace");
+                    return new RootInfo(reader.getLocalName(), ns == null || ns.isEmpty() ? null : ns,
+                            location != null ? location.trim() : null, targetNamespace);
+                }
+            }
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    // --- watching ----------------------------------------------------------
+
+    private void watch(Path dir) {
+        if (watcher == null || polling) {
+            return;
+        }
+        try {
+            WatchKey key = dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedDirs.put(key, dir);
+        } catch (NoSuchFileException e) {
+            // deleted while walking
+        } catch (IOException | UnsupportedOperationException e) {
+            // typically the watch limit: events would be incomplete from here on
+            logger.info("Cannot watch {} any more, polling instead: {}", root, e.getMessage());
+            closeWatcher();
+            polling = true;
+            if (ready) {
+                schedulePoll();
+            }
+        }
+    }
+
+    /**
+     * Drains the watch service every {@value #COALESCE_MILLIS} ms on the serial executor,
+     * so the events of that window are applied as one batch and no thread is parked in
+     * {@link WatchService#take()}.
+     */
+    private void scheduleWatchDrain() {
+        if (closed || polling) {
+            return;
+        }
+        try {
+            pollTask = executor.schedule(() -> {
+                drainWatchEvents();
+                scheduleWatchDrain();
+            }, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // closed meanwhile
+        }
+    }
+
+    private void drainWatchEvents() {
+        WatchService service = watcher;
+        if (closed || service == null) {
+            return;
+        }
+        Map<WatchKey, List<WatchEvent<?>>> events = new HashMap<>();
+        try {
+            for (WatchKey key = service.poll(); key != null; key = service.poll()) {
+                events.computeIfAbsent(key, k -> new ArrayList<>()).addAll(key.pollEvents());
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            return; // closed, or switched to polling
+        }
+        if (!events.isEmpty()) {
+            applyEvents(events);
+        }
+    }
+
+    private void applyEvents(Map<WatchKey, List<WatchEvent<?>>> events) {
+        if (closed) {
+            return;
+        }
+        Set<Path> changed = new HashSet<>();
+        Set<Path> touched = new HashSet<>();
+        boolean overflow = false;
+        for (Map.Entry<WatchKey, List<WatchEvent<?>>> entry : events.entrySet()) {
+            Path dir = watchedDirs.get(entry.getKey());
+            if (!entry.getKey().isValid()) {
+                watchedDirs.remove(entry.getKey());
+            }
+            if (dir == null) {
+                continue;
+            }
+            for (WatchEvent<?> event : entry.getValue()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    overflow = true;
+                } else if (event.context() instanceof Path name) {
+                    touched.add(dir.resolve(name));
+                }
+            }
+        }
+        if (overflow) {
+            changed.addAll(scan(root));
+        } else {
+            touched.forEach(path -> changed.addAll(refreshFile(path)));
+        }
+        notifyListeners(changed);
+    }
+
+    private void schedulePoll() {
+        if (closed) {
+            return;
+        }
+        try {
+            pollTask = executor.schedule(() -> {
+                notifyListeners(scan(root));
+                schedulePoll();
+            }, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // closed meanwhile
+        }
+    }
+
+    private void closeWatcher() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (IOException e) {
+                logger.debug("Closing the watch service failed: {}", e.getMessage());
+            }
+            watcher = null;
+            watchedDirs.clear();
+        }
+    }
+
+    private static boolean isNetworkFileStore(Path path) {
+        try {
+            String type = Files.getFileStore(path).type().toLowerCase(Locale.ROOT);
+            return NETWORK_FILE_STORES.contains(type);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void notifyListeners(Set<Path> changed) {
+        if (changed.isEmpty() || closed) {
+            return;
+        }
+        persist(PERSIST_DELAY);
+        Set<Path> view = Set.copyOf(changed);
+        for (Consumer<Set<Path>> listener : listeners) {
+            try {
+                listener.accept(view);
+            } catch (RuntimeException e) {
+                logger.warn("Workspace index listener failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    // --- persistence -------------------------------------------------------
+
+    private void persist(Duration delay) {
+        if (catalogueFile != null && ready) {
+            WriteBehindStore.getInstance().schedule(catalogueFile, this::serializeCatalogue, delay);
+        }
+    }
+
+    /** Serialises the catalogue: paths relative to the root, one array per file. */
+    byte[] serializeCatalogue() {
+        List<Entry> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(files.values());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + snapshot.size() * 96);
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+             JsonWriter json = new JsonWriter(writer)) {
+            json.setSerializeNulls(true);
+            json.beginObject();
+            json.name("version").value(CATALOGUE_VERSION);
+            json.name("root").value(root.toString());
+            json.name("files").beginArray();
+            for (Entry entry : snapshot) {
+                json.beginArray()
+                        .value(root.relativize(entry.path()).toString())
+                        .value(entry.size())
+                        .value(entry.lastModified())
+                        .value(entry.kind().name())
+                        .value(entry.rootElement())
+                        .value(entry.namespace())
+                        .value(entry.schemaLocation())
+                        .value(entry.targetNamespace())
+                        .endArray();
+            }
+            json.endArray();
+            json.endObject();
+        } catch (IOException e) {
+            throw new IllegalStateException("Serialising the workspace index failed", e);
+        }
+        return out.toByteArray();
+    }
+
+    /** Loads the persisted catalogue so unchanged files are not read again. */
+    private void loadCatalogue() {
+        if (catalogueFile == null || !Files.isRegularFile(catalogueFile)) {
+            return;
+        }
+        Map<Path, Entry> loaded = new HashMap<>();
+        try (JsonReader json = new JsonReader(Files.newBufferedReader(catalogueFile, StandardCharsets.UTF_8))) {
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "version" -> {
+                        if (json.nextInt() != CATALOGUE_VERSION) {
+                            return;
+                        }
+                    }
+                    case "root" -> {
+                        if (!root.toString().equals(json.nextString())) {
+                            return;
+                        }
+                    }
+                    case "files" -> {
+                        json.beginArray();
+                        while (json.hasNext()) {
+                            json.beginArray();
+                            Path path = root.resolve(json.nextString()).normalize();
+                            Entry entry = new Entry(path, json.nextLong(), json.nextLong(),
+                                    FileKind.valueOf(json.nextString()), nullableString(json),
+                                    nullableString(json), nullableString(json), nullableString(json));
+                            json.endArray();
+                            loaded.put(path, entry);
+                        }
+                        json.endArray();
+                    }
+                    default -> json.skipValue();
+                }
+            }
+            json.endObject();
+        } catch (IOException | RuntimeException e) {
+            logger.info("Ignoring unreadable workspace index {}: {}", catalogueFile, e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            persisted = loaded;
+        }
+    }
+
+    private static String nullableString(JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return null;
+        }
+        return json.nextString();
+    }
+}
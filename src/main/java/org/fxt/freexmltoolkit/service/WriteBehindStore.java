@@ -0,0 +1,247 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.common.utilities.AtomicFileWriter;
+
+/**
+ * Write-behind persistence for the application's settings and state files.
+ *
+ * <p>Stores such as {@link PropertiesServiceImpl}, {@link FavoritesService} and
+ * {@link UsageTrackingServiceImpl} hand their new file content to
+ * {@link #schedule(Path, Supplier, Duration)} instead of writing it themselves.
+ * The store keeps only the latest content per file, so a burst of changes
+ * results in a single write. A background thread flushes all pending files
+ * together once the earliest of them is due, which batches the writes of
+ * different stores.</p>
+ *
+ * <p>Every file is written atomically: the content goes to a temporary file in
+ * the same directory, which then replaces the target by a rename. A crash
+ * therefore leaves either the old or the new file, never a truncated one.</p>
+ *
+ * <p>{@link #flush()} writes everything pending on the calling thread and
+ * returns once it is on disk. {@link #shutdown()} flushes and stops the
+ * background thread; a JVM shutdown hook does the same if the application
+ * exits without calling it. Files scheduled after shutdown are written
+ * immediately.</p>
+ */
+public final class WriteBehindStore {
+
+    private static final Logger logger = LogManager.getLogger(WriteBehindStore.class);
+
+    /**
+     * Delay used by {@link #schedule(Path, Supplier)}.
+     */
+    public static final Duration DEFAULT_DELAY = Duration.ofMillis(500);
+
+    private static volatile WriteBehindStore instance;
+
+    private final ScheduledExecutorService writer;
+    private final Map<Path, Pending> pending = new LinkedHashMap<>();
+    private final Object ioLock = new Object();
+    private long nextFlushNanos = Long.MAX_VALUE;
+    private boolean closed;
+
+    private record Pending(Supplier<byte[]> content, long dueNanos) {
+    }
+
+    WriteBehindStore() {
+        this.writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "WriteBehindStore-Writer");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Returns the application-wide store.
+     *
+     * @return the singleton instance
+     */
+    public static WriteBehindStore getInstance() {
+        WriteBehindStore store = instance;
+        if (store == null) {
+            synchronized (WriteBehindStore.class) {
+                store = instance;
+                if (store == null) {
+                    store = new WriteBehindStore();
+                    Runtime.getRuntime().addShutdownHook(
+                            new Thread(store::shutdown, "WriteBehindStore-ShutdownFlush"));
+                    instance = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Schedules text content to be written to a file, encoded as UTF-8.
+     *
+     * @param file    the target file
+     * @param content the complete new file content
+     */
+    public void schedule(Path file, String content) {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        schedule(file, () -> bytes, DEFAULT_DELAY);
+    }
+
+    /**
+     * Schedules a file to be written after {@link #DEFAULT_DELAY}.
+     *
+     * @param file    the target file
+     * @param content supplies the complete new file content when the file is flushed
+     */
+    public void schedule(Path file, Supplier<byte[]> content) {
+        schedule(file, content, DEFAULT_DELAY);
+    }
+
+    /**
+     * Schedules a file to be written at the latest after {@code maxDelay}.
+     *
+     * <p>The supplier replaces any content still pending for the file and is called
+     * on the writer thread (or on the thread calling {@link #flush()}), so it must
+     * either capture an immutable snapshot or be safe to call from there. A file that
+     * is already pending keeps its earlier due time.</p>
+     *
+     * @param file     the target file
+     * @param content  supplies the complete new file content when the file is flushed
+     * @param maxDelay how long the write may be deferred
+     */
+    public void schedule(Path file, Supplier<byte[]> content, Duration maxDelay) {
+        Path target = file.toAbsolutePath();
+        long due = System.nanoTime() + maxDelay.toNanos();
+        boolean writeNow;
+        synchronized (this) {
+            writeNow = closed;
+            if (!writeNow) {
+                Pending previous = pending.get(target);
+                if (previous != null) {
+                    due = Math.min(due, previous.dueNanos());
+                }
+                pending.put(target, new Pending(content, due));
+                if (due < nextFlushNanos) {
+                    nextFlushNanos = due;
+                    long delay = Math.max(0, due - System.nanoTime());
+                    writer.schedule(this::flushIfDue, delay, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+        if (writeNow) {
+            synchronized (ioLock) {
+                write(target, content);
+            }
+        }
+    }
+
+    /**
+     * Checks whether a file has content waiting to be written.
+     *
+     * @param file the file
+     * @return true if a write is pending
+     */
+    public synchronized boolean isPending(Path file) {
+        return pending.containsKey(file.toAbsolutePath());
+    }
+
+    /**
+     * Writes all pending files on the calling thread. When this method returns,
+     * everything scheduled before the call is on disk (or has failed and was logged).
+     */
+    public void flush() {
+        synchronized (ioLock) {
+            writeAll(drain());
+        }
+    }
+
+    /**
+     * Flushes all pending files and stops the writer thread.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        flush();
+        writer.shutdownNow();
+        logger.debug("Write-behind store shut down");
+    }
+
+    /**
+     * Writes a file atomically through a temporary file in the same directory.
+     *
+     * @param file    the target file
+     * @param content the complete file content
+     * @throws IOException if the file cannot be written
+     * @see AtomicFileWriter#write(Path, byte[])
+     */
+    public static void writeAtomically(Path file, byte[] content) throws IOException {
+        AtomicFileWriter.write(file, content);
+    }
+
+    private void flushIfDue() {
+        synchronized (this) {
+            if (nextFlushNanos > System.nanoTime()) {
+                return; // superseded by an earlier flush
+            }
+        }
+        flush();
+    }
+
+    private synchronized List<Map.Entry<Path, Pending>> drain() {
+        List<Map.Entry<Path, Pending>> drained = new ArrayList<>(pending.entrySet());
+        pending.clear();
+        nextFlushNanos = Long.MAX_VALUE;
+        return drained;
+    }
+
+    private void writeAll(List<Map.Entry<Path, Pending>> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<Path, Pending> entry : entries) {
+            write(entry.getKey(), entry.getValue().content());
+        }
+        logger.debug("Flushed {} file(s)", entries.size());
+    }
+
+    private static void write(Path file, Supplier<byte[]> content) {
+        try {
+            writeAtomically(file, content.get());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Failed to write {}: {}", file, e.getMessage(), e);
+        }
+    }
+}
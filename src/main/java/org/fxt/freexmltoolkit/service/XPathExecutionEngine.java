@@ -7,8 +7,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.transform.dom.DOMSource;
@@ -62,23 +60,12 @@ public class XPathExecutionEngine {
     // Execution statistics
     private final Map<String, ExecutionStatistics> executionStats = new ConcurrentHashMap<>();
 
-    // Background execution
-    private final ExecutorService executorService;
-
     public XPathExecutionEngine() {
         // Initialize Saxon processor for XPath 3.1 support
         saxonProcessor = new Processor(false);
         xpathCompiler = saxonProcessor.newXPathCompiler();
         xqueryCompiler = saxonProcessor.newXQueryCompiler();
 
-        // Background executor
-        executorService = Executors.newCachedThreadPool(r -> {
-            Thread t = new Thread(r);
-            t.setName("XPath-Execution-Thread");
-            t.setDaemon(true);
-            return t;
-        });
-
         // Set up default namespaces
         setupDefaultNamespaces();
 
@@ -477,9 +464,6 @@ public class XPathExecutionEngine {
     // ========== Cleanup ==========
 
     public void shutdown() {
-        if (executorService != null && !executorService.isShutdown()) {
-            executorService.shutdown();
-        }
         clearCache();
         logger.debug("XPath Execution Engine shutdown");
     }
@@ -0,0 +1,268 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fxt.freexmltoolkit.domain.XsdDocumentationData;
+import org.fxt.freexmltoolkit.domain.XsdExtendedElement;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Computes stable content hashes for the inputs of every generated documentation page.
+ *
+ * <p>An element's <em>local</em> hash covers everything that is rendered from the element itself
+ * (name, type, XPath, source snippets, documentation, facets, app-infos, cardinality). Its
+ * <em>page</em> hash additionally folds in the local hashes of all descendants (the diagram and
+ * child table render the whole subtree) and the names of all ancestors (the breadcrumbs), so a page
+ * is re-rendered whenever anything it transitively depends on changes.</p>
+ *
+ * <p>The randomly generated sample data is deliberately excluded: it differs between runs without
+ * any schema change, and fixed/default values are already covered by the source snippet.</p>
+ *
+ * <p>Instances are per documentation run and thread-safe; subtree hashes are memoized so hashing a
+ * whole schema stays linear in the number of elements.</p>
+ */
+public class XsdDocumentationContentHasher {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final XsdDocumentationData data;
+    private final Map<String, String> localHashes = new ConcurrentHashMap<>();
+    private final Map<String, String> subtreeHashes = new ConcurrentHashMap<>();
+
+    public XsdDocumentationContentHasher(XsdDocumentationData data) {
+        this.data = Objects.requireNonNull(data, "data");
+    }
+
+    /**
+     * Returns the hash of all inputs of the element's detail page.
+     *
+     * @param element the element whose page is about to be rendered
+     * @return a hex encoded SHA-256 hash
+     */
+    public String elementPageHash(XsdExtendedElement element) {
+        Hasher hasher = new Hasher();
+        hasher.add("element-page");
+        hasher.add(subtreeHash(element));
+        String parentXpath = element.getParentXpath();
+        while (parentXpath != null) {
+            XsdExtendedElement parent = data.getExtendedXsdElementMap().get(parentXpath);
+            if (parent == null) {
+                break;
+            }
+            hasher.add(parent.getElementName());
+            hasher.add(parent.getCurrentXpath());
+            parentXpath = parent.getParentXpath();
+        }
+        hasher.add(data.getNameSpacesAsString());
+        return hasher.hex();
+    }
+
+    /**
+     * Returns the hash of all inputs of a global complex or simple type page: the type definition
+     * itself, every element that uses the type and the content of those elements.
+     *
+     * @param typeNode      the {@code xs:complexType} or {@code xs:simpleType} node
+     * @param usedIn        the elements using the type (from the type usage map)
+     * @param childElements the child elements rendered on the page (empty for simple types)
+     * @return a hex encoded SHA-256 hash
+     */
+    public String typePageHash(Node typeNode, Collection<XsdExtendedElement> usedIn,
+                               Collection<XsdExtendedElement> childElements) {
+        Hasher hasher = new Hasher();
+        hasher.add("type-page");
+        hasher.addNode(typeNode);
+        for (XsdExtendedElement element : usedIn) {
+            hasher.add(element.getElementName());
+            hasher.add(element.getCurrentXpath());
+        }
+        for (XsdExtendedElement child : childElements) {
+            hasher.add(localHash(child));
+        }
+        return hasher.hex();
+    }
+
+    /**
+     * Returns a hash over the whole schema. The aggregate pages (root page, type lists, data
+     * dictionary, search index, SVG overview) depend on essentially every element, so they are
+     * rebuilt whenever this hash changes.
+     *
+     * @return a hex encoded SHA-256 hash
+     */
+    public String aggregateHash() {
+        Hasher hasher = new Hasher();
+        hasher.add("aggregate");
+        hasher.add(data.getXsdFilePath());
+        hasher.add(data.getVersion());
+        hasher.add(data.getTargetNamespace());
+        hasher.add(data.getNameSpacesAsString());
+        hasher.add(data.getAttributeFormDefault());
+        hasher.add(data.getElementFormDefault());
+        data.getExtendedXsdElementMap().keySet().stream()
+                .sorted()
+                .forEach(xpath -> hasher.add(localHash(data.getExtendedXsdElementMap().get(xpath))));
+        for (Node node : data.getGlobalComplexTypes()) {
+            hasher.addNode(node);
+        }
+        for (Node node : data.getGlobalSimpleTypes()) {
+            hasher.addNode(node);
+        }
+        return hasher.hex();
+    }
+
+    /**
+     * Returns the hash of an element and, recursively, all of its descendants.
+     *
+     * @param element the element
+     * @return a hex encoded SHA-256 hash
+     */
+    public String subtreeHash(XsdExtendedElement element) {
+        String key = element.getCurrentXpath();
+        String cached = subtreeHashes.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Hasher hasher = new Hasher();
+        hasher.add(localHash(element));
+        if (element.getChildren() != null) {
+            for (String childXpath : element.getChildren()) {
+                XsdExtendedElement child = data.getExtendedXsdElementMap().get(childXpath);
+                // The XPath tree is acyclic: recursive types are cut off at a maximum depth.
+                hasher.add(child == null || child == element ? childXpath : subtreeHash(child));
+            }
+        }
+        String hash = hasher.hex();
+        subtreeHashes.put(key, hash);
+        return hash;
+    }
+
+    /**
+     * Returns the hash of everything rendered from the element itself, without its relatives.
+     *
+     * @param element the element
+     * @return a hex encoded SHA-256 hash
+     */
+    public String localHash(XsdExtendedElement element) {
+        return localHashes.computeIfAbsent(element.getCurrentXpath(), ignored -> {
+            Hasher hasher = new Hasher();
+            hasher.add(element.getElementName());
+            hasher.add(element.getElementType());
+            hasher.add(element.getCurrentXpath());
+            hasher.add(element.getParentXpath());
+            hasher.add(String.valueOf(element.getLevel()));
+            hasher.add(String.valueOf(element.isMandatory()));
+            hasher.add(element.getSourceCode());
+            hasher.add(element.getReferencedTypeName());
+            hasher.add(element.getReferencedTypeCode());
+            hasher.add(element.getSourceNamespace());
+            hasher.add(element.getListItemType());
+            addAll(hasher, element.getUnionMemberTypes());
+            for (XsdExtendedElement.DocumentationInfo doc : element.getDocumentations()) {
+                hasher.add(doc.lang());
+                hasher.add(doc.content());
+            }
+            hasher.add(element.getRestrictionInfo() == null ? null : element.getRestrictionInfo().toString());
+            addAll(hasher, element.getGenericAppInfos());
+            addAll(hasher, element.getExampleValues());
+            hasher.addAttributes(element.getCurrentNode());
+            hasher.addAttributes(element.getCardinalityNode());
+            return hasher.hex();
+        });
+    }
+
+    private static void addAll(Hasher hasher, List<String> values) {
+        if (values == null) {
+            hasher.add(null);
+            return;
+        }
+        for (String value : values) {
+            hasher.add(value);
+        }
+    }
+
+    /**
+     * Small wrapper around a SHA-256 digest that separates fields so that
+     * {@code ("ab", "c")} and {@code ("a", "bc")} hash differently.
+     */
+    private static final class Hasher {
+        private final MessageDigest digest;
+
+        Hasher() {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+
+        void add(String value) {
+            if (value == null) {
+                digest.update((byte) 0);
+            } else {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0x1F);
+        }
+
+        void addAttributes(Node node) {
+            if (node == null || node.getAttributes() == null) {
+                add(null);
+                return;
+            }
+            NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                Node attribute = attributes.item(i);
+                add(attribute.getNodeName());
+                add(attribute.getNodeValue());
+            }
+        }
+
+        void addNode(Node node) {
+            if (node == null) {
+                add(null);
+                return;
+            }
+            add(node.getNodeName());
+            if (node.getNodeType() == Node.TEXT_NODE || node.getNodeType() == Node.CDATA_SECTION_NODE) {
+                add(node.getNodeValue().strip());
+                return;
+            }
+            addAttributes(node);
+            for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+                if (child.getNodeType() != Node.COMMENT_NODE) {
+                    addNode(child);
+                }
+            }
+        }
+
+        String hex() {
+            return HEX.formatHex(digest.digest());
+        }
+    }
+}
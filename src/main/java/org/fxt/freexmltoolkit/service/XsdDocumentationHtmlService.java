@@ -39,7 +39,6 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -90,6 +89,12 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
     private ExecutorService excelExecutor;
     private Future<?> excelExportFuture;
 
+    // Incremental builds: the manifest being written by this run and the one left behind by the
+    // previous run (null for a full build). Both are null when incremental mode is off.
+    private XsdDocumentationManifest currentManifest;
+    private XsdDocumentationManifest previousManifest;
+    private XsdDocumentationContentHasher contentHasher;
+
     public XsdDocumentationHtmlService() {
         resolver = new ClassLoaderTemplateResolver();
         resolver.setTemplateMode(TemplateMode.HTML);
@@ -113,6 +118,79 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
         this.xsdDocumentationData = xsdDocumentationData;
     }
 
+    /**
+     * Enables or disables incremental page generation for the next run.
+     *
+     * @param previous the manifest of the previous run, or {@code null} to render every page
+     * @param current  the manifest to record page hashes into, or {@code null} to disable incremental mode
+     * @param hasher   computes the page input hashes; required when {@code current} is set
+     */
+    void setIncrementalBuild(XsdDocumentationManifest previous, XsdDocumentationManifest current,
+                             XsdDocumentationContentHasher hasher) {
+        this.previousManifest = current == null ? null : previous;
+        this.currentManifest = current;
+        this.contentHasher = hasher;
+    }
+
+    /**
+     * Returns whether the aggregate pages (root page, type lists, data dictionary, search index)
+     * from the previous run can be kept, i.e. the schema-wide hash is unchanged and the files still
+     * exist. Always {@code false} outside incremental mode.
+     */
+    boolean isAggregateUpToDate() {
+        if (currentManifest == null || previousManifest == null
+                || !Objects.equals(previousManifest.getAggregateHash(), currentManifest.getAggregateHash())) {
+            return false;
+        }
+        return java.util.stream.Stream.of("index.html", "complexTypes.html", "simpleTypes.html",
+                        "dataDictionary.html", "search_index.json")
+                .allMatch(name -> Files.exists(outputDirectory.toPath().resolve(name)));
+    }
+
+    /**
+     * Records the page in the current manifest and decides whether it has to be rendered.
+     * Outside incremental mode every page is rendered.
+     *
+     * @param relativePath the page path relative to the output directory
+     * @param hash         supplies the hash of the page inputs (only evaluated in incremental mode)
+     * @return {@code true} if the page must be (re-)rendered
+     */
+    private boolean shouldRenderPage(String relativePath, java.util.function.Supplier<String> hash) {
+        if (currentManifest == null) {
+            return true;
+        }
+        return currentManifest.recordPage(previousManifest, relativePath, hash.get(),
+                outputDirectory.toPath().resolve(relativePath));
+    }
+
+    /**
+     * Deletes pages (and their PNG/JPG diagrams) that were generated by the previous run but whose
+     * element or type no longer exists.
+     *
+     * @return the number of removed pages
+     */
+    int removeStalePages() {
+        if (currentManifest == null || previousManifest == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (String relativePath : previousManifest.stalePages(currentManifest)) {
+            try {
+                Path page = outputDirectory.toPath().resolve(relativePath);
+                if (Files.deleteIfExists(page)) {
+                    removed++;
+                }
+                String assetBase = ASSETS_PATH + "/" + page.getFileName().toString().replace(".html", "");
+                Files.deleteIfExists(outputDirectory.toPath().resolve(assetBase + ".png"));
+                Files.deleteIfExists(outputDirectory.toPath().resolve(assetBase + ".jpg"));
+            } catch (IOException e) {
+                logger.warn("Could not remove stale documentation page '{}': {}", relativePath, e.getMessage());
+            }
+        }
+        logger.debug("Removed {} stale documentation pages", removed);
+        return removed;
+    }
+
     // Language configuration for filtering documentation output
     private Set<String> includedLanguages = null;
 
@@ -450,11 +528,7 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
 
     void generateComplexTypePagesInParallel() {
         logger.debug("Generating Complex Type Pages in parallel...");
-        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            for (final var complexTypeNode : xsdDocumentationData.getGlobalComplexTypes()) {
-                executor.submit(() -> generateSingleComplexTypePage(complexTypeNode));
-            }
-        }
+        DocumentationTaskGraph.forEachParallel(xsdDocumentationData.getGlobalComplexTypes(), this::generateSingleComplexTypePage);
     }
 
     private void generateSingleComplexTypePage(Node complexTypeNode) {
@@ -490,6 +564,11 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
             context.setVariable("childElements", childElements);
             addFaviconToContext(context);
 
+            if (!shouldRenderPage("complexTypes/" + complexTypeName + ".html",
+                    () -> contentHasher.typePageHash(complexTypeNode, usedInElements, childElements))) {
+                return;
+            }
+
             final var result = templateEngine.process("complexTypes/templateComplexType", context);
             final var outputFilePath = Paths.get(outputDirectory.getPath(), "complexTypes", complexTypeName + ".html");
 
@@ -510,11 +589,7 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
 
     void generateSimpleTypePagesInParallel() {
         logger.debug("Generating Simple Type Pages in parallel...");
-        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            for (final var simpleTypeNode : xsdDocumentationData.getGlobalSimpleTypes()) {
-                executor.submit(() -> generateSingleSimpleTypePage(simpleTypeNode));
-            }
-        }
+        DocumentationTaskGraph.forEachParallel(xsdDocumentationData.getGlobalSimpleTypes(), this::generateSingleSimpleTypePage);
     }
 
     private void generateSingleSimpleTypePage(Node simpleTypeNode) {
@@ -534,6 +609,11 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
             context.setVariable("usedInElements", usedInElements);
             addFaviconToContext(context);
 
+            if (!shouldRenderPage("simpleTypes/" + typeName + ".html",
+                    () -> contentHasher.typePageHash(simpleTypeNode, usedInElements, List.of()))) {
+                return;
+            }
+
             final var result = templateEngine.process("simpleTypes/templateSimpleType", context);
             final var outputFilePath = Paths.get(outputDirectory.getPath(), "simpleTypes", typeName + ".html");
 
@@ -555,9 +635,10 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
 
     public void generateDetailsPagesInParallel() {
         logger.debug("Generating detail pages for all elements (in parallel)...");
-        xsdDocumentationData.getExtendedXsdElementMap().values().parallelStream()
+        List<XsdExtendedElement> elements = xsdDocumentationData.getExtendedXsdElementMap().values().stream()
                 .filter(this::isNotContainerElement)
-                .forEach(this::generateDetailPage);
+                .toList();
+        DocumentationTaskGraph.forEachParallel(elements, this::generateDetailPage);
         logger.debug("Finished generating detail pages (in parallel).");
     }
 
@@ -580,6 +661,9 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
     }
 
     private void generateDetailPage(XsdExtendedElement element) {
+        if (!shouldRenderPage("details/" + element.getPageName(), () -> contentHasher.elementPageHash(element))) {
+            return;
+        }
         try {
             final Context context = new Context();
             context.setVariable("this", this); // Important so that this.* works in the template
@@ -762,11 +846,8 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
         // faster) HTML rendering instead of blocking it. It is awaited later via
         // awaitDataDictionaryExcel(). The shared lookup caches it touches are thread-safe.
         String excelFileName = "dataDictionary.xlsx";
-        excelExecutor = Executors.newSingleThreadExecutor(r -> {
-            Thread t = new Thread(r, "data-dictionary-excel");
-            t.setDaemon(true);
-            return t;
-        });
+        excelExecutor = ThreadPoolManager.getInstance().newSerialExecutor(
+                "data-dictionary-excel", ThreadPoolManager.TaskCategory.CPU);
         excelExportFuture = excelExecutor.submit(() -> generateDataDictionaryExcel(allElements, excelFileName));
 
         // Pre-compute everything the template needs (clean XPath, per-language documentation and
@@ -931,8 +1012,8 @@ public class XsdDocumentationHtmlService implements org.fxt.freexmltoolkit.servi
     // ... [copyResources, deleteDirectory, etc. remain the same] ...
     void copyResources() {
         try {
-            // Use a more robust deletion method
-            if (outputDirectory.exists()) {
+            // Use a more robust deletion method. Incremental builds keep the pages of the previous run.
+            if (outputDirectory.exists() && previousManifest == null) {
                 deleteDirectory(outputDirectory);
             }
 
@@ -23,13 +23,16 @@ import java.awt.Font;
 import java.awt.RenderingHints;
 import java.awt.font.FontRenderContext;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.StringWriter;
 import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -163,6 +166,8 @@ public class XsdDocumentationImageService {
 
     Map<String, XsdExtendedElement> extendedXsdElements;
 
+    private final DiagramAssetCache assetCache;
+
     /**
      * Flag to control whether documentation is displayed in the SVG diagram.
      * When true (default), documentation from the root element is shown below the element box.
@@ -193,7 +198,18 @@ public class XsdDocumentationImageService {
      * @param extendedXsdElements the extended XSD elements
      */
     public XsdDocumentationImageService(Map<String, XsdExtendedElement> extendedXsdElements) {
+        this(extendedXsdElements, DiagramAssetCache.getInstance());
+    }
+
+    /**
+     * Constructs a new XsdDocumentationImageService that rasterises through the given cache.
+     *
+     * @param extendedXsdElements the extended XSD elements
+     * @param assetCache          the diagram cache
+     */
+    XsdDocumentationImageService(Map<String, XsdExtendedElement> extendedXsdElements, DiagramAssetCache assetCache) {
         this.extendedXsdElements = extendedXsdElements;
+        this.assetCache = assetCache;
 
         // Modern font with better readability
         font = new Font("Inter", Font.PLAIN, 14);
@@ -206,107 +222,127 @@ public class XsdDocumentationImageService {
     /**
      * Generates a PNG image directly from the DOM representation of the XSD element.
      * This version is more efficient and avoids serialization warnings by passing the
-     * DOM document directly to the transcoder.
+     * DOM document directly to the transcoder. Structurally identical diagrams are rasterised
+     * only once, see {@link DiagramAssetCache}.
      *
      * @param rootElement
      * @param file        the file to save the generated image (should have a .png extension)
      * @return the file path of the generated image, or null on failure
      */
     public String generateImage(XsdExtendedElement rootElement, File file) {
-        try {
-            // Check for null element first
-            if (rootElement == null) {
-                logger.warn("Root element is null. Cannot generate image.");
-                return null;
-            }
-
-            // 1. Generate SVG DOM document as before
-            Document svgDocument = generateSvgDocument(rootElement);
-            if (svgDocument.getDocumentElement() == null || !svgDocument.getDocumentElement().hasChildNodes()) {
-                logger.warn("Generated SVG for {} is empty, skipping image creation.", rootElement.getCurrentXpath());
-                return null;
-            }
-
-            // 2. Optimize SVG for PNG rendering (remove CSS styles, disable interactive elements)
-            Document pngOptimizedSvg = optimizeSvgForPngRendering(svgDocument);
-
-            // 3. Get thread-local PNG transcoder (reused for performance)
-            PNGTranscoder transcoder = pngTranscoderThreadLocal.get();
-
-            // 4. Create input for transcoder directly from optimized DOM document
-            TranscoderInput input = new TranscoderInput(pngOptimizedSvg);
-
-            // 5. Safely manage resources with try-with-resources
-            // Use BufferedOutputStream for better I/O performance
-            try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file), 65536)) {
-                TranscoderOutput output = new TranscoderOutput(outputStream);
-
-                // 6. Perform conversion
-                transcoder.transcode(input, output);
-            }
-
-            logger.debug("Successfully created PNG image: {}", file.getAbsolutePath());
-            return file.getAbsolutePath();
-
-        } catch (IOException | TranscoderException e) {
-            logger.error("Failed to generate image for file '{}'", file.getAbsolutePath(), e);
-        }
-
-        return null;
+        return writeRasterImage(rootElement, file, DiagramAssetCache.Format.PNG);
     }
 
     /**
      * Generates a JPG image directly from the DOM representation of the XSD element.
      * This version is more efficient and avoids serialization warnings by passing the
-     * DOM document directly to the transcoder.
+     * DOM document directly to the transcoder. Structurally identical diagrams are rasterised
+     * only once, see {@link DiagramAssetCache}.
      *
      * @param rootElement the root XSD element to generate the diagram from
      * @param file        the file to save the generated image (should have a .jpg extension)
      * @return the file path of the generated image, or null on failure
      */
     public String generateJpegImage(XsdExtendedElement rootElement, File file) {
+        return writeRasterImage(rootElement, file, DiagramAssetCache.Format.JPG);
+    }
+
+    /**
+     * Returns the cached raster image of the element's diagram, rendering it on a cache miss.
+     * Exporters can reference the returned file instead of writing their own copy.
+     *
+     * @param rootElement the root XSD element to generate the diagram from
+     * @param format      the raster format
+     * @return the path of the cached image, or null if the diagram is empty or rendering failed
+     */
+    public Path getImageAsset(XsdExtendedElement rootElement, DiagramAssetCache.Format format) {
+        if (rootElement == null) {
+            logger.warn("Root element is null. Cannot generate image.");
+            return null;
+        }
+        Document svgDocument = generateSvgDocument(rootElement);
+        if (svgDocument.getDocumentElement() == null || !svgDocument.getDocumentElement().hasChildNodes()) {
+            logger.warn("Generated SVG for {} is empty, skipping image creation.", rootElement.getCurrentXpath());
+            return null;
+        }
+        try {
+            return assetCache.getOrRenderFile(DiagramAssetCache.key(svgDocument, format), format,
+                    () -> transcode(svgDocument, format));
+        } catch (Exception e) {
+            logger.error("Failed to generate {} image for '{}'", format, rootElement.getCurrentXpath(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Rasterises the diagrams of the given elements in parallel so that later calls to
+     * {@link #generateImage}, {@link #generateJpegImage} or {@link #getImageAsset} are served from
+     * the cache. Each worker thread uses its own Batik transcoder; every distinct diagram shape is
+     * rendered once.
+     *
+     * @param elements the elements whose diagrams will be needed
+     * @param format   the raster format
+     */
+    public void prerenderImages(Collection<XsdExtendedElement> elements, DiagramAssetCache.Format format) {
+        long start = System.currentTimeMillis();
+        DocumentationTaskGraph.forEachParallel(elements, element -> getImageAsset(element, format));
+        DiagramAssetCache.Stats stats = assetCache.getStats();
+        logger.debug("Pre-rendered {} {} diagrams in {} ms (cache: {} memory hits, {} disk hits, {} renders)",
+                elements.size(), format, System.currentTimeMillis() - start,
+                stats.memoryHits(), stats.diskHits(), stats.renders());
+    }
+
+    private String writeRasterImage(XsdExtendedElement rootElement, File file, DiagramAssetCache.Format format) {
         try {
             // Check for null element first
             if (rootElement == null) {
-                logger.warn("Root element is null. Cannot generate JPEG image.");
+                logger.warn("Root element is null. Cannot generate {} image.", format);
                 return null;
             }
 
-            // 1. Generate SVG DOM document as before
+            // 1. Generate SVG DOM document; building the DOM is cheap compared to rasterising it
             Document svgDocument = generateSvgDocument(rootElement);
             if (svgDocument.getDocumentElement() == null || !svgDocument.getDocumentElement().hasChildNodes()) {
-                logger.warn("Generated SVG for {} is empty, skipping JPEG image creation.", rootElement.getCurrentXpath());
+                logger.warn("Generated SVG for {} is empty, skipping {} image creation.", rootElement.getCurrentXpath(), format);
                 return null;
             }
 
-            // 2. Optimize SVG for raster rendering (remove CSS styles, disable interactive elements)
-            Document optimizedSvg = optimizeSvgForPngRendering(svgDocument);
-
-            // 3. Get thread-local JPEG transcoder (reused for performance)
-            JPEGTranscoder transcoder = jpegTranscoderThreadLocal.get();
+            // 2. Rasterise once per distinct diagram shape
+            byte[] image = assetCache.getOrRender(DiagramAssetCache.key(svgDocument, format), format,
+                    () -> transcode(svgDocument, format));
 
-            // 4. Create input for transcoder directly from optimized DOM document
-            TranscoderInput input = new TranscoderInput(optimizedSvg);
-
-            // 5. Safely manage resources with try-with-resources
-            // Use BufferedOutputStream for better I/O performance
+            // 3. Write the image; use a buffered stream for better I/O performance
             try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(file), 65536)) {
-                TranscoderOutput output = new TranscoderOutput(outputStream);
-
-                // 6. Perform conversion
-                transcoder.transcode(input, output);
+                outputStream.write(image);
             }
 
-            logger.debug("Successfully created JPEG image: {}", file.getAbsolutePath());
+            logger.debug("Successfully created {} image: {}", format, file.getAbsolutePath());
             return file.getAbsolutePath();
 
-        } catch (IOException | TranscoderException e) {
-            logger.error("Failed to generate JPEG image for file '{}'", file.getAbsolutePath(), e);
+        } catch (Exception e) {
+            logger.error("Failed to generate {} image for file '{}'", format, file.getAbsolutePath(), e);
         }
 
         return null;
     }
 
+    /**
+     * Rasterises an SVG document with the calling thread's transcoder.
+     */
+    private byte[] transcode(Document svgDocument, DiagramAssetCache.Format format) throws TranscoderException {
+        // Optimize SVG for raster rendering (remove CSS styles, disable interactive elements)
+        Document optimizedSvg = optimizeSvgForPngRendering(svgDocument);
+
+        // Thread-local transcoders are reused for performance
+        var transcoder = format == DiagramAssetCache.Format.PNG
+                ? pngTranscoderThreadLocal.get()
+                : jpegTranscoderThreadLocal.get();
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(32 * 1024);
+        transcoder.transcode(new TranscoderInput(optimizedSvg), new TranscoderOutput(outputStream));
+        return outputStream.toByteArray();
+    }
+
     /**
      * Generates an SVG string representation of the XSD element.
      *
@@ -0,0 +1,266 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.fxt.freexmltoolkit.controls.v2.common.utilities.AtomicFileWriter;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+/**
+ * Build manifest for incremental HTML documentation generation.
+ *
+ * <p>The manifest records a content hash per generated page (relative path → hash, see
+ * {@link XsdDocumentationContentHasher}) together with a fingerprint of the generation options. It
+ * is persisted as {@value #MANIFEST_FILE_NAME} in the output directory. On the next run a page is
+ * only re-rendered when its hash differs from the previous manifest or the file is missing; pages
+ * of elements/types that no longer exist are deleted.</p>
+ *
+ * <p>The manifest also carries a summary of the last build (rendered/skipped/removed page counts
+ * and per-phase timings) so CI jobs can track documentation build times.</p>
+ */
+public class XsdDocumentationManifest {
+
+    /**
+     * File name of the manifest inside the documentation output directory.
+     */
+    public static final String MANIFEST_FILE_NAME = "doc-manifest.json";
+
+    /**
+     * Bumped whenever the hashing scheme or the page templates change incompatibly,
+     * which forces a full rebuild.
+     */
+    static final int FORMAT_VERSION = 1;
+
+    private static final Logger logger = LogManager.getLogger(XsdDocumentationManifest.class);
+    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+
+    private int formatVersion = FORMAT_VERSION;
+    private String configFingerprint;
+    private String aggregateHash;
+    private Map<String, String> pages = new ConcurrentHashMap<>();
+    private BuildSummary lastBuild;
+
+    /**
+     * Summary of a single documentation build, written for CI consumption.
+     *
+     * @param incremental    whether a previous manifest was reused
+     * @param renderedPages  number of pages that were (re-)rendered
+     * @param skippedPages   number of pages whose inputs were unchanged
+     * @param removedPages   number of stale pages that were deleted
+     * @param totalMillis    wall time of the whole build
+     * @param phaseMillis    wall time per phase, in completion order
+     * @param phaseCpuMillis CPU time per phase, including the phase's parallel fan-out
+     * @param criticalPath   the chain of dependent phases that bounded the total run time
+     */
+    public record BuildSummary(boolean incremental, int renderedPages, int skippedPages, int removedPages,
+                               long totalMillis, Map<String, Long> phaseMillis, Map<String, Long> phaseCpuMillis,
+                               List<String> criticalPath) {
+    }
+
+    // Counters of the run in progress; not persisted.
+    private final transient AtomicInteger rendered = new AtomicInteger();
+    private final transient AtomicInteger skipped = new AtomicInteger();
+
+    /**
+     * Default constructor for Gson deserialization.
+     */
+    public XsdDocumentationManifest() {
+    }
+
+    /**
+     * Creates an empty manifest for a run with the given option fingerprint.
+     *
+     * @param configFingerprint fingerprint of all options affecting page content
+     */
+    public XsdDocumentationManifest(String configFingerprint) {
+        this.configFingerprint = configFingerprint;
+    }
+
+    /**
+     * Returns whether the output directory holds the manifest of a previous incremental run.
+     *
+     * @param outputDirectory the documentation output directory
+     * @return {@code true} if {@value #MANIFEST_FILE_NAME} exists there
+     */
+    public static boolean exists(Path outputDirectory) {
+        return Files.isRegularFile(outputDirectory.resolve(MANIFEST_FILE_NAME));
+    }
+
+    /**
+     * Loads the manifest of a previous run from the output directory.
+     *
+     * @param outputDirectory the documentation output directory
+     * @return the previous manifest, or {@code null} if none exists or it cannot be read
+     */
+    public static XsdDocumentationManifest load(Path outputDirectory) {
+        Path file = outputDirectory.resolve(MANIFEST_FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            XsdDocumentationManifest manifest = gson.fromJson(reader, XsdDocumentationManifest.class);
+            if (manifest == null || manifest.formatVersion != FORMAT_VERSION) {
+                logger.info("Ignoring documentation manifest with unsupported format: {}", file);
+                return null;
+            }
+            manifest.pages = manifest.pages == null
+                    ? new ConcurrentHashMap<>()
+                    : new ConcurrentHashMap<>(manifest.pages);
+            return manifest;
+        } catch (IOException | JsonParseException e) {
+            logger.warn("Could not read documentation manifest {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the manifest atomically (temp file + rename) into the output directory; an
+     * identical manifest is left untouched.
+     *
+     * @param outputDirectory the documentation output directory
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path outputDirectory) throws IOException {
+        Path file = outputDirectory.resolve(MANIFEST_FILE_NAME);
+        // Sorted output keeps the manifest diff-friendly when it is archived as a CI artifact.
+        Map<String, String> sortedPages = new TreeMap<>(pages);
+        Map<String, String> live = pages;
+        pages = sortedPages;
+        try {
+            AtomicFileWriter.write(file, StandardCharsets.UTF_8, writer -> gson.toJson(this, writer), null);
+        } finally {
+            pages = live;
+        }
+    }
+
+    /**
+     * Returns whether this (previous) manifest can be used as the baseline for a run with the
+     * given option fingerprint.
+     *
+     * @param fingerprint the fingerprint of the current run
+     * @return {@code true} if the options are identical
+     */
+    public boolean isCompatibleWith(String fingerprint) {
+        return configFingerprint != null && configFingerprint.equals(fingerprint);
+    }
+
+    /**
+     * Records the hash of a page in this (current) manifest and decides whether it must be
+     * rendered, compared against the previous manifest.
+     *
+     * @param previous     the previous manifest, or {@code null} for a full build
+     * @param relativePath the page path relative to the output directory
+     * @param hash         the content hash of the page inputs
+     * @param outputFile   the page file, used to detect deleted output
+     * @return {@code true} if the page has to be rendered
+     */
+    public boolean recordPage(XsdDocumentationManifest previous, String relativePath, String hash, Path outputFile) {
+        pages.put(relativePath, hash);
+        boolean unchanged = previous != null
+                && hash.equals(previous.pages.get(relativePath))
+                && Files.exists(outputFile);
+        if (unchanged) {
+            skipped.incrementAndGet();
+        } else {
+            rendered.incrementAndGet();
+        }
+        return !unchanged;
+    }
+
+    /**
+     * Returns the pages of this (previous) manifest that are absent from the current one.
+     *
+     * @param current the manifest of the current run
+     * @return relative paths of pages that no longer exist
+     */
+    public Set<String> stalePages(XsdDocumentationManifest current) {
+        Set<String> stale = new java.util.TreeSet<>(pages.keySet());
+        stale.removeAll(current.pages.keySet());
+        return stale;
+    }
+
+    /**
+     * Creates the summary of the current run and stores it in this manifest.
+     *
+     * @param incremental  whether a previous manifest was reused
+     * @param removedPages number of deleted stale pages
+     * @param totalMillis  wall time of the run
+     * @param phaseMillis    wall time per phase
+     * @param phaseCpuMillis CPU time per phase
+     * @param criticalPath   the phases on the critical path
+     * @return the summary
+     */
+    public BuildSummary finishBuild(boolean incremental, int removedPages, long totalMillis, Map<String, Long> phaseMillis,
+                                    Map<String, Long> phaseCpuMillis, List<String> criticalPath) {
+        lastBuild = new BuildSummary(incremental, rendered.get(), skipped.get(), removedPages, totalMillis,
+                copyOf(phaseMillis), copyOf(phaseCpuMillis), List.copyOf(criticalPath));
+        return lastBuild;
+    }
+
+    private static Map<String, Long> copyOf(Map<String, Long> timings) {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    public String getConfigFingerprint() {
+        return configFingerprint;
+    }
+
+    public String getAggregateHash() {
+        return aggregateHash;
+    }
+
+    public void setAggregateHash(String aggregateHash) {
+        this.aggregateHash = aggregateHash;
+    }
+
+    public Map<String, String> getPages() {
+        return pages;
+    }
+
+    public BuildSummary getLastBuild() {
+        return lastBuild;
+    }
+
+    int getRenderedCount() {
+        return rendered.get();
+    }
+
+    int getSkippedCount() {
+        return skipped.get();
+    }
+}
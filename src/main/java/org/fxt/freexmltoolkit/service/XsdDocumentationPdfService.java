@@ -31,19 +31,19 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.Result;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamSource;
 
@@ -56,8 +56,6 @@ import org.apache.logging.log4j.Logger;
 import org.fxt.freexmltoolkit.domain.PdfDocumentationConfig;
 import org.fxt.freexmltoolkit.domain.XsdDocumentationData;
 import org.fxt.freexmltoolkit.domain.XsdExtendedElement;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 import org.w3c.dom.Node;
 
 /**
@@ -76,6 +74,12 @@ public class XsdDocumentationPdfService {
     private Set<String> includedLanguages;
     private TaskProgressListener progressListener;
     private PdfDocumentationConfig config = new PdfDocumentationConfig();
+    private final Map<String, Long> sectionMillis = new LinkedHashMap<>();
+
+    /**
+     * Number of entries written between two flushes of the intermediate XML.
+     */
+    private static final int FLUSH_INTERVAL = 500;
 
     // Cached FopFactory for performance
     private static final FopFactory fopFactory;
@@ -91,199 +95,222 @@ public class XsdDocumentationPdfService {
     /**
      * Generates a PDF document from the XSD documentation data.
      *
+     * <p>The intermediate XML is streamed to a temporary file and handed to the XSL-FO
+     * transformation from there; diagram images are referenced from the diagram asset cache and
+     * only loaded by FOP while the pages that show them are laid out.</p>
+     *
      * @param outputFile        the output .pdf file
      * @param documentationData the parsed XSD documentation data
      * @throws FOPServiceException if PDF generation fails
      */
-    // Temporary directory for storing generated images
-    private Path tempImageDir;
-
     public void generatePdfDocumentation(File outputFile, XsdDocumentationData documentationData)
             throws FOPServiceException {
         this.documentationData = documentationData;
+        sectionMillis.clear();
+        Path workDirectory = null;
 
         try {
-            // Create temp directory for images if element diagrams are enabled
-            if (config.isIncludeElementDiagrams() && imageService != null) {
-                tempImageDir = Files.createTempDirectory("xsd-pdf-images-");
-                reportProgress("Generating element diagrams");
-            }
+            workDirectory = Files.createTempDirectory("xsd-pdf-");
 
             reportProgress("Creating intermediate XML");
-            Document intermediateXml = createIntermediateXml();
+            Path intermediateXml = writeIntermediateXml(workDirectory);
 
             reportProgress("Loading XSL-FO template");
             Source xslSource = loadXslFoTemplate();
 
             reportProgress("Generating PDF");
-            transformToPdf(intermediateXml, xslSource, outputFile);
+            long start = System.currentTimeMillis();
+            transformToPdf(new StreamSource(intermediateXml.toFile()), xslSource, outputFile);
+            sectionMillis.put("Rendering", System.currentTimeMillis() - start);
 
-            logger.info("PDF documentation generated successfully: {}", outputFile.getAbsolutePath());
+            logger.info("PDF documentation generated successfully: {} (section timings: {})",
+                    outputFile.getAbsolutePath(), sectionMillis);
 
         } catch (Exception e) {
             logger.error("Failed to generate PDF documentation", e);
             throw new FOPServiceException("PDF generation failed: " + e.getMessage(), e);
         } finally {
-            // Cleanup temp images
-            cleanupTempImages();
+            // FOP caches decoded images in the shared factory; they are not needed after the run
+            fopFactory.getImageManager().getCache().clearCache();
+            deleteWorkDirectory(workDirectory);
         }
     }
 
     /**
-     * Cleans up temporary image files after PDF generation.
+     * Deletes the temporary working directory of a PDF run.
      */
-    private void cleanupTempImages() {
-        if (tempImageDir != null) {
-            try {
-                Files.walk(tempImageDir)
-                        .sorted(Comparator.reverseOrder()) // reverse order to delete files before dirs
-                        .forEach(path -> {
-                            try {
-                                Files.deleteIfExists(path);
-                            } catch (IOException e) {
-                                logger.debug("Could not delete temp file: {}", path);
-                            }
-                        });
-            } catch (IOException e) {
-                logger.warn("Could not cleanup temp image directory: {}", e.getMessage());
-            }
+    private void deleteWorkDirectory(Path workDirectory) {
+        if (workDirectory == null) {
+            return;
+        }
+        try (var paths = Files.walk(workDirectory)) {
+            paths.sorted(Comparator.reverseOrder()) // reverse order to delete files before dirs
+                    .forEach(path -> {
+                        try {
+                            Files.deleteIfExists(path);
+                        } catch (IOException e) {
+                            logger.debug("Could not delete temp file: {}", path);
+                        }
+                    });
+        } catch (IOException e) {
+            logger.warn("Could not cleanup temp directory: {}", e.getMessage());
         }
     }
 
     /**
-     * Creates an intermediate XML document from the XSD documentation data.
+     * Writes the intermediate XML document for the XSD documentation data to a file.
      * This XML structure is designed to be transformed by the XSL-FO template.
+     *
+     * <p>The document is streamed section by section with StAX instead of being built as a DOM, so
+     * its size does not add to the heap. Diagrams are referenced by the location of their cached
+     * image file, see {@link DiagramAssetCache}.</p>
      */
-    private Document createIntermediateXml() throws ParserConfigurationException {
-        DocumentBuilderFactory factory = org.fxt.freexmltoolkit.util.SecureXmlFactory.createSecureDocumentBuilderFactory();
-        factory.setNamespaceAware(true);
-        DocumentBuilder builder = factory.newDocumentBuilder();
-        Document doc = builder.newDocument();
+    private Path writeIntermediateXml(Path directory) throws IOException, XMLStreamException {
+        Path file = directory.resolve("intermediate.xml");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 65536)) {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+
+            // Root element
+            writer.writeStartElement("xsd-documentation");
+
+            timeSection("Metadata", () -> writeMetadata(writer));
+            timeSection("Namespaces", () -> writeNamespaceOverview(writer));
+            if (config.isIncludeSchemaDiagram() && imageService != null) {
+                timeSection("Schema diagram", () -> writeSchemaDiagram(writer));
+            }
+            timeSection("Types", () -> writeTypes(writer));
+            timeSection("Data dictionary", () -> writeDataDictionary(writer, out));
+            if (config.isIncludeElementDiagrams() && imageService != null) {
+                timeSection("Element diagrams", () -> writeElementDiagrams(writer, out));
+            }
+            timeSection("Index", () -> writeIndex(writer));
 
-        // Root element
-        Element root = doc.createElement("xsd-documentation");
-        doc.appendChild(root);
+            writer.writeEndElement();
+            writer.writeEndDocument();
+            writer.close();
+        }
+        return file;
+    }
 
+    private void writeMetadata(XMLStreamWriter writer) throws XMLStreamException {
         // Metadata section
-        Element metadata = doc.createElement("metadata");
-        root.appendChild(metadata);
-
-        addElement(doc, metadata, "schema-name", extractSchemaName());
-        addElement(doc, metadata, "file-path", documentationData.getXsdFilePath());
-        addElement(doc, metadata, "target-namespace",
+        writer.writeStartElement("metadata");
+        writeElement(writer, "schema-name", extractSchemaName());
+        writeElement(writer, "file-path", documentationData.getXsdFilePath());
+        writeElement(writer, "target-namespace",
                 documentationData.getTargetNamespace() != null ? documentationData.getTargetNamespace() : "");
-        addElement(doc, metadata, "version",
+        writeElement(writer, "version",
                 documentationData.getVersion() != null ? documentationData.getVersion() : "");
-        addElement(doc, metadata, "element-form-default",
+        writeElement(writer, "element-form-default",
                 documentationData.getElementFormDefault() != null ? documentationData.getElementFormDefault() : "unqualified");
-        addElement(doc, metadata, "attribute-form-default",
+        writeElement(writer, "attribute-form-default",
                 documentationData.getAttributeFormDefault() != null ? documentationData.getAttributeFormDefault() : "unqualified");
-        addElement(doc, metadata, "generation-date",
+        writeElement(writer, "generation-date",
                 LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
-        addElement(doc, metadata, "generator", "FreeXmlToolkit");
+        writeElement(writer, "generator", "FreeXmlToolkit");
+        writer.writeEndElement();
 
         // Statistics section
-        Element statistics = doc.createElement("statistics");
-        root.appendChild(statistics);
-
-        addElement(doc, statistics, "global-elements", String.valueOf(documentationData.getGlobalElements().size()));
-        addElement(doc, statistics, "global-complex-types", String.valueOf(documentationData.getGlobalComplexTypes().size()));
-        addElement(doc, statistics, "global-simple-types", String.valueOf(documentationData.getGlobalSimpleTypes().size()));
-        addElement(doc, statistics, "total-elements", String.valueOf(documentationData.getExtendedXsdElementMap().size()));
+        writer.writeStartElement("statistics");
+        writeElement(writer, "global-elements", String.valueOf(documentationData.getGlobalElements().size()));
+        writeElement(writer, "global-complex-types", String.valueOf(documentationData.getGlobalComplexTypes().size()));
+        writeElement(writer, "global-simple-types", String.valueOf(documentationData.getGlobalSimpleTypes().size()));
+        writeElement(writer, "total-elements", String.valueOf(documentationData.getExtendedXsdElementMap().size()));
+        writer.writeEndElement();
+    }
 
+    private void writeNamespaceOverview(XMLStreamWriter writer) throws XMLStreamException {
         // Namespace Overview section
-        Element namespaceOverview = doc.createElement("namespace-overview");
-        root.appendChild(namespaceOverview);
+        writer.writeStartElement("namespace-overview");
 
         // Add target namespace
         String targetNs = documentationData.getTargetNamespace();
         if (targetNs != null && !targetNs.isEmpty()) {
-            Element ns = doc.createElement("namespace");
-            namespaceOverview.appendChild(ns);
-            addElement(doc, ns, "prefix", "tns");
-            addElement(doc, ns, "uri", targetNs);
-            addElement(doc, ns, "description", "Target Namespace");
+            writer.writeStartElement("namespace");
+            writeElement(writer, "prefix", "tns");
+            writeElement(writer, "uri", targetNs);
+            writeElement(writer, "description", "Target Namespace");
+            writer.writeEndElement();
         }
 
         // Add XSD namespace
-        Element xsdNs = doc.createElement("namespace");
-        namespaceOverview.appendChild(xsdNs);
-        addElement(doc, xsdNs, "prefix", "xs/xsd");
-        addElement(doc, xsdNs, "uri", "http://www.w3.org/2001/XMLSchema");
-        addElement(doc, xsdNs, "description", "XML Schema Definition");
-
-        // Schema Diagram section (if configured)
-        if (config.isIncludeSchemaDiagram() && imageService != null && tempImageDir != null) {
-            Element schemaDiagramSection = doc.createElement("schema-diagram");
-            root.appendChild(schemaDiagramSection);
-
-            // Find root element (same logic as Word service)
-            var elementMap = documentationData.getExtendedXsdElementMap();
-            XsdExtendedElement rootElement = null;
-
-            for (var element : elementMap.values()) {
-                if (element.getLevel() == 0) {
-                    rootElement = element;
-                    break;
-                }
-            }
+        writer.writeStartElement("namespace");
+        writeElement(writer, "prefix", "xs/xsd");
+        writeElement(writer, "uri", "http://www.w3.org/2001/XMLSchema");
+        writeElement(writer, "description", "XML Schema Definition");
+        writer.writeEndElement();
+
+        writer.writeEndElement();
+    }
 
-            if (rootElement == null && !elementMap.isEmpty()) {
-                rootElement = elementMap.values().iterator().next();
+    private void writeSchemaDiagram(XMLStreamWriter writer) throws XMLStreamException {
+        // Schema Diagram section
+        writer.writeStartElement("schema-diagram");
+
+        // Find root element (same logic as Word service)
+        var elementMap = documentationData.getExtendedXsdElementMap();
+        XsdExtendedElement rootElement = null;
+
+        for (var element : elementMap.values()) {
+            if (element.getLevel() == 0) {
+                rootElement = element;
+                break;
             }
+        }
 
-            if (rootElement != null) {
-                try {
-                    // Generate PNG image
-                    Path imagePath = tempImageDir.resolve("schema-diagram.png");
-                    String generatedPath = imageService.generateImage(rootElement, imagePath.toFile());
+        if (rootElement == null && !elementMap.isEmpty()) {
+            rootElement = elementMap.values().iterator().next();
+        }
 
-                    if (generatedPath != null) {
-                        addElement(doc, schemaDiagramSection, "image-path", imagePath.toUri().toString());
-                        addElement(doc, schemaDiagramSection, "root-element", rootElement.getElementName());
-                        logger.info("Schema diagram generated for PDF document");
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to generate schema diagram: {}", e.getMessage());
-                }
+        if (rootElement != null) {
+            // Reference the cached PNG image instead of writing a copy
+            Path imagePath = imageService.getImageAsset(rootElement, DiagramAssetCache.Format.PNG);
+            if (imagePath != null) {
+                writeElement(writer, "image-path", imagePath.toUri().toString());
+                writeElement(writer, "root-element", rootElement.getElementName());
+                logger.info("Schema diagram generated for PDF document");
+            } else {
+                logger.warn("Failed to generate schema diagram for {}", rootElement.getElementName());
             }
         }
 
-        // ComplexTypes section
-        Element complexTypes = doc.createElement("complex-types");
-        root.appendChild(complexTypes);
+        writer.writeEndElement();
+    }
 
+    private void writeTypes(XMLStreamWriter writer) throws XMLStreamException {
+        // ComplexTypes section
+        writer.writeStartElement("complex-types");
         for (Node typeNode : documentationData.getGlobalComplexTypes()) {
             if (typeNode instanceof org.w3c.dom.Element typeElement) {
-                Element type = doc.createElement("complex-type");
-                complexTypes.appendChild(type);
-
+                writer.writeStartElement("complex-type");
                 String typeName = typeElement.getAttribute("name");
-                addElement(doc, type, "name", typeName);
-                addElement(doc, type, "base-type", getBaseType(typeElement));
-                addElement(doc, type, "usage-count", String.valueOf(getTypeUsageCount(typeName)));
+                writeElement(writer, "name", typeName);
+                writeElement(writer, "base-type", getBaseType(typeElement));
+                writeElement(writer, "usage-count", String.valueOf(getTypeUsageCount(typeName)));
+                writer.writeEndElement();
             }
         }
+        writer.writeEndElement();
 
         // SimpleTypes section
-        Element simpleTypes = doc.createElement("simple-types");
-        root.appendChild(simpleTypes);
-
+        writer.writeStartElement("simple-types");
         for (Node typeNode : documentationData.getGlobalSimpleTypes()) {
             if (typeNode instanceof org.w3c.dom.Element typeElement) {
-                Element type = doc.createElement("simple-type");
-                simpleTypes.appendChild(type);
-
+                writer.writeStartElement("simple-type");
                 String typeName = typeElement.getAttribute("name");
-                addElement(doc, type, "name", typeName);
-                addElement(doc, type, "base-type", getSimpleTypeBase(typeElement));
-                addElement(doc, type, "facets", getSimpleTypeFacetsSummary(typeElement));
+                writeElement(writer, "name", typeName);
+                writeElement(writer, "base-type", getSimpleTypeBase(typeElement));
+                writeElement(writer, "facets", getSimpleTypeFacetsSummary(typeElement));
+                writer.writeEndElement();
             }
         }
+        writer.writeEndElement();
+    }
 
+    private void writeDataDictionary(XMLStreamWriter writer, OutputStream out) throws XMLStreamException, IOException {
         // Data Dictionary section
-        Element dataDictionary = doc.createElement("data-dictionary");
-        root.appendChild(dataDictionary);
+        writer.writeStartElement("data-dictionary");
 
         Map<String, XsdExtendedElement> elementMap = documentationData.getExtendedXsdElementMap();
         List<XsdExtendedElement> sortedElements = new ArrayList<>(elementMap.values());
@@ -297,21 +324,23 @@ public class XsdDocumentationPdfService {
         int progressInterval = Math.max(1, totalElements / 10); // Report progress every 10%
         for (int i = 0; i < totalElements; i++) {
             XsdExtendedElement xsdElement = sortedElements.get(i);
-            Element entry = doc.createElement("element");
-            dataDictionary.appendChild(entry);
+            writer.writeStartElement("element");
 
             // Use clean XPath without container elements
-            addElement(doc, entry, "path", truncateString(getCleanXPath(xsdElement), 80));
-            addElement(doc, entry, "name", xsdElement.getElementName());
-            addElement(doc, entry, "type", xsdElement.getElementType() != null ? xsdElement.getElementType() : "-");
-            addElement(doc, entry, "cardinality", getCardinality(xsdElement));
-            addElement(doc, entry, "level", String.valueOf(xsdElement.getLevel()));
+            writeElement(writer, "path", truncateString(getCleanXPath(xsdElement), 80));
+            writeElement(writer, "name", xsdElement.getElementName());
+            writeElement(writer, "type", xsdElement.getElementType() != null ? xsdElement.getElementType() : "-");
+            writeElement(writer, "cardinality", getCardinality(xsdElement));
+            writeElement(writer, "level", String.valueOf(xsdElement.getLevel()));
 
             String restrictions = getRestrictionsSummary(xsdElement);
-            addElement(doc, entry, "restrictions", truncateString(restrictions, 50));
+            writeElement(writer, "restrictions", truncateString(restrictions, 50));
+
+            String description = getFirstDocumentation(xsdElement);
+            writeElement(writer, "description", truncateString(description, 100));
 
-            String doc1 = getFirstDocumentation(xsdElement);
-            addElement(doc, entry, "description", truncateString(doc1, 100));
+            writer.writeEndElement();
+            flushPeriodically(writer, out, i);
 
             // Report progress for large documents
             if (i > 0 && i % progressInterval == 0) {
@@ -319,62 +348,63 @@ public class XsdDocumentationPdfService {
             }
         }
 
+        writer.writeEndElement();
         logger.info("PDF data dictionary completed with {} elements", totalElements);
+    }
 
-        // Element Diagrams section (if configured)
-        if (config.isIncludeElementDiagrams() && imageService != null && tempImageDir != null) {
-            Element elementDiagrams = doc.createElement("element-diagrams");
-            root.appendChild(elementDiagrams);
+    private void writeElementDiagrams(XMLStreamWriter writer, OutputStream out) throws XMLStreamException, IOException {
+        // Element Diagrams section
+        writer.writeStartElement("element-diagrams");
 
-            // Filter elements that have children (diagrams make sense for these)
-            List<XsdExtendedElement> elementsWithDiagrams = new ArrayList<>();
-            for (XsdExtendedElement element : elementMap.values()) {
-                if (isContainerElement(element)) {
-                    continue;
-                }
-                // Only include elements at level 0-2 that have children
-                if (element.getLevel() <= 2 && hasSignificantContent(element, elementMap)) {
-                    elementsWithDiagrams.add(element);
-                }
+        // Filter elements that have children (diagrams make sense for these)
+        Map<String, XsdExtendedElement> elementMap = documentationData.getExtendedXsdElementMap();
+        List<XsdExtendedElement> elementsWithDiagrams = new ArrayList<>();
+        for (XsdExtendedElement element : elementMap.values()) {
+            if (isContainerElement(element)) {
+                continue;
             }
+            // Only include elements at level 0-2 that have children
+            if (element.getLevel() <= 2 && hasSignificantContent(element, elementMap)) {
+                elementsWithDiagrams.add(element);
+            }
+        }
 
-            // Sort by level then by path
-            elementsWithDiagrams.sort(Comparator
-                    .comparingInt(XsdExtendedElement::getLevel)
-                    .thenComparing(this::getCleanXPath));
-
-            logger.info("Generating {} element diagrams for PDF document", elementsWithDiagrams.size());
-            int diagramCount = 0;
-
-            for (XsdExtendedElement element : elementsWithDiagrams) {
-                try {
-                    // Generate PNG image
-                    String safeName = element.getElementName().replaceAll("[^a-zA-Z0-9]", "_");
-                    Path imagePath = tempImageDir.resolve(safeName + "-" + diagramCount + ".png");
-                    String generatedPath = imageService.generateImage(element, imagePath.toFile());
-
-                    if (generatedPath != null) {
-                        Element diagramEntry = doc.createElement("diagram");
-                        elementDiagrams.appendChild(diagramEntry);
-
-                        addElement(doc, diagramEntry, "element-name", element.getElementName());
-                        addElement(doc, diagramEntry, "path", getCleanXPath(element));
-                        addElement(doc, diagramEntry, "type", element.getElementType() != null ? element.getElementType() : "-");
-                        addElement(doc, diagramEntry, "image-path", imagePath.toUri().toString());
-
-                        diagramCount++;
-                    }
-                } catch (Exception e) {
-                    logger.warn("Failed to generate diagram for element {}: {}", element.getElementName(), e.getMessage());
-                }
+        // Sort by level then by path
+        elementsWithDiagrams.sort(Comparator
+                .comparingInt(XsdExtendedElement::getLevel)
+                .thenComparing(this::getCleanXPath));
+
+        logger.info("Generating {} element diagrams for PDF document", elementsWithDiagrams.size());
+        // Rasterise all diagrams in parallel up front; the loop below is then served from the cache
+        imageService.prerenderImages(elementsWithDiagrams, DiagramAssetCache.Format.PNG);
+        int diagramCount = 0;
+
+        for (XsdExtendedElement element : elementsWithDiagrams) {
+            // Reference the cached PNG image; FOP loads it lazily while laying out the page
+            Path imagePath = imageService.getImageAsset(element, DiagramAssetCache.Format.PNG);
+            if (imagePath == null) {
+                logger.warn("Failed to generate diagram for element {}", element.getElementName());
+                continue;
             }
 
-            logger.info("PDF element diagrams prepared: {} diagrams", diagramCount);
+            writer.writeStartElement("diagram");
+            writeElement(writer, "element-name", element.getElementName());
+            writeElement(writer, "path", getCleanXPath(element));
+            writeElement(writer, "type", element.getElementType() != null ? element.getElementType() : "-");
+            writeElement(writer, "image-path", imagePath.toUri().toString());
+            writer.writeEndElement();
+            flushPeriodically(writer, out, diagramCount);
+
+            diagramCount++;
         }
 
+        writer.writeEndElement();
+        logger.info("PDF element diagrams prepared: {} diagrams", diagramCount);
+    }
+
+    private void writeIndex(XMLStreamWriter writer) throws XMLStreamException {
         // Index section - alphabetically sorted list of all types and elements
-        Element index = doc.createElement("index");
-        root.appendChild(index);
+        writer.writeStartElement("index");
 
         // Use a record to store index entry data
         record IndexEntry(String name, String entryType, String location) implements Comparable<IndexEntry> {
@@ -388,7 +418,7 @@ public class XsdDocumentationPdfService {
         Set<IndexEntry> indexEntries = new TreeSet<>();
 
         // Add element names with their XPath location
-        for (XsdExtendedElement element : elementMap.values()) {
+        for (XsdExtendedElement element : documentationData.getExtendedXsdElementMap().values()) {
             if (!isContainerElement(element) && element.getElementName() != null) {
                 String xpath = element.getCurrentXpath();
                 String location = xpath != null ? xpath : "Global";
@@ -418,16 +448,15 @@ public class XsdDocumentationPdfService {
 
         // Create structured index entries
         for (IndexEntry entry : indexEntries) {
-            Element entryElement = doc.createElement("entry");
-            addElement(doc, entryElement, "name", entry.name());
-            addElement(doc, entryElement, "entry-type", entry.entryType());
-            addElement(doc, entryElement, "location", entry.location());
-            index.appendChild(entryElement);
+            writer.writeStartElement("entry");
+            writeElement(writer, "name", entry.name());
+            writeElement(writer, "entry-type", entry.entryType());
+            writeElement(writer, "location", entry.location());
+            writer.writeEndElement();
         }
 
+        writer.writeEndElement();
         logger.info("PDF index created with {} entries", indexEntries.size());
-
-        return doc;
     }
 
     /**
@@ -468,7 +497,7 @@ public class XsdDocumentationPdfService {
     /**
      * Transforms the intermediate XML to PDF using Apache FOP.
      */
-    private void transformToPdf(Document intermediateXml, Source xslSource, File outputFile)
+    private void transformToPdf(Source xmlSource, Source xslSource, File outputFile)
             throws Exception {
 
         // Ensure output directory exists
@@ -552,7 +581,6 @@ public class XsdDocumentationPdfService {
             // PDF Bookmarks parameter
             transformer.setParameter("generateBookmarks", config.isGenerateBookmarks() ? "true" : "false");
 
-            Source xmlSource = new DOMSource(intermediateXml);
             Result result = new SAXResult(fop.getDefaultHandler());
 
             transformer.transform(xmlSource, result);
@@ -1204,10 +1232,51 @@ public class XsdDocumentationPdfService {
 
     // ================= Helper Methods =================
 
-    private void addElement(Document doc, Element parent, String name, String value) {
-        Element element = doc.createElement(name);
-        element.setTextContent(value != null ? value : "");
-        parent.appendChild(element);
+    private void writeElement(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+        writer.writeStartElement(name);
+        writer.writeCharacters(value != null ? value : "");
+        writer.writeEndElement();
+    }
+
+    /**
+     * Hands buffered output to the file every {@value #FLUSH_INTERVAL} entries.
+     */
+    private static void flushPeriodically(XMLStreamWriter writer, OutputStream out, int count)
+            throws XMLStreamException, IOException {
+        if (count > 0 && count % FLUSH_INTERVAL == 0) {
+            writer.flush();
+            out.flush();
+        }
+    }
+
+    @FunctionalInterface
+    private interface SectionAction {
+        void run() throws XMLStreamException, IOException;
+    }
+
+    /**
+     * Runs a section of the PDF build and records and reports its duration.
+     */
+    private void timeSection(String sectionName, SectionAction action) throws XMLStreamException, IOException {
+        long start = System.currentTimeMillis();
+        action.run();
+        long millis = System.currentTimeMillis() - start;
+        sectionMillis.put(sectionName, millis);
+        if (progressListener != null) {
+            progressListener.onProgressUpdate(new TaskProgressListener.ProgressUpdate(sectionName,
+                    TaskProgressListener.ProgressUpdate.Status.FINISHED, millis));
+        }
+        logger.debug("PDF section '{}' took {} ms", sectionName, millis);
+    }
+
+    /**
+     * Returns the time spent on each section of the last generated PDF, in build order. The
+     * XSL-FO transformation and layout are reported as "Rendering".
+     *
+     * @return section name to milliseconds
+     */
+    public Map<String, Long> getSectionTimings() {
+        return new LinkedHashMap<>(sectionMillis);
     }
 
     private String truncateString(String str, int maxLength) {
@@ -48,6 +48,9 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.random.RandomGenerator;
 import java.util.stream.Collectors;
 
@@ -149,6 +152,14 @@ public class XsdDocumentationService {
     private boolean addMetadataInOutput = false; // Whether to add metadata comments to generated HTML files
     private String faviconPath = null; // Optional path to custom favicon for HTML documentation
     private boolean deduplicateDataDictionaryByType = false; // List each named type only once in the data dictionary
+    private boolean incrementalBuild = false; // Only re-render pages whose inputs changed since the last run
+
+    // Wall time per executeAndTrack phase of the current run (in execution order) and the summary
+    // of the last incremental build, both reported in the build manifest for CI.
+    private final Map<String, Long> phaseTimings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, Long> phaseCpuTimings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private int maxParallelism = Runtime.getRuntime().availableProcessors(); // Threads of the shared pipeline pool
+    private XsdDocumentationManifest.BuildSummary lastBuildSummary;
 
     // Per-run memo of XPath-independent identity-constraint results, keyed by the source DOM node.
     // Repeated expansions of a shared type reuse the cached result instead of re-parsing constraints.
@@ -218,6 +229,16 @@ public class XsdDocumentationService {
         this.parallelProcessing = parallelProcessing;
     }
 
+    /**
+     * Sets the number of threads of the pool shared by all documentation phases. Independent
+     * phases and the page fan-out inside a phase never use more threads than this.
+     *
+     * @param maxParallelism the maximum number of concurrently working threads (at least 1)
+     */
+    public void setMaxParallelism(int maxParallelism) {
+        this.maxParallelism = Math.max(1, maxParallelism);
+    }
+
     public void setUseMarkdownRenderer(Boolean useMarkdownRenderer) {
         this.useMarkdownRenderer = useMarkdownRenderer;
     }
@@ -278,6 +299,37 @@ public class XsdDocumentationService {
         this.deduplicateDataDictionaryByType = deduplicateDataDictionaryByType;
     }
 
+    /**
+     * Sets whether documentation is generated incrementally. When enabled, a manifest of content
+     * hashes ({@value XsdDocumentationManifest#MANIFEST_FILE_NAME}) is kept in the output directory
+     * and only pages whose inputs (the element, its descendants and ancestors, or the type
+     * definition and its users) changed since the previous run are re-rendered. Changing any
+     * generation option triggers a full rebuild.
+     *
+     * @param incrementalBuild true to reuse unchanged pages of the previous run
+     */
+    public void setIncrementalBuild(boolean incrementalBuild) {
+        this.incrementalBuild = incrementalBuild;
+    }
+
+    /**
+     * Returns whether documentation is generated incrementally.
+     *
+     * @return true if incremental generation is enabled
+     */
+    public boolean isIncrementalBuild() {
+        return incrementalBuild;
+    }
+
+    /**
+     * Returns the summary (page counts and per-phase timings) of the last incremental build.
+     *
+     * @return the summary, or null if no incremental build has run yet
+     */
+    public XsdDocumentationManifest.BuildSummary getLastBuildSummary() {
+        return lastBuildSummary;
+    }
+
     /**
      * Returns the configured favicon path.
      *
@@ -361,6 +413,9 @@ public class XsdDocumentationService {
 
     public void generateXsdDocumentation(File outputDirectory) throws Exception {
         logger.debug("Starting documentation generation...");
+        long buildStart = System.currentTimeMillis();
+        phaseTimings.clear();
+        phaseCpuTimings.clear();
         processXsd(this.useMarkdownRenderer);
 
         xsdDocumentationHtmlService.setOutputDirectory(outputDirectory);
@@ -379,31 +434,146 @@ public class XsdDocumentationService {
         xsdDocumentationHtmlService.xsdDocumentationImageService = new XsdDocumentationImageService(xsdDocumentationData.getExtendedXsdElementMap());
         xsdDocumentationHtmlService.xsdDocumentationImageService.setShowDocumentation(this.showDocumentationInSvg);
 
-        executeAndTrack("Copying resources", xsdDocumentationHtmlService::copyResources);
-        executeAndTrack("Generating root page", xsdDocumentationHtmlService::generateRootPage);
-        if (generateSvgOverviewPage) {
-            executeAndTrack("Generating SVG page", xsdDocumentationSvgService::generateSvgPage);
+        XsdDocumentationManifest previousManifest = null;
+        XsdDocumentationManifest manifest = null;
+        if (incrementalBuild) {
+            String fingerprint = configFingerprint();
+            previousManifest = XsdDocumentationManifest.load(outputDirectory.toPath());
+            if (previousManifest != null && !previousManifest.isCompatibleWith(fingerprint)) {
+                logger.info("Documentation options changed since the last build - regenerating all pages");
+                previousManifest = null;
+            }
+            manifest = new XsdDocumentationManifest(fingerprint);
+            XsdDocumentationContentHasher hasher = new XsdDocumentationContentHasher(xsdDocumentationData);
+            manifest.setAggregateHash(hasher.aggregateHash());
+            xsdDocumentationHtmlService.setIncrementalBuild(previousManifest, manifest, hasher);
+        } else {
+            xsdDocumentationHtmlService.setIncrementalBuild(null, null, null);
+        }
+        boolean aggregatesUpToDate = xsdDocumentationHtmlService.isAggregateUpToDate();
+
+        // The pipeline is declared as a task graph: each phase names the resources it reads and
+        // writes, and phases without conflicts run concurrently on one shared, bounded pool.
+        Set<String> outputDir = Set.of("outputDir");
+        DocumentationTaskGraph graph = new DocumentationTaskGraph();
+        addPhase(graph, "Copying resources", Set.of(), outputDir, xsdDocumentationHtmlService::copyResources);
+        if (aggregatesUpToDate) {
+            logger.info("Schema unchanged since the last build - keeping overview pages, data dictionary and search index");
+        } else {
+            addPhase(graph, "Generating root page", outputDir, Set.of("index.html", "search_index.json", "schemaSources"),
+                    xsdDocumentationHtmlService::generateRootPage);
+            if (generateSvgOverviewPage) {
+                addPhase(graph, "Generating SVG page", outputDir, Set.of("schema-svg.html"),
+                        xsdDocumentationSvgService::generateSvgPage);
+            }
+            addPhase(graph, "Generating list of complex types", outputDir, Set.of("complexTypes.html"),
+                    xsdDocumentationHtmlService::generateComplexTypesListPage);
+            addPhase(graph, "Generating list of simple types", outputDir, Set.of("simpleTypes.html"),
+                    xsdDocumentationHtmlService::generateSimpleTypesListPage);
+            addPhase(graph, "Generating data dictionary", outputDir, Set.of("dataDictionary.html", "dataDictionaryExcelJob"),
+                    xsdDocumentationHtmlService::generateDataDictionaryPage);
+            addPhase(graph, "Generating search index", outputDir, Set.of("search_index.json"),
+                    xsdDocumentationHtmlService::generateSearchIndex);
+            // Make sure the background Data Dictionary Excel export has finished before returning.
+            addPhase(graph, "Finalizing data dictionary Excel", Set.of("dataDictionaryExcelJob"), Set.of("dataDictionary.xlsx"),
+                    xsdDocumentationHtmlService::awaitDataDictionaryExcel);
         }
-        executeAndTrack("Generating list of complex types", xsdDocumentationHtmlService::generateComplexTypesListPage);
-        executeAndTrack("Generating list of simple types", xsdDocumentationHtmlService::generateSimpleTypesListPage);
-        executeAndTrack("Generating data dictionary", xsdDocumentationHtmlService::generateDataDictionaryPage);
-        executeAndTrack("Generating search index", xsdDocumentationHtmlService::generateSearchIndex);
 
         if (parallelProcessing) {
-            executeAndTrack("Generating detail pages for complex types (parallel)", xsdDocumentationHtmlService::generateComplexTypePagesInParallel);
-            executeAndTrack("Generating detail pages for simple types (parallel)", xsdDocumentationHtmlService::generateSimpleTypePagesInParallel);
-            executeAndTrack("Generating detail pages for elements (parallel)", xsdDocumentationHtmlService::generateDetailsPagesInParallel);
+            addPhase(graph, "Generating detail pages for complex types (parallel)", outputDir, Set.of("complexTypes/"),
+                    xsdDocumentationHtmlService::generateComplexTypePagesInParallel);
+            addPhase(graph, "Generating detail pages for simple types (parallel)", outputDir, Set.of("simpleTypes/"),
+                    xsdDocumentationHtmlService::generateSimpleTypePagesInParallel);
+            addPhase(graph, "Generating detail pages for elements (parallel)", outputDir, Set.of("details/", "assets/diagrams"),
+                    xsdDocumentationHtmlService::generateDetailsPagesInParallel);
         } else {
-            executeAndTrack("Generating detail pages for complex types", xsdDocumentationHtmlService::generateComplexTypePages);
-            executeAndTrack("Generating detail pages for simple types", xsdDocumentationHtmlService::generateSimpleTypePages);
-            executeAndTrack("Generating detail pages for elements", xsdDocumentationHtmlService::generateDetailPages);
+            addPhase(graph, "Generating detail pages for complex types", outputDir, Set.of("complexTypes/"),
+                    xsdDocumentationHtmlService::generateComplexTypePages);
+            addPhase(graph, "Generating detail pages for simple types", outputDir, Set.of("simpleTypes/"),
+                    xsdDocumentationHtmlService::generateSimpleTypePages);
+            addPhase(graph, "Generating detail pages for elements", outputDir, Set.of("details/", "assets/diagrams"),
+                    xsdDocumentationHtmlService::generateDetailPages);
         }
 
         // Generate languages.json for JavaScript-based language switching
-        executeAndTrack("Generating languages.json", () -> generateLanguagesJson(outputDirectory));
+        addPhase(graph, "Generating languages.json", outputDir, Set.of("languages.json"),
+                () -> generateLanguagesJson(outputDirectory));
 
-        // Make sure the background Data Dictionary Excel export has finished before returning.
-        executeAndTrack("Finalizing data dictionary Excel", xsdDocumentationHtmlService::awaitDataDictionaryExcel);
+        int[] removedPages = new int[1];
+        if (manifest != null) {
+            // Reads the page hashes recorded by the detail page phases.
+            addPhase(graph, "Removing stale pages", Set.of("details/", "complexTypes/", "simpleTypes/", "assets/diagrams"),
+                    Set.of("stalePages"), () -> removedPages[0] = xsdDocumentationHtmlService.removeStalePages());
+        }
+
+        DocumentationTaskGraph.Result graphResult;
+        ForkJoinPool pool = createPipelinePool();
+        try {
+            graphResult = graph.run(pool);
+        } finally {
+            pool.shutdownNow();
+        }
+        if (progressListener != null) {
+            progressListener.onProgressUpdate(new ProgressUpdate(
+                    "Critical path: " + String.join(" -> ", graphResult.criticalPath()),
+                    Status.FINISHED, graphResult.criticalPathMillis()));
+        }
+        logger.info("Documentation pipeline finished in {} ms with {} threads; critical path ({} ms): {}",
+                graphResult.wallMillis(), pool.getParallelism(), graphResult.criticalPathMillis(), graphResult.criticalPath());
+
+        if (manifest != null) {
+            lastBuildSummary = manifest.finishBuild(previousManifest != null, removedPages[0],
+                    System.currentTimeMillis() - buildStart, phaseTimings, phaseCpuTimings, graphResult.criticalPath());
+            manifest.save(outputDirectory.toPath());
+            logger.info("Incremental documentation build finished in {} ms: {} pages rendered, {} unchanged, {} removed",
+                    lastBuildSummary.totalMillis(), lastBuildSummary.renderedPages(),
+                    lastBuildSummary.skippedPages(), lastBuildSummary.removedPages());
+        }
+    }
+
+    /**
+     * Declares a pipeline phase whose execution is tracked (progress, wall and CPU time).
+     */
+    private void addPhase(DocumentationTaskGraph graph, String taskName, Set<String> inputs, Set<String> outputs, Runnable task) {
+        graph.add(taskName, inputs, outputs, () -> executeAndTrack(taskName, task));
+    }
+
+    /**
+     * Creates the bounded pool shared by all pipeline phases and their internal fan-out.
+     * Without parallel processing the pool has a single thread, so phases run one after another.
+     */
+    private ForkJoinPool createPipelinePool() {
+        int parallelism = parallelProcessing ? Math.max(1, maxParallelism) : 1;
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("xsd-doc-" + threadCounter.getAndIncrement());
+            worker.setDaemon(true);
+            return worker;
+        }, null, false);
+    }
+
+    /**
+     * Builds a fingerprint of every option that influences the content of the generated pages.
+     * A previous manifest is only reused when this fingerprint is identical.
+     */
+    private String configFingerprint() {
+        String languages = includedLanguages == null ? "*" : includedLanguages.stream().sorted().collect(Collectors.joining(","));
+        String options = String.join("|",
+                String.valueOf(XsdDocumentationManifest.FORMAT_VERSION),
+                String.valueOf(getClass().getPackage().getImplementationVersion()),
+                String.valueOf(xsdFilePath),
+                imageOutputMethod.name(),
+                String.valueOf(useMarkdownRenderer),
+                String.valueOf(includeTypeDefinitionsInSourceCode),
+                languages,
+                String.valueOf(fallbackLanguage),
+                String.valueOf(showDocumentationInSvg),
+                String.valueOf(generateSvgOverviewPage),
+                String.valueOf(addMetadataInOutput),
+                String.valueOf(faviconPath),
+                String.valueOf(deduplicateDataDictionaryByType));
+        return XsdExtendedElement.getMD5Hex(options);
     }
 
     /**
@@ -3636,11 +3806,10 @@ public class XsdDocumentationService {
 
     private void executeAndTrack(String taskName, Runnable task) {
         // Check for cancellation before starting each task
-        if (Thread.currentThread().isInterrupted()) {
-            throw new CancellationException("Documentation generation was cancelled");
-        }
+        DocumentationTaskGraph.checkCancelled();
 
         long startTime = System.currentTimeMillis();
+        DocumentationTaskGraph.PhaseCpu phaseCpu = DocumentationTaskGraph.startPhaseCpu();
         if (progressListener != null) {
             progressListener.onProgressUpdate(new ProgressUpdate(taskName, Status.RUNNING, 0));
         }
@@ -3648,21 +3817,24 @@ public class XsdDocumentationService {
             task.run();
 
             // Check for cancellation after task completion
-            if (Thread.currentThread().isInterrupted()) {
-                throw new CancellationException("Documentation generation was cancelled");
-            }
+            DocumentationTaskGraph.checkCancelled();
 
             long duration = System.currentTimeMillis() - startTime;
+            long cpuMillis = phaseCpu.stop();
+            phaseTimings.put(taskName, duration);
+            phaseCpuTimings.put(taskName, cpuMillis);
             if (progressListener != null) {
-                progressListener.onProgressUpdate(new ProgressUpdate(taskName, Status.FINISHED, duration));
+                progressListener.onProgressUpdate(new ProgressUpdate(taskName, Status.FINISHED, duration, cpuMillis));
             }
         } catch (CancellationException e) {
+            phaseCpu.stop();
             // Re-throw cancellation exceptions without reporting as failure
             throw e;
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
+            long cpuMillis = phaseCpu.stop();
             if (progressListener != null) {
-                progressListener.onProgressUpdate(new ProgressUpdate(taskName, Status.FAILED, duration));
+                progressListener.onProgressUpdate(new ProgressUpdate(taskName, Status.FAILED, duration, cpuMillis));
             }
             throw e; // Re-throw the exception after reporting
         }
@@ -29,10 +29,13 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamException;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.poi.common.usermodel.PictureType;
@@ -94,6 +97,15 @@ public class XsdDocumentationWordService {
     private TaskProgressListener progressListener;
     private WordDocumentationConfig config = new WordDocumentationConfig();
 
+    private static final String DATA_DICTIONARY_SECTION = "Data Dictionary";
+    private static final String ELEMENT_DIAGRAMS_SECTION = "Element Diagrams";
+
+    /**
+     * Writes the element-count dependent sections directly into the output file.
+     */
+    private DocxSectionStreamer streamer = new DocxSectionStreamer();
+    private final Map<String, Long> sectionMillis = new LinkedHashMap<>();
+
     // ================= Style Color Helpers =================
 
     /**
@@ -148,6 +160,9 @@ public class XsdDocumentationWordService {
     public void generateWordDocumentation(File outputFile, XsdDocumentationData documentationData) throws IOException {
         this.documentationData = documentationData;
 
+        streamer = new DocxSectionStreamer();
+        sectionMillis.clear();
+
         try (XWPFDocument document = new XWPFDocument()) {
             // Set document properties
             setDocumentProperties(document);
@@ -160,64 +175,104 @@ public class XsdDocumentationWordService {
 
             // Create cover page if configured
             if (config.isIncludeCoverPage()) {
-                reportProgress("Creating cover page");
-                createTitlePage(document);
+                runSection("Creating cover page", "Cover page", () -> createTitlePage(document));
             }
 
             // Create table of contents if configured
             if (config.isIncludeToc()) {
-                reportProgress("Creating table of contents");
-                createTableOfContents(document);
+                runSection("Creating table of contents", "Table of contents", () -> createTableOfContents(document));
             }
 
             // Create schema overview
-            reportProgress("Creating schema overview");
-            createSchemaOverview(document);
+            runSection("Creating schema overview", "Schema overview", () -> createSchemaOverview(document));
 
             // Create namespace overview
-            reportProgress("Creating namespace overview");
-            createNamespaceOverview(document);
+            runSection("Creating namespace overview", "Namespace overview", () -> createNamespaceOverview(document));
 
             // Embed schema diagram if available and configured
             if (config.isIncludeSchemaDiagram() && imageService != null) {
-                reportProgress("Embedding schema diagram");
-                embedSchemaDiagram(document);
+                runSection("Embedding schema diagram", "Schema diagram", () -> embedSchemaDiagram(document));
             }
 
             // Create ComplexTypes section
-            reportProgress("Creating ComplexTypes section");
-            createComplexTypesSection(document);
+            runSection("Creating ComplexTypes section", "ComplexTypes", () -> createComplexTypesSection(document));
 
             // Create SimpleTypes section
-            reportProgress("Creating SimpleTypes section");
-            createSimpleTypesSection(document);
+            runSection("Creating SimpleTypes section", "SimpleTypes", () -> createSimpleTypesSection(document));
 
-            // Create Data Dictionary if configured
+            // Create Data Dictionary if configured (content is streamed when the document is saved)
             if (config.isIncludeDataDictionary()) {
-                reportProgress("Creating Data Dictionary");
-                createDataDictionarySection(document);
+                runSection("Creating Data Dictionary", DATA_DICTIONARY_SECTION, () -> createDataDictionarySection(document));
             }
 
-            // Create Element Diagrams section if configured
+            // Create Element Diagrams section if configured (content is streamed when the document is saved)
             if (config.isIncludeElementDiagrams() && imageService != null) {
-                reportProgress("Creating Element Diagrams");
-                createElementDiagramsSection(document);
+                runSection("Creating Element Diagrams", ELEMENT_DIAGRAMS_SECTION, () -> createElementDiagramsSection(document));
             }
 
             // Create Index section at the end
-            reportProgress("Creating Index");
-            createIndexSection(document);
+            runSection("Creating Index", "Index", () -> createIndexSection(document));
 
             // Save the document
             reportProgress("Saving document");
-            try (FileOutputStream out = new FileOutputStream(outputFile)) {
+            saveDocument(document, outputFile.toPath());
+
+            logger.info("Word documentation generated successfully: {} (section timings: {})",
+                    outputFile.getAbsolutePath(), getSectionTimings());
+        }
+    }
+
+    /**
+     * Writes the document. If sections were registered for streaming, POI only writes a small
+     * skeleton to a temporary file, which is then copied into the output file while the streamed
+     * sections are written into it.
+     */
+    private void saveDocument(XWPFDocument document, Path outputFile) throws IOException {
+        if (!streamer.hasSections()) {
+            try (FileOutputStream out = new FileOutputStream(outputFile.toFile())) {
                 document.write(out);
             }
+            return;
+        }
+        Path skeleton = Files.createTempFile("xsd-word-skeleton-", ".docx");
+        try {
+            try (FileOutputStream out = new FileOutputStream(skeleton.toFile())) {
+                document.write(out);
+            }
+            streamer.write(skeleton, outputFile);
+        } finally {
+            Files.deleteIfExists(skeleton);
+        }
+        streamer.getSectionMillis().forEach((name, millis) -> {
+            sectionMillis.merge(name, millis, Long::sum);
+            reportSectionFinished(name, sectionMillis.get(name));
+        });
+    }
 
-            logger.info("Word documentation generated successfully: {}", outputFile.getAbsolutePath());
+    /**
+     * Runs a document section and records its duration.
+     */
+    private void runSection(String progressMessage, String sectionName, Runnable section) {
+        reportProgress(progressMessage);
+        long start = System.currentTimeMillis();
+        section.run();
+        long millis = System.currentTimeMillis() - start;
+        sectionMillis.put(sectionName, millis);
+        if (!DATA_DICTIONARY_SECTION.equals(sectionName) && !ELEMENT_DIAGRAMS_SECTION.equals(sectionName)) {
+            reportSectionFinished(sectionName, millis);
         }
     }
 
+    /**
+     * Returns the time spent on each section of the last generated document, in document order.
+     * Streamed sections include the time spent writing them into the output file.
+     *
+     * @return section name to milliseconds
+     */
+    public Map<String, Long> getSectionTimings() {
+        return new LinkedHashMap<>(sectionMillis);
+    }
+
     /**
      * Sets the page layout (size and orientation) based on configuration.
      */
@@ -559,9 +614,8 @@ public class XsdDocumentationWordService {
 
         if (rootElement != null && imageService != null) {
             try {
-                // Generate PNG to temporary file
-                Path tempPng = Files.createTempFile("xsd-diagram-", ".png");
-                String imagePath = imageService.generateImage(rootElement, tempPng.toFile());
+                // Reference the cached diagram instead of rendering it into a temporary file
+                Path imagePath = imageService.getImageAsset(rootElement, DiagramAssetCache.Format.PNG);
 
                 if (imagePath != null) {
                     // Insert image into document
@@ -569,16 +623,13 @@ public class XsdDocumentationWordService {
                     imgPara.setAlignment(ParagraphAlignment.CENTER);
                     XWPFRun imgRun = imgPara.createRun();
 
-                    try (InputStream is = Files.newInputStream(tempPng)) {
+                    try (InputStream is = Files.newInputStream(imagePath)) {
                         // Calculate image dimensions (max width 500px)
                         imgRun.addPicture(is, PictureType.PNG,
                                 "schema-diagram.png",
                                 Units.toEMU(450), Units.toEMU(300));
                     }
 
-                    // Clean up temp file
-                    Files.deleteIfExists(tempPng);
-
                     // Add caption
                     XWPFParagraph captionPara = document.createParagraph();
                     captionPara.setAlignment(ParagraphAlignment.CENTER);
@@ -725,55 +776,53 @@ public class XsdDocumentationWordService {
         int totalElements = sortedElements.size();
         logger.info("Creating Word data dictionary with {} elements (excluding container elements)", totalElements);
 
-        XWPFTable dictTable = document.createTable(totalElements + 1, 5);
-        setTableStyle(dictTable);
-        setColumnWidths(dictTable, new int[]{2500, 1800, 1200, 1800, 1700});
+        // The table rows are written straight into the output file when the document is saved
+        addStreamedSection(document, DATA_DICTIONARY_SECTION, body -> {
+            int[] widths = {2500, 1800, 1200, 1800, 1700};
+            startStreamedTable(body, widths);
 
-        // Header row (row index 0)
-        setTableCellWithZebra(dictTable.getRow(0), 0, "Element Path", 0);
-        setTableCellWithZebra(dictTable.getRow(0), 1, "Type", 0);
-        setTableCellWithZebra(dictTable.getRow(0), 2, "Cardinality", 0);
-        setTableCellWithZebra(dictTable.getRow(0), 3, "Restrictions", 0);
-        setTableCellWithZebra(dictTable.getRow(0), 4, "Description", 0);
+            // Header row (row index 0)
+            writeStreamedRow(body, widths, 0, "Element Path", "Type", "Cardinality", "Restrictions", "Description");
 
-        int row = 1;
-        int progressInterval = Math.max(1, totalElements / 10); // Report progress every 10%
-        for (int i = 0; i < totalElements; i++) {
-            XsdExtendedElement element = sortedElements.get(i);
-
-            // Use clean XPath without container elements
-            String path = getCleanXPath(element);
-            String type = element.getElementType() != null ? element.getElementType() : "-";
-            String cardinality = getCardinality(element);
-            String restrictions = getRestrictionsSummary(element);
-            String description = getFirstDocumentation(element);
-
-            // Truncate long values for table display
-            if (path != null && path.length() > 40) {
-                path = "..." + path.substring(path.length() - 37);
-            }
-            if (restrictions != null && restrictions.length() > 35) {
-                restrictions = restrictions.substring(0, 32) + "...";
-            }
-            if (description != null && description.length() > 40) {
-                description = description.substring(0, 37) + "...";
-            }
+            int progressInterval = Math.max(1, totalElements / 10); // Report progress every 10%
+            for (int i = 0; i < totalElements; i++) {
+                XsdExtendedElement element = sortedElements.get(i);
 
-            // Use zebra striping for better readability
-            setTableCellWithZebra(dictTable.getRow(row), 0, path != null ? path : "-", row);
-            setTableCellWithZebra(dictTable.getRow(row), 1, type, row);
-            setTableCellWithZebra(dictTable.getRow(row), 2, cardinality != null ? cardinality : "1", row);
-            setTableCellWithZebra(dictTable.getRow(row), 3, restrictions != null ? restrictions : "-", row);
-            setTableCellWithZebra(dictTable.getRow(row), 4, description != null ? description : "-", row);
-            row++;
+                // Use clean XPath without container elements
+                String path = getCleanXPath(element);
+                String type = element.getElementType() != null ? element.getElementType() : "-";
+                String cardinality = getCardinality(element);
+                String restrictions = getRestrictionsSummary(element);
+                String description = getFirstDocumentation(element);
 
-            // Report progress for large documents
-            if (i > 0 && i % progressInterval == 0) {
-                reportProgress("Processing element " + i + " of " + totalElements);
-            }
-        }
+                // Truncate long values for table display
+                if (path != null && path.length() > 40) {
+                    path = "..." + path.substring(path.length() - 37);
+                }
+                if (restrictions != null && restrictions.length() > 35) {
+                    restrictions = restrictions.substring(0, 32) + "...";
+                }
+                if (description != null && description.length() > 40) {
+                    description = description.substring(0, 37) + "...";
+                }
 
-        logger.info("Word data dictionary completed with {} elements", totalElements);
+                // Use zebra striping for better readability
+                writeStreamedRow(body, widths, i + 1,
+                        path != null ? path : "-",
+                        type,
+                        cardinality != null ? cardinality : "1",
+                        restrictions != null ? restrictions : "-",
+                        description != null ? description : "-");
+                body.unitWritten();
+
+                // Report progress for large documents
+                if (i > 0 && i % progressInterval == 0) {
+                    reportProgress("Processing element " + i + " of " + totalElements);
+                }
+            }
+            body.end(); // tbl
+            logger.info("Word data dictionary completed with {} elements", totalElements);
+        });
     }
 
     /**
@@ -812,76 +861,54 @@ public class XsdDocumentationWordService {
         }
 
         logger.info("Generating {} element diagrams for Word document", elementsWithDiagrams.size());
+        // Rasterise all diagrams in parallel up front; the loop below is then served from the cache
+        imageService.prerenderImages(elementsWithDiagrams, DiagramAssetCache.Format.PNG);
 
-        int diagramCount = 0;
-        int progressInterval = Math.max(1, elementsWithDiagrams.size() / 10);
+        // Diagrams are referenced from the diagram asset cache and written straight into the
+        // output file when the document is saved; no image bytes are held in the document model
+        addStreamedSection(document, ELEMENT_DIAGRAMS_SECTION, body -> {
+            int diagramCount = 0;
+            int progressInterval = Math.max(1, elementsWithDiagrams.size() / 10);
 
-        for (int i = 0; i < elementsWithDiagrams.size(); i++) {
-            XsdExtendedElement element = elementsWithDiagrams.get(i);
+            for (int i = 0; i < elementsWithDiagrams.size(); i++) {
+                XsdExtendedElement element = elementsWithDiagrams.get(i);
 
-            try {
                 // Create element heading
-                createHeading(document, element.getElementName(), 2);
+                writeStreamedHeading(body, element.getElementName(), 2);
 
                 // Add element info
-                XWPFParagraph infoPara = document.createParagraph();
-                XWPFRun infoRun = infoPara.createRun();
-                infoRun.setText("Path: " + getCleanXPath(element));
-                infoRun.setFontSize(10);
-                infoRun.setColor(getColorSecondary());
-
+                writeStreamedParagraph(body, "Path: " + getCleanXPath(element), null, false, 10);
                 if (element.getElementType() != null) {
-                    infoPara = document.createParagraph();
-                    infoRun = infoPara.createRun();
-                    infoRun.setText("Type: " + element.getElementType());
-                    infoRun.setFontSize(10);
-                    infoRun.setColor(getColorSecondary());
+                    writeStreamedParagraph(body, "Type: " + element.getElementType(), null, false, 10);
                 }
 
-                // Generate and embed diagram
-                Path tempPng = Files.createTempFile("xsd-element-", ".png");
-                String imagePath = imageService.generateImage(element, tempPng.toFile());
-
+                // Embed the diagram (max width 450px for page fit)
+                Path imagePath = imageService.getImageAsset(element, DiagramAssetCache.Format.PNG);
                 if (imagePath != null) {
-                    XWPFParagraph imgPara = document.createParagraph();
-                    imgPara.setAlignment(ParagraphAlignment.CENTER);
-                    XWPFRun imgRun = imgPara.createRun();
-
-                    try (InputStream is = Files.newInputStream(tempPng)) {
-                        // Insert the diagram image (max width 450px for page fit)
-                        imgRun.addPicture(is, PictureType.PNG,
-                                element.getElementName() + "-diagram.png",
-                                Units.toEMU(450), Units.toEMU(250));
-                    }
-
-                    // Clean up temp file
-                    Files.deleteIfExists(tempPng);
+                    body.start("p").start("pPr").empty("jc", "val", "center").end();
+                    body.start("r");
+                    body.image(imagePath, element.getElementName() + "-diagram.png", Units.toEMU(450), Units.toEMU(250));
+                    body.end().end(); // r, p
                     diagramCount++;
 
                     // Add caption
-                    XWPFParagraph captionPara = document.createParagraph();
-                    captionPara.setAlignment(ParagraphAlignment.CENTER);
-                    XWPFRun captionRun = captionPara.createRun();
-                    captionRun.setText("Figure: Structure of " + element.getElementName());
-                    captionRun.setItalic(true);
-                    captionRun.setFontSize(9);
-                    captionRun.setColor(getColorSecondary());
+                    writeStreamedParagraph(body, "Figure: Structure of " + element.getElementName(), "center", true, 9);
+                } else {
+                    logger.warn("Failed to generate diagram for element {}", element.getElementName());
                 }
 
                 // Add some spacing
-                document.createParagraph();
+                body.empty("p");
+                body.unitWritten();
 
-            } catch (Exception e) {
-                logger.warn("Failed to generate diagram for element {}: {}", element.getElementName(), e.getMessage());
+                // Report progress
+                if (i > 0 && i % progressInterval == 0) {
+                    reportProgress("Generating diagram " + i + " of " + elementsWithDiagrams.size());
+                }
             }
 
-            // Report progress
-            if (i > 0 && i % progressInterval == 0) {
-                reportProgress("Generating diagram " + i + " of " + elementsWithDiagrams.size());
-            }
-        }
-
-        logger.info("Word element diagrams completed: {} diagrams generated", diagramCount);
+            logger.info("Word element diagrams completed: {} diagrams generated", diagramCount);
+        });
     }
 
     /**
@@ -1116,16 +1143,22 @@ public class XsdDocumentationWordService {
      * @param rowIndex  the row index (0-based, where 0 is the header row)
      */
     private void setTableCellWithZebra(XWPFTableRow row, int cellIndex, String text, int rowIndex) {
+        setTableCell(row, cellIndex, text, rowIndex == 0, getRowBackground(rowIndex));
+    }
+
+    /**
+     * Gets the background of a zebra-striped table row, or null for a white row.
+     */
+    private String getRowBackground(int rowIndex) {
         // Header row (index 0) gets header background
         // Data rows: even indices get very light background, odd get white
-        String bgColor = null;
         if (rowIndex == 0) {
-            bgColor = getColorHeaderBg();
+            return getColorHeaderBg();
         } else if (rowIndex % 2 == 0) {
             // Even data rows get a very light tint based on style
-            bgColor = getZebraStripeColor();
+            return getZebraStripeColor();
         }
-        setTableCell(row, cellIndex, text, rowIndex == 0, bgColor);
+        return null;
     }
 
     /**
@@ -1139,6 +1172,98 @@ public class XsdDocumentationWordService {
         };
     }
 
+    // ================= Streamed Section Helpers =================
+    // These mirror createHeading/setTableStyle/setTableCell for content written by DocxSectionStreamer.
+
+    /**
+     * Adds a placeholder paragraph whose content is written when the document is saved.
+     */
+    private void addStreamedSection(XWPFDocument document, String name, DocxSectionStreamer.SectionWriter writer) {
+        XWPFParagraph placeholder = document.createParagraph();
+        placeholder.createRun().setText(streamer.placeholder(name, writer));
+    }
+
+    private void startStreamedTable(DocxSectionStreamer.Body body, int[] widths) throws XMLStreamException {
+        body.start("tbl").start("tblPr");
+        body.empty("tblW", "w", "5000", "type", "pct");
+        body.start("tblBorders");
+        for (String side : new String[]{"top", "left", "bottom", "right", "insideH", "insideV"}) {
+            body.empty(side, "val", "single", "sz", "4", "color", getColorTableBorder());
+        }
+        body.end().end(); // tblBorders, tblPr
+        body.start("tblGrid");
+        for (int width : widths) {
+            body.empty("gridCol", "w", String.valueOf(width));
+        }
+        body.end();
+    }
+
+    private void writeStreamedRow(DocxSectionStreamer.Body body, int[] widths, int rowIndex, String... cells)
+            throws XMLStreamException {
+        String bgColor = getRowBackground(rowIndex);
+        body.start("tr");
+        for (int i = 0; i < cells.length; i++) {
+            body.start("tc").start("tcPr");
+            body.empty("tcW", "w", String.valueOf(widths[i]), "type", "dxa");
+            if (bgColor != null) {
+                body.empty("shd", "val", "clear", "color", "auto", "fill", bgColor);
+            }
+            body.end(); // tcPr
+            body.start("p").start("pPr").empty("spacing", "before", "40", "after", "40").end();
+            body.start("r").start("rPr");
+            body.empty("rFonts", "ascii", "Calibri", "hAnsi", "Calibri", "eastAsia", "Calibri", "cs", "Calibri");
+            if (rowIndex == 0) {
+                body.empty("b");
+            }
+            body.empty("sz", "val", "20").empty("szCs", "val", "20");
+            body.end(); // rPr
+            body.text(cells[i]).end().end().end(); // r, p, tc
+        }
+        body.end(); // tr
+    }
+
+    private void writeStreamedHeading(DocxSectionStreamer.Body body, String text, int level) throws XMLStreamException {
+        String color = level <= 2 ? getColorPrimary() : getColorSecondary();
+        String halfPoints = switch (level) {
+            case 1 -> "36";
+            case 2 -> "28";
+            default -> "24";
+        };
+        body.start("p").start("pPr");
+        body.empty("pStyle", "val", "Heading" + level);
+        body.empty("spacing", "before", "200", "after", "120");
+        body.end(); // pPr
+        body.start("r").start("rPr").empty("b").empty("color", "val", color).empty("sz", "val", halfPoints).end();
+        body.text(text).end().end(); // r, p
+    }
+
+    private void writeStreamedParagraph(DocxSectionStreamer.Body body, String text, String alignment, boolean italic,
+                                        int fontSize) throws XMLStreamException {
+        body.start("p");
+        if (alignment != null) {
+            body.start("pPr").empty("jc", "val", alignment).end();
+        }
+        body.start("r").start("rPr");
+        if (italic) {
+            body.empty("i");
+        }
+        body.empty("color", "val", getColorSecondary());
+        body.empty("sz", "val", String.valueOf(fontSize * 2));
+        body.end(); // rPr
+        body.text(text).end().end(); // r, p
+    }
+
+    /**
+     * Reports the completion of a document section with its duration.
+     */
+    private void reportSectionFinished(String sectionName, long millis) {
+        if (progressListener != null) {
+            progressListener.onProgressUpdate(new TaskProgressListener.ProgressUpdate(sectionName,
+                    TaskProgressListener.ProgressUpdate.Status.FINISHED, millis));
+        }
+        logger.debug("Word section '{}' took {} ms", sectionName, millis);
+    }
+
     private void addParagraphSpacing(XWPFDocument document) {
         XWPFParagraph para = document.createParagraph();
         para.setSpacingAfter(200);
@@ -2,6 +2,7 @@ package org.fxt.freexmltoolkit.service;
 
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -9,8 +10,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -69,9 +68,6 @@ public class XsltTransformationEngine {
     private final Map<String, XQueryExecutable> compiledXQueries = new ConcurrentHashMap<>();
     private final Map<String, TransformationProfile> profileCache = new ConcurrentHashMap<>();
 
-    // Background execution
-    private final ExecutorService executorService;
-
     // Output format support
     public enum OutputFormat {
         XML("xml", "application/xml", "xml"),
@@ -115,13 +111,6 @@ public class XsltTransformationEngine {
         // Configure Saxon for optimal performance
         configureXsltCompiler();
 
-        // Initialize background executor
-        executorService = Executors.newCachedThreadPool(r -> {
-            Thread t = new Thread(r, "XSLTTransformation");
-            t.setDaemon(true);
-            return t;
-        });
-
         logger.info("XSLT Transformation Engine initialized with Saxon {} (XSLT 3.0 support: {})",
                 saxonProcessor.getSaxonProductVersion(),
                 saxonProcessor.getSaxonEdition());
@@ -588,35 +577,16 @@ public class XsltTransformationEngine {
         try {
             logger.debug("Starting XQuery transformation with {} output format", outputFormat);
 
-            // Compile XQuery
-            XQueryCompiler xqueryCompiler = saxonProcessor.newXQueryCompiler();
-
             // Detect output method from XQuery declare option statements
             OutputFormat effectiveFormat = detectXQueryOutputFormat(xqueryContent, outputFormat);
 
-            String cacheKey = "xquery_" + xqueryContent.hashCode();
-            XQueryExecutable executable = compiledXQueries.get(cacheKey);
-
-            if (executable == null) {
-                logger.debug("Compiling XQuery script");
-                executable = xqueryCompiler.compile(xqueryContent);
-                compiledXQueries.put(cacheKey, executable);
-                cleanupXQueryCache();
-            } else {
-                logger.debug("Using cached XQuery executable");
-            }
+            XQueryExecutable executable = compileXQuery(xqueryContent);
 
             // Create evaluator
             XQueryEvaluator evaluator = executable.load();
 
             // Set external variables
-            if (externalVariables != null && !externalVariables.isEmpty()) {
-                for (Map.Entry<String, Object> entry : externalVariables.entrySet()) {
-                    QName varName = new QName(entry.getKey());
-                    XdmValue varValue = convertToXdmValue(entry.getValue());
-                    evaluator.setExternalVariable(varName, varValue);
-                }
-            }
+            bindXQueryVariables(evaluator, externalVariables);
 
             // Set context item (input XML) if provided. A non-well-formed context
             // document must not abort a query that doesn't depend on it (e.g. a
@@ -668,6 +638,58 @@ public class XsltTransformationEngine {
         }
     }
 
+    /**
+     * Returns the compiled form of an XQuery script from the shared compiled-query cache,
+     * compiling it on a miss. The cache is keyed by the full script text, so two scripts
+     * never share an executable. The executable is thread-safe; call {@code load()} for an
+     * evaluator per run.
+     *
+     * @param xqueryContent the XQuery script
+     * @return the (possibly cached) executable
+     * @throws SaxonApiException if the script does not compile
+     */
+    public XQueryExecutable compileXQuery(String xqueryContent) throws SaxonApiException {
+        XQueryExecutable executable = compiledXQueries.get(xqueryContent);
+        if (executable == null) {
+            logger.debug("Compiling XQuery script");
+            executable = saxonProcessor.newXQueryCompiler().compile(xqueryContent);
+            compiledXQueries.put(xqueryContent, executable);
+            cleanupXQueryCache();
+        } else {
+            logger.debug("Using cached XQuery executable");
+        }
+        return executable;
+    }
+
+    /**
+     * Binds external variables on an XQuery evaluator the way {@link #transformXQuery} does.
+     *
+     * @param evaluator         the evaluator of one run
+     * @param externalVariables variable names to values, may be {@code null}
+     */
+    public void bindXQueryVariables(XQueryEvaluator evaluator, Map<String, Object> externalVariables) {
+        if (externalVariables != null && !externalVariables.isEmpty()) {
+            for (Map.Entry<String, Object> entry : externalVariables.entrySet()) {
+                evaluator.setExternalVariable(new QName(entry.getKey()), convertToXdmValue(entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Creates a serializer configured like the one {@link #transformXQuery} writes its result with,
+     * honouring a {@code declare option output:method} of the script.
+     *
+     * @param out           the destination
+     * @param xqueryContent the XQuery script
+     * @param outputFormat  the requested output format
+     * @return the configured serializer
+     */
+    public Serializer newXQuerySerializer(Writer out, String xqueryContent, OutputFormat outputFormat) {
+        Serializer serializer = saxonProcessor.newSerializer(out);
+        configureSerializer(serializer, detectXQueryOutputFormat(xqueryContent, outputFormat));
+        return serializer;
+    }
+
     /**
      * Quick XQuery transformation with default settings
      */
@@ -1192,7 +1214,6 @@ public class XsltTransformationEngine {
     }
 
     public void shutdown() {
-        executorService.shutdown();
         clearCache();
         logger.info("XSLT Transformation Engine shut down");
     }
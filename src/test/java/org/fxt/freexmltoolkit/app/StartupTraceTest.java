@@ -0,0 +1,95 @@
+package org.fxt.freexmltoolkit.app;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("StartupTrace Tests")
+class StartupTraceTest {
+
+    @BeforeEach
+    void setUp() {
+        StartupTrace.resetForTests();
+    }
+
+    @AfterEach
+    void tearDown() {
+        StartupTrace.stop();
+    }
+
+    @Test
+    @DisplayName("Records phases and milestones sorted by start time")
+    void recordsPhases() {
+        StartupTrace.mark("main");
+        try (StartupTrace.Phase ignored = StartupTrace.begin("outer")) {
+            String result = StartupTrace.trace("inner", () -> "done");
+            assertEquals("done", result);
+        }
+
+        List<StartupTrace.Entry> entries = StartupTrace.entries();
+        assertEquals(List.of("main", "outer", "inner"), entries.stream().map(StartupTrace.Entry::name).toList(),
+                "the outer phase started before the inner one, even though it closed last");
+        assertTrue(entries.get(0).milestone());
+        assertEquals(0, entries.get(0).durationNanos());
+        assertFalse(entries.get(1).milestone());
+        assertTrue(entries.get(1).durationNanos() >= entries.get(2).durationNanos());
+        assertEquals(Thread.currentThread().getName(), entries.get(2).thread());
+    }
+
+    @Test
+    @DisplayName("Records a phase even when the step throws")
+    void recordsFailingPhase() {
+        assertThrows(IllegalStateException.class, () -> StartupTrace.trace("failing", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("failing", StartupTrace.entries().get(0).name());
+    }
+
+    @Test
+    @DisplayName("Report lists every phase with its thread")
+    void report() {
+        StartupTrace.trace("load main FXML", () -> null);
+        StartupTrace.mark("first frame");
+
+        String report = StartupTrace.report();
+
+        assertTrue(report.startsWith("FreeXMLToolkit startup trace"));
+        String[] lines = report.split("\n");
+        String phaseLine = lines[lines.length - 2];
+        String milestoneLine = lines[lines.length - 1];
+        assertTrue(phaseLine.endsWith("load main FXML"), phaseLine);
+        assertTrue(phaseLine.contains(Thread.currentThread().getName()), phaseLine);
+        assertTrue(milestoneLine.endsWith("first frame"), milestoneLine);
+        assertTrue(milestoneLine.contains(" - "), "milestones have no duration: " + milestoneLine);
+    }
+
+    @Test
+    @DisplayName("Milestone offsets are measured from process start")
+    void milestoneMillis() {
+        assertEquals(-1, StartupTrace.milestoneMillis("first frame"));
+        StartupTrace.mark("first frame");
+        long millis = StartupTrace.milestoneMillis("first frame");
+        assertTrue(millis >= 0);
+        assertTrue(millis <= ManagementFactory.getRuntimeMXBean().getUptime() + 1000);
+    }
+
+    @Test
+    @DisplayName("Nothing is recorded after stop")
+    void stopDisablesRecording() {
+        StartupTrace.mark("before");
+        StartupTrace.stop();
+
+        assertFalse(StartupTrace.isActive());
+        assertSame(StartupTrace.Phase.NONE, StartupTrace.begin("after"));
+        StartupTrace.mark("after");
+        assertEquals("after-step", StartupTrace.trace("after", () -> "after-step"));
+
+        assertEquals(List.of("before"), StartupTrace.entries().stream().map(StartupTrace.Entry::name).toList());
+    }
+}
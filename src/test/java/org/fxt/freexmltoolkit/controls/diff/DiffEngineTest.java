@@ -2,7 +2,10 @@ package org.fxt.freexmltoolkit.controls.diff;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
 
 import org.junit.jupiter.api.Test;
 
@@ -113,4 +116,113 @@ class DiffEngineTest {
         assertFalse(chunks.isEmpty());
         assertTrue(elapsed < 2000, "Diff of 5000 lines should complete in under 2s, took " + elapsed + "ms");
     }
+
+    @Test
+    void changeChunk_wordPatchesAreComputedOnDemand() {
+        List<DiffChunk> chunks = DiffEngine.compute("a\nold value\nc", "a\nnew value\nc");
+        DiffChunk change = chunks.get(1);
+        assertEquals(DiffChunk.Type.CHANGE, change.getType());
+        assertFalse(change.hasResolvedWordPatches());
+        assertSame(change.getWordPatches(), change.getWordPatches());
+        assertTrue(change.hasResolvedWordPatches());
+    }
+
+    @Test
+    void repetitiveLines_alignOnRareAnchors() {
+        StringBuilder a = new StringBuilder();
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            a.append("<item>\n  <id>").append(i).append("</id>\n</item>\n");
+            if (i != 100) {
+                b.append("<item>\n  <id>").append(i).append("</id>\n</item>\n");
+            }
+        }
+        List<DiffChunk> chunks = DiffEngine.compute(a.toString(), b.toString());
+
+        List<DiffChunk> nonEqual = chunks.stream().filter(c -> !c.isEqual()).toList();
+        assertEquals(1, nonEqual.size(), nonEqual.toString());
+        assertEquals(DiffChunk.Type.DELETE, nonEqual.get(0).getType());
+        assertEquals(3, nonEqual.get(0).getLeftLength());
+    }
+
+    @Test
+    void randomEdits_reproduceBothSides() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<String> left = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(60); i++) {
+                left.add("l" + random.nextInt(8));
+            }
+            List<String> right = new ArrayList<>(left);
+            for (int e = 0; e < random.nextInt(10); e++) {
+                int pos = random.nextInt(right.size() + 1);
+                switch (random.nextInt(3)) {
+                    case 0 -> right.add(pos, "r" + random.nextInt(8));
+                    case 1 -> { if (pos < right.size()) right.remove(pos); }
+                    default -> { if (pos < right.size()) right.set(pos, "l" + random.nextInt(8)); }
+                }
+            }
+            String leftText = String.join("\n", left);
+            String rightText = String.join("\n", right);
+            List<DiffChunk> chunks = DiffEngine.compute(leftText, rightText);
+
+            int l = 0;
+            int r = 0;
+            for (DiffChunk c : chunks) {
+                assertEquals(l, c.getLeftStart());
+                assertEquals(r, c.getRightStart());
+                if (c.isEqual()) {
+                    assertEquals(left.subList(c.getLeftStart(), c.getLeftEnd()),
+                            right.subList(c.getRightStart(), c.getRightEnd()));
+                }
+                l = c.getLeftEnd();
+                r = c.getRightEnd();
+            }
+            assertEquals(left.isEmpty() ? 1 : left.size(), l);
+            assertEquals(right.isEmpty() ? 1 : right.size(), r);
+        }
+    }
+
+    @Test
+    void monitor_reportsProgressAndCanCancel() {
+        StringBuilder a = new StringBuilder();
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            a.append("line-").append(i).append('\n');
+            b.append("line-").append(i % 10 == 0 ? "X" + i : i).append('\n');
+        }
+        List<Double> reported = new ArrayList<>();
+        DiffEngine.compute(a.toString(), b.toString(), new DiffEngine.Monitor() {
+            @Override
+            public void progress(double fraction) {
+                reported.add(fraction);
+            }
+        });
+        assertFalse(reported.isEmpty());
+        assertEquals(1.0, reported.get(reported.size() - 1));
+
+        assertThrows(CancellationException.class, () -> DiffEngine.compute(a.toString(), b.toString(),
+                new DiffEngine.Monitor() {
+                    @Override
+                    public boolean isCancelled() {
+                        return true;
+                    }
+                }));
+    }
+
+    @Test
+    void multiMegabyteInput_withFewChanges_completesQuickly() {
+        StringBuilder a = new StringBuilder();
+        StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 300_000; i++) {
+            a.append("  <position id=\"").append(i).append("\"><amount>10</amount></position>\n");
+            b.append("  <position id=\"").append(i).append("\"><amount>")
+                    .append(i % 50_000 == 0 ? 20 : 10).append("</amount></position>\n");
+        }
+        long start = System.currentTimeMillis();
+        List<DiffChunk> chunks = DiffEngine.compute(a.toString(), b.toString());
+        long elapsed = System.currentTimeMillis() - start;
+        assertEquals(6, chunks.stream().filter(c -> c.getType() == DiffChunk.Type.CHANGE).count());
+        assertTrue(elapsed < 5000, "Diff of 300k lines should complete in under 5s, took " + elapsed + "ms");
+    }
 }
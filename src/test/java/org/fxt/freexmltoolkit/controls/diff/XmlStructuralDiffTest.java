@@ -0,0 +1,136 @@
+package org.fxt.freexmltoolkit.controls.diff;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class XmlStructuralDiffTest {
+
+    private static final XmlStructuralDiff.Options DEFAULTS = XmlStructuralDiff.Options.defaults();
+
+    private static List<String> describe(XmlStructuralDiff.Result result) {
+        return result.entries().stream().map(e -> e.kind() + " " + e.path()).toList();
+    }
+
+    @Test
+    void reformattingAndAttributeOrder_areIgnored() throws Exception {
+        String left = "<root><item a=\"1\" b=\"2\">text  here</item><!-- note --></root>";
+        String right = "<root>\n  <item b=\"2\"\n        a=\"1\">\n    text here\n  </item>\n</root>\n";
+
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left, right, DEFAULTS);
+
+        assertTrue(result.isIdentical(), () -> describe(result).toString());
+        assertEquals(2, result.leftElements());
+    }
+
+    @Test
+    void changedTextAndAttributes_areReportedWithPathAndLines() throws Exception {
+        String left = "<root>\n  <a x=\"1\">one</a>\n  <b>two</b>\n</root>";
+        String right = "<root>\n  <a x=\"2\">one</a>\n  <b>three</b>\n</root>";
+
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left, right, DEFAULTS);
+
+        assertEquals(List.of("ATTRIBUTES_CHANGED /root/a[1]", "TEXT_CHANGED /root/b[1]"), describe(result));
+        XmlStructuralDiff.Entry text = result.entries().get(1);
+        assertEquals(2, text.leftLine());
+        assertEquals(2, text.rightLine());
+    }
+
+    @Test
+    void keyedElements_areAlignedIndependentlyOfOrder() throws Exception {
+        String left = "<portfolio><position id=\"1\"><amount>10</amount></position>"
+                + "<position id=\"2\"><amount>20</amount></position>"
+                + "<position id=\"3\"><amount>30</amount></position></portfolio>";
+        String right = "<portfolio><position id=\"3\"><amount>30</amount></position>"
+                + "<position id=\"1\"><amount>10</amount></position>"
+                + "<position id=\"2\"><amount>25</amount></position>"
+                + "<position id=\"4\"><amount>40</amount></position></portfolio>";
+
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left, right,
+                DEFAULTS.withKeyPaths("position/@id"));
+
+        assertEquals(List.of(
+                "TEXT_CHANGED /portfolio/position[@id='2']/amount[1]",
+                "INSERTED /portfolio/position[@id='4']"), describe(result));
+    }
+
+    @Test
+    void childTextKeys_identifyRepeatingElements() throws Exception {
+        String left = "<positions><position><ISIN>AT0000A</ISIN><qty>1</qty></position>"
+                + "<position><ISIN>DE0000B</ISIN><qty>2</qty></position></positions>";
+        String right = "<positions><position><ISIN>DE0000B</ISIN><qty>2</qty></position></positions>";
+
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left, right, DEFAULTS.withKeyPaths("ISIN"));
+
+        assertEquals(List.of("DELETED /positions/position[ISIN='AT0000A']"), describe(result));
+    }
+
+    @Test
+    void unkeyedSiblings_arePairedByName() throws Exception {
+        String left = "<r><x>1</x><x>2</x><y/></r>";
+        String right = "<r><x>1</x><x>3</x><z/></r>";
+
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left, right, DEFAULTS);
+
+        assertEquals(List.of("TEXT_CHANGED /r/x[2]", "DELETED /r/y[1]", "INSERTED /r/z[1]"), describe(result));
+    }
+
+    @Test
+    void differentRoots_areReplaced() throws Exception {
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare("<a/>", "<b/>", DEFAULTS);
+
+        assertEquals(List.of("DELETED /a", "INSERTED /b"), describe(result));
+    }
+
+    @Test
+    void maxEntries_truncatesTheEditScript() throws Exception {
+        StringBuilder left = new StringBuilder("<r>");
+        StringBuilder right = new StringBuilder("<r>");
+        for (int i = 0; i < 50; i++) {
+            left.append("<v>").append(i).append("</v>");
+            right.append("<v>").append(i + 1000).append("</v>");
+        }
+        left.append("</r>");
+        right.append("</r>");
+
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left.toString(), right.toString(),
+                DEFAULTS.withMaxEntries(10));
+
+        assertTrue(result.truncated());
+        assertEquals(10, result.entries().size());
+    }
+
+    @Test
+    void files_areStreamedFromDisk(@TempDir Path tmp) throws Exception {
+        Path left = tmp.resolve("left.xml");
+        Path right = tmp.resolve("right.xml");
+        Files.writeString(left, "<?xml version=\"1.0\"?>\n<doc><p n=\"1\"/></doc>");
+        Files.writeString(right, "<?xml version=\"1.0\"?>\n<doc>\n  <p n=\"1\"/>\n  <p n=\"2\"/>\n</doc>");
+
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left, right, DEFAULTS);
+
+        assertEquals(List.of("INSERTED /doc/p[2]"), describe(result));
+        assertEquals(1, result.entries().get(0).leftLine(), "anchored at the parent on the left");
+        assertEquals(3, result.entries().get(0).rightLine());
+    }
+
+    @Test
+    void files_areDecodedByTheirDeclaredEncoding(@TempDir Path tmp) throws Exception {
+        Path left = tmp.resolve("left.xml");
+        Path right = tmp.resolve("right.xml");
+        Files.writeString(left, "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n<doc><name>Müller</name></doc>",
+                StandardCharsets.ISO_8859_1);
+        Files.writeString(right, "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<doc><name>Müller</name></doc>",
+                StandardCharsets.UTF_8);
+
+        XmlStructuralDiff.Result result = XmlStructuralDiff.compare(left, right, DEFAULTS);
+
+        assertTrue(result.isIdentical(), () -> describe(result).toString());
+    }
+}
@@ -21,6 +21,7 @@ package org.fxt.freexmltoolkit.controls.jsoneditor.model;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
@@ -375,4 +376,107 @@ class JsonNodeFactoryTest {
             assertEquals(JsonNodeType.ARRAY, doc.getRootValue().getNodeType());
         }
     }
+
+    @Nested
+    @DisplayName("Large arrays")
+    class LargeArrayTests {
+
+        private String numbers(int count) {
+            StringBuilder json = new StringBuilder("{\"values\": [");
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    json.append(", ");
+                }
+                json.append("{\"n\": ").append(i).append("}");
+            }
+            return json.append("]}").toString();
+        }
+
+        private LazyJsonArray values(JsonDocument doc) {
+            JsonNode values = ((JsonObject) doc.getRootValue()).getProperty("values");
+            return assertInstanceOf(LazyJsonArray.class, values);
+        }
+
+        @Test
+        @DisplayName("Arrays below the threshold are plain arrays")
+        void smallArraysArePlain() {
+            JsonDocument doc = JsonNodeFactory.parse(numbers(10), 100);
+
+            assertFalse(((JsonObject) doc.getRootValue()).getProperty("values") instanceof LazyJsonArray);
+        }
+
+        @Test
+        @DisplayName("Arrays above the threshold load their elements on demand")
+        void largeArraysAreLazy() {
+            JsonDocument doc = JsonNodeFactory.parse(numbers(5000), 1000);
+            LazyJsonArray values = values(doc);
+
+            assertEquals(5000, values.size());
+            assertTrue(values.isLoaded(0));
+            assertFalse(values.isLoaded(4500));
+
+            JsonNode element = values.get(4500);
+            assertEquals("{\"n\":4500}", element.serialize().replaceAll("\\s", ""));
+            assertTrue(values.isLoaded(4500));
+            assertSame(element, values.get(4500), "loaded elements keep their identity");
+            assertEquals(4500, values.indexOf(element));
+            assertSame(values, element.getParent());
+        }
+
+        @Test
+        @DisplayName("Modifying a lazy array loads all elements first")
+        void modificationLoadsAll() {
+            JsonDocument doc = JsonNodeFactory.parse(numbers(3000), 1000);
+            LazyJsonArray values = values(doc);
+
+            values.add(new JsonPrimitive(true));
+
+            assertTrue(values.isFullyLoaded());
+            assertEquals(3001, values.size());
+            assertTrue(values.get(2999) instanceof JsonObject);
+        }
+
+        @Test
+        @DisplayName("Arrays in files are read from their byte offsets")
+        void readsPagesFromFile() throws IOException {
+            Path file = tempDir.resolve("large.json");
+            Files.writeString(file, "// größe\n" + numbers(2500));
+
+            JsonDocument doc = JsonNodeFactory.parse(file, 1000);
+            LazyJsonArray values = values(doc);
+
+            assertEquals("jsonc", doc.getFormat());
+            JsonObject last = (JsonObject) values.get(2499);
+            assertEquals(2499, ((Number) ((JsonPrimitive) last.getProperty("n")).getValue()).intValue());
+            values.loadAll();
+            assertEquals(doc.serialize(), JsonNodeFactory.parse(doc.serialize()).serialize());
+        }
+
+        @Test
+        @DisplayName("Pages are not read from a file that changed after opening")
+        void refusesPagesFromChangedFile() throws IOException {
+            Path file = tempDir.resolve("large.json");
+            Files.writeString(file, numbers(2500));
+            JsonDocument doc = JsonNodeFactory.parse(file, 1000);
+            LazyJsonArray values = values(doc);
+            JsonNode loaded = values.get(0);
+
+            Files.writeString(file, "{\"values\": []}  " + numbers(2500));
+
+            UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> values.get(2499));
+            assertTrue(e.getCause().getMessage().contains("modified"), e.getCause().getMessage());
+            assertSame(loaded, values.get(0), "pages loaded before the change stay usable");
+        }
+
+        @Test
+        @DisplayName("Source positions are reported as long offsets")
+        void positionsAreLong() {
+            JsonDocument doc = JsonNodeFactory.parse(numbers(3));
+            JsonNode values = ((JsonObject) doc.getRootValue()).getProperty("values");
+
+            long start = values.getStartPosition();
+            assertEquals(11L, start);
+            assertTrue(values.getEndPosition() > start);
+        }
+    }
 }
@@ -0,0 +1,211 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2024.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.controls.jsoneditor.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.fxt.freexmltoolkit.controls.jsoneditor.model.JsonStreamingReader.Token;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.JsonSyntaxException;
+
+@DisplayName("JsonStreamingReader")
+class JsonStreamingReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<Token> tokens(String text) {
+        JsonStreamingReader reader = JsonStreamingReader.of(text);
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        do {
+            token = reader.next();
+            tokens.add(token);
+        } while (token != Token.END_DOCUMENT);
+        return tokens;
+    }
+
+    private static JsonStreamingReader readFirstValue(String text) {
+        JsonStreamingReader reader = JsonStreamingReader.of(text);
+        reader.next();
+        return reader;
+    }
+
+    @Nested
+    @DisplayName("Tokens")
+    class TokenTests {
+
+        @Test
+        @DisplayName("Reports tokens of a nested document")
+        void reportsTokens() {
+            assertEquals(List.of(Token.BEGIN_OBJECT, Token.NAME, Token.BEGIN_ARRAY, Token.NUMBER, Token.STRING,
+                            Token.BOOLEAN, Token.NULL, Token.END_ARRAY, Token.END_OBJECT, Token.END_DOCUMENT),
+                    tokens("{\"a\": [1, \"x\", true, null]}"));
+        }
+
+        @Test
+        @DisplayName("Empty input ends the document right away")
+        void emptyInput() {
+            assertEquals(List.of(Token.END_DOCUMENT), tokens("  // nothing\n"));
+        }
+
+        @Test
+        @DisplayName("Reports character offsets of tokens")
+        void reportsOffsets() {
+            JsonStreamingReader reader = JsonStreamingReader.of("{ \"key\" : \"value\" }");
+            reader.next();
+            assertEquals(Token.NAME, reader.next());
+            assertEquals(2, reader.getTokenStart());
+            assertEquals(7, reader.getTokenEnd());
+            assertEquals(Token.STRING, reader.next());
+            assertEquals(10, reader.getTokenStart());
+            assertEquals(17, reader.getTokenEnd());
+        }
+
+        @Test
+        @DisplayName("Narrows numbers to the smallest fitting type")
+        void narrowsNumbers() {
+            assertEquals(42, readFirstValue("42").getNumberValue());
+            assertEquals(10_000_000_000L, readFirstValue("10000000000").getNumberValue());
+            assertEquals(1.5, readFirstValue("1.5").getNumberValue());
+            assertEquals("1e3", readFirstValue("1e3").getNumberText());
+        }
+
+        @Test
+        @DisplayName("Decodes escape sequences")
+        void decodesEscapes() {
+            assertEquals("a\"b\né", readFirstValue("\"a\\\"b\\n\\u00e9\"").getStringValue());
+        }
+
+        @Test
+        @DisplayName("skipContainer() continues after the skipped value")
+        void skipsContainers() {
+            JsonStreamingReader reader = JsonStreamingReader.of("[{\"a\": [1, {\"b\": 2}]}, 3]");
+            reader.next();
+            assertEquals(Token.BEGIN_OBJECT, reader.next());
+            reader.skipContainer();
+            assertEquals(1, reader.getDepth());
+            assertEquals(Token.NUMBER, reader.next());
+            assertEquals(3, reader.getNumberValue());
+        }
+    }
+
+    @Nested
+    @DisplayName("Formats")
+    class FormatTests {
+
+        @Test
+        @DisplayName("Plain JSON is detected as json")
+        void detectsJson() {
+            JsonStreamingReader reader = JsonStreamingReader.of("{\"a\": 1}");
+            reader.next();
+            reader.skipContainer();
+            assertEquals("json", reader.getFormat());
+        }
+
+        @Test
+        @DisplayName("Comments are detected as jsonc")
+        void detectsJsonc() {
+            JsonStreamingReader reader = JsonStreamingReader.of("/* c */ {\"a\": 1 // c\n}");
+            reader.next();
+            reader.skipContainer();
+            assertEquals("jsonc", reader.getFormat());
+        }
+
+        @Test
+        @DisplayName("Reads JSON5 syntax and detects json5")
+        void readsJson5() {
+            JsonStreamingReader reader = JsonStreamingReader.of(
+                    "{unquoted: 'single', hex: 0x1F, half: .5, inf: -Infinity, list: [1, 2,],}");
+            List<Object> values = new ArrayList<>();
+            Token token;
+            while ((token = reader.next()) != Token.END_DOCUMENT) {
+                switch (token) {
+                    case NAME, STRING -> values.add(reader.getStringValue());
+                    case NUMBER -> values.add(reader.getNumberValue());
+                    default -> {
+                    }
+                }
+            }
+            assertEquals(List.of("unquoted", "single", "hex", 31, "half", 0.5,
+                    "inf", Double.NEGATIVE_INFINITY, "list", 1, 2), values);
+            assertEquals("json5", reader.getFormat());
+        }
+    }
+
+    @Nested
+    @DisplayName("Errors")
+    class ErrorTests {
+
+        @Test
+        @DisplayName("Reports line and column of a syntax error")
+        void reportsPosition() {
+            JsonSyntaxException e = assertThrows(JsonSyntaxException.class, () -> tokens("{\n  \"a\": 1\n  \"b\": 2\n}"));
+            assertTrue(e.getMessage().contains("line 3"), e.getMessage());
+        }
+
+        @Test
+        @DisplayName("Rejects unterminated documents")
+        void rejectsUnterminated() {
+            assertThrows(JsonSyntaxException.class, () -> tokens("[1, 2"));
+            assertThrows(JsonSyntaxException.class, () -> tokens("\"open"));
+        }
+
+        @Test
+        @DisplayName("Rejects content after the root value")
+        void rejectsTrailingContent() {
+            assertThrows(JsonSyntaxException.class, () -> tokens("{} {}"));
+        }
+    }
+
+    @Nested
+    @DisplayName("Files")
+    class FileTests {
+
+        @Test
+        @DisplayName("Decodes UTF-8 and reports byte offsets")
+        void reportsByteOffsets() throws IOException {
+            Path file = tempDir.resolve("utf8.json");
+            Files.writeString(file, "[\"äö\", \"😀\", 1]");
+
+            try (JsonStreamingReader reader = JsonStreamingReader.open(file)) {
+                reader.next();
+                assertEquals(Token.STRING, reader.next());
+                assertEquals("äö", reader.getStringValue());
+                assertEquals(Token.STRING, reader.next());
+                assertEquals("😀", reader.getStringValue());
+                assertEquals(7, reader.getTokenStart());
+                assertEquals(9, reader.getTokenSourceOffset());
+                assertEquals(Token.NUMBER, reader.next());
+                assertEquals(13, reader.getTokenStart());
+                assertEquals(17, reader.getTokenSourceOffset());
+            }
+        }
+    }
+}
@@ -16,4 +16,12 @@ class MemoryStatusTest {
         int max = Integer.parseInt(parts[1]);
         assertTrue(used >= 0 && max > 0 && used <= max, "used=" + used + " max=" + max);
     }
+
+    @Test
+    void appendsUndoHistoryFromOneMegabyte() {
+        assertTrue(UnifiedShellView.memoryText(4096).matches("\\d+ / \\d+ MB"),
+                "small histories are not shown");
+        String text = UnifiedShellView.memoryText(3L * 1024 * 1024);
+        assertTrue(text.endsWith(" · undo 3.00 MB"), text);
+    }
 }
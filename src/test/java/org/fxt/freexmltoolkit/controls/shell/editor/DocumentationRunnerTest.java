@@ -6,6 +6,7 @@ import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 
+import org.fxt.freexmltoolkit.service.XsdDocumentationManifest;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
@@ -28,6 +29,30 @@ class DocumentationRunnerTest {
         assertTrue(index.length() > 0, "index.html must not be empty");
     }
 
+    @Test
+    void plainExportStaysFullWithoutManifest(@TempDir Path tmp) {
+        File outDir = tmp.resolve("html").toFile();
+        String result = DocumentationRunner.exportHtml(XSD, outDir);
+
+        assertTrue(result.startsWith("OK:"), result);
+        assertFalse(XsdDocumentationManifest.exists(outDir.toPath()), "a full build writes no manifest");
+    }
+
+    @Test
+    void plainExportIsIncrementalWhenManifestExists(@TempDir Path tmp) {
+        File outDir = tmp.resolve("html").toFile();
+        assertTrue(DocumentationRunner.exportHtml(XSD, outDir, true).startsWith("OK:"));
+        XsdDocumentationManifest.BuildSummary first = XsdDocumentationManifest.load(outDir.toPath()).getLastBuild();
+
+        String result = DocumentationRunner.exportHtml(XSD, outDir);
+
+        assertTrue(result.startsWith("OK:"), result);
+        XsdDocumentationManifest.BuildSummary second = XsdDocumentationManifest.load(outDir.toPath()).getLastBuild();
+        assertTrue(second.incremental(), "the existing manifest must switch the export to incremental mode");
+        assertEquals(0, second.renderedPages());
+        assertEquals(first.renderedPages(), second.skippedPages());
+    }
+
     @Test
     void exportsPdfDocumentation(@TempDir Path tmp) throws Exception {
         File out = tmp.resolve("doc.pdf").toFile();
@@ -68,6 +68,8 @@ class DocumentationViewTest {
 
         assertTrue(view.getStatusText().startsWith("Generated"), view.getStatusText());
         assertTrue(new File(out.toFile(), "index.html").exists(), "HTML site must be written");
+        assertTrue(new File(out.toFile(), "doc-manifest.json").exists(),
+                "HTML is built incrementally, so the manifest must be written");
         assertFalse(view.progressMessages().isEmpty(),
                 "the PROGRESS log must show the pipeline's task messages");
     }
@@ -2,12 +2,17 @@ package org.fxt.freexmltoolkit.controls.shell.editor;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import javafx.stage.Stage;
 
 import org.fxt.freexmltoolkit.controls.jsoneditor.editor.JsonCodeEditor;
 import org.fxt.freexmltoolkit.controls.v2.editor.XmlCodeEditorV2;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.testfx.framework.junit5.ApplicationExtension;
 import org.testfx.framework.junit5.Start;
 import org.testfx.util.WaitForAsyncUtils;
@@ -50,4 +55,21 @@ class EditorViewsTest {
         assertInstanceOf(XmlCodeEditorV2.class, xsd.getNode());
         assertTrue(xml.supportsSchema());
     }
+
+    @Test
+    void filesAboveTheThresholdOpenInTheLargeFileView(@TempDir Path dir) throws Exception {
+        Path small = Files.writeString(dir.resolve("small.xml"), "<a/>");
+        Path large = dir.resolve("large.xml");
+        try (RandomAccessFile file = new RandomAccessFile(large.toFile(), "rw")) {
+            file.setLength(LargeFileEditorView.thresholdBytes()); // sparse: no disk space used
+        }
+        EditorView smallView = WaitForAsyncUtils.waitForAsyncFx(10000,
+                () -> EditorViews.create(OpenDocument.forPath(small)));
+        EditorView largeView = WaitForAsyncUtils.waitForAsyncFx(10000,
+                () -> EditorViews.create(OpenDocument.forPath(large)));
+        assertInstanceOf(XmlEditorView.class, smallView);
+        assertInstanceOf(LargeFileEditorView.class, largeView);
+        assertFalse(largeView.supportsSchema(), "schema detection would parse the whole file");
+        WaitForAsyncUtils.waitForAsyncFx(10000, ((LargeFileEditorView) largeView)::dispose);
+    }
 }
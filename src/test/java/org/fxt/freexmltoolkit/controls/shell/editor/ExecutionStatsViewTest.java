@@ -10,7 +10,9 @@ import javafx.stage.Stage;
 import org.fxt.freexmltoolkit.service.DeveloperPropertyKeys;
 import org.fxt.freexmltoolkit.service.ExecutionStats;
 import org.fxt.freexmltoolkit.service.ExecutionStatsService;
+import org.fxt.freexmltoolkit.service.LatencyHistogram;
 import org.fxt.freexmltoolkit.service.PropertiesServiceImpl;
+import org.fxt.freexmltoolkit.service.ThreadPoolManager;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,8 +22,9 @@ import org.testfx.util.WaitForAsyncUtils;
 
 /**
  * TestFX verification of {@link ExecutionStatsView}: seeded history renders newest
- * first, row selection fills the detail report, Clear empties view + service, and a
- * live-recorded run appends a row via the listener.
+ * first, row selection fills the detail report, Clear empties view + service, a
+ * live-recorded run appends a row via the listener, and the thread-pool table lists
+ * every task category.
  */
 @ExtendWith(ApplicationExtension.class)
 class ExecutionStatsViewTest {
@@ -92,4 +95,28 @@ class ExecutionStatsViewTest {
 
         WaitForAsyncUtils.waitFor(3, TimeUnit.SECONDS, () -> view.getRowCount() == 3);
     }
+
+    @Test
+    void percentileTableListsOperationsWithSuccessfulRuns() throws Exception {
+        // only the XSLT seed run succeeded; the failed validation is not aggregated
+        WaitForAsyncUtils.waitFor(3, TimeUnit.SECONDS, () -> view.getSummaryRowCount() == 1);
+    }
+
+    @Test
+    void threadPoolTableListsEveryTaskCategory() throws Exception {
+        WaitForAsyncUtils.waitFor(3, TimeUnit.SECONDS,
+                () -> view.getPoolRowCount() == ThreadPoolManager.TaskCategory.values().length);
+    }
+
+    @Test
+    void histogramValuesAreFormattedInMicrosOrMillis() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals("-", ExecutionStatsView.formatMicros(histogram.snapshot(), LatencyHistogram.Snapshot::maxMicros));
+
+        histogram.recordMicros(250);
+        assertEquals("250 µs", ExecutionStatsView.formatMicros(histogram.snapshot(), LatencyHistogram.Snapshot::maxMicros));
+
+        histogram.recordMicros(42_000);
+        assertEquals("42 ms", ExecutionStatsView.formatMicros(histogram.snapshot(), LatencyHistogram.Snapshot::maxMicros));
+    }
 }
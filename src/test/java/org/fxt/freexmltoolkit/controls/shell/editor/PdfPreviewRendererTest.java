@@ -5,6 +5,9 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -13,7 +16,8 @@ import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Tests {@link PdfPreviewRenderer} (no UI): reports the page count and renders a
- * single page on demand (lazy — not the whole document), reusing PDFBox.
+ * single page on demand (lazy — not the whole document), reusing PDFBox; an
+ * {@link PdfPreviewRenderer#open open} renderer caches pages by page and DPI.
  */
 class PdfPreviewRendererTest {
 
@@ -44,4 +48,61 @@ class PdfPreviewRendererTest {
         File pdf = twoPagePdf(tmp);
         assertThrows(Exception.class, () -> PdfPreviewRenderer.renderPage(pdf, 9, 96f));
     }
+
+    @Test
+    void openRendererCachesRenderedPages(@TempDir Path tmp) throws Exception {
+        try (PdfPreviewRenderer renderer = PdfPreviewRenderer.open(twoPagePdf(tmp))) {
+            assertEquals(2, renderer.getPageCount());
+            assertNull(renderer.cached(1, 72f));
+            BufferedImage page = renderer.render(1, 72f).get(10, TimeUnit.SECONDS);
+            assertSame(page, renderer.cached(1, 72f));
+            assertSame(page, renderer.render(1, 72f).getNow(null), "cached page completes at once");
+            assertNull(renderer.cached(1, 96f), "the cache is keyed by DPI");
+        }
+    }
+
+    @Test
+    void bestCachedPicksTheSharpestRendering(@TempDir Path tmp) throws Exception {
+        try (PdfPreviewRenderer renderer = PdfPreviewRenderer.open(twoPagePdf(tmp))) {
+            renderer.render(0, 36f).get(10, TimeUnit.SECONDS);
+            BufferedImage sharp = renderer.render(0, 72f).get(10, TimeUnit.SECONDS);
+            assertSame(sharp, renderer.bestCached(0));
+            assertNull(renderer.bestCached(1));
+        }
+    }
+
+    @Test
+    void evictsPagesBeyondTheCacheBudget(@TempDir Path tmp) throws Exception {
+        try (PdfPreviewRenderer renderer = PdfPreviewRenderer.open(twoPagePdf(tmp), 1)) {
+            renderer.render(0, 36f).get(10, TimeUnit.SECONDS);
+            renderer.render(1, 36f).get(10, TimeUnit.SECONDS);
+            assertEquals(1, renderer.cachedCount());
+            assertNotNull(renderer.cached(1, 36f), "the page just rendered is kept");
+        }
+    }
+
+    @Test
+    void prefetchFillsTheCache(@TempDir Path tmp) throws Exception {
+        try (PdfPreviewRenderer renderer = PdfPreviewRenderer.open(twoPagePdf(tmp))) {
+            renderer.render(0, 36f).get(10, TimeUnit.SECONDS);
+            renderer.prefetch(1, 36f);
+            renderer.prefetch(7, 36f); // out of range: ignored
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (renderer.cached(1, 36f) == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertNotNull(renderer.cached(1, 36f));
+            assertEquals(2, renderer.cachedCount());
+        }
+    }
+
+    @Test
+    void openRendererRejectsOutOfRangePageAndUseAfterClose(@TempDir Path tmp) throws Exception {
+        PdfPreviewRenderer renderer = PdfPreviewRenderer.open(twoPagePdf(tmp));
+        CompletableFuture<BufferedImage> outOfRange = renderer.render(5, 72f);
+        ExecutionException error = assertThrows(ExecutionException.class, outOfRange::get);
+        assertInstanceOf(IndexOutOfBoundsException.class, error.getCause());
+        renderer.close();
+        assertTrue(renderer.render(0, 72f).isCompletedExceptionally());
+    }
 }
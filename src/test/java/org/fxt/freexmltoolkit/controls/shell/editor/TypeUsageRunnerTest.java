@@ -28,6 +28,21 @@ class TypeUsageRunnerTest {
         assertTrue(TypeUsageRunner.findUsages(purchaseOrderXsd(), "NoSuchTypeXyz").isEmpty());
     }
 
+    @Test
+    void cachedModelIsReleasedWithTheDocument() throws Exception {
+        Object document = new Object();
+        int before = TypeUsageRunner.cachedDocumentCount();
+        assertFalse(TypeUsageRunner.findUsages(document, purchaseOrderXsd(), "Address").isEmpty());
+        assertEquals(before + 1, TypeUsageRunner.cachedDocumentCount());
+
+        document = null;
+        for (int i = 0; i < 50 && TypeUsageRunner.cachedDocumentCount() > before; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(before, TypeUsageRunner.cachedDocumentCount(), "a closed document must not pin its schema");
+    }
+
     @Test
     void invalidXsdYieldsEmptyList() {
         assertTrue(TypeUsageRunner.findUsages("<not-a-schema/>", "X").isEmpty());
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -125,6 +126,51 @@ class ValidationRunnerTest {
         assertTrue(result.problems().contains(problem));
     }
 
+    @Test
+    void runWithReportMergesProblemsInDocumentOrder(@TempDir Path tmp) throws Exception {
+        // SVRL lists failed asserts before successful reports; the merged list follows the lines
+        Path sch = tmp.resolve("ordered.sch");
+        Files.writeString(sch, """
+                <sch:schema xmlns:sch="http://purl.oclc.org/dsdl/schematron">
+                  <sch:pattern>
+                    <sch:rule context="item">
+                      <sch:assert test="@id">item needs an id</sch:assert>
+                      <sch:report test="@legacy">legacy item</sch:report>
+                    </sch:rule>
+                  </sch:pattern>
+                </sch:schema>
+                """);
+        String xml = "<root>\n<item id='1' legacy='y'/>\n<item/>\n</root>";
+
+        ValidationRunner.RunResult result = ValidationRunner.runWithReport(xml, null, sch.toFile(), "doc.xml");
+
+        List<String> messages = result.problems().stream()
+                .filter(p -> "Schematron".equals(p.source())).map(ValidationProblem::message).toList();
+        assertEquals(List.of("legacy item", "item needs an id"), messages);
+        assertEquals(List.of(2, 3), result.problems().stream()
+                .filter(p -> "Schematron".equals(p.source())).map(ValidationProblem::line).toList());
+        assertTrue(result.wallMillis() >= 0);
+        assertTrue(result.parallelSavingMillis() >= 0
+                && result.parallelSavingMillis() <= result.xsdMillis() + result.schematronMillis());
+    }
+
+    @Test
+    void runWithReportStreamsSchematronProblems(@TempDir Path tmp) throws Exception {
+        Path sch = tmp.resolve("rules.sch");
+        Files.writeString(sch, SCHEMATRON);
+        List<ValidationProblem> streamed = new CopyOnWriteArrayList<>();
+
+        ValidationRunner.RunResult result = ValidationRunner.runWithReport("<root/>\n", null, sch.toFile(),
+                "doc.xml", streamed::add);
+
+        assertEquals(1, streamed.size(), streamed.toString());
+        ValidationProblem problem = streamed.get(0);
+        assertEquals("Schematron", problem.source());
+        assertTrue(problem.message().contains("name child"));
+        assertEquals(1, problem.line(), "streamed findings are resolved to their line");
+        assertTrue(result.problems().stream().anyMatch(p -> p.message().equals(problem.message())));
+    }
+
     @Test
     void runWithReportHasNoReportWithoutSchematron() {
         ValidationRunner.RunResult result =
@@ -2,17 +2,28 @@ package org.fxt.freexmltoolkit.controls.shell.editor;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
+
+import org.fxt.freexmltoolkit.service.XsltTransformationEngine;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Turns an XQuery result sequence into a tabular model for the shell's XQuery console: a sequence of
  * elements becomes rows with columns derived from their child elements (or attributes); a sequence of
- * atomic values becomes a single "value" column.
+ * atomic values becomes a single "value" column. Long results are read page by page and exported in full.
  */
 class XQueryTableRunnerTest {
 
+    @TempDir
+    Path tempDir;
+
     private static final String XML = """
             <order>
               <item><sku>A</sku><qty>2</qty></item>
@@ -22,7 +33,7 @@ class XQueryTableRunnerTest {
 
     @Test
     void elementSequenceBecomesColumnsFromChildElements() {
-        XQueryTableRunner.XQueryTable t = XQueryTableRunner.run(XML, "for $i in /order/item return $i");
+        XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(XML, "for $i in /order/item return $i");
         assertFalse(t.isError(), t.error());
         assertEquals(List.of("sku", "qty"), t.columns());
         assertEquals(2, t.rows().size());
@@ -33,7 +44,7 @@ class XQueryTableRunnerTest {
     @Test
     void atomicSequenceBecomesSingleValueColumn() {
         XQueryTableRunner.XQueryTable t =
-                XQueryTableRunner.run(XML, "for $i in /order/item return string($i/sku)");
+                XQueryTableRunner.open(XML, "for $i in /order/item return string($i/sku)");
         assertFalse(t.isError(), t.error());
         assertEquals(List.of("value"), t.columns());
         assertEquals(List.of(List.of("A"), List.of("B")), t.rows());
@@ -42,7 +53,7 @@ class XQueryTableRunnerTest {
     @Test
     void attributeSequenceBecomesColumnsFromAttributes() {
         String xml = "<r><row id=\"1\" name=\"x\"/><row id=\"2\" name=\"y\"/></r>";
-        XQueryTableRunner.XQueryTable t = XQueryTableRunner.run(xml, "/r/row");
+        XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(xml, "/r/row");
         assertFalse(t.isError(), t.error());
         assertEquals(List.of("id", "name"), t.columns());
         assertEquals(List.of("1", "x"), t.rows().get(0));
@@ -51,8 +62,99 @@ class XQueryTableRunnerTest {
 
     @Test
     void invalidXQueryYieldsError() {
-        XQueryTableRunner.XQueryTable t = XQueryTableRunner.run(XML, "for $i in (((");
+        XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(XML, "for $i in (((");
         assertTrue(t.isError(), "a malformed query must surface an error");
         assertTrue(t.rows().isEmpty());
     }
+
+    @Test
+    void longResultsAreReadPageByPage() {
+        String query = "for $i in 1 to " + (XQueryTableRunner.PAGE_SIZE * 2 + 5) + " return $i";
+        try (XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(XML, query)) {
+            assertFalse(t.isError(), t.error());
+            assertEquals(XQueryTableRunner.PAGE_SIZE, t.rows().size(), "only the first page is read up front");
+            assertFalse(t.isExhausted());
+            assertFalse(t.isEmpty());
+
+            assertEquals(XQueryTableRunner.PAGE_SIZE, t.fetchMore(XQueryTableRunner.PAGE_SIZE).size());
+            List<List<String>> last = t.fetchMore(XQueryTableRunner.PAGE_SIZE);
+            assertEquals(5, last.size());
+            assertEquals(List.of(String.valueOf(XQueryTableRunner.PAGE_SIZE * 2 + 5)), last.get(4));
+            assertTrue(t.isExhausted());
+            assertTrue(t.fetchMore(XQueryTableRunner.PAGE_SIZE).isEmpty());
+            assertEquals(XQueryTableRunner.PAGE_SIZE * 2 + 5, t.rows().size());
+        }
+    }
+
+    @Test
+    void textOfATabularResultIsSerializedFromTheFirstPageOnly() {
+        String query = "for $i in 1 to " + (XQueryTableRunner.PAGE_SIZE + 1) + " return <row><n>{$i}</n></row>";
+        try (XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(XML, query, Map.of(),
+                XsltTransformationEngine.OutputFormat.XML)) {
+            assertTrue(t.isTabular());
+            assertTrue(t.text().contains("<n>" + XQueryTableRunner.PAGE_SIZE + "</n>"));
+            assertFalse(t.text().contains("<n>" + (XQueryTableRunner.PAGE_SIZE + 1) + "</n>"),
+                    "items after the first page are not serialized");
+            assertTrue(t.text().contains("first " + XQueryTableRunner.PAGE_SIZE + " items"));
+        }
+
+        XQueryTableRunner.XQueryTable small = XQueryTableRunner.open(XML, "/order/item", Map.of(),
+                XsltTransformationEngine.OutputFormat.XML);
+        assertTrue(small.text().contains("<sku>B</sku>"));
+        assertFalse(small.text().contains("first "), "a complete result carries no truncation note");
+    }
+
+    @Test
+    void externalVariablesAreBound() {
+        XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(XML,
+                "declare variable $sku external; /order/item[sku = $sku]/qty/string()",
+                Map.of("sku", "B"), XsltTransformationEngine.OutputFormat.XML);
+        assertFalse(t.isError(), t.error());
+        assertEquals(List.of(List.of("5")), t.rows());
+    }
+
+    @Test
+    void columnsOfLaterItemsAreDiscoveredIncrementally() {
+        String xml = "<r><row><a>1</a></row><row><a>2</a><b>x</b></row></r>";
+        XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(xml, "/r/row");
+        assertFalse(t.isError(), t.error());
+        assertEquals(List.of("a", "b"), t.columns());
+        assertEquals(List.of("1"), t.rows().get(0), "the first row was read before column b existed");
+        assertEquals(List.of("2", "x"), t.rows().get(1));
+    }
+
+    @Test
+    void emptyResultIsEmpty() {
+        XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(XML, "()");
+        assertFalse(t.isError(), t.error());
+        assertTrue(t.isEmpty());
+    }
+
+    @Test
+    void csvExportWritesTheFullResultWithAllColumns() throws IOException {
+        String xml = "<r><row><a>1</a></row><row><a>2, 3</a><b>x</b></row></r>";
+        XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(xml, "/r/row");
+        t.close(); // export evaluates the query again, independent of the displayed rows
+        Path csv = tempDir.resolve("result.csv");
+
+        assertEquals(2, XQueryTableExporter.exportCsv(t, csv));
+        assertEquals("a,b\n1,\n\"2, 3\",x\n", Files.readString(csv, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void xlsxExportWritesEveryRow() throws IOException {
+        String query = "for $i in 1 to " + (XQueryTableRunner.PAGE_SIZE + 1) + " return <row><n>{$i}</n></row>";
+        XQueryTableRunner.XQueryTable t = XQueryTableRunner.open(XML, query);
+        Path xlsx = tempDir.resolve("result.xlsx");
+
+        assertEquals(XQueryTableRunner.PAGE_SIZE + 1, XQueryTableExporter.exportXlsx(t, xlsx));
+        try (var workbook = new org.apache.poi.xssf.usermodel.XSSFWorkbook(xlsx.toFile())) {
+            var sheet = workbook.getSheetAt(0);
+            assertEquals("n", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals(String.valueOf(XQueryTableRunner.PAGE_SIZE + 1),
+                    sheet.getRow(XQueryTableRunner.PAGE_SIZE + 1).getCell(0).getStringCellValue());
+        } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
+            throw new IOException(e);
+        }
+    }
 }
@@ -0,0 +1,266 @@
+package org.fxt.freexmltoolkit.controls.shell.editor.largefile;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link LargeDocument} and its {@link LineIndex}: line lookups before
+ * and after edits, streaming search, XPath location and saving.
+ */
+class LargeDocumentTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LargeDocument document;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (document != null) {
+            document.close();
+        }
+    }
+
+    private LargeDocument open(String content) throws IOException {
+        Path path = tempDir.resolve("doc.xml");
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        document = LargeDocument.open(path);
+        return document;
+    }
+
+    /** Many short lines, so the index needs line checkpoints. */
+    private static String numberedLines(int count) {
+        StringBuilder sb = new StringBuilder("<lines>\n");
+        for (int i = 1; i <= count; i++) {
+            sb.append("  <line n=\"").append(i).append("\"/>\n");
+        }
+        return sb.append("</lines>").toString();
+    }
+
+    /** Byte offset of the first occurrence of {@code marker} in the UTF-8 encoding of {@code content}. */
+    private static long byteOffset(String content, String marker) {
+        return content.substring(0, content.indexOf(marker)).getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Test
+    @DisplayName("The line index finds line starts and lines of offsets")
+    void lineIndexLookups() throws IOException {
+        String content = numberedLines(1000);
+        LargeDocument doc = open(content);
+        doc.buildIndex();
+        assertTrue(doc.getLineIndex().isComplete());
+        assertEquals(1002, doc.getLineCount());
+        for (int line : new int[] {0, 1, 127, 128, 129, 500, 1001}) {
+            int expected = 0;
+            for (int i = 0; i < line; i++) {
+                expected = content.indexOf('\n', expected) + 1;
+            }
+            assertEquals(expected, doc.lineStart(line), "start of line " + line);
+            assertEquals(line, doc.lineOf(expected), "line of offset " + expected);
+        }
+        assertEquals(-1, doc.lineStart(1002), "no such line");
+    }
+
+    @Test
+    @DisplayName("A single very long line gets byte checkpoints")
+    void longLineUsesByteCheckpoints() throws IOException {
+        String content = "<r>" + "x".repeat(LineIndex.BYTES_PER_CHECKPOINT * 3) + "</r>\n<tail/>";
+        LargeDocument doc = open(content);
+        doc.buildIndex();
+        assertEquals(2, doc.getLineCount());
+        assertEquals(0, doc.lineOf(LineIndex.BYTES_PER_CHECKPOINT * 2L));
+        assertEquals(content.indexOf("<tail/>"), doc.lineStart(1));
+    }
+
+    @Test
+    @DisplayName("Line lookups account for edits")
+    void linesAfterEdits() throws IOException {
+        LargeDocument doc = open(numberedLines(300));
+        doc.buildIndex();
+        long line10 = doc.lineStart(10);
+        doc.replace(line10, line10, "  <inserted/>\n  <inserted/>\n");
+        assertEquals(304, doc.getLineCount());
+        assertEquals("  <inserted/>", doc.text(doc.lineStart(11), doc.lineStart(12) - 1));
+        assertTrue(doc.text(doc.lineStart(12), doc.lineStart(13)).contains("n=\"10\""));
+        assertEquals(250, doc.lineOf(doc.lineStart(250)));
+        long line0End = doc.lineStart(1);
+        doc.replace(0, line0End, "");
+        assertEquals(303, doc.getLineCount());
+        assertTrue(doc.text(0, doc.lineStart(1)).contains("n=\"1\""));
+    }
+
+    @Test
+    @DisplayName("Lines are found before the index is complete")
+    void lookupsWithPartialIndex() throws IOException {
+        LargeDocument doc = open(numberedLines(50));
+        assertFalse(doc.getLineIndex().isComplete());
+        assertEquals(-1, doc.getLineCount());
+        assertEquals(0, doc.lineStart(0));
+        assertEquals(-1, doc.lineOf(doc.length()), "nothing indexed yet");
+    }
+
+    @Test
+    @DisplayName("Alignment stops at line ends and never splits a UTF-8 character")
+    void alignment() throws IOException {
+        LargeDocument doc = open("<a>\n<b>äöü€</b>\n</a>");
+        assertEquals(4, doc.alignToLineStart(8, 100));
+        assertEquals(21, doc.alignToLineEnd(8, 100), "just after the second line feed");
+        // "<b>" is 3 bytes, 'ä' starts at 7 and takes two; offset 8 is inside it
+        assertEquals(7, doc.alignToLineStart(8, 1));
+        assertEquals(7, doc.alignToLineEnd(7, 1));
+    }
+
+    @Test
+    @DisplayName("Search streams across chunks and folds ASCII case on request")
+    void search() throws IOException {
+        String content = "<a>" + "y".repeat((1 << 20) - 5) + "NeedleX</a><b>needle</b>";
+        LargeDocument doc = open(content);
+        assertEquals(content.indexOf("Needle"), doc.find("Needle", 0, true), "match spans the chunk boundary");
+        assertEquals(content.indexOf("needle"), doc.find("needle", 0, true));
+        assertEquals(content.indexOf("Needle"), doc.find("needle", 0, false));
+        assertEquals(content.indexOf("needle"), doc.find("needle", content.indexOf("Needle") + 1, false));
+        assertEquals(-1, doc.find("missing", 0, true));
+    }
+
+    @Test
+    @DisplayName("Search sees edits")
+    void searchSeesEdits() throws IOException {
+        LargeDocument doc = open("<a><b/></a>");
+        doc.replace(3, 7, "<found/>");
+        assertEquals(3, doc.find("<found/>", 0, true));
+        assertEquals(-1, doc.snapshot().find("<b/>", 0, true));
+    }
+
+    @Test
+    @DisplayName("Location paths resolve to the start tag of the selected element")
+    void locateXPath() throws Exception {
+        String content = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <p:orders xmlns:p="urn:x">
+                  <order id="1"><item>ä</item></order>
+                  <order id="2">
+                    <item>first</item>
+                    <item>second</item>
+                  </order>
+                </p:orders>
+                """;
+        LargeDocument doc = open(content);
+        doc.buildIndex();
+        assertEquals(byteOffset(content, "<p:orders"), doc.locate("/p:orders"));
+        assertEquals(byteOffset(content, "<order id=\"2\""), doc.locate("/orders/order[2]"));
+        assertEquals(byteOffset(content, "<item>second"), doc.locate("/orders/order[2]/item[2]"));
+        assertEquals(byteOffset(content, "<item>second"), doc.locate("/orders/order[2]/item[2]/text()"));
+        assertEquals(byteOffset(content, "<item>ä"), doc.locate("/orders/*[1]/item"));
+        assertEquals(byteOffset(content, "<order id=\"1\""), doc.locate("/orders/order/@id"));
+        assertEquals(-1, doc.locate("/orders/order[3]"));
+        assertThrows(IllegalArgumentException.class, () -> doc.locate("//item"));
+        assertThrows(IllegalArgumentException.class, () -> doc.locate("/orders/order[@id='2']"));
+    }
+
+    @Test
+    @DisplayName("Saving over the source writes the edits and remaps the file")
+    void saveOverSource() throws IOException {
+        LargeDocument doc = open("<a>old</a>");
+        doc.replace(3, 6, "new");
+        Path path = doc.getPath();
+        document = doc.saveTo(path);
+        assertEquals("<a>new</a>", Files.readString(path, StandardCharsets.UTF_8));
+        assertFalse(document.isModified());
+        assertEquals("<a>new</a>", document.text(0, document.length()));
+        try (var files = Files.list(tempDir)) {
+            assertEquals(1, files.count(), "no temporary file left behind");
+        }
+    }
+
+    @Test
+    @DisplayName("Saving over the source keeps its file permissions")
+    void saveKeepsPermissions() throws IOException {
+        LargeDocument doc = open("<a>old</a>");
+        Path path = doc.getPath();
+        assumeTrue(Files.getFileStore(path).supportsFileAttributeView(PosixFileAttributeView.class),
+                "POSIX permissions not supported");
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        Files.setPosixFilePermissions(path, permissions);
+        doc.replace(3, 6, "new");
+
+        document = doc.saveTo(path);
+
+        assertEquals(permissions, Files.getPosixFilePermissions(path));
+    }
+
+    @Test
+    @DisplayName("Saving to another file leaves the source untouched")
+    void saveAs() throws IOException {
+        LargeDocument doc = open("<a/>");
+        doc.replace(0, 0, "<?xml version=\"1.0\"?>");
+        Path target = tempDir.resolve("copy.xml");
+        document = doc.saveTo(target);
+        assertEquals("<?xml version=\"1.0\"?><a/>", Files.readString(target, StandardCharsets.UTF_8));
+        assertEquals("<a/>", Files.readString(tempDir.resolve("doc.xml"), StandardCharsets.UTF_8));
+        assertEquals(target.toAbsolutePath(), document.getPath());
+    }
+
+    @Test
+    @DisplayName("A declared single-byte encoding is decoded and edited in that encoding")
+    void declaredSingleByteEncoding() throws IOException {
+        Path path = tempDir.resolve("latin.xml");
+        String content = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\r\n<a>Größe</a>\n";
+        Files.writeString(path, content, StandardCharsets.ISO_8859_1);
+        document = LargeDocument.open(path);
+        assertEquals(StandardCharsets.ISO_8859_1, document.getCharset());
+        assertTrue(document.isEditable());
+        assertEquals(content, document.decode(0, document.length()));
+
+        long start = content.indexOf("Größe"); // one byte per character
+        document.replace(start, start + 5, "Maß");
+        document = document.saveTo(path);
+        assertEquals(content.replace("Größe", "Maß"), Files.readString(path, StandardCharsets.ISO_8859_1));
+        assertThrows(CharacterCodingException.class, () -> document.replace(0, 0, "€"));
+    }
+
+    @Test
+    @DisplayName("Bytes that are not valid in the charset fail the strict decode")
+    void strictDecode() throws IOException {
+        Path path = tempDir.resolve("broken.xml");
+        Files.write(path, new byte[] {'<', 'a', '>', (byte) 0xFC, '<', '/', 'a', '>'});
+        document = LargeDocument.open(path);
+        assertEquals(StandardCharsets.UTF_8, document.getCharset());
+        assertThrows(CharacterCodingException.class, () -> document.decode(0, document.length()));
+        assertTrue(document.text(0, document.length()).contains("\uFFFD"));
+    }
+
+    @Test
+    @DisplayName("UTF-16 documents are read-only")
+    void utf16IsReadOnly() throws IOException {
+        Path path = tempDir.resolve("wide.xml");
+        Files.write(path, "\uFEFF<a/>".getBytes(StandardCharsets.UTF_16LE));
+        document = LargeDocument.open(path);
+        assertEquals(StandardCharsets.UTF_16LE, document.getCharset());
+        assertFalse(document.isEditable());
+        assertThrows(IllegalStateException.class, () -> document.replace(0, 0, "x"));
+    }
+
+    @Test
+    @DisplayName("Encoded lengths count UTF-8 bytes, surrogate pairs included")
+    void encodedLength() throws IOException {
+        LargeDocument doc = open("<a/>");
+        String text = "aä€\uD83D\uDE00b";
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, doc.encodedLength(text, text.length()));
+        assertEquals(1 + 2 + 3, doc.encodedLength(text, 3));
+    }
+}
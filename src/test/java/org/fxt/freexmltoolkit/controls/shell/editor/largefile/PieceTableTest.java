@@ -0,0 +1,133 @@
+package org.fxt.freexmltoolkit.controls.shell.editor.largefile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for {@link PieceTable}: edits over a mapped file, reads across pieces,
+ * snapshots and streaming output.
+ */
+class PieceTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    private MappedFile file;
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    private PieceTable table(String content) throws IOException {
+        Path path = tempDir.resolve("doc.xml");
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        file = MappedFile.open(path);
+        return new PieceTable(file);
+    }
+
+    private static String text(PieceTable table) {
+        byte[] bytes = new byte[(int) table.length()];
+        int n = table.read(0, bytes, 0, bytes.length);
+        return new String(bytes, 0, n, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("An unedited table reads the file and has one piece")
+    void uneditedTable() throws IOException {
+        PieceTable table = table("<root/>");
+        assertEquals(7, table.length());
+        assertEquals(1, table.pieceCount());
+        assertFalse(table.isModified());
+        assertEquals("<root/>", text(table));
+    }
+
+    @Test
+    @DisplayName("Insert, delete and replace compose like string edits")
+    void editsComposeLikeStringEdits() throws IOException {
+        PieceTable table = table("<a><b/></a>");
+        table.replace(3, 0, "<c/>".getBytes(StandardCharsets.UTF_8));
+        assertEquals("<a><c/><b/></a>", text(table));
+        table.replace(7, 4, new byte[0]);
+        assertEquals("<a><c/></a>", text(table));
+        table.replace(4, 1, "d".getBytes(StandardCharsets.UTF_8));
+        assertEquals("<a><d/></a>", text(table));
+        assertTrue(table.isModified());
+        assertEquals(11, table.length());
+    }
+
+    @Test
+    @DisplayName("Consecutive typing extends one added piece")
+    void consecutiveInsertsShareAPiece() throws IOException {
+        PieceTable table = table("<a></a>");
+        table.replace(3, 0, "x".getBytes(StandardCharsets.UTF_8));
+        int pieces = table.pieceCount();
+        table.replace(4, 0, "y".getBytes(StandardCharsets.UTF_8));
+        table.replace(5, 0, "z".getBytes(StandardCharsets.UTF_8));
+        assertEquals(pieces, table.pieceCount());
+        assertEquals("<a>xyz</a>", text(table));
+    }
+
+    @Test
+    @DisplayName("Reads spanning several pieces and single bytes agree")
+    void readsAcrossPieces() throws IOException {
+        PieceTable table = table("0123456789");
+        table.replace(2, 2, "ab".getBytes(StandardCharsets.UTF_8));
+        table.replace(7, 1, "XYZ".getBytes(StandardCharsets.UTF_8));
+        String expected = "01ab456XYZ89";
+        assertEquals(expected, text(table));
+        for (int i = 0; i < expected.length(); i++) {
+            assertEquals(expected.charAt(i), (char) table.byteAt(i));
+        }
+        byte[] middle = new byte[6];
+        assertEquals(6, table.read(3, middle, 0, 6));
+        assertEquals("b456XY", new String(middle, StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("A snapshot keeps its content while the table is edited further")
+    void snapshotIsStable() throws IOException {
+        PieceTable table = table("<a/>");
+        table.replace(0, 0, "<!-- x -->".getBytes(StandardCharsets.UTF_8));
+        PieceTable snapshot = table.snapshot();
+        table.replace(0, table.length(), "changed".repeat(1000).getBytes(StandardCharsets.UTF_8));
+        assertEquals("<!-- x --><a/>", text(snapshot));
+        assertThrows(UnsupportedOperationException.class,
+                () -> snapshot.replace(0, 0, new byte[] {'x'}));
+    }
+
+    @Test
+    @DisplayName("writeTo and the input stream produce the edited document")
+    void streamsTheEditedDocument() throws IOException {
+        PieceTable table = table("<r>old</r>");
+        table.replace(3, 3, "new value".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.writeTo(Channels.newChannel(out));
+        assertEquals("<r>new value</r>", out.toString(StandardCharsets.UTF_8));
+        try (InputStream in = table.newInputStream(3)) {
+            assertEquals("new value</r>", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    @DisplayName("Out-of-range edits are rejected")
+    void rejectsOutOfRangeEdits() throws IOException {
+        PieceTable table = table("abc");
+        assertThrows(IndexOutOfBoundsException.class, () -> table.replace(2, 5, new byte[0]));
+        assertThrows(IndexOutOfBoundsException.class, () -> table.replace(-1, 0, new byte[0]));
+    }
+}
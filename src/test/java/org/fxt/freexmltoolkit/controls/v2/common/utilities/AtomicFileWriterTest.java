@@ -0,0 +1,185 @@
+package org.fxt.freexmltoolkit.controls.v2.common.utilities;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("AtomicFileWriter Tests")
+class AtomicFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Path> backedUp = new ArrayList<>();
+
+    private Path backup(Path existing) {
+        backedUp.add(existing);
+        return existing.resolveSibling(existing.getFileName() + ".bak");
+    }
+
+    private boolean hasTempFiles() throws IOException {
+        try (var files = Files.list(tempDir)) {
+            return files.anyMatch(file -> file.getFileName().toString().endsWith(".tmp"));
+        }
+    }
+
+    @Test
+    @DisplayName("Creates a missing file without a backup")
+    void createsNewFile() throws IOException {
+        Path target = tempDir.resolve("new.xml");
+
+        AtomicFileWriter.Result result = AtomicFileWriter.write(target, StandardCharsets.UTF_8,
+                out -> out.write("<new/>"), this::backup);
+
+        assertTrue(result.written());
+        assertNull(result.backupPath());
+        assertEquals(6, result.bytes());
+        assertEquals("<new/>", Files.readString(target));
+        assertTrue(backedUp.isEmpty());
+        assertFalse(hasTempFiles());
+    }
+
+    @Test
+    @DisplayName("Leaves identical content untouched and skips the backup")
+    void skipsUnchangedContent() throws IOException {
+        Path target = tempDir.resolve("same.xml");
+        Files.writeString(target, "<same>ä</same>");
+
+        AtomicFileWriter.Result result = AtomicFileWriter.write(target, StandardCharsets.UTF_8,
+                out -> out.write("<same>ä</same>"), this::backup);
+
+        assertFalse(result.written());
+        assertTrue(backedUp.isEmpty(), "unchanged files are not backed up");
+        assertFalse(hasTempFiles());
+    }
+
+    @Test
+    @DisplayName("Backs up and replaces changed content")
+    void replacesChangedContent() throws IOException {
+        Path target = tempDir.resolve("doc.xml");
+        Files.writeString(target, "<old/>");
+
+        AtomicFileWriter.Result result = AtomicFileWriter.write(target, StandardCharsets.UTF_8,
+                out -> out.write("<new/>"), this::backup);
+
+        assertTrue(result.written());
+        assertEquals(List.of(target.toAbsolutePath()), backedUp);
+        assertEquals(target.toAbsolutePath().resolveSibling("doc.xml.bak"), result.backupPath());
+        assertEquals("<new/>", Files.readString(target));
+        assertFalse(hasTempFiles());
+    }
+
+    @Test
+    @DisplayName("A failing writer leaves the target as it was")
+    void failedWriteKeepsTarget() throws IOException {
+        Path target = tempDir.resolve("keep.xml");
+        Files.writeString(target, "<keep/>");
+
+        assertThrows(IOException.class, () -> AtomicFileWriter.write(target, StandardCharsets.UTF_8, out -> {
+            out.write("<partial");
+            throw new IOException("serializer failed");
+        }, this::backup));
+
+        assertEquals("<keep/>", Files.readString(target));
+        assertTrue(backedUp.isEmpty());
+        assertFalse(hasTempFiles());
+    }
+
+    @Test
+    @DisplayName("Staged content can be discarded and not committed twice")
+    void stagedLifecycle() throws IOException {
+        Path target = tempDir.resolve("staged.xml");
+        Files.writeString(target, "<before/>");
+
+        AtomicFileWriter.Staged discarded = AtomicFileWriter.stage(target, StandardCharsets.UTF_8,
+                out -> out.write("<after/>"));
+        assertFalse(discarded.unchanged());
+        discarded.discard();
+        assertEquals("<before/>", Files.readString(target));
+        assertFalse(hasTempFiles());
+        assertThrows(IllegalStateException.class, () -> discarded.commit(null));
+
+        AtomicFileWriter.Staged staged = AtomicFileWriter.stage(target, StandardCharsets.UTF_8,
+                out -> out.write("<after/>"));
+        assertTrue(staged.commit(null).written());
+        assertEquals("<after/>", Files.readString(target));
+        assertThrows(IllegalStateException.class, () -> staged.commit(null));
+    }
+
+    @Test
+    @DisplayName("Writing through a symbolic link replaces the linked file and keeps the link")
+    void keepsSymbolicLink() throws IOException {
+        Path real = Files.createDirectories(tempDir.resolve("real")).resolve("linked.xml");
+        Files.writeString(real, "<before/>");
+        Path link = tempDir.resolve("link.xml");
+        try {
+            Files.createSymbolicLink(link, real);
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeTrue(false, "symbolic links not supported: " + e.getMessage());
+        }
+
+        AtomicFileWriter.write(link, StandardCharsets.UTF_8, out -> out.write("<after/>"), null);
+
+        assertTrue(Files.isSymbolicLink(link));
+        assertEquals("<after/>", Files.readString(real));
+        assertFalse(hasTempFiles());
+    }
+
+    @Test
+    @DisplayName("Writing a file with several hard links keeps the links")
+    void keepsHardLinks() throws IOException {
+        Path target = tempDir.resolve("target.xml");
+        Files.writeString(target, "<before/>");
+        Path other = tempDir.resolve("other.xml");
+        try {
+            Files.createLink(other, target);
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeTrue(false, "hard links not supported: " + e.getMessage());
+        }
+
+        AtomicFileWriter.write(target, "<after/>".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("<after/>", Files.readString(other));
+        assertTrue(Files.isSameFile(target, other));
+        assertFalse(hasTempFiles());
+    }
+
+    @Test
+    @DisplayName("Byte content always replaces the target and creates missing directories")
+    void writesBytes() throws IOException {
+        Path target = tempDir.resolve("nested/dir/data.bin");
+
+        AtomicFileWriter.write(target, new byte[] {1, 2, 3});
+        AtomicFileWriter.write(target, new byte[] {4, 5});
+
+        assertArrayEquals(new byte[] {4, 5}, Files.readAllBytes(target));
+    }
+
+    @Test
+    @DisplayName("A failed commit keeps the temporary file when asked to")
+    void keepsTemporaryFileOnFailure() throws IOException {
+        Path target = Files.createDirectories(tempDir.resolve("occupied.xml"));
+        Files.writeString(target.resolve("child.txt"), "blocks replacing the directory");
+
+        AtomicFileWriter.Staged staged = AtomicFileWriter.stage(target,
+                channel -> channel.write(ByteBuffer.wrap(new byte[] {1}))).keepTemporaryFileOnFailure();
+        Path temp = staged.temporaryFile();
+
+        assertThrows(IOException.class, () -> staged.commit(null));
+        assertTrue(Files.isRegularFile(temp));
+        assertEquals(temp, staged.temporaryFile());
+        staged.discard();
+        assertFalse(Files.exists(temp));
+    }
+}
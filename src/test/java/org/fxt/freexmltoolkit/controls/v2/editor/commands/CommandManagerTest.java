@@ -7,6 +7,14 @@ import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.fxt.freexmltoolkit.controls.v2.editor.core.AbstractCommandManager;
+import org.fxt.freexmltoolkit.controls.v2.editor.core.RetainedSize;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdAppInfo;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdDocumentation;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdElement;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdFacet;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdFacetType;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdRestriction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.DisplayName;
@@ -322,6 +330,75 @@ class CommandManagerTest {
         assertEquals(1, commandManager.getRedoStackSize());
     }
 
+    @Test
+    @DisplayName("Should evict the oldest commands when the memory budget is exceeded")
+    void testMemoryBudgetEvictsOldest() {
+        commandManager.setMemoryBudget(1_000);
+
+        commandManager.executeCommand(new SizedCommand(400));
+        commandManager.executeCommand(new SizedCommand(400));
+        assertEquals(2, commandManager.getUndoStackSize());
+        assertEquals(800, commandManager.getHistoryBytes());
+
+        commandManager.executeCommand(new SizedCommand(400));
+        assertEquals(2, commandManager.getUndoStackSize(), "oldest command must be dropped");
+        assertEquals(800, commandManager.getHistoryBytes());
+
+        // a single command over budget is still kept, so the last step can always be undone
+        commandManager.executeCommand(new SizedCommand(5_000));
+        assertEquals(1, commandManager.getUndoStackSize());
+        assertTrue(commandManager.canUndo());
+
+        commandManager.clear();
+        assertEquals(0, commandManager.getHistoryBytes());
+    }
+
+    @Test
+    @DisplayName("Should count a deleted subtree only while it is detached")
+    void testDeletedSubtreeIsCountedWhileDetached() {
+        XsdElement parent = new XsdElement("parent");
+        XsdElement deleted = new XsdElement("deleted");
+        parent.addChild(deleted);
+        for (int i = 0; i < 50; i++) {
+            deleted.addChild(new XsdElement("child" + i));
+        }
+        List<Object> footprints = new ArrayList<>();
+        commandManager.addPropertyChangeListener("historyBytes", evt -> footprints.add(evt.getNewValue()));
+
+        commandManager.executeCommand(new DeleteNodeCommand(deleted));
+        long whileDeleted = commandManager.getHistoryBytes();
+        assertTrue(whileDeleted > 51 * RetainedSize.NODE_OVERHEAD, "whole subtree counted: " + whileDeleted);
+        assertFalse(footprints.isEmpty(), "historyBytes changes must be observable");
+
+        commandManager.undo();
+        assertEquals(RetainedSize.COMMAND_OVERHEAD, commandManager.getHistoryBytes(),
+                "a restored node is shared with the schema, not retained by the history");
+        assertTrue(AbstractCommandManager.totalFootprint().bytes() >= RetainedSize.COMMAND_OVERHEAD);
+    }
+
+    @Test
+    @DisplayName("Should count documentation, appinfo and facet values of a deleted subtree")
+    void testDeletedSubtreeCountsAnnotationsAndFacets() {
+        XsdElement parent = new XsdElement("parent");
+        XsdElement deleted = new XsdElement("deleted");
+        parent.addChild(deleted);
+        String text = "x".repeat(10_000);
+        deleted.addDocumentation(new XsdDocumentation(text, "en"));
+        deleted.addDocumentation(new XsdDocumentation(text, "de"));
+        XsdAppInfo appinfo = new XsdAppInfo();
+        appinfo.addEntry("source", text);
+        deleted.setAppinfo(appinfo);
+        XsdRestriction restriction = new XsdRestriction("xs:string");
+        restriction.addFacet(new XsdFacet(XsdFacetType.PATTERN, text));
+        deleted.addChild(restriction);
+
+        commandManager.executeCommand(new DeleteNodeCommand(deleted));
+
+        assertTrue(commandManager.getHistoryBytes() > 4 * 2L * text.length(),
+                "both documentations, the appinfo and the facet value are counted: "
+                        + commandManager.getHistoryBytes());
+    }
+
     // ========== HELPER TEST CLASSES ==========
 
     /**
@@ -455,4 +532,35 @@ class CommandManagerTest {
             return "Execution Failing Command";
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Test command that reports a fixed retained size.
+     */
+    private static class SizedCommand implements XsdCommand {
+        private final long bytes;
+
+        SizedCommand(long bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public boolean execute() {
+            return true;
+        }
+
+        @Override
+        public boolean undo() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return "Sized Command";
+        }
+
+        @Override
+        public long estimatedRetainedBytes() {
+            return bytes;
+        }
+    }
+}
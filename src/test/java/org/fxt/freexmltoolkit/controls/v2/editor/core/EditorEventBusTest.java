@@ -0,0 +1,276 @@
+/*
+ * FreeXMLToolkit - Universal Toolkit for XML
+ * Copyright (c) Karl Kauc 2025.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+
+package org.fxt.freexmltoolkit.controls.v2.editor.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("EditorEventBus")
+class EditorEventBusTest {
+
+    /**
+     * Executor that collects tasks until a "frame" is run, standing in for the FX pulse.
+     */
+    private static final class FrameExecutor implements Executor {
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(Runnable command) {
+            tasks.add(command);
+        }
+
+        int runFrame() {
+            int count = tasks.size();
+            for (int i = 0; i < count; i++) {
+                tasks.poll().run();
+            }
+            return count;
+        }
+    }
+
+    private final FrameExecutor ui = new FrameExecutor();
+
+    private EditorEventBus newBus(int maxPending, boolean onUiThread) {
+        return new EditorEventBus(ui, () -> onUiThread, maxPending);
+    }
+
+    @Nested
+    @DisplayName("Batched delivery")
+    class BatchedDeliveryTests {
+
+        @Test
+        @DisplayName("A burst of events is drained by a single scheduled task")
+        void burstSchedulesOneDrain() {
+            EditorEventBus bus = newBus(100, false);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.SCHEMA_CHANGED, received::add);
+
+            for (int i = 0; i < 50; i++) {
+                bus.publish(new EditorEvent.SchemaChangedEvent(i % 2 == 0));
+            }
+
+            assertEquals(1, ui.runFrame());
+            assertEquals(50, received.size());
+            assertEquals(0, ui.runFrame(), "nothing left to drain");
+        }
+
+        @Test
+        @DisplayName("Events published during delivery are delivered in the next pass")
+        void reentrantPublishIsDeferred() {
+            EditorEventBus bus = newBus(100, false);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.VALIDATION_REQUESTED,
+                    event -> bus.publish(new EditorEvent.ValidationCompletedEvent(false, 0)));
+            bus.subscribe(EditorEvent.Type.VALIDATION_COMPLETED, received::add);
+
+            bus.publish(new EditorEvent.ValidationRequestedEvent());
+            ui.runFrame();
+            assertTrue(received.isEmpty());
+
+            ui.runFrame();
+            assertEquals(1, received.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Coalescing")
+    class CoalescingTests {
+
+        @Test
+        @DisplayName("Text changes within a frame collapse into one event spanning the burst")
+        void textChangesAreMerged() {
+            EditorEventBus bus = newBus(100, false);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.TEXT_CHANGED, received::add);
+
+            bus.publish(new EditorEvent.TextChangedEvent("a", "ab"));
+            bus.publish(new EditorEvent.TextChangedEvent("ab", "abc"));
+            bus.publish(new EditorEvent.TextChangedEvent("abc", "abcd"));
+            ui.runFrame();
+
+            assertEquals(1, received.size());
+            EditorEvent.TextChangedEvent merged = (EditorEvent.TextChangedEvent) received.getFirst();
+            assertEquals("a", merged.getOldText());
+            assertEquals("abcd", merged.getNewText());
+
+            EditorEventBus.Metrics metrics = bus.getMetrics();
+            assertEquals(3, metrics.published());
+            assertEquals(2, metrics.coalesced());
+            assertEquals(1, metrics.delivered());
+        }
+
+        @Test
+        @DisplayName("A coalesced event is delivered after ordered events published before its latest update")
+        void coalescedEventMovesToTail() {
+            EditorEventBus bus = newBus(100, false);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.TEXT_CHANGED, received::add);
+            bus.subscribe(EditorEvent.Type.SCHEMA_CHANGED, received::add);
+
+            bus.publish(new EditorEvent.TextChangedEvent("a", "ab"));
+            bus.publish(new EditorEvent.SchemaChangedEvent(true));
+            bus.publish(new EditorEvent.TextChangedEvent("ab", "abc"));
+            ui.runFrame();
+
+            assertEquals(2, received.size());
+            assertInstanceOf(EditorEvent.SchemaChangedEvent.class, received.get(0));
+            assertEquals("abc", ((EditorEvent.TextChangedEvent) received.get(1)).getNewText());
+        }
+
+        @Test
+        @DisplayName("ORDERED policy keeps every event")
+        void orderedPolicyKeepsEvents() {
+            EditorEventBus bus = newBus(100, false);
+            bus.setDeliveryPolicy(EditorEvent.Type.CARET_MOVED, EditorEventBus.DeliveryPolicy.ORDERED);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.CARET_MOVED, received::add);
+
+            bus.publish(new EditorEvent.CaretMovedEvent(0, 1));
+            bus.publish(new EditorEvent.CaretMovedEvent(1, 2));
+            ui.runFrame();
+
+            assertEquals(2, received.size());
+        }
+    }
+
+    @Nested
+    @DisplayName("Synchronous delivery")
+    class SynchronousDeliveryTests {
+
+        @Test
+        @DisplayName("publishSync delivers inline without queueing")
+        void publishSyncDeliversInline() {
+            EditorEventBus bus = newBus(100, true);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.SCHEMA_CHANGED, received::add);
+
+            bus.publishSync(new EditorEvent.SchemaChangedEvent(true));
+
+            assertEquals(1, received.size());
+            assertEquals(0, ui.runFrame());
+        }
+
+        @Test
+        @DisplayName("Events without listeners are not queued")
+        void noListenersNoQueueing() {
+            EditorEventBus bus = newBus(100, false);
+
+            bus.publish(new EditorEvent.SchemaChangedEvent(true));
+
+            assertEquals(0, ui.runFrame());
+            assertEquals(0, bus.getMetrics().published());
+        }
+    }
+
+    @Nested
+    @DisplayName("Back-pressure and metrics")
+    class BackPressureTests {
+
+        @Test
+        @DisplayName("The UI thread delivers a full queue inline")
+        void fullQueueOnUiThreadIsDeliveredInline() {
+            EditorEventBus bus = newBus(10, true);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.SCHEMA_CHANGED, received::add);
+
+            for (int i = 0; i < 25; i++) {
+                bus.publish(new EditorEvent.SchemaChangedEvent(true));
+            }
+
+            assertEquals(20, received.size(), "two full queues were delivered inline");
+            EditorEventBus.Metrics metrics = bus.getMetrics();
+            assertEquals(5, metrics.queueDepth());
+            assertEquals(10, metrics.maxQueueDepth());
+
+            ui.runFrame();
+            assertEquals(25, received.size());
+            assertEquals(0, bus.getMetrics().queueDepth());
+        }
+
+        @Test
+        @DisplayName("Other threads wait briefly on a full queue, then queue beyond it without losing events")
+        void fullQueueOffUiThreadNeverDropsEvents() {
+            EditorEventBus bus = newBus(10, false);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.SCHEMA_CHANGED, received::add);
+            bus.subscribe(EditorEvent.Type.CARET_MOVED, received::add);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < 25; i++) {
+                bus.publish(new EditorEvent.SchemaChangedEvent(true));
+            }
+            bus.publish(new EditorEvent.CaretMovedEvent(1, 2));
+            long elapsed = System.nanoTime() - start;
+            assertTrue(elapsed >= EditorEventBus.BACK_PRESSURE_TIMEOUT.toNanos(), "the first overflow waited");
+            assertTrue(elapsed < 500_000_000L, "later publishers did not wait again");
+
+            EditorEventBus.Metrics metrics = bus.getMetrics();
+            assertEquals(15, metrics.overflowed());
+            assertEquals(26, metrics.maxQueueDepth());
+
+            ui.runFrame();
+            assertEquals(26, received.size(), "every ordered event and the coalescing one were delivered");
+            bus.publish(new EditorEvent.SchemaChangedEvent(true));
+            ui.runFrame();
+            assertEquals(27, received.size());
+            assertEquals(15, bus.getMetrics().overflowed(), "a drained queue accepts events within its bound");
+        }
+
+        @Test
+        @DisplayName("Metrics report delivery latency")
+        void metricsReportLatency() throws InterruptedException {
+            EditorEventBus bus = newBus(100, false);
+            bus.subscribe(EditorEvent.Type.SCHEMA_CHANGED, event -> { });
+
+            bus.publish(new EditorEvent.SchemaChangedEvent(true));
+            Thread.sleep(20);
+            ui.runFrame();
+
+            EditorEventBus.Metrics metrics = bus.getMetrics();
+            assertEquals(1, metrics.batches());
+            assertTrue(metrics.maxLatencyMillis() >= 20, "latency covers the wait for the frame");
+            assertEquals(metrics.maxLatencyMillis(), metrics.averageLatencyMillis(), 0.001);
+        }
+
+        @Test
+        @DisplayName("A failing listener does not stop delivery to others")
+        void failingListenerIsIsolated() {
+            EditorEventBus bus = newBus(100, false);
+            List<EditorEvent> received = new ArrayList<>();
+            bus.subscribe(EditorEvent.Type.SCHEMA_CHANGED, event -> {
+                throw new IllegalStateException("boom");
+            });
+            bus.subscribe(EditorEvent.Type.SCHEMA_CHANGED, received::add);
+
+            bus.publish(new EditorEvent.SchemaChangedEvent(true));
+            ui.runFrame();
+
+            assertEquals(1, received.size());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.fxt.freexmltoolkit.controls.v2.editor.serialization;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.fxt.freexmltoolkit.controls.v2.model.XsdComplexType;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdElement;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdNode;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdSchema;
+import org.fxt.freexmltoolkit.controls.v2.model.XsdSequence;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for {@link IncrementalXsdSerializer}: the output always matches a full
+ * {@link XsdSerializer} run, and the reported edits turn the previous text into it.
+ */
+class IncrementalXsdSerializerTest {
+
+    private XsdSchema schema;
+    private XsdComplexType orderType;
+    private XsdSequence orderSequence;
+    private IncrementalXsdSerializer serializer;
+    private String text;
+
+    @BeforeEach
+    void setUp() {
+        schema = new XsdSchema();
+        schema.setTargetNamespace("urn:orders");
+        for (int i = 0; i < 20; i++) {
+            XsdComplexType type = new XsdComplexType("Type" + i);
+            XsdSequence sequence = new XsdSequence();
+            for (int j = 0; j < 5; j++) {
+                XsdElement element = new XsdElement("field" + j);
+                element.setType("xs:string");
+                sequence.addChild(element);
+            }
+            type.addChild(sequence);
+            schema.addChild(type);
+        }
+        orderType = new XsdComplexType("OrderType");
+        orderSequence = new XsdSequence();
+        XsdElement id = new XsdElement("id");
+        id.setType("xs:int");
+        orderSequence.addChild(id);
+        orderType.addChild(orderSequence);
+        schema.addChild(orderType);
+
+        serializer = new IncrementalXsdSerializer(schema, true);
+        text = "";
+        roundTrip();
+    }
+
+    @Test
+    @DisplayName("First run serializes the whole schema like XsdSerializer")
+    void firstRunMatchesFullSerialization() {
+        assertEquals(fullSerialization(), text);
+    }
+
+    @Test
+    @DisplayName("Renaming a nested element produces one small edit")
+    void renameNestedElement() {
+        XsdElement id = (XsdElement) orderSequence.getChildren().getFirst();
+        id.setName("orderId");
+
+        IncrementalXsdSerializer.Result result = roundTrip();
+
+        assertEquals(fullSerialization(), text);
+        assertEquals(1, result.edits().size());
+        IncrementalXsdSerializer.TextEdit edit = result.edits().getFirst();
+        assertTrue(edit.replacement().length() < 20, "edit should only cover the name: " + edit);
+    }
+
+    @Test
+    @DisplayName("Adding and removing children keeps the text in sync")
+    void addAndRemoveChildren() {
+        XsdElement amount = new XsdElement("amount");
+        amount.setType("xs:decimal");
+        orderSequence.addChild(amount);
+        roundTrip();
+        assertEquals(fullSerialization(), text);
+        assertTrue(text.contains("name=\"amount\""));
+
+        amount.setMinOccurs(0);
+        roundTrip();
+        assertEquals(fullSerialization(), text);
+
+        orderSequence.removeChild(amount);
+        roundTrip();
+        assertEquals(fullSerialization(), text);
+        assertFalse(text.contains("amount"));
+    }
+
+    @Test
+    @DisplayName("Several edits in one round-trip are reported separately and merge into one")
+    void severalEdits() {
+        String before = text;
+        // Type19 is serialized far away from OrderType, so the two changes are separate regions.
+        XsdNode type19 = schema.getChildren().get(19);
+        ((XsdElement) type19.getChildren().getFirst().getChildren().getFirst()).setType("xs:token");
+        ((XsdElement) orderSequence.getChildren().getFirst()).setType("xs:long");
+
+        IncrementalXsdSerializer.Result result = roundTrip();
+
+        assertEquals(fullSerialization(), text);
+        assertEquals(2, result.edits().size());
+        IncrementalXsdSerializer.TextEdit merged = result.mergedEdit();
+        String viaMerged = before.substring(0, merged.start()) + merged.replacement() + before.substring(merged.end());
+        assertEquals(text, viaMerged);
+    }
+
+    @Test
+    @DisplayName("Nothing changed: no edits")
+    void noChange() {
+        IncrementalXsdSerializer.Result result = roundTrip();
+
+        assertTrue(result.edits().isEmpty());
+        assertNull(result.mergedEdit());
+    }
+
+    @Test
+    @DisplayName("Text edited outside the serializer falls back to a full serialization")
+    void externalTextChange() {
+        text = text.replace("Type3", "Changed");
+        orderType.setName("PurchaseOrderType");
+
+        roundTrip();
+
+        assertEquals(fullSerialization(), text);
+    }
+
+    @Test
+    @DisplayName("Re-sorted schema children are still serialized correctly")
+    void reorderedChildren() {
+        XsdComplexType first = (XsdComplexType) schema.getChildren().getFirst();
+        first.setName("ZzLastType");
+
+        roundTrip();
+
+        assertEquals(fullSerialization(), text);
+    }
+
+    @Test
+    @DisplayName("A removed and re-added subtree is serialized at its new place")
+    void movedSubtree() {
+        XsdSequence sequence = (XsdSequence) schema.getChildren().getFirst().getChildren().getFirst();
+        XsdElement moved = (XsdElement) sequence.getChildren().get(2);
+        sequence.removeChild(moved);
+        orderSequence.addChild(moved);
+
+        roundTrip();
+
+        assertEquals(fullSerialization(), text);
+    }
+
+    /** Serializes incrementally and applies the reported edits to {@link #text}, like the editor does. */
+    private IncrementalXsdSerializer.Result roundTrip() {
+        IncrementalXsdSerializer.Result result = serializer.serialize(text);
+        String applied = text;
+        List<IncrementalXsdSerializer.TextEdit> edits = result.edits();
+        for (int i = edits.size() - 1; i >= 0; i--) {
+            IncrementalXsdSerializer.TextEdit edit = edits.get(i);
+            applied = applied.substring(0, edit.start()) + edit.replacement() + applied.substring(edit.end());
+        }
+        assertEquals(result.text(), applied, "edits must turn the previous text into the new one");
+        text = applied;
+        return result;
+    }
+
+    private String fullSerialization() {
+        XsdSerializer full = new XsdSerializer();
+        full.setExcludeIncludedNodes(true);
+        return full.serialize(schema);
+    }
+}
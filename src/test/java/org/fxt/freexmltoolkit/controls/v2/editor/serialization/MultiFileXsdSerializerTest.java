@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.*;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.Map;
 
 import org.fxt.freexmltoolkit.controls.v2.model.*;
@@ -221,4 +222,57 @@ class MultiFileXsdSerializerTest {
         assertFalse(contentD.contains("xs:include"));
         assertTrue(contentD.contains("ElementD"));
     }
+
+    @Test
+    @DisplayName("saveAll() should leave files with unchanged content untouched")
+    void testUnchangedFilesAreNotRewritten() throws IOException {
+        Path mainFile = tempDir.resolve("main.xsd");
+        Path includedFile = tempDir.resolve("included.xsd");
+
+        XsdSchema schema = new XsdSchema();
+        schema.setMainSchemaPath(mainFile);
+        schema.getNamespaces().put("xs", "http://www.w3.org/2001/XMLSchema");
+
+        XsdInclude xsdInclude = new XsdInclude();
+        xsdInclude.setSchemaLocation("included.xsd");
+        xsdInclude.setSourceInfo(IncludeSourceInfo.forMainSchema(mainFile));
+        schema.addChild(xsdInclude);
+
+        XsdElement mainElement = new XsdElement("MainElement");
+        mainElement.setType("xs:string");
+        mainElement.setSourceInfo(IncludeSourceInfo.forMainSchema(mainFile));
+        schema.addChild(mainElement);
+
+        XsdElement includedElement = new XsdElement("IncludedElement");
+        includedElement.setType("xs:string");
+        includedElement.setSourceInfo(IncludeSourceInfo.forIncludedSchema(includedFile, "included.xsd", xsdInclude));
+        schema.addChild(includedElement);
+
+        Map<Path, MultiFileXsdSerializer.SaveResult> first = serializer.saveAll(schema, mainFile, false);
+        assertTrue(first.values().stream().allMatch(MultiFileXsdSerializer.SaveResult::success));
+        assertFalse(first.get(mainFile).unchanged());
+
+        // Back-date the files so a rewrite would be visible in the modification time
+        FileTime past = FileTime.fromMillis(System.currentTimeMillis() - 60_000);
+        Files.setLastModifiedTime(mainFile, past);
+        Files.setLastModifiedTime(includedFile, past);
+        String mainContent = Files.readString(mainFile);
+
+        includedElement.setType("xs:int");
+        Map<Path, MultiFileXsdSerializer.SaveResult> second = serializer.saveAll(schema, mainFile, false);
+
+        assertTrue(second.get(mainFile).success());
+        assertTrue(second.get(mainFile).unchanged(), "main.xsd did not change");
+        assertEquals(past, Files.getLastModifiedTime(mainFile));
+        assertEquals(mainContent, Files.readString(mainFile));
+
+        assertTrue(second.get(includedFile).success());
+        assertFalse(second.get(includedFile).unchanged(), "included.xsd changed");
+        assertTrue(Files.readString(includedFile).contains("type=\"xs:int\""));
+        assertNotEquals(past, Files.getLastModifiedTime(includedFile));
+        try (var stream = Files.list(tempDir)) {
+            assertTrue(stream.noneMatch(file -> file.getFileName().toString().endsWith(".tmp")),
+                    "no temporary files are left behind");
+        }
+    }
 }
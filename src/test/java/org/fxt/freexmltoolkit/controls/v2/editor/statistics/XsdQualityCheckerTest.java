@@ -778,4 +778,120 @@ class XsdQualityCheckerTest {
             assertEquals(2, issues.size(), "Should detect two duplicate groups");
         }
     }
+
+    // ========== Incremental Analysis Tests ==========
+
+    @Nested
+    @DisplayName("Unused Type Detection")
+    class UnusedTypeTests {
+
+        @Test
+        @DisplayName("should report global types nothing refers to")
+        void testUnusedTypeIsReported() {
+            schema.addChild(new XsdComplexType("UsedType"));
+            schema.addChild(new XsdSimpleType("OrphanType"));
+            XsdElement root = new XsdElement("root");
+            root.setType("tns:UsedType");
+            schema.addChild(root);
+
+            List<QualityIssue> issues = new XsdQualityChecker(schema).check()
+                    .getIssuesByCategory(IssueCategory.UNUSED_TYPE);
+
+            assertEquals(1, issues.size());
+            assertEquals(List.of("OrphanType"), issues.get(0).affectedElements());
+            assertEquals(IssueSeverity.INFO, issues.get(0).severity());
+        }
+
+        @Test
+        @DisplayName("should drop the issue once the type is referenced")
+        void testUnusedTypeFollowsEdits() {
+            schema.addChild(new XsdComplexType("LaterUsedType"));
+            XsdQualityChecker checker = new XsdQualityChecker(schema, XsdSchemaChangeTracker.forSchema(schema));
+            assertEquals(1, checker.check().getIssuesByCategory(IssueCategory.UNUSED_TYPE).size());
+
+            XsdElement root = new XsdElement("root");
+            root.setType("LaterUsedType");
+            schema.addChild(root);
+
+            assertTrue(checker.check().getIssuesByCategory(IssueCategory.UNUSED_TYPE).isEmpty());
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Analysis")
+    class IncrementalAnalysisTests {
+
+        private XsdComplexType addTypeWithSequence(String typeName, String... elementTypes) {
+            XsdComplexType complexType = new XsdComplexType(typeName);
+            XsdSequence sequence = new XsdSequence();
+            for (int i = 0; i < elementTypes.length; i++) {
+                XsdElement element = new XsdElement("field" + i);
+                element.setType(elementTypes[i]);
+                sequence.addChild(element);
+            }
+            complexType.addChild(sequence);
+            schema.addChild(complexType);
+            return complexType;
+        }
+
+        @Test
+        @DisplayName("should update duplicate definitions after a component changes")
+        void testDuplicateDefinitionsFollowEdits() {
+            XsdComplexType first = addTypeWithSequence("FirstType", "xs:string", "xs:int");
+            addTypeWithSequence("SecondType", "xs:string", "xs:int");
+            XsdQualityChecker checker = new XsdQualityChecker(schema, XsdSchemaChangeTracker.forSchema(schema));
+
+            assertEquals(1, checker.check().getIssuesByCategory(IssueCategory.DUPLICATE_DEFINITION).size());
+
+            XsdElement field = (XsdElement) first.getChildren().get(0).getChildren().get(1);
+            field.setType("xs:date");
+            assertTrue(checker.check().getIssuesByCategory(IssueCategory.DUPLICATE_DEFINITION).isEmpty(),
+                    "Changed structure should no longer be reported as duplicate");
+
+            field.setType("xs:int");
+            assertEquals(1, checker.check().getIssuesByCategory(IssueCategory.DUPLICATE_DEFINITION).size());
+        }
+
+        @Test
+        @DisplayName("should update inconsistent definitions when components are added and removed")
+        void testInconsistentDefinitionsFollowStructureChanges() {
+            addTypeWithSequence("FirstType", "xs:string");
+            XsdQualityChecker checker = new XsdQualityChecker(schema, XsdSchemaChangeTracker.forSchema(schema));
+            assertTrue(checker.check().getIssuesByCategory(IssueCategory.INCONSISTENT_DEFINITION).isEmpty());
+
+            XsdComplexType second = addTypeWithSequence("SecondType", "xs:int");
+            List<QualityIssue> issues = checker.check().getIssuesByCategory(IssueCategory.INCONSISTENT_DEFINITION);
+            assertEquals(1, issues.size(), "field0 is defined with two different types");
+            assertTrue(issues.get(0).message().contains("ELEMENT:field0"));
+
+            schema.removeChild(second);
+            assertTrue(checker.check().getIssuesByCategory(IssueCategory.INCONSISTENT_DEFINITION).isEmpty());
+        }
+
+        @Test
+        @DisplayName("incremental result should match a full analysis")
+        void testIncrementalResultMatchesFullAnalysis() {
+            XsdComplexType first = addTypeWithSequence("FirstType", "xs:string", "xs:int");
+            addTypeWithSequence("SecondType", "xs:string", "xs:int");
+            addTypeWithSequence("third_type", "xs:string");
+            XsdQualityChecker checker = new XsdQualityChecker(schema, XsdSchemaChangeTracker.forSchema(schema));
+            checker.check();
+
+            first.setName("renamed_type");
+            XsdElement unbounded = new XsdElement("Extra");
+            unbounded.setMaxOccurs(XsdNode.UNBOUNDED);
+            first.getChildren().get(0).addChild(unbounded);
+
+            QualityResult incremental = checker.check();
+            QualityResult full = new XsdQualityChecker(schema).check();
+
+            assertEquals(full.score(), incremental.score());
+            assertEquals(full.namingDistribution(), incremental.namingDistribution());
+            assertEquals(full.issues().size(), incremental.issues().size());
+            for (IssueCategory category : IssueCategory.values()) {
+                assertEquals(full.getIssuesByCategory(category).size(),
+                        incremental.getIssuesByCategory(category).size(), category.name());
+            }
+        }
+    }
 }
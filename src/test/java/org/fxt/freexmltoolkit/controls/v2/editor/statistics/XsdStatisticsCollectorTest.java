@@ -325,4 +325,55 @@ class XsdStatisticsCollectorTest {
             assertNotNull(stats.collectedAt());
         }
     }
+
+    // ========== Incremental Collection Tests ==========
+
+    @Nested
+    @DisplayName("Incremental Collection")
+    class IncrementalCollectionTests {
+
+        @Test
+        @DisplayName("should reflect edits made between collections")
+        void testEditsAreReflected() {
+            XsdComplexType addressType = new XsdComplexType("AddressType");
+            XsdSequence sequence = new XsdSequence();
+            addressType.addChild(sequence);
+            schema.addChild(addressType);
+            XsdElement customer = new XsdElement("Customer");
+            customer.setType("tns:AddressType");
+            schema.addChild(customer);
+
+            XsdStatisticsCollector incremental =
+                    new XsdStatisticsCollector(schema, XsdSchemaChangeTracker.forSchema(schema));
+            XsdStatistics before = incremental.collect();
+            assertEquals(1, before.getElementCount());
+            assertEquals(1, before.typeUsageCounts().get("AddressType"));
+
+            sequence.addChild(new XsdElement("Street"));
+            customer.setType("xs:string");
+            customer.setDocumentation("A customer");
+
+            XsdStatistics after = incremental.collect();
+            assertEquals(2, after.getElementCount());
+            assertEquals(1, after.nodesWithDocumentation());
+            assertTrue(after.unusedTypes().contains("AddressType"));
+
+            XsdStatistics full = new XsdStatisticsCollector(schema).collect();
+            assertEquals(full.nodeCountsByType(), after.nodeCountsByType());
+            assertEquals(full.typeUsageCounts(), after.typeUsageCounts());
+        }
+
+        @Test
+        @DisplayName("should drop removed components")
+        void testRemovedComponentsAreDropped() {
+            XsdElement element = new XsdElement("Removed");
+            schema.addChild(element);
+            XsdStatisticsCollector incremental =
+                    new XsdStatisticsCollector(schema, XsdSchemaChangeTracker.forSchema(schema));
+            assertEquals(1, incremental.collect().getElementCount());
+
+            schema.removeChild(element);
+            assertEquals(0, incremental.collect().getElementCount());
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package org.fxt.freexmltoolkit.controls.v2.editor.usage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.fxt.freexmltoolkit.controls.v2.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for TypeReferenceIndex.
+ * Tests reference kinds, incremental maintenance and imported schemas.
+ *
+ * @since 2.0
+ */
+class TypeReferenceIndexTest {
+
+    private XsdSchema schema;
+
+    @BeforeEach
+    void setUp() {
+        schema = new XsdSchema();
+    }
+
+    private XsdElement element(String name, String type) {
+        XsdElement element = new XsdElement(name);
+        element.setType(type);
+        return element;
+    }
+
+    @Test
+    @DisplayName("forSchema() returns the same index for the same schema")
+    void testSharedPerSchema() {
+        assertSame(TypeReferenceIndex.forSchema(schema), TypeReferenceIndex.forSchema(schema));
+        assertNotSame(TypeReferenceIndex.forSchema(schema), TypeReferenceIndex.forSchema(new XsdSchema()));
+    }
+
+    @Nested
+    @DisplayName("Reference Kind Tests")
+    class ReferenceKindTests {
+
+        @Test
+        @DisplayName("findReferences() reports element, group and attribute group refs")
+        void testRefReferences() {
+            XsdElement elementRef = new XsdElement();
+            elementRef.setRef("tns:Shared");
+            XsdGroup groupRef = new XsdGroup();
+            groupRef.setRef("Shared");
+            XsdAttributeGroup attributeGroupRef = new XsdAttributeGroup();
+            attributeGroupRef.setRef("Shared");
+            XsdSequence sequence = new XsdSequence();
+            sequence.addChild(elementRef);
+            sequence.addChild(groupRef);
+            XsdComplexType complexType = new XsdComplexType("Holder");
+            complexType.addChild(sequence);
+            complexType.addChild(attributeGroupRef);
+            schema.addChild(complexType);
+
+            List<TypeUsageLocation> references = TypeReferenceIndex.forSchema(schema).findReferences("Shared");
+
+            assertEquals(List.of(UsageReferenceType.ELEMENT_REF, UsageReferenceType.GROUP_REF,
+                            UsageReferenceType.ATTRIBUTE_GROUP_REF),
+                    references.stream().map(TypeUsageLocation::referenceType).toList());
+            assertTrue(TypeReferenceIndex.forSchema(schema).findTypeUsages("Shared").isEmpty(),
+                    "ref references are not type usages");
+        }
+    }
+
+    @Nested
+    @DisplayName("Incremental Maintenance Tests")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("index follows type changes, additions and removals")
+        void testFollowsEdits() {
+            XsdElement first = element("first", "AddressType");
+            schema.addChild(first);
+            TypeReferenceIndex index = TypeReferenceIndex.forSchema(schema);
+            assertEquals(1, index.countTypeUsages("AddressType", true));
+
+            XsdComplexType complexType = new XsdComplexType("Holder");
+            XsdSequence sequence = new XsdSequence();
+            XsdElement nested = element("nested", "tns:AddressType");
+            sequence.addChild(nested);
+            complexType.addChild(sequence);
+            schema.addChild(complexType);
+            assertEquals(2, index.countTypeUsages("AddressType", true));
+
+            first.setType("xs:string");
+            assertEquals(1, index.countTypeUsages("AddressType", true));
+            assertEquals(1, index.countTypeUsages("string", true));
+
+            schema.removeChild(complexType);
+            assertEquals(0, index.countTypeUsages("AddressType", true));
+
+            sequence.addChild(element("detached", "AddressType"));
+            assertEquals(0, index.countTypeUsages("AddressType", true), "removed subtrees are no longer tracked");
+        }
+
+        @Test
+        @DisplayName("usages inserted later are still reported in document order")
+        void testDocumentOrderAfterInsert() {
+            XsdElement last = element("last", "MyType");
+            schema.addChild(last);
+            TypeReferenceIndex index = TypeReferenceIndex.forSchema(schema);
+            index.findTypeUsages("MyType");
+
+            XsdElement first = element("first", "MyType");
+            schema.addChild(0, first);
+
+            List<TypeUsageLocation> usages = index.findTypeUsages("MyType");
+            assertEquals(2, usages.size());
+            assertSame(first, usages.get(0).node());
+            assertSame(last, usages.get(1).node());
+        }
+    }
+
+    @Nested
+    @DisplayName("Imported Schema Tests")
+    class ImportedSchemaTests {
+
+        @Test
+        @DisplayName("usages in imported schemas are picked up and can be excluded")
+        void testImportedSchemaUsages() {
+            schema.addChild(element("local", "SharedType"));
+            TypeReferenceIndex index = TypeReferenceIndex.forSchema(schema);
+            assertEquals(1, index.countTypeUsages("SharedType", true));
+
+            XsdSchema imported = new XsdSchema();
+            imported.addChild(element("remote", "common:SharedType"));
+            schema.addImportedSchema("http://example.com/common", imported);
+
+            assertEquals(2, index.countTypeUsages("SharedType", true));
+            assertEquals(1, index.countTypeUsages("SharedType", false));
+            assertEquals(1, index.findTypeUsages("SharedType", false).size());
+        }
+
+        @Test
+        @DisplayName("TypeUsageFinder reports usages in imported schemas only when asked to")
+        void testFinderImportsAreOptIn() {
+            schema.addChild(element("local", "SharedType"));
+            XsdSchema imported = new XsdSchema();
+            imported.addChild(element("remote", "common:SharedType"));
+            schema.addImportedSchema("http://example.com/common", imported);
+
+            TypeUsageFinder mainOnly = new TypeUsageFinder(schema);
+            assertEquals(1, mainOnly.findUsages("SharedType").size());
+            assertEquals(1, mainOnly.countUsages("SharedType"));
+            assertEquals("local", mainOnly.findUsages("SharedType").get(0).node().getName());
+
+            TypeUsageFinder withImports = new TypeUsageFinder(schema, true);
+            assertEquals(2, withImports.findUsages("SharedType").size());
+            assertEquals(2, withImports.countUsages("SharedType"));
+        }
+    }
+}
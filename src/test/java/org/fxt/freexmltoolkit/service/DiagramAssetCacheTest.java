@@ -0,0 +1,185 @@
+package org.fxt.freexmltoolkit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.Document;
+
+/**
+ * Tests {@link DiagramAssetCache}: shape-based keys, memory and disk reuse, byte-bounded eviction
+ * in memory and on disk, and coalescing of concurrent renders.
+ */
+class DiagramAssetCacheTest {
+
+    private static Document svg(String content) throws Exception {
+        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+        factory.setNamespaceAware(true);
+        return factory.newDocumentBuilder()
+                .parse(new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void keyIgnoresIdsAndPageLinks() throws Exception {
+        Document a = svg("<svg xmlns='http://www.w3.org/2000/svg'><a href='A_1.html'>"
+                + "<rect id='/root/a' width='10'/></a><use href='#icon'/></svg>");
+        Document b = svg("<svg xmlns='http://www.w3.org/2000/svg'><a href='B_2.html'>"
+                + "<rect id='/root/b' width='10'/></a><use href='#icon'/></svg>");
+        Document wider = svg("<svg xmlns='http://www.w3.org/2000/svg'><a href='A_1.html'>"
+                + "<rect id='/root/a' width='20'/></a><use href='#icon'/></svg>");
+        Document otherIcon = svg("<svg xmlns='http://www.w3.org/2000/svg'><a href='A_1.html'>"
+                + "<rect id='/root/a' width='10'/></a><use href='#other'/></svg>");
+
+        String key = DiagramAssetCache.key(a, DiagramAssetCache.Format.PNG);
+
+        assertEquals(key, DiagramAssetCache.key(b, DiagramAssetCache.Format.PNG));
+        assertNotEquals(key, DiagramAssetCache.key(a, DiagramAssetCache.Format.JPG));
+        assertNotEquals(key, DiagramAssetCache.key(wider, DiagramAssetCache.Format.PNG));
+        assertNotEquals(key, DiagramAssetCache.key(otherIcon, DiagramAssetCache.Format.PNG));
+    }
+
+    @Test
+    void renderedImageIsReusedFromMemoryAndDisk(@TempDir Path tmp) throws Exception {
+        AtomicInteger renders = new AtomicInteger();
+        DiagramAssetCache cache = new DiagramAssetCache(tmp, 1024);
+
+        byte[] first = cache.getOrRender("k", DiagramAssetCache.Format.PNG, () -> {
+            renders.incrementAndGet();
+            return new byte[]{1, 2, 3};
+        });
+        byte[] second = cache.getOrRender("k", DiagramAssetCache.Format.PNG, () -> new byte[]{9});
+
+        assertArrayEquals(first, second);
+        assertEquals(1, renders.get());
+        assertTrue(Files.exists(tmp.resolve("k.png")));
+
+        // A new process starts with an empty memory cache but finds the file on disk.
+        DiagramAssetCache restarted = new DiagramAssetCache(tmp, 1024);
+        byte[] fromDisk = restarted.getOrRender("k", DiagramAssetCache.Format.PNG, () -> new byte[]{9});
+        assertArrayEquals(first, fromDisk);
+        assertEquals(1, restarted.getStats().diskHits());
+        assertEquals(0, restarted.getStats().renders());
+    }
+
+    @Test
+    void memoryIsBoundedByBytes() throws Exception {
+        DiagramAssetCache cache = new DiagramAssetCache(null, 10);
+
+        for (String key : List.of("a", "b", "c")) {
+            cache.getOrRender(key, DiagramAssetCache.Format.PNG, () -> new byte[4]);
+        }
+
+        assertEquals(8, cache.getStats().memoryBytes());
+        AtomicInteger renders = new AtomicInteger();
+        cache.getOrRender("a", DiagramAssetCache.Format.PNG, () -> {
+            renders.incrementAndGet();
+            return new byte[4];
+        });
+        assertEquals(1, renders.get(), "the least recently used entry must have been evicted");
+    }
+
+    @Test
+    void diskIsBoundedByBytesEvictingLeastRecentlyUsed(@TempDir Path tmp) throws Exception {
+        DiagramAssetCache cache = new DiagramAssetCache(tmp, 1024, 10);
+        cache.getOrRender("a", DiagramAssetCache.Format.PNG, () -> new byte[4]);
+        cache.getOrRender("b", DiagramAssetCache.Format.PNG, () -> new byte[4]);
+        // "a" was used more recently than "b".
+        Instant now = Instant.now();
+        Files.setLastModifiedTime(tmp.resolve("a.png"), FileTime.from(now.minus(1, ChronoUnit.HOURS)));
+        Files.setLastModifiedTime(tmp.resolve("b.png"), FileTime.from(now.minus(2, ChronoUnit.HOURS)));
+
+        cache.getOrRender("c", DiagramAssetCache.Format.PNG, () -> new byte[4]);
+
+        assertFalse(Files.exists(tmp.resolve("b.png")), "the least recently used image must be evicted");
+        assertTrue(Files.exists(tmp.resolve("a.png")));
+        assertTrue(Files.exists(tmp.resolve("c.png")));
+        assertEquals(8, cache.getStats().diskBytes());
+    }
+
+    @Test
+    void oversizedDiskCacheIsTrimmedOnStartup(@TempDir Path tmp) throws Exception {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            Path file = Files.write(tmp.resolve("k" + i + ".png"), new byte[4]);
+            Files.setLastModifiedTime(file, FileTime.from(now.minus(5 - i, ChronoUnit.MINUTES)));
+        }
+
+        DiagramAssetCache cache = new DiagramAssetCache(tmp, 1024, 10);
+
+        assertEquals(8, cache.getStats().diskBytes());
+        assertFalse(Files.exists(tmp.resolve("k2.png")));
+        assertTrue(Files.exists(tmp.resolve("k3.png")));
+        assertTrue(Files.exists(tmp.resolve("k4.png")));
+    }
+
+    @Test
+    void defaultDirectoryHonoursSystemProperty(@TempDir Path tmp) {
+        String previous = System.getProperty(DiagramAssetCache.DIRECTORY_PROPERTY);
+        System.setProperty(DiagramAssetCache.DIRECTORY_PROPERTY, tmp.toString());
+        try {
+            assertEquals(tmp, DiagramAssetCache.defaultDirectory());
+        } finally {
+            if (previous == null) {
+                System.clearProperty(DiagramAssetCache.DIRECTORY_PROPERTY);
+            } else {
+                System.setProperty(DiagramAssetCache.DIRECTORY_PROPERTY, previous);
+            }
+        }
+    }
+
+    @Test
+    void concurrentRequestsRenderOnce() throws Exception {
+        DiagramAssetCache cache = new DiagramAssetCache(null, 1024);
+        AtomicInteger renders = new AtomicInteger();
+        CountDownLatch rendering = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<byte[]> first = executor.submit(() -> cache.getOrRender("k", DiagramAssetCache.Format.PNG, () -> {
+                renders.incrementAndGet();
+                rendering.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+                return new byte[]{7};
+            }));
+            assertTrue(rendering.await(5, TimeUnit.SECONDS));
+            Future<byte[]> second = executor.submit(() -> cache.getOrRender("k", DiagramAssetCache.Format.PNG, () -> {
+                renders.incrementAndGet();
+                return new byte[]{8};
+            }));
+            release.countDown();
+
+            assertArrayEquals(new byte[]{7}, first.get(5, TimeUnit.SECONDS));
+            assertArrayEquals(new byte[]{7}, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, renders.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getOrRenderFileReturnsCachedFile(@TempDir Path tmp) throws Exception {
+        DiagramAssetCache cache = new DiagramAssetCache(tmp.resolve("diagrams"), 1024);
+
+        Path file = cache.getOrRenderFile("k", DiagramAssetCache.Format.JPG, () -> new byte[]{5});
+
+        assertEquals(tmp.resolve("diagrams").resolve("k.jpg"), file);
+        assertArrayEquals(new byte[]{5}, Files.readAllBytes(file));
+    }
+}
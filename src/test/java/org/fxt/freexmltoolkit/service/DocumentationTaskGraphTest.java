@@ -0,0 +1,210 @@
+package org.fxt.freexmltoolkit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link DocumentationTaskGraph}: dependency derivation from declared inputs/outputs,
+ * concurrent execution of independent phases, critical path, failure propagation and cancellation.
+ */
+class DocumentationTaskGraphTest {
+
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void dependentPhasesRunInOrder() throws Exception {
+        List<String> order = new CopyOnWriteArrayList<>();
+        DocumentationTaskGraph graph = new DocumentationTaskGraph()
+                .add("copy", Set.of(), Set.of("out"), () -> order.add("copy"))
+                .add("page", Set.of("out"), Set.of("page.html"), () -> order.add("page"))
+                .add("index", Set.of("page.html"), Set.of("index.json"), () -> order.add("index"));
+
+        graph.run(pool);
+
+        assertEquals(List.of("copy", "page", "index"), order);
+    }
+
+    @Test
+    void independentPhasesRunConcurrently() throws Exception {
+        // Both phases only finish once the other one has started, which deadlocks if run sequentially.
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable waitForOther = () -> {
+            bothStarted.countDown();
+            try {
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "phases did not overlap");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        DocumentationTaskGraph graph = new DocumentationTaskGraph()
+                .add("a", Set.of(), Set.of("a.html"), waitForOther)
+                .add("b", Set.of(), Set.of("b.html"), waitForOther);
+
+        graph.run(pool);
+
+        assertEquals(0, bothStarted.getCount());
+    }
+
+    @Test
+    void phasesWritingTheSameOutputAreSerialized() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        Runnable write = () -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+        };
+        DocumentationTaskGraph graph = new DocumentationTaskGraph()
+                .add("root", Set.of(), Set.of("search_index.json"), write)
+                .add("search", Set.of(), Set.of("search_index.json"), write);
+
+        graph.run(pool);
+
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    @Test
+    void criticalPathFollowsTheLongestChain() throws Exception {
+        DocumentationTaskGraph graph = new DocumentationTaskGraph()
+                .add("copy", Set.of(), Set.of("out"), () -> sleep(10))
+                .add("short", Set.of("out"), Set.of("short.html"), () -> sleep(1))
+                .add("long", Set.of("out"), Set.of("long.html"), () -> sleep(80));
+
+        DocumentationTaskGraph.Result result = graph.run(pool);
+
+        assertEquals(List.of("copy", "long"), result.criticalPath());
+        assertTrue(result.criticalPathMillis() >= 80);
+        assertEquals(3, result.timings().size());
+    }
+
+    @Test
+    void failureIsRethrownAndDependentsAreSkipped() {
+        AtomicInteger dependentRuns = new AtomicInteger();
+        DocumentationTaskGraph graph = new DocumentationTaskGraph()
+                .add("copy", Set.of(), Set.of("out"), () -> {
+                    throw new IllegalStateException("boom");
+                })
+                .add("page", Set.of("out"), Set.of("page.html"), dependentRuns::incrementAndGet);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> graph.run(pool));
+
+        assertEquals("boom", e.getMessage());
+        assertEquals(0, dependentRuns.get());
+    }
+
+    @Test
+    void cancelStopsTheRunningPhaseAndSkipsDependents() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        AtomicInteger processedItems = new AtomicInteger();
+        AtomicInteger dependentRuns = new AtomicInteger();
+        DocumentationTaskGraph graph = new DocumentationTaskGraph();
+        graph.add("details", Set.of(), Set.of("details/"), () -> {
+                    started.countDown();
+                    await(cancelled);
+                    DocumentationTaskGraph.forEachParallel(List.of(1, 2, 3, 4), processedItems::addAndGet);
+                })
+                .add("index", Set.of("details/"), Set.of("index.html"), dependentRuns::incrementAndGet);
+
+        Thread canceller = new Thread(() -> {
+            await(started);
+            graph.cancel();
+            cancelled.countDown();
+        });
+        canceller.start();
+
+        assertThrows(CancellationException.class, () -> graph.run(pool));
+        canceller.join();
+
+        assertTrue(graph.isCancelled());
+        assertEquals(0, processedItems.get(), "fan-out ran after cancel");
+        assertEquals(0, dependentRuns.get());
+    }
+
+    @Test
+    void interruptingTheCallerIsVisibleToRunningPhases() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Throwable> phaseOutcome = new AtomicReference<>();
+        AtomicReference<Throwable> runOutcome = new AtomicReference<>();
+        DocumentationTaskGraph graph = new DocumentationTaskGraph().add("details", Set.of(), Set.of("details/"), () -> {
+            started.countDown();
+            // Runs on a pool thread, which is not interrupted when the caller is.
+            await(release);
+            try {
+                DocumentationTaskGraph.checkCancelled();
+            } catch (CancellationException e) {
+                phaseOutcome.set(e);
+                throw e;
+            }
+        });
+
+        Thread caller = new Thread(() -> {
+            try {
+                graph.run(pool);
+            } catch (Throwable t) {
+                runOutcome.set(t);
+            }
+        });
+        caller.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        caller.interrupt();
+        caller.join(5_000);
+        release.countDown();
+
+        assertInstanceOf(CancellationException.class, runOutcome.get());
+        assertTrue(graph.isCancelled());
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, phaseOutcome.get());
+    }
+
+    @Test
+    void checkCancelledOutsideOfAGraphOnlyHonoursInterrupts() {
+        assertDoesNotThrow(DocumentationTaskGraph::checkCancelled);
+    }
+
+    @Test
+    void forEachParallelProcessesAllItems() {
+        AtomicInteger sum = new AtomicInteger();
+        DocumentationTaskGraph.forEachParallel(List.of(1, 2, 3, 4, 5), sum::addAndGet);
+        assertEquals(15, sum.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS), "latch timed out");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.fxt.freexmltoolkit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link DocxSectionStreamer}: placeholders are replaced by the streamed section content,
+ * other content is copied unchanged, and referenced pictures are embedded once with their
+ * relationship and content type.
+ */
+class DocxSectionStreamerTest {
+
+    private static final String DOCUMENT = """
+            <?xml version="1.0" encoding="UTF-8" standalone="yes"?>
+            <w:document xmlns:w="http://schemas.openxmlformats.org/wordprocessingml/2006/main" \
+            xmlns:r="http://schemas.openxmlformats.org/officeDocument/2006/relationships"><w:body>\
+            <w:p><w:r><w:t>Before</w:t></w:r></w:p>\
+            <w:p><w:r><w:t>%s</w:t></w:r></w:p>\
+            <w:p><w:r><w:t>After</w:t></w:r></w:p><w:sectPr/></w:body></w:document>""";
+
+    private static Path skeleton(Path dir, String placeholder) throws IOException {
+        Path file = dir.resolve("skeleton.docx");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(file))) {
+            put(zip, "[Content_Types].xml", "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                    + "<Default Extension=\"xml\" ContentType=\"application/xml\"/></Types>");
+            put(zip, "word/document.xml", DOCUMENT.formatted(placeholder));
+            put(zip, "word/_rels/document.xml.rels", "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\"/>");
+        }
+        return file;
+    }
+
+    private static void put(ZipOutputStream zip, String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static String read(ZipFile zip, String name) throws IOException {
+        return new String(zip.getInputStream(zip.getEntry(name)).readAllBytes(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void placeholderIsReplacedBySectionContent(@TempDir Path tmp) throws Exception {
+        DocxSectionStreamer streamer = new DocxSectionStreamer();
+        String placeholder = streamer.placeholder("Table", body -> {
+            for (int i = 0; i < 3; i++) {
+                body.start("p").start("r").text("row " + i + " <&>").end().end();
+                body.unitWritten();
+            }
+        });
+        Path target = tmp.resolve("out.docx");
+
+        streamer.write(skeleton(tmp, placeholder), target);
+
+        try (ZipFile zip = new ZipFile(target.toFile())) {
+            String document = read(zip, "word/document.xml");
+            assertFalse(document.contains(placeholder));
+            assertTrue(document.contains("row 2 &lt;&amp;&gt;"));
+            assertTrue(document.indexOf("Before") < document.indexOf("row 0"));
+            assertTrue(document.indexOf("row 2") < document.indexOf("After"));
+        }
+        assertTrue(streamer.getSectionMillis().containsKey("Table"));
+    }
+
+    @Test
+    void pictureIsEmbeddedOnce(@TempDir Path tmp) throws Exception {
+        Path picture = Files.write(tmp.resolve("diagram.png"), new byte[]{1, 2, 3});
+        DocxSectionStreamer streamer = new DocxSectionStreamer();
+        String placeholder = streamer.placeholder("Diagrams", body -> {
+            for (int i = 0; i < 2; i++) {
+                body.start("p").start("r");
+                body.image(picture, "diagram" + i, 100, 50);
+                body.end().end();
+            }
+        });
+        Path target = tmp.resolve("out.docx");
+
+        streamer.write(skeleton(tmp, placeholder), target);
+
+        try (ZipFile zip = new ZipFile(target.toFile())) {
+            assertArrayEquals(new byte[]{1, 2, 3}, zip.getInputStream(zip.getEntry("word/media/fxt-image1.png")).readAllBytes());
+            assertNull(zip.getEntry("word/media/fxt-image2.png"));
+            assertTrue(read(zip, "word/_rels/document.xml.rels").contains("media/fxt-image1.png"));
+            assertTrue(read(zip, "[Content_Types].xml").contains("image/png"));
+            String document = read(zip, "word/document.xml");
+            assertEquals(2, document.split("r:embed=\"rIdFxt1\"", -1).length - 1);
+        }
+    }
+}
@@ -2,19 +2,32 @@ package org.fxt.freexmltoolkit.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 /**
  * Tests for the execution-statistics collector: flag gating, probe measurements,
- * ring buffer, listeners, and CSV/JSON export.
+ * ring buffer, listeners, per-operation histograms, flight recording, and CSV/JSON export.
  */
 class ExecutionStatsServiceTest {
 
+    @TempDir
+    Path tempDir;
+
     private final ExecutionStatsService service = ExecutionStatsService.getInstance();
     private String previousFlag;
 
@@ -148,6 +161,77 @@ class ExecutionStatsServiceTest {
         assertEquals(1, notifications.get(), "removed listener must not fire");
     }
 
+    // ------------------------------------------------------------------
+    // Histograms and flight recording
+    // ------------------------------------------------------------------
+
+    @Test
+    void summariesAggregateSuccessfulRunsPerOperationType() {
+        setEnabled(true);
+        for (int i = 0; i < ExecutionStatsService.MAX_ENTRIES + 10; i++) {
+            service.begin(ExecutionStats.OperationType.XPATH, "q" + i).finish(4096, -1, true, "");
+        }
+        service.begin(ExecutionStats.OperationType.XSLT, "a.xslt").finish(-1, -1, true, "");
+        service.begin(ExecutionStats.OperationType.XSLT, "b.xslt").finish(-1, -1, false, "ERROR");
+
+        List<ExecutionStatsService.OperationSummary> summaries = service.summaries();
+
+        assertEquals(List.of(ExecutionStats.OperationType.XSLT, ExecutionStats.OperationType.XPATH),
+                summaries.stream().map(ExecutionStatsService.OperationSummary::type).toList(),
+                "only types with successful runs, in enum order");
+        ExecutionStatsService.OperationSummary xpath = summaries.get(1);
+        assertEquals(ExecutionStatsService.MAX_ENTRIES + 10, xpath.latency().count(),
+                "histograms are not bounded by the history ring buffer");
+        assertEquals(xpath.latency().count(), xpath.throughput().count());
+        assertTrue(xpath.latency().p50Micros() <= xpath.latency().p99Micros());
+        ExecutionStatsService.OperationSummary xslt = summaries.get(0);
+        assertEquals(1, xslt.latency().count(), "failed runs are not aggregated");
+        assertEquals(0, xslt.throughput().count(), "no throughput without an input size");
+
+        service.clear();
+        assertTrue(service.summaries().isEmpty());
+    }
+
+    @Test
+    void disabledFlagRecordsNoHistograms() {
+        setEnabled(false);
+        service.begin(ExecutionStats.OperationType.XQUERY, "q.xq").finish(10, 10, true, "");
+        assertTrue(service.summaries().isEmpty());
+    }
+
+    @Test
+    void flightRecordingCapturesProbesEvenWhenTheFlagIsOff() throws Exception {
+        setEnabled(false);
+        Path target = tempDir.resolve("recordings").resolve("run.jfr");
+
+        CompletableFuture<Path> recording = service.recordFlightRecording(Duration.ofMillis(500), target);
+        assertTrue(service.isFlightRecording());
+        ExecutionException second = assertThrows(ExecutionException.class,
+                () -> service.recordFlightRecording(Duration.ofMillis(10), tempDir.resolve("other.jfr")).get());
+        assertInstanceOf(IllegalStateException.class, second.getCause());
+
+        var probe = service.begin(ExecutionStats.OperationType.VALIDATION, "order.xml");
+        probe.phase("XSD", 12);
+        probe.phase("Schematron", 3);
+        probe.finish(2048, -1, false, "ERROR: not valid");
+
+        assertEquals(target, recording.get(30, TimeUnit.SECONDS));
+        assertFalse(service.isFlightRecording());
+        assertTrue(Files.size(target) > 0);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(target).stream()
+                .filter(e -> e.getEventType().getName().equals(ExecutionEvent.NAME))
+                .toList();
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("VALIDATION", event.getString("operation"));
+        assertEquals("order.xml", event.getString("target"));
+        assertEquals("XSD=12;Schematron=3", event.getString("phases"));
+        assertEquals(2048, event.getLong("inputChars"));
+        assertFalse(event.getBoolean("success"));
+        assertEquals("ERROR: not valid", event.getString("error"));
+        assertTrue(service.snapshot().isEmpty(), "the flag still gates the history");
+    }
+
     // ------------------------------------------------------------------
     // Export
     // ------------------------------------------------------------------
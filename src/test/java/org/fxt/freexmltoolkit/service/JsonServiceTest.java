@@ -456,6 +456,39 @@ class JsonServiceTest {
             assertTrue(jsonService.validateAgainstSchemaDetailed("{\"a\": 1}", schema).isEmpty());
         }
 
+        @Test
+        @DisplayName("Edited schema file is recompiled")
+        void editedSchemaIsRecompiled() throws IOException {
+            var schema = schemaFile("edited.json", """
+                    { "type": "object" }
+                    """);
+            assertTrue(jsonService.validateAgainstSchemaDetailed("{}", schema).isEmpty());
+
+            schemaFile("edited.json", """
+                    { "type": "object", "required": ["id"] }
+                    """);
+            assertFalse(jsonService.validateAgainstSchemaDetailed("{}", schema).isEmpty(),
+                    "the cached compilation must not outlive a schema edit");
+        }
+
+        @Test
+        @DisplayName("validateFilesAgainstSchema() validates every file against one schema")
+        void validatesFilesInBatch() throws IOException {
+            var schema = schemaFile("batch.json", """
+                    { "type": "object", "required": ["id"] }
+                    """);
+            var valid = schemaFile("valid.json", "{\"id\": 1}");
+            var invalid = schemaFile("invalid.json", "{\"name\": \"x\"}");
+            var missing = tempDir.resolve("missing.json").toFile();
+
+            var results = jsonService.validateFilesAgainstSchema(List.of(valid, invalid, missing), schema);
+
+            assertEquals(List.of(valid, invalid, missing), List.copyOf(results.keySet()));
+            assertTrue(results.get(valid).isEmpty());
+            assertEquals("required", results.get(invalid).get(0).keyword());
+            assertEquals(1, results.get(missing).size());
+        }
+
         @Test
         @DisplayName("Missing schema file yields a single error, no exception")
         void missingSchemaFileYieldsError() {
@@ -577,6 +610,47 @@ class JsonServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("executeJsonPaths")
+    class ExecuteJsonPathsTests {
+
+        @Test
+        @DisplayName("Runs several paths against one document in order")
+        void runsPathsInOrder() {
+            String json = "{\"name\": \"test\", \"items\": [1, 2, 3]}";
+            List<JsonService.JsonPathResult> results = jsonService.executeJsonPaths(json,
+                    List.of("$.name", "$.items[*]", "[invalid", "$.items[1]"));
+
+            assertEquals(List.of("$.name", "$.items[*]", "[invalid", "$.items[1]"),
+                    results.stream().map(JsonService.JsonPathResult::path).toList());
+            assertTrue(results.get(0).isSuccess());
+            assertEquals(List.of("test"), results.get(0).value());
+            assertEquals(List.of(1, 2, 3), results.get(1).value());
+            assertFalse(results.get(2).isSuccess(), "an invalid path only fails its own result");
+            assertEquals(List.of(2), results.get(3).value());
+        }
+
+        @Test
+        @DisplayName("Queries see the current text, not a stale cached document")
+        void cachedDocumentFollowsText() {
+            assertEquals(List.of(1), jsonService.executeJsonPath("{\"a\": 1}", "$.a"));
+            assertEquals(List.of(2), jsonService.executeJsonPath("{\"a\": 2}", "$.a"));
+            assertEquals(List.of(1), new JsonService().executeJsonPath("{\"a\": 1}", "$.a"));
+        }
+
+        @Test
+        @DisplayName("Modifying a result leaves the cached document intact")
+        @SuppressWarnings("unchecked")
+        void resultsAreCopies() {
+            String json = "{\"items\": [{\"id\": 1}, {\"id\": 2}]}";
+            List<Object> first = (List<Object>) jsonService.executeJsonPath(json, "$.items");
+            List<Object> items = (List<Object>) first.get(0);
+            items.clear();
+
+            assertEquals(List.of(1, 2), jsonService.executeJsonPath(json, "$.items[*].id"));
+        }
+    }
+
     @Nested
     @DisplayName("isValidJsonPath")
     class IsValidJsonPathTests {
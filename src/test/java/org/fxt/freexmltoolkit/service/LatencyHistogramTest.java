@@ -0,0 +1,84 @@
+package org.fxt.freexmltoolkit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("LatencyHistogram Tests")
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("An empty histogram reports zeros")
+    void empty() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(LatencyHistogram.Snapshot.EMPTY, histogram.snapshot());
+        assertEquals(0, histogram.snapshot().meanMicros());
+    }
+
+    @Test
+    @DisplayName("Percentiles are within one bucket of the exact value")
+    void percentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordMicros(i * 100L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.count());
+        assertEquals(100_000, snapshot.maxMicros());
+        assertEquals(50_050, snapshot.meanMicros());
+        assertBetween(50_000, snapshot.p50Micros());
+        assertBetween(90_000, snapshot.p90Micros());
+        assertBetween(99_000, snapshot.p99Micros());
+    }
+
+    @Test
+    @DisplayName("Small values are exact, nanoseconds are converted, negatives count as zero")
+    void smallValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordNanos(7_000);
+        histogram.recordNanos(7_999);
+        histogram.recordMicros(-5);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(3, snapshot.count());
+        assertEquals(7, snapshot.p50Micros());
+        assertEquals(7, snapshot.maxMicros());
+        assertEquals(14, snapshot.totalMicros());
+    }
+
+    @Test
+    @DisplayName("Every value falls into a bucket whose upper bound covers it")
+    void bucketBounds() {
+        long previousBound = -1;
+        for (long value = 0; value < 5_000_000; value = value * 3 / 2 + 1) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long bound = LatencyHistogram.upperBound(bucket);
+            assertTrue(bound >= value, value + " > " + bound);
+            assertTrue(bound - value <= Math.max(1, value / 8), "bucket too wide for " + value + ": " + bound);
+            assertTrue(bound >= previousBound);
+            previousBound = bound;
+        }
+        int last = LatencyHistogram.bucketOf(Long.MAX_VALUE);
+        assertEquals(last, LatencyHistogram.bucketOf(1L << 50));
+    }
+
+    @Test
+    @DisplayName("Reset discards all values")
+    void reset() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordMicros(42);
+        histogram.reset();
+
+        assertEquals(LatencyHistogram.Snapshot.EMPTY, histogram.snapshot());
+    }
+
+    private static void assertBetween(long exact, long reported) {
+        assertTrue(reported >= exact && reported <= exact + exact / 8,
+                "expected about " + exact + " but was " + reported);
+    }
+}
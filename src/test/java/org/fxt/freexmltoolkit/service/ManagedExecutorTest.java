@@ -0,0 +1,144 @@
+package org.fxt.freexmltoolkit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.fxt.freexmltoolkit.service.ThreadPoolManager.TaskCategory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("ManagedExecutor Tests")
+class ManagedExecutorTest {
+
+    private final ThreadPoolManager manager = ThreadPoolManager.getInstance();
+
+    @Test
+    @DisplayName("A serial executor runs tasks one at a time in submission order")
+    void serialKeepsOrder() throws Exception {
+        ManagedExecutor executor = manager.newSerialExecutor("serial-test", TaskCategory.CPU);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+
+        for (int i = 0; i < 50; i++) {
+            int n = i;
+            executor.execute(() -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                order.add(n);
+                concurrent.decrementAndGet();
+            });
+        }
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 50).boxed().toList(), order);
+        assertEquals(1, maxConcurrent.get());
+    }
+
+    @Test
+    @DisplayName("At most maxConcurrency tasks run at the same time")
+    void boundedConcurrency() throws Exception {
+        ManagedExecutor executor = manager.newExecutor("bounded-test", TaskCategory.IO, 3);
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(20);
+
+        for (int i = 0; i < 20; i++) {
+            executor.execute(() -> {
+                maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    concurrent.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(maxConcurrent.get() <= 3, "ran " + maxConcurrent.get() + " tasks at once");
+    }
+
+    @Test
+    @DisplayName("I/O tasks run on virtual threads")
+    void ioUsesVirtualThreads() throws Exception {
+        ManagedExecutor executor = manager.newSerialExecutor("io-test", TaskCategory.IO);
+
+        Future<Boolean> virtual = executor.submit(() -> Thread.currentThread().isVirtual());
+
+        assertTrue(virtual.get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("Shutdown rejects new tasks; shutdownNow drops queued ones")
+    void shutdown() throws Exception {
+        ManagedExecutor executor = manager.newSerialExecutor("shutdown-test", TaskCategory.BACKGROUND);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        executor.execute(() -> {
+            throw new AssertionError("queued task must not run");
+        });
+        assertTrue(started.await(2, TimeUnit.SECONDS));
+
+        List<Runnable> dropped = executor.shutdownNow();
+
+        assertEquals(1, dropped.size());
+        assertTrue(interrupted.await(2, TimeUnit.SECONDS), "the running task is interrupted");
+        assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    }
+
+    @Test
+    @DisplayName("A scheduled task cancelled before its delay does not run")
+    void scheduleAndCancel() throws Exception {
+        ManagedExecutor executor = manager.newSerialExecutor("schedule-test", TaskCategory.CPU);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch ran = new CountDownLatch(1);
+
+        Future<?> cancelled = executor.schedule(runs::incrementAndGet, 100, TimeUnit.MILLISECONDS);
+        executor.schedule(ran::countDown, 150, TimeUnit.MILLISECONDS);
+        cancelled.cancel(false);
+
+        assertTrue(ran.await(2, TimeUnit.SECONDS));
+        assertEquals(0, runs.get());
+    }
+
+    @Test
+    @DisplayName("Tasks are recorded in the statistics of their category")
+    void recordsStatistics() throws Exception {
+        ManagedExecutor executor = manager.newSerialExecutor("stats-test", TaskCategory.BACKGROUND);
+        long before = manager.getStats().categories().get(TaskCategory.BACKGROUND).completed();
+        long failedBefore = manager.getStats().categories().get(TaskCategory.BACKGROUND).failed();
+
+        executor.execute(() -> { });
+        executor.execute(() -> {
+            throw new IllegalStateException("expected by test");
+        });
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS));
+
+        ThreadPoolManager.CategoryStats stats = manager.getStats().categories().get(TaskCategory.BACKGROUND);
+        // Other tests share the singleton and may complete background tasks concurrently
+        assertTrue(stats.completed() >= before + 2);
+        assertTrue(stats.failed() >= failedBefore + 1);
+        assertTrue(stats.runTime().count() >= 2);
+    }
+}
@@ -3,10 +3,15 @@ package org.fxt.freexmltoolkit.service;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
+import javax.xml.transform.sax.SAXResult;
+import javax.xml.transform.stream.StreamSource;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -328,6 +333,96 @@ class SchematronServiceImplTest {
         assertTrue(secondRun.get(0).message().contains("V2"));
     }
 
+    @Test
+    void testModifiedIncludedFileIsRecompiled() throws Exception {
+        // A change to an sch:include'd file must invalidate the compiled root Schematron
+        Path included = tempDir.resolve("rules.sch");
+        Files.writeString(included, """
+                <pattern xmlns="http://purl.oclc.org/dsdl/schematron" id="included">
+                    <rule context="person">
+                        <assert test="@id">V1: id required</assert>
+                    </rule>
+                </pattern>
+                """);
+        Path schematronFile = tempDir.resolve("main.sch");
+        Files.writeString(schematronFile, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <schema xmlns="http://purl.oclc.org/dsdl/schematron">
+                    <include href="rules.sch"/>
+                </schema>
+                """);
+        String xmlContent = "<?xml version=\"1.0\"?><people><person/></people>";
+
+        assertEquals(List.of(schematronFile.toAbsolutePath().normalize(), included.toAbsolutePath().normalize()),
+                List.copyOf(SchematronServiceImpl.collectDependencies(schematronFile).keySet()));
+        List<SchematronService.SchematronValidationError> firstRun =
+                schematronService.validateXml(xmlContent, schematronFile.toFile());
+        assertEquals(1, firstRun.size());
+        assertTrue(firstRun.get(0).message().contains("V1"));
+
+        Files.writeString(included, """
+                <pattern xmlns="http://purl.oclc.org/dsdl/schematron" id="included">
+                    <rule context="person">
+                        <assert test="@id">V2: id required</assert>
+                    </rule>
+                </pattern>
+                """);
+        Files.setLastModifiedTime(included,
+                java.nio.file.attribute.FileTime.fromMillis(System.currentTimeMillis() + 5000));
+
+        List<SchematronService.SchematronValidationError> secondRun =
+                schematronService.validateXml(xmlContent, schematronFile.toFile());
+        assertEquals(1, secondRun.size());
+        assertTrue(secondRun.get(0).message().contains("V2"), "Included rules must be recompiled: " + secondRun);
+    }
+
+    @Test
+    void testFindingsAreStreamedToTheListener() throws Exception {
+        Path schematronFile = tempDir.resolve("streamed.sch");
+        Files.writeString(schematronFile, """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <schema xmlns="http://purl.oclc.org/dsdl/schematron">
+                    <pattern id="p">
+                        <rule context="person">
+                            <assert test="@id">id required</assert>
+                            <report test="@legacy">legacy attribute</report>
+                        </rule>
+                    </pattern>
+                </schema>
+                """);
+        String xmlContent = "<?xml version=\"1.0\"?><people><person legacy='1'/><person/><person id='3'/></people>";
+
+        List<SchematronService.SchematronValidationError> streamed = new ArrayList<>();
+        SchematronService.SchematronReport report =
+                schematronService.validateXmlWithSvrl(xmlContent, schematronFile.toFile(), streamed::add);
+
+        assertEquals(3, streamed.size(), "every finding reaches the listener: " + streamed);
+        assertEquals(3, report.totalFindings());
+        assertFalse(report.truncated());
+        assertEquals(List.of("error", "error", "warning"),
+                report.errors().stream().map(SchematronService.SchematronValidationError::severity).toList(),
+                "failed asserts are listed before successful reports");
+        assertEquals("legacy attribute", report.errors().get(2).message());
+    }
+
+    @Test
+    void testSpilledSvrlIsDeletedWithTheReport() throws Exception {
+        SvrlStreamCollector collector = new SvrlStreamCollector(10, 16, null);
+        String svrl = "<svrl:schematron-output xmlns:svrl=\"" + SvrlStreamCollector.SVRL_NS + "\">"
+                + "<svrl:failed-assert test=\"@id\" location=\"/people/person[1]\">"
+                + "<svrl:text>id required</svrl:text></svrl:failed-assert></svrl:schematron-output>";
+        org.fxt.freexmltoolkit.util.SecureXmlFactory.createSecureTransformerFactory().newTransformer()
+                .transform(new StreamSource(new StringReader(svrl)), new SAXResult(collector));
+
+        SchematronService.SchematronReport report = collector.toReport();
+
+        assertNull(report.svrl(), "an SVRL above the limit is not kept in memory");
+        assertNotNull(report.svrlFile());
+        assertTrue(Files.readString(report.svrlFile()).contains("id required"));
+        report.deleteSvrlFile();
+        assertFalse(Files.exists(report.svrlFile()), "the spill file goes with the report");
+    }
+
     @Test
     void testSvrlReportIsReturnedAndParseable() throws Exception {
         String schematronContent = """
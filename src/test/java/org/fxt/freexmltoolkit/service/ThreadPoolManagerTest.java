@@ -352,4 +352,60 @@ class ThreadPoolManagerTest {
         ThreadPoolManager.ThreadPoolStats stats = threadPoolManager.getStats();
         assertTrue(stats.tasksSubmitted() >= taskCount, "Should have submitted at least " + taskCount + " tasks");
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Test per-category statistics")
+    void testCategoryStatistics() throws Exception {
+        ThreadPoolManager.CategoryStats before = threadPoolManager.getStats().categories()
+                .get(ThreadPoolManager.TaskCategory.IO);
+
+        threadPoolManager.executeIO("category-stats-io", () -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Thread.currentThread().isVirtual();
+        }).get(2, TimeUnit.SECONDS);
+
+        ThreadPoolManager.ThreadPoolStats stats = threadPoolManager.getStats();
+        assertEquals(ThreadPoolManager.TaskCategory.values().length, stats.categories().size());
+        ThreadPoolManager.CategoryStats io = stats.categories().get(ThreadPoolManager.TaskCategory.IO);
+        // Other tests share the singleton and may complete I/O tasks concurrently
+        assertTrue(io.completed() >= before.completed() + 1, "the I/O task should be counted as completed");
+        assertTrue(io.runTime().maxMicros() >= 20_000, "run time histogram should include the 20ms task");
+    }
+
+    @Test
+    @DisplayName("Test highlighting runs while the CPU pool is saturated")
+    void testHighlightingIsNotQueuedBehindCpuTasks() throws Exception {
+        int cpuTasks = Runtime.getRuntime().availableProcessors() * 2;
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<?>[] blockers = new CompletableFuture<?>[cpuTasks];
+        for (int i = 0; i < cpuTasks; i++) {
+            blockers[i] = threadPoolManager.executeCPUIntensive("saturate-cpu-" + i, () -> {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            });
+        }
+        try {
+            String thread = threadPoolManager.executeHighlighting("highlight-under-load",
+                    () -> Thread.currentThread().getName()).get(2, TimeUnit.SECONDS);
+            assertTrue(thread.startsWith("FXT-Highlight-"), "highlighting should run on its own pool: " + thread);
+        } finally {
+            release.countDown();
+            CompletableFuture.allOf(blockers).get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    @DisplayName("Test I/O tasks run on virtual threads")
+    void testIOTasksUseVirtualThreads() throws Exception {
+        assertTrue(threadPoolManager.executeIO("virtual-io", () -> Thread.currentThread().isVirtual())
+                .get(2, TimeUnit.SECONDS));
+    }
+}
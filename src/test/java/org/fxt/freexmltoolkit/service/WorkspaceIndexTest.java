@@ -0,0 +1,212 @@
+package org.fxt.freexmltoolkit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("WorkspaceIndex Tests")
+class WorkspaceIndexTest {
+
+    @TempDir
+    Path workspace;
+
+    @TempDir
+    Path stateDir;
+
+    private WorkspaceIndex index;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (index != null) {
+            index.close();
+            index.terminated().get(10, TimeUnit.SECONDS);
+            WriteBehindStore.getInstance().flush(); // before the temporary folders go away
+        }
+    }
+
+    private WorkspaceIndex start(boolean polling) throws Exception {
+        WorkspaceIndex started = new WorkspaceIndex(workspace, stateDir.resolve("catalogue.json"), polling, 100);
+        started.start();
+        started.whenReady().get(10, TimeUnit.SECONDS);
+        return started;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(condition.getAsBoolean(), "condition not met within 10 s");
+    }
+
+    @Test
+    @DisplayName("Catalogues files with kind, root element, namespace and schema location")
+    void cataloguesXmlFacts() throws Exception {
+        Files.createDirectories(workspace.resolve("schemas"));
+        Files.writeString(workspace.resolve("schemas/order.xsd"), """
+                <xs:schema xmlns:xs="http://www.w3.org/2001/XMLSchema" targetNamespace="urn:order"/>""");
+        Files.writeString(workspace.resolve("order.xml"), """
+                <o:order xmlns:o="urn:order" xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                         xsi:schemaLocation="urn:order schemas/order.xsd"/>""");
+        Files.writeString(workspace.resolve("style.xml"), """
+                <xsl:stylesheet xmlns:xsl="http://www.w3.org/1999/XSL/Transform" version="3.0"/>""");
+        Files.writeString(workspace.resolve("broken.xml"), "<unclosed");
+        Files.writeString(workspace.resolve("data.json"), "{}");
+
+        index = start(false);
+
+        assertEquals(5, index.size());
+        WorkspaceIndex.Entry order = index.get(workspace.resolve("order.xml")).orElseThrow();
+        assertEquals(WorkspaceIndex.FileKind.XML, order.kind());
+        assertEquals("order", order.rootElement());
+        assertEquals("urn:order", order.namespace());
+        assertEquals("urn:order schemas/order.xsd", order.schemaLocation());
+
+        WorkspaceIndex.Entry schema = index.get(workspace.resolve("schemas/order.xsd")).orElseThrow();
+        assertEquals(WorkspaceIndex.FileKind.XSD, schema.kind());
+        assertEquals("urn:order", schema.targetNamespace());
+        assertEquals(List.of(schema), index.schemasForNamespace("urn:order"));
+
+        assertEquals(WorkspaceIndex.FileKind.XSLT, index.get(workspace.resolve("style.xml")).orElseThrow().kind(),
+                "the root element refines the kind");
+        WorkspaceIndex.Entry broken = index.get(workspace.resolve("broken.xml")).orElseThrow();
+        assertNull(broken.rootElement(), "malformed files are catalogued by name only");
+        assertEquals(WorkspaceIndex.FileKind.JSON, index.get(workspace.resolve("data.json")).orElseThrow().kind());
+    }
+
+    @Test
+    @DisplayName("Lists folders and files under a folder from memory")
+    void listsChildrenAndEntries() throws Exception {
+        Files.createDirectories(workspace.resolve("a/b"));
+        Files.writeString(workspace.resolve("a/one.xml"), "<one/>");
+        Files.writeString(workspace.resolve("a/b/two.xml"), "<two/>");
+        Files.writeString(workspace.resolve("top.xml"), "<top/>");
+
+        index = start(false);
+
+        assertTrue(index.isDirectory(workspace.resolve("a")));
+        assertEquals(2, index.listChildren(workspace.resolve("a")).size());
+        assertEquals(List.of(workspace.resolve("a/b/two.xml"), workspace.resolve("a/one.xml")),
+                index.entriesUnder(workspace.resolve("a")).stream().map(WorkspaceIndex.Entry::path).toList());
+        assertNull(index.listChildren(workspace.resolve("top.xml")), "files have no listing");
+    }
+
+    @Test
+    @DisplayName("Polling picks up created, changed and deleted files")
+    void pollingFollowsChanges() throws Exception {
+        Path file = workspace.resolve("doc.xml");
+        Files.writeString(file, "<first/>");
+        index = start(true);
+        assertTrue(index.isPolling());
+
+        Files.writeString(workspace.resolve("added.xml"), "<added/>");
+        Files.writeString(file, "<second xmlns='urn:x'/>");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 5_000));
+        await(() -> index.get(workspace.resolve("added.xml")).isPresent()
+                && "second".equals(index.get(file).map(WorkspaceIndex.Entry::rootElement).orElse(null)));
+
+        Files.delete(file);
+        await(() -> index.get(file).isEmpty());
+        assertFalse(index.listChildren(workspace).contains(file));
+    }
+
+    @Test
+    @DisplayName("Watching picks up created and deleted files")
+    void watchingFollowsChanges() throws Exception {
+        assumeTrue(System.getProperty("os.name").toLowerCase().contains("linux"),
+                "native file-system events; other platforms poll the watch service slowly");
+        index = start(false);
+        assumeFalse(index.isPolling(), "file store cannot be watched");
+
+        Path added = workspace.resolve("added.xml");
+        Files.writeString(added, "<added/>");
+        await(() -> index.get(added).isPresent());
+
+        Files.delete(added);
+        await(() -> index.get(added).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Files reached through a symbolic link are catalogued, linked folders are not walked")
+    void followsLinkedFiles() throws Exception {
+        Path outside = Files.createDirectories(stateDir.resolve("outside"));
+        Files.writeString(outside.resolve("shared.xsd"), "<schema/>");
+        Path linkedFile = workspace.resolve("shared.xsd");
+        Path linkedFolder = workspace.resolve("linked");
+        try {
+            Files.createSymbolicLink(linkedFile, outside.resolve("shared.xsd"));
+            Files.createSymbolicLink(linkedFolder, outside);
+        } catch (UnsupportedOperationException | IOException e) {
+            assumeTrue(false, "symbolic links not supported: " + e.getMessage());
+        }
+
+        index = start(false);
+
+        assertEquals(WorkspaceIndex.FileKind.XSD, index.get(linkedFile).orElseThrow().kind());
+        assertTrue(index.listChildren(workspace).contains(linkedFile));
+        assertTrue(index.get(linkedFolder.resolve("shared.xsd")).isEmpty());
+
+        index.rescan().get(10, TimeUnit.SECONDS);
+        assertTrue(index.get(linkedFile).isPresent(), "a rescan keeps the linked file");
+    }
+
+    @Test
+    @DisplayName("Rescan reflects the disk")
+    void rescanReflectsDisk() throws Exception {
+        index = start(false);
+        Files.createDirectories(workspace.resolve("new"));
+        Files.writeString(workspace.resolve("new/late.xsd"), "<schema/>");
+
+        index.rescan().get(10, TimeUnit.SECONDS);
+
+        assertTrue(index.get(workspace.resolve("new/late.xsd")).isPresent());
+        assertTrue(index.listChildren(workspace).contains(workspace.resolve("new")));
+    }
+
+    @Test
+    @DisplayName("The persisted catalogue spares re-reading unchanged files")
+    void reusesPersistedCatalogue() throws Exception {
+        Path file = workspace.resolve("doc.xml");
+        Files.writeString(file, "<alpha/>");
+        FileTime time = Files.getLastModifiedTime(file);
+        index = start(false);
+        index.close();
+        index.terminated().get(10, TimeUnit.SECONDS);
+        WriteBehindStore.getInstance().flush();
+        assertTrue(Files.isRegularFile(stateDir.resolve("catalogue.json")), "closing writes the catalogue");
+
+        // same size and time, different content: only a re-read would notice
+        Files.writeString(file, "<omega/>");
+        Files.setLastModifiedTime(file, time);
+        index = start(false);
+
+        assertEquals("alpha", index.get(file).orElseThrow().rootElement());
+    }
+
+    @Test
+    @DisplayName("Sniffs the root element of an editor buffer")
+    void sniffsRootOfContent() {
+        WorkspaceIndex.RootInfo info = WorkspaceIndex.sniffRoot("""
+                <?xml version="1.0"?>
+                <!-- leading comment -->
+                <r xmlns="urn:r" xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+                   xsi:noNamespaceSchemaLocation="r.xsd"><child/></r>""").orElseThrow();
+        assertEquals("r", info.localName());
+        assertEquals("urn:r", info.namespace());
+        assertEquals("r.xsd", info.schemaLocation());
+        assertTrue(WorkspaceIndex.sniffRoot("not xml").isEmpty());
+    }
+}
@@ -0,0 +1,120 @@
+package org.fxt.freexmltoolkit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@DisplayName("WriteBehindStore Tests")
+class WriteBehindStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private WriteBehindStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new WriteBehindStore();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    @DisplayName("Coalesces repeated writes to one file")
+    void coalescesWrites() throws IOException {
+        Path file = tempDir.resolve("settings.properties");
+        AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 100; i++) {
+            String content = "value=" + i;
+            store.schedule(file, () -> {
+                calls.incrementAndGet();
+                return content.getBytes(StandardCharsets.UTF_8);
+            }, Duration.ofMinutes(1));
+        }
+        assertFalse(Files.exists(file), "nothing is written before the file is due");
+        assertTrue(store.isPending(file));
+
+        store.flush();
+
+        assertEquals("value=99", Files.readString(file));
+        assertEquals(1, calls.get(), "only the latest content is produced");
+        assertFalse(store.isPending(file));
+    }
+
+    @Test
+    @DisplayName("Writes in the background once due, together with other pending files")
+    void flushesInBackground() throws Exception {
+        Path soon = tempDir.resolve("soon.json");
+        Path later = tempDir.resolve("later.json");
+        store.schedule(later, () -> "later".getBytes(StandardCharsets.UTF_8), Duration.ofMinutes(10));
+        store.schedule(soon, () -> "soon".getBytes(StandardCharsets.UTF_8), Duration.ofMillis(20));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Files.exists(soon) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        while (store.isPending(later) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals("soon", Files.readString(soon));
+        assertEquals("later", Files.readString(later), "files pending at flush time are written in the same batch");
+    }
+
+    @Test
+    @DisplayName("Replaces files atomically without leaving temporary files")
+    void replacesAtomically() throws IOException {
+        Path file = tempDir.resolve("nested").resolve("favorites.json");
+        store.schedule(file, "[1]");
+        store.flush();
+        store.schedule(file, "[1, 2]");
+        store.flush();
+
+        assertEquals("[1, 2]", Files.readString(file));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    @DisplayName("A failing file does not prevent the others from being written")
+    void failuresAreIsolated() throws IOException {
+        Path good = tempDir.resolve("good.txt");
+        store.schedule(tempDir.resolve("bad.txt"), () -> {
+            throw new IllegalStateException("broken snapshot");
+        });
+        store.schedule(good, "ok");
+
+        store.flush();
+
+        assertEquals("ok", Files.readString(good));
+    }
+
+    @Test
+    @DisplayName("Shutdown flushes pending writes and later writes go straight to disk")
+    void shutdownFlushes() throws IOException {
+        Path file = tempDir.resolve("state.json");
+        store.schedule(file, () -> "before".getBytes(StandardCharsets.UTF_8), Duration.ofHours(1));
+
+        store.shutdown();
+        assertEquals("before", Files.readString(file));
+
+        store.schedule(file, "after");
+        assertEquals("after", Files.readString(file));
+    }
+}
@@ -0,0 +1,93 @@
+package org.fxt.freexmltoolkit.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Verifies the incremental documentation build: a second run over an unchanged schema renders no
+ * pages, an edit re-renders only the affected pages, and the manifest with the timing summary is
+ * written into the output directory.
+ */
+class XsdDocumentationIncrementalBuildTest {
+
+    private static final Path XSD = Path.of("src/test/resources/purchageOrder.xsd");
+
+    private XsdDocumentationManifest.BuildSummary build(Path xsd, Path outputDir) throws Exception {
+        XsdDocumentationService service = new XsdDocumentationService();
+        service.setXsdFilePath(xsd.toString());
+        service.setIncrementalBuild(true);
+        service.generateXsdDocumentation(outputDir.toFile());
+        return service.getLastBuildSummary();
+    }
+
+    @Test
+    void firstBuildRendersEverythingAndWritesManifest(@TempDir Path tmp) throws Exception {
+        Path xsd = Files.copy(XSD, tmp.resolve("po.xsd"));
+        Path out = tmp.resolve("doc");
+
+        XsdDocumentationManifest.BuildSummary summary = build(xsd, out);
+
+        assertFalse(summary.incremental());
+        assertTrue(summary.renderedPages() > 0);
+        assertEquals(0, summary.skippedPages());
+        assertFalse(summary.phaseMillis().isEmpty(), "phase timings must be reported");
+        assertTrue(Files.exists(out.resolve(XsdDocumentationManifest.MANIFEST_FILE_NAME)));
+        assertTrue(Files.exists(out.resolve("index.html")));
+    }
+
+    @Test
+    void unchangedSchemaRendersNoPages(@TempDir Path tmp) throws Exception {
+        Path xsd = Files.copy(XSD, tmp.resolve("po.xsd"));
+        Path out = tmp.resolve("doc");
+
+        XsdDocumentationManifest.BuildSummary first = build(xsd, out);
+        XsdDocumentationManifest.BuildSummary second = build(xsd, out);
+
+        assertTrue(second.incremental());
+        assertEquals(0, second.renderedPages());
+        assertEquals(first.renderedPages(), second.skippedPages());
+        assertTrue(Files.exists(out.resolve("index.html")), "previous pages must be kept");
+    }
+
+    @Test
+    void editRerendersOnlyAffectedPages(@TempDir Path tmp) throws Exception {
+        Path xsd = Files.copy(XSD, tmp.resolve("po.xsd"));
+        Path out = tmp.resolve("doc");
+        XsdDocumentationManifest.BuildSummary first = build(xsd, out);
+
+        String content = Files.readString(xsd, StandardCharsets.UTF_8);
+        Files.writeString(xsd, content.replace(
+                "<xsd:element name=\"BillTo\" type=\"Address\"/>",
+                "<xsd:element name=\"BillTo\" type=\"Address\" maxOccurs=\"3\"/>"), StandardCharsets.UTF_8);
+        XsdDocumentationManifest.BuildSummary second = build(xsd, out);
+
+        assertTrue(second.renderedPages() > 0, "the edited element must be re-rendered");
+        assertTrue(second.renderedPages() < first.renderedPages(), "unaffected pages must be skipped");
+    }
+
+    @Test
+    void deletedPageIsRegenerated(@TempDir Path tmp) throws Exception {
+        Path xsd = Files.copy(XSD, tmp.resolve("po.xsd"));
+        Path out = tmp.resolve("doc");
+        build(xsd, out);
+
+        XsdDocumentationManifest manifest = XsdDocumentationManifest.load(out);
+        assertNotNull(manifest);
+        String page = manifest.getPages().keySet().stream()
+                .filter(p -> p.startsWith("details/"))
+                .findFirst()
+                .orElseThrow();
+        Files.delete(out.resolve(page));
+
+        XsdDocumentationManifest.BuildSummary second = build(xsd, out);
+
+        assertEquals(1, second.renderedPages());
+        assertTrue(Files.exists(out.resolve(page)));
+    }
+}
@@ -184,6 +184,20 @@ class XsdDocumentationPdfServiceTest {
         assertTrue(outputFile.length() > 5000, "Large PDF should have reasonable size");
     }
 
+    @Test
+    void testGeneratePdfDocumentation_ReportsSectionTimings() throws Exception {
+        // Given
+        File outputFile = tempDir.resolve("timings.pdf").toFile();
+
+        // When
+        pdfService.generatePdfDocumentation(outputFile, testData);
+
+        // Then
+        Map<String, Long> timings = pdfService.getSectionTimings();
+        assertTrue(timings.containsKey("Data dictionary"), "Data dictionary timing should be reported");
+        assertTrue(timings.containsKey("Rendering"), "Rendering timing should be reported");
+    }
+
     @Test
     void testGeneratePdfDocumentation_SpecialCharacters() throws Exception {
         // Given
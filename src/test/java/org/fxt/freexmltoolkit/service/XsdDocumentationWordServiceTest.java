@@ -158,6 +158,38 @@ class XsdDocumentationWordServiceTest {
         assertTrue(outputFile.exists(), "Output file should exist in nested directory");
     }
 
+    @Test
+    void testGenerateWordDocumentation_StreamsLargeDataDictionary() throws Exception {
+        // Given
+        File outputFile = tempDir.resolve("large-dict.docx").toFile();
+        Map<String, XsdExtendedElement> largeMap = new LinkedHashMap<>();
+        for (int i = 0; i < 1200; i++) {
+            XsdExtendedElement element = new XsdExtendedElement();
+            element.setElementName("Element" + i);
+            element.setElementType("xs:string");
+            element.setCurrentXpath("/Root/Element" + i);
+            element.setLevel(1);
+            largeMap.put("/Root/Element" + i, element);
+        }
+        testData.setExtendedXsdElementMap(largeMap);
+
+        // When
+        wordService.generateWordDocumentation(outputFile, testData);
+
+        // Then
+        try (FileInputStream fis = new FileInputStream(outputFile);
+             XWPFDocument doc = new XWPFDocument(fis)) {
+            boolean hasDictionary = doc.getTables().stream()
+                    .anyMatch(table -> table.getNumberOfRows() == largeMap.size() + 1
+                            && "Element Path".equals(table.getRow(0).getCell(0).getText()));
+            assertTrue(hasDictionary, "Data dictionary should contain a header row and one row per element");
+            assertTrue(doc.getParagraphs().stream().noneMatch(p -> p.getText().startsWith("fxt-streamed-section:")),
+                    "Placeholders must be replaced");
+        }
+        assertTrue(wordService.getSectionTimings().containsKey("Data Dictionary"),
+                "Data dictionary timing should be reported");
+    }
+
     /**
      * Creates test documentation data for testing.
      */